@@ -267,6 +267,19 @@ public final class Array1D<N extends Number> extends AbstractList<N> implements
 
             return new Array1D<N>(retVal);
 
+        } else if (myDelegate instanceof SplitComplexArray) {
+
+            final SplitComplexArray tmpDelegate = (SplitComplexArray) myDelegate;
+            final SplitComplexArray tmpCopy = new SplitComplexArray((int) length);
+
+            for (int i = 0; i < length; i++) {
+                final int tmpIndex = (int) (myFirst + (myStep * i));
+                tmpCopy.real[i] = tmpDelegate.real[tmpIndex];
+                tmpCopy.imaginary[i] = tmpDelegate.imaginary[tmpIndex];
+            }
+
+            return new Array1D<N>((BasicArray<N>) tmpCopy);
+
         } else if (myDelegate instanceof BigArray) {
 
             retVal = (BasicArray<N>) new BigArray((int) length);
@@ -313,6 +326,19 @@ public final class Array1D<N extends Number> extends AbstractList<N> implements
 
             return new Array1D<N>(retVal);
 
+        } else if (myDelegate instanceof SplitComplexArray) {
+
+            final SplitComplexArray tmpDelegate = (SplitComplexArray) myDelegate;
+            final SplitComplexArray tmpCopy = new SplitComplexArray(tmpLength);
+
+            for (int i = 0; i < tmpLength; i++) {
+                final int tmpIndex = (int) (myFirst + (myStep * indices[i]));
+                tmpCopy.real[i] = tmpDelegate.real[tmpIndex];
+                tmpCopy.imaginary[i] = tmpDelegate.imaginary[tmpIndex];
+            }
+
+            return new Array1D<N>((BasicArray<N>) tmpCopy);
+
         } else if (myDelegate instanceof BigArray) {
 
             retVal = (BasicArray<N>) new BigArray(tmpLength);
@@ -0,0 +1,439 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.ParameterFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.machine.JavaType;
+import org.ojalgo.scalar.BigScalar;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.TypeUtils;
+
+/**
+ * A one- and/or arbitrary-dimensional array of {@linkplain java.math.BigDecimal}, but with each element
+ * stored as an unevaluated sum of two doubles, {@linkplain #high} + {@linkplain #low}, where |low| is at most
+ * half an ulp of high ("double-double"). That gives roughly 106 bits (32 decimal digits) of precision with
+ * primitive storage. {@linkplain BigDecimal} instances are only created when accessed through the
+ * {@linkplain Number} based API.
+ *
+ * @author apete
+ */
+public class DoubleDoubleArray extends DenseArray<BigDecimal> {
+
+    static final long ELEMENT_SIZE = JavaType.DOUBLE.memory() + JavaType.DOUBLE.memory();
+
+    static final DenseFactory<BigDecimal> FACTORY = new DenseFactory<BigDecimal>() {
+
+        @Override
+        long getElementSize() {
+            return ELEMENT_SIZE;
+        }
+
+        @Override
+        DenseArray<BigDecimal> make(final int size) {
+            return DoubleDoubleArray.make(size);
+        }
+
+        @Override
+        Scalar<BigDecimal> zero() {
+            return BigScalar.ZERO;
+        }
+
+    };
+
+    public static final DoubleDoubleArray make(final int size) {
+        return new DoubleDoubleArray(size);
+    }
+
+    public static final SegmentedArray<BigDecimal> makeSegmented(final long count) {
+        return SegmentedArray.make(FACTORY, count);
+    }
+
+    public static final DoubleDoubleArray wrap(final double[] high, final double[] low) {
+        return new DoubleDoubleArray(high, low);
+    }
+
+    /**
+     * The exact value of high + low rounded to {@linkplain MathContext#DECIMAL128} - slightly more digits than
+     * a double-double actually has.
+     */
+    protected static BigDecimal toBigDecimal(final double high, final double low) {
+        if (low == ZERO) {
+            return new BigDecimal(high, MathContext.DECIMAL128);
+        } else {
+            return new BigDecimal(high).add(new BigDecimal(low), MathContext.DECIMAL128);
+        }
+    }
+
+    /**
+     * @param value The number to split
+     * @param high value.doubleValue()
+     * @return The low part, i.e. what remains of value when high is subtracted (rounded to a double)
+     */
+    protected static double toLow(final BigDecimal value, final double high) {
+        if (Double.isInfinite(high)) {
+            return ZERO;
+        } else {
+            return value.subtract(new BigDecimal(high)).doubleValue();
+        }
+    }
+
+    public final double[] high;
+    public final double[] low;
+
+    protected DoubleDoubleArray(final double[] high, final double[] low) {
+
+        super();
+
+        this.high = high;
+        this.low = low;
+    }
+
+    protected DoubleDoubleArray(final int size) {
+
+        super();
+
+        high = new double[size];
+        low = new double[size];
+    }
+
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof DoubleDoubleArray) {
+            return Arrays.equals(high, ((DoubleDoubleArray) anObj).high) && Arrays.equals(low, ((DoubleDoubleArray) anObj).low);
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * Arrays.hashCode(high)) + Arrays.hashCode(low);
+    }
+
+    public Spliterator<BigDecimal> spliterator() {
+        return Spliterators.spliterator(this.iterator(), high.length, DenseArray.CHARACTERISTICS);
+    }
+
+    protected final double[] copyOfHigh() {
+        return ArrayUtils.copyOf(high);
+    }
+
+    protected final double[] copyOfLow() {
+        return ArrayUtils.copyOf(low);
+    }
+
+    @Override
+    protected final double doubleValue(final int index) {
+        return high[index];
+    }
+
+    @Override
+    protected final void exchange(final int firstA, final int firstB, final int step, final int count) {
+
+        int tmpIndexA = firstA;
+        int tmpIndexB = firstB;
+
+        double tmpVal;
+
+        for (int i = 0; i < count; i++) {
+
+            tmpVal = high[tmpIndexA];
+            high[tmpIndexA] = high[tmpIndexB];
+            high[tmpIndexB] = tmpVal;
+
+            tmpVal = low[tmpIndexA];
+            low[tmpIndexA] = low[tmpIndexB];
+            low[tmpIndexB] = tmpVal;
+
+            tmpIndexA += step;
+            tmpIndexB += step;
+        }
+    }
+
+    protected void fill(final Access1D<?> values) {
+        final int tmpLimit = (int) Math.min(high.length, values.count());
+        for (int i = 0; i < tmpLimit; i++) {
+            this.set(i, values.get(i));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<BigDecimal> left, final BinaryFunction<BigDecimal> function,
+            final Access1D<BigDecimal> right) {
+        for (int i = first; i < limit; i++) {
+            this.set(i, function.invoke(left.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<BigDecimal> left, final BinaryFunction<BigDecimal> function,
+            final BigDecimal right) {
+        for (int i = first; i < limit; i++) {
+            this.set(i, function.invoke(left.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final BigDecimal left, final BinaryFunction<BigDecimal> function,
+            final Access1D<BigDecimal> right) {
+        for (int i = first; i < limit; i++) {
+            this.set(i, function.invoke(left, right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final BigDecimal value) {
+        final double tmpHigh = value.doubleValue();
+        final double tmpLow = DoubleDoubleArray.toLow(value, tmpHigh);
+        for (int i = first; i < limit; i += step) {
+            high[i] = tmpHigh;
+            low[i] = tmpLow;
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final NullaryFunction<BigDecimal> supplier) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, supplier.invoke());
+        }
+    }
+
+    @Override
+    protected final BigDecimal get(final int index) {
+        return DoubleDoubleArray.toBigDecimal(high[index], low[index]);
+    }
+
+    @Override
+    protected final int indexOfLargest(final int first, final int limit, final int step) {
+
+        int retVal = first;
+        double tmpLargestHigh = ZERO;
+        double tmpLargestLow = ZERO;
+        double tmpHigh;
+        double tmpLow;
+
+        for (int i = first; i < limit; i += step) {
+            tmpHigh = high[i];
+            tmpLow = low[i];
+            if (tmpHigh < ZERO) {
+                tmpHigh = -tmpHigh;
+                tmpLow = -tmpLow;
+            }
+            if ((tmpHigh > tmpLargestHigh) || ((tmpHigh == tmpLargestHigh) && (tmpLow > tmpLargestLow))) {
+                tmpLargestHigh = tmpHigh;
+                tmpLargestLow = tmpLow;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected boolean isAbsolute(final int index) {
+        return (high[index] > ZERO) || ((high[index] == ZERO) && (low[index] >= ZERO));
+    }
+
+    @Override
+    protected boolean isSmall(final int index, final double comparedTo) {
+        return BigScalar.isSmall(comparedTo, this.get(index));
+    }
+
+    @Override
+    protected void modify(final int index, final Access1D<BigDecimal> left, final BinaryFunction<BigDecimal> function) {
+        this.set(index, function.invoke(left.get(index), this.get(index)));
+    }
+
+    @Override
+    protected void modify(final int index, final BinaryFunction<BigDecimal> function, final Access1D<BigDecimal> right) {
+        this.set(index, function.invoke(this.get(index), right.get(index)));
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final Access1D<BigDecimal> left,
+            final BinaryFunction<BigDecimal> function) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BigDecimal left, final BinaryFunction<BigDecimal> function) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(left, this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<BigDecimal> function,
+            final Access1D<BigDecimal> right) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<BigDecimal> function, final BigDecimal right) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ParameterFunction<BigDecimal> function, final int parameter) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i), parameter));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final UnaryFunction<BigDecimal> function) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i)));
+        }
+    }
+
+    @Override
+    protected void modify(final int index, final UnaryFunction<BigDecimal> function) {
+        this.set(index, function.invoke(this.get(index)));
+    }
+
+    @Override
+    protected void modifyOne(final int index, final UnaryFunction<BigDecimal> function) {
+        this.set(index, function.invoke(this.get(index)));
+    }
+
+    /**
+     * @see org.ojalgo.array.BasicArray#searchAscending(java.lang.Number)
+     */
+    @Override
+    protected final int searchAscending(final BigDecimal number) {
+
+        final double tmpHigh = number.doubleValue();
+        final double tmpLow = DoubleDoubleArray.toLow(number, tmpHigh);
+
+        int tmpFirst = 0;
+        int tmpLast = high.length - 1;
+
+        while (tmpFirst <= tmpLast) {
+
+            final int tmpMiddle = (tmpFirst + tmpLast) >>> 1;
+
+            int tmpComparison = Double.compare(high[tmpMiddle], tmpHigh);
+            if (tmpComparison == 0) {
+                tmpComparison = Double.compare(low[tmpMiddle], tmpLow);
+            }
+
+            if (tmpComparison < 0) {
+                tmpFirst = tmpMiddle + 1;
+            } else if (tmpComparison > 0) {
+                tmpLast = tmpMiddle - 1;
+            } else {
+                return tmpMiddle;
+            }
+        }
+
+        return -(tmpFirst + 1);
+    }
+
+    @Override
+    protected final void set(final int index, final double value) {
+        high[index] = value;
+        low[index] = ZERO;
+    }
+
+    @Override
+    protected final void set(final int index, final Number value) {
+        if ((value instanceof Double) || (value instanceof Float) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte)) {
+            high[index] = value.doubleValue();
+            low[index] = ZERO;
+        } else {
+            final BigDecimal tmpValue = TypeUtils.toBigDecimal(value);
+            final double tmpHigh = tmpValue.doubleValue();
+            high[index] = tmpHigh;
+            low[index] = DoubleDoubleArray.toLow(tmpValue, tmpHigh);
+        }
+    }
+
+    @Override
+    protected int size() {
+        return high.length;
+    }
+
+    @Override
+    protected final void sortAscending() {
+
+        final int tmpLength = high.length;
+
+        final BigDecimal[] tmpValues = new BigDecimal[tmpLength];
+        for (int i = 0; i < tmpLength; i++) {
+            tmpValues[i] = this.get(i);
+        }
+
+        Arrays.sort(tmpValues);
+
+        for (int i = 0; i < tmpLength; i++) {
+            this.set(i, tmpValues[i]);
+        }
+    }
+
+    @Override
+    protected final Scalar<BigDecimal> toScalar(final long index) {
+        return new BigScalar(this.get((int) index));
+    }
+
+    @Override
+    protected final void visit(final int first, final int limit, final int step, final VoidFunction<BigDecimal> visitor) {
+        for (int i = first; i < limit; i += step) {
+            visitor.invoke(this.get(i));
+        }
+    }
+
+    @Override
+    protected final void visit(final int index, final VoidFunction<BigDecimal> visitor) {
+        visitor.invoke(this.get(index));
+    }
+
+    @Override
+    boolean isPrimitive() {
+        return false;
+    }
+
+    @Override
+    DenseArray<BigDecimal> newInstance(final int capacity) {
+        return new DoubleDoubleArray(capacity);
+    }
+
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.ParameterFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.machine.JavaType;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.TypeUtils;
+
+/**
+ * A one- and/or arbitrary-dimensional array of {@linkplain org.ojalgo.scalar.ComplexNumber}, but with the
+ * real and imaginary parts stored in two separate double[]. No {@linkplain ComplexNumber} instances are
+ * stored - they are only created when accessed through the {@linkplain Number} based API. Code that works
+ * directly with {@linkplain #real} and {@linkplain #imaginary} does not allocate anything.
+ *
+ * @author apete
+ */
+public class SplitComplexArray extends DenseArray<ComplexNumber> {
+
+    static final long ELEMENT_SIZE = JavaType.DOUBLE.memory() + JavaType.DOUBLE.memory();
+
+    static final DenseFactory<ComplexNumber> FACTORY = new DenseFactory<ComplexNumber>() {
+
+        @Override
+        long getElementSize() {
+            return ELEMENT_SIZE;
+        }
+
+        @Override
+        DenseArray<ComplexNumber> make(final int size) {
+            return SplitComplexArray.make(size);
+        }
+
+        @Override
+        Scalar<ComplexNumber> zero() {
+            return ComplexNumber.ZERO;
+        }
+
+    };
+
+    public static final SplitComplexArray make(final int size) {
+        return new SplitComplexArray(size);
+    }
+
+    public static final SegmentedArray<ComplexNumber> makeSegmented(final long count) {
+        return SegmentedArray.make(FACTORY, count);
+    }
+
+    public static final SplitComplexArray wrap(final double[] real, final double[] imaginary) {
+        return new SplitComplexArray(real, imaginary);
+    }
+
+    public final double[] imaginary;
+    public final double[] real;
+
+    protected SplitComplexArray(final double[] real, final double[] imaginary) {
+
+        super();
+
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    protected SplitComplexArray(final int size) {
+
+        super();
+
+        real = new double[size];
+        imaginary = new double[size];
+    }
+
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof SplitComplexArray) {
+            return Arrays.equals(real, ((SplitComplexArray) anObj).real) && Arrays.equals(imaginary, ((SplitComplexArray) anObj).imaginary);
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * Arrays.hashCode(real)) + Arrays.hashCode(imaginary);
+    }
+
+    public Spliterator<ComplexNumber> spliterator() {
+        return Spliterators.spliterator(this.iterator(), real.length, DenseArray.CHARACTERISTICS);
+    }
+
+    protected final double[] copyOfImaginary() {
+        return ArrayUtils.copyOf(imaginary);
+    }
+
+    protected final double[] copyOfReal() {
+        return ArrayUtils.copyOf(real);
+    }
+
+    @Override
+    protected final double doubleValue(final int index) {
+        return real[index];
+    }
+
+    @Override
+    protected final void exchange(final int firstA, final int firstB, final int step, final int count) {
+
+        int tmpIndexA = firstA;
+        int tmpIndexB = firstB;
+
+        double tmpVal;
+
+        for (int i = 0; i < count; i++) {
+
+            tmpVal = real[tmpIndexA];
+            real[tmpIndexA] = real[tmpIndexB];
+            real[tmpIndexB] = tmpVal;
+
+            tmpVal = imaginary[tmpIndexA];
+            imaginary[tmpIndexA] = imaginary[tmpIndexB];
+            imaginary[tmpIndexB] = tmpVal;
+
+            tmpIndexA += step;
+            tmpIndexB += step;
+        }
+    }
+
+    protected void fill(final Access1D<?> values) {
+        final int tmpLimit = (int) Math.min(real.length, values.count());
+        for (int i = 0; i < tmpLimit; i++) {
+            this.set(i, values.get(i));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.set(i, function.invoke(left.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function,
+            final ComplexNumber right) {
+        for (int i = first; i < limit; i++) {
+            this.set(i, function.invoke(left.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final ComplexNumber left, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.set(i, function.invoke(left, right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final ComplexNumber value) {
+        final double tmpReal = value.doubleValue();
+        final double tmpImaginary = value.i;
+        for (int i = first; i < limit; i += step) {
+            real[i] = tmpReal;
+            imaginary[i] = tmpImaginary;
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final NullaryFunction<ComplexNumber> supplier) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, supplier.invoke());
+        }
+    }
+
+    @Override
+    protected final ComplexNumber get(final int index) {
+        return new ComplexNumber(real[index], imaginary[index]);
+    }
+
+    @Override
+    protected final int indexOfLargest(final int first, final int limit, final int step) {
+
+        int retVal = first;
+        double tmpLargest = ZERO;
+        double tmpValue;
+
+        // Compare the squared moduli - no need for the (slow) hypot
+        for (int i = first; i < limit; i += step) {
+            tmpValue = (real[i] * real[i]) + (imaginary[i] * imaginary[i]);
+            if (tmpValue > tmpLargest) {
+                tmpLargest = tmpValue;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected boolean isAbsolute(final int index) {
+        return ComplexNumber.isAbsolute(this.get(index));
+    }
+
+    @Override
+    protected boolean isSmall(final int index, final double comparedTo) {
+        return ComplexNumber.isSmall(comparedTo, this.get(index));
+    }
+
+    @Override
+    protected void modify(final int index, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function) {
+        this.set(index, function.invoke(left.get(index), this.get(index)));
+    }
+
+    @Override
+    protected void modify(final int index, final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+        this.set(index, function.invoke(this.get(index), right.get(index)));
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final Access1D<ComplexNumber> left,
+            final BinaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<ComplexNumber> function, final ComplexNumber right) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ComplexNumber left, final BinaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(left, this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ParameterFunction<ComplexNumber> function, final int parameter) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i), parameter));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final UnaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.set(i, function.invoke(this.get(i)));
+        }
+    }
+
+    @Override
+    protected void modify(final int index, final UnaryFunction<ComplexNumber> function) {
+        this.set(index, function.invoke(this.get(index)));
+    }
+
+    @Override
+    protected void modifyOne(final int index, final UnaryFunction<ComplexNumber> function) {
+        this.set(index, function.invoke(this.get(index)));
+    }
+
+    /**
+     * @see org.ojalgo.array.BasicArray#searchAscending(java.lang.Number)
+     */
+    @Override
+    protected final int searchAscending(final ComplexNumber value) {
+
+        // Same contract, and order, as Arrays.binarySearch on a ComplexNumber[]
+        int tmpLow = 0;
+        int tmpHigh = real.length - 1;
+
+        while (tmpLow <= tmpHigh) {
+
+            final int tmpMid = (tmpLow + tmpHigh) >>> 1;
+            final int tmpComparison = this.get(tmpMid).compareTo(value);
+
+            if (tmpComparison < 0) {
+                tmpLow = tmpMid + 1;
+            } else if (tmpComparison > 0) {
+                tmpHigh = tmpMid - 1;
+            } else {
+                return tmpMid;
+            }
+        }
+
+        return -(tmpLow + 1);
+    }
+
+    @Override
+    protected final void set(final int index, final double value) {
+        real[index] = value;
+        imaginary[index] = ZERO;
+    }
+
+    @Override
+    protected final void set(final int index, final Number value) {
+        final ComplexNumber tmpValue = TypeUtils.toComplexNumber(value);
+        real[index] = tmpValue.doubleValue();
+        imaginary[index] = tmpValue.i;
+    }
+
+    @Override
+    protected int size() {
+        return real.length;
+    }
+
+    @Override
+    protected final void sortAscending() {
+
+        final int tmpLength = real.length;
+
+        final ComplexNumber[] tmpSorted = new ComplexNumber[tmpLength];
+        for (int i = 0; i < tmpLength; i++) {
+            tmpSorted[i] = this.get(i);
+        }
+
+        Arrays.sort(tmpSorted);
+
+        for (int i = 0; i < tmpLength; i++) {
+            real[i] = tmpSorted[i].doubleValue();
+            imaginary[i] = tmpSorted[i].i;
+        }
+    }
+
+    @Override
+    protected final ComplexNumber toScalar(final long index) {
+        return this.get((int) index);
+    }
+
+    @Override
+    protected final void visit(final int first, final int limit, final int step, final VoidFunction<ComplexNumber> visitor) {
+        for (int i = first; i < limit; i += step) {
+            visitor.invoke(this.get(i));
+        }
+    }
+
+    @Override
+    protected final void visit(final int index, final VoidFunction<ComplexNumber> visitor) {
+        visitor.invoke(this.get(index));
+    }
+
+    @Override
+    boolean isPrimitive() {
+        return false;
+    }
+
+    @Override
+    DenseArray<ComplexNumber> newInstance(final int capacity) {
+        return new SplitComplexArray(capacity);
+    }
+
+}
@@ -51,6 +51,17 @@ public final class DaemonPoolExecutor extends ThreadPoolExecutor {
         return INSTANCE.submit(task, result);
     }
 
+    /**
+     * A separate pool with a fixed (max) number of daemon threads, and an unbounded queue. Idle threads are
+     * terminated.
+     */
+    public static DaemonPoolExecutor makeFixed(final int threads) {
+        final DaemonPoolExecutor retVal = new DaemonPoolExecutor(threads, threads, 2L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                DaemonFactory.INSTANCE);
+        retVal.allowCoreThreadTimeOut(true);
+        return retVal;
+    }
+
     public static boolean isDaemonAvailable() {
         return INSTANCE.getActiveCount() < OjAlgoUtils.ENVIRONMENT.threads;
     }
@@ -232,13 +232,11 @@ public final class BlackLittermanModel extends EquilibriumModel {
         final BasicMatrix tmpViewReturns = this.getViewReturns();
         final BasicMatrix tmpViewVariances = this.getViewVariances();
 
-        final BasicMatrix tmpCovariances = this.getCovariances();
-
-        final BasicMatrix tmpRightParenthesis = tmpViewReturns.subtract(tmpViewPortfolios.multiply(tmpCovariances).multiply(myOriginalWeights));
+        final BasicMatrix tmpRightParenthesis = tmpViewReturns.subtract(tmpViewPortfolios.multiply(this.multiplyCovariances(myOriginalWeights)));
 
         final BasicMatrix tmpViewsTransposed = tmpViewPortfolios.transpose();
 
-        final BasicMatrix tmpLeftParenthesis = tmpViewVariances.add(tmpViewPortfolios.multiply(tmpCovariances).multiply(tmpViewsTransposed));
+        final BasicMatrix tmpLeftParenthesis = tmpViewVariances.add(tmpViewPortfolios.multiply(this.multiplyCovariances(tmpViewsTransposed)));
 
         return myOriginalWeights.add(tmpViewsTransposed.multiply(tmpLeftParenthesis.solve(tmpRightParenthesis)));
     }
@@ -338,9 +336,7 @@ public final class BlackLittermanModel extends EquilibriumModel {
 
     BigDecimal calculateVariance(final BasicMatrix aWeightsMtrx) {
 
-        BasicMatrix tmpVal = this.getCovariances();
-
-        tmpVal = tmpVal.multiply(aWeightsMtrx);
+        final BasicMatrix tmpVal = this.multiplyCovariances(aWeightsMtrx);
 
         return tmpVal.multiplyLeft(aWeightsMtrx.transpose()).toBigDecimal(0, 0);
     }
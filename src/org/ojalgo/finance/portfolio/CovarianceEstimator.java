@@ -0,0 +1,497 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.finance.portfolio;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Collection;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.PrimitiveMatrix;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.series.CalendarDateSeries;
+import org.ojalgo.series.CoordinationSet;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * <p>
+ * Incrementally updated covariance (and correlation) matrix estimator. Each new observation, one return per asset, is
+ * incorporated in O(n<sup>2</sup>) - there is no need to rebuild the matrix from the full return history.
+ * </p>
+ * <ul>
+ * <li>Rolling window: equally weighted over the most recent observations. Only the window's returns are kept, to be
+ * able to remove the oldest observation when a new one is added.</li>
+ * <li>Exponentially weighted: each observation's weight decays by a constant factor per new observation. No returns
+ * are kept.</li>
+ * </ul>
+ * <p>
+ * Optionally the covariances are shrunk towards a scaled identity matrix, with the (Ledoit-Wolf) optimal shrinkage
+ * intensity. That requires another two n-by-n accumulators (fourth moments) to be maintained.
+ * </p>
+ * <p>
+ * Fed with prices, the log returns are used - the same as {@link org.ojalgo.finance.FinanceUtils#makeCovarianceMatrix(Collection)}
+ * - and if a resolution is set the covariances are annualised the same way.
+ * </p>
+ *
+ * @author apete
+ */
+public final class CovarianceEstimator {
+
+    /**
+     * @param assets The number of assets
+     * @param decay The factor by which the weights of the previous observations are multiplied each time a new
+     *        observation is added, 0 &lt; decay &lt; 1 (typically 0.94 - 0.99 for daily returns)
+     * @param shrink Whether to apply Ledoit-Wolf shrinkage or not
+     */
+    public static CovarianceEstimator makeExponential(final int assets, final double decay, final boolean shrink) {
+
+        if ((decay <= ZERO) || (decay >= ONE)) {
+            throw new IllegalArgumentException("The decay factor must be between 0 and 1!");
+        }
+
+        return new CovarianceEstimator(assets, 0, decay, shrink);
+    }
+
+    /**
+     * @param assets The number of assets
+     * @param window The (maximum) number of observations
+     * @param shrink Whether to apply Ledoit-Wolf shrinkage or not
+     */
+    public static CovarianceEstimator makeRolling(final int assets, final int window, final boolean shrink) {
+
+        if (window < 2) {
+            throw new IllegalArgumentException("The window must be at least 2!");
+        }
+
+        return new CovarianceEstimator(assets, window, ONE, shrink);
+    }
+
+    private long myCount = 0L;
+    private final double myDecay;
+    private double[] myLastPrices = null;
+    /**
+     * Rolling window only: the window's observations, a circular buffer
+     */
+    private final double[][] myObservations;
+    private int myOldest = 0;
+    private CalendarDateUnit myResolution = null;
+    private final double[] mySum1;
+    /**
+     * Σ w x<sub>i</sub> x<sub>j</sub>
+     */
+    private final double[][] mySum11;
+    /**
+     * [j][i] = Σ w x<sub>i</sub><sup>2</sup> x<sub>j</sub> (only when shrinking)
+     */
+    private final double[][] mySum21;
+    /**
+     * Σ w x<sub>i</sub><sup>2</sup> x<sub>j</sub><sup>2</sup> (only when shrinking)
+     */
+    private final double[][] mySum22;
+    private double myWeight = ZERO;
+    private double myWeight2 = ZERO;
+
+    private CovarianceEstimator(final int assets, final int window, final double decay, final boolean shrink) {
+
+        super();
+
+        myDecay = decay;
+        myObservations = window > 0 ? new double[window][] : null;
+
+        mySum1 = new double[assets];
+        mySum11 = new double[assets][assets];
+        mySum21 = shrink ? new double[assets][assets] : null;
+        mySum22 = shrink ? new double[assets][assets] : null;
+    }
+
+    @SuppressWarnings("unused")
+    private CovarianceEstimator() {
+
+        this(0, 0, ONE, false);
+
+        ProgrammingError.throwForIllegalInvocation();
+    }
+
+    /**
+     * @return The total number of observations (not limited by the window size)
+     */
+    public long count() {
+        return myCount;
+    }
+
+    /**
+     * @return The number of assets
+     */
+    public int size() {
+        return mySum1.length;
+    }
+
+    public PrimitiveDenseStore getCorrelations() {
+
+        final PrimitiveDenseStore retVal = this.getCovariances();
+
+        final int tmpDim = this.size();
+
+        final double[] tmpVolatilities = new double[tmpDim];
+        for (int i = 0; i < tmpDim; i++) {
+            tmpVolatilities[i] = PrimitiveFunction.SQRT.invoke(retVal.doubleValue(i, i));
+        }
+
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = 0; i < tmpDim; i++) {
+                final double tmpDenominator = tmpVolatilities[i] * tmpVolatilities[j];
+                retVal.set(i, j, tmpDenominator > ZERO ? retVal.doubleValue(i, j) / tmpDenominator : (i == j ? ONE : ZERO));
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The (shrunk, if shrinkage was requested) covariance matrix - annualised if a resolution is set.
+     */
+    public PrimitiveDenseStore getCovariances() {
+
+        final int tmpDim = this.size();
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+
+        if (myWeight <= ZERO) {
+            return retVal;
+        }
+
+        final double[] tmpMean = this.getMean();
+
+        // Unbiased with respect to the weights, the same as dividing by (n-1) when equally weighted
+        final double tmpCorrection = myWeight / (myWeight - (myWeight2 / myWeight));
+        final double tmpScale = (Double.isInfinite(tmpCorrection) || Double.isNaN(tmpCorrection) ? ONE : tmpCorrection) * this.getAnnualisationFactor();
+
+        final double tmpShrinkage = this.getShrinkage();
+
+        double tmpTrace = ZERO;
+        for (int i = 0; i < tmpDim; i++) {
+            tmpTrace += (mySum11[i][i] / myWeight) - (tmpMean[i] * tmpMean[i]);
+        }
+        final double tmpTarget = tmpScale * (tmpTrace / tmpDim);
+
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = 0; i < tmpDim; i++) {
+                double tmpValue = tmpScale * ((mySum11[i][j] / myWeight) - (tmpMean[i] * tmpMean[j]));
+                if (tmpShrinkage > ZERO) {
+                    tmpValue = ((ONE - tmpShrinkage) * tmpValue) + (i == j ? tmpShrinkage * tmpTarget : ZERO);
+                }
+                retVal.set(i, j, tmpValue);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The Ledoit-Wolf shrinkage intensity, between 0 and 1, or 0 if shrinkage was not requested.
+     */
+    public double getShrinkage() {
+
+        if ((mySum22 == null) || (myWeight <= ZERO)) {
+            return ZERO;
+        }
+
+        final int tmpDim = this.size();
+        final double[] tmpMean = this.getMean();
+
+        double tmpTrace = ZERO;
+        for (int i = 0; i < tmpDim; i++) {
+            tmpTrace += (mySum11[i][i] / myWeight) - (tmpMean[i] * tmpMean[i]);
+        }
+        final double tmpTarget = tmpTrace / tmpDim;
+
+        double tmpDistance = ZERO; // ||S - mI||^2
+        double tmpDeviation = ZERO; // Σ w ||xx' - S||^2 with x centred
+        for (int j = 0; j < tmpDim; j++) {
+            final double tmpMeanJ = tmpMean[j];
+            for (int i = 0; i < tmpDim; i++) {
+
+                final double tmpMeanI = tmpMean[i];
+                final double tmpCovariance = (mySum11[i][j] / myWeight) - (tmpMeanI * tmpMeanJ);
+
+                final double tmpDiff = i == j ? tmpCovariance - tmpTarget : tmpCovariance;
+                tmpDistance += tmpDiff * tmpDiff;
+
+                // Σ w (x_i - m_i)^2 (x_j - m_j)^2 expanded in terms of the raw moment sums
+                double tmpFourth = mySum22[i][j];
+                tmpFourth -= TWO * tmpMeanJ * mySum21[j][i];
+                tmpFourth -= TWO * tmpMeanI * mySum21[i][j];
+                tmpFourth += tmpMeanJ * tmpMeanJ * mySum11[i][i];
+                tmpFourth += tmpMeanI * tmpMeanI * mySum11[j][j];
+                tmpFourth += FOUR * tmpMeanI * tmpMeanJ * mySum11[i][j];
+                tmpFourth -= TWO * tmpMeanI * tmpMeanJ * tmpMeanJ * mySum1[i];
+                tmpFourth -= TWO * tmpMeanI * tmpMeanI * tmpMeanJ * mySum1[j];
+                tmpFourth += myWeight * tmpMeanI * tmpMeanI * tmpMeanJ * tmpMeanJ;
+
+                tmpDeviation += tmpFourth - (myWeight * tmpCovariance * tmpCovariance);
+            }
+        }
+
+        if (tmpDistance <= ZERO) {
+            return ZERO;
+        }
+
+        // The squared error of the sample covariances, divided by the effective number of observations
+        final double tmpError = Math.max(ZERO, (tmpDeviation / myWeight) * (myWeight2 / (myWeight * myWeight)));
+
+        return Math.min(tmpError, tmpDistance) / tmpDistance;
+    }
+
+    /**
+     * Adds one observation - one return per asset.
+     */
+    public void put(final Access1D<?> returns) {
+
+        final double[] tmpReturns = new double[this.size()];
+        for (int i = 0; i < tmpReturns.length; i++) {
+            tmpReturns[i] = returns.doubleValue(i);
+        }
+
+        this.put(tmpReturns);
+    }
+
+    /**
+     * Adds one observation - one return per asset.
+     */
+    public void put(final double... returns) {
+
+        if (returns.length != this.size()) {
+            throw new IllegalArgumentException("Wrong dimensions!");
+        }
+
+        if (myObservations != null) {
+
+            final int tmpWindow = myObservations.length;
+
+            if (myCount < tmpWindow) {
+
+                myObservations[(int) myCount] = returns.clone();
+                this.accumulate(returns, ONE);
+
+            } else {
+
+                final double[] tmpOldest = myObservations[myOldest];
+                myObservations[myOldest] = returns.clone();
+                myOldest = (myOldest + 1) % tmpWindow;
+
+                if (myOldest == 0) {
+                    // Once per full window, rebuild from the window to stop rounding errors from accumulating
+                    this.clear();
+                    for (int o = 0; o < tmpWindow; o++) {
+                        this.accumulate(myObservations[o], ONE);
+                    }
+                } else {
+                    this.accumulate(tmpOldest, NEG);
+                    this.accumulate(returns, ONE);
+                }
+            }
+
+            myWeight2 = myWeight;
+
+        } else {
+
+            if (myCount > 0L) {
+                this.decay();
+            }
+            this.accumulate(returns, ONE);
+
+            myWeight2 += ONE;
+        }
+
+        myCount++;
+    }
+
+    /**
+     * Coordinates the price series (same dates and resolution), and adds the log returns for all dates after the first
+     * one. The resolution is set to that of the coordinated series, so the covariances will be annualised.
+     */
+    public <V extends Number> void putPrices(final Collection<CalendarDateSeries<V>> priceSeries) {
+
+        if (priceSeries.size() != this.size()) {
+            throw new IllegalArgumentException("Wrong dimensions!");
+        }
+
+        final CoordinationSet<V> tmpCoordinator = new CoordinationSet<V>(priceSeries).prune();
+
+        final double[][] tmpPrices = new double[this.size()][];
+        int tmpAsset = 0;
+        for (final CalendarDateSeries<V> tmpSeries : priceSeries) {
+            tmpPrices[tmpAsset++] = tmpCoordinator.get(tmpSeries.getName()).getPrimitiveValues();
+        }
+
+        this.setResolution(tmpCoordinator.getResolution());
+
+        final double[] tmpObservation = new double[this.size()];
+        for (int t = 0; t < tmpPrices[0].length; t++) {
+            for (int i = 0; i < tmpObservation.length; i++) {
+                tmpObservation[i] = tmpPrices[i][t];
+            }
+            this.putPrices(tmpObservation);
+        }
+    }
+
+    /**
+     * Adds one observation given as prices - the log returns relative to the previous prices are used. The first call
+     * only records the prices.
+     */
+    public void putPrices(final double... prices) {
+
+        if (prices.length != this.size()) {
+            throw new IllegalArgumentException("Wrong dimensions!");
+        }
+
+        if (myLastPrices != null) {
+            final double[] tmpReturns = new double[prices.length];
+            for (int i = 0; i < prices.length; i++) {
+                tmpReturns[i] = PrimitiveFunction.LOG.invoke(prices[i] / myLastPrices[i]);
+            }
+            this.put(tmpReturns);
+        }
+
+        myLastPrices = prices.clone();
+    }
+
+    public void reset() {
+
+        this.clear();
+
+        myCount = 0L;
+        myLastPrices = null;
+        myOldest = 0;
+        myWeight2 = ZERO;
+
+        if (myObservations != null) {
+            for (int o = 0; o < myObservations.length; o++) {
+                myObservations[o] = null;
+            }
+        }
+    }
+
+    /**
+     * If set, the covariances are annualised assuming the returns are for periods of this size. If null (the
+     * default) they are per period.
+     */
+    public void setResolution(final CalendarDateUnit resolution) {
+        myResolution = resolution;
+    }
+
+    public MarketEquilibrium toMarketEquilibrium(final String[] assetNamesOrKeys, final Number riskAversionFactor) {
+        return new MarketEquilibrium(assetNamesOrKeys, PrimitiveMatrix.FACTORY.copy(this.getCovariances()), riskAversionFactor);
+    }
+
+    private void accumulate(final double[] returns, final double weight) {
+
+        final int tmpDim = returns.length;
+
+        for (int j = 0; j < tmpDim; j++) {
+
+            final double tmpWeightedJ = weight * returns[j];
+            mySum1[j] += tmpWeightedJ;
+
+            final double[] tmpSum11 = mySum11[j];
+            for (int i = 0; i < tmpDim; i++) {
+                tmpSum11[i] += returns[i] * tmpWeightedJ;
+            }
+
+            if (mySum22 != null) {
+                final double[] tmpSum21 = mySum21[j];
+                final double[] tmpSum22 = mySum22[j];
+                final double tmpWeightedJ2 = tmpWeightedJ * returns[j];
+                for (int i = 0; i < tmpDim; i++) {
+                    final double tmpSquare = returns[i] * returns[i];
+                    tmpSum21[i] += tmpSquare * tmpWeightedJ;
+                    tmpSum22[i] += tmpSquare * tmpWeightedJ2;
+                }
+            }
+        }
+
+        myWeight += weight;
+    }
+
+    private void clear() {
+
+        final int tmpDim = this.size();
+
+        for (int j = 0; j < tmpDim; j++) {
+            mySum1[j] = ZERO;
+            for (int i = 0; i < tmpDim; i++) {
+                mySum11[j][i] = ZERO;
+            }
+            if (mySum22 != null) {
+                for (int i = 0; i < tmpDim; i++) {
+                    mySum21[j][i] = ZERO;
+                    mySum22[j][i] = ZERO;
+                }
+            }
+        }
+
+        myWeight = ZERO;
+    }
+
+    private void decay() {
+
+        final int tmpDim = this.size();
+
+        for (int j = 0; j < tmpDim; j++) {
+            mySum1[j] *= myDecay;
+            for (int i = 0; i < tmpDim; i++) {
+                mySum11[j][i] *= myDecay;
+            }
+            if (mySum22 != null) {
+                for (int i = 0; i < tmpDim; i++) {
+                    mySum21[j][i] *= myDecay;
+                    mySum22[j][i] *= myDecay;
+                }
+            }
+        }
+
+        myWeight *= myDecay;
+        myWeight2 *= myDecay * myDecay;
+    }
+
+    private double getAnnualisationFactor() {
+        if (myResolution != null) {
+            return (double) CalendarDateUnit.YEAR.size() / (double) myResolution.size();
+        } else {
+            return ONE;
+        }
+    }
+
+    private double[] getMean() {
+
+        final double[] retVal = new double[mySum1.length];
+
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = mySum1[i] / myWeight;
+        }
+
+        return retVal;
+    }
+
+}
@@ -226,8 +226,16 @@ abstract class EquilibriumModel extends FinancePortfolio implements FinancePortf
         myReturnVariance = null;
     }
 
+    final FactorCovariance getFactorCovariance() {
+        return myMarketEquilibrium.getFactorCovariance();
+    }
+
     final boolean isDefaultRiskAversion() {
         return myMarketEquilibrium.isDefaultRiskAversion();
     }
 
+    final BasicMatrix multiplyCovariances(final BasicMatrix right) {
+        return myMarketEquilibrium.multiplyCovariances(right);
+    }
+
 }
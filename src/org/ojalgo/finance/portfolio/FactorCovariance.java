@@ -0,0 +1,260 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.finance.portfolio;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import org.ojalgo.access.Access2D;
+import org.ojalgo.matrix.BasicMatrix;
+import org.ojalgo.matrix.PrimitiveMatrix;
+
+/**
+ * <p>
+ * A covariance matrix with factor model structure: [Σ] = [B][F][B]<sup>T</sup> + [D], where [B] are the asset
+ * factor loadings (exposures), [F] the factor covariances and [D] a diagonal matrix of asset specific variances.
+ * </p>
+ * <p>
+ * Multiplying with, and solving with, the covariance matrix is done without ever forming it - the work scales with
+ * the number of assets times the (square of the) number of factors. With many assets and few factors that is much less
+ * than the dense alternative. {@link MarketEquilibrium} and the models built on it ({@link MarkowitzModel},
+ * {@link BlackLittermanModel}...) use the structure whenever they are instantiated with a FactorCovariance.
+ * </p>
+ *
+ * @author apete
+ */
+public final class FactorCovariance {
+
+    private static BasicMatrix scaleRows(final double[] factors, final BasicMatrix matrix) {
+
+        final int tmpRowDim = (int) matrix.countRows();
+        final int tmpColDim = (int) matrix.countColumns();
+
+        final Access2D.Builder<PrimitiveMatrix> retVal = FinancePortfolio.MATRIX_FACTORY.getBuilder(tmpRowDim, tmpColDim);
+
+        for (int j = 0; j < tmpColDim; j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                retVal.set(i, j, factors[i] * matrix.doubleValue(i, j));
+            }
+        }
+
+        return retVal.build();
+    }
+
+    private transient BasicMatrix myCore = null;
+    private final BasicMatrix myFactorCovariances;
+    private final double[][] myFactorRows;
+    private transient double[] myInverseSpecificVariances = null;
+    private final BasicMatrix myLoadings;
+    private final double[][] myLoadingRows;
+    private final BasicMatrix myLoadingsTransposed;
+    private final double[] mySpecificVariances;
+
+    /**
+     * @param loadings The factor loadings [B] - one row per asset and one column per factor
+     * @param factorCovariances The factor covariances [F] - a (small) square matrix
+     * @param specificVariances The asset specific variances - the diagonal of [D]
+     */
+    public FactorCovariance(final BasicMatrix loadings, final BasicMatrix factorCovariances, final BasicMatrix specificVariances) {
+
+        super();
+
+        if ((loadings.countColumns() != factorCovariances.countRows()) || (factorCovariances.countRows() != factorCovariances.countColumns())
+                || (loadings.countRows() != specificVariances.count())) {
+            throw new IllegalArgumentException("Wrong dimensions!");
+        }
+
+        myLoadings = loadings;
+        myLoadingsTransposed = loadings.transpose();
+        myFactorCovariances = factorCovariances;
+
+        final int tmpAssets = (int) loadings.countRows();
+        final int tmpFactors = (int) factorCovariances.countRows();
+
+        myLoadingRows = new double[tmpAssets][tmpFactors];
+        for (int i = 0; i < tmpAssets; i++) {
+            for (int f = 0; f < tmpFactors; f++) {
+                myLoadingRows[i][f] = loadings.doubleValue(i, f);
+            }
+        }
+
+        myFactorRows = new double[tmpFactors][tmpFactors];
+        for (int f = 0; f < tmpFactors; f++) {
+            for (int g = 0; g < tmpFactors; g++) {
+                myFactorRows[f][g] = factorCovariances.doubleValue(f, g);
+            }
+        }
+
+        mySpecificVariances = new double[(int) specificVariances.count()];
+        for (int i = 0; i < mySpecificVariances.length; i++) {
+            mySpecificVariances[i] = specificVariances.doubleValue(i);
+        }
+    }
+
+    public int countAssets() {
+        return mySpecificVariances.length;
+    }
+
+    public int countFactors() {
+        return (int) myFactorCovariances.countRows();
+    }
+
+    public BasicMatrix getFactorCovariances() {
+        return myFactorCovariances;
+    }
+
+    public BasicMatrix getLoadings() {
+        return myLoadings;
+    }
+
+    public BasicMatrix getSpecificVariances() {
+        return FinancePortfolio.MATRIX_FACTORY.columns(mySpecificVariances);
+    }
+
+    /**
+     * @return [Σ][M] = [B]([F]([B]<sup>T</sup>[M])) + [D][M]
+     */
+    public BasicMatrix multiply(final BasicMatrix right) {
+        final BasicMatrix tmpSystematic = myLoadings.multiply(myFactorCovariances.multiply(myLoadingsTransposed.multiply(right)));
+        return tmpSystematic.add(FactorCovariance.scaleRows(mySpecificVariances, right));
+    }
+
+    /**
+     * Solves [Σ][X] = [M] using the Woodbury identity
+     * [Σ]<sup>-1</sup> = [D]<sup>-1</sup> - [D]<sup>-1</sup>[B]([I] + [F][B]<sup>T</sup>[D]<sup>-1</sup>[B])<sup>-1</sup>[F][B]<sup>T</sup>[D]<sup>-1</sup>
+     * that only requires a factor-sized system to be solved (and does not require [F] to be invertible). If any
+     * specific variance is zero the dense covariance matrix is formed and solved instead.
+     */
+    public BasicMatrix solve(final BasicMatrix rhs) {
+
+        final double[] tmpInverse = this.getInverseSpecificVariances();
+
+        if (tmpInverse != null) {
+
+            final BasicMatrix tmpScaledRHS = FactorCovariance.scaleRows(tmpInverse, rhs);
+
+            final BasicMatrix tmpCorrection = this.getCore().solve(myFactorCovariances.multiply(myLoadingsTransposed.multiply(tmpScaledRHS)));
+
+            return tmpScaledRHS.subtract(FactorCovariance.scaleRows(tmpInverse, myLoadings.multiply(tmpCorrection)));
+
+        } else {
+
+            return this.toCovariances().solve(rhs);
+        }
+    }
+
+    /**
+     * @return The full, dense, covariance matrix. Avoid this with many assets.
+     */
+    public BasicMatrix toCovariances() {
+
+        final int tmpDim = mySpecificVariances.length;
+
+        final Access2D.Builder<PrimitiveMatrix> tmpSpecific = FinancePortfolio.MATRIX_FACTORY.getBuilder(tmpDim, tmpDim);
+        for (int ij = 0; ij < tmpDim; ij++) {
+            tmpSpecific.set(ij, ij, mySpecificVariances[ij]);
+        }
+
+        return myLoadings.multiply(myFactorCovariances).multiply(myLoadingsTransposed).add(tmpSpecific.build());
+    }
+
+    @Override
+    public String toString() {
+        return this.countAssets() + " assets with " + this.countFactors() + " factors";
+    }
+
+    /**
+     * [Σ][w] for a single (primitive) weights vector, written to destination. Thread safe.
+     */
+    void multiply(final double[] weights, final double[] destination) {
+
+        final int tmpFactors = myFactorRows.length;
+
+        final double[] tmpExposures = new double[tmpFactors];
+        for (int i = 0; i < weights.length; i++) {
+            final double tmpWeight = weights[i];
+            if (tmpWeight != ZERO) {
+                final double[] tmpLoadings = myLoadingRows[i];
+                for (int f = 0; f < tmpFactors; f++) {
+                    tmpExposures[f] += tmpLoadings[f] * tmpWeight;
+                }
+            }
+        }
+
+        final double[] tmpFactorProducts = new double[tmpFactors];
+        for (int f = 0; f < tmpFactors; f++) {
+            final double[] tmpRow = myFactorRows[f];
+            double tmpSum = ZERO;
+            for (int g = 0; g < tmpFactors; g++) {
+                tmpSum += tmpRow[g] * tmpExposures[g];
+            }
+            tmpFactorProducts[f] = tmpSum;
+        }
+
+        for (int i = 0; i < weights.length; i++) {
+            final double[] tmpLoadings = myLoadingRows[i];
+            double tmpSum = mySpecificVariances[i] * weights[i];
+            for (int f = 0; f < tmpFactors; f++) {
+                tmpSum += tmpLoadings[f] * tmpFactorProducts[f];
+            }
+            destination[i] = tmpSum;
+        }
+    }
+
+    private BasicMatrix getCore() {
+
+        if (myCore == null) {
+
+            final int tmpDim = this.countFactors();
+
+            final Access2D.Builder<PrimitiveMatrix> tmpIdentity = FinancePortfolio.MATRIX_FACTORY.getBuilder(tmpDim, tmpDim);
+            for (int ij = 0; ij < tmpDim; ij++) {
+                tmpIdentity.set(ij, ij, ONE);
+            }
+
+            final BasicMatrix tmpScaledLoadings = FactorCovariance.scaleRows(myInverseSpecificVariances, myLoadings);
+
+            myCore = tmpIdentity.build().add(myFactorCovariances.multiply(myLoadingsTransposed.multiply(tmpScaledLoadings)));
+        }
+
+        return myCore;
+    }
+
+    private double[] getInverseSpecificVariances() {
+
+        if (myInverseSpecificVariances == null) {
+
+            final double[] tmpInverse = new double[mySpecificVariances.length];
+
+            for (int i = 0; i < tmpInverse.length; i++) {
+                if (mySpecificVariances[i] <= ZERO) {
+                    return null;
+                }
+                tmpInverse[i] = ONE / mySpecificVariances[i];
+            }
+
+            myInverseSpecificVariances = tmpInverse;
+        }
+
+        return myInverseSpecificVariances;
+    }
+
+}
@@ -24,12 +24,18 @@ package org.ojalgo.finance.portfolio;
 import java.math.BigDecimal;
 
 import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
 import org.ojalgo.array.ArrayUtils;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.BigMath;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.finance.FinanceUtils;
+import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.BasicMatrix;
 import org.ojalgo.matrix.PrimitiveMatrix;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.scalar.BigScalar;
 import org.ojalgo.scalar.Scalar;
 import org.ojalgo.type.TypeUtils;
@@ -48,6 +54,11 @@ import org.ojalgo.type.TypeUtils;
  * The name MarketEquilibrium is actually a bit misleading. By altering the risk aversion factor this class can/will
  * describe the weights/returns equilibrium for any investor.
  * </p>
+ * <p>
+ * The covariance matrix may be given as a {@link FactorCovariance}. Then the translations (and everything else that
+ * does not explicitly ask for the full covariance matrix) exploit the factor structure, and never form the dense
+ * matrix.
+ * </p>
  *
  * @see #calculateAssetReturns(BasicMatrix)
  * @see #calculateAssetWeights(BasicMatrix)
@@ -55,6 +66,55 @@ import org.ojalgo.type.TypeUtils;
  */
 public class MarketEquilibrium {
 
+    /**
+     * Risk and return of many portfolios, as calculated by {@link MarketEquilibrium#evaluate(Access2D, Access1D)}.
+     * Everything is indexed by portfolio - the column index of the input weights matrix.
+     */
+    public static final class Evaluation {
+
+        private final double[][] myMarginalRisks;
+        private final double[] myReturns;
+        private final double[] myVariances;
+
+        Evaluation(final int portfolios) {
+
+            super();
+
+            myMarginalRisks = new double[portfolios][];
+            myReturns = new double[portfolios];
+            myVariances = new double[portfolios];
+        }
+
+        public int count() {
+            return myReturns.length;
+        }
+
+        /**
+         * The marginal risk contributions, the derivatives of the portfolio volatility with respect to the asset
+         * weights: [Σ][w] / σ. Multiply by the weights to get the (total) risk contributions - they sum to σ.
+         */
+        public double[][] getMarginalRisks() {
+            return myMarginalRisks;
+        }
+
+        public double[] getReturns() {
+            return myReturns;
+        }
+
+        public double[] getVariances() {
+            return myVariances;
+        }
+
+        public double[] getVolatilities() {
+            final double[] retVal = new double[myVariances.length];
+            for (int p = 0; p < retVal.length; p++) {
+                retVal[p] = myVariances[p] > PrimitiveMath.ZERO ? PrimitiveFunction.SQRT.invoke(myVariances[p]) : PrimitiveMath.ZERO;
+            }
+            return retVal;
+        }
+
+    }
+
     private static final BigDecimal DEFAULT_RISK_AVERSION = BigMath.ONE; // Don't change the default!
     private static final String STRING_ZERO = "0";
     private static final String SYMBOL = "Asset_";
@@ -86,6 +146,7 @@ public class MarketEquilibrium {
 
     private final String[] myAssetKeys;
     private final BasicMatrix myCovariances;
+    private final FactorCovariance myFactorCovariance;
     private BigDecimal myRiskAversion;
 
     public MarketEquilibrium(final BasicMatrix covarianceMatrix) {
@@ -96,12 +157,21 @@ public class MarketEquilibrium {
         this(MarketEquilibrium.makeSymbols((int) covarianceMatrix.countRows()), covarianceMatrix, riskAversionFactor);
     }
 
+    public MarketEquilibrium(final FactorCovariance factorCovariance) {
+        this(factorCovariance, DEFAULT_RISK_AVERSION);
+    }
+
+    public MarketEquilibrium(final FactorCovariance factorCovariance, final Number riskAversionFactor) {
+        this(MarketEquilibrium.makeSymbols(factorCovariance.countAssets()), factorCovariance, riskAversionFactor);
+    }
+
     public MarketEquilibrium(final String[] assetNamesOrKeys, final BasicMatrix covarianceMatrix) {
 
         super();
 
         myAssetKeys = ArrayUtils.copyOf(assetNamesOrKeys);
         myCovariances = covarianceMatrix;
+        myFactorCovariance = null;
         myRiskAversion = DEFAULT_RISK_AVERSION;
     }
 
@@ -111,19 +181,36 @@ public class MarketEquilibrium {
 
         myAssetKeys = ArrayUtils.copyOf(assetNamesOrKeys);
         myCovariances = covarianceMatrix;
+        myFactorCovariance = null;
+        myRiskAversion = TypeUtils.toBigDecimal(riskAversionFactor);
+    }
+
+    public MarketEquilibrium(final String[] assetNamesOrKeys, final FactorCovariance factorCovariance, final Number riskAversionFactor) {
+
+        super();
+
+        myAssetKeys = ArrayUtils.copyOf(assetNamesOrKeys);
+        myCovariances = null;
+        myFactorCovariance = factorCovariance;
         myRiskAversion = TypeUtils.toBigDecimal(riskAversionFactor);
     }
 
     @SuppressWarnings("unused")
     private MarketEquilibrium() {
 
-        this(null, null, null);
+        this(null, (BasicMatrix) null, null);
 
         ProgrammingError.throwForIllegalInvocation();
     }
 
     MarketEquilibrium(final MarketEquilibrium marketEquilibrium) {
-        this(marketEquilibrium.getAssetKeys(), marketEquilibrium.getCovariances(), marketEquilibrium.getRiskAversion().getNumber());
+
+        super();
+
+        myAssetKeys = marketEquilibrium.getAssetKeys();
+        myCovariances = marketEquilibrium.myCovariances;
+        myFactorCovariance = marketEquilibrium.myFactorCovariance;
+        myRiskAversion = marketEquilibrium.myRiskAversion;
     }
 
     /**
@@ -132,7 +219,7 @@ public class MarketEquilibrium {
      */
     public BasicMatrix calculateAssetReturns(final BasicMatrix assetWeights) {
         final BasicMatrix tmpAssetWeights = myRiskAversion.compareTo(DEFAULT_RISK_AVERSION) == 0 ? assetWeights : assetWeights.multiply(myRiskAversion);
-        return myCovariances.multiply(tmpAssetWeights);
+        return this.multiplyCovariances(tmpAssetWeights);
     }
 
     /**
@@ -140,7 +227,7 @@ public class MarketEquilibrium {
      * weights. This is unconstrained optimisation - there are no constraints on the resulting instrument weights.
      */
     public BasicMatrix calculateAssetWeights(final BasicMatrix assetReturns) {
-        final BasicMatrix tmpAssetWeights = myCovariances.solve(assetReturns);
+        final BasicMatrix tmpAssetWeights = myFactorCovariance != null ? myFactorCovariance.solve(assetReturns) : myCovariances.solve(assetReturns);
         if (myRiskAversion.compareTo(DEFAULT_RISK_AVERSION) == 0) {
             return tmpAssetWeights;
         } else {
@@ -164,7 +251,7 @@ public class MarketEquilibrium {
             tmpRight = assetWeights.transpose();
         }
 
-        return myCovariances.multiply(tmpRight).multiplyLeft(tmpLeft).toScalar(0, 0);
+        return this.multiplyCovariances(tmpRight).multiplyLeft(tmpLeft).toScalar(0, 0);
     }
 
     /**
@@ -180,16 +267,93 @@ public class MarketEquilibrium {
 
     /**
      * Equivalent to copying, but additionally the covariance matrix will be cleaned of negative and very small
-     * eigenvalues to make it positive definite.
+     * eigenvalues to make it positive definite. With a factor model it is the factor covariances that are cleaned.
      */
     public MarketEquilibrium clean() {
 
-        final PrimitiveMatrix tmpAssetVolatilities = FinanceUtils.toAssetVolatilities(myCovariances);
-        final PrimitiveMatrix tmpCleanedCorrelations = FinanceUtils.toCorrelations(myCovariances, true);
+        if (myFactorCovariance != null) {
+
+            final BasicMatrix tmpFactorCovariances = myFactorCovariance.getFactorCovariances();
 
-        final PrimitiveMatrix tmpCovariances = FinanceUtils.toCovariances(tmpAssetVolatilities, tmpCleanedCorrelations);
+            final PrimitiveMatrix tmpFactorVolatilities = FinanceUtils.toAssetVolatilities(tmpFactorCovariances);
+            final PrimitiveMatrix tmpCleanedCorrelations = FinanceUtils.toCorrelations(tmpFactorCovariances, true);
 
-        return new MarketEquilibrium(myAssetKeys, tmpCovariances, myRiskAversion);
+            final FactorCovariance tmpCleaned = new FactorCovariance(myFactorCovariance.getLoadings(), FinanceUtils.toCovariances(tmpFactorVolatilities,
+                    tmpCleanedCorrelations), myFactorCovariance.getSpecificVariances());
+
+            return new MarketEquilibrium(myAssetKeys, tmpCleaned, myRiskAversion);
+
+        } else {
+
+            final PrimitiveMatrix tmpAssetVolatilities = FinanceUtils.toAssetVolatilities(myCovariances);
+            final PrimitiveMatrix tmpCleanedCorrelations = FinanceUtils.toCorrelations(myCovariances, true);
+
+            final PrimitiveMatrix tmpCovariances = FinanceUtils.toCovariances(tmpAssetVolatilities, tmpCleanedCorrelations);
+
+            return new MarketEquilibrium(myAssetKeys, tmpCovariances, myRiskAversion);
+        }
+    }
+
+    /**
+     * <p>
+     * Calculates return, variance and marginal risk contributions for many portfolios at once. It is equivalent to
+     * calling {@link #calculatePortfolioReturn(BasicMatrix, BasicMatrix)} and
+     * {@link #calculatePortfolioVariance(BasicMatrix)} for each of the portfolios, but much faster.
+     * </p>
+     * <p>
+     * With a plain covariance matrix [&Sigma;][W] is calculated for all portfolios with one (parallel) matrix-matrix
+     * multiplication, {@link PrimitiveDenseStore#multiply(Access1D)}. With a {@link FactorCovariance} the covariance
+     * matrix is not used at all, and the work per portfolio scales with the number of assets times the number of
+     * factors. The rest is done per portfolio, in parallel.
+     * </p>
+     *
+     * @param assetWeights The portfolios' asset weights - one portfolio per column
+     * @param assetReturns The asset returns
+     */
+    public Evaluation evaluate(final Access2D<?> assetWeights, final Access1D<?> assetReturns) {
+
+        final int tmpAssets = this.size();
+        final int tmpPortfolios = (int) assetWeights.countColumns();
+
+        if ((assetWeights.countRows() != tmpAssets) || (assetReturns.count() != tmpAssets)) {
+            throw new IllegalArgumentException("Wrong dimensions!");
+        }
+
+        final double[] tmpReturns = new double[tmpAssets];
+        for (int i = 0; i < tmpAssets; i++) {
+            tmpReturns[i] = assetReturns.doubleValue(i);
+        }
+
+        final Evaluation retVal = new Evaluation(tmpPortfolios);
+
+        if (myFactorCovariance == null) {
+
+            final PrimitiveDenseStore tmpCovariances = PrimitiveDenseStore.FACTORY.copy(myCovariances);
+            final PrimitiveDenseStore tmpWeights = assetWeights instanceof PrimitiveDenseStore ? (PrimitiveDenseStore) assetWeights
+                    : PrimitiveDenseStore.FACTORY.copy(assetWeights);
+            final MatrixStore<Double> tmpProducts = tmpCovariances.multiply(tmpWeights);
+
+            for (int p = 0; p < tmpPortfolios; p++) {
+                final double[] tmpProduct = new double[tmpAssets];
+                final long tmpOffset = (long) p * tmpAssets;
+                for (int i = 0; i < tmpAssets; i++) {
+                    tmpProduct[i] = tmpProducts.doubleValue(tmpOffset + i);
+                }
+                retVal.myMarginalRisks[p] = tmpProduct;
+            }
+        }
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                MarketEquilibrium.this.evaluate(assetWeights, tmpReturns, first, limit, retVal);
+            }
+        };
+
+        tmpConquerer.invoke(0, tmpPortfolios, 1);
+
+        return retVal;
     }
 
     public MarketEquilibrium copy() {
@@ -204,8 +368,24 @@ public class MarketEquilibrium {
         return ArrayUtils.copyOf(myAssetKeys);
     }
 
+    /**
+     * With a factor model the full covariance matrix is formed each time this method is called - avoid it with many
+     * assets.
+     */
     public BasicMatrix getCovariances() {
-        return myCovariances;
+        if (myCovariances != null) {
+            return myCovariances;
+        } else {
+            return myFactorCovariance.toCovariances();
+        }
+    }
+
+    /**
+     * @return The factor model covariance, or null if this market equilibrium was instantiated with a plain covariance
+     *         matrix.
+     */
+    public FactorCovariance getFactorCovariance() {
+        return myFactorCovariance;
     }
 
     public Scalar<?> getRiskAversion() {
@@ -226,11 +406,15 @@ public class MarketEquilibrium {
     }
 
     public int size() {
-        return (int) Math.min(myCovariances.countRows(), myCovariances.countColumns());
+        if (myFactorCovariance != null) {
+            return myFactorCovariance.countAssets();
+        } else {
+            return (int) Math.min(myCovariances.countRows(), myCovariances.countColumns());
+        }
     }
 
     public BasicMatrix toCorrelations() {
-        return FinanceUtils.toCorrelations(myCovariances, false);
+        return FinanceUtils.toCorrelations(this.getCovariances(), false);
     }
 
     /**
@@ -239,7 +423,7 @@ public class MarketEquilibrium {
      */
     Scalar<?> calculateImpliedRiskAversion(final BasicMatrix assetWeights, final BasicMatrix assetReturns) {
 
-        Scalar<?> retVal = myCovariances.multiply(assetWeights).solve(assetReturns).toScalar(0, 0);
+        Scalar<?> retVal = this.multiplyCovariances(assetWeights).solve(assetReturns).toScalar(0, 0);
 
         if (retVal.isSmall(PrimitiveMath.ONE)) {
             retVal = BigScalar.ONE;
@@ -254,4 +438,56 @@ public class MarketEquilibrium {
         return myRiskAversion.compareTo(DEFAULT_RISK_AVERSION) == 0;
     }
 
+    /**
+     * With a plain covariance matrix the destination's marginal risks already contain [&Sigma;][w].
+     */
+    private void evaluate(final Access2D<?> assetWeights, final double[] assetReturns, final int first, final int limit, final Evaluation destination) {
+
+        final int tmpAssets = assetReturns.length;
+
+        final double[] tmpPortfolio = new double[tmpAssets];
+
+        for (int p = first; p < limit; p++) {
+
+            for (int i = 0; i < tmpAssets; i++) {
+                tmpPortfolio[i] = assetWeights.doubleValue(i, p);
+            }
+
+            double[] tmpProduct = destination.myMarginalRisks[p];
+            if (tmpProduct == null) {
+                tmpProduct = new double[tmpAssets];
+                myFactorCovariance.multiply(tmpPortfolio, tmpProduct);
+            }
+
+            double tmpReturn = PrimitiveMath.ZERO;
+            double tmpVariance = PrimitiveMath.ZERO;
+            for (int i = 0; i < tmpAssets; i++) {
+                tmpReturn += tmpPortfolio[i] * assetReturns[i];
+                tmpVariance += tmpPortfolio[i] * tmpProduct[i];
+            }
+
+            if (tmpVariance > PrimitiveMath.ZERO) {
+                final double tmpVolatility = PrimitiveFunction.SQRT.invoke(tmpVariance);
+                for (int i = 0; i < tmpAssets; i++) {
+                    tmpProduct[i] /= tmpVolatility;
+                }
+            }
+
+            destination.myReturns[p] = tmpReturn;
+            destination.myVariances[p] = tmpVariance;
+            destination.myMarginalRisks[p] = tmpProduct;
+        }
+    }
+
+    /**
+     * [Σ][M] without forming [Σ] when there is a factor model
+     */
+    BasicMatrix multiplyCovariances(final BasicMatrix right) {
+        if (myFactorCovariance != null) {
+            return myFactorCovariance.multiply(right);
+        } else {
+            return myCovariances.multiply(right);
+        }
+    }
+
 }
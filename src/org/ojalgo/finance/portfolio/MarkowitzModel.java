@@ -26,13 +26,16 @@ import static org.ojalgo.constant.BigMath.*;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.access.Access1D;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.BasicMatrix;
 import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.CompiledModel;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
 import org.ojalgo.optimisation.Optimisation;
 import org.ojalgo.optimisation.Optimisation.State;
@@ -85,19 +88,85 @@ import org.ojalgo.type.context.NumberContext;
  * <p>
  * To get the optimal asset weighs you simply call {@link #getWeights()} or {@link #getAssetWeights()}.
  * </p>
+ * <p>
+ * To get many points on the efficient frontier call {@link #getEfficientFrontier(int)} rather than repeatedly
+ * changing the risk aversion (or target) and getting the weights. The optimisation model is then built once, and each
+ * point is solved starting from the previous point's solution and active set.
+ * </p>
+ * <p>
+ * If the {@link MarketEquilibrium} has a {@link FactorCovariance} the optimisation model gets one extra variable per
+ * factor, the portfolio's exposure to that factor, and the variance is expressed as the specific (diagonal) variance
+ * plus the factor exposures' variance. There are then no dense asset-by-asset quadratic terms, and the solver only
+ * needs to factorise the factor-by-factor block.
+ * </p>
  *
  * @author apete
  */
 public final class MarkowitzModel extends EquilibriumModel {
 
+    /**
+     * One point on the efficient frontier - the optimal portfolio for a specific risk aversion factor.
+     */
+    public static final class FrontierPoint extends FinancePortfolio {
+
+        private final double myMeanReturn;
+        private final State myOptimisationState;
+        private final double myReturnVariance;
+        private final double myRiskAversion;
+        private final List<BigDecimal> myWeights;
+
+        FrontierPoint(final double riskAversion, final State optimisationState, final List<BigDecimal> weights, final double meanReturn,
+                final double returnVariance) {
+
+            super();
+
+            myRiskAversion = riskAversion;
+            myOptimisationState = optimisationState;
+            myWeights = weights;
+            myMeanReturn = meanReturn;
+            myReturnVariance = returnVariance;
+        }
+
+        @Override
+        public double getMeanReturn() {
+            return myMeanReturn;
+        }
+
+        public State getOptimisationState() {
+            return myOptimisationState;
+        }
+
+        @Override
+        public double getReturnVariance() {
+            return myReturnVariance;
+        }
+
+        public double getRiskAversion() {
+            return myRiskAversion;
+        }
+
+        @Override
+        public List<BigDecimal> getWeights() {
+            return myWeights;
+        }
+
+        @Override
+        protected void reset() {
+            // Everything is fixed
+        }
+
+    }
+
     private static final double _0_0 = ZERO.doubleValue();
     private static final String BALANCE = "Balance";
+    private static final String FACTOR = "Factor_";
     private static final double INIT = Math.sqrt(PrimitiveMath.TEN);
     private static final double MAX = PrimitiveMath.HUNDRED * PrimitiveMath.HUNDRED;
     private static final double MIN = PrimitiveMath.HUNDREDTH;
     private static final NumberContext TARGET_CONTEXT = NumberContext.getGeneral(7, 14);
     private static final String VARIANCE = "Variance";
 
+    private transient CompiledModel myCompiledModel;
     private final HashMap<int[], LowerUpper> myConstraints = new HashMap<int[], LowerUpper>();
     private final BasicMatrix myExpectedExcessReturns;
     private transient ExpressionsBasedModel myOptimisationModel;
@@ -168,6 +237,67 @@ public final class MarkowitzModel extends EquilibriumModel {
         this.reset();
     }
 
+    /**
+     * @see #getEfficientFrontier(int, boolean)
+     */
+    public List<FrontierPoint> getEfficientFrontier(final int numberOfPoints) {
+        return this.getEfficientFrontier(numberOfPoints, false);
+    }
+
+    /**
+     * The efficient frontier, from (close to) the minimum variance portfolio to (close to) the maximum return
+     * portfolio: the optimal portfolios for risk aversion factors geometrically spaced between 10 000 and 0.01 (the
+     * same range that is searched when a target return or variance is set).
+     *
+     * @see #getEfficientFrontier(boolean, double...)
+     */
+    public List<FrontierPoint> getEfficientFrontier(final int numberOfPoints, final boolean parallel) {
+
+        final double[] tmpRiskAversions = new double[numberOfPoints];
+
+        final double tmpFactor = numberOfPoints > 1 ? Math.pow(MIN / MAX, PrimitiveMath.ONE / (numberOfPoints - 1)) : PrimitiveMath.ONE;
+        for (int p = 0; p < numberOfPoints; p++) {
+            tmpRiskAversions[p] = MAX * Math.pow(tmpFactor, p);
+        }
+
+        return this.getEfficientFrontier(parallel, tmpRiskAversions);
+    }
+
+    /**
+     * The optimal portfolios for each of the risk aversion factors, using the current constraints and limits (the
+     * risk aversion and any target return or variance set on this model are ignored). The optimisation model is built
+     * once, and each point is then solved (warm) starting from the previous point's solution and active set - adjacent
+     * risk aversions mostly share active set so preferably sort them.
+     *
+     * @param parallel If true the points are partitioned in contiguous segments that are solved in parallel, each with
+     *        its own optimisation model.
+     * @param riskAversions The risk aversion factors
+     * @return One point for each risk aversion factor, in the same order
+     */
+    public List<FrontierPoint> getEfficientFrontier(final boolean parallel, final double... riskAversions) {
+
+        final FrontierPoint[] retVal = new FrontierPoint[riskAversions.length];
+
+        if (parallel) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    MarkowitzModel.this.solveFrontier(riskAversions, first, limit, retVal);
+                }
+            };
+
+            tmpConquerer.invoke(0, riskAversions.length, 1);
+
+        } else {
+
+            this.solveFrontier(riskAversions, 0, riskAversions.length, retVal);
+        }
+
+        return Arrays.asList(retVal);
+    }
+
     public final State getOptimisationState() {
         if (myOptimisationState == null) {
             myOptimisationState = State.UNEXPLORED;
@@ -249,45 +379,98 @@ public final class MarkowitzModel extends EquilibriumModel {
         return myOptimisationModel.toString();
     }
 
-    private ExpressionsBasedModel generateOptimisationModel(final double riskAversion) {
+    /**
+     * A new, independent, optimisation model - the variance expression's weight is not set.
+     */
+    private ExpressionsBasedModel buildOptimisationModel() {
 
-        if ((myOptimisationModel == null) || (myOptimisationVariance == null)) {
+        final Variable[] tmpVariables = new Variable[myVariables.length];
+        for (int i = 0; i < tmpVariables.length; i++) {
+            tmpVariables[i] = myVariables[i].copy();
+            if (!myShortingAllowed && ((myVariables[i].getLowerLimit() == null) || (myVariables[i].getLowerLimit().signum() == -1))) {
+                tmpVariables[i].lower(ZERO);
+            }
+        }
+
+        final FactorCovariance tmpFactorCovariance = this.getFactorCovariance();
 
-            final Variable[] tmpVariables = new Variable[myVariables.length];
+        final ExpressionsBasedModel retVal;
+
+        if (tmpFactorCovariance != null) {
+
+            final int tmpFactorCount = tmpFactorCovariance.countFactors();
+
+            final Variable[] tmpAllVariables = Arrays.copyOf(tmpVariables, tmpVariables.length + tmpFactorCount);
+            for (int f = 0; f < tmpFactorCount; f++) {
+                tmpAllVariables[tmpVariables.length + f] = new Variable(FACTOR + f);
+            }
+
+            retVal = new ExpressionsBasedModel(tmpAllVariables);
+
+            final BasicMatrix tmpLoadings = tmpFactorCovariance.getLoadings();
+            for (int f = 0; f < tmpFactorCount; f++) {
+                final Expression tmpExposureExpression = retVal.addExpression(FACTOR + f);
+                for (int i = 0; i < tmpVariables.length; i++) {
+                    tmpExposureExpression.setLinearFactor(i, tmpLoadings.toBigDecimal(i, f));
+                }
+                tmpExposureExpression.setLinearFactor(tmpVariables.length + f, ONE.negate());
+                tmpExposureExpression.level(ZERO);
+            }
+
+            final Expression tmpVarianceExpression = retVal.addExpression(VARIANCE);
+            final BasicMatrix tmpSpecificVariances = tmpFactorCovariance.getSpecificVariances();
             for (int i = 0; i < tmpVariables.length; i++) {
-                tmpVariables[i] = myVariables[i].copy();
-                if (!myShortingAllowed && ((myVariables[i].getLowerLimit() == null) || (myVariables[i].getLowerLimit().signum() == -1))) {
-                    tmpVariables[i].lower(ZERO);
+                tmpVarianceExpression.setQuadraticFactor(i, i, tmpSpecificVariances.toBigDecimal(i, 0));
+            }
+            final BasicMatrix tmpFactorCovariances = tmpFactorCovariance.getFactorCovariances();
+            for (int g = 0; g < tmpFactorCount; g++) {
+                for (int f = 0; f < tmpFactorCount; f++) {
+                    tmpVarianceExpression.setQuadraticFactor(tmpVariables.length + f, tmpVariables.length + g, tmpFactorCovariances.toBigDecimal(f, g));
                 }
             }
 
-            myOptimisationModel = new ExpressionsBasedModel(tmpVariables);
+        } else {
+
+            retVal = new ExpressionsBasedModel(tmpVariables);
 
-            myOptimisationVariance = myOptimisationModel.addExpression(VARIANCE);
+            final Expression tmpVarianceExpression = retVal.addExpression(VARIANCE);
             final BasicMatrix tmpCovariances = this.getCovariances();
             for (int j = 0; j < tmpVariables.length; j++) {
                 for (int i = 0; i < tmpVariables.length; i++) {
-                    myOptimisationVariance.setQuadraticFactor(i, j, tmpCovariances.toBigDecimal(i, j));
+                    tmpVarianceExpression.setQuadraticFactor(i, j, tmpCovariances.toBigDecimal(i, j));
                 }
             }
+        }
 
-            final Expression tmpBalanceExpression = myOptimisationModel.addExpression(BALANCE);
-            for (int i = 0; i < tmpVariables.length; i++) {
-                tmpBalanceExpression.setLinearFactor(i, ONE);
-            }
-            tmpBalanceExpression.level(ONE);
+        final Expression tmpBalanceExpression = retVal.addExpression(BALANCE);
+        for (int i = 0; i < tmpVariables.length; i++) {
+            tmpBalanceExpression.setLinearFactor(i, ONE);
+        }
+        tmpBalanceExpression.level(ONE);
 
-            for (final Map.Entry<int[], LowerUpper> tmpConstraintSet : myConstraints.entrySet()) {
+        for (final Map.Entry<int[], LowerUpper> tmpConstraintSet : myConstraints.entrySet()) {
 
-                final int[] tmpKey = tmpConstraintSet.getKey();
-                final LowerUpper tmpValue = tmpConstraintSet.getValue();
+            final int[] tmpKey = tmpConstraintSet.getKey();
+            final LowerUpper tmpValue = tmpConstraintSet.getValue();
 
-                final Expression tmpExpr = myOptimisationModel.addExpression(Arrays.toString(tmpKey));
-                for (int i = 0; i < tmpKey.length; i++) {
-                    tmpExpr.setLinearFactor(tmpKey[i], ONE);
-                }
-                tmpExpr.lower(tmpValue.lower).upper(tmpValue.upper);
+            final Expression tmpExpr = retVal.addExpression(Arrays.toString(tmpKey));
+            for (int i = 0; i < tmpKey.length; i++) {
+                tmpExpr.setLinearFactor(tmpKey[i], ONE);
             }
+            tmpExpr.lower(tmpValue.lower).upper(tmpValue.upper);
+        }
+
+        return retVal;
+    }
+
+    private ExpressionsBasedModel generateOptimisationModel(final double riskAversion) {
+
+        if ((myOptimisationModel == null) || (myOptimisationVariance == null)) {
+
+            myOptimisationModel = this.buildOptimisationModel();
+            myOptimisationVariance = myOptimisationModel.getExpression(VARIANCE);
+
+            myCompiledModel = myOptimisationModel.compile();
         }
 
         myOptimisationVariance.weight(riskAversion / 2.0);
@@ -295,6 +478,16 @@ public final class MarkowitzModel extends EquilibriumModel {
         return myOptimisationModel;
     }
 
+    /**
+     * Only the variance weight changes between calls, and the compiled model reuses the solver (warm) when it can.
+     */
+    private Optimisation.Result minimise(final double riskAversion) {
+
+        this.generateOptimisationModel(riskAversion);
+
+        return myCompiledModel.minimise();
+    }
+
     private Optimisation.Result optimise() {
 
         Optimisation.Result retVal;
@@ -310,7 +503,7 @@ public final class MarkowitzModel extends EquilibriumModel {
                 tmpTargetValue = _0_0;
             }
 
-            retVal = this.generateOptimisationModel(_0_0).minimise();
+            retVal = this.minimise(_0_0);
 
             double tmpTargetNow = _0_0;
             double tmpTargetDiff = _0_0;
@@ -342,7 +535,7 @@ public final class MarkowitzModel extends EquilibriumModel {
 
                 do {
 
-                    retVal = this.generateOptimisationModel(tmpCurrent).minimise();
+                    retVal = this.minimise(tmpCurrent);
 
                     tmpTargetLast = tmpTargetNow;
                     if (myTargetVariance != null) {
@@ -374,7 +567,7 @@ public final class MarkowitzModel extends EquilibriumModel {
 
         } else {
 
-            retVal = this.generateOptimisationModel(this.getRiskAversion().doubleValue()).minimise();
+            retVal = this.minimise(this.getRiskAversion().doubleValue());
 
         }
 
@@ -389,6 +582,29 @@ public final class MarkowitzModel extends EquilibriumModel {
         return retVal;
     }
 
+    /**
+     * One segment of the frontier: one model (compiled once), only the variance weight changes between the points.
+     */
+    private void solveFrontier(final double[] riskAversions, final int first, final int limit, final FrontierPoint[] destination) {
+
+        final ExpressionsBasedModel tmpModel = this.buildOptimisationModel();
+        final Expression tmpVarianceExpression = tmpModel.getExpression(VARIANCE);
+        final CompiledModel tmpCompiledModel = tmpModel.compile();
+
+        for (int p = first; p < limit; p++) {
+
+            tmpVarianceExpression.weight(riskAversions[p] / 2.0);
+
+            final Optimisation.Result tmpResult = tmpCompiledModel.minimise();
+
+            final BasicMatrix tmpWeights = this.toAssetWeights(tmpResult).round(WEIGHT_CONTEXT);
+            final double tmpReturn = this.calculatePortfolioReturn(tmpWeights, myExpectedExcessReturns).doubleValue();
+            final double tmpVariance = this.calculatePortfolioVariance(tmpWeights).doubleValue();
+
+            destination[p] = new FrontierPoint(riskAversions[p], tmpResult.getState(), tmpWeights.toBigStore().asList(), tmpReturn, tmpVariance);
+        }
+    }
+
     @Override
     protected BasicMatrix calculateAssetReturns() {
         return myExpectedExcessReturns;
@@ -404,7 +620,7 @@ public final class MarkowitzModel extends EquilibriumModel {
 
         myOptimisationState = tmpResult.getState();
 
-        return MATRIX_FACTORY.columns(tmpResult);
+        return this.toAssetWeights(tmpResult);
     }
 
     @Override
@@ -412,17 +628,32 @@ public final class MarkowitzModel extends EquilibriumModel {
 
         super.reset();
 
+        myCompiledModel = null;
         myOptimisationModel = null;
         myOptimisationVariance = null;
         myOptimisationState = State.UNEXPLORED;
     }
 
     final Scalar<?> calculatePortfolioReturn(final Access1D<?> weightsVctr, final BasicMatrix returnsVctr) {
-        return super.calculatePortfolioReturn(MATRIX_FACTORY.columns(weightsVctr), returnsVctr);
+        return super.calculatePortfolioReturn(this.toAssetWeights(weightsVctr), returnsVctr);
     }
 
     final Scalar<?> calculatePortfolioVariance(final Access1D<?> weightsVctr) {
-        return super.calculatePortfolioVariance(MATRIX_FACTORY.columns(weightsVctr));
+        return super.calculatePortfolioVariance(this.toAssetWeights(weightsVctr));
+    }
+
+    /**
+     * The optimisation result may contain more than the asset weights (the factor exposures of a factor model).
+     */
+    final BasicMatrix toAssetWeights(final Access1D<?> optimisationResult) {
+
+        final BasicMatrix retVal = MATRIX_FACTORY.columns(optimisationResult);
+
+        if (retVal.count() > myVariables.length) {
+            return retVal.getRowsRange(0, myVariables.length);
+        } else {
+            return retVal;
+        }
     }
 
 }
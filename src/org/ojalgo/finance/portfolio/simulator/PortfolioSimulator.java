@@ -21,23 +21,45 @@
  */
 package org.ojalgo.finance.portfolio.simulator;
 
-import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 
 import org.ojalgo.access.Access2D;
-import org.ojalgo.array.Array1D;
 import org.ojalgo.array.Array2D;
-import org.ojalgo.array.PrimitiveArray;
-import org.ojalgo.finance.portfolio.SimplePortfolio;
-import org.ojalgo.function.aggregator.Aggregator;
-import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.random.OnlineStatistics;
+import org.ojalgo.random.RandomGenerator;
+import org.ojalgo.random.Sobol;
+import org.ojalgo.random.process.BrownianBridge;
 import org.ojalgo.random.process.GeometricBrownian1D;
 import org.ojalgo.random.process.GeometricBrownianMotion;
 import org.ojalgo.random.process.RandomProcess;
 
+/**
+ * Simulates the value of a portfolio of (correlated) assets, each modelled as a {@link GeometricBrownianMotion}.
+ * Realisations are partitioned in blocks, each block with its own random number stream - same seed, different
+ * stream id:s (see {@link RandomGenerator#make(long, long)}). The blocks are then simulated in parallel, one
+ * {@link GeometricBrownian1D.Batch} per thread, stepping all realisations of a block together. With a fixed seed (see
+ * {@link #setSeed(long)}) the results are reproducible regardless of the number of threads used.
+ * <p>
+ * Optionally (see {@link #setQuasiRandom(boolean)}) the random draws are replaced by a scrambled {@link Sobol}
+ * sequence, with the paths constructed using a {@link BrownianBridge}. Then the realisations are simulated one at the
+ * time, using a {@link GeometricBrownian1D.Path} per thread.
+ * </p>
+ *
+ * @author apete
+ */
 public class PortfolioSimulator {
 
+    /**
+     * Number of realisations that share one random number stream
+     */
+    static final int BLOCK = 256;
+
     private GeometricBrownian1D myProcess;
+    private boolean myQuantiles = false;
+    private boolean myQuasiRandom = false;
+    private Long mySeed = null;
 
     public PortfolioSimulator(final Access2D<?> correlations, final List<GeometricBrownianMotion> assetProcesses) {
 
@@ -58,6 +80,32 @@ public class PortfolioSimulator {
         super();
     }
 
+    /**
+     * Whether or not the {@link OnlineStatistics} returned by the simulateStatistics methods should also track the
+     * quantiles - the median, value-at-risk, expected shortfall... of the portfolio value at each step.
+     */
+    public void setQuantiles(final boolean quantiles) {
+        myQuantiles = quantiles;
+    }
+
+    /**
+     * Quasi-Monte Carlo: each realisation uses one point of a (scrambled) {@link Sobol} sequence with one dimension
+     * per step and asset, and each asset's path is constructed using a {@link BrownianBridge} - the first dimensions
+     * determine the terminal values of all assets, the next ones the values half-way... Typically the estimates
+     * converge much faster, but the sequence gets expensive to set up when there are many thousands of dimensions.
+     */
+    public void setQuasiRandom(final boolean quasiRandom) {
+        myQuasiRandom = quasiRandom;
+    }
+
+    /**
+     * With a seed set every simulation (with the same parameters) produces the same results. Without one (the
+     * default) each simulation is seeded differently.
+     */
+    public void setSeed(final long seed) {
+        mySeed = seed;
+    }
+
     public RandomProcess.SimulationResults simulate(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize) {
         return this.simulate(aNumberOfRealisations, aNumberOfSteps, aStepSize, null);
     }
@@ -67,48 +115,196 @@ public class PortfolioSimulator {
         return this.simulate(aNumberOfRealisations, aNumberOfSteps, aStepSize, Integer.valueOf(rebalancingInterval));
     }
 
-    RandomProcess.SimulationResults simulate(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize,
-            final Integer rebalancingInterval) {
+    /**
+     * Same as {@link #simulate(int, int, double)} but the realisations are not stored - the portfolio values are
+     * streamed into one {@link OnlineStatistics} instance per step. Use this when the number of realisations
+     * times the number of steps is too large to keep in memory.
+     */
+    public OnlineStatistics[] simulateStatistics(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize) {
+        return this.simulateStatistics(aNumberOfRealisations, aNumberOfSteps, aStepSize, null);
+    }
 
-        final int tmpProcDim = myProcess.size();
+    public OnlineStatistics[] simulateStatistics(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize,
+            final int rebalancingInterval) {
+        return this.simulateStatistics(aNumberOfRealisations, aNumberOfSteps, aStepSize, Integer.valueOf(rebalancingInterval));
+    }
 
-        final PrimitiveArray tmpInitialValues = myProcess.getValues();
-        final Number[] tmpValues = new Number[tmpProcDim];
+    /**
+     * Either aRealisationValues or aStepStatistics should be null.
+     */
+    private void execute(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize, final Integer rebalancingInterval,
+            final Array2D<Double> aRealisationValues, final OnlineStatistics[] aStepStatistics) {
+
+        final long tmpSeed = mySeed != null ? mySeed.longValue() : RandomGenerator.make().nextLong();
+        final int tmpNumberOfBlocks = ((aNumberOfRealisations + BLOCK) - 1) / BLOCK;
+
+        final int tmpInterval = rebalancingInterval != null ? rebalancingInterval.intValue() : 0;
+
+        final int tmpProcDim = myProcess.size();
+        final double[] tmpWeights = new double[tmpProcDim];
+        double tmpInitialValue = 0.0;
         for (int p = 0; p < tmpProcDim; p++) {
-            tmpValues[p] = tmpInitialValues.get(p);
+            tmpWeights[p] = myProcess.getValue(p);
+            tmpInitialValue += tmpWeights[p];
+        }
+        for (int p = 0; p < tmpProcDim; p++) {
+            tmpWeights[p] /= tmpInitialValue;
         }
-        final List<BigDecimal> tmpWeights = new SimplePortfolio(tmpValues).normalise().getWeights();
 
-        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE.makeZero(aNumberOfRealisations, aNumberOfSteps);
+        final Sobol tmpSequence = myQuasiRandom ? new Sobol(aNumberOfSteps * tmpProcDim, tmpSeed) : null;
+        final BrownianBridge tmpBridge = myQuasiRandom ? new BrownianBridge(aNumberOfSteps) : null;
+
+        final double tmpInitialPortfolioValue = tmpInitialValue;
 
-        for (int r = 0; r < aNumberOfRealisations; r++) {
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
-            for (int s = 0; s < aNumberOfSteps; s++) {
+            @Override
+            protected void conquer(final int first, final int limit) {
 
-                if ((rebalancingInterval != null) && (s != 0) && ((s % rebalancingInterval) == 0)) {
+                GeometricBrownian1D.Batch tmpBatch = null;
+                double[] tmpPortfolioValues = null;
 
-                    final double tmpPortfolioValue = tmpRealisationValues.doubleValue(r, s - 1);
+                GeometricBrownian1D.Path tmpPath = null;
+                Sobol tmpPoints = null;
+                double[] tmpPoint = null;
+                double[] tmpBridgeNormals = null;
+                double[] tmpBridgeIncrements = null;
+                double[][] tmpStepNormals = null;
 
-                    for (int p = 0; p < tmpProcDim; p++) {
-                        myProcess.setValue(p, tmpPortfolioValue * tmpWeights.get(p).doubleValue());
+                if (tmpSequence != null) {
+                    tmpPath = myProcess.newPath(aStepSize);
+                    tmpPoints = tmpSequence.copy();
+                    tmpPoint = new double[tmpSequence.dimension()];
+                    tmpBridgeNormals = new double[aNumberOfSteps];
+                    tmpBridgeIncrements = new double[aNumberOfSteps];
+                    tmpStepNormals = new double[aNumberOfSteps][tmpProcDim];
+                } else {
+                    tmpBatch = myProcess.newBatch(BLOCK, aStepSize);
+                    tmpPortfolioValues = new double[BLOCK];
+                }
+
+                OnlineStatistics[] tmpStatistics = null;
+                if (aStepStatistics != null) {
+                    tmpStatistics = new OnlineStatistics[aNumberOfSteps];
+                    for (int s = 0; s < aNumberOfSteps; s++) {
+                        tmpStatistics[s] = new OnlineStatistics(myQuantiles);
                     }
                 }
 
-                final Array1D<Double> tmpRealisation = myProcess.step(aStepSize);
+                for (int b = first; b < limit; b++) {
+
+                    final int tmpFirst = b * BLOCK;
+                    final int tmpLimit = Math.min(aNumberOfRealisations, tmpFirst + BLOCK);
+
+                    if (tmpBatch != null) {
+
+                        // All the realisations of the block are stepped together
+
+                        tmpBatch.setRandom(RandomGenerator.make(tmpSeed, b));
+                        tmpBatch.reset();
+                        Arrays.fill(tmpPortfolioValues, tmpInitialPortfolioValue);
+
+                        for (int s = 0; s < aNumberOfSteps; s++) {
 
-                final AggregatorFunction<Double> tmpAggregator = Aggregator.SUM.getPrimitiveFunction();
-                tmpRealisation.visitAll(tmpAggregator);
-                tmpRealisationValues.set(r, s, tmpAggregator.doubleValue());
+                            if ((tmpInterval > 0) && (s != 0) && ((s % tmpInterval) == 0)) {
+                                for (int i = 0; i < BLOCK; i++) {
+                                    for (int p = 0; p < tmpProcDim; p++) {
+                                        tmpBatch.setValue(i, p, tmpPortfolioValues[i] * tmpWeights[p]);
+                                    }
+                                }
+                            }
+
+                            tmpBatch.step(tmpPortfolioValues);
+
+                            for (int r = tmpFirst; r < tmpLimit; r++) {
+                                if (tmpStatistics != null) {
+                                    tmpStatistics[s].put(tmpPortfolioValues[r - tmpFirst]);
+                                } else {
+                                    aRealisationValues.set(r, s, tmpPortfolioValues[r - tmpFirst]);
+                                }
+                            }
+                        }
+
+                    } else {
+
+                        // One realisation at the time, each using one point of the sequence
+
+                        tmpPoints.skipTo(tmpFirst);
+
+                        for (int r = tmpFirst; r < tmpLimit; r++) {
+
+                            tmpPath.reset();
+                            double tmpPortfolioValue = tmpInitialPortfolioValue;
+
+                            tmpPoints.nextGaussian(tmpPoint);
+                            for (int p = 0; p < tmpProcDim; p++) {
+                                for (int k = 0; k < aNumberOfSteps; k++) {
+                                    tmpBridgeNormals[k] = tmpPoint[(k * tmpProcDim) + p];
+                                }
+                                tmpBridge.increments(tmpBridgeNormals, tmpBridgeIncrements);
+                                for (int s = 0; s < aNumberOfSteps; s++) {
+                                    tmpStepNormals[s][p] = tmpBridgeIncrements[s];
+                                }
+                            }
+
+                            for (int s = 0; s < aNumberOfSteps; s++) {
+
+                                if ((tmpInterval > 0) && (s != 0) && ((s % tmpInterval) == 0)) {
+                                    for (int p = 0; p < tmpProcDim; p++) {
+                                        tmpPath.setValue(p, tmpPortfolioValue * tmpWeights[p]);
+                                    }
+                                }
+
+                                tmpPortfolioValue = tmpPath.step(tmpStepNormals[s]);
+
+                                if (tmpStatistics != null) {
+                                    tmpStatistics[s].put(tmpPortfolioValue);
+                                } else {
+                                    aRealisationValues.set(r, s, tmpPortfolioValue);
+                                }
+                            }
+                        }
+                    }
+                }
+
+                if (tmpStatistics != null) {
+                    synchronized (aStepStatistics) {
+                        for (int s = 0; s < aNumberOfSteps; s++) {
+                            aStepStatistics[s].merge(tmpStatistics[s]);
+                        }
+                    }
+                }
             }
+        };
+
+        tmpConquerer.invoke(0, tmpNumberOfBlocks, 1);
+    }
 
-            myProcess.setValues(tmpInitialValues);
+    RandomProcess.SimulationResults simulate(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize,
+            final Integer rebalancingInterval) {
+
+        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE.makeZero(aNumberOfRealisations, aNumberOfSteps);
+
+        this.execute(aNumberOfRealisations, aNumberOfSteps, aStepSize, rebalancingInterval, tmpRealisationValues, null);
+
+        double tmpInitialValue = 0.0;
+        for (int p = 0; p < myProcess.size(); p++) {
+            tmpInitialValue += myProcess.getValue(p);
         }
 
-        final AggregatorFunction<Double> tmpAggregator = Aggregator.SUM.getPrimitiveFunction();
-        for (int i = 0; i < tmpInitialValues.count(); i++) {
-            tmpAggregator.invoke(tmpInitialValues.doubleValue(i));
+        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+    }
+
+    OnlineStatistics[] simulateStatistics(final int aNumberOfRealisations, final int aNumberOfSteps, final double aStepSize,
+            final Integer rebalancingInterval) {
+
+        final OnlineStatistics[] retVal = new OnlineStatistics[aNumberOfSteps];
+        for (int s = 0; s < aNumberOfSteps; s++) {
+            retVal[s] = new OnlineStatistics(myQuantiles);
         }
 
-        return new RandomProcess.SimulationResults(tmpAggregator.doubleValue(), tmpRealisationValues);
+        this.execute(aNumberOfRealisations, aNumberOfSteps, aStepSize, rebalancingInterval, null, retVal);
+
+        return retVal;
     }
 }
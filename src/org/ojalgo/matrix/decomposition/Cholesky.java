@@ -26,6 +26,7 @@ import java.math.BigDecimal;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.array.BasicArray;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.scalar.ComplexNumber;
 
 /**
@@ -72,10 +73,26 @@ public interface Cholesky<N extends Number> extends LDU<N>, HermitianDecompositi
         return new CholeskyDecomposition.Big();
     }
 
+    /**
+     * @param factory Decide which {@linkplain BigDecimal} store implementation to use, e.g.
+     *        {@linkplain org.ojalgo.matrix.store.DoubleDoubleStore#FACTORY}
+     */
+    public static Cholesky<BigDecimal> makeBig(final PhysicalStore.Factory<BigDecimal, ? extends DecompositionStore<BigDecimal>> factory) {
+        return new CholeskyDecomposition.Big(factory);
+    }
+
     public static Cholesky<ComplexNumber> makeComplex() {
         return new CholeskyDecomposition.Complex();
     }
 
+    /**
+     * @param factory Decide which {@linkplain ComplexNumber} store implementation to use, e.g.
+     *        {@linkplain org.ojalgo.matrix.store.SplitComplexStore#FACTORY}
+     */
+    public static Cholesky<ComplexNumber> makeComplex(final PhysicalStore.Factory<ComplexNumber, ? extends DecompositionStore<ComplexNumber>> factory) {
+        return new CholeskyDecomposition.Complex(factory);
+    }
+
     public static Cholesky<Double> makePrimitive() {
         return new CholeskyDecomposition.Primitive();
     }
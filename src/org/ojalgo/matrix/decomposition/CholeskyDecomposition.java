@@ -54,6 +54,10 @@ public abstract class CholeskyDecomposition<N extends Number> extends InPlaceDec
             super(BigDenseStore.FACTORY);
         }
 
+        Big(final DecompositionStore.Factory<BigDecimal, ? extends DecompositionStore<BigDecimal>> aFactory) {
+            super(aFactory);
+        }
+
     }
 
     static final class Complex extends CholeskyDecomposition<ComplexNumber> {
@@ -62,6 +66,10 @@ public abstract class CholeskyDecomposition<N extends Number> extends InPlaceDec
             super(ComplexDenseStore.FACTORY);
         }
 
+        Complex(final DecompositionStore.Factory<ComplexNumber, ? extends DecompositionStore<ComplexNumber>> aFactory) {
+            super(aFactory);
+        }
+
     }
 
     static final class Primitive extends CholeskyDecomposition<Double> {
@@ -75,6 +75,19 @@ abstract class HermitianEvD32<N extends Number> extends EigenvalueDecomposition<
             super(PrimitiveDenseStore.FACTORY, new TridiagonalDecomposition.Primitive());
         }
 
+        /**
+         * Larger problems, when the eigenvectors are required, are solved using a (parallel) divide-and-conquer
+         * algorithm rather than the sequential implicit QL.
+         */
+        @Override
+        Array1D<Double> diagonalize(final DiagonalAccess<Double> tridiagonal, final DecompositionStore<Double> transformationAccumulator) {
+            if ((transformationAccumulator != null) && (tridiagonal.countRows() >= TridiagonalDivideAndConquer.THRESHOLD)) {
+                return TridiagonalDivideAndConquer.toDiagonal(tridiagonal, transformationAccumulator);
+            } else {
+                return super.diagonalize(tridiagonal, transformationAccumulator);
+            }
+        }
+
     }
 
     private static final double EPSILON = Math.pow(2.0, -52.0);
@@ -370,7 +383,7 @@ abstract class HermitianEvD32<N extends Number> extends EigenvalueDecomposition<
 
         //        BasicLogger.logDebug("Tridiagonal2={}", tmpTridiagonal);
 
-        final Array1D<Double> tmpDiagonal = myDiagonalValues = HermitianEvD32.toDiagonal(tmpTridiagonal, tmpV);
+        final Array1D<Double> tmpDiagonal = myDiagonalValues = this.diagonalize(tmpTridiagonal, tmpV);
 
         for (int ij1 = 0; ij1 < (tmpDim - 1); ij1++) {
             final double tmpValue1 = tmpDiagonal.doubleValue(ij1);
@@ -403,6 +416,10 @@ abstract class HermitianEvD32<N extends Number> extends EigenvalueDecomposition<
         return this.computed(true);
     }
 
+    Array1D<Double> diagonalize(final DiagonalAccess<N> tridiagonal, final DecompositionStore<N> transformationAccumulator) {
+        return HermitianEvD32.toDiagonal(tridiagonal, transformationAccumulator);
+    }
+
     @Override
     protected MatrixStore<N> makeD() {
         return this.wrap(new DiagonalAccess<Double>(myDiagonalValues, null, null, PrimitiveMath.ZERO));
@@ -27,6 +27,7 @@ import org.ojalgo.access.Access2D;
 import org.ojalgo.matrix.store.ColumnsStore;
 import org.ojalgo.matrix.store.IdentityStore;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.RowsStore;
 import org.ojalgo.scalar.ComplexNumber;
 
@@ -81,10 +82,26 @@ public interface LU<N extends Number> extends LDU<N> {
         return new LUDecomposition.Big();
     }
 
+    /**
+     * @param factory Decide which {@linkplain BigDecimal} store implementation to use, e.g.
+     *        {@linkplain org.ojalgo.matrix.store.DoubleDoubleStore#FACTORY}
+     */
+    public static LU<BigDecimal> makeBig(final PhysicalStore.Factory<BigDecimal, ? extends DecompositionStore<BigDecimal>> factory) {
+        return new LUDecomposition.Big(factory);
+    }
+
     public static LU<ComplexNumber> makeComplex() {
         return new LUDecomposition.Complex();
     }
 
+    /**
+     * @param factory Decide which {@linkplain ComplexNumber} store implementation to use, e.g.
+     *        {@linkplain org.ojalgo.matrix.store.SplitComplexStore#FACTORY}
+     */
+    public static LU<ComplexNumber> makeComplex(final PhysicalStore.Factory<ComplexNumber, ? extends DecompositionStore<ComplexNumber>> factory) {
+        return new LUDecomposition.Complex(factory);
+    }
+
     public static LU<Double> makePrimitive() {
         return new LUDecomposition.Primitive();
     }
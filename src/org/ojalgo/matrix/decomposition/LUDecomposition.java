@@ -104,6 +104,10 @@ public abstract class LUDecomposition<N extends Number> extends InPlaceDecomposi
             super(BigDenseStore.FACTORY);
         }
 
+        Big(final DecompositionStore.Factory<BigDecimal, ? extends DecompositionStore<BigDecimal>> aFactory) {
+            super(aFactory);
+        }
+
     }
 
     static final class Complex extends LUDecomposition<ComplexNumber> {
@@ -112,6 +116,10 @@ public abstract class LUDecomposition<N extends Number> extends InPlaceDecomposi
             super(ComplexDenseStore.FACTORY);
         }
 
+        Complex(final DecompositionStore.Factory<ComplexNumber, ? extends DecompositionStore<ComplexNumber>> aFactory) {
+            super(aFactory);
+        }
+
     }
 
     static final class Primitive extends LUDecomposition<Double> {
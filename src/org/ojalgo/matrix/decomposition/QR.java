@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 
 import org.ojalgo.access.Access2D;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.task.DeterminantTask;
 import org.ojalgo.scalar.ComplexNumber;
 
@@ -68,10 +69,26 @@ public interface QR<N extends Number> extends MatrixDecomposition<N>, Determinan
         return new QRDecomposition.Big();
     }
 
+    /**
+     * @param factory Decide which {@linkplain BigDecimal} store implementation to use, e.g.
+     *        {@linkplain org.ojalgo.matrix.store.DoubleDoubleStore#FACTORY}
+     */
+    public static QR<BigDecimal> makeBig(final PhysicalStore.Factory<BigDecimal, ? extends DecompositionStore<BigDecimal>> factory) {
+        return new QRDecomposition.Big(factory);
+    }
+
     public static QR<ComplexNumber> makeComplex() {
         return new QRDecomposition.Complex();
     }
 
+    /**
+     * @param factory Decide which {@linkplain ComplexNumber} store implementation to use, e.g.
+     *        {@linkplain org.ojalgo.matrix.store.SplitComplexStore#FACTORY}
+     */
+    public static QR<ComplexNumber> makeComplex(final PhysicalStore.Factory<ComplexNumber, ? extends DecompositionStore<ComplexNumber>> factory) {
+        return new QRDecomposition.Complex(factory);
+    }
+
     public static QR<Double> makePrimitive() {
         return new QRDecomposition.Primitive();
     }
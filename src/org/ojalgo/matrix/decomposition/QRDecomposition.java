@@ -52,6 +52,10 @@ public abstract class QRDecomposition<N extends Number> extends InPlaceDecomposi
             super(BigDenseStore.FACTORY);
         }
 
+        Big(final DecompositionStore.Factory<BigDecimal, ? extends DecompositionStore<BigDecimal>> aFactory) {
+            super(aFactory);
+        }
+
     }
 
     static final class Complex extends QRDecomposition<ComplexNumber> {
@@ -60,6 +64,10 @@ public abstract class QRDecomposition<N extends Number> extends InPlaceDecomposi
             super(ComplexDenseStore.FACTORY);
         }
 
+        Complex(final DecompositionStore.Factory<ComplexNumber, ? extends DecompositionStore<ComplexNumber>> aFactory) {
+            super(aFactory);
+        }
+
     }
 
     static final class Primitive extends QRDecomposition<Double> {
@@ -0,0 +1,478 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.PrimitiveArray;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * Cuppen's divide-and-conquer algorithm for the eigenvalues and eigenvectors of a symmetric tridiagonal
+ * matrix. The tridiagonal is recursively torn in two halves by a rank-one modification, the halves are solved
+ * independently (in parallel) and then merged by solving the secular equation. Eigenvectors of the merged
+ * problem are calculated using the Gu/Eisenstat method to keep them numerically orthogonal.
+ *
+ * @author apete
+ */
+final class TridiagonalDivideAndConquer {
+
+    /**
+     * Subproblems this small are solved with the implicit QL algorithm.
+     */
+    static int LEAF = 32;
+
+    /**
+     * Tridiagonal matrices smaller than this are better handled by the implicit QL algorithm, and will never
+     * reach this class from {@linkplain HermitianEvD32}.
+     */
+    static int THRESHOLD = 128;
+
+    private static final double EPSILON = PrimitiveMath.MACHINE_EPSILON;
+
+    private static final int MAX_ITERATIONS = 128;
+
+    /**
+     * Will calculate the eigenvalues of the tridiagonal, and (if the accumulator is not null) premultiply the
+     * tridiagonal's eigenvectors by whatever is already in the accumulator. Functionally equivalent to
+     * {@linkplain HermitianEvD32#toDiagonal(DiagonalAccess, DecompositionStore)}.
+     */
+    static Array1D<Double> toDiagonal(final DiagonalAccess<?> tridiagonal, final DecompositionStore<Double> transformationAccumulator) {
+
+        final Array1D<?> tmpMainDiagonal = tridiagonal.mainDiagonal;
+        final Array1D<?> tmpSubdiagonal = tridiagonal.subdiagonal;
+
+        final int tmpDim = tmpMainDiagonal.size();
+
+        final double[] tmpMainDiagData = tmpMainDiagonal.toRawCopy();
+        final double[] tmpOffDiagData = new double[tmpDim];
+        for (int i = 0; i < tmpSubdiagonal.size(); i++) {
+            tmpOffDiagData[i] = tmpSubdiagonal.doubleValue(i);
+        }
+
+        final PrimitiveDenseStore tmpVectors = TridiagonalDivideAndConquer.divide(tmpMainDiagData, tmpOffDiagData, 0, tmpDim, OjAlgoUtils.ENVIRONMENT.threads);
+
+        if (transformationAccumulator != null) {
+            final MatrixStore<Double> tmpProduct = transformationAccumulator.multiply(tmpVectors);
+            transformationAccumulator.fillMatching(tmpProduct);
+        }
+
+        return Array1D.PRIMITIVE.wrap(PrimitiveArray.wrap(tmpMainDiagData));
+    }
+
+    /**
+     * Solves the subproblem [first,limit). On return the eigenvalues are stored in mainDiag[first,limit) and
+     * the eigenvectors are returned as the columns of a (limit-first)x(limit-first) matrix - same column
+     * order as the eigenvalues.
+     */
+    static PrimitiveDenseStore divide(final double[] mainDiag, final double[] offDiag, final int first, final int limit, final int workers) {
+
+        final int tmpDim = limit - first;
+
+        if (tmpDim <= LEAF) {
+            return TridiagonalDivideAndConquer.conquer(mainDiag, offDiag, first, limit);
+        }
+
+        final int tmpSplit = first + (tmpDim / 2);
+        final double tmpRho = offDiag[tmpSplit - 1];
+
+        mainDiag[tmpSplit - 1] -= tmpRho;
+        mainDiag[tmpSplit] -= tmpRho;
+
+        final PrimitiveDenseStore tmpUpper;
+        final PrimitiveDenseStore tmpLower;
+
+        if (workers > 1) {
+
+            final int tmpWorkers = workers / 2;
+
+            final Future<PrimitiveDenseStore> tmpUpperPart = DaemonPoolExecutor.invoke(new Callable<PrimitiveDenseStore>() {
+
+                public PrimitiveDenseStore call() {
+                    return TridiagonalDivideAndConquer.divide(mainDiag, offDiag, first, tmpSplit, tmpWorkers);
+                }
+            });
+
+            tmpLower = TridiagonalDivideAndConquer.divide(mainDiag, offDiag, tmpSplit, limit, tmpWorkers);
+
+            try {
+                tmpUpper = tmpUpperPart.get();
+            } catch (final InterruptedException | ExecutionException exception) {
+                throw new ProgrammingError(exception);
+            }
+
+        } else {
+
+            tmpUpper = TridiagonalDivideAndConquer.divide(mainDiag, offDiag, first, tmpSplit, 1);
+            tmpLower = TridiagonalDivideAndConquer.divide(mainDiag, offDiag, tmpSplit, limit, 1);
+        }
+
+        return TridiagonalDivideAndConquer.merge(mainDiag, first, tmpSplit, limit, tmpRho, tmpUpper, tmpLower);
+    }
+
+    /**
+     * Leaf problem - implicit QL.
+     */
+    private static PrimitiveDenseStore conquer(final double[] mainDiag, final double[] offDiag, final int first, final int limit) {
+
+        final int tmpDim = limit - first;
+
+        final Array1D<Double> tmpMain = Array1D.PRIMITIVE.copy(Arrays.copyOfRange(mainDiag, first, limit));
+        final Array1D<Double> tmpSub = Array1D.PRIMITIVE.copy(Arrays.copyOfRange(offDiag, first, limit - 1));
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeEye(tmpDim, tmpDim);
+
+        final Array1D<Double> tmpValues = HermitianEvD32.toDiagonal(DiagonalAccess.makePrimitive(tmpMain, null, tmpSub), retVal);
+
+        for (int i = 0; i < tmpDim; i++) {
+            mainDiag[first + i] = tmpValues.doubleValue(i);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Solves the rank-one modified problem diag(d) + rho*z*z<sup>T</sup> where z is the last row of the upper
+     * eigenvectors and the first row of the lower eigenvectors, and then back-transforms the eigenvectors.
+     */
+    private static PrimitiveDenseStore merge(final double[] mainDiag, final int first, final int split, final int limit, final double rho,
+            final PrimitiveDenseStore upper, final PrimitiveDenseStore lower) {
+
+        final int tmpDim = limit - first;
+        final int tmpUpperDim = split - first;
+        final int tmpLowerDim = limit - split;
+
+        final double[] tmpD = Arrays.copyOfRange(mainDiag, first, limit);
+        final double[] tmpZ = new double[tmpDim];
+        for (int i = 0; i < tmpUpperDim; i++) {
+            tmpZ[i] = upper.doubleValue(tmpUpperDim - 1, i);
+        }
+        for (int i = 0; i < tmpLowerDim; i++) {
+            tmpZ[tmpUpperDim + i] = lower.doubleValue(0, i);
+        }
+
+        // A negative rho is handled by negating the diagonal (and then the eigenvalues)
+        final boolean tmpNegated = rho < PrimitiveMath.ZERO;
+        if (tmpNegated) {
+            for (int i = 0; i < tmpDim; i++) {
+                tmpD[i] = -tmpD[i];
+            }
+        }
+
+        double tmpNormZ = PrimitiveMath.ZERO;
+        for (int i = 0; i < tmpDim; i++) {
+            tmpNormZ = Math.hypot(tmpNormZ, tmpZ[i]);
+        }
+        for (int i = 0; i < tmpDim; i++) {
+            tmpZ[i] /= tmpNormZ;
+        }
+        final double tmpRho = Math.abs(rho) * tmpNormZ * tmpNormZ;
+
+        final Integer[] tmpOrder = new Integer[tmpDim];
+        double tmpLargest = tmpRho;
+        for (int i = 0; i < tmpDim; i++) {
+            tmpOrder[i] = i;
+            tmpLargest = Math.max(tmpLargest, Math.abs(tmpD[i]));
+        }
+        Arrays.sort(tmpOrder, new Comparator<Integer>() {
+
+            public int compare(final Integer i, final Integer j) {
+                return Double.compare(tmpD[i], tmpD[j]);
+            }
+        });
+
+        final double tmpTolerance = 8.0 * EPSILON * tmpLargest;
+
+        // Deflation - small components of z, or (almost) equal diagonal elements
+
+        final int[] tmpKept = new int[tmpDim];
+        int tmpCountKept = 0;
+        final int[] tmpDeflated = new int[tmpDim];
+        int tmpCountDeflated = 0;
+
+        final int[] tmpRotLow = new int[tmpDim];
+        final int[] tmpRotHigh = new int[tmpDim];
+        final double[] tmpRotCos = new double[tmpDim];
+        final double[] tmpRotSin = new double[tmpDim];
+        int tmpCountRotations = 0;
+
+        int tmpPrevious = -1;
+        for (int o = 0; o < tmpDim; o++) {
+
+            final int i = tmpOrder[o];
+
+            if ((tmpRho * Math.abs(tmpZ[i])) <= tmpTolerance) {
+
+                tmpDeflated[tmpCountDeflated++] = i;
+
+            } else {
+
+                if ((tmpPrevious >= 0) && ((tmpD[i] - tmpD[tmpPrevious]) <= tmpTolerance)) {
+
+                    final double tmpR = Math.hypot(tmpZ[tmpPrevious], tmpZ[i]);
+
+                    tmpRotLow[tmpCountRotations] = tmpPrevious;
+                    tmpRotHigh[tmpCountRotations] = i;
+                    tmpRotCos[tmpCountRotations] = tmpZ[i] / tmpR;
+                    tmpRotSin[tmpCountRotations] = tmpZ[tmpPrevious] / tmpR;
+                    tmpCountRotations++;
+
+                    tmpZ[i] = tmpR;
+                    tmpZ[tmpPrevious] = PrimitiveMath.ZERO;
+
+                    tmpCountKept--;
+                    tmpDeflated[tmpCountDeflated++] = tmpPrevious;
+                }
+
+                tmpKept[tmpCountKept++] = i;
+                tmpPrevious = i;
+            }
+        }
+
+        final int tmpK = tmpCountKept;
+        final double[] tmpKeptD = new double[tmpK];
+        final double[] tmpKeptZ = new double[tmpK];
+        for (int j = 0; j < tmpK; j++) {
+            tmpKeptD[j] = tmpD[tmpKept[j]];
+            tmpKeptZ[j] = tmpZ[tmpKept[j]];
+        }
+
+        // Secular equation - each eigenvalue is stored as an offset (tau) from one of the poles (origin)
+
+        final int[] tmpOrigin = new int[tmpK];
+        final double[] tmpTau = new double[tmpK];
+
+        final DivideAndConquer tmpRootFinder = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int j = first; j < limit; j++) {
+                    TridiagonalDivideAndConquer.solveSecular(j, tmpKeptD, tmpKeptZ, tmpRho, tmpOrigin, tmpTau);
+                }
+            }
+        };
+        if (tmpK > 0) {
+            tmpRootFinder.invoke(0, tmpK, THRESHOLD);
+        }
+
+        // Gu/Eisenstat - recompute z so that it is consistent with the calculated eigenvalues
+
+        final double[] tmpZhat = new double[tmpK];
+        for (int i = 0; i < tmpK; i++) {
+
+            final double tmpDi = tmpKeptD[i];
+
+            double tmpProduct = ((tmpKeptD[tmpOrigin[tmpK - 1]] - tmpDi) + tmpTau[tmpK - 1]) / tmpRho;
+            for (int m = 0; m < i; m++) {
+                tmpProduct *= ((tmpKeptD[tmpOrigin[m]] - tmpDi) + tmpTau[m]) / (tmpKeptD[m] - tmpDi);
+            }
+            for (int m = i; m < (tmpK - 1); m++) {
+                tmpProduct *= ((tmpKeptD[tmpOrigin[m]] - tmpDi) + tmpTau[m]) / (tmpKeptD[m + 1] - tmpDi);
+            }
+
+            tmpZhat[i] = Math.copySign(Math.sqrt(Math.abs(tmpProduct)), tmpKeptZ[i]);
+        }
+
+        // Eigenvectors of the rank-one modified diagonal matrix
+
+        final PrimitiveDenseStore tmpUpperU = PrimitiveDenseStore.FACTORY.makeZero(tmpUpperDim, tmpDim);
+        final PrimitiveDenseStore tmpLowerU = PrimitiveDenseStore.FACTORY.makeZero(tmpLowerDim, tmpDim);
+
+        final double[] tmpValues = new double[tmpDim];
+
+        for (int c = 0; c < tmpCountDeflated; c++) {
+            final int i = tmpDeflated[c];
+            tmpValues[c] = tmpD[i];
+            TridiagonalDivideAndConquer.set(tmpUpperU, tmpLowerU, tmpUpperDim, i, c, PrimitiveMath.ONE);
+        }
+
+        final int tmpOffset = tmpCountDeflated;
+
+        final DivideAndConquer tmpVectorMaker = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+
+                final double[] tmpVector = new double[tmpK];
+
+                for (int m = first; m < limit; m++) {
+
+                    final double tmpOriginD = tmpKeptD[tmpOrigin[m]];
+
+                    double tmpNorm = PrimitiveMath.ZERO;
+                    for (int i = 0; i < tmpK; i++) {
+                        tmpVector[i] = tmpZhat[i] / ((tmpKeptD[i] - tmpOriginD) - tmpTau[m]);
+                        tmpNorm = Math.hypot(tmpNorm, tmpVector[i]);
+                    }
+
+                    final int tmpColumn = tmpOffset + m;
+                    tmpValues[tmpColumn] = tmpOriginD + tmpTau[m];
+                    for (int i = 0; i < tmpK; i++) {
+                        TridiagonalDivideAndConquer.set(tmpUpperU, tmpLowerU, tmpUpperDim, tmpKept[i], tmpColumn, tmpVector[i] / tmpNorm);
+                    }
+                }
+            }
+        };
+        if (tmpK > 0) {
+            tmpVectorMaker.invoke(0, tmpK, THRESHOLD);
+        }
+
+        // Undo the deflating rotations, in reverse order
+
+        for (int r = tmpCountRotations - 1; r >= 0; r--) {
+
+            final int tmpLow = tmpRotLow[r];
+            final int tmpHigh = tmpRotHigh[r];
+            final double tmpCos = tmpRotCos[r];
+            final double tmpSin = tmpRotSin[r];
+
+            for (int c = 0; c < tmpDim; c++) {
+                final double tmpLowVal = TridiagonalDivideAndConquer.get(tmpUpperU, tmpLowerU, tmpUpperDim, tmpLow, c);
+                final double tmpHighVal = TridiagonalDivideAndConquer.get(tmpUpperU, tmpLowerU, tmpUpperDim, tmpHigh, c);
+                TridiagonalDivideAndConquer.set(tmpUpperU, tmpLowerU, tmpUpperDim, tmpLow, c, (tmpCos * tmpLowVal) + (tmpSin * tmpHighVal));
+                TridiagonalDivideAndConquer.set(tmpUpperU, tmpLowerU, tmpUpperDim, tmpHigh, c, (tmpCos * tmpHighVal) - (tmpSin * tmpLowVal));
+            }
+        }
+
+        for (int c = 0; c < tmpDim; c++) {
+            mainDiag[first + c] = tmpNegated ? -tmpValues[c] : tmpValues[c];
+        }
+
+        // Back-transform with the eigenvectors of the two subproblems
+
+        final MatrixStore<Double> tmpUpperProduct = upper.multiply(tmpUpperU);
+        final MatrixStore<Double> tmpLowerProduct = lower.multiply(tmpLowerU);
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = 0; i < tmpUpperDim; i++) {
+                retVal.set(i, j, tmpUpperProduct.doubleValue(i, j));
+            }
+            for (int i = 0; i < tmpLowerDim; i++) {
+                retVal.set(tmpUpperDim + i, j, tmpLowerProduct.doubleValue(i, j));
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Finds the j:th root of 1 + rho * sum(z<sub>i</sub><sup>2</sup>/(d<sub>i</sub>-lambda)) = 0 (d sorted
+     * ascending, rho positive) using Newton's method safeguarded by bisection. The root is stored as an offset
+     * from the nearest pole to preserve relative accuracy.
+     */
+    static void solveSecular(final int j, final double[] d, final double[] z, final double rho, final int[] origin, final double[] tau) {
+
+        final int tmpK = d.length;
+
+        int tmpOrigin = j;
+        double tmpLower = PrimitiveMath.ZERO;
+        double tmpUpper;
+
+        if (j < (tmpK - 1)) {
+            final double tmpGap = d[j + 1] - d[j];
+            tmpUpper = tmpGap / 2.0;
+            if (TridiagonalDivideAndConquer.secular(d, z, rho, j, tmpUpper) < PrimitiveMath.ZERO) {
+                tmpOrigin = j + 1;
+                tmpLower = -tmpUpper;
+                tmpUpper = PrimitiveMath.ZERO;
+            }
+        } else {
+            tmpUpper = rho;
+        }
+
+        final double tmpOriginD = d[tmpOrigin];
+
+        double tmpTau = (tmpLower + tmpUpper) / 2.0;
+
+        for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+
+            double tmpVal = PrimitiveMath.ONE;
+            double tmpDer = PrimitiveMath.ZERO;
+            for (int i = 0; i < tmpK; i++) {
+                final double tmpQuotient = z[i] / ((d[i] - tmpOriginD) - tmpTau);
+                tmpVal += rho * z[i] * tmpQuotient;
+                tmpDer += rho * tmpQuotient * tmpQuotient;
+            }
+
+            if (tmpVal == PrimitiveMath.ZERO) {
+                break;
+            } else if (tmpVal < PrimitiveMath.ZERO) {
+                tmpLower = tmpTau;
+            } else {
+                tmpUpper = tmpTau;
+            }
+
+            double tmpNext = tmpTau - (tmpVal / tmpDer);
+            if (!((tmpNext > tmpLower) && (tmpNext < tmpUpper))) {
+                tmpNext = (tmpLower + tmpUpper) / 2.0;
+            }
+
+            final double tmpChange = Math.abs(tmpNext - tmpTau);
+            tmpTau = tmpNext;
+
+            if ((tmpChange <= (EPSILON * Math.abs(tmpTau))) || ((tmpUpper - tmpLower) <= (EPSILON * Math.max(Math.abs(tmpLower), Math.abs(tmpUpper))))) {
+                break;
+            }
+        }
+
+        origin[j] = tmpOrigin;
+        tau[j] = tmpTau;
+    }
+
+    private static double get(final PrimitiveDenseStore upper, final PrimitiveDenseStore lower, final int split, final int row, final int column) {
+        return row < split ? upper.doubleValue(row, column) : lower.doubleValue(row - split, column);
+    }
+
+    private static double secular(final double[] d, final double[] z, final double rho, final int origin, final double tau) {
+        double retVal = PrimitiveMath.ONE;
+        for (int i = 0; i < d.length; i++) {
+            retVal += (rho * z[i] * z[i]) / ((d[i] - d[origin]) - tau);
+        }
+        return retVal;
+    }
+
+    private static void set(final PrimitiveDenseStore upper, final PrimitiveDenseStore lower, final int split, final int row, final int column,
+            final double value) {
+        if (row < split) {
+            upper.set(row, column, value);
+        } else {
+            lower.set(row - split, column, value);
+        }
+    }
+
+    private TridiagonalDivideAndConquer() {
+        super();
+    }
+
+}
@@ -419,7 +419,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
         final AggregatorFunction<BigDecimal> tmpMainAggr = aggregator.getBigFunction();
 
-        if (tmpColDim > AggregateAll.THRESHOLD) {
+        if (tmpColDim > AggregateAll.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -436,7 +436,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
                 }
             };
 
-            tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, AggregateAll.SETUP.thresholdForBig());
 
         } else {
 
@@ -451,7 +451,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final BigDecimal[] tmpData = data;
         final BigDecimal[] tmpColumn = ((BigArray) multipliers).data;
 
-        if ((myColDim - iterationPoint - 1) > ApplyCholesky.THRESHOLD) {
+        if ((myColDim - iterationPoint - 1) > ApplyCholesky.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -461,7 +461,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
                 }
             };
 
-            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.THRESHOLD);
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.SETUP.thresholdForBig());
 
         } else {
 
@@ -474,7 +474,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final BigDecimal[] tmpData = data;
         final BigDecimal[] tmpColumn = ((BigArray) multipliers).data;
 
-        if ((myColDim - iterationPoint - 1) > ApplyLDL.THRESHOLD) {
+        if ((myColDim - iterationPoint - 1) > ApplyLDL.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -484,7 +484,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
                 }
             };
 
-            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.THRESHOLD);
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.SETUP.thresholdForBig());
 
         } else {
 
@@ -497,7 +497,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final BigDecimal[] tmpData = data;
         final BigDecimal[] tmpColumn = ((BigArray) multipliers).data;
 
-        if ((myColDim - iterationPoint - 1) > ApplyLU.THRESHOLD) {
+        if ((myColDim - iterationPoint - 1) > ApplyLU.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -507,7 +507,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
                 }
             };
 
-            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.THRESHOLD);
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.SETUP.thresholdForBig());
 
         } else {
 
@@ -637,7 +637,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > FillMatchingSingle.THRESHOLD) {
+        if (tmpColDim > FillMatchingSingle.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -648,7 +648,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, FillMatchingSingle.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingSingle.SETUP.thresholdForBig());
 
         } else {
 
@@ -661,7 +661,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > FillMatchingBoth.THRESHOLD) {
+        if (tmpColDim > FillMatchingBoth.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -672,7 +672,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, FillMatchingBoth.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingBoth.SETUP.thresholdForBig());
 
         } else {
 
@@ -685,7 +685,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > FillMatchingLeft.THRESHOLD) {
+        if (tmpColDim > FillMatchingLeft.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -696,7 +696,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, FillMatchingLeft.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingLeft.SETUP.thresholdForBig());
 
         } else {
 
@@ -709,7 +709,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > FillMatchingRight.THRESHOLD) {
+        if (tmpColDim > FillMatchingRight.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -720,7 +720,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, FillMatchingRight.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingRight.SETUP.thresholdForBig());
 
         } else {
 
@@ -741,7 +741,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > FillTransposed.THRESHOLD) {
+        if (tmpColDim > FillTransposed.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -752,7 +752,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, FillTransposed.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, FillTransposed.SETUP.thresholdForBig());
 
         } else {
 
@@ -818,7 +818,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > MAXPY.THRESHOLD) {
+        if (tmpColDim > MAXPY.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -829,7 +829,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, MAXPY.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, MAXPY.SETUP.thresholdForBig());
 
         } else {
 
@@ -843,7 +843,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > ModifyAll.THRESHOLD) {
+        if (tmpColDim > ModifyAll.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -854,7 +854,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, ModifyAll.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, ModifyAll.SETUP.thresholdForBig());
 
         } else {
 
@@ -944,7 +944,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > SubstituteBackwards.THRESHOLD) {
+        if (tmpColDim > SubstituteBackwards.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -955,7 +955,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, SubstituteBackwards.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, SubstituteBackwards.SETUP.thresholdForBig());
 
         } else {
 
@@ -968,7 +968,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if (tmpColDim > SubstituteForwards.THRESHOLD) {
+        if (tmpColDim > SubstituteForwards.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -979,7 +979,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(0, tmpColDim, SubstituteForwards.THRESHOLD);
+            tmpConquerer.invoke(0, tmpColDim, SubstituteForwards.SETUP.thresholdForBig());
 
         } else {
 
@@ -1009,7 +1009,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if ((tmpColDim - firstColumn) > HouseholderLeft.THRESHOLD) {
+        if ((tmpColDim - firstColumn) > HouseholderLeft.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -1020,7 +1020,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(firstColumn, tmpColDim, HouseholderLeft.THRESHOLD);
+            tmpConquerer.invoke(firstColumn, tmpColDim, HouseholderLeft.SETUP.thresholdForBig());
 
         } else {
 
@@ -1061,7 +1061,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        if ((tmpRowDim - firstRow) > HouseholderRight.THRESHOLD) {
+        if ((tmpRowDim - firstRow) > HouseholderRight.SETUP.thresholdForBig()) {
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
@@ -1072,7 +1072,7 @@ public final class BigDenseStore extends BigArray implements PhysicalStore<BigDe
 
             };
 
-            tmpConquerer.invoke(firstRow, tmpRowDim, HouseholderRight.THRESHOLD);
+            tmpConquerer.invoke(firstRow, tmpRowDim, HouseholderRight.SETUP.thresholdForBig());
 
         } else {
 
@@ -0,0 +1,1756 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.BigFunction.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.AccessUtils;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
+import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.DoubleDoubleArray;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.BigMath;
+import org.ojalgo.function.BigFunction;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.BigAggregator;
+import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.decomposition.DecompositionStore;
+import org.ojalgo.matrix.store.operation.*;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.random.RandomNumber;
+import org.ojalgo.scalar.BigScalar;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.TypeUtils;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * A {@linkplain BigDecimal} implementation of {@linkplain PhysicalStore} with each element stored as a
+ * double-double, an unevaluated sum of two doubles (see {@linkplain DoubleDoubleArray}). That gives roughly
+ * 106 bits (32 decimal digits) of precision - far more than {@linkplain PrimitiveDenseStore} and less than
+ * {@linkplain BigDenseStore}, but the multiplication, LU, Cholesky, Householder, rotation and substitution
+ * kernels are error-free-transformation arithmetic on primitive double[] and do not allocate anything per
+ * element. The exponent range is that of double. Use {@linkplain #FACTORY} wherever a
+ * {@linkplain PhysicalStore.Factory} is accepted, e.g.
+ * {@linkplain org.ojalgo.matrix.decomposition.LU#makeBig(PhysicalStore.Factory)}.
+ *
+ * @author apete
+ */
+public final class DoubleDoubleStore extends DoubleDoubleArray implements PhysicalStore<BigDecimal>, DecompositionStore<BigDecimal> {
+
+    public static final DecompositionStore.Factory<BigDecimal, DoubleDoubleStore> FACTORY = new DecompositionStore.Factory<BigDecimal, DoubleDoubleStore>() {
+
+        public AggregatorSet<BigDecimal> aggregator() {
+            return BigAggregator.getSet();
+        }
+
+        public DoubleDoubleStore columns(final Access1D<?>... source) {
+
+            final int tmpRowDim = (int) source[0].count();
+            final int tmpColDim = source.length;
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public DoubleDoubleStore columns(final double[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final double[] tmpHigh = new double[tmpRowDim * tmpColDim];
+
+            for (int j = 0; j < tmpColDim; j++) {
+                System.arraycopy(source[j], 0, tmpHigh, tmpRowDim * j, tmpRowDim);
+            }
+
+            return new DoubleDoubleStore(tmpRowDim, tmpColDim, tmpHigh, new double[tmpRowDim * tmpColDim]);
+        }
+
+        public DoubleDoubleStore columns(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source[0].size();
+            final int tmpColDim = source.length;
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore(tmpRowDim, tmpColDim);
+
+            List<? extends Number> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public DoubleDoubleStore columns(final Number[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn[i]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public DoubleDoubleStore conjugate(final Access2D<?> source) {
+            return this.transpose(source);
+        }
+
+        public DoubleDoubleStore copy(final Access2D<?> source) {
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore((int) source.countRows(), (int) source.countColumns());
+
+            retVal.fillMatching(source);
+
+            return retVal;
+        }
+
+        public FunctionSet<BigDecimal> function() {
+            return BigFunction.getSet();
+        }
+
+        public DoubleDoubleArray makeArray(final int length) {
+            return DoubleDoubleArray.make(length);
+        }
+
+        public DoubleDoubleStore makeEye(final long rows, final long columns) {
+
+            final DoubleDoubleStore retVal = this.makeZero(rows, columns);
+
+            final int tmpRowDim = (int) rows;
+            final int tmpMinDim = (int) Math.min(rows, columns);
+            for (int ij = 0; ij < tmpMinDim; ij++) {
+                retVal.high[ij + (ij * tmpRowDim)] = ONE;
+            }
+
+            return retVal;
+        }
+
+        public Householder.Big makeHouseholder(final int length) {
+            return new Householder.Big(length);
+        }
+
+        public DoubleDoubleStore makeRandom(final long rows, final long columns, final RandomNumber distribution) {
+
+            final int tmpRowDim = (int) rows;
+            final int tmpColDim = (int) columns;
+
+            final int tmpLength = tmpRowDim * tmpColDim;
+
+            final double[] tmpHigh = new double[tmpLength];
+
+            for (int i = 0; i < tmpLength; i++) {
+                tmpHigh[i] = distribution.doubleValue();
+            }
+
+            return new DoubleDoubleStore(tmpRowDim, tmpColDim, tmpHigh, new double[tmpLength]);
+        }
+
+        public Rotation.Big makeRotation(final int low, final int high, final BigDecimal cos, final BigDecimal sin) {
+            return new Rotation.Big(low, high, cos, sin);
+        }
+
+        public Rotation.Big makeRotation(final int low, final int high, final double cos, final double sin) {
+            return this.makeRotation(low, high, new BigDecimal(cos), new BigDecimal(sin));
+        }
+
+        public DoubleDoubleStore makeZero(final long rows, final long columns) {
+            return new DoubleDoubleStore((int) rows, (int) columns);
+        }
+
+        public DoubleDoubleStore rows(final Access1D<?>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = (int) source[0].count();
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public DoubleDoubleStore rows(final double[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final double[] tmpHigh = new double[tmpRowDim * tmpColDim];
+
+            double[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    tmpHigh[i + (tmpRowDim * j)] = tmpRow[j];
+                }
+            }
+
+            return new DoubleDoubleStore(tmpRowDim, tmpColDim, tmpHigh, new double[tmpRowDim * tmpColDim]);
+        }
+
+        public DoubleDoubleStore rows(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].size();
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore(tmpRowDim, tmpColDim);
+
+            List<? extends Number> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public DoubleDoubleStore rows(final Number[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow[j]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public Scalar.Factory<BigDecimal> scalar() {
+            return BigScalar.FACTORY;
+        }
+
+        public DoubleDoubleStore transpose(final Access2D<?> source) {
+
+            final DoubleDoubleStore retVal = new DoubleDoubleStore((int) source.countColumns(), (int) source.countRows());
+
+            retVal.fillTransposed(source);
+
+            return retVal;
+        }
+    };
+
+    /**
+     * 2^27 + 1, used to split a double in two non-overlapping halves (Dekker)
+     */
+    private static final double SPLITTER = 134217729.0;
+
+    static DoubleDoubleStore cast(final Access1D<BigDecimal> matrix) {
+        if (matrix instanceof DoubleDoubleStore) {
+            return (DoubleDoubleStore) matrix;
+        } else if (matrix instanceof Access2D<?>) {
+            return FACTORY.copy((Access2D<?>) matrix);
+        } else {
+            return FACTORY.columns(matrix);
+        }
+    }
+
+    static DoubleDoubleArray cast(final BasicArray<BigDecimal> array) {
+        if (array instanceof DoubleDoubleArray) {
+            return (DoubleDoubleArray) array;
+        } else {
+            final DoubleDoubleStore retVal = new DoubleDoubleStore((int) array.count(), 1);
+            retVal.fillMatching(array);
+            return retVal;
+        }
+    }
+
+    /**
+     * destination[index] = a + b
+     */
+    static void add(final double aHigh, final double aLow, final double bHigh, final double bLow, final double[] destHigh, final double[] destLow,
+            final int index) {
+
+        final double tmpSum = aHigh + bHigh;
+        double tmpError = DoubleDoubleStore.errorOfSum(aHigh, bHigh, tmpSum);
+
+        final double tmpLowSum = aLow + bLow;
+        final double tmpLowError = DoubleDoubleStore.errorOfSum(aLow, bLow, tmpLowSum);
+
+        tmpError += tmpLowSum;
+        final double tmpHigh = tmpSum + tmpError;
+        tmpError = (tmpError - (tmpHigh - tmpSum)) + tmpLowError;
+
+        final double tmpResult = tmpHigh + tmpError;
+        destHigh[index] = tmpResult;
+        destLow[index] = tmpError - (tmpResult - tmpHigh);
+    }
+
+    /**
+     * destination[index] = destination[index] + a * b
+     */
+    static void addProduct(final double aHigh, final double aLow, final double bHigh, final double bLow, final double[] destHigh, final double[] destLow,
+            final int index) {
+
+        final double tmpProduct = aHigh * bHigh;
+        final double tmpError = DoubleDoubleStore.errorOfProduct(aHigh, bHigh, tmpProduct) + ((aHigh * bLow) + (aLow * bHigh));
+
+        final double tmpHigh = tmpProduct + tmpError;
+        DoubleDoubleStore.add(destHigh[index], destLow[index], tmpHigh, tmpError - (tmpHigh - tmpProduct), destHigh, destLow, index);
+    }
+
+    /**
+     * destination[index] = a / b
+     */
+    static void divide(final double aHigh, final double aLow, final double bHigh, final double bLow, final double[] destHigh, final double[] destLow,
+            final int index) {
+
+        final double tmpFirst = aHigh / bHigh;
+
+        // remainder = a - first * b
+        final double tmpProduct = tmpFirst * bHigh;
+        final double tmpProductError = DoubleDoubleStore.errorOfProduct(tmpFirst, bHigh, tmpProduct) + (tmpFirst * bLow);
+        final double tmpDifference = aHigh - tmpProduct;
+        final double tmpDifferenceError = DoubleDoubleStore.errorOfSum(aHigh, -tmpProduct, tmpDifference);
+        final double tmpRemainder = tmpDifference + ((tmpDifferenceError - tmpProductError) + aLow);
+
+        final double tmpSecond = tmpRemainder / bHigh;
+
+        final double tmpResult = tmpFirst + tmpSecond;
+        destHigh[index] = tmpResult;
+        destLow[index] = tmpSecond - (tmpResult - tmpFirst);
+    }
+
+    /**
+     * destination[index] = a * b
+     */
+    static void multiply(final double aHigh, final double aLow, final double bHigh, final double bLow, final double[] destHigh, final double[] destLow,
+            final int index) {
+
+        final double tmpProduct = aHigh * bHigh;
+        final double tmpError = DoubleDoubleStore.errorOfProduct(aHigh, bHigh, tmpProduct) + ((aHigh * bLow) + (aLow * bHigh));
+
+        final double tmpResult = tmpProduct + tmpError;
+        destHigh[index] = tmpResult;
+        destLow[index] = tmpError - (tmpResult - tmpProduct);
+    }
+
+    /**
+     * destination[index] = sqrt(a), one Newton step from the double square root
+     */
+    static void sqrt(final double aHigh, final double aLow, final double[] destHigh, final double[] destLow, final int index) {
+
+        if (aHigh <= ZERO) {
+            destHigh[index] = Math.sqrt(aHigh);
+            destLow[index] = ZERO;
+            return;
+        }
+
+        final double tmpRoot = Math.sqrt(aHigh);
+        final double tmpSquare = tmpRoot * tmpRoot;
+        final double tmpSquareError = DoubleDoubleStore.errorOfProduct(tmpRoot, tmpRoot, tmpSquare);
+        final double tmpCorrection = (((aHigh - tmpSquare) - tmpSquareError) + aLow) / (tmpRoot + tmpRoot);
+
+        final double tmpResult = tmpRoot + tmpCorrection;
+        destHigh[index] = tmpResult;
+        destLow[index] = tmpCorrection - (tmpResult - tmpRoot);
+    }
+
+    private static void applyCholesky(final double[] dataHigh, final double[] dataLow, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multHigh, final double[] multLow) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            DoubleDoubleStore.subtractScaledVector(dataHigh, dataLow, j * structure, multHigh, multLow, multHigh[j], multLow[j], j, structure);
+        }
+    }
+
+    private static void applyLDL(final double[] dataHigh, final double[] dataLow, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multHigh, final double[] multLow, final int iterationPoint) {
+
+        final int tmpDiagIndex = iterationPoint + (iterationPoint * structure);
+        final double tmpDiagHigh = dataHigh[tmpDiagIndex];
+        final double tmpDiagLow = dataLow[tmpDiagIndex];
+
+        final double[] tmpScalarHigh = new double[1];
+        final double[] tmpScalarLow = new double[1];
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+            DoubleDoubleStore.multiply(tmpDiagHigh, tmpDiagLow, multHigh[j], multLow[j], tmpScalarHigh, tmpScalarLow, 0);
+            DoubleDoubleStore.subtractScaledVector(dataHigh, dataLow, j * structure, multHigh, multLow, tmpScalarHigh[0], tmpScalarLow[0], j, structure);
+        }
+    }
+
+    private static void applyLU(final double[] dataHigh, final double[] dataLow, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multHigh, final double[] multLow, final int iterationPoint) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            final int tmpIndex = iterationPoint + (j * structure);
+            DoubleDoubleStore.subtractScaledVector(dataHigh, dataLow, j * structure, multHigh, multLow, dataHigh[tmpIndex], dataLow[tmpIndex],
+                    iterationPoint + 1, structure);
+        }
+    }
+
+    private static double errorOfProduct(final double a, final double b, final double product) {
+
+        double tmpSplit = SPLITTER * a;
+        final double tmpHighA = tmpSplit - (tmpSplit - a);
+        final double tmpLowA = a - tmpHighA;
+
+        tmpSplit = SPLITTER * b;
+        final double tmpHighB = tmpSplit - (tmpSplit - b);
+        final double tmpLowB = b - tmpHighB;
+
+        return ((((tmpHighA * tmpHighB) - product) + (tmpHighA * tmpLowB)) + (tmpLowA * tmpHighB)) + (tmpLowA * tmpLowB);
+    }
+
+    private static double errorOfSum(final double a, final double b, final double sum) {
+        final double tmpVirtual = sum - a;
+        return (a - (sum - tmpVirtual)) + (b - tmpVirtual);
+    }
+
+    private static void fill(final double[] destHigh, final double[] destLow, final int first, final int limit, final DoubleDoubleArray left,
+            final BinaryFunction<BigDecimal> function, final DoubleDoubleArray right) {
+
+        final double[] tmpLeftHigh = left.high;
+        final double[] tmpLeftLow = left.low;
+        final double[] tmpRightHigh = right.high;
+        final double[] tmpRightLow = right.low;
+
+        if (function == ADD) {
+            for (int i = first; i < limit; i++) {
+                DoubleDoubleStore.add(tmpLeftHigh[i], tmpLeftLow[i], tmpRightHigh[i], tmpRightLow[i], destHigh, destLow, i);
+            }
+        } else if (function == SUBTRACT) {
+            for (int i = first; i < limit; i++) {
+                DoubleDoubleStore.add(tmpLeftHigh[i], tmpLeftLow[i], -tmpRightHigh[i], -tmpRightLow[i], destHigh, destLow, i);
+            }
+        } else if (function == MULTIPLY) {
+            for (int i = first; i < limit; i++) {
+                DoubleDoubleStore.multiply(tmpLeftHigh[i], tmpLeftLow[i], tmpRightHigh[i], tmpRightLow[i], destHigh, destLow, i);
+            }
+        } else {
+            for (int i = first; i < limit; i++) {
+                DoubleDoubleStore.divide(tmpLeftHigh[i], tmpLeftLow[i], tmpRightHigh[i], tmpRightLow[i], destHigh, destLow, i);
+            }
+        }
+    }
+
+    private static void householderLeft(final double[] dataHigh, final double[] dataLow, final int rowDim, final int firstColumn, final int columnLimit,
+            final double[] vectHigh, final double[] vectLow, final int first, final double betaHigh, final double betaLow) {
+
+        final double[] tmpScaleHigh = new double[1];
+        final double[] tmpScaleLow = new double[1];
+
+        int tmpIndex;
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+
+            // scale = beta * (v^T * a_j)
+            tmpScaleHigh[0] = ZERO;
+            tmpScaleLow[0] = ZERO;
+            tmpIndex = first + (j * rowDim);
+            for (int i = first; i < rowDim; i++) {
+                DoubleDoubleStore.addProduct(vectHigh[i], vectLow[i], dataHigh[tmpIndex], dataLow[tmpIndex], tmpScaleHigh, tmpScaleLow, 0);
+                tmpIndex++;
+            }
+            DoubleDoubleStore.multiply(tmpScaleHigh[0], tmpScaleLow[0], betaHigh, betaLow, tmpScaleHigh, tmpScaleLow, 0);
+
+            // a_j -= scale * v
+            DoubleDoubleStore.subtractScaledVector(dataHigh, dataLow, j * rowDim, vectHigh, vectLow, tmpScaleHigh[0], tmpScaleLow[0], first, rowDim);
+        }
+    }
+
+    private static void householderRight(final double[] dataHigh, final double[] dataLow, final int rowDim, final int firstRow, final int rowLimit,
+            final int colDim, final double[] vectHigh, final double[] vectLow, final int first, final double betaHigh, final double betaLow) {
+
+        final double[] tmpScaleHigh = new double[1];
+        final double[] tmpScaleLow = new double[1];
+
+        int tmpIndex;
+
+        for (int i = firstRow; i < rowLimit; i++) {
+
+            // scale = beta * (a_i * v)
+            tmpScaleHigh[0] = ZERO;
+            tmpScaleLow[0] = ZERO;
+            tmpIndex = i + (first * rowDim);
+            for (int j = first; j < colDim; j++) {
+                DoubleDoubleStore.addProduct(dataHigh[tmpIndex], dataLow[tmpIndex], vectHigh[j], vectLow[j], tmpScaleHigh, tmpScaleLow, 0);
+                tmpIndex += rowDim;
+            }
+            DoubleDoubleStore.multiply(tmpScaleHigh[0], tmpScaleLow[0], betaHigh, betaLow, tmpScaleHigh, tmpScaleLow, 0);
+
+            // a_i -= scale * v
+            tmpIndex = i + (first * rowDim);
+            for (int j = first; j < colDim; j++) {
+                DoubleDoubleStore.addProduct(-tmpScaleHigh[0], -tmpScaleLow[0], vectHigh[j], vectLow[j], dataHigh, dataLow, tmpIndex);
+                tmpIndex += rowDim;
+            }
+        }
+    }
+
+    /**
+     * product = left * right, all column major, for the product columns [firstColumn, columnLimit)
+     */
+    private static void multiply(final double[] prodHigh, final double[] prodLow, final int rowDim, final int firstColumn, final int columnLimit,
+            final double[] leftHigh, final double[] leftLow, final int complexity, final double[] rightHigh, final double[] rightLow) {
+
+        double tmpRightHigh;
+        double tmpRightLow;
+        int tmpProdBase;
+        int tmpLeftBase;
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+
+            tmpProdBase = j * rowDim;
+
+            for (int i = 0; i < rowDim; i++) {
+                prodHigh[tmpProdBase + i] = ZERO;
+                prodLow[tmpProdBase + i] = ZERO;
+            }
+
+            for (int c = 0; c < complexity; c++) {
+
+                tmpRightHigh = rightHigh[c + (j * complexity)];
+                tmpRightLow = rightLow[c + (j * complexity)];
+
+                if (tmpRightHigh != ZERO) {
+
+                    tmpLeftBase = c * rowDim;
+
+                    for (int i = 0; i < rowDim; i++) {
+                        DoubleDoubleStore.addProduct(leftHigh[tmpLeftBase + i], leftLow[tmpLeftBase + i], tmpRightHigh, tmpRightLow, prodHigh, prodLow,
+                                tmpProdBase + i);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void substituteBackwards(final double[] dataHigh, final double[] dataLow, final int structure, final int firstColumn,
+            final int columnLimit, final DoubleDoubleStore body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final int tmpBodyRowDim = body.getRowDim();
+        final double[] tmpBodyHigh = body.high;
+        final double[] tmpBodyLow = body.low;
+
+        final int tmpDiagDim = Math.min(tmpBodyRowDim, body.getColDim());
+        final double[] tmpRowHigh = new double[tmpDiagDim];
+        final double[] tmpRowLow = new double[tmpDiagDim];
+
+        final double[] tmpValHigh = new double[1];
+        final double[] tmpValLow = new double[1];
+        int tmpColBaseIndex;
+
+        final int tmpFirstRow = hermitian ? firstColumn : 0;
+        for (int i = tmpDiagDim - 1; i >= tmpFirstRow; i--) {
+
+            for (int j = i; j < tmpDiagDim; j++) {
+                final int tmpBodyIndex = conjugated ? j + (i * tmpBodyRowDim) : i + (j * tmpBodyRowDim);
+                tmpRowHigh[j] = tmpBodyHigh[tmpBodyIndex];
+                tmpRowLow[j] = tmpBodyLow[tmpBodyIndex];
+            }
+
+            final int tmpColumnLimit = hermitian ? Math.min(i + 1, columnLimit) : columnLimit;
+            for (int s = firstColumn; s < tmpColumnLimit; s++) {
+
+                tmpColBaseIndex = s * structure;
+
+                tmpValHigh[0] = dataHigh[i + tmpColBaseIndex];
+                tmpValLow[0] = dataLow[i + tmpColBaseIndex];
+                for (int j = i + 1; j < tmpDiagDim; j++) {
+                    DoubleDoubleStore.addProduct(-tmpRowHigh[j], -tmpRowLow[j], dataHigh[j + tmpColBaseIndex], dataLow[j + tmpColBaseIndex], tmpValHigh,
+                            tmpValLow, 0);
+                }
+
+                if (unitDiagonal) {
+                    dataHigh[i + tmpColBaseIndex] = tmpValHigh[0];
+                    dataLow[i + tmpColBaseIndex] = tmpValLow[0];
+                } else {
+                    DoubleDoubleStore.divide(tmpValHigh[0], tmpValLow[0], tmpRowHigh[i], tmpRowLow[i], dataHigh, dataLow, i + tmpColBaseIndex);
+                }
+            }
+        }
+    }
+
+    private static void substituteForwards(final double[] dataHigh, final double[] dataLow, final int structure, final int firstColumn,
+            final int columnLimit, final DoubleDoubleStore body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int tmpBodyRowDim = body.getRowDim();
+        final double[] tmpBodyHigh = body.high;
+        final double[] tmpBodyLow = body.low;
+
+        final int tmpDiagDim = Math.min(tmpBodyRowDim, body.getColDim());
+        final double[] tmpRowHigh = new double[tmpDiagDim];
+        final double[] tmpRowLow = new double[tmpDiagDim];
+
+        final double[] tmpValHigh = new double[1];
+        final double[] tmpValLow = new double[1];
+        int tmpColBaseIndex;
+
+        for (int i = 0; i < tmpDiagDim; i++) {
+
+            for (int j = 0; j <= i; j++) {
+                final int tmpBodyIndex = conjugated ? j + (i * tmpBodyRowDim) : i + (j * tmpBodyRowDim);
+                tmpRowHigh[j] = tmpBodyHigh[tmpBodyIndex];
+                tmpRowLow[j] = tmpBodyLow[tmpBodyIndex];
+            }
+
+            for (int s = firstColumn; s < columnLimit; s++) {
+
+                tmpColBaseIndex = s * structure;
+
+                if (identity) {
+                    tmpValHigh[0] = i == s ? ONE : ZERO;
+                    tmpValLow[0] = ZERO;
+                } else {
+                    tmpValHigh[0] = dataHigh[i + tmpColBaseIndex];
+                    tmpValLow[0] = dataLow[i + tmpColBaseIndex];
+                }
+                for (int j = identity ? s : 0; j < i; j++) {
+                    DoubleDoubleStore.addProduct(-tmpRowHigh[j], -tmpRowLow[j], dataHigh[j + tmpColBaseIndex], dataLow[j + tmpColBaseIndex], tmpValHigh,
+                            tmpValLow, 0);
+                }
+
+                if (unitDiagonal) {
+                    dataHigh[i + tmpColBaseIndex] = tmpValHigh[0];
+                    dataLow[i + tmpColBaseIndex] = tmpValLow[0];
+                } else {
+                    DoubleDoubleStore.divide(tmpValHigh[0], tmpValLow[0], tmpRowHigh[i], tmpRowLow[i], dataHigh, dataLow, i + tmpColBaseIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * data[dataIndexBase + i] -= scalar * vector[i] for i in [first, limit)
+     */
+    private static void subtractScaledVector(final double[] dataHigh, final double[] dataLow, final int dataIndexBase, final double[] vectHigh,
+            final double[] vectLow, final double scalarHigh, final double scalarLow, final int first, final int limit) {
+        for (int i = first; i < limit; i++) {
+            DoubleDoubleStore.addProduct(-scalarHigh, -scalarLow, vectHigh[i], vectLow[i], dataHigh, dataLow, dataIndexBase + i);
+        }
+    }
+
+    private final int myColDim;
+    private final int myRowDim;
+    private final Array2D<BigDecimal> myUtility;
+
+    DoubleDoubleStore(final int aRowDim, final int aColDim) {
+
+        super(aRowDim * aColDim);
+
+        myRowDim = aRowDim;
+        myColDim = aColDim;
+
+        myUtility = this.asArray2D(myRowDim);
+    }
+
+    DoubleDoubleStore(final int aRowDim, final int aColDim, final double[] high, final double[] low) {
+
+        super(high, low);
+
+        myRowDim = aRowDim;
+        myColDim = aColDim;
+
+        myUtility = this.asArray2D(myRowDim);
+    }
+
+    public void accept(final Access2D<BigDecimal> supplied) {
+        for (long j = 0; j < supplied.countColumns(); j++) {
+            for (long i = 0; i < supplied.countRows(); i++) {
+                this.set(i, j, supplied.get(i, j));
+            }
+        }
+    }
+
+    public MatrixStore<BigDecimal> add(final MatrixStore<BigDecimal> addend) {
+        return new SuperimposedStore<>(this, addend);
+    }
+
+    public BigDecimal aggregateAll(final Aggregator aggregator) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final AggregatorFunction<BigDecimal> tmpMainAggr = aggregator.getBigFunction();
+
+        if (tmpColDim > AggregateAll.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+
+                    final AggregatorFunction<BigDecimal> tmpPartAggr = aggregator.getBigFunction();
+
+                    DoubleDoubleStore.this.visit(tmpRowDim * aFirst, tmpRowDim * aLimit, 1, tmpPartAggr);
+
+                    synchronized (tmpMainAggr) {
+                        tmpMainAggr.merge(tmpPartAggr.getNumber());
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, AggregateAll.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.this.visit(0, this.size(), 1, tmpMainAggr);
+        }
+
+        return tmpMainAggr.getNumber();
+    }
+
+    public void applyCholesky(final int iterationPoint, final BasicArray<BigDecimal> multipliers) {
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+        final DoubleDoubleArray tmpColumn = DoubleDoubleStore.cast(multipliers);
+        final double[] tmpColumnHigh = tmpColumn.high;
+        final double[] tmpColumnLow = tmpColumn.low;
+
+        if ((myColDim - iterationPoint - 1) > ApplyCholesky.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.applyCholesky(tmpDataHigh, tmpDataLow, myRowDim, aFirst, aLimit, tmpColumnHigh, tmpColumnLow);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.applyCholesky(tmpDataHigh, tmpDataLow, myRowDim, iterationPoint + 1, myColDim, tmpColumnHigh, tmpColumnLow);
+        }
+    }
+
+    public void applyLDL(final int iterationPoint, final BasicArray<BigDecimal> multipliers) {
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+        final DoubleDoubleArray tmpColumn = DoubleDoubleStore.cast(multipliers);
+        final double[] tmpColumnHigh = tmpColumn.high;
+        final double[] tmpColumnLow = tmpColumn.low;
+
+        if ((myColDim - iterationPoint - 1) > ApplyLDL.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    DoubleDoubleStore.applyLDL(tmpDataHigh, tmpDataLow, myRowDim, first, limit, tmpColumnHigh, tmpColumnLow, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.applyLDL(tmpDataHigh, tmpDataLow, myRowDim, iterationPoint + 1, myColDim, tmpColumnHigh, tmpColumnLow, iterationPoint);
+        }
+    }
+
+    public void applyLU(final int iterationPoint, final BasicArray<BigDecimal> multipliers) {
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+        final DoubleDoubleArray tmpColumn = DoubleDoubleStore.cast(multipliers);
+        final double[] tmpColumnHigh = tmpColumn.high;
+        final double[] tmpColumnLow = tmpColumn.low;
+
+        if ((myColDim - iterationPoint - 1) > ApplyLU.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.applyLU(tmpDataHigh, tmpDataLow, myRowDim, aFirst, aLimit, tmpColumnHigh, tmpColumnLow, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.applyLU(tmpDataHigh, tmpDataLow, myRowDim, iterationPoint + 1, myColDim, tmpColumnHigh, tmpColumnLow, iterationPoint);
+        }
+    }
+
+    public Array2D<BigDecimal> asArray2D() {
+        return myUtility;
+    }
+
+    public Array1D<BigDecimal> asList() {
+        return myUtility.asArray1D();
+    }
+
+    public final MatrixStore.Builder<BigDecimal> builder() {
+        return new MatrixStore.Builder<BigDecimal>(this);
+    }
+
+    public void caxpy(final BigDecimal scalarA, final int columnX, final int columnY, final int firstRow) {
+
+        final double tmpScalarHigh = scalarA.doubleValue();
+        final double tmpScalarLow = DoubleDoubleArray.toLow(scalarA, tmpScalarHigh);
+
+        final int tmpBaseX = columnX * myRowDim;
+        final int tmpBaseY = columnY * myRowDim;
+
+        for (int i = firstRow; i < myRowDim; i++) {
+            DoubleDoubleStore.addProduct(tmpScalarHigh, tmpScalarLow, high[tmpBaseX + i], low[tmpBaseX + i], high, low, tmpBaseY + i);
+        }
+    }
+
+    public Array1D<ComplexNumber> computeInPlaceSchur(final PhysicalStore<BigDecimal> transformationCollector, final boolean eigenvalue) {
+        throw new UnsupportedOperationException();
+    }
+
+    public MatrixStore<BigDecimal> conjugate() {
+        return this.transpose();
+    }
+
+    public DoubleDoubleStore copy() {
+        return new DoubleDoubleStore(myRowDim, myColDim, this.copyOfHigh(), this.copyOfLow());
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+    public void divideAndCopyColumn(final int row, final int column, final BasicArray<BigDecimal> destination) {
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+        final int tmpRowDim = myRowDim;
+
+        final DoubleDoubleArray tmpDestination = (DoubleDoubleArray) destination;
+        final double[] tmpDestHigh = tmpDestination.high;
+        final double[] tmpDestLow = tmpDestination.low;
+
+        int tmpIndex = row + (column * tmpRowDim);
+        final double tmpDenomHigh = tmpDataHigh[tmpIndex];
+        final double tmpDenomLow = tmpDataLow[tmpIndex];
+
+        for (int i = row + 1; i < tmpRowDim; i++) {
+            tmpIndex++;
+            DoubleDoubleStore.divide(tmpDataHigh[tmpIndex], tmpDataLow[tmpIndex], tmpDenomHigh, tmpDenomLow, tmpDataHigh, tmpDataLow, tmpIndex);
+            tmpDestHigh[i] = tmpDataHigh[tmpIndex];
+            tmpDestLow[i] = tmpDataLow[tmpIndex];
+        }
+    }
+
+    public double doubleValue(final long aRow, final long aCol) {
+        return high[(int) (aRow + (aCol * myRowDim))];
+    }
+
+    public boolean equals(final MatrixStore<BigDecimal> other, final NumberContext context) {
+        return AccessUtils.equals(this, other, context);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof MatrixStore) {
+            return this.equals((MatrixStore<BigDecimal>) anObj, NumberContext.getGeneral(6));
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void exchangeColumns(final int colA, final int colB) {
+        myUtility.exchangeColumns(colA, colB);
+    }
+
+    public void exchangeRows(final int rowA, final int rowB) {
+        myUtility.exchangeRows(rowA, rowB);
+    }
+
+    public PhysicalStore.Factory<BigDecimal, DoubleDoubleStore> factory() {
+        return FACTORY;
+    }
+
+    public void fillByMultiplying(final Access1D<BigDecimal> left, final Access1D<BigDecimal> right) {
+
+        final int tmpComplexity = ((int) left.count()) / myRowDim;
+
+        final DoubleDoubleArray tmpLeft = left instanceof DoubleDoubleArray ? (DoubleDoubleArray) left : this.toDoubleDouble(left, myRowDim, tmpComplexity);
+        final DoubleDoubleArray tmpRight = right instanceof DoubleDoubleArray ? (DoubleDoubleArray) right : this.toDoubleDouble(right, tmpComplexity, myColDim);
+
+        this.multiply(tmpLeft, tmpComplexity, tmpRight);
+    }
+
+    public void fillColumn(final long row, final long column, final BigDecimal value) {
+        myUtility.fillColumn(row, column, value);
+    }
+
+    public void fillColumn(final long row, final long column, final NullaryFunction<BigDecimal> supplier) {
+        myUtility.fillColumn(row, column, supplier);
+    }
+
+    public void fillConjugated(final Access2D<? extends Number> source) {
+        this.fillTransposed(source);
+    }
+
+    public void fillDiagonal(final long row, final long column, final BigDecimal value) {
+        myUtility.fillDiagonal(row, column, value);
+    }
+
+    public void fillDiagonal(final long row, final long column, final NullaryFunction<BigDecimal> supplier) {
+        myUtility.fillDiagonal(row, column, supplier);
+    }
+
+    public void fillMatching(final Access1D<? extends Number> source) {
+
+        final int tmpLength = high.length;
+
+        if (source instanceof DoubleDoubleArray) {
+
+            System.arraycopy(((DoubleDoubleArray) source).high, 0, high, 0, tmpLength);
+            System.arraycopy(((DoubleDoubleArray) source).low, 0, low, 0, tmpLength);
+
+        } else if (source instanceof PrimitiveDenseStore) {
+
+            System.arraycopy(((PrimitiveDenseStore) source).data, 0, high, 0, tmpLength);
+            for (int i = 0; i < tmpLength; i++) {
+                low[i] = ZERO;
+            }
+
+        } else {
+
+            final int tmpRowDim = myRowDim;
+            final int tmpColDim = myColDim;
+
+            if (tmpColDim > FillMatchingSingle.SETUP.thresholdForBig()) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int aFirst, final int aLimit) {
+                        for (int i = tmpRowDim * aFirst; i < (tmpRowDim * aLimit); i++) {
+                            DoubleDoubleStore.this.set(i, source.get(i));
+                        }
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, tmpColDim, FillMatchingSingle.SETUP.thresholdForBig());
+
+            } else {
+
+                for (int i = 0; i < tmpLength; i++) {
+                    this.set(i, source.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * With {@linkplain DoubleDoubleArray} arguments and one of the {@linkplain BigFunction#ADD},
+     * {@linkplain BigFunction#SUBTRACT}, {@linkplain BigFunction#MULTIPLY} or {@linkplain BigFunction#DIVIDE}
+     * functions the double-double arithmetic is used directly, otherwise each element goes through
+     * {@linkplain BigDecimal}.
+     */
+    public void fillMatching(final Access1D<BigDecimal> leftArg, final BinaryFunction<BigDecimal> func, final Access1D<BigDecimal> rightArg) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final boolean tmpPrimitive = (leftArg instanceof DoubleDoubleArray) && (rightArg instanceof DoubleDoubleArray)
+                && ((func == ADD) || (func == SUBTRACT) || (func == MULTIPLY) || (func == DIVIDE));
+
+        if (tmpColDim > FillMatchingBoth.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    if (tmpPrimitive) {
+                        DoubleDoubleStore.fill(high, low, tmpRowDim * aFirst, tmpRowDim * aLimit, (DoubleDoubleArray) leftArg, func,
+                                (DoubleDoubleArray) rightArg);
+                    } else {
+                        DoubleDoubleStore.this.fill(tmpRowDim * aFirst, tmpRowDim * aLimit, leftArg, func, rightArg);
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingBoth.SETUP.thresholdForBig());
+
+        } else {
+
+            if (tmpPrimitive) {
+                DoubleDoubleStore.fill(high, low, 0, tmpRowDim * tmpColDim, (DoubleDoubleArray) leftArg, func, (DoubleDoubleArray) rightArg);
+            } else {
+                this.fill(0, tmpRowDim * tmpColDim, leftArg, func, rightArg);
+            }
+        }
+    }
+
+    public void fillMatching(final Access1D<BigDecimal> aLeftArg, final BinaryFunction<BigDecimal> aFunc, final BigDecimal aRightArg) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > FillMatchingLeft.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.this.fill(tmpRowDim * aFirst, tmpRowDim * aLimit, aLeftArg, aFunc, aRightArg);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingLeft.SETUP.thresholdForBig());
+
+        } else {
+
+            this.fill(0, tmpRowDim * tmpColDim, aLeftArg, aFunc, aRightArg);
+        }
+    }
+
+    public void fillMatching(final BigDecimal aLeftArg, final BinaryFunction<BigDecimal> aFunc, final Access1D<BigDecimal> aRightArg) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > FillMatchingRight.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.this.fill(tmpRowDim * aFirst, tmpRowDim * aLimit, aLeftArg, aFunc, aRightArg);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingRight.SETUP.thresholdForBig());
+
+        } else {
+
+            this.fill(0, tmpRowDim * tmpColDim, aLeftArg, aFunc, aRightArg);
+        }
+    }
+
+    public void fillRow(final long row, final long column, final BigDecimal value) {
+        myUtility.fillRow(row, column, value);
+    }
+
+    public void fillRow(final long row, final long column, final NullaryFunction<BigDecimal> supplier) {
+        myUtility.fillRow(row, column, supplier);
+    }
+
+    public void fillTransposed(final Access2D<? extends Number> source) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (source instanceof DoubleDoubleStore) {
+
+            final double[] tmpSourceHigh = ((DoubleDoubleStore) source).high;
+            final double[] tmpSourceLow = ((DoubleDoubleStore) source).low;
+
+            for (int j = 0; j < tmpColDim; j++) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    high[i + (j * tmpRowDim)] = tmpSourceHigh[j + (i * tmpColDim)];
+                    low[i + (j * tmpRowDim)] = tmpSourceLow[j + (i * tmpColDim)];
+                }
+            }
+
+        } else {
+
+            for (int j = 0; j < tmpColDim; j++) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    this.set(i + (j * tmpRowDim), source.get(j, i));
+                }
+            }
+        }
+    }
+
+    public boolean generateApplyAndCopyHouseholderColumn(final int row, final int column, final Householder<BigDecimal> destination) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColBase = column * tmpRowDim;
+
+        final double[] tmpVectHigh = new double[tmpRowDim];
+        final double[] tmpVectLow = new double[tmpRowDim];
+
+        for (int i = row; i < tmpRowDim; i++) {
+            tmpVectHigh[i] = high[i + tmpColBase];
+            tmpVectLow[i] = low[i + tmpColBase];
+        }
+
+        if (this.generateHouseholder(tmpVectHigh, tmpVectLow, row, tmpRowDim, (Householder.Big) destination)) {
+            for (int i = row; i < tmpRowDim; i++) {
+                high[i + tmpColBase] = tmpVectHigh[i];
+                low[i + tmpColBase] = tmpVectLow[i];
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public boolean generateApplyAndCopyHouseholderRow(final int row, final int column, final Householder<BigDecimal> destination) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final double[] tmpVectHigh = new double[tmpColDim];
+        final double[] tmpVectLow = new double[tmpColDim];
+
+        for (int j = column; j < tmpColDim; j++) {
+            tmpVectHigh[j] = high[row + (j * tmpRowDim)];
+            tmpVectLow[j] = low[row + (j * tmpRowDim)];
+        }
+
+        if (this.generateHouseholder(tmpVectHigh, tmpVectLow, column, tmpColDim, (Householder.Big) destination)) {
+            for (int j = column; j < tmpColDim; j++) {
+                high[row + (j * tmpRowDim)] = tmpVectHigh[j];
+                low[row + (j * tmpRowDim)] = tmpVectLow[j];
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public BigDecimal get(final long aRow, final long aCol) {
+        return myUtility.get(aRow, aCol);
+    }
+
+    public int getColDim() {
+        return myColDim;
+    }
+
+    public int getIndexOfLargestInColumn(final int row, final int column) {
+        return (int) myUtility.indexOfLargestInColumn(row, column);
+    }
+
+    public int getMaxDim() {
+        return Math.max(myRowDim, myColDim);
+    }
+
+    public int getMinDim() {
+        return Math.min(myRowDim, myColDim);
+    }
+
+    public int getRowDim() {
+        return myRowDim;
+    }
+
+    @Override
+    public int hashCode() {
+        return MatrixUtils.hashCode(this);
+    }
+
+    public boolean isAbsolute(final long row, final long column) {
+        return myUtility.isAbsolute(row, column);
+    }
+
+    public boolean isLowerLeftShaded() {
+        return false;
+    }
+
+    public boolean isSmall(final long row, final long column, final double comparedTo) {
+        return myUtility.isSmall(row, column, comparedTo);
+    }
+
+    public boolean isUpperRightShaded() {
+        return false;
+    }
+
+    public void maxpy(final BigDecimal aSclrA, final MatrixStore<BigDecimal> aMtrxX) {
+
+        final double tmpScalarHigh = aSclrA.doubleValue();
+        final double tmpScalarLow = DoubleDoubleArray.toLow(aSclrA, tmpScalarHigh);
+
+        final DoubleDoubleStore tmpX = DoubleDoubleStore.cast(aMtrxX);
+        final double[] tmpHigh = tmpX.high;
+        final double[] tmpLow = tmpX.low;
+
+        for (int i = 0; i < high.length; i++) {
+            DoubleDoubleStore.addProduct(tmpScalarHigh, tmpScalarLow, tmpHigh[i], tmpLow[i], high, low, i);
+        }
+    }
+
+    @Override
+    public void modifyAll(final UnaryFunction<BigDecimal> aFunc) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > ModifyAll.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.this.modify(tmpRowDim * aFirst, tmpRowDim * aLimit, 1, aFunc);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, ModifyAll.SETUP.thresholdForBig());
+
+        } else {
+
+            this.modify(tmpRowDim * 0, tmpRowDim * tmpColDim, 1, aFunc);
+        }
+    }
+
+    public void modifyColumn(final long row, final long column, final UnaryFunction<BigDecimal> function) {
+        myUtility.modifyColumn(row, column, function);
+    }
+
+    public void modifyDiagonal(final long row, final long column, final UnaryFunction<BigDecimal> function) {
+        myUtility.modifyDiagonal(row, column, function);
+    }
+
+    public void modifyOne(final long row, final long column, final UnaryFunction<BigDecimal> function) {
+
+        BigDecimal tmpValue = this.get(row, column);
+
+        tmpValue = function.invoke(tmpValue);
+
+        this.set(row, column, tmpValue);
+    }
+
+    public void modifyRow(final long row, final long column, final UnaryFunction<BigDecimal> function) {
+        myUtility.modifyRow(row, column, function);
+    }
+
+    public MatrixStore<BigDecimal> multiply(final Access1D<BigDecimal> right) {
+
+        final int tmpColDim = (int) (right.count() / myColDim);
+
+        final DoubleDoubleStore retVal = FACTORY.makeZero(myRowDim, tmpColDim);
+
+        final DoubleDoubleArray tmpRight = right instanceof DoubleDoubleArray ? (DoubleDoubleArray) right : this.toDoubleDouble(right, myColDim, tmpColDim);
+
+        retVal.multiply(this, myColDim, tmpRight);
+
+        return retVal;
+    }
+
+    public MatrixStore<BigDecimal> multiplyLeft(final Access1D<BigDecimal> left) {
+
+        final int tmpRowDim = (int) (left.count() / myRowDim);
+
+        final DoubleDoubleStore retVal = FACTORY.makeZero(tmpRowDim, myColDim);
+
+        final DoubleDoubleArray tmpLeft = left instanceof DoubleDoubleArray ? (DoubleDoubleArray) left : this.toDoubleDouble(left, tmpRowDim, myRowDim);
+
+        retVal.multiply(tmpLeft, myRowDim, this);
+
+        return retVal;
+    }
+
+    public MatrixStore<BigDecimal> negate() {
+        return new ModificationStore<>(this, FACTORY.function().negate());
+    }
+
+    public void negateColumn(final int column) {
+        final int tmpLimit = (column + 1) * myRowDim;
+        for (int i = column * myRowDim; i < tmpLimit; i++) {
+            high[i] = -high[i];
+            low[i] = -low[i];
+        }
+    }
+
+    public void raxpy(final BigDecimal scalarA, final int rowX, final int rowY, final int firstColumn) {
+
+        final double tmpScalarHigh = scalarA.doubleValue();
+        final double tmpScalarLow = DoubleDoubleArray.toLow(scalarA, tmpScalarHigh);
+
+        int tmpIndexX;
+        for (int j = firstColumn; j < myColDim; j++) {
+            tmpIndexX = rowX + (j * myRowDim);
+            DoubleDoubleStore.addProduct(tmpScalarHigh, tmpScalarLow, high[tmpIndexX], low[tmpIndexX], high, low, rowY + (j * myRowDim));
+        }
+    }
+
+    public MatrixStore.ElementsConsumer<BigDecimal> region(final int row, final int column) {
+        return new PhysicalStore.ConsumerRegion<BigDecimal>(this, row, column);
+    }
+
+    public void rotateRight(final int aLow, final int aHigh, final double aCos, final double aSin) {
+        this.rotateRight(aLow, aHigh, aCos, ZERO, aSin, ZERO);
+    }
+
+    public MatrixStore<BigDecimal> scale(final BigDecimal scalar) {
+        return new ModificationStore<>(this, FACTORY.function().multiply().first(scalar));
+    }
+
+    public void set(final long aRow, final long aCol, final double aNmbr) {
+        myUtility.set(aRow, aCol, aNmbr);
+    }
+
+    public void set(final long aRow, final long aCol, final Number aNmbr) {
+        myUtility.set(aRow, aCol, aNmbr);
+    }
+
+    public void setToIdentity(final int aCol) {
+        final int tmpBase = aCol * myRowDim;
+        high[aCol + tmpBase] = ONE;
+        low[aCol + tmpBase] = ZERO;
+        for (int i = aCol + 1; i < myRowDim; i++) {
+            high[i + tmpBase] = ZERO;
+            low[i + tmpBase] = ZERO;
+        }
+    }
+
+    public void substituteBackwards(final Access2D<BigDecimal> body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final DoubleDoubleStore tmpBody = DoubleDoubleStore.cast(body);
+
+        if (tmpColDim > SubstituteBackwards.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.substituteBackwards(tmpDataHigh, tmpDataLow, tmpRowDim, aFirst, aLimit, tmpBody, unitDiagonal, conjugated, hermitian);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteBackwards.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.substituteBackwards(tmpDataHigh, tmpDataLow, tmpRowDim, 0, tmpColDim, tmpBody, unitDiagonal, conjugated, hermitian);
+        }
+    }
+
+    public void substituteForwards(final Access2D<BigDecimal> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final DoubleDoubleStore tmpBody = DoubleDoubleStore.cast(body);
+
+        if (tmpColDim > SubstituteForwards.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.substituteForwards(tmpDataHigh, tmpDataLow, tmpRowDim, aFirst, aLimit, tmpBody, unitDiagonal, conjugated, identity);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteForwards.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.substituteForwards(tmpDataHigh, tmpDataLow, tmpRowDim, 0, tmpColDim, tmpBody, unitDiagonal, conjugated, identity);
+        }
+    }
+
+    public MatrixStore<BigDecimal> subtract(final MatrixStore<BigDecimal> subtrahend) {
+        return this.add(subtrahend.negate());
+    }
+
+    public Scalar<BigDecimal> toScalar(final long row, final long column) {
+        return new BigScalar(this.get(row, column));
+    }
+
+    @Override
+    public final String toString() {
+        return MatrixUtils.toString(this);
+    }
+
+    public void transformLeft(final Householder<BigDecimal> transformation, final int firstColumn) {
+
+        final Householder.Big tmpTransf = BigDenseStore.cast(transformation);
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final int tmpFirst = tmpTransf.first;
+        final double[] tmpVectHigh = new double[tmpRowDim];
+        final double[] tmpVectLow = new double[tmpRowDim];
+        for (int i = tmpFirst; i < tmpRowDim; i++) {
+            tmpVectHigh[i] = tmpTransf.vector[i].doubleValue();
+            tmpVectLow[i] = DoubleDoubleArray.toLow(tmpTransf.vector[i], tmpVectHigh[i]);
+        }
+        final double tmpBetaHigh = tmpTransf.beta.doubleValue();
+        final double tmpBetaLow = DoubleDoubleArray.toLow(tmpTransf.beta, tmpBetaHigh);
+
+        if ((tmpColDim - firstColumn) > HouseholderLeft.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.householderLeft(tmpDataHigh, tmpDataLow, tmpRowDim, aFirst, aLimit, tmpVectHigh, tmpVectLow, tmpFirst, tmpBetaHigh,
+                            tmpBetaLow);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstColumn, tmpColDim, HouseholderLeft.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.householderLeft(tmpDataHigh, tmpDataLow, tmpRowDim, firstColumn, tmpColDim, tmpVectHigh, tmpVectLow, tmpFirst, tmpBetaHigh,
+                    tmpBetaLow);
+        }
+    }
+
+    public void transformLeft(final Rotation<BigDecimal> transformation) {
+
+        final Rotation.Big tmpTransf = BigDenseStore.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                final double tmpCosHigh = tmpTransf.cos.doubleValue();
+                final double tmpSinHigh = tmpTransf.sin.doubleValue();
+                this.rotateLeft(tmpLow, tmpHigh, tmpCosHigh, DoubleDoubleArray.toLow(tmpTransf.cos, tmpCosHigh), tmpSinHigh,
+                        DoubleDoubleArray.toLow(tmpTransf.sin, tmpSinHigh));
+            } else {
+                myUtility.exchangeRows(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyRow(tmpLow, 0, MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyRow(tmpLow, 0, DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyRow(tmpLow, 0, NEGATE);
+            }
+        }
+    }
+
+    public void transformRight(final Householder<BigDecimal> transformation, final int firstRow) {
+
+        final Householder.Big tmpTransf = BigDenseStore.cast(transformation);
+
+        final double[] tmpDataHigh = high;
+        final double[] tmpDataLow = low;
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final int tmpFirst = tmpTransf.first;
+        final double[] tmpVectHigh = new double[tmpColDim];
+        final double[] tmpVectLow = new double[tmpColDim];
+        for (int j = tmpFirst; j < tmpColDim; j++) {
+            tmpVectHigh[j] = tmpTransf.vector[j].doubleValue();
+            tmpVectLow[j] = DoubleDoubleArray.toLow(tmpTransf.vector[j], tmpVectHigh[j]);
+        }
+        final double tmpBetaHigh = tmpTransf.beta.doubleValue();
+        final double tmpBetaLow = DoubleDoubleArray.toLow(tmpTransf.beta, tmpBetaHigh);
+
+        if ((tmpRowDim - firstRow) > HouseholderRight.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.householderRight(tmpDataHigh, tmpDataLow, tmpRowDim, aFirst, aLimit, tmpColDim, tmpVectHigh, tmpVectLow, tmpFirst,
+                            tmpBetaHigh, tmpBetaLow);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstRow, tmpRowDim, HouseholderRight.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.householderRight(tmpDataHigh, tmpDataLow, tmpRowDim, firstRow, tmpRowDim, tmpColDim, tmpVectHigh, tmpVectLow, tmpFirst,
+                    tmpBetaHigh, tmpBetaLow);
+        }
+    }
+
+    public void transformRight(final Rotation<BigDecimal> transformation) {
+
+        final Rotation.Big tmpTransf = BigDenseStore.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                final double tmpCosHigh = tmpTransf.cos.doubleValue();
+                final double tmpSinHigh = tmpTransf.sin.doubleValue();
+                this.rotateRight(tmpLow, tmpHigh, tmpCosHigh, DoubleDoubleArray.toLow(tmpTransf.cos, tmpCosHigh), tmpSinHigh,
+                        DoubleDoubleArray.toLow(tmpTransf.sin, tmpSinHigh));
+            } else {
+                myUtility.exchangeColumns(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyColumn(0, tmpHigh, MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyColumn(0, tmpHigh, DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyColumn(0, tmpHigh, NEGATE);
+            }
+        }
+    }
+
+    /**
+     * Applied as a left and a right transformation - [H][this][H]
+     */
+    public void transformSymmetric(final Householder<BigDecimal> transformation) {
+        this.transformLeft(transformation, 0);
+        this.transformRight(transformation, 0);
+    }
+
+    public MatrixStore<BigDecimal> transpose() {
+        return new TransposedStore<>(this);
+    }
+
+    public void tred2(final BasicArray<BigDecimal> mainDiagonal, final BasicArray<BigDecimal> offDiagonal, final boolean yesvecs) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void visitColumn(final long row, final long column, final VoidFunction<BigDecimal> visitor) {
+        myUtility.visitColumn(row, column, visitor);
+    }
+
+    public void visitDiagonal(final long row, final long column, final VoidFunction<BigDecimal> visitor) {
+        myUtility.visitDiagonal(row, column, visitor);
+    }
+
+    public void visitRow(final long row, final long column, final VoidFunction<BigDecimal> visitor) {
+        myUtility.visitRow(row, column, visitor);
+    }
+
+    /**
+     * The same algorithm as {@linkplain GenerateApplyAndCopyHouseholderColumn} but in double-double. On input
+     * the vector [first, limit) holds the elements to be annihilated, on output it holds the Householder vector
+     * (with the new diagonal element at first).
+     */
+    private boolean generateHouseholder(final double[] vectHigh, final double[] vectLow, final int first, final int limit,
+            final Householder.Big destination) {
+
+        double tmpNormInf = ZERO;
+        for (int i = first; i < limit; i++) {
+            tmpNormInf = Math.max(tmpNormInf, Math.abs(vectHigh[i]));
+        }
+
+        if (tmpNormInf == ZERO) {
+            return false;
+        }
+
+        final double[] tmpNorm2High = new double[1];
+        final double[] tmpNorm2Low = new double[1];
+
+        for (int i = first + 1; i < limit; i++) {
+            DoubleDoubleStore.divide(vectHigh[i], vectLow[i], tmpNormInf, ZERO, vectHigh, vectLow, i);
+            DoubleDoubleStore.addProduct(vectHigh[i], vectLow[i], vectHigh[i], vectLow[i], tmpNorm2High, tmpNorm2Low, 0);
+        }
+
+        if (TypeUtils.isZero(tmpNorm2High[0])) {
+            return false;
+        }
+
+        final double[] tmpScaleHigh = new double[1];
+        final double[] tmpScaleLow = new double[1];
+
+        DoubleDoubleStore.divide(vectHigh[first], vectLow[first], tmpNormInf, ZERO, tmpScaleHigh, tmpScaleLow, 0);
+        DoubleDoubleStore.addProduct(tmpScaleHigh[0], tmpScaleLow[0], tmpScaleHigh[0], tmpScaleLow[0], tmpNorm2High, tmpNorm2Low, 0);
+        DoubleDoubleStore.sqrt(tmpNorm2High[0], tmpNorm2Low[0], tmpNorm2High, tmpNorm2Low, 0);
+
+        if (tmpScaleHigh[0] <= ZERO) {
+            DoubleDoubleStore.multiply(tmpNorm2High[0], tmpNorm2Low[0], tmpNormInf, ZERO, vectHigh, vectLow, first);
+            DoubleDoubleStore.add(tmpScaleHigh[0], tmpScaleLow[0], -tmpNorm2High[0], -tmpNorm2Low[0], tmpScaleHigh, tmpScaleLow, 0);
+        } else {
+            DoubleDoubleStore.multiply(-tmpNorm2High[0], -tmpNorm2Low[0], tmpNormInf, ZERO, vectHigh, vectLow, first);
+            DoubleDoubleStore.add(tmpScaleHigh[0], tmpScaleLow[0], tmpNorm2High[0], tmpNorm2Low[0], tmpScaleHigh, tmpScaleLow, 0);
+        }
+
+        final BigDecimal[] tmpVector = destination.vector;
+        destination.first = first;
+        tmpVector[first] = BigMath.ONE;
+
+        for (int i = first + 1; i < limit; i++) {
+            DoubleDoubleStore.divide(vectHigh[i], vectLow[i], tmpScaleHigh[0], tmpScaleLow[0], vectHigh, vectLow, i);
+            tmpVector[i] = DoubleDoubleArray.toBigDecimal(vectHigh[i], vectLow[i]);
+        }
+
+        if (tmpScaleHigh[0] < ZERO) {
+            tmpScaleHigh[0] = -tmpScaleHigh[0];
+            tmpScaleLow[0] = -tmpScaleLow[0];
+        }
+        DoubleDoubleStore.divide(tmpScaleHigh[0], tmpScaleLow[0], tmpNorm2High[0], tmpNorm2Low[0], tmpScaleHigh, tmpScaleLow, 0);
+        destination.beta = DoubleDoubleArray.toBigDecimal(tmpScaleHigh[0], tmpScaleLow[0]);
+
+        return true;
+    }
+
+    private void multiply(final DoubleDoubleArray left, final int complexity, final DoubleDoubleArray right) {
+
+        final double[] tmpProdHigh = high;
+        final double[] tmpProdLow = low;
+        final double[] tmpLeftHigh = left.high;
+        final double[] tmpLeftLow = left.low;
+        final double[] tmpRightHigh = right.high;
+        final double[] tmpRightLow = right.low;
+
+        final int tmpRowDim = myRowDim;
+
+        if (myColDim > MultiplyRight.SETUP.thresholdForBig()) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    DoubleDoubleStore.multiply(tmpProdHigh, tmpProdLow, tmpRowDim, aFirst, aLimit, tmpLeftHigh, tmpLeftLow, complexity, tmpRightHigh,
+                            tmpRightLow);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, myColDim, MultiplyRight.SETUP.thresholdForBig());
+
+        } else {
+
+            DoubleDoubleStore.multiply(tmpProdHigh, tmpProdLow, tmpRowDim, 0, myColDim, tmpLeftHigh, tmpLeftLow, complexity, tmpRightHigh, tmpRightLow);
+        }
+    }
+
+    private void rotateLeft(final int rowA, final int rowB, final double cosHigh, final double cosLow, final double sinHigh, final double sinLow) {
+
+        final double[] tmpOldHigh = new double[2];
+        final double[] tmpOldLow = new double[2];
+
+        int tmpIndexA = rowA;
+        int tmpIndexB = rowB;
+
+        for (int j = 0; j < myColDim; j++) {
+
+            tmpOldHigh[0] = high[tmpIndexA];
+            tmpOldLow[0] = low[tmpIndexA];
+            tmpOldHigh[1] = high[tmpIndexB];
+            tmpOldLow[1] = low[tmpIndexB];
+
+            // a = cos * a + sin * b
+            DoubleDoubleStore.multiply(cosHigh, cosLow, tmpOldHigh[0], tmpOldLow[0], high, low, tmpIndexA);
+            DoubleDoubleStore.addProduct(sinHigh, sinLow, tmpOldHigh[1], tmpOldLow[1], high, low, tmpIndexA);
+            // b = cos * b - sin * a
+            DoubleDoubleStore.multiply(cosHigh, cosLow, tmpOldHigh[1], tmpOldLow[1], high, low, tmpIndexB);
+            DoubleDoubleStore.addProduct(-sinHigh, -sinLow, tmpOldHigh[0], tmpOldLow[0], high, low, tmpIndexB);
+
+            tmpIndexA += myRowDim;
+            tmpIndexB += myRowDim;
+        }
+    }
+
+    private void rotateRight(final int colA, final int colB, final double cosHigh, final double cosLow, final double sinHigh, final double sinLow) {
+
+        final double[] tmpOldHigh = new double[2];
+        final double[] tmpOldLow = new double[2];
+
+        int tmpIndexA = colA * myRowDim;
+        int tmpIndexB = colB * myRowDim;
+
+        for (int i = 0; i < myRowDim; i++) {
+
+            tmpOldHigh[0] = high[tmpIndexA];
+            tmpOldLow[0] = low[tmpIndexA];
+            tmpOldHigh[1] = high[tmpIndexB];
+            tmpOldLow[1] = low[tmpIndexB];
+
+            // a = cos * a - sin * b
+            DoubleDoubleStore.multiply(cosHigh, cosLow, tmpOldHigh[0], tmpOldLow[0], high, low, tmpIndexA);
+            DoubleDoubleStore.addProduct(-sinHigh, -sinLow, tmpOldHigh[1], tmpOldLow[1], high, low, tmpIndexA);
+            // b = cos * b + sin * a
+            DoubleDoubleStore.multiply(cosHigh, cosLow, tmpOldHigh[1], tmpOldLow[1], high, low, tmpIndexB);
+            DoubleDoubleStore.addProduct(sinHigh, sinLow, tmpOldHigh[0], tmpOldLow[0], high, low, tmpIndexB);
+
+            tmpIndexA++;
+            tmpIndexB++;
+        }
+    }
+
+    private DoubleDoubleArray toDoubleDouble(final Access1D<BigDecimal> matrix, final int rowDim, final int colDim) {
+        final DoubleDoubleStore retVal = new DoubleDoubleStore(rowDim, colDim);
+        retVal.fillMatching(matrix);
+        return retVal;
+    }
+
+}
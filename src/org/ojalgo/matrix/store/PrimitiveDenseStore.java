@@ -24,6 +24,7 @@ package org.ojalgo.matrix.store;
 import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.ojalgo.access.Access1D;
@@ -32,8 +33,8 @@ import org.ojalgo.access.AccessUtils;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.Array2D;
 import org.ojalgo.array.BasicArray;
-import org.ojalgo.array.ComplexArray;
 import org.ojalgo.array.PrimitiveArray;
+import org.ojalgo.array.SplitComplexArray;
 import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.BinaryFunction;
@@ -1149,11 +1150,12 @@ public final class PrimitiveDenseStore extends PrimitiveArray implements Physica
         final double[] aRawImag = tmpDiags[1];
         final int tmpLength = Math.min(aRawReal.length, aRawImag.length);
 
-        final ComplexArray retVal = ComplexArray.make(tmpLength);
-        final ComplexNumber[] tmpRaw = retVal.data;
-
-        for (int i = 0; i < tmpLength; i++) {
-            tmpRaw[i] = new ComplexNumber(aRawReal[i], aRawImag[i]);
+        // The real and imaginary parts are already separate - no ComplexNumber per element
+        final SplitComplexArray retVal;
+        if ((aRawReal.length == tmpLength) && (aRawImag.length == tmpLength)) {
+            retVal = SplitComplexArray.wrap(aRawReal, aRawImag);
+        } else {
+            retVal = SplitComplexArray.wrap(Arrays.copyOf(aRawReal, tmpLength), Arrays.copyOf(aRawImag, tmpLength));
         }
 
         return Array1D.COMPLEX.wrap(retVal);
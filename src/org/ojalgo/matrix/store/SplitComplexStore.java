@@ -0,0 +1,1664 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.ComplexFunction.*;
+
+import java.util.List;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.AccessUtils;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
+import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.SplitComplexArray;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.ComplexFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.ComplexAggregator;
+import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.decomposition.DecompositionStore;
+import org.ojalgo.matrix.store.operation.*;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.random.RandomNumber;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.TypeUtils;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * A {@linkplain ComplexNumber} implementation of {@linkplain PhysicalStore} with the real and imaginary parts
+ * stored in two separate (column major) double[]. It is an alternative to {@linkplain ComplexDenseStore}
+ * that does not keep one {@linkplain ComplexNumber} instance per element. The multiplication, LU, Cholesky,
+ * Householder and rotation kernels work directly on the double[] and do not allocate anything per element.
+ * Use {@linkplain #FACTORY} wherever a {@linkplain PhysicalStore.Factory} is accepted, e.g.
+ * {@linkplain org.ojalgo.matrix.decomposition.LU#makeComplex(PhysicalStore.Factory)}.
+ *
+ * @author apete
+ */
+public final class SplitComplexStore extends SplitComplexArray implements PhysicalStore<ComplexNumber>, DecompositionStore<ComplexNumber> {
+
+    public static final DecompositionStore.Factory<ComplexNumber, SplitComplexStore> FACTORY = new DecompositionStore.Factory<ComplexNumber, SplitComplexStore>() {
+
+        public AggregatorSet<ComplexNumber> aggregator() {
+            return ComplexAggregator.getSet();
+        }
+
+        public SplitComplexStore columns(final Access1D<?>... source) {
+
+            final int tmpRowDim = (int) source[0].count();
+            final int tmpColDim = source.length;
+
+            final SplitComplexStore retVal = new SplitComplexStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public SplitComplexStore columns(final double[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final double[] tmpReal = new double[tmpRowDim * tmpColDim];
+
+            for (int j = 0; j < tmpColDim; j++) {
+                System.arraycopy(source[j], 0, tmpReal, tmpRowDim * j, tmpRowDim);
+            }
+
+            return new SplitComplexStore(tmpRowDim, tmpColDim, tmpReal, new double[tmpRowDim * tmpColDim]);
+        }
+
+        public SplitComplexStore columns(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source[0].size();
+            final int tmpColDim = source.length;
+
+            final SplitComplexStore retVal = new SplitComplexStore(tmpRowDim, tmpColDim);
+
+            List<? extends Number> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public SplitComplexStore columns(final Number[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final SplitComplexStore retVal = new SplitComplexStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn[i]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public SplitComplexStore conjugate(final Access2D<?> source) {
+
+            final SplitComplexStore retVal = new SplitComplexStore((int) source.countColumns(), (int) source.countRows());
+
+            retVal.fillConjugated(source);
+
+            return retVal;
+        }
+
+        public SplitComplexStore copy(final Access2D<?> source) {
+
+            final SplitComplexStore retVal = new SplitComplexStore((int) source.countRows(), (int) source.countColumns());
+
+            retVal.fillMatching(source);
+
+            return retVal;
+        }
+
+        public FunctionSet<ComplexNumber> function() {
+            return ComplexFunction.getSet();
+        }
+
+        public SplitComplexArray makeArray(final int length) {
+            return SplitComplexArray.make(length);
+        }
+
+        public SplitComplexStore makeEye(final long rows, final long columns) {
+
+            final SplitComplexStore retVal = this.makeZero(rows, columns);
+
+            final int tmpRowDim = (int) rows;
+            final int tmpMinDim = (int) Math.min(rows, columns);
+            for (int ij = 0; ij < tmpMinDim; ij++) {
+                retVal.real[ij + (ij * tmpRowDim)] = ONE;
+            }
+
+            return retVal;
+        }
+
+        public Householder.Complex makeHouseholder(final int length) {
+            return new Householder.Complex(length);
+        }
+
+        public SplitComplexStore makeRandom(final long rows, final long columns, final RandomNumber distribution) {
+
+            final int tmpRowDim = (int) rows;
+            final int tmpColDim = (int) columns;
+
+            final int tmpLength = tmpRowDim * tmpColDim;
+
+            final double[] tmpReal = new double[tmpLength];
+
+            for (int i = 0; i < tmpLength; i++) {
+                tmpReal[i] = distribution.doubleValue();
+            }
+
+            return new SplitComplexStore(tmpRowDim, tmpColDim, tmpReal, new double[tmpLength]);
+        }
+
+        public Rotation.Complex makeRotation(final int low, final int high, final ComplexNumber cos, final ComplexNumber sin) {
+            return new Rotation.Complex(low, high, cos, sin);
+        }
+
+        public Rotation.Complex makeRotation(final int low, final int high, final double cos, final double sin) {
+            return this.makeRotation(low, high, ComplexNumber.valueOf(cos), ComplexNumber.valueOf(sin));
+        }
+
+        public SplitComplexStore makeZero(final long rows, final long columns) {
+            return new SplitComplexStore((int) rows, (int) columns);
+        }
+
+        public SplitComplexStore rows(final Access1D<?>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = (int) source[0].count();
+
+            final SplitComplexStore retVal = new SplitComplexStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public SplitComplexStore rows(final double[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final double[] tmpReal = new double[tmpRowDim * tmpColDim];
+
+            double[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    tmpReal[i + (tmpRowDim * j)] = tmpRow[j];
+                }
+            }
+
+            return new SplitComplexStore(tmpRowDim, tmpColDim, tmpReal, new double[tmpRowDim * tmpColDim]);
+        }
+
+        public SplitComplexStore rows(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].size();
+
+            final SplitComplexStore retVal = new SplitComplexStore(tmpRowDim, tmpColDim);
+
+            List<? extends Number> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public SplitComplexStore rows(final Number[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final SplitComplexStore retVal = new SplitComplexStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow[j]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public Scalar.Factory<ComplexNumber> scalar() {
+            return ComplexNumber.FACTORY;
+        }
+
+        public SplitComplexStore transpose(final Access2D<?> source) {
+
+            final SplitComplexStore retVal = new SplitComplexStore((int) source.countColumns(), (int) source.countRows());
+
+            retVal.fillTransposed(source);
+
+            return retVal;
+        }
+    };
+
+    static SplitComplexStore cast(final Access1D<ComplexNumber> matrix) {
+        if (matrix instanceof SplitComplexStore) {
+            return (SplitComplexStore) matrix;
+        } else if (matrix instanceof Access2D<?>) {
+            return FACTORY.copy((Access2D<?>) matrix);
+        } else {
+            return FACTORY.columns(matrix);
+        }
+    }
+
+    static SplitComplexArray cast(final BasicArray<ComplexNumber> array) {
+        if (array instanceof SplitComplexArray) {
+            return (SplitComplexArray) array;
+        } else {
+            final SplitComplexArray retVal = SplitComplexArray.make((int) array.count());
+            for (int i = 0; i < retVal.real.length; i++) {
+                final ComplexNumber tmpValue = array.get(i);
+                retVal.real[i] = tmpValue.doubleValue();
+                retVal.imaginary[i] = tmpValue.i;
+            }
+            return retVal;
+        }
+    }
+
+    private static void applyCholesky(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multRe, final double[] multIm) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            // scalar = conjugate(multipliers[j])
+            SplitComplexStore.subtractScaledVector(dataRe, dataIm, j * structure, multRe, multIm, multRe[j], -multIm[j], j, structure);
+        }
+    }
+
+    private static void applyLDL(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multRe, final double[] multIm, final int iterationPoint) {
+
+        final int tmpDiagIndex = iterationPoint + (iterationPoint * structure);
+        final double tmpDiagRe = dataRe[tmpDiagIndex];
+        final double tmpDiagIm = dataIm[tmpDiagIndex];
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+            // scalar = diagonal * conjugate(multipliers[j])
+            final double tmpScalarRe = (tmpDiagRe * multRe[j]) + (tmpDiagIm * multIm[j]);
+            final double tmpScalarIm = (tmpDiagIm * multRe[j]) - (tmpDiagRe * multIm[j]);
+            SplitComplexStore.subtractScaledVector(dataRe, dataIm, j * structure, multRe, multIm, tmpScalarRe, tmpScalarIm, j, structure);
+        }
+    }
+
+    private static void applyLU(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multRe, final double[] multIm, final int iterationPoint) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            final int tmpIndex = iterationPoint + (j * structure);
+            SplitComplexStore.subtractScaledVector(dataRe, dataIm, j * structure, multRe, multIm, dataRe[tmpIndex], dataIm[tmpIndex], iterationPoint + 1,
+                    structure);
+        }
+    }
+
+    private static void householderLeft(final double[] dataRe, final double[] dataIm, final int rowDim, final int firstColumn, final int columnLimit,
+            final double[] vectRe, final double[] vectIm, final int first, final double betaRe, final double betaIm) {
+
+        double tmpSumRe;
+        double tmpSumIm;
+        double tmpScaleRe;
+        double tmpScaleIm;
+        int tmpIndex;
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+
+            // scale = beta * (v^H * a_j)
+            tmpSumRe = ZERO;
+            tmpSumIm = ZERO;
+            tmpIndex = first + (j * rowDim);
+            for (int i = first; i < rowDim; i++) {
+                tmpSumRe += (vectRe[i] * dataRe[tmpIndex]) + (vectIm[i] * dataIm[tmpIndex]);
+                tmpSumIm += (vectRe[i] * dataIm[tmpIndex]) - (vectIm[i] * dataRe[tmpIndex]);
+                tmpIndex++;
+            }
+            tmpScaleRe = (tmpSumRe * betaRe) - (tmpSumIm * betaIm);
+            tmpScaleIm = (tmpSumRe * betaIm) + (tmpSumIm * betaRe);
+
+            // a_j -= scale * v
+            tmpIndex = first + (j * rowDim);
+            for (int i = first; i < rowDim; i++) {
+                dataRe[tmpIndex] -= (tmpScaleRe * vectRe[i]) - (tmpScaleIm * vectIm[i]);
+                dataIm[tmpIndex] -= (tmpScaleRe * vectIm[i]) + (tmpScaleIm * vectRe[i]);
+                tmpIndex++;
+            }
+        }
+    }
+
+    private static void householderRight(final double[] dataRe, final double[] dataIm, final int rowDim, final int firstRow, final int rowLimit,
+            final int colDim, final double[] vectRe, final double[] vectIm, final int first, final double betaRe, final double betaIm) {
+
+        double tmpSumRe;
+        double tmpSumIm;
+        double tmpScaleRe;
+        double tmpScaleIm;
+        int tmpIndex;
+
+        for (int i = firstRow; i < rowLimit; i++) {
+
+            // scale = beta * conjugate(a_i * v)
+            tmpSumRe = ZERO;
+            tmpSumIm = ZERO;
+            tmpIndex = i + (first * rowDim);
+            for (int j = first; j < colDim; j++) {
+                tmpSumRe += (dataRe[tmpIndex] * vectRe[j]) - (dataIm[tmpIndex] * vectIm[j]);
+                tmpSumIm += (dataRe[tmpIndex] * vectIm[j]) + (dataIm[tmpIndex] * vectRe[j]);
+                tmpIndex += rowDim;
+            }
+            tmpScaleRe = (tmpSumRe * betaRe) + (tmpSumIm * betaIm);
+            tmpScaleIm = (tmpSumRe * betaIm) - (tmpSumIm * betaRe);
+
+            // a_i = conjugate(conjugate(a_i) - scale * v)
+            tmpIndex = i + (first * rowDim);
+            for (int j = first; j < colDim; j++) {
+                dataRe[tmpIndex] -= (tmpScaleRe * vectRe[j]) - (tmpScaleIm * vectIm[j]);
+                dataIm[tmpIndex] += (tmpScaleRe * vectIm[j]) + (tmpScaleIm * vectRe[j]);
+                tmpIndex += rowDim;
+            }
+        }
+    }
+
+    /**
+     * product = left * right, all column major, for the product columns [firstColumn, columnLimit)
+     */
+    private static void multiply(final double[] prodRe, final double[] prodIm, final int rowDim, final int firstColumn, final int columnLimit,
+            final double[] leftRe, final double[] leftIm, final int complexity, final double[] rightRe, final double[] rightIm) {
+
+        double tmpRightRe;
+        double tmpRightIm;
+        int tmpProdBase;
+        int tmpLeftBase;
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+
+            tmpProdBase = j * rowDim;
+
+            for (int i = 0; i < rowDim; i++) {
+                prodRe[tmpProdBase + i] = ZERO;
+                prodIm[tmpProdBase + i] = ZERO;
+            }
+
+            for (int c = 0; c < complexity; c++) {
+
+                tmpRightRe = rightRe[c + (j * complexity)];
+                tmpRightIm = rightIm[c + (j * complexity)];
+
+                if ((tmpRightRe != ZERO) || (tmpRightIm != ZERO)) {
+
+                    tmpLeftBase = c * rowDim;
+
+                    for (int i = 0; i < rowDim; i++) {
+                        prodRe[tmpProdBase + i] += (leftRe[tmpLeftBase + i] * tmpRightRe) - (leftIm[tmpLeftBase + i] * tmpRightIm);
+                        prodIm[tmpProdBase + i] += (leftRe[tmpLeftBase + i] * tmpRightIm) + (leftIm[tmpLeftBase + i] * tmpRightRe);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void substituteBackwards(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn,
+            final int columnLimit, final SplitComplexStore body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final int tmpBodyRowDim = body.getRowDim();
+        final double[] tmpBodyRe = body.real;
+        final double[] tmpBodyIm = body.imaginary;
+
+        final int tmpDiagDim = Math.min(tmpBodyRowDim, body.getColDim());
+        final double[] tmpRowRe = new double[tmpDiagDim];
+        final double[] tmpRowIm = new double[tmpDiagDim];
+
+        double tmpValRe;
+        double tmpValIm;
+        int tmpColBaseIndex;
+
+        final int tmpFirstRow = hermitian ? firstColumn : 0;
+        for (int i = tmpDiagDim - 1; i >= tmpFirstRow; i--) {
+
+            for (int j = i; j < tmpDiagDim; j++) {
+                if (conjugated) {
+                    tmpRowRe[j] = tmpBodyRe[j + (i * tmpBodyRowDim)];
+                    tmpRowIm[j] = -tmpBodyIm[j + (i * tmpBodyRowDim)];
+                } else {
+                    tmpRowRe[j] = tmpBodyRe[i + (j * tmpBodyRowDim)];
+                    tmpRowIm[j] = tmpBodyIm[i + (j * tmpBodyRowDim)];
+                }
+            }
+
+            final int tmpColumnLimit = hermitian ? Math.min(i + 1, columnLimit) : columnLimit;
+            for (int s = firstColumn; s < tmpColumnLimit; s++) {
+
+                tmpColBaseIndex = s * structure;
+
+                tmpValRe = ZERO;
+                tmpValIm = ZERO;
+                for (int j = i + 1; j < tmpDiagDim; j++) {
+                    tmpValRe += (tmpRowRe[j] * dataRe[j + tmpColBaseIndex]) - (tmpRowIm[j] * dataIm[j + tmpColBaseIndex]);
+                    tmpValIm += (tmpRowRe[j] * dataIm[j + tmpColBaseIndex]) + (tmpRowIm[j] * dataRe[j + tmpColBaseIndex]);
+                }
+                tmpValRe = dataRe[i + tmpColBaseIndex] - tmpValRe;
+                tmpValIm = dataIm[i + tmpColBaseIndex] - tmpValIm;
+
+                if (unitDiagonal) {
+                    dataRe[i + tmpColBaseIndex] = tmpValRe;
+                    dataIm[i + tmpColBaseIndex] = tmpValIm;
+                } else {
+                    SplitComplexStore.divide(tmpValRe, tmpValIm, tmpRowRe[i], tmpRowIm[i], dataRe, dataIm, i + tmpColBaseIndex);
+                }
+            }
+        }
+    }
+
+    private static void substituteForwards(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn,
+            final int columnLimit, final SplitComplexStore body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int tmpBodyRowDim = body.getRowDim();
+        final double[] tmpBodyRe = body.real;
+        final double[] tmpBodyIm = body.imaginary;
+
+        final int tmpDiagDim = Math.min(tmpBodyRowDim, body.getColDim());
+        final double[] tmpRowRe = new double[tmpDiagDim];
+        final double[] tmpRowIm = new double[tmpDiagDim];
+
+        double tmpValRe;
+        double tmpValIm;
+        int tmpColBaseIndex;
+
+        for (int i = 0; i < tmpDiagDim; i++) {
+
+            for (int j = 0; j <= i; j++) {
+                if (conjugated) {
+                    tmpRowRe[j] = tmpBodyRe[j + (i * tmpBodyRowDim)];
+                    tmpRowIm[j] = -tmpBodyIm[j + (i * tmpBodyRowDim)];
+                } else {
+                    tmpRowRe[j] = tmpBodyRe[i + (j * tmpBodyRowDim)];
+                    tmpRowIm[j] = tmpBodyIm[i + (j * tmpBodyRowDim)];
+                }
+            }
+
+            for (int s = firstColumn; s < columnLimit; s++) {
+
+                tmpColBaseIndex = s * structure;
+
+                tmpValRe = ZERO;
+                tmpValIm = ZERO;
+                for (int j = identity ? s : 0; j < i; j++) {
+                    tmpValRe += (tmpRowRe[j] * dataRe[j + tmpColBaseIndex]) - (tmpRowIm[j] * dataIm[j + tmpColBaseIndex]);
+                    tmpValIm += (tmpRowRe[j] * dataIm[j + tmpColBaseIndex]) + (tmpRowIm[j] * dataRe[j + tmpColBaseIndex]);
+                }
+                if (identity) {
+                    tmpValRe = i == s ? ONE - tmpValRe : -tmpValRe;
+                    tmpValIm = -tmpValIm;
+                } else {
+                    tmpValRe = dataRe[i + tmpColBaseIndex] - tmpValRe;
+                    tmpValIm = dataIm[i + tmpColBaseIndex] - tmpValIm;
+                }
+
+                if (unitDiagonal) {
+                    dataRe[i + tmpColBaseIndex] = tmpValRe;
+                    dataIm[i + tmpColBaseIndex] = tmpValIm;
+                } else {
+                    SplitComplexStore.divide(tmpValRe, tmpValIm, tmpRowRe[i], tmpRowIm[i], dataRe, dataIm, i + tmpColBaseIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * data[dataIndexBase + i] -= scalar * vector[i] for i in [first, limit)
+     */
+    private static void subtractScaledVector(final double[] dataRe, final double[] dataIm, final int dataIndexBase, final double[] vectRe,
+            final double[] vectIm, final double scalarRe, final double scalarIm, final int first, final int limit) {
+        for (int i = first; i < limit; i++) {
+            dataRe[dataIndexBase + i] -= (scalarRe * vectRe[i]) - (scalarIm * vectIm[i]);
+            dataIm[dataIndexBase + i] -= (scalarRe * vectIm[i]) + (scalarIm * vectRe[i]);
+        }
+    }
+
+    /**
+     * destination[index] = (numRe + i numIm) / (denRe + i denIm)
+     */
+    static void divide(final double numRe, final double numIm, final double denRe, final double denIm, final double[] destRe, final double[] destIm,
+            final int index) {
+        if (Math.abs(denRe) >= Math.abs(denIm)) {
+            final double tmpRatio = denIm / denRe;
+            final double tmpDenom = denRe + (denIm * tmpRatio);
+            destRe[index] = (numRe + (numIm * tmpRatio)) / tmpDenom;
+            destIm[index] = (numIm - (numRe * tmpRatio)) / tmpDenom;
+        } else {
+            final double tmpRatio = denRe / denIm;
+            final double tmpDenom = (denRe * tmpRatio) + denIm;
+            destRe[index] = ((numRe * tmpRatio) + numIm) / tmpDenom;
+            destIm[index] = ((numIm * tmpRatio) - numRe) / tmpDenom;
+        }
+    }
+
+    private final int myColDim;
+    private final int myRowDim;
+    private final Array2D<ComplexNumber> myUtility;
+
+    SplitComplexStore(final int aRowDim, final int aColDim) {
+
+        super(aRowDim * aColDim);
+
+        myRowDim = aRowDim;
+        myColDim = aColDim;
+
+        myUtility = this.asArray2D(myRowDim);
+    }
+
+    SplitComplexStore(final int aRowDim, final int aColDim, final double[] real, final double[] imaginary) {
+
+        super(real, imaginary);
+
+        myRowDim = aRowDim;
+        myColDim = aColDim;
+
+        myUtility = this.asArray2D(myRowDim);
+    }
+
+    public void accept(final Access2D<ComplexNumber> supplied) {
+        for (long j = 0; j < supplied.countColumns(); j++) {
+            for (long i = 0; i < supplied.countRows(); i++) {
+                this.set(i, j, supplied.get(i, j));
+            }
+        }
+    }
+
+    public MatrixStore<ComplexNumber> add(final MatrixStore<ComplexNumber> addend) {
+        return new SuperimposedStore<>(this, addend);
+    }
+
+    public ComplexNumber aggregateAll(final Aggregator aggregator) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final AggregatorFunction<ComplexNumber> tmpMainAggr = aggregator.getComplexFunction();
+
+        if (tmpColDim > AggregateAll.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+
+                    final AggregatorFunction<ComplexNumber> tmpPartAggr = aggregator.getComplexFunction();
+
+                    SplitComplexStore.this.visit(tmpRowDim * aFirst, tmpRowDim * aLimit, 1, tmpPartAggr);
+
+                    synchronized (tmpMainAggr) {
+                        tmpMainAggr.merge(tmpPartAggr.getNumber());
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.this.visit(0, this.size(), 1, tmpMainAggr);
+        }
+
+        return tmpMainAggr.getNumber();
+    }
+
+    public void applyCholesky(final int iterationPoint, final BasicArray<ComplexNumber> multipliers) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final SplitComplexArray tmpColumn = SplitComplexStore.cast(multipliers);
+        final double[] tmpColumnRe = tmpColumn.real;
+        final double[] tmpColumnIm = tmpColumn.imaginary;
+
+        if ((myColDim - iterationPoint - 1) > ApplyCholesky.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.applyCholesky(tmpDataRe, tmpDataIm, myRowDim, aFirst, aLimit, tmpColumnRe, tmpColumnIm);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.applyCholesky(tmpDataRe, tmpDataIm, myRowDim, iterationPoint + 1, myColDim, tmpColumnRe, tmpColumnIm);
+        }
+    }
+
+    public void applyLDL(final int iterationPoint, final BasicArray<ComplexNumber> multipliers) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final SplitComplexArray tmpColumn = SplitComplexStore.cast(multipliers);
+        final double[] tmpColumnRe = tmpColumn.real;
+        final double[] tmpColumnIm = tmpColumn.imaginary;
+
+        if ((myColDim - iterationPoint - 1) > ApplyLDL.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    SplitComplexStore.applyLDL(tmpDataRe, tmpDataIm, myRowDim, first, limit, tmpColumnRe, tmpColumnIm, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.applyLDL(tmpDataRe, tmpDataIm, myRowDim, iterationPoint + 1, myColDim, tmpColumnRe, tmpColumnIm, iterationPoint);
+        }
+    }
+
+    public void applyLU(final int iterationPoint, final BasicArray<ComplexNumber> multipliers) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final SplitComplexArray tmpColumn = SplitComplexStore.cast(multipliers);
+        final double[] tmpColumnRe = tmpColumn.real;
+        final double[] tmpColumnIm = tmpColumn.imaginary;
+
+        if ((myColDim - iterationPoint - 1) > ApplyLU.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.applyLU(tmpDataRe, tmpDataIm, myRowDim, aFirst, aLimit, tmpColumnRe, tmpColumnIm, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.applyLU(tmpDataRe, tmpDataIm, myRowDim, iterationPoint + 1, myColDim, tmpColumnRe, tmpColumnIm, iterationPoint);
+        }
+    }
+
+    public Array2D<ComplexNumber> asArray2D() {
+        return myUtility;
+    }
+
+    public Array1D<ComplexNumber> asList() {
+        return myUtility.asArray1D();
+    }
+
+    public final MatrixStore.Builder<ComplexNumber> builder() {
+        return new MatrixStore.Builder<ComplexNumber>(this);
+    }
+
+    public void caxpy(final ComplexNumber scalarA, final int columnX, final int columnY, final int firstRow) {
+
+        final double tmpScalarRe = scalarA.doubleValue();
+        final double tmpScalarIm = scalarA.i;
+
+        final int tmpBaseX = columnX * myRowDim;
+        final int tmpBaseY = columnY * myRowDim;
+
+        double tmpRe;
+        double tmpIm;
+        for (int i = firstRow; i < myRowDim; i++) {
+            tmpRe = real[tmpBaseX + i];
+            tmpIm = imaginary[tmpBaseX + i];
+            real[tmpBaseY + i] += (tmpScalarRe * tmpRe) - (tmpScalarIm * tmpIm);
+            imaginary[tmpBaseY + i] += (tmpScalarRe * tmpIm) + (tmpScalarIm * tmpRe);
+        }
+    }
+
+    public Array1D<ComplexNumber> computeInPlaceSchur(final PhysicalStore<ComplexNumber> transformationCollector, final boolean eigenvalue) {
+        throw new UnsupportedOperationException();
+    }
+
+    public MatrixStore<ComplexNumber> conjugate() {
+        return new ConjugatedStore<>(this);
+    }
+
+    public SplitComplexStore copy() {
+        return new SplitComplexStore(myRowDim, myColDim, this.copyOfReal(), this.copyOfImaginary());
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+    public void divideAndCopyColumn(final int row, final int column, final BasicArray<ComplexNumber> destination) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpRowDim = myRowDim;
+
+        final SplitComplexArray tmpDestination = (SplitComplexArray) destination;
+        final double[] tmpDestRe = tmpDestination.real;
+        final double[] tmpDestIm = tmpDestination.imaginary;
+
+        int tmpIndex = row + (column * tmpRowDim);
+        final double tmpDenomRe = tmpDataRe[tmpIndex];
+        final double tmpDenomIm = tmpDataIm[tmpIndex];
+
+        for (int i = row + 1; i < tmpRowDim; i++) {
+            tmpIndex++;
+            SplitComplexStore.divide(tmpDataRe[tmpIndex], tmpDataIm[tmpIndex], tmpDenomRe, tmpDenomIm, tmpDataRe, tmpDataIm, tmpIndex);
+            tmpDestRe[i] = tmpDataRe[tmpIndex];
+            tmpDestIm[i] = tmpDataIm[tmpIndex];
+        }
+    }
+
+    public double doubleValue(final long aRow, final long aCol) {
+        return this.doubleValue(aRow + (aCol * myRowDim));
+    }
+
+    public boolean equals(final MatrixStore<ComplexNumber> other, final NumberContext context) {
+        return AccessUtils.equals(this, other, context);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof MatrixStore) {
+            return this.equals((MatrixStore<ComplexNumber>) anObj, NumberContext.getGeneral(6));
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void exchangeColumns(final int colA, final int colB) {
+        myUtility.exchangeColumns(colA, colB);
+    }
+
+    public void exchangeRows(final int rowA, final int rowB) {
+        myUtility.exchangeRows(rowA, rowB);
+    }
+
+    public PhysicalStore.Factory<ComplexNumber, SplitComplexStore> factory() {
+        return FACTORY;
+    }
+
+    public void fillByMultiplying(final Access1D<ComplexNumber> left, final Access1D<ComplexNumber> right) {
+
+        final int tmpComplexity = ((int) left.count()) / myRowDim;
+
+        final SplitComplexArray tmpLeft = left instanceof SplitComplexArray ? (SplitComplexArray) left : this.toSplit(left, myRowDim, tmpComplexity);
+        final SplitComplexArray tmpRight = right instanceof SplitComplexArray ? (SplitComplexArray) right : this.toSplit(right, tmpComplexity, myColDim);
+
+        this.multiply(tmpLeft, tmpComplexity, tmpRight);
+    }
+
+    public void fillColumn(final long row, final long column, final ComplexNumber value) {
+        myUtility.fillColumn(row, column, value);
+    }
+
+    public void fillColumn(final long row, final long column, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillColumn(row, column, supplier);
+    }
+
+    public void fillConjugated(final Access2D<? extends Number> source) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        for (int j = 0; j < tmpColDim; j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                final ComplexNumber tmpValue = TypeUtils.toComplexNumber(source.get(j, i));
+                real[i + (j * tmpRowDim)] = tmpValue.doubleValue();
+                imaginary[i + (j * tmpRowDim)] = -tmpValue.i;
+            }
+        }
+    }
+
+    public void fillDiagonal(final long row, final long column, final ComplexNumber value) {
+        myUtility.fillDiagonal(row, column, value);
+    }
+
+    public void fillDiagonal(final long row, final long column, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillDiagonal(row, column, supplier);
+    }
+
+    public void fillMatching(final Access1D<? extends Number> source) {
+
+        final int tmpLength = real.length;
+
+        if (source instanceof SplitComplexArray) {
+
+            System.arraycopy(((SplitComplexArray) source).real, 0, real, 0, tmpLength);
+            System.arraycopy(((SplitComplexArray) source).imaginary, 0, imaginary, 0, tmpLength);
+
+        } else if (source instanceof PrimitiveDenseStore) {
+
+            System.arraycopy(((PrimitiveDenseStore) source).data, 0, real, 0, tmpLength);
+            for (int i = 0; i < tmpLength; i++) {
+                imaginary[i] = ZERO;
+            }
+
+        } else {
+
+            for (int i = 0; i < tmpLength; i++) {
+                this.set(i, source.get(i));
+            }
+        }
+    }
+
+    public void fillMatching(final Access1D<ComplexNumber> leftArg, final BinaryFunction<ComplexNumber> func, final Access1D<ComplexNumber> rightArg) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > FillMatchingBoth.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.this.fill(tmpRowDim * aFirst, tmpRowDim * aLimit, leftArg, func, rightArg);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingBoth.THRESHOLD);
+
+        } else {
+
+            this.fill(0, tmpRowDim * tmpColDim, leftArg, func, rightArg);
+        }
+    }
+
+    public void fillMatching(final Access1D<ComplexNumber> aLeftArg, final BinaryFunction<ComplexNumber> aFunc, final ComplexNumber aRightArg) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > FillMatchingLeft.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.this.fill(tmpRowDim * aFirst, tmpRowDim * aLimit, aLeftArg, aFunc, aRightArg);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingLeft.THRESHOLD);
+
+        } else {
+
+            this.fill(0, tmpRowDim * tmpColDim, aLeftArg, aFunc, aRightArg);
+        }
+    }
+
+    public void fillMatching(final ComplexNumber aLeftArg, final BinaryFunction<ComplexNumber> aFunc, final Access1D<ComplexNumber> aRightArg) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > FillMatchingRight.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.this.fill(tmpRowDim * aFirst, tmpRowDim * aLimit, aLeftArg, aFunc, aRightArg);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, FillMatchingRight.THRESHOLD);
+
+        } else {
+
+            this.fill(0, tmpRowDim * tmpColDim, aLeftArg, aFunc, aRightArg);
+        }
+    }
+
+    public void fillRow(final long row, final long column, final ComplexNumber value) {
+        myUtility.fillRow(row, column, value);
+    }
+
+    public void fillRow(final long row, final long column, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillRow(row, column, supplier);
+    }
+
+    public void fillTransposed(final Access2D<? extends Number> source) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        for (int j = 0; j < tmpColDim; j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                this.set(i + (j * tmpRowDim), source.get(j, i));
+            }
+        }
+    }
+
+    public boolean generateApplyAndCopyHouseholderColumn(final int row, final int column, final Householder<ComplexNumber> destination) {
+
+        final Householder.Complex tmpDestination = (Householder.Complex) destination;
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpRowDim = myRowDim;
+        final int tmpColBase = column * tmpRowDim;
+
+        double tmpNormInf = ZERO;
+        for (int i = row; i < tmpRowDim; i++) {
+            tmpNormInf = Math.max(tmpNormInf, Math.hypot(tmpDataRe[i + tmpColBase], tmpDataIm[i + tmpColBase]));
+        }
+
+        if (tmpNormInf == ZERO) {
+            return false;
+        }
+
+        double tmpNorm2 = ZERO;
+        for (int i = row + 1; i < tmpRowDim; i++) {
+            final double tmpRe = tmpDataRe[i + tmpColBase] / tmpNormInf;
+            final double tmpIm = tmpDataIm[i + tmpColBase] / tmpNormInf;
+            tmpNorm2 += (tmpRe * tmpRe) + (tmpIm * tmpIm);
+        }
+
+        if (TypeUtils.isZero(tmpNorm2)) {
+            return false;
+        }
+
+        final int tmpDiagIndex = row + tmpColBase;
+        double tmpScaleRe = tmpDataRe[tmpDiagIndex] / tmpNormInf;
+        double tmpScaleIm = tmpDataIm[tmpDiagIndex] / tmpNormInf;
+        final double tmpPhase = Math.atan2(tmpScaleIm, tmpScaleRe);
+        final double tmpCos = Math.cos(tmpPhase);
+        final double tmpSin = Math.sin(tmpPhase);
+
+        tmpNorm2 += (tmpScaleRe * tmpScaleRe) + (tmpScaleIm * tmpScaleIm);
+        tmpNorm2 = Math.sqrt(tmpNorm2);
+
+        tmpDataRe[tmpDiagIndex] = tmpNorm2 * tmpNormInf * tmpCos;
+        tmpDataIm[tmpDiagIndex] = tmpNorm2 * tmpNormInf * tmpSin;
+        tmpScaleRe -= tmpNorm2 * tmpCos;
+        tmpScaleIm -= tmpNorm2 * tmpSin;
+
+        // The elements below the diagonal become v[i] = (a[i] / normInf) / scale
+        final double tmpDenomRe = tmpScaleRe * tmpNormInf;
+        final double tmpDenomIm = tmpScaleIm * tmpNormInf;
+
+        final ComplexNumber[] tmpVector = tmpDestination.vector;
+        tmpDestination.first = row;
+        tmpVector[row] = ComplexNumber.ONE;
+
+        for (int i = row + 1; i < tmpRowDim; i++) {
+            SplitComplexStore.divide(tmpDataRe[i + tmpColBase], tmpDataIm[i + tmpColBase], tmpDenomRe, tmpDenomIm, tmpDataRe, tmpDataIm, i + tmpColBase);
+            tmpVector[i] = new ComplexNumber(tmpDataRe[i + tmpColBase], tmpDataIm[i + tmpColBase]);
+        }
+
+        tmpDestination.beta = ComplexNumber.valueOf(Math.hypot(tmpScaleRe, tmpScaleIm) / tmpNorm2);
+
+        return true;
+    }
+
+    public boolean generateApplyAndCopyHouseholderRow(final int row, final int column, final Householder<ComplexNumber> destination) {
+
+        final Householder.Complex tmpDestination = (Householder.Complex) destination;
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        double tmpNormInf = ZERO;
+        for (int j = column; j < tmpColDim; j++) {
+            tmpNormInf = Math.max(tmpNormInf, Math.hypot(tmpDataRe[row + (j * tmpRowDim)], tmpDataIm[row + (j * tmpRowDim)]));
+        }
+
+        if (tmpNormInf == ZERO) {
+            return false;
+        }
+
+        double tmpNorm2 = ZERO;
+        for (int j = column + 1; j < tmpColDim; j++) {
+            final double tmpRe = tmpDataRe[row + (j * tmpRowDim)] / tmpNormInf;
+            final double tmpIm = tmpDataIm[row + (j * tmpRowDim)] / tmpNormInf;
+            tmpNorm2 += (tmpRe * tmpRe) + (tmpIm * tmpIm);
+        }
+
+        if (TypeUtils.isZero(tmpNorm2)) {
+            return false;
+        }
+
+        final int tmpDiagIndex = row + (column * tmpRowDim);
+        double tmpScaleRe = tmpDataRe[tmpDiagIndex] / tmpNormInf;
+        double tmpScaleIm = tmpDataIm[tmpDiagIndex] / tmpNormInf;
+        final double tmpPhase = Math.atan2(tmpScaleIm, tmpScaleRe);
+        final double tmpCos = Math.cos(tmpPhase);
+        final double tmpSin = Math.sin(tmpPhase);
+
+        tmpNorm2 += (tmpScaleRe * tmpScaleRe) + (tmpScaleIm * tmpScaleIm);
+        tmpNorm2 = Math.sqrt(tmpNorm2);
+
+        tmpDataRe[tmpDiagIndex] = tmpNorm2 * tmpNormInf * tmpCos;
+        tmpDataIm[tmpDiagIndex] = tmpNorm2 * tmpNormInf * tmpSin;
+        tmpScaleRe -= tmpNorm2 * tmpCos;
+        tmpScaleIm -= tmpNorm2 * tmpSin;
+
+        final double tmpDenomRe = tmpScaleRe * tmpNormInf;
+        final double tmpDenomIm = tmpScaleIm * tmpNormInf;
+
+        final ComplexNumber[] tmpVector = tmpDestination.vector;
+        tmpDestination.first = column;
+        tmpVector[column] = ComplexNumber.ONE;
+
+        int tmpIndex;
+        for (int j = column + 1; j < tmpColDim; j++) {
+            tmpIndex = row + (j * tmpRowDim);
+            SplitComplexStore.divide(tmpDataRe[tmpIndex], tmpDataIm[tmpIndex], tmpDenomRe, tmpDenomIm, tmpDataRe, tmpDataIm, tmpIndex);
+            tmpDataIm[tmpIndex] = -tmpDataIm[tmpIndex];
+            tmpVector[j] = new ComplexNumber(tmpDataRe[tmpIndex], tmpDataIm[tmpIndex]);
+        }
+
+        tmpDestination.beta = ComplexNumber.valueOf(Math.hypot(tmpScaleRe, tmpScaleIm) / tmpNorm2);
+
+        return true;
+    }
+
+    public ComplexNumber get(final long aRow, final long aCol) {
+        return myUtility.get(aRow, aCol);
+    }
+
+    public int getColDim() {
+        return myColDim;
+    }
+
+    public int getIndexOfLargestInColumn(final int row, final int column) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpOffset = column * myRowDim;
+
+        int retVal = row;
+        double tmpLargest = ZERO;
+        double tmpValue;
+
+        // Compare the squared moduli, straight from the arrays
+        for (int i = row; i < myRowDim; i++) {
+            tmpValue = (tmpDataRe[tmpOffset + i] * tmpDataRe[tmpOffset + i]) + (tmpDataIm[tmpOffset + i] * tmpDataIm[tmpOffset + i]);
+            if (tmpValue > tmpLargest) {
+                tmpLargest = tmpValue;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    public int getMaxDim() {
+        return Math.max(myRowDim, myColDim);
+    }
+
+    public int getMinDim() {
+        return Math.min(myRowDim, myColDim);
+    }
+
+    public int getRowDim() {
+        return myRowDim;
+    }
+
+    @Override
+    public int hashCode() {
+        return MatrixUtils.hashCode(this);
+    }
+
+    public boolean isAbsolute(final long row, final long column) {
+        return myUtility.isAbsolute(row, column);
+    }
+
+    public boolean isLowerLeftShaded() {
+        return false;
+    }
+
+    public boolean isSmall(final long row, final long column, final double comparedTo) {
+        return myUtility.isSmall(row, column, comparedTo);
+    }
+
+    public boolean isUpperRightShaded() {
+        return false;
+    }
+
+    public void maxpy(final ComplexNumber aSclrA, final MatrixStore<ComplexNumber> aMtrxX) {
+
+        final double tmpScalarRe = aSclrA.doubleValue();
+        final double tmpScalarIm = aSclrA.i;
+
+        final SplitComplexStore tmpX = SplitComplexStore.cast(aMtrxX);
+        final double[] tmpRe = tmpX.real;
+        final double[] tmpIm = tmpX.imaginary;
+
+        for (int i = 0; i < real.length; i++) {
+            real[i] += (tmpScalarRe * tmpRe[i]) - (tmpScalarIm * tmpIm[i]);
+            imaginary[i] += (tmpScalarRe * tmpIm[i]) + (tmpScalarIm * tmpRe[i]);
+        }
+    }
+
+    @Override
+    public void modifyAll(final UnaryFunction<ComplexNumber> aFunc) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > ModifyAll.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.this.modify(tmpRowDim * aFirst, tmpRowDim * aLimit, 1, aFunc);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, ModifyAll.THRESHOLD);
+
+        } else {
+
+            this.modify(tmpRowDim * 0, tmpRowDim * tmpColDim, 1, aFunc);
+        }
+    }
+
+    public void modifyColumn(final long row, final long column, final UnaryFunction<ComplexNumber> function) {
+        myUtility.modifyColumn(row, column, function);
+    }
+
+    public void modifyDiagonal(final long row, final long column, final UnaryFunction<ComplexNumber> function) {
+        myUtility.modifyDiagonal(row, column, function);
+    }
+
+    public void modifyOne(final long row, final long column, final UnaryFunction<ComplexNumber> function) {
+
+        ComplexNumber tmpValue = this.get(row, column);
+
+        tmpValue = function.invoke(tmpValue);
+
+        this.set(row, column, tmpValue);
+    }
+
+    public void modifyRow(final long row, final long column, final UnaryFunction<ComplexNumber> function) {
+        myUtility.modifyRow(row, column, function);
+    }
+
+    public MatrixStore<ComplexNumber> multiply(final Access1D<ComplexNumber> right) {
+
+        final int tmpColDim = (int) (right.count() / myColDim);
+
+        final SplitComplexStore retVal = FACTORY.makeZero(myRowDim, tmpColDim);
+
+        final SplitComplexArray tmpRight = right instanceof SplitComplexArray ? (SplitComplexArray) right : this.toSplit(right, myColDim, tmpColDim);
+
+        retVal.multiply(this, myColDim, tmpRight);
+
+        return retVal;
+    }
+
+    public MatrixStore<ComplexNumber> multiplyLeft(final Access1D<ComplexNumber> left) {
+
+        final int tmpRowDim = (int) (left.count() / myRowDim);
+
+        final SplitComplexStore retVal = FACTORY.makeZero(tmpRowDim, myColDim);
+
+        final SplitComplexArray tmpLeft = left instanceof SplitComplexArray ? (SplitComplexArray) left : this.toSplit(left, tmpRowDim, myRowDim);
+
+        retVal.multiply(tmpLeft, myRowDim, this);
+
+        return retVal;
+    }
+
+    public MatrixStore<ComplexNumber> negate() {
+        return new ModificationStore<>(this, FACTORY.function().negate());
+    }
+
+    public void negateColumn(final int column) {
+        final int tmpLimit = (column + 1) * myRowDim;
+        for (int i = column * myRowDim; i < tmpLimit; i++) {
+            real[i] = -real[i];
+            imaginary[i] = -imaginary[i];
+        }
+    }
+
+    public void raxpy(final ComplexNumber scalarA, final int rowX, final int rowY, final int firstColumn) {
+
+        final double tmpScalarRe = scalarA.doubleValue();
+        final double tmpScalarIm = scalarA.i;
+
+        double tmpRe;
+        double tmpIm;
+        int tmpIndexX;
+        int tmpIndexY;
+        for (int j = firstColumn; j < myColDim; j++) {
+            tmpIndexX = rowX + (j * myRowDim);
+            tmpIndexY = rowY + (j * myRowDim);
+            tmpRe = real[tmpIndexX];
+            tmpIm = imaginary[tmpIndexX];
+            real[tmpIndexY] += (tmpScalarRe * tmpRe) - (tmpScalarIm * tmpIm);
+            imaginary[tmpIndexY] += (tmpScalarRe * tmpIm) + (tmpScalarIm * tmpRe);
+        }
+    }
+
+    public MatrixStore.ElementsConsumer<ComplexNumber> region(final int row, final int column) {
+        return new PhysicalStore.ConsumerRegion<ComplexNumber>(this, row, column);
+    }
+
+    public void rotateRight(final int aLow, final int aHigh, final double aCos, final double aSin) {
+        this.rotateRight(aLow, aHigh, aCos, ZERO, aSin, ZERO);
+    }
+
+    public MatrixStore<ComplexNumber> scale(final ComplexNumber scalar) {
+        return new ModificationStore<>(this, FACTORY.function().multiply().first(scalar));
+    }
+
+    public void set(final long aRow, final long aCol, final double aNmbr) {
+        myUtility.set(aRow, aCol, aNmbr);
+    }
+
+    public void set(final long aRow, final long aCol, final Number aNmbr) {
+        myUtility.set(aRow, aCol, aNmbr);
+    }
+
+    public void setToIdentity(final int aCol) {
+        final int tmpBase = aCol * myRowDim;
+        real[aCol + tmpBase] = ONE;
+        imaginary[aCol + tmpBase] = ZERO;
+        for (int i = aCol + 1; i < myRowDim; i++) {
+            real[i + tmpBase] = ZERO;
+            imaginary[i + tmpBase] = ZERO;
+        }
+    }
+
+    public void substituteBackwards(final Access2D<ComplexNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final SplitComplexStore tmpBody = SplitComplexStore.cast(body);
+
+        if (tmpColDim > SubstituteBackwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.substituteBackwards(tmpDataRe, tmpDataIm, tmpRowDim, aFirst, aLimit, tmpBody, unitDiagonal, conjugated, hermitian);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteBackwards.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.substituteBackwards(tmpDataRe, tmpDataIm, tmpRowDim, 0, tmpColDim, tmpBody, unitDiagonal, conjugated, hermitian);
+        }
+    }
+
+    public void substituteForwards(final Access2D<ComplexNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final SplitComplexStore tmpBody = SplitComplexStore.cast(body);
+
+        if (tmpColDim > SubstituteForwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.substituteForwards(tmpDataRe, tmpDataIm, tmpRowDim, aFirst, aLimit, tmpBody, unitDiagonal, conjugated, identity);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteForwards.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.substituteForwards(tmpDataRe, tmpDataIm, tmpRowDim, 0, tmpColDim, tmpBody, unitDiagonal, conjugated, identity);
+        }
+    }
+
+    public MatrixStore<ComplexNumber> subtract(final MatrixStore<ComplexNumber> subtrahend) {
+        return this.add(subtrahend.negate());
+    }
+
+    public Scalar<ComplexNumber> toScalar(final long row, final long column) {
+        return myUtility.toScalar(row, column);
+    }
+
+    @Override
+    public final String toString() {
+        return MatrixUtils.toString(this);
+    }
+
+    public void transformLeft(final Householder<ComplexNumber> transformation, final int firstColumn) {
+
+        final Householder.Complex tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final int tmpFirst = tmpTransf.first;
+        final double[] tmpVectRe = new double[tmpRowDim];
+        final double[] tmpVectIm = new double[tmpRowDim];
+        for (int i = tmpFirst; i < tmpRowDim; i++) {
+            tmpVectRe[i] = tmpTransf.vector[i].doubleValue();
+            tmpVectIm[i] = tmpTransf.vector[i].i;
+        }
+        final double tmpBetaRe = tmpTransf.beta.doubleValue();
+        final double tmpBetaIm = tmpTransf.beta.i;
+
+        if ((tmpColDim - firstColumn) > HouseholderLeft.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.householderLeft(tmpDataRe, tmpDataIm, tmpRowDim, aFirst, aLimit, tmpVectRe, tmpVectIm, tmpFirst, tmpBetaRe, tmpBetaIm);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstColumn, tmpColDim, HouseholderLeft.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.householderLeft(tmpDataRe, tmpDataIm, tmpRowDim, firstColumn, tmpColDim, tmpVectRe, tmpVectIm, tmpFirst, tmpBetaRe, tmpBetaIm);
+        }
+    }
+
+    public void transformLeft(final Rotation<ComplexNumber> transformation) {
+
+        final Rotation.Complex tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                this.rotateLeft(tmpLow, tmpHigh, tmpTransf.cos.doubleValue(), tmpTransf.cos.i, tmpTransf.sin.doubleValue(), tmpTransf.sin.i);
+            } else {
+                myUtility.exchangeRows(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyRow(tmpLow, 0, MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyRow(tmpLow, 0, DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyRow(tmpLow, 0, NEGATE);
+            }
+        }
+    }
+
+    public void transformRight(final Householder<ComplexNumber> transformation, final int firstRow) {
+
+        final Householder.Complex tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final int tmpFirst = tmpTransf.first;
+        final double[] tmpVectRe = new double[tmpColDim];
+        final double[] tmpVectIm = new double[tmpColDim];
+        for (int j = tmpFirst; j < tmpColDim; j++) {
+            tmpVectRe[j] = tmpTransf.vector[j].doubleValue();
+            tmpVectIm[j] = tmpTransf.vector[j].i;
+        }
+        final double tmpBetaRe = tmpTransf.beta.doubleValue();
+        final double tmpBetaIm = tmpTransf.beta.i;
+
+        if ((tmpRowDim - firstRow) > HouseholderRight.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.householderRight(tmpDataRe, tmpDataIm, tmpRowDim, aFirst, aLimit, tmpColDim, tmpVectRe, tmpVectIm, tmpFirst, tmpBetaRe,
+                            tmpBetaIm);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstRow, tmpRowDim, HouseholderRight.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.householderRight(tmpDataRe, tmpDataIm, tmpRowDim, firstRow, tmpRowDim, tmpColDim, tmpVectRe, tmpVectIm, tmpFirst, tmpBetaRe,
+                    tmpBetaIm);
+        }
+    }
+
+    public void transformRight(final Rotation<ComplexNumber> transformation) {
+
+        final Rotation.Complex tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                this.rotateRight(tmpLow, tmpHigh, tmpTransf.cos.doubleValue(), tmpTransf.cos.i, tmpTransf.sin.doubleValue(), tmpTransf.sin.i);
+            } else {
+                myUtility.exchangeColumns(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyColumn(0, tmpHigh, MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyColumn(0, tmpHigh, DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyColumn(0, tmpHigh, NEGATE);
+            }
+        }
+    }
+
+    /**
+     * Applied as a left and a right transformation - [H][this][H]
+     */
+    public void transformSymmetric(final Householder<ComplexNumber> transformation) {
+        this.transformLeft(transformation, 0);
+        this.transformRight(transformation, 0);
+    }
+
+    public MatrixStore<ComplexNumber> transpose() {
+        return new TransposedStore<>(this);
+    }
+
+    public void tred2(final BasicArray<ComplexNumber> mainDiagonal, final BasicArray<ComplexNumber> offDiagonal, final boolean yesvecs) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visitAll(final VoidFunction<ComplexNumber> visitor) {
+        myUtility.visitAll(visitor);
+    }
+
+    public void visitColumn(final long row, final long column, final VoidFunction<ComplexNumber> visitor) {
+        myUtility.visitColumn(row, column, visitor);
+    }
+
+    public void visitDiagonal(final long row, final long column, final VoidFunction<ComplexNumber> visitor) {
+        myUtility.visitDiagonal(row, column, visitor);
+    }
+
+    public void visitRow(final long row, final long column, final VoidFunction<ComplexNumber> visitor) {
+        myUtility.visitRow(row, column, visitor);
+    }
+
+    private void multiply(final SplitComplexArray left, final int complexity, final SplitComplexArray right) {
+
+        final double[] tmpProdRe = real;
+        final double[] tmpProdIm = imaginary;
+        final double[] tmpLeftRe = left.real;
+        final double[] tmpLeftIm = left.imaginary;
+        final double[] tmpRightRe = right.real;
+        final double[] tmpRightIm = right.imaginary;
+
+        final int tmpRowDim = myRowDim;
+
+        if (myColDim > MultiplyRight.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SplitComplexStore.multiply(tmpProdRe, tmpProdIm, tmpRowDim, aFirst, aLimit, tmpLeftRe, tmpLeftIm, complexity, tmpRightRe, tmpRightIm);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, myColDim, MultiplyRight.THRESHOLD);
+
+        } else {
+
+            SplitComplexStore.multiply(tmpProdRe, tmpProdIm, tmpRowDim, 0, myColDim, tmpLeftRe, tmpLeftIm, complexity, tmpRightRe, tmpRightIm);
+        }
+    }
+
+    private void rotateLeft(final int rowA, final int rowB, final double cosRe, final double cosIm, final double sinRe, final double sinIm) {
+
+        double tmpOldARe;
+        double tmpOldAIm;
+        double tmpOldBRe;
+        double tmpOldBIm;
+
+        int tmpIndexA = rowA;
+        int tmpIndexB = rowB;
+
+        for (int j = 0; j < myColDim; j++) {
+
+            tmpOldARe = real[tmpIndexA];
+            tmpOldAIm = imaginary[tmpIndexA];
+            tmpOldBRe = real[tmpIndexB];
+            tmpOldBIm = imaginary[tmpIndexB];
+
+            // a = cos * a + sin * b
+            real[tmpIndexA] = ((cosRe * tmpOldARe) - (cosIm * tmpOldAIm)) + ((sinRe * tmpOldBRe) - (sinIm * tmpOldBIm));
+            imaginary[tmpIndexA] = ((cosRe * tmpOldAIm) + (cosIm * tmpOldARe)) + ((sinRe * tmpOldBIm) + (sinIm * tmpOldBRe));
+            // b = cos * b - sin * a
+            real[tmpIndexB] = ((cosRe * tmpOldBRe) - (cosIm * tmpOldBIm)) - ((sinRe * tmpOldARe) - (sinIm * tmpOldAIm));
+            imaginary[tmpIndexB] = ((cosRe * tmpOldBIm) + (cosIm * tmpOldBRe)) - ((sinRe * tmpOldAIm) + (sinIm * tmpOldARe));
+
+            tmpIndexA += myRowDim;
+            tmpIndexB += myRowDim;
+        }
+    }
+
+    private void rotateRight(final int colA, final int colB, final double cosRe, final double cosIm, final double sinRe, final double sinIm) {
+
+        double tmpOldARe;
+        double tmpOldAIm;
+        double tmpOldBRe;
+        double tmpOldBIm;
+
+        int tmpIndexA = colA * myRowDim;
+        int tmpIndexB = colB * myRowDim;
+
+        for (int i = 0; i < myRowDim; i++) {
+
+            tmpOldARe = real[tmpIndexA];
+            tmpOldAIm = imaginary[tmpIndexA];
+            tmpOldBRe = real[tmpIndexB];
+            tmpOldBIm = imaginary[tmpIndexB];
+
+            // a = cos * a - sin * b
+            real[tmpIndexA] = ((cosRe * tmpOldARe) - (cosIm * tmpOldAIm)) - ((sinRe * tmpOldBRe) - (sinIm * tmpOldBIm));
+            imaginary[tmpIndexA] = ((cosRe * tmpOldAIm) + (cosIm * tmpOldARe)) - ((sinRe * tmpOldBIm) + (sinIm * tmpOldBRe));
+            // b = cos * b + sin * a
+            real[tmpIndexB] = ((cosRe * tmpOldBRe) - (cosIm * tmpOldBIm)) + ((sinRe * tmpOldARe) - (sinIm * tmpOldAIm));
+            imaginary[tmpIndexB] = ((cosRe * tmpOldBIm) + (cosIm * tmpOldBRe)) + ((sinRe * tmpOldAIm) + (sinIm * tmpOldARe));
+
+            tmpIndexA++;
+            tmpIndexB++;
+        }
+    }
+
+    private SplitComplexArray toSplit(final Access1D<ComplexNumber> matrix, final int rowDim, final int colDim) {
+        final SplitComplexStore retVal = new SplitComplexStore(rowDim, colDim);
+        retVal.fillMatching(matrix);
+        return retVal;
+    }
+
+}
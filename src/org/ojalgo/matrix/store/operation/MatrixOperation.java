@@ -31,12 +31,36 @@ import org.ojalgo.OjAlgoUtils;
  */
 abstract class MatrixOperation {
 
+    /**
+     * The primitive thresholds are divided by this to get the {@linkplain java.math.BigDecimal} ones.
+     * <ul>
+     * <li>2026-10-19: Timed the overhead of one division step (2 tasks submitted to, and joined from, the
+     * {@linkplain org.ojalgo.concurrent.DaemonPoolExecutor}) at 13&micro;s, an exact BigDecimal multiply-add at
+     * 300ns and an add at 110ns (a primitive multiply-add at 6ns). Was 16, which divided (practically) every
+     * BigDecimal operation regardless of size. With 4 the element-wise operations (thresholds 128-256) are divided
+     * from 32-64 columns, 100&micro;s or more of work - roughly 10 times the overhead. Multiplications (thresholds
+     * 16-64) do a lot more work per column, and are divided from 4-16 columns.</li>
+     * </ul>
+     */
+    private static final int BIG_WORK_RATIO = 4;
+
     protected MatrixOperation() {
         super();
     }
 
     public abstract int threshold();
 
+    /**
+     * The thresholds are tuned for primitive double elements. With {@linkplain java.math.BigDecimal} elements
+     * each task does much more work, and it pays off to divide (and run in parallel) already at much smaller
+     * dimensions. Never more than the primitive threshold, so whatever is divided for primitive elements is also
+     * divided for BigDecimal.
+     */
+    public int thresholdForBig() {
+        final int tmpThreshold = this.threshold();
+        return Math.max(tmpThreshold / BIG_WORK_RATIO, Math.min(tmpThreshold, 2));
+    }
+
     public int workers() {
         return OjAlgoUtils.ENVIRONMENT.threads;
     }
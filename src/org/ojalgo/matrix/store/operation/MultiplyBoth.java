@@ -61,7 +61,7 @@ public final class MultiplyBoth extends MatrixOperation {
                 }
             };
 
-            tmpConquerer.invoke(0, ((int) left.count()) / complexity, THRESHOLD);
+            tmpConquerer.invoke(0, ((int) left.count()) / complexity, SETUP.thresholdForBig());
         }
 
     };
@@ -651,7 +651,7 @@ public final class MultiplyBoth extends MatrixOperation {
     };
 
     public static BigMultiplyBoth getBig(final long rows, final long columns) {
-        if (rows > THRESHOLD) {
+        if (rows > SETUP.thresholdForBig()) {
             return BIG_MT;
         } else {
             return BIG;
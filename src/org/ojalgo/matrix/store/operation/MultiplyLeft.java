@@ -57,7 +57,7 @@ public final class MultiplyLeft extends MatrixOperation {
                 }
             };
 
-            tmpConquerer.invoke(0, (int) (left.count() / complexity), THRESHOLD);
+            tmpConquerer.invoke(0, (int) (left.count() / complexity), SETUP.thresholdForBig());
         }
 
     };
@@ -649,7 +649,7 @@ public final class MultiplyLeft extends MatrixOperation {
     };
 
     public static BigMultiplyLeft getBig(final long rows, final long columns) {
-        if (rows > THRESHOLD) {
+        if (rows > SETUP.thresholdForBig()) {
             return BIG_MT;
         } else {
             return BIG;
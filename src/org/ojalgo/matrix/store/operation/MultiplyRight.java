@@ -22,6 +22,7 @@
 package org.ojalgo.matrix.store.operation;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.concurrent.DivideAndConquer;
@@ -38,6 +39,11 @@ public final class MultiplyRight extends MatrixOperation {
 
     public static int THRESHOLD = 32;
 
+    /**
+     * The number of product columns that share each pass over the left matrix (primitive only)
+     */
+    private static final int BLOCK = 16;
+
     static final BigMultiplyRight BIG = new BigMultiplyRight() {
 
         public void invoke(final BigDecimal[] product, final BigDecimal[] left, final int complexity, final Access1D<BigDecimal> right) {
@@ -58,7 +64,7 @@ public final class MultiplyRight extends MatrixOperation {
                 }
             };
 
-            tmpConquerer.invoke(0, (int) (right.count() / complexity), THRESHOLD);
+            tmpConquerer.invoke(0, (int) (right.count() / complexity), SETUP.thresholdForBig());
         }
 
     };
@@ -650,7 +656,7 @@ public final class MultiplyRight extends MatrixOperation {
     };
 
     public static BigMultiplyRight getBig(final long rows, final long columns) {
-        if (columns > THRESHOLD) {
+        if (columns > SETUP.thresholdForBig()) {
             return BIG_MT;
         } else {
             return BIG;
@@ -771,18 +777,36 @@ public final class MultiplyRight extends MatrixOperation {
         }
     }
 
+    /**
+     * The product columns are processed in blocks, and each left column is used for all columns in a block before
+     * moving on to the next - the left matrix is read once per block rather than once per column. Each product element
+     * is still accumulated in the same order. The block is accumulated in separate arrays, and the left column copied
+     * to one, as the JIT only vectorises the inner loop when neither array is accessed at an offset.
+     */
     static void invoke(final double[] product, final int firstColumn, final int columnLimit, final double[] left, final int complexity, final Access1D<?> right) {
 
         final int tmpRowDim = left.length / complexity;
 
-        final int tmpIndexLimit = tmpRowDim * columnLimit;
-        for (int tmpIndex = tmpRowDim * firstColumn; tmpIndex < tmpIndexLimit; tmpIndex++) {
-            product[tmpIndex] = PrimitiveMath.ZERO;
-        }
+        final double[][] tmpBlock = new double[Math.min(BLOCK, columnLimit - firstColumn)][tmpRowDim];
+        final double[] tmpLeftColumn = new double[tmpRowDim];
+
+        for (int b = firstColumn; b < columnLimit; b += BLOCK) {
+
+            final int tmpBlockSize = Math.min(BLOCK, columnLimit - b);
+
+            for (int j = 0; j < tmpBlockSize; j++) {
+                Arrays.fill(tmpBlock[j], PrimitiveMath.ZERO);
+            }
 
-        for (int j = firstColumn; j < columnLimit; j++) {
             for (int c = 0; c < complexity; c++) {
-                AXPY.invoke(product, j * tmpRowDim, 1, right.doubleValue(c + (j * complexity)), left, c * tmpRowDim, 1, tmpRowDim);
+                System.arraycopy(left, c * tmpRowDim, tmpLeftColumn, 0, tmpRowDim);
+                for (int j = 0; j < tmpBlockSize; j++) {
+                    AXPY.invoke(tmpBlock[j], 0, 1, right.doubleValue(c + ((b + j) * complexity)), tmpLeftColumn, 0, 1, tmpRowDim);
+                }
+            }
+
+            for (int j = 0; j < tmpBlockSize; j++) {
+                System.arraycopy(tmpBlock[j], 0, product, (b + j) * tmpRowDim, tmpRowDim);
             }
         }
     }
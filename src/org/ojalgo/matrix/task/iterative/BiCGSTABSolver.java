@@ -0,0 +1,118 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+/**
+ * Right preconditioned BiCGSTAB (van der Vorst). Each iteration applies the operator, and the
+ * preconditioner, twice.
+ *
+ * @author apete
+ */
+final class BiCGSTABSolver extends KrylovSolver {
+
+    BiCGSTABSolver() {
+        super();
+    }
+
+    @Override
+    int iterate(final LinearOperator operator, final double[] b, final double[] x, final Preconditioner preconditioner, final double tolerance,
+            final int limit) {
+
+        final int tmpDim = b.length;
+
+        final double[] tmpResidual = new double[tmpDim];
+        final double[] tmpShadow = new double[tmpDim];
+        final double[] tmpDirection = new double[tmpDim];
+        final double[] tmpPreconditionedDirection = new double[tmpDim];
+        final double[] tmpV = new double[tmpDim];
+        final double[] tmpS = new double[tmpDim];
+        final double[] tmpPreconditionedS = new double[tmpDim];
+        final double[] tmpT = new double[tmpDim];
+
+        KrylovSolver.residual(operator, b, x, tmpResidual);
+        System.arraycopy(tmpResidual, 0, tmpShadow, 0, tmpDim);
+
+        double tmpRho = 1.0;
+        double tmpAlpha = 1.0;
+        double tmpOmega = 1.0;
+        double tmpRhoNew;
+        double tmpBeta;
+        double tmpDenominator;
+
+        int retVal = 0;
+
+        while ((retVal < limit) && (KrylovSolver.norm(tmpResidual) > tolerance)) {
+
+            tmpRhoNew = KrylovSolver.dot(tmpShadow, tmpResidual);
+            if (tmpRhoNew == 0.0) {
+                break; // Breakdown
+            }
+
+            tmpBeta = (tmpRhoNew / tmpRho) * (tmpAlpha / tmpOmega);
+            for (int i = 0; i < tmpDim; i++) {
+                tmpDirection[i] = tmpResidual[i] + (tmpBeta * (tmpDirection[i] - (tmpOmega * tmpV[i])));
+            }
+
+            preconditioner.apply(tmpDirection, tmpPreconditionedDirection);
+            operator.apply(tmpPreconditionedDirection, tmpV);
+
+            tmpDenominator = KrylovSolver.dot(tmpShadow, tmpV);
+            if (tmpDenominator == 0.0) {
+                break; // Breakdown
+            }
+            tmpAlpha = tmpRhoNew / tmpDenominator;
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpS[i] = tmpResidual[i] - (tmpAlpha * tmpV[i]);
+            }
+
+            retVal++;
+
+            if (KrylovSolver.norm(tmpS) <= tolerance) {
+                KrylovSolver.axpy(x, tmpAlpha, tmpPreconditionedDirection);
+                break;
+            }
+
+            preconditioner.apply(tmpS, tmpPreconditionedS);
+            operator.apply(tmpPreconditionedS, tmpT);
+
+            tmpDenominator = KrylovSolver.dot(tmpT, tmpT);
+            tmpOmega = tmpDenominator != 0.0 ? KrylovSolver.dot(tmpT, tmpS) / tmpDenominator : 0.0;
+
+            KrylovSolver.axpy(x, tmpAlpha, tmpPreconditionedDirection);
+            KrylovSolver.axpy(x, tmpOmega, tmpPreconditionedS);
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpResidual[i] = tmpS[i] - (tmpOmega * tmpT[i]);
+            }
+
+            tmpRho = tmpRhoNew;
+
+            if (tmpOmega == 0.0) {
+                break; // Breakdown
+            }
+        }
+
+        return retVal;
+    }
+
+}
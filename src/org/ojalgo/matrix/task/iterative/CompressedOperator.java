@@ -0,0 +1,130 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import java.util.Arrays;
+
+import org.ojalgo.access.Access2D;
+
+/**
+ * Compressed row storage - the nonzero elements of each row, in column order.
+ *
+ * @author apete
+ */
+final class CompressedOperator implements LinearOperator {
+
+    private final int myColDim;
+    private final int[] myColumns;
+    private final int myRowDim;
+    /**
+     * The nonzero elements of row i are at [myRowStarts[i], myRowStarts[i+1])
+     */
+    private final int[] myRowStarts;
+    private final double[] myValues;
+
+    CompressedOperator(final Access2D<?> matrix) {
+
+        super();
+
+        myRowDim = (int) matrix.countRows();
+        myColDim = (int) matrix.countColumns();
+
+        myRowStarts = new int[myRowDim + 1];
+
+        int[] tmpColumns = new int[Math.max(myRowDim, myColDim)];
+        double[] tmpValues = new double[tmpColumns.length];
+        int tmpCount = 0;
+
+        double tmpValue;
+        for (int i = 0; i < myRowDim; i++) {
+            myRowStarts[i] = tmpCount;
+            for (int j = 0; j < myColDim; j++) {
+                tmpValue = matrix.doubleValue(i, j);
+                if (tmpValue != 0.0) {
+                    if (tmpCount == tmpColumns.length) {
+                        tmpColumns = Arrays.copyOf(tmpColumns, 2 * tmpCount);
+                        tmpValues = Arrays.copyOf(tmpValues, 2 * tmpCount);
+                    }
+                    tmpColumns[tmpCount] = j;
+                    tmpValues[tmpCount] = tmpValue;
+                    tmpCount++;
+                }
+            }
+        }
+        myRowStarts[myRowDim] = tmpCount;
+
+        myColumns = Arrays.copyOf(tmpColumns, tmpCount);
+        myValues = Arrays.copyOf(tmpValues, tmpCount);
+    }
+
+    public void apply(final double[] x, final double[] y) {
+
+        final int[] tmpRowStarts = myRowStarts;
+        final int[] tmpColumns = myColumns;
+        final double[] tmpValues = myValues;
+
+        double tmpSum;
+        for (int i = 0; i < myRowDim; i++) {
+            tmpSum = 0.0;
+            for (int k = tmpRowStarts[i]; k < tmpRowStarts[i + 1]; k++) {
+                tmpSum += tmpValues[k] * x[tmpColumns[k]];
+            }
+            y[i] = tmpSum;
+        }
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+    int[] getColumns() {
+        return myColumns;
+    }
+
+    double[] getDiagonal() {
+
+        final double[] retVal = new double[Math.min(myRowDim, myColDim)];
+
+        for (int i = 0; i < retVal.length; i++) {
+            for (int k = myRowStarts[i]; k < myRowStarts[i + 1]; k++) {
+                if (myColumns[k] == i) {
+                    retVal[i] = myValues[k];
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    int[] getRowStarts() {
+        return myRowStarts;
+    }
+
+    double[] getValues() {
+        return myValues;
+    }
+
+}
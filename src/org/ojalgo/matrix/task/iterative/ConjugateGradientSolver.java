@@ -0,0 +1,85 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+/**
+ * Preconditioned conjugate gradient. [A] and the preconditioner must be symmetric positive definite.
+ *
+ * @author apete
+ */
+final class ConjugateGradientSolver extends KrylovSolver {
+
+    ConjugateGradientSolver() {
+        super();
+    }
+
+    @Override
+    int iterate(final LinearOperator operator, final double[] b, final double[] x, final Preconditioner preconditioner, final double tolerance,
+            final int limit) {
+
+        final int tmpDim = b.length;
+
+        final double[] tmpResidual = new double[tmpDim];
+        final double[] tmpPreconditioned = new double[tmpDim];
+        final double[] tmpDirection = new double[tmpDim];
+        final double[] tmpProduct = new double[tmpDim];
+
+        KrylovSolver.residual(operator, b, x, tmpResidual);
+        preconditioner.apply(tmpResidual, tmpPreconditioned);
+        System.arraycopy(tmpPreconditioned, 0, tmpDirection, 0, tmpDim);
+
+        double tmpRZ = KrylovSolver.dot(tmpResidual, tmpPreconditioned);
+        double tmpAlpha;
+        double tmpBeta;
+        double tmpCurvature;
+
+        int retVal = 0;
+
+        while ((retVal < limit) && (KrylovSolver.norm(tmpResidual) > tolerance)) {
+
+            operator.apply(tmpDirection, tmpProduct);
+
+            tmpCurvature = KrylovSolver.dot(tmpDirection, tmpProduct);
+            if (tmpCurvature <= 0.0) {
+                break; // Not positive definite
+            }
+
+            tmpAlpha = tmpRZ / tmpCurvature;
+            KrylovSolver.axpy(x, tmpAlpha, tmpDirection);
+            KrylovSolver.axpy(tmpResidual, -tmpAlpha, tmpProduct);
+
+            preconditioner.apply(tmpResidual, tmpPreconditioned);
+            tmpBeta = tmpRZ;
+            tmpRZ = KrylovSolver.dot(tmpResidual, tmpPreconditioned);
+            tmpBeta = tmpRZ / tmpBeta;
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpDirection[i] = tmpPreconditioned[i] + (tmpBeta * tmpDirection[i]);
+            }
+
+            retVal++;
+        }
+
+        return retVal;
+    }
+
+}
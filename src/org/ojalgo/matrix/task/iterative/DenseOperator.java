@@ -0,0 +1,76 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * Column major dense matrix
+ *
+ * @author apete
+ */
+final class DenseOperator implements LinearOperator {
+
+    private final int myColDim;
+    private final double[] myData;
+    private final int myRowDim;
+
+    DenseOperator(final PrimitiveDenseStore matrix) {
+
+        super();
+
+        myRowDim = (int) matrix.countRows();
+        myColDim = (int) matrix.countColumns();
+        myData = matrix.data;
+    }
+
+    public void apply(final double[] x, final double[] y) {
+
+        final int tmpRowDim = myRowDim;
+        final double[] tmpData = myData;
+
+        for (int i = 0; i < tmpRowDim; i++) {
+            y[i] = 0.0;
+        }
+
+        double tmpX;
+        int tmpBase;
+        for (int j = 0; j < myColDim; j++) {
+            tmpX = x[j];
+            if (tmpX != 0.0) {
+                tmpBase = j * tmpRowDim;
+                for (int i = 0; i < tmpRowDim; i++) {
+                    y[i] += tmpData[tmpBase + i] * tmpX;
+                }
+            }
+        }
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+/**
+ * Restarted, right preconditioned, GMRES. The Arnoldi basis is orthogonalised with modified Gram-Schmidt
+ * and the Hessenberg least squares problem is solved incrementally with Givens rotations. The
+ * preconditioned basis vectors are kept (flexible GMRES) so that the solution update does not need to apply
+ * the preconditioner again.
+ *
+ * @author apete
+ */
+final class GMRESSolver extends KrylovSolver {
+
+    private final int myRestart;
+
+    GMRESSolver(final int restart) {
+
+        super();
+
+        myRestart = Math.max(restart, 1);
+    }
+
+    @Override
+    int iterate(final LinearOperator operator, final double[] b, final double[] x, final Preconditioner preconditioner, final double tolerance,
+            final int limit) {
+
+        final int tmpDim = b.length;
+        final int tmpRestart = Math.min(myRestart, tmpDim);
+
+        final double[][] tmpBasis = new double[tmpRestart + 1][tmpDim];
+        final double[][] tmpPreconditioned = new double[tmpRestart][tmpDim];
+        final double[][] tmpHessenberg = new double[tmpRestart + 1][tmpRestart];
+        final double[] tmpCos = new double[tmpRestart];
+        final double[] tmpSin = new double[tmpRestart];
+        final double[] tmpRHS = new double[tmpRestart + 1];
+        final double[] tmpY = new double[tmpRestart];
+
+        int retVal = 0;
+
+        while (retVal < limit) {
+
+            KrylovSolver.residual(operator, b, x, tmpBasis[0]);
+            final double tmpBeta = KrylovSolver.norm(tmpBasis[0]);
+            if (tmpBeta <= tolerance) {
+                break;
+            }
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpBasis[0][i] /= tmpBeta;
+            }
+            for (int i = 0; i <= tmpRestart; i++) {
+                tmpRHS[i] = 0.0;
+            }
+            tmpRHS[0] = tmpBeta;
+
+            int tmpSize = 0;
+            boolean tmpConverged = false;
+
+            for (int j = 0; (j < tmpRestart) && (retVal < limit); j++) {
+
+                final double[] tmpW = tmpBasis[j + 1];
+
+                preconditioner.apply(tmpBasis[j], tmpPreconditioned[j]);
+                operator.apply(tmpPreconditioned[j], tmpW);
+
+                for (int i = 0; i <= j; i++) {
+                    tmpHessenberg[i][j] = KrylovSolver.dot(tmpW, tmpBasis[i]);
+                    KrylovSolver.axpy(tmpW, -tmpHessenberg[i][j], tmpBasis[i]);
+                }
+                final double tmpNorm = KrylovSolver.norm(tmpW);
+                tmpHessenberg[j + 1][j] = tmpNorm;
+                if (tmpNorm != 0.0) {
+                    for (int i = 0; i < tmpDim; i++) {
+                        tmpW[i] /= tmpNorm;
+                    }
+                }
+
+                // Apply the previous rotations to the new column
+                double tmpTemp;
+                for (int i = 0; i < j; i++) {
+                    tmpTemp = (tmpCos[i] * tmpHessenberg[i][j]) + (tmpSin[i] * tmpHessenberg[i + 1][j]);
+                    tmpHessenberg[i + 1][j] = (-tmpSin[i] * tmpHessenberg[i][j]) + (tmpCos[i] * tmpHessenberg[i + 1][j]);
+                    tmpHessenberg[i][j] = tmpTemp;
+                }
+
+                // ...and a new one to eliminate the subdiagonal element
+                final double tmpHypot = Math.hypot(tmpHessenberg[j][j], tmpHessenberg[j + 1][j]);
+                if (tmpHypot != 0.0) {
+                    tmpCos[j] = tmpHessenberg[j][j] / tmpHypot;
+                    tmpSin[j] = tmpHessenberg[j + 1][j] / tmpHypot;
+                } else {
+                    tmpCos[j] = 1.0;
+                    tmpSin[j] = 0.0;
+                }
+                tmpHessenberg[j][j] = tmpHypot;
+                tmpHessenberg[j + 1][j] = 0.0;
+                tmpRHS[j + 1] = -tmpSin[j] * tmpRHS[j];
+                tmpRHS[j] = tmpCos[j] * tmpRHS[j];
+
+                retVal++;
+                tmpSize = j + 1;
+
+                if ((Math.abs(tmpRHS[j + 1]) <= tolerance) || (tmpNorm == 0.0)) {
+                    tmpConverged = true;
+                    break;
+                }
+            }
+
+            // Back substitution with the (now upper triangular) Hessenberg matrix
+            for (int i = tmpSize - 1; i >= 0; i--) {
+                double tmpSum = tmpRHS[i];
+                for (int k = i + 1; k < tmpSize; k++) {
+                    tmpSum -= tmpHessenberg[i][k] * tmpY[k];
+                }
+                tmpY[i] = tmpHessenberg[i][i] != 0.0 ? tmpSum / tmpHessenberg[i][i] : 0.0;
+            }
+
+            for (int i = 0; i < tmpSize; i++) {
+                KrylovSolver.axpy(x, tmpY[i], tmpPreconditioned[i]);
+            }
+
+            if (tmpConverged) {
+                break;
+            }
+        }
+
+        return retVal;
+    }
+
+}
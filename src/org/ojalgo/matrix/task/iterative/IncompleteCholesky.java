@@ -0,0 +1,138 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+/**
+ * IC(0) - [L][L]<sup>T</sup> with [L] restricted to the sparsity pattern of the lower triangle of [A]. Only
+ * the lower triangle of [A] is read.
+ *
+ * @author apete
+ */
+final class IncompleteCholesky implements Preconditioner {
+
+    private final int[] myColumns;
+    private final int myDim;
+    /**
+     * The diagonal element is the last one in each row
+     */
+    private final int[] myRowStarts;
+    private final double[] myValues;
+
+    IncompleteCholesky(final CompressedOperator matrix) {
+
+        super();
+
+        myDim = (int) matrix.countRows();
+
+        final int[] tmpRowStarts = matrix.getRowStarts();
+        final int[] tmpColumns = matrix.getColumns();
+        final double[] tmpValues = matrix.getValues();
+
+        int tmpCount = 0;
+        for (int i = 0; i < myDim; i++) {
+            for (int k = tmpRowStarts[i]; (k < tmpRowStarts[i + 1]) && (tmpColumns[k] <= i); k++) {
+                tmpCount++;
+            }
+        }
+
+        myRowStarts = new int[myDim + 1];
+        myColumns = new int[tmpCount];
+        myValues = new double[tmpCount];
+
+        tmpCount = 0;
+        for (int i = 0; i < myDim; i++) {
+            myRowStarts[i] = tmpCount;
+            for (int k = tmpRowStarts[i]; (k < tmpRowStarts[i + 1]) && (tmpColumns[k] <= i); k++) {
+                myColumns[tmpCount] = tmpColumns[k];
+                myValues[tmpCount] = tmpValues[k];
+                tmpCount++;
+            }
+            if ((tmpCount == myRowStarts[i]) || (myColumns[tmpCount - 1] != i)) {
+                throw new IllegalArgumentException("IC(0) requires a nonzero diagonal!");
+            }
+        }
+        myRowStarts[myDim] = tmpCount;
+
+        for (int i = 0; i < myDim; i++) {
+
+            final int tmpFirstI = myRowStarts[i];
+            final int tmpDiagI = myRowStarts[i + 1] - 1;
+
+            for (int k = tmpFirstI; k <= tmpDiagI; k++) {
+
+                final int tmpCol = myColumns[k];
+                final int tmpDiagCol = myRowStarts[tmpCol + 1] - 1;
+
+                // Subtract the sum of l(i,j)*l(col,j) for j < col, merging the two sorted rows
+                double tmpSum = myValues[k];
+                int p = tmpFirstI;
+                int q = myRowStarts[tmpCol];
+                while ((p < k) && (q < tmpDiagCol)) {
+                    if (myColumns[p] == myColumns[q]) {
+                        tmpSum -= myValues[p] * myValues[q];
+                        p++;
+                        q++;
+                    } else if (myColumns[p] < myColumns[q]) {
+                        p++;
+                    } else {
+                        q++;
+                    }
+                }
+
+                if (tmpCol < i) {
+                    myValues[k] = tmpSum / myValues[tmpDiagCol];
+                } else if (tmpSum > 0.0) {
+                    myValues[k] = Math.sqrt(tmpSum);
+                } else {
+                    // Breakdown - fall back to the (absolute) original diagonal element
+                    final double tmpOriginal = Math.abs(myValues[k]);
+                    myValues[k] = tmpOriginal > 0.0 ? Math.sqrt(tmpOriginal) : 1.0;
+                }
+            }
+        }
+    }
+
+    public void apply(final double[] r, final double[] z) {
+
+        double tmpSum;
+
+        // [L][y]=[r]
+        for (int i = 0; i < myDim; i++) {
+            final int tmpDiag = myRowStarts[i + 1] - 1;
+            tmpSum = r[i];
+            for (int k = myRowStarts[i]; k < tmpDiag; k++) {
+                tmpSum -= myValues[k] * z[myColumns[k]];
+            }
+            z[i] = tmpSum / myValues[tmpDiag];
+        }
+
+        // [L]<sup>T</sup>[z]=[y]
+        for (int i = myDim - 1; i >= 0; i--) {
+            final int tmpDiag = myRowStarts[i + 1] - 1;
+            z[i] /= myValues[tmpDiag];
+            for (int k = myRowStarts[i]; k < tmpDiag; k++) {
+                z[myColumns[k]] -= myValues[k] * z[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import java.util.Arrays;
+
+/**
+ * ILU(0) - [L][U] restricted to the sparsity pattern of [A]. [L] is unit lower triangular and stored
+ * together with [U] in the compressed rows of [A].
+ *
+ * @author apete
+ */
+final class IncompleteLU implements Preconditioner {
+
+    private final int[] myColumns;
+    private final int[] myDiagonal;
+    private final int myDim;
+    private final int[] myRowStarts;
+    private final double[] myValues;
+
+    IncompleteLU(final CompressedOperator matrix) {
+
+        super();
+
+        myDim = (int) matrix.countRows();
+        myRowStarts = matrix.getRowStarts();
+        myColumns = matrix.getColumns();
+        myValues = matrix.getValues().clone();
+
+        myDiagonal = new int[myDim];
+
+        final int[] tmpPosition = new int[(int) matrix.countColumns()];
+        Arrays.fill(tmpPosition, -1);
+
+        for (int i = 0; i < myDim; i++) {
+
+            final int tmpFirst = myRowStarts[i];
+            final int tmpLimit = myRowStarts[i + 1];
+
+            myDiagonal[i] = -1;
+            for (int k = tmpFirst; k < tmpLimit; k++) {
+                tmpPosition[myColumns[k]] = k;
+                if (myColumns[k] == i) {
+                    myDiagonal[i] = k;
+                }
+            }
+            if (myDiagonal[i] < 0) {
+                throw new IllegalArgumentException("ILU(0) requires a nonzero diagonal!");
+            }
+
+            for (int k = tmpFirst; k < myDiagonal[i]; k++) {
+
+                final int tmpCol = myColumns[k];
+
+                myValues[k] /= myValues[myDiagonal[tmpCol]];
+
+                for (int m = myDiagonal[tmpCol] + 1; m < myRowStarts[tmpCol + 1]; m++) {
+                    final int tmpPos = tmpPosition[myColumns[m]];
+                    if (tmpPos >= 0) {
+                        myValues[tmpPos] -= myValues[k] * myValues[m];
+                    }
+                }
+            }
+
+            if (myValues[myDiagonal[i]] == 0.0) {
+                // Breakdown - any nonsingular [M] is still a valid preconditioner
+                myValues[myDiagonal[i]] = 1.0;
+            }
+
+            for (int k = tmpFirst; k < tmpLimit; k++) {
+                tmpPosition[myColumns[k]] = -1;
+            }
+        }
+    }
+
+    public void apply(final double[] r, final double[] z) {
+
+        double tmpSum;
+
+        // [L][y]=[r]
+        for (int i = 0; i < myDim; i++) {
+            tmpSum = r[i];
+            for (int k = myRowStarts[i]; k < myDiagonal[i]; k++) {
+                tmpSum -= myValues[k] * z[myColumns[k]];
+            }
+            z[i] = tmpSum;
+        }
+
+        // [U][z]=[y]
+        for (int i = myDim - 1; i >= 0; i--) {
+            tmpSum = z[i];
+            for (int k = myDiagonal[i] + 1; k < myRowStarts[i + 1]; k++) {
+                tmpSum -= myValues[k] * z[myColumns[k]];
+            }
+            z[i] = tmpSum / myValues[myDiagonal[i]];
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.matrix.decomposition.DecompositionStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.operation.AXPY;
+import org.ojalgo.matrix.store.operation.DotProduct;
+import org.ojalgo.matrix.task.SolverTask;
+import org.ojalgo.matrix.task.TaskException;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Krylov subspace solvers for [A][x]=[b]. [A] is only accessed through a {@linkplain LinearOperator}, and
+ * each iteration needs one (two with BiCGSTAB) operator application. The current content of the solution
+ * vector is used as the initial guess - pass the previous solution to warm start.
+ * <ul>
+ * <li>{@linkplain #makeConjugateGradient()} - symmetric positive definite [A]</li>
+ * <li>{@linkplain #makeMINRES()} - symmetric, possibly indefinite, [A]</li>
+ * <li>{@linkplain #makeGMRES(int)} and {@linkplain #makeBiCGSTAB()} - general square [A]</li>
+ * </ul>
+ * <p>
+ * The iterations stop when ||[b]-[A][x]|| &lt;= accuracy * ||[b]|| or when the iterations limit is reached.
+ * Instances are not thread safe - they remember the number of iterations and the residual of the latest
+ * solve.
+ * </p>
+ *
+ * @author apete
+ */
+public abstract class KrylovSolver implements SolverTask<Double> {
+
+    private static final NumberContext DEFAULT_ACCURACY = new NumberContext(12, 10);
+
+    public static KrylovSolver makeBiCGSTAB() {
+        return new BiCGSTABSolver();
+    }
+
+    public static KrylovSolver makeConjugateGradient() {
+        return new ConjugateGradientSolver();
+    }
+
+    /**
+     * @param restart The number of iterations between restarts (the number of basis vectors kept in memory)
+     */
+    public static KrylovSolver makeGMRES(final int restart) {
+        return new GMRESSolver(restart);
+    }
+
+    public static KrylovSolver makeMINRES() {
+        return new MINRESSolver();
+    }
+
+    static void axpy(final double[] y, final double a, final double[] x) {
+        AXPY.invoke(y, 0, 1, a, x, 0, 1, y.length);
+    }
+
+    static double dot(final double[] x, final double[] y) {
+        return DotProduct.invoke(x, y, x.length);
+    }
+
+    static double norm(final double[] x) {
+        return Math.sqrt(DotProduct.invoke(x, x, x.length));
+    }
+
+    /**
+     * r = b - A x
+     */
+    static void residual(final LinearOperator operator, final double[] b, final double[] x, final double[] r) {
+        operator.apply(x, r);
+        for (int i = 0; i < r.length; i++) {
+            r[i] = b[i] - r[i];
+        }
+    }
+
+    private NumberContext myAccuracy = DEFAULT_ACCURACY;
+    private int myIterations = 0;
+    private int myIterationsLimit = 0;
+    private Preconditioner myPreconditioner = Preconditioner.IDENTITY;
+    private double myResidual = Double.NaN;
+
+    KrylovSolver() {
+        super();
+    }
+
+    /**
+     * @return The number of iterations performed by the latest solve
+     */
+    public final int getIterations() {
+        return myIterations;
+    }
+
+    /**
+     * @return The relative residual, ||[b]-[A][x]|| / ||[b]||, of the latest solve
+     */
+    public final double getResidual() {
+        return myResidual;
+    }
+
+    public final DecompositionStore<Double> preallocate(final Access2D<Double> templateBody, final Access2D<Double> templateRHS) {
+        return PrimitiveDenseStore.FACTORY.makeZero(templateBody.countColumns(), templateRHS.countColumns());
+    }
+
+    /**
+     * The relative residual the solver aims for. The default is {@linkplain NumberContext#epsilon()} of (12,10).
+     */
+    public final void setAccuracy(final NumberContext accuracy) {
+        myAccuracy = accuracy;
+    }
+
+    /**
+     * The default (0) means twice the operator dimension.
+     */
+    public final void setIterationsLimit(final int limit) {
+        myIterationsLimit = limit;
+    }
+
+    public final void setPreconditioner(final Preconditioner preconditioner) {
+        myPreconditioner = preconditioner != null ? preconditioner : Preconditioner.IDENTITY;
+    }
+
+    /**
+     * Wraps the body using {@linkplain LinearOperator#wrap(Access2D)} and solves for each of the right hand
+     * side columns, starting from whatever is in preallocated.
+     */
+    public final MatrixStore<Double> solve(final Access2D<Double> body, final Access2D<Double> rhs, final DecompositionStore<Double> preallocated)
+            throws TaskException {
+
+        final LinearOperator tmpOperator = LinearOperator.wrap(body);
+
+        final int tmpRowDim = (int) rhs.countRows();
+        final int tmpColDim = (int) preallocated.countRows();
+
+        final double[] tmpRHS = new double[tmpRowDim];
+        final double[] tmpSolution = new double[tmpColDim];
+
+        for (int j = 0; j < rhs.countColumns(); j++) {
+
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRHS[i] = rhs.doubleValue(i, j);
+            }
+            for (int i = 0; i < tmpColDim; i++) {
+                tmpSolution[i] = preallocated.doubleValue(i, j);
+            }
+
+            if (!this.solve(tmpOperator, tmpRHS, tmpSolution)) {
+                throw new TaskException("No convergence after " + myIterations + " iterations, residual " + myResidual + "!");
+            }
+
+            for (int i = 0; i < tmpColDim; i++) {
+                preallocated.set(i, j, tmpSolution[i]);
+            }
+        }
+
+        return preallocated;
+    }
+
+    /**
+     * @param operator [A]
+     * @param rhs [b], will not be modified
+     * @param solution [x], the initial guess on input and the solution on output
+     * @return true if the requested accuracy was reached
+     */
+    public final boolean solve(final LinearOperator operator, final double[] rhs, final double[] solution) {
+
+        final double tmpNormB = KrylovSolver.norm(rhs);
+
+        if (tmpNormB == 0.0) {
+            for (int i = 0; i < solution.length; i++) {
+                solution[i] = 0.0;
+            }
+            myIterations = 0;
+            myResidual = 0.0;
+            return true;
+        }
+
+        final int tmpLimit = myIterationsLimit > 0 ? myIterationsLimit : (int) Math.min(2L * operator.countRows(), Integer.MAX_VALUE);
+        final double tmpTolerance = myAccuracy.epsilon() * tmpNormB;
+
+        final double[] tmpResidual = new double[rhs.length];
+
+        myIterations = 0;
+        int tmpIterations;
+
+        do {
+
+            // The recursively updated residuals drift away from the true residual - restart until they agree
+            tmpIterations = this.iterate(operator, rhs, solution, myPreconditioner, tmpTolerance, tmpLimit - myIterations);
+            myIterations += tmpIterations;
+
+            KrylovSolver.residual(operator, rhs, solution, tmpResidual);
+            myResidual = KrylovSolver.norm(tmpResidual) / tmpNormB;
+
+        } while ((myResidual > myAccuracy.epsilon()) && (tmpIterations > 0) && (myIterations < tmpLimit));
+
+        return myResidual <= myAccuracy.epsilon();
+    }
+
+    /**
+     * Solves for a single right hand side, starting from 0.
+     */
+    public final MatrixStore<Double> solve(final LinearOperator operator, final Access1D<?> rhs) throws TaskException {
+
+        final double[] tmpRHS = new double[(int) rhs.count()];
+        for (int i = 0; i < tmpRHS.length; i++) {
+            tmpRHS[i] = rhs.doubleValue(i);
+        }
+
+        final double[] tmpSolution = new double[(int) operator.countColumns()];
+
+        if (!this.solve(operator, tmpRHS, tmpSolution)) {
+            throw new TaskException("No convergence after " + myIterations + " iterations, residual " + myResidual + "!");
+        }
+
+        return PrimitiveDenseStore.FACTORY.columns(tmpSolution);
+    }
+
+    /**
+     * @param tolerance Absolute tolerance for the (estimated) residual norm
+     * @return The number of iterations performed
+     */
+    abstract int iterate(LinearOperator operator, double[] b, double[] x, Preconditioner preconditioner, double tolerance, int limit);
+
+}
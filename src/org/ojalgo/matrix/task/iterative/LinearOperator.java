@@ -0,0 +1,60 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import org.ojalgo.access.Access2D;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * Something that can compute [y] = [A][x] without (necessarily) having [A] in memory. Implement it directly
+ * for implicit/structured matrices, or use {@linkplain #wrap(Access2D)} for matrices that do exist.
+ *
+ * @author apete
+ */
+public interface LinearOperator {
+
+    /**
+     * Dense {@linkplain PrimitiveDenseStore} instances are used as they are (no copying). Anything else is
+     * scanned once and the nonzero elements are copied to a compressed (row) format - the cost of that scan
+     * is that of calling {@linkplain Access2D#doubleValue(long, long)} for every element.
+     */
+    public static LinearOperator wrap(final Access2D<?> matrix) {
+        if (matrix instanceof PrimitiveDenseStore) {
+            return new DenseOperator((PrimitiveDenseStore) matrix);
+        } else {
+            return new CompressedOperator(matrix);
+        }
+    }
+
+    /**
+     * y = A x
+     *
+     * @param x The argument, must not be modified
+     * @param y The result, will be overwritten
+     */
+    void apply(double[] x, double[] y);
+
+    long countColumns();
+
+    long countRows();
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+/**
+ * Preconditioned MINRES (Paige and Saunders). [A] must be symmetric, but may be indefinite. The
+ * preconditioner must be symmetric positive definite. The residual estimate used to stop the iterations is
+ * measured in the norm defined by the inverse preconditioner, and the tolerance is scaled accordingly.
+ *
+ * @author apete
+ */
+final class MINRESSolver extends KrylovSolver {
+
+    MINRESSolver() {
+        super();
+    }
+
+    @Override
+    int iterate(final LinearOperator operator, final double[] b, final double[] x, final Preconditioner preconditioner, final double tolerance,
+            final int limit) {
+
+        final int tmpDim = b.length;
+
+        double[] tmpR1 = new double[tmpDim];
+        double[] tmpR2 = new double[tmpDim];
+        final double[] tmpY = new double[tmpDim];
+        final double[] tmpV = new double[tmpDim];
+        double[] tmpW = new double[tmpDim];
+        double[] tmpW1 = new double[tmpDim];
+        double[] tmpW2 = new double[tmpDim];
+
+        KrylovSolver.residual(operator, b, x, tmpR1);
+        preconditioner.apply(tmpR1, tmpY);
+
+        double tmpBeta1 = KrylovSolver.dot(tmpR1, tmpY);
+        if (tmpBeta1 <= 0.0) {
+            return 0; // Already solved, or the preconditioner is not positive definite
+        }
+        tmpBeta1 = Math.sqrt(tmpBeta1);
+
+        // The tolerance is for the 2-norm, the estimate is in the preconditioned norm
+        final double tmpTolerance = (tolerance * tmpBeta1) / KrylovSolver.norm(tmpR1);
+
+        System.arraycopy(tmpR1, 0, tmpR2, 0, tmpDim);
+
+        double tmpOldBeta = 0.0;
+        double tmpBeta = tmpBeta1;
+        double tmpDeltaBar = 0.0;
+        double tmpEpsilon = 0.0;
+        double tmpPhiBar = tmpBeta1;
+        double tmpCos = -1.0;
+        double tmpSin = 0.0;
+
+        double tmpAlpha;
+        double tmpOldEpsilon;
+        double tmpDelta;
+        double tmpGammaBar;
+        double tmpGamma;
+        double tmpPhi;
+        double[] tmpSwap;
+
+        int retVal = 0;
+
+        while ((retVal < limit) && (tmpPhiBar > tmpTolerance)) {
+
+            // Lanczos step
+            for (int i = 0; i < tmpDim; i++) {
+                tmpV[i] = tmpY[i] / tmpBeta;
+            }
+            operator.apply(tmpV, tmpY);
+            if (retVal > 0) {
+                KrylovSolver.axpy(tmpY, -tmpBeta / tmpOldBeta, tmpR1);
+            }
+
+            tmpAlpha = KrylovSolver.dot(tmpV, tmpY);
+            KrylovSolver.axpy(tmpY, -tmpAlpha / tmpBeta, tmpR2);
+
+            tmpSwap = tmpR1;
+            tmpR1 = tmpR2;
+            tmpR2 = tmpSwap;
+            System.arraycopy(tmpY, 0, tmpR2, 0, tmpDim);
+
+            preconditioner.apply(tmpR2, tmpY);
+            tmpOldBeta = tmpBeta;
+            tmpBeta = KrylovSolver.dot(tmpR2, tmpY);
+            if (tmpBeta < 0.0) {
+                break; // The preconditioner is not positive definite
+            }
+            tmpBeta = Math.sqrt(tmpBeta);
+
+            // Apply the previous rotation, and compute a new one
+            tmpOldEpsilon = tmpEpsilon;
+            tmpDelta = (tmpCos * tmpDeltaBar) + (tmpSin * tmpAlpha);
+            tmpGammaBar = (tmpSin * tmpDeltaBar) - (tmpCos * tmpAlpha);
+            tmpEpsilon = tmpSin * tmpBeta;
+            tmpDeltaBar = -tmpCos * tmpBeta;
+
+            tmpGamma = Math.max(Math.hypot(tmpGammaBar, tmpBeta), Double.MIN_NORMAL);
+            tmpCos = tmpGammaBar / tmpGamma;
+            tmpSin = tmpBeta / tmpGamma;
+            tmpPhi = tmpCos * tmpPhiBar;
+            tmpPhiBar = tmpSin * tmpPhiBar;
+
+            // Update the solution
+            tmpSwap = tmpW1;
+            tmpW1 = tmpW2;
+            tmpW2 = tmpW;
+            tmpW = tmpSwap;
+            for (int i = 0; i < tmpDim; i++) {
+                tmpW[i] = (tmpV[i] - (tmpOldEpsilon * tmpW1[i]) - (tmpDelta * tmpW2[i])) / tmpGamma;
+            }
+            KrylovSolver.axpy(x, tmpPhi, tmpW);
+
+            retVal++;
+
+            if (tmpBeta == 0.0) {
+                break; // Invariant subspace found - x is exact
+            }
+        }
+
+        return retVal;
+    }
+
+}
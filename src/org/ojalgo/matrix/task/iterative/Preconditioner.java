@@ -0,0 +1,99 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import org.ojalgo.access.Access2D;
+
+/**
+ * An approximation [M] of [A] such that [M][z]=[r] is cheap to solve. A good preconditioner can reduce the
+ * number of iterations dramatically. With {@linkplain KrylovSolver#makeConjugateGradient()} and
+ * {@linkplain KrylovSolver#makeMINRES()} the preconditioner must be symmetric positive definite.
+ *
+ * @author apete
+ */
+public interface Preconditioner {
+
+    Preconditioner IDENTITY = new Preconditioner() {
+
+        public void apply(final double[] r, final double[] z) {
+            System.arraycopy(r, 0, z, 0, r.length);
+        }
+
+    };
+
+    /**
+     * Incomplete Cholesky factorisation with no fill-in, IC(0), of a symmetric matrix. [L] has the same
+     * sparsity pattern as the lower triangle of the matrix.
+     */
+    public static Preconditioner makeIncompleteCholesky(final Access2D<?> matrix) {
+        return new IncompleteCholesky(new CompressedOperator(matrix));
+    }
+
+    /**
+     * Incomplete LU factorisation with no fill-in, ILU(0). [L] and [U] have the same sparsity pattern as the
+     * matrix. There is no pivoting.
+     */
+    public static Preconditioner makeIncompleteLU(final Access2D<?> matrix) {
+        return new IncompleteLU(new CompressedOperator(matrix));
+    }
+
+    public static Preconditioner makeJacobi(final Access2D<?> matrix) {
+
+        final double[] tmpDiagonal = new double[(int) Math.min(matrix.countRows(), matrix.countColumns())];
+
+        for (int i = 0; i < tmpDiagonal.length; i++) {
+            tmpDiagonal[i] = matrix.doubleValue(i, i);
+        }
+
+        return Preconditioner.makeJacobi(tmpDiagonal);
+    }
+
+    /**
+     * For operators that are never formed explicitly it is often still easy to compute the diagonal.
+     */
+    public static Preconditioner makeJacobi(final double[] diagonal) {
+
+        final double[] tmpInverted = new double[diagonal.length];
+        for (int i = 0; i < tmpInverted.length; i++) {
+            tmpInverted[i] = diagonal[i] != 0.0 ? 1.0 / diagonal[i] : 1.0;
+        }
+
+        return new Preconditioner() {
+
+            public void apply(final double[] r, final double[] z) {
+                for (int i = 0; i < tmpInverted.length; i++) {
+                    z[i] = tmpInverted[i] * r[i];
+                }
+            }
+
+        };
+    }
+
+    /**
+     * z = M<sup>-1</sup> r
+     *
+     * @param r The residual, must not be modified
+     * @param z The preconditioned residual, will be overwritten
+     */
+    void apply(double[] r, double[] z);
+
+}
@@ -0,0 +1,8 @@
+/**
+ * Iterative (Krylov subspace) solvers for [A][x]=[b] where [A] is only accessed through a
+ * {@linkplain org.ojalgo.matrix.task.iterative.LinearOperator} - it may be a dense or sparse matrix, or
+ * something that is never formed explicitly.
+ *
+ * @author apete
+ */
+package org.ojalgo.matrix.task.iterative;
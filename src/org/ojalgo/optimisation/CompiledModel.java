@@ -0,0 +1,199 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.ojalgo.optimisation.ExpressionsBasedModel.Integration;
+import org.ojalgo.optimisation.convex.ConvexSolver;
+
+/**
+ * <p>
+ * A handle for repeatedly solving the same {@linkplain ExpressionsBasedModel} when only its parameters change
+ * between the solves - variable and expression limits, contribution weights and factor values. Create it with
+ * {@linkplain ExpressionsBasedModel#compile()}, modify the model's variables and expressions directly, and then
+ * call {@link #minimise()} or {@link #maximise()}.
+ * </p>
+ * <p>
+ * The solver, and its matrices, are kept between the solves. As long as the structure is unchanged (the same
+ * free variables, the same constraints with the same sparsity pattern, and the same kind of objective) the
+ * parameter values are written to the existing matrices in place, and the previous solution is used to
+ * warm-start the solver (for the convex solver that means the previously active set of inequalities). If the
+ * structure has changed everything is rebuilt, exactly as the first time.
+ * </p>
+ * <p>
+ * There is no presolve - presolve reductions depend on the parameter values. The linear solver's tableau is
+ * modified in place while it iterates, and can't be reused, so linear models only skip presolve. Integer models
+ * are solved the same way as with {@linkplain ExpressionsBasedModel#minimise()}.
+ * </p>
+ *
+ * @author apete
+ */
+public final class CompiledModel {
+
+    private ConvexSolver.Builder myConvexBuilder = null;
+    private ConvexSolver myConvexSolver = null;
+    private final ExpressionsBasedModel myModel;
+    private int myRebuilds = 0;
+    private int[] myStructure = null;
+    private int[] myWork = new int[64];
+    private int myWorkSize = 0;
+
+    CompiledModel(final ExpressionsBasedModel model) {
+
+        super();
+
+        myModel = model;
+    }
+
+    /**
+     * @return The number of times the solver (and its matrices) had to be built from scratch
+     */
+    public int countRebuilds() {
+        return myRebuilds;
+    }
+
+    public ExpressionsBasedModel getModel() {
+        return myModel;
+    }
+
+    /**
+     * Forces a rebuild on the next solve.
+     */
+    public void invalidate() {
+        myConvexBuilder = null;
+        myConvexSolver = null;
+        myStructure = null;
+    }
+
+    public Optimisation.Result maximise() {
+
+        myModel.setMaximisation();
+
+        return this.solve();
+    }
+
+    public Optimisation.Result minimise() {
+
+        myModel.setMinimisation();
+
+        return this.solve();
+    }
+
+    private void append(final int value) {
+        if (myWorkSize == myWork.length) {
+            myWork = Arrays.copyOf(myWork, myWorkSize << 1);
+        }
+        myWork[myWorkSize++] = value;
+    }
+
+    /**
+     * Everything that determines the dimensions and layout of the solver's matrices.
+     */
+    private int[] describeStructure() {
+
+        myWorkSize = 0;
+
+        final List<Variable> tmpVariables = myModel.getVariables();
+        this.append(tmpVariables.size());
+        for (int i = 0; i < tmpVariables.size(); i++) {
+            final Variable tmpVariable = tmpVariables.get(i);
+            this.append(myModel.indexOfFreeVariable(i));
+            this.append((tmpVariable.isLowerConstraint() ? 1 : 0) | (tmpVariable.isUpperConstraint() ? 2 : 0));
+        }
+
+        this.append(myModel.countExpressions());
+        for (final Expression tmpExpression : myModel.getExpressions()) {
+
+            final boolean tmpQuadratic = tmpExpression.isAnyQuadraticFactorNonZero();
+
+            this.append(tmpExpression.getName().hashCode());
+            this.append((tmpExpression.isEqualityConstraint() ? 1 : 0) | (tmpExpression.isLowerConstraint() ? 2 : 0)
+                    | (tmpExpression.isUpperConstraint() ? 4 : 0) | (tmpQuadratic ? 8 : 0) | (tmpExpression.isRedundant() ? 16 : 0));
+
+            if (tmpExpression.isConstraint() && !tmpQuadratic) {
+                final int tmpCount = tmpExpression.countLinearFactors();
+                this.append(tmpCount);
+                for (int t = 0; t < tmpCount; t++) {
+                    this.append(tmpExpression.getLinearTermIndex(t));
+                }
+            }
+        }
+
+        final Expression tmpObjective = myModel.getObjectiveExpression();
+        this.append((tmpObjective.isAnyLinearFactorNonZero() ? 1 : 0) | (tmpObjective.isAnyQuadraticFactorNonZero() ? 2 : 0));
+
+        return Arrays.copyOf(myWork, myWorkSize);
+    }
+
+    private Optimisation.Result solve() {
+
+        myModel.categorise();
+
+        if (myModel.isFixed() || myModel.isAnyVariableInteger()) {
+
+            this.invalidate();
+            myRebuilds++;
+
+            return myModel.isMaximisation() ? myModel.maximise() : myModel.minimise();
+        }
+
+        final Integration<?> tmpIntegration = myModel.getIntegration();
+        Optimisation.Solver tmpSolver;
+
+        if (tmpIntegration instanceof ExpressionsBasedConvexIntegration) {
+
+            final int[] tmpStructure = this.describeStructure();
+
+            if ((myConvexSolver != null) && Arrays.equals(tmpStructure, myStructure) && ConvexSolver.update(myModel, myConvexBuilder)) {
+
+                myConvexSolver.reset();
+
+            } else {
+
+                myConvexBuilder = ConvexSolver.getBuilder();
+                ConvexSolver.copy(myModel, myConvexBuilder);
+                myConvexSolver = myConvexBuilder.build(myModel.options);
+
+                myStructure = tmpStructure;
+                myRebuilds++;
+            }
+
+            tmpSolver = myConvexSolver;
+
+        } else {
+
+            this.invalidate();
+
+            tmpSolver = tmpIntegration.build(myModel);
+            myRebuilds++;
+        }
+
+        Optimisation.Result retVal = tmpIntegration.toSolverState(myModel.getVariableValues(), myModel);
+        retVal = tmpSolver.solve(retVal);
+        retVal = tmpIntegration.toModelState(retVal, myModel);
+
+        return myModel.handleResult(retVal);
+    }
+
+}
@@ -22,12 +22,11 @@
 package org.ojalgo.optimisation;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.ojalgo.ProgrammingError;
@@ -36,10 +35,6 @@ import org.ojalgo.access.Access2D;
 import org.ojalgo.access.AccessUtils;
 import org.ojalgo.constant.BigMath;
 import org.ojalgo.constant.PrimitiveMath;
-import org.ojalgo.function.BigFunction;
-import org.ojalgo.function.BinaryFunction;
-import org.ojalgo.function.PrimitiveFunction;
-import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.VoidFunction;
 import org.ojalgo.function.multiary.CompoundFunction;
 import org.ojalgo.function.multiary.ConstantFunction;
@@ -47,6 +42,7 @@ import org.ojalgo.function.multiary.LinearFunction;
 import org.ojalgo.function.multiary.MultiaryFunction;
 import org.ojalgo.function.multiary.QuadraticFunction;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.type.TypeUtils;
@@ -194,9 +190,9 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     private transient boolean myInfeasible = false;
-    private final HashMap<Index, BigDecimal> myLinear;
+    private final PrimitiveTerms myLinear;
     private final ExpressionsBasedModel myModel;
-    private final HashMap<RowColumn, BigDecimal> myQuadratic;
+    private final PrimitiveTerms myQuadratic;
     private transient boolean myRedundant = false;
     private final boolean myShallowCopy;
 
@@ -226,11 +222,8 @@ public final class Expression extends ModelEntity<Expression> {
 
             myShallowCopy = false;
 
-            myLinear = new HashMap<>();
-            myLinear.putAll(entityToCopy.getLinear());
-
-            myQuadratic = new HashMap<>();
-            myQuadratic.putAll(entityToCopy.getQuadratic());
+            myLinear = new PrimitiveTerms(entityToCopy.getLinear());
+            myQuadratic = new PrimitiveTerms(entityToCopy.getQuadratic());
 
         } else {
 
@@ -249,8 +242,8 @@ public final class Expression extends ModelEntity<Expression> {
 
         myShallowCopy = false;
 
-        myLinear = new HashMap<>();
-        myQuadratic = new HashMap<>();
+        myLinear = new PrimitiveTerms();
+        myQuadratic = new PrimitiveTerms();
 
         ProgrammingError.throwIfNull(myModel);
         ProgrammingError.throwIfNull(myLinear);
@@ -261,16 +254,15 @@ public final class Expression extends ModelEntity<Expression> {
 
         BigDecimal retVal = BigMath.ZERO;
 
-        BigDecimal tmpFactor;
+        long tmpKey;
 
-        for (final RowColumn tmpKey : this.getQuadraticFactorKeys()) {
-            tmpFactor = this.getQuadraticFactor(tmpKey);
-            retVal = retVal.add(point.get(tmpKey.row).multiply(tmpFactor).multiply(point.get(tmpKey.column)));
+        for (int t = 0; t < myQuadratic.size(); t++) {
+            tmpKey = myQuadratic.keyAt(t);
+            retVal = retVal.add(point.get(PrimitiveTerms.row(tmpKey)).multiply(myQuadratic.getAt(t)).multiply(point.get(PrimitiveTerms.column(tmpKey))));
         }
 
-        for (final Index tmpKey : this.getLinearFactorKeys()) {
-            tmpFactor = this.getLinearFactor(tmpKey);
-            retVal = retVal.add(point.get(tmpKey.index).multiply(tmpFactor));
+        for (int t = 0; t < myLinear.size(); t++) {
+            retVal = retVal.add(point.get(myLinear.keyAt(t)).multiply(myLinear.getAt(t)));
         }
 
         return retVal;
@@ -280,21 +272,21 @@ public final class Expression extends ModelEntity<Expression> {
 
         final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(myModel.countVariables(), 1);
 
-        final BinaryFunction<Double> tmpBaseFunc = PrimitiveFunction.ADD;
         double tmpAdjustedFactor;
-        UnaryFunction<Double> tmpModFunc;
-        for (final RowColumn tmpKey : this.getQuadraticFactorKeys()) {
-            tmpAdjustedFactor = this.getAdjustedQuadraticFactor(tmpKey);
-            tmpModFunc = tmpBaseFunc.second(tmpAdjustedFactor * point.doubleValue(tmpKey.column));
-            retVal.modifyOne(tmpKey.row, 0, tmpModFunc);
-            tmpModFunc = tmpBaseFunc.second(tmpAdjustedFactor * point.doubleValue(tmpKey.row));
-            retVal.modifyOne(tmpKey.column, 0, tmpModFunc);
+        int tmpRow;
+        int tmpColumn;
+        for (int t = 0; t < myQuadratic.size(); t++) {
+            tmpAdjustedFactor = this.adjust(myQuadratic.doubleValueAt(t));
+            tmpRow = PrimitiveTerms.row(myQuadratic.keyAt(t));
+            tmpColumn = PrimitiveTerms.column(myQuadratic.keyAt(t));
+            retVal.set(tmpRow, 0, retVal.doubleValue(tmpRow, 0) + (tmpAdjustedFactor * point.doubleValue(tmpColumn)));
+            retVal.set(tmpColumn, 0, retVal.doubleValue(tmpColumn, 0) + (tmpAdjustedFactor * point.doubleValue(tmpRow)));
         }
 
-        for (final Index tmpKey : this.getLinearFactorKeys()) {
-            tmpAdjustedFactor = this.getAdjustedLinearFactor(tmpKey);
-            tmpModFunc = tmpBaseFunc.second(tmpAdjustedFactor);
-            retVal.modifyOne(tmpKey.index, 0, tmpModFunc);
+        int tmpIndex;
+        for (int t = 0; t < myLinear.size(); t++) {
+            tmpIndex = (int) myLinear.keyAt(t);
+            retVal.set(tmpIndex, 0, retVal.doubleValue(tmpIndex, 0) + this.adjust(myLinear.doubleValueAt(t)));
         }
 
         return retVal;
@@ -305,19 +297,22 @@ public final class Expression extends ModelEntity<Expression> {
         final int tmpCountVariables = myModel.countVariables();
         final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(tmpCountVariables, tmpCountVariables);
 
-        final BinaryFunction<Double> tmpBaseFunc = PrimitiveFunction.ADD;
-        UnaryFunction<Double> tmpModFunc;
-        for (final RowColumn tmpKey : this.getQuadraticFactorKeys()) {
-            tmpModFunc = tmpBaseFunc.second(this.getAdjustedQuadraticFactor(tmpKey));
-            retVal.modifyOne(tmpKey.row, tmpKey.column, tmpModFunc);
-            retVal.modifyOne(tmpKey.column, tmpKey.row, tmpModFunc);
+        double tmpAdjustedFactor;
+        int tmpRow;
+        int tmpColumn;
+        for (int t = 0; t < myQuadratic.size(); t++) {
+            tmpAdjustedFactor = this.adjust(myQuadratic.doubleValueAt(t));
+            tmpRow = PrimitiveTerms.row(myQuadratic.keyAt(t));
+            tmpColumn = PrimitiveTerms.column(myQuadratic.keyAt(t));
+            retVal.set(tmpRow, tmpColumn, retVal.doubleValue(tmpRow, tmpColumn) + tmpAdjustedFactor);
+            retVal.set(tmpColumn, tmpRow, retVal.doubleValue(tmpColumn, tmpRow) + tmpAdjustedFactor);
         }
 
         return retVal;
     }
 
     public double getAdjustedLinearFactor(final Index key) {
-        return this.getLinearFactor(key, true).doubleValue();
+        return this.adjust(myLinear.doubleValue(key.index));
     }
 
     public double getAdjustedLinearFactor(final int aVar) {
@@ -333,7 +328,7 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     public double getAdjustedQuadraticFactor(final RowColumn key) {
-        return this.getQuadraticFactor(key, true).doubleValue();
+        return this.adjust(myQuadratic.doubleValue(PrimitiveTerms.key(key.row, key.column)));
     }
 
     public double getAdjustedQuadraticFactor(final Variable aVar1, final Variable aVar2) {
@@ -366,8 +361,61 @@ public final class Expression extends ModelEntity<Expression> {
         return this.getLinearFactor(aVar.getIndex());
     }
 
+    /**
+     * A view of the keys, in ascending order. When iterating over all the factors prefer
+     * {@link #countLinearFactors()} together with {@link #getLinearTermIndex(int)} and
+     * {@link #getAdjustedLinearTermFactor(int)} - no objects are created that way.
+     */
     public Set<Expression.Index> getLinearFactorKeys() {
-        return myLinear.keySet();
+
+        return new AbstractSet<Expression.Index>() {
+
+            @Override
+            public boolean contains(final Object obj) {
+                return (obj instanceof Index) && myLinear.contains(((Index) obj).index);
+            }
+
+            @Override
+            public Iterator<Index> iterator() {
+                return new Iterator<Index>() {
+
+                    private int myTerm = 0;
+
+                    public boolean hasNext() {
+                        return myTerm < myLinear.size();
+                    }
+
+                    public Index next() {
+                        if (myTerm >= myLinear.size()) {
+                            throw new NoSuchElementException();
+                        }
+                        return new Index((int) myLinear.keyAt(myTerm++));
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return myLinear.size();
+            }
+
+        };
+    }
+
+    /**
+     * @param term 0 &lt;= term &lt; {@link #countLinearFactors()}
+     * @return The variable index of that term (terms are in ascending variable index order)
+     */
+    public int getLinearTermIndex(final int term) {
+        return (int) myLinear.keyAt(term);
+    }
+
+    /**
+     * @see #getLinearTermIndex(int)
+     */
+    public double getAdjustedLinearTermFactor(final int term) {
+        return this.adjust(myLinear.doubleValueAt(term));
     }
 
     public BigDecimal getQuadraticFactor(final int aVar1, final int aVar2) {
@@ -382,8 +430,82 @@ public final class Expression extends ModelEntity<Expression> {
         return this.getQuadraticFactor(myModel.indexOf(aRowVar), myModel.indexOf(aColVar));
     }
 
+    /**
+     * A view of the keys, ordered by row and then column. When iterating over all the factors prefer
+     * {@link #countQuadraticFactors()} together with {@link #getQuadraticTermRow(int)},
+     * {@link #getQuadraticTermColumn(int)} and {@link #getAdjustedQuadraticTermFactor(int)}.
+     */
     public Set<Expression.RowColumn> getQuadraticFactorKeys() {
-        return myQuadratic.keySet();
+
+        return new AbstractSet<Expression.RowColumn>() {
+
+            @Override
+            public boolean contains(final Object obj) {
+                if (obj instanceof RowColumn) {
+                    final RowColumn tmpKey = (RowColumn) obj;
+                    return myQuadratic.contains(PrimitiveTerms.key(tmpKey.row, tmpKey.column));
+                } else {
+                    return false;
+                }
+            }
+
+            @Override
+            public Iterator<RowColumn> iterator() {
+                return new Iterator<RowColumn>() {
+
+                    private int myTerm = 0;
+
+                    public boolean hasNext() {
+                        return myTerm < myQuadratic.size();
+                    }
+
+                    public RowColumn next() {
+                        if (myTerm >= myQuadratic.size()) {
+                            throw new NoSuchElementException();
+                        }
+                        final long tmpKey = myQuadratic.keyAt(myTerm++);
+                        return new RowColumn(PrimitiveTerms.row(tmpKey), PrimitiveTerms.column(tmpKey));
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return myQuadratic.size();
+            }
+
+        };
+    }
+
+    /**
+     * @param term 0 &lt;= term &lt; {@link #countQuadraticFactors()}
+     * @return The row (variable) index of that term
+     */
+    public int getQuadraticTermRow(final int term) {
+        return PrimitiveTerms.row(myQuadratic.keyAt(term));
+    }
+
+    /**
+     * @see #getQuadraticTermRow(int)
+     */
+    public int getQuadraticTermColumn(final int term) {
+        return PrimitiveTerms.column(myQuadratic.keyAt(term));
+    }
+
+    /**
+     * @see #getQuadraticTermRow(int)
+     */
+    public double getAdjustedQuadraticTermFactor(final int term) {
+        return this.adjust(myQuadratic.doubleValueAt(term));
+    }
+
+    public int countLinearFactors() {
+        return myLinear.size();
+    }
+
+    public int countQuadraticFactors() {
+        return myQuadratic.size();
     }
 
     public boolean isAnyLinearFactorNonZero() {
@@ -444,13 +566,7 @@ public final class Expression extends ModelEntity<Expression> {
 
         if (key != null) {
 
-            final BigDecimal tmpValue = TypeUtils.toBigDecimal(value);
-
-            if (tmpValue.signum() != 0) {
-                myLinear.put(key, tmpValue);
-            } else {
-                myLinear.remove(key);
-            }
+            this.setLinearFactor(key.index, value);
 
         } else {
 
@@ -459,7 +575,7 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     public void setLinearFactor(final int aVar, final Number value) {
-        this.setLinearFactor(new Index(aVar), value);
+        this.set(myLinear, aVar, value);
     }
 
     public void setLinearFactor(final Variable aVar, final Number value) {
@@ -491,20 +607,14 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     public void setQuadraticFactor(final int aVar1, final int aVar2, final Number value) {
-        this.setQuadraticFactor(new RowColumn(aVar1, aVar2), value);
+        this.set(myQuadratic, PrimitiveTerms.key(aVar1, aVar2), value);
     }
 
     public void setQuadraticFactor(final RowColumn key, final Number value) {
 
         if (key != null) {
 
-            final BigDecimal tmpValue = TypeUtils.toBigDecimal(value);
-
-            if (tmpValue.signum() != 0) {
-                myQuadratic.put(key, tmpValue);
-            } else {
-                myQuadratic.remove(key);
-            }
+            this.setQuadraticFactor(key.row, key.column, value);
 
         } else {
 
@@ -545,6 +655,19 @@ public final class Expression extends ModelEntity<Expression> {
         }
     }
 
+    private double adjust(final double value) {
+
+        final int tmpAdjExp = this.getAdjustmentExponent();
+
+        if (tmpAdjExp > 0) {
+            return value * Math.pow(10.0, tmpAdjExp);
+        } else if (tmpAdjExp < 0) {
+            return value / Math.pow(10.0, -tmpAdjExp);
+        } else {
+            return value;
+        }
+    }
+
     private final BigDecimal convert(final BigDecimal value, final boolean adjusted) {
 
         if (value != null) {
@@ -573,20 +696,47 @@ public final class Expression extends ModelEntity<Expression> {
         }
     }
 
+    private void fillLinear(final PhysicalStore<Double> linear) {
+        for (int t = 0; t < myLinear.size(); t++) {
+            linear.set((int) myLinear.keyAt(t), 0, myLinear.doubleValueAt(t));
+        }
+    }
+
+    private void fillQuadratic(final PhysicalStore<Double> quadratic) {
+        long tmpKey;
+        for (int t = 0; t < myQuadratic.size(); t++) {
+            tmpKey = myQuadratic.keyAt(t);
+            quadratic.set(PrimitiveTerms.row(tmpKey), PrimitiveTerms.column(tmpKey), myQuadratic.doubleValueAt(t));
+        }
+    }
+
+    private void set(final PrimitiveTerms terms, final long key, final Number value) {
+
+        if (value == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (myModel.isExact()) {
+            final BigDecimal tmpValue = TypeUtils.toBigDecimal(value);
+            terms.set(key, tmpValue.signum() != 0 ? tmpValue.doubleValue() : 0.0, tmpValue);
+        } else {
+            terms.set(key, value.doubleValue(), null);
+        }
+    }
+
     private double evaluateBody(final Access1D<?> point) {
 
         double retVal = PrimitiveMath.ZERO;
 
-        double tmpAdjustedFactor;
+        long tmpKey;
 
-        for (final RowColumn tmpKey : this.getQuadraticFactorKeys()) {
-            tmpAdjustedFactor = this.getAdjustedQuadraticFactor(tmpKey);
-            retVal += point.doubleValue(tmpKey.row) * tmpAdjustedFactor * point.doubleValue(tmpKey.column);
+        for (int t = 0; t < myQuadratic.size(); t++) {
+            tmpKey = myQuadratic.keyAt(t);
+            retVal += point.doubleValue(PrimitiveTerms.row(tmpKey)) * this.adjust(myQuadratic.doubleValueAt(t)) * point.doubleValue(PrimitiveTerms.column(tmpKey));
         }
 
-        for (final Index tmpKey : this.getLinearFactorKeys()) {
-            tmpAdjustedFactor = this.getAdjustedLinearFactor(tmpKey);
-            retVal += point.doubleValue(tmpKey.index) * tmpAdjustedFactor;
+        for (int t = 0; t < myLinear.size(); t++) {
+            retVal += point.doubleValue(myLinear.keyAt(t)) * this.adjust(myLinear.doubleValueAt(t));
         }
 
         return retVal;
@@ -628,14 +778,14 @@ public final class Expression extends ModelEntity<Expression> {
 
         super.visitAllParameters(largest, smallest);
 
-        for (final BigDecimal tmpLinearFactor : myLinear.values()) {
-            largest.invoke(tmpLinearFactor);
-            smallest.invoke(tmpLinearFactor);
+        for (int t = 0; t < myLinear.size(); t++) {
+            largest.invoke(myLinear.doubleValueAt(t));
+            smallest.invoke(myLinear.doubleValueAt(t));
         }
 
-        for (final BigDecimal tmpQuadraticFactor : myQuadratic.values()) {
-            largest.invoke(tmpQuadraticFactor);
-            smallest.invoke(tmpQuadraticFactor);
+        for (int t = 0; t < myQuadratic.size(); t++) {
+            largest.invoke(myQuadratic.doubleValueAt(t));
+            smallest.invoke(myQuadratic.doubleValueAt(t));
         }
     }
 
@@ -654,9 +804,26 @@ public final class Expression extends ModelEntity<Expression> {
 
         BigDecimal retVal = null;
 
+        if (fixedVariables.size() > myLinear.size()) {
+            // Fewer terms than fixed variables - look the terms up among the fixed variables instead
+
+            for (int t = 0; t < myLinear.size(); t++) {
+                final Index tmpIndex = new Index((int) myLinear.keyAt(t));
+                if (fixedVariables.contains(tmpIndex)) {
+                    final BigDecimal tmpValue = myModel.getVariable(tmpIndex.index).getValue();
+                    if (tmpValue.signum() != 0) {
+                        final BigDecimal tmpContribution = myLinear.getAt(t).multiply(tmpValue);
+                        retVal = retVal != null ? retVal.add(tmpContribution) : tmpContribution;
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
         for (final Index tmpIndex : fixedVariables) {
 
-            final BigDecimal tmpFactor = this.getLinearFactor(tmpIndex);
+            final BigDecimal tmpFactor = myLinear.get(tmpIndex.index);
             final BigDecimal tmpValue = myModel.getVariable(tmpIndex.index).getValue();
 
             BigDecimal tmpContribution = null;
@@ -710,50 +877,30 @@ public final class Expression extends ModelEntity<Expression> {
         return new Expression(this, aModel, deep);
     }
 
-    int countLinearFactors() {
-        return myLinear.size();
-    }
-
-    int countQuadraticFactors() {
-        return myQuadratic.size();
-    }
-
     CompoundFunction<Double> getCompoundFunction() {
 
         final CompoundFunction<Double> retVal = CompoundFunction.makePrimitive(myModel.countVariables());
 
-        if (this.isAnyQuadraticFactorNonZero()) {
-            for (final Entry<RowColumn, BigDecimal> tmpEntry : myQuadratic.entrySet()) {
-                retVal.quadratic().set(tmpEntry.getKey().row, tmpEntry.getKey().column, tmpEntry.getValue().doubleValue());
-            }
-        }
+        this.fillQuadratic(retVal.quadratic());
 
-        if (this.isAnyLinearFactorNonZero()) {
-            for (final Entry<Index, BigDecimal> tmpEntry : myLinear.entrySet()) {
-                retVal.linear().set(tmpEntry.getKey().index, tmpEntry.getValue().doubleValue());
-            }
-        }
+        this.fillLinear(retVal.linear());
 
         return retVal;
     }
 
-    HashMap<Index, BigDecimal> getLinear() {
+    PrimitiveTerms getLinear() {
         return myLinear;
     }
 
     BigDecimal getLinearFactor(final Index key, final boolean adjusted) {
-        return this.convert(myLinear.get(key), adjusted);
+        return this.convert(myLinear.get(key.index), adjusted);
     }
 
     LinearFunction<Double> getLinearFunction() {
 
         final LinearFunction<Double> retVal = LinearFunction.makePrimitive(myModel.countVariables());
 
-        if (this.isAnyLinearFactorNonZero()) {
-            for (final Entry<Index, BigDecimal> tmpEntry : myLinear.entrySet()) {
-                retVal.linear().set(tmpEntry.getKey().index, tmpEntry.getValue().doubleValue());
-            }
-        }
+        this.fillLinear(retVal.linear());
 
         return retVal;
     }
@@ -762,23 +909,19 @@ public final class Expression extends ModelEntity<Expression> {
         return myModel;
     }
 
-    HashMap<RowColumn, BigDecimal> getQuadratic() {
+    PrimitiveTerms getQuadratic() {
         return myQuadratic;
     }
 
     BigDecimal getQuadraticFactor(final RowColumn key, final boolean adjusted) {
-        return this.convert(myQuadratic.get(key), adjusted);
+        return this.convert(myQuadratic.get(PrimitiveTerms.key(key.row, key.column)), adjusted);
     }
 
     QuadraticFunction<Double> getQuadraticFunction() {
 
         final QuadraticFunction<Double> retVal = QuadraticFunction.makePrimitive(myModel.countVariables());
 
-        if (this.isAnyQuadraticFactorNonZero()) {
-            for (final Entry<RowColumn, BigDecimal> tmpEntry : myQuadratic.entrySet()) {
-                retVal.quadratic().set(tmpEntry.getKey().row, tmpEntry.getKey().column, tmpEntry.getValue().doubleValue());
-            }
-        }
+        this.fillQuadratic(retVal.quadratic());
 
         return retVal;
     }
@@ -796,144 +939,19 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     /**
-     * @return true if this expression was changed from not redundant to redundant
+     * Bypasses the {@linkplain Number} conversions. The exact value is only used (and may only be non-null)
+     * in exact mode.
      */
-    boolean simplify() {
-
-        myRedundant = myRedundant || !this.isConstraint();
-        final boolean tmpInitiallyRedundant = myRedundant;
-
-        final Set<Index> tmpFixedVariables = myModel.getFixedVariables();
-        if (!tmpInitiallyRedundant && (this.countQuadraticFactors() == 0) && (this.countLinearFactors() <= (tmpFixedVariables.size() + 1))) {
-            // This constraint can possibly be reduced to 0 or 1 remaining linear factors
-
-            BigDecimal tmpFixedValue = this.calculateFixedValue(tmpFixedVariables);
-            if (tmpFixedValue == null) {
-                tmpFixedValue = BigMath.ZERO;
-            }
-
-            if (tmpFixedValue != null) {
-                // The fixed variables are part of this expression
-
-                final HashSet<Index> tmpLinear = new HashSet<Index>(this.getLinearFactorKeys());
-                tmpLinear.removeAll(tmpFixedVariables);
-
-                if (tmpLinear.size() == 0) {
-                    // This constraint has 0 remaining free variable
-                    // It is entirely redundant
-
-                    myInfeasible = !this.validate(tmpFixedValue, myModel.options.slack, myModel.appender());
-                    if (!myInfeasible) {
-                        myRedundant = true;
-                        this.level(tmpFixedValue);
-                    } else {
-                        myRedundant = false;
-                    }
-
-                } else if (tmpLinear.size() == 1) {
-                    // This constraint has 1 remaining free variable
-                    // The lower/upper limits can be transferred to that variable, and the expression marked as redundant
-
-                    final Index tmpIndex = (Index) tmpLinear.toArray()[0];
-                    final Variable tmpVariable = myModel.getVariable(tmpIndex.index);
-                    final BigDecimal tmpFactor = this.getLinearFactor(tmpIndex);
-
-                    if (this.isEqualityConstraint()) {
-                        // Simple case with equality constraint
-
-                        final BigDecimal tmpCompensatedLevel = BigFunction.SUBTRACT.invoke(this.getUpperLimit(), tmpFixedValue);
-                        final BigDecimal tmpSolutionValue = BigFunction.DIVIDE.invoke(tmpCompensatedLevel, tmpFactor);
-
-                        myInfeasible = !tmpVariable.validate(tmpSolutionValue, myModel.options.slack, myModel.appender());
-                        if (!myInfeasible) {
-                            myRedundant = true;
-                            tmpVariable.level(tmpSolutionValue);
-                        } else {
-                            myRedundant = false;
-                        }
-
-                    } else {
-                        // More general case
-
-                        final BigDecimal tmpLowerLimit = this.getLowerLimit();
-                        final BigDecimal tmpUpperLimit = this.getUpperLimit();
-
-                        final BigDecimal tmpCompensatedLower = tmpLowerLimit != null ? BigFunction.SUBTRACT.invoke(tmpLowerLimit, tmpFixedValue)
-                                : tmpLowerLimit;
-                        final BigDecimal tmpCompensatedUpper = tmpUpperLimit != null ? BigFunction.SUBTRACT.invoke(tmpUpperLimit, tmpFixedValue)
-                                : tmpUpperLimit;
-
-                        BigDecimal tmpLowerSolution = tmpCompensatedLower != null ? BigFunction.DIVIDE.invoke(tmpCompensatedLower, tmpFactor)
-                                : tmpCompensatedLower;
-                        BigDecimal tmpUpperSolution = tmpCompensatedUpper != null ? BigFunction.DIVIDE.invoke(tmpCompensatedUpper, tmpFactor)
-                                : tmpCompensatedUpper;
-                        if (tmpFactor.signum() < 0) {
-                            final BigDecimal tmpVal = tmpLowerSolution;
-                            tmpLowerSolution = tmpUpperSolution;
-                            tmpUpperSolution = tmpVal;
-                        }
-
-                        final BigDecimal tmpOldLower = tmpVariable.getLowerLimit();
-                        final BigDecimal tmpOldUpper = tmpVariable.getUpperLimit();
-
-                        BigDecimal tmpNewLower = tmpOldLower;
-                        if (tmpLowerSolution != null) {
-                            if (tmpOldLower != null) {
-                                tmpNewLower = tmpOldLower.max(tmpLowerSolution);
-                            } else {
-                                tmpNewLower = tmpLowerSolution;
-                            }
-                        }
-
-                        BigDecimal tmpNewUpper = tmpOldUpper;
-                        if (tmpUpperSolution != null) {
-                            if (tmpOldUpper != null) {
-                                tmpNewUpper = tmpOldUpper.min(tmpUpperSolution);
-                            } else {
-                                tmpNewUpper = tmpUpperSolution;
-                            }
-                        }
-
-                        if (tmpVariable.isInteger()) {
-                            if (tmpNewLower != null) {
-                                tmpNewLower = tmpNewLower.setScale(0, RoundingMode.CEILING);
-                            }
-                            if (tmpNewUpper != null) {
-                                tmpNewUpper = tmpNewUpper.setScale(0, RoundingMode.FLOOR);
-                            }
-                        }
-
-                        myInfeasible = (tmpNewLower != null) && (tmpNewUpper != null) && (tmpNewLower.compareTo(tmpNewUpper) > 0);
-                        if (!myInfeasible) {
-                            myRedundant = true;
-                            tmpVariable.lower(tmpNewLower).upper(tmpNewUpper);
-                        } else {
-                            myRedundant = false;
-                        }
-
-                        //                        BasicLogger.logDebug("{} < {} -> {} < {} ( {} < {} )", tmpOldLower, tmpOldUpper, tmpNewLower, tmpNewUpper, tmpLowerSolution,
-                        //                                tmpUpperSolution);
-                    }
-
-                    if (tmpVariable.isEqualityConstraint()) {
-                        tmpVariable.setValue(tmpVariable.getLowerLimit());
-                        myModel.addFixedVariable(tmpIndex);
-                    }
-                }
-
-                return !tmpInitiallyRedundant && myRedundant;
-
-            } else {
-
-                // Didn't change anything: No fixed value
-                return false;
-            }
+    void setLinearTerm(final int index, final double value, final BigDecimal exact) {
+        myLinear.set(index, value, exact);
+    }
 
-        } else {
+    void setInfeasible(final boolean infeasible) {
+        myInfeasible = infeasible;
+    }
 
-            // Didn't change anything: Already redundant, quadratic or not enough fixed variables
-            return false;
-        }
+    void setRedundant(final boolean redundant) {
+        myRedundant = redundant;
     }
 
 }
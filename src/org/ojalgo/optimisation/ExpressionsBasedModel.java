@@ -127,16 +127,6 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return mps.getExpressionsBasedModel();
     }
 
-    static final void presolve(final ExpressionsBasedModel model) {
-
-        for (final Expression tmpExpression : model.getExpressions()) {
-            if (tmpExpression.simplify()) {
-                ExpressionsBasedModel.presolve(model);
-                break;
-            }
-        }
-    }
-
     private transient BasicLogger.Appender myAppender = null;
     private final CharacterRing myBuffer = new CharacterRing();
     private final HashMap<String, Expression> myExpressions = new HashMap<String, Expression>();
@@ -151,7 +141,9 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
     private transient MultiaryFunction.TwiceDifferentiable<Double> myObjectiveFunction = null;
     private transient int[] myPositiveIndices = null;
     private transient List<Variable> myPositiveVariables = null;
+    private transient Presolver myPresolver = null;
     private final ArrayList<Variable> myVariables = new ArrayList<Variable>();
+    private boolean myExact = false;
     private final boolean myWorkCopy;
 
     public ExpressionsBasedModel() {
@@ -197,6 +189,8 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
             myExpressions.put(tmpExpression.getName(), tmpExpression.copy(this, !workCopy));
         }
 
+        myExact = modelToCopy.isExact();
+
         if (myWorkCopy = workCopy) {
 
             myObjectiveExpression = modelToCopy.getObjectiveExpression();
@@ -237,6 +231,15 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         }
     }
 
+    /**
+     * Creates a handle for repeatedly solving this model when only parameters (limits, weights and factors) change
+     * between the solves. Change the parameters directly on the variables and expressions of this model, and then
+     * call {@linkplain CompiledModel#maximise()} or {@linkplain CompiledModel#minimise()}.
+     */
+    public CompiledModel compile() {
+        return new CompiledModel(this);
+    }
+
     public ExpressionsBasedModel copy() {
         return new ExpressionsBasedModel(this, false);
     }
@@ -523,6 +526,14 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return retVal;
     }
 
+    /**
+     * @return true if expression factors are also kept as {@linkplain BigDecimal}
+     * @see #setExact(boolean)
+     */
+    public boolean isExact() {
+        return myExact;
+    }
+
     public boolean isWorkCopy() {
         return myWorkCopy;
     }
@@ -747,6 +758,15 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return Collections.unmodifiableList(retVal);
     }
 
+    /**
+     * Expression factors are stored as primitive doubles. In exact mode they are also kept as the
+     * {@linkplain BigDecimal} instances that were set, and those are what the getters return. It only affects
+     * factors set after the mode is changed, and the solvers always work with doubles.
+     */
+    public void setExact(final boolean exact) {
+        myExact = exact;
+    }
+
     /**
      * The general recommendation is to NOT call this method directly. Instead you should use/call {@link #maximise()}
      * or {@link #minimise()}. If you do use this method you must first set {@link #setMinimisation()} or
@@ -765,7 +785,9 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
 
             retVal = new Optimisation.Result(State.INFEASIBLE, tmpSolution);
 
-        } else if (this.isFixed()) {
+        } else if (this.isFixed() && !this.getPresolver().isAnyColumnDominated()) {
+            // If any variable was fixed using the objective (dominated column) the solver is still invoked, and
+            // reports the state
 
             final Optimisation.Result tmpSolution = this.getVariableValues();
 
@@ -787,6 +809,7 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
             retVal = tmpIntegration.toSolverState(initialSolution, this);
             retVal = tmpSolver.solve(retVal);
             retVal = tmpIntegration.toModelState(retVal, this);
+            retVal = this.getPresolver().postsolve(retVal);
         }
 
         return retVal;
@@ -881,7 +904,7 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
                 tmpVariable.setValue(tmpVariable.getLowerLimit());
                 myFixedVariables.add(tmpVariable.getIndex());
 
-            } else {
+            } else if (!myFixedVariables.contains(tmpVariable.getIndex())) {
 
                 myFreeVariables.add(tmpVariable);
                 myFreeIndices[i] = myFreeVariables.size() - 1;
@@ -909,29 +932,6 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         myIntegerVariables = Collections.unmodifiableList(myIntegerVariables);
     }
 
-    private Optimisation.Result handleResult(final Result solverResult) {
-
-        final NumberContext tmpSolutionContext = options.solution;
-
-        final int tmpSize = myVariables.size();
-        for (int i = 0; i < tmpSize; i++) {
-            final Variable tmpVariable = myVariables.get(i);
-            if (!myFixedVariables.contains(tmpVariable.getIndex())) {
-                tmpVariable.setValue(tmpSolutionContext.enforce(solverResult.get(i)));
-            }
-        }
-
-        final Access1D<BigDecimal> tmpSolution = this.getVariableValues();
-        final Optimisation.State tmpState = solverResult.getState();
-        final double tmpValue = this.getObjectiveExpression().evaluate(tmpSolution).doubleValue();
-
-        if (options.validate) {
-            // TODO && this.validate(tmpSolution, options.slack)
-        }
-
-        return new Optimisation.Result(tmpState, tmpValue, tmpSolution);
-    }
-
     protected void flushCaches() {
 
         if (!myWorkCopy) {
@@ -973,11 +973,44 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         }
     }
 
+    Presolver getPresolver() {
+        if (myPresolver == null) {
+            myPresolver = new Presolver(this);
+        }
+        return myPresolver;
+    }
+
+    Optimisation.Result handleResult(final Result solverResult) {
+
+        final NumberContext tmpSolutionContext = options.solution;
+
+        final int tmpSize = myVariables.size();
+        for (int i = 0; i < tmpSize; i++) {
+            final Variable tmpVariable = myVariables.get(i);
+            if (!myFixedVariables.contains(tmpVariable.getIndex())) {
+                tmpVariable.setValue(tmpSolutionContext.enforce(solverResult.get(i)));
+            }
+        }
+
+        final Access1D<BigDecimal> tmpSolution = this.getVariableValues();
+        final Optimisation.State tmpState = solverResult.getState();
+        final double tmpValue = this.getObjectiveExpression().evaluate(tmpSolution).doubleValue();
+
+        if (options.validate) {
+            // TODO && this.validate(tmpSolution, options.slack)
+        }
+
+        return new Optimisation.Result(tmpState, tmpValue, tmpSolution);
+    }
+
     boolean isFixed() {
         return myFixedVariables.size() == myVariables.size();
     }
 
     boolean isInfeasible() {
+        if ((myPresolver != null) && myPresolver.isInfeasible()) {
+            return true;
+        }
         for (final Expression tmpExpression : myExpressions.values()) {
             if (tmpExpression.isInfeasible()) {
                 return true;
@@ -986,11 +1019,34 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return false;
     }
 
+    /**
+     * Undo whatever the previous presolve did, and categorise the variables without presolving again. Presolve
+     * reductions depend on the parameter values, so a {@linkplain CompiledModel} can't use them.
+     */
+    final void categorise() {
+
+        if (myPresolver != null) {
+            myPresolver.undo();
+        }
+        myFixedVariables.clear();
+
+        this.flushCaches();
+        this.categoriseVariables();
+    }
+
+    /**
+     * Undo whatever the previous presolve did, and then presolve again (the model may have changed since).
+     */
     final void presolve() {
 
+        final Presolver tmpPresolver = this.getPresolver();
+
+        tmpPresolver.undo();
+        myFixedVariables.clear();
+
         this.categoriseVariables();
 
-        ExpressionsBasedModel.presolve(this);
+        tmpPresolver.presolve();
     }
 
 }
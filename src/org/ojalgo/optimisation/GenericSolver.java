@@ -23,6 +23,7 @@ package org.ojalgo.optimisation;
 
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
@@ -33,9 +34,12 @@ public abstract class GenericSolver implements Optimisation.Solver, Serializable
 
     public final Optimisation.Options options;
 
+    private final AtomicInteger myFactorisationsCount = new AtomicInteger(0);
     private final AtomicInteger myIterationsCount = new AtomicInteger(0);
-    private long myResetTime;
+    private final AtomicLongArray myPhaseTimes = new AtomicLongArray(Optimisation.Progress.Phase.values().length);
+    private long myResetTime = System.currentTimeMillis();
     private State myState = State.UNEXPLORED;
+    private volatile boolean myTerminationRequested = false;
 
     @SuppressWarnings("unused")
     private GenericSolver() {
@@ -56,6 +60,15 @@ public abstract class GenericSolver implements Optimisation.Solver, Serializable
 
     }
 
+    /**
+     * Adds the time, since start, to the phase's total.
+     *
+     * @param startNanos As returned by {@linkplain System#nanoTime()} when the phase started
+     */
+    protected final void addPhaseTime(final Optimisation.Progress.Phase phase, final long startNanos) {
+        myPhaseTimes.addAndGet(phase.ordinal(), System.nanoTime() - startNanos);
+    }
+
     protected Optimisation.Result buildResult() {
 
         final MatrixStore<Double> tmpSolution = this.extractSolution();
@@ -108,6 +121,10 @@ public abstract class GenericSolver implements Optimisation.Solver, Serializable
         return myIterationsCount.incrementAndGet();
     }
 
+    protected final int incrementFactorisationsCount() {
+        return myFactorisationsCount.incrementAndGet();
+    }
+
     protected abstract boolean initialise(Result kickStart);
 
     protected final boolean isDebug() {
@@ -131,13 +148,61 @@ public abstract class GenericSolver implements Optimisation.Solver, Serializable
         //            this.logDebug("Time OK? {} {} < {}", tmpTimeOk, tmpTime, options.time_abort);
         //        }
 
-        return tmpTimeOk && tmpIterationOk;
+        return tmpTimeOk && tmpIterationOk && !myTerminationRequested;
+    }
+
+    /**
+     * @return true if an {@linkplain Optimisation.Listener} has requested that this solver terminates
+     */
+    protected final boolean isTerminationRequested() {
+        return myTerminationRequested;
+    }
+
+    /**
+     * Subclasses that have more to report (nodes, bound, incumbent...) should override this and call
+     * {@link #makeProgress(Optimisation.Progress.Event, long, long, double, double)}.
+     */
+    protected Optimisation.Progress makeProgress(final Optimisation.Progress.Event event) {
+        return this.makeProgress(event, -1L, -1L, Double.NaN, Double.NaN);
+    }
+
+    protected final Optimisation.Progress makeProgress(final Optimisation.Progress.Event event, final long nodesExplored, final long nodesOpen,
+            final double bound, final double incumbent) {
+
+        final long[] tmpPhaseTimes = new long[myPhaseTimes.length()];
+        for (int p = 0; p < tmpPhaseTimes.length; p++) {
+            tmpPhaseTimes[p] = myPhaseTimes.get(p);
+        }
+
+        return new Optimisation.Progress(event, this.getClass(), myIterationsCount.get(), this.countTime(), myFactorisationsCount.get(), tmpPhaseTimes,
+                nodesExplored, nodesOpen, bound, incumbent);
     }
 
     protected abstract boolean needsAnotherIteration();
 
+    /**
+     * Reports progress to the {@linkplain Optimisation.Options#progress_listener}, if there is one. Should the listener
+     * request termination {@link #isIterationAllowed()} will return false from then on.
+     */
+    protected final void progress(final Optimisation.Progress.Event event) {
+
+        final Optimisation.Listener tmpListener = options.progress_listener;
+
+        if ((tmpListener != null) && !tmpListener.progress(this.makeProgress(event))) {
+            myTerminationRequested = true;
+        }
+    }
+
+    /**
+     * Resets the iterations count, the clock, the factorisations count, the phase times and any termination request.
+     */
     protected final void resetIterationsCount() {
         myIterationsCount.set(0);
+        myFactorisationsCount.set(0);
+        for (int p = 0; p < myPhaseTimes.length(); p++) {
+            myPhaseTimes.set(p, 0L);
+        }
+        myTerminationRequested = false;
         myResetTime = System.currentTimeMillis();
     }
 
@@ -23,13 +23,15 @@ package org.ojalgo.optimisation;
 
 import static org.ojalgo.constant.BigMath.*;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.zip.GZIPInputStream;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.type.context.NumberContext;
@@ -187,8 +189,11 @@ public final class MathProgSysModel extends AbstractModel<GenericSolver> {
             return this;
         }
 
-        public void setRowValue(final String rowName, final BigDecimal value) {
-            myRows.get(rowName).getExpression().setLinearFactor(myVariable, value);
+        /**
+         * @param exact Only used (non-null) in exact mode
+         */
+        void setRowValue(final Row row, final double value, final BigDecimal exact) {
+            row.getExpression().setLinearTerm(myVariable.getIndex().index, value, exact);
         }
 
         /**
@@ -322,10 +327,6 @@ public final class MathProgSysModel extends AbstractModel<GenericSolver> {
             return this;
         }
 
-        public void setColumnValue(final String columnName, final BigDecimal value) {
-            myExpression.setLinearFactor(myColumns.get(columnName).getVariable(), value);
-        }
-
         /**
          * @return the expression
          */
@@ -370,65 +371,72 @@ public final class MathProgSysModel extends AbstractModel<GenericSolver> {
 
     }
 
-    private static final String COMMENT = "*";
-    private static final String EMPTY = "";
-    private static final int[] FIELD_LIMITS = new int[] { 3, 12, 22, 36, 47, 61 };
-    private static final String SPACE = " ";
-
+    /**
+     * Same as {@link #parse(File)} but any problem reading or parsing the file is rethrown as an
+     * {@linkplain UncheckedIOException}.
+     */
     public static MathProgSysModel make(final File file) {
+        try {
+            return MathProgSysModel.parse(file);
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+    }
 
-        final MathProgSysModel retVal = new MathProgSysModel();
-
-        String tmpLine;
-        FileSection tmpSection = null;
+    /**
+     * @deprecated v38 Use {@link #make(File)} instead
+     */
+    @Deprecated
+    public static MathProgSysModel makeFromFile(final File file) {
+        return MathProgSysModel.make(file);
+    }
 
-        try {
+    /**
+     * Reads fixed or free format MPS. Gzip compressed files are recognised (by their magic number) and
+     * decompressed on the fly.
+     *
+     * @throws IOException If the file can't be read, or if there is something in it that can't be parsed. The
+     *         message then includes the line number.
+     */
+    public static MathProgSysModel parse(final File file) throws IOException {
 
-            final BufferedReader tmpBufferedFileReader = new BufferedReader(new FileReader(file));
+        InputStream tmpInput = new BufferedInputStream(new FileInputStream(file), MathProgSysParser.BUFFER_SIZE);
 
-            //readLine is a bit quirky :
-            //it returns the content of a line MINUS the newline.
-            //it returns null only for the END of the stream.
-            //it returns an empty String if two newlines appear in a row.
-            while ((tmpLine = tmpBufferedFileReader.readLine()) != null) {
+        try {
 
-                //        BasicLogger.logDebug("Line: {}.", tmpLine);
+            tmpInput.mark(2);
+            final int tmpMagic = tmpInput.read() | (tmpInput.read() << 8);
+            tmpInput.reset();
 
-                if ((tmpLine.length() == 0) || tmpLine.startsWith(COMMENT)) {
-                    // Skip this line
-                } else if (tmpLine.startsWith(SPACE)) {
-                    retVal.parseSectionLine(tmpSection, tmpLine);
-                } else {
-                    tmpSection = retVal.identifySection(tmpLine);
-                }
+            if (tmpMagic == GZIPInputStream.GZIP_MAGIC) {
+                tmpInput = new GZIPInputStream(tmpInput, MathProgSysParser.BUFFER_SIZE);
             }
 
-            tmpBufferedFileReader.close();
+            return MathProgSysModel.parse(tmpInput);
 
-        } catch (final FileNotFoundException anException) {
-            anException.printStackTrace();
-        } catch (final IOException anException) {
-            anException.printStackTrace();
+        } finally {
+            tmpInput.close();
         }
-
-        return retVal;
     }
 
     /**
-     * @deprecated v38 Use {@link #make(File)} instead
+     * Reads fixed or free format MPS from the stream (that is not closed).
+     *
+     * @see #parse(File)
      */
-    @Deprecated
-    public static MathProgSysModel makeFromFile(final File file) {
-        return MathProgSysModel.make(file);
+    public static MathProgSysModel parse(final InputStream input) throws IOException {
+
+        final MathProgSysModel retVal = new MathProgSysModel();
+
+        new MathProgSysParser(retVal).parse(input);
+
+        return retVal;
     }
 
-    private final HashMap<String, Column> myColumns = new HashMap<String, Column>();
+    private final ArrayList<Column> myColumns = new ArrayList<Column>();
     private final ExpressionsBasedModel myDelegate;
-    private final String[] myFields = new String[6];
-    private boolean myIntegerMarker = false;
     private String myName;
-
-    private final HashMap<String, Row> myRows = new HashMap<String, Row>();
+    private final ArrayList<Row> myRows = new ArrayList<Row>();
 
     MathProgSysModel() {
 
@@ -521,151 +529,28 @@ public final class MathProgSysModel extends AbstractModel<GenericSolver> {
         return myDelegate.validate(solution, context);
     }
 
-    private void extractFields(final String line) {
-
-        final int tmpLength = line.length();
-
-        int tmpFirst = 0;
-        int tmpLimit = tmpFirst;
-        for (int i = 0; i < myFields.length; i++) {
-            tmpLimit = Math.min(FIELD_LIMITS[i], tmpLength);
-            myFields[i] = line.substring(tmpFirst, tmpLimit).trim();
-            tmpFirst = tmpLimit;
-        }
+    Column addColumn(final String name) {
+        final Column retVal = new Column(name);
+        myColumns.add(retVal);
+        return retVal;
     }
 
-    FileSection identifySection(final String line) {
-
-        final int tmpSplit = line.indexOf(SPACE);
-        String tmpSection;
-        String tmpArgument;
-        if (tmpSplit != -1) {
-            tmpSection = line.substring(0, tmpSplit).trim();
-            tmpArgument = line.substring(tmpSplit).trim();
-        } else {
-            tmpSection = line.trim();
-            tmpArgument = EMPTY;
-        }
-
-        //      BasicLogger.logDebug("Section: {},\tArgument: {}.", tmpSection, tmpArgument);
-
-        final FileSection retVal = FileSection.valueOf(tmpSection);
-
-        switch (retVal) {
-
-        case NAME:
-
-            myName = tmpArgument;
-
-            break;
-
-        default:
-
-            break;
-        }
-
+    Row addRow(final String name, final RowType type) {
+        final Row retVal = new Row(name, type);
+        myRows.add(retVal);
         return retVal;
     }
 
-    void parseSectionLine(final FileSection section, final String line) {
-
-        this.extractFields(line);
-
-        //      BasicLogger.logDebug("{}: {}.", aSection, Arrays.toString(myFields));
-
-        switch (section) {
-
-        case NAME:
-
-            break;
-
-        case OBJSENSE:
-
-            if (myFields[0].equals("MAX")) {
-                this.setMaximisation();
-            } else {
-                this.setMinimisation();
-            }
-
-            break;
-
-        case OBJNAME:
-
-            break;
-
-        case ROWS:
-
-            final Row tmpRow = new Row(myFields[1], RowType.valueOf(myFields[0]));
-
-            myRows.put(myFields[1], tmpRow);
-
-            break;
-
-        case COLUMNS:
-
-            if (myFields[2].indexOf("MARKER") != -1) {
-
-                if (myFields[4].indexOf("INTORG") != -1) {
-                    myIntegerMarker = true;
-                } else if (myFields[4].indexOf("INTEND") != -1) {
-                    myIntegerMarker = false;
-                }
-
-            } else {
-
-                if (!myColumns.containsKey(myFields[1])) {
-                    myColumns.put(myFields[1], new Column(myFields[1]));
-                }
-
-                final Column tmpColumn = myColumns.get(myFields[1]);
-
-                tmpColumn.setRowValue(myFields[2], new BigDecimal(myFields[3]));
-                if (myFields[4].length() != 0) {
-                    tmpColumn.setRowValue(myFields[4], new BigDecimal(myFields[5]));
-                }
-
-                if (myIntegerMarker) {
-                    tmpColumn.integer(myIntegerMarker);
-                }
-
-            }
-
-            break;
-
-        case RHS:
-
-            myRows.get(myFields[2]).rhs(new BigDecimal(myFields[3]));
-
-            if (myFields[4].length() != 0) {
-                myRows.get(myFields[4]).rhs(new BigDecimal(myFields[5]));
-            }
-
-            break;
-
-        case RANGES:
-
-            myRows.get(myFields[2]).range(new BigDecimal(myFields[3]));
-
-            if (myFields[4].length() != 0) {
-                myRows.get(myFields[4]).range(new BigDecimal(myFields[5]));
-            }
-
-            break;
-
-        case BOUNDS:
-
-            myColumns.get(myFields[2]).bound(BoundType.valueOf(myFields[0]), myFields[3].length() == 0 ? null : new BigDecimal(myFields[3]));
-
-            break;
-
-        case ENDATA:
-
-            break;
+    Column getColumn(final int index) {
+        return myColumns.get(index);
+    }
 
-        default:
+    Row getRow(final int index) {
+        return myRows.get(index);
+    }
 
-            break;
-        }
+    void setName(final String name) {
+        myName = name;
     }
 
 }
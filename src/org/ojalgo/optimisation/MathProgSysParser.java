@@ -0,0 +1,710 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.ojalgo.optimisation.MathProgSysModel.BoundType;
+import org.ojalgo.optimisation.MathProgSysModel.Column;
+import org.ojalgo.optimisation.MathProgSysModel.FileSection;
+import org.ojalgo.optimisation.MathProgSysModel.Row;
+import org.ojalgo.optimisation.MathProgSysModel.RowType;
+
+/**
+ * Single pass MPS parser. Reads bytes in blocks, tokenises each line in place (no String per field), interns
+ * row and column names to int ids and writes the coefficients directly to the model's sparse expressions.
+ * Both free and fixed format are handled - a line is tokenised on whitespace first, and only if that gives an
+ * unexpected number of fields (names containing spaces) is the fixed column layout used.
+ *
+ * @author apete
+ */
+final class MathProgSysParser {
+
+    /**
+     * Maps names (char sequences) to consecutive int ids. Lookups don't create any objects; a String is only
+     * created when a new name is added.
+     */
+    static final class NameTable {
+
+        private int[] myHashes = new int[256];
+        private String[] myNames = new String[256];
+        private int mySize = 0;
+        private int[] myTable = new int[512];
+
+        NameTable() {
+            super();
+        }
+
+        /**
+         * @return The id of the new name, or -1 if it already existed
+         */
+        int add(final char[] chars, final int first, final int limit) {
+
+            if (this.get(chars, first, limit) >= 0) {
+                return -1;
+            }
+
+            if (((mySize + 1) << 1) > myTable.length) {
+                this.grow();
+            }
+
+            final int retVal = mySize++;
+            final int tmpHash = NameTable.hash(chars, first, limit);
+
+            myHashes[retVal] = tmpHash;
+            myNames[retVal] = new String(chars, first, limit - first);
+
+            this.insert(tmpHash, retVal);
+
+            return retVal;
+        }
+
+        /**
+         * @return The id of the name, or -1 if unknown
+         */
+        int get(final char[] chars, final int first, final int limit) {
+
+            final int tmpHash = NameTable.hash(chars, first, limit);
+            final int tmpMask = myTable.length - 1;
+
+            int tmpSlot = tmpHash & tmpMask;
+            int tmpEntry;
+            while ((tmpEntry = myTable[tmpSlot]) != 0) {
+                final int tmpId = tmpEntry - 1;
+                if ((myHashes[tmpId] == tmpHash) && NameTable.equals(myNames[tmpId], chars, first, limit)) {
+                    return tmpId;
+                }
+                tmpSlot = (tmpSlot + 1) & tmpMask;
+            }
+
+            return -1;
+        }
+
+        String getName(final int id) {
+            return myNames[id];
+        }
+
+        int size() {
+            return mySize;
+        }
+
+        private void grow() {
+
+            final int tmpCapacity = myNames.length << 1;
+
+            myHashes = Arrays.copyOf(myHashes, tmpCapacity);
+            myNames = Arrays.copyOf(myNames, tmpCapacity);
+            myTable = new int[tmpCapacity << 1];
+
+            for (int i = 0; i < mySize; i++) {
+                this.insert(myHashes[i], i);
+            }
+        }
+
+        private void insert(final int hash, final int id) {
+            final int tmpMask = myTable.length - 1;
+            int tmpSlot = hash & tmpMask;
+            while (myTable[tmpSlot] != 0) {
+                tmpSlot = (tmpSlot + 1) & tmpMask;
+            }
+            myTable[tmpSlot] = id + 1;
+        }
+
+        private static boolean equals(final String name, final char[] chars, final int first, final int limit) {
+            if (name.length() != (limit - first)) {
+                return false;
+            }
+            for (int i = first; i < limit; i++) {
+                if (name.charAt(i - first) != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(final char[] chars, final int first, final int limit) {
+            int retVal = 0;
+            for (int i = first; i < limit; i++) {
+                retVal = (31 * retVal) + chars[i];
+            }
+            return retVal ^ (retVal >>> 16);
+        }
+
+    }
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private static final BoundType[] BOUND_TYPES = BoundType.values();
+    private static final int[] FIELD_LIMITS = { 3, 12, 22, 36, 47, 61 };
+    private static final int MAX_FIELDS = 8;
+    /**
+     * Powers of ten that are exactly representable as doubles
+     */
+    private static final double[] POWERS_OF_TEN = { 1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17,
+            1E18, 1E19, 1E20, 1E21, 1E22 };
+
+    /**
+     * Parses the characters as a double. The common case, at most 15 significant digits and a (net) decimal
+     * exponent within +/-22, is computed exactly (correctly rounded) without creating any objects. Anything
+     * else is delegated to {@linkplain Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException
+     */
+    static double parseDouble(final char[] chars, final int first, final int limit) {
+
+        int i = first;
+        boolean tmpNegative = false;
+
+        if ((i < limit) && ((chars[i] == '-') || (chars[i] == '+'))) {
+            tmpNegative = chars[i] == '-';
+            i++;
+        }
+
+        long tmpMantissa = 0L;
+        int tmpDigits = 0;
+        int tmpScale = 0;
+        boolean tmpAnyDigit = false;
+        boolean tmpSimple = true;
+
+        for (; (i < limit) && (chars[i] >= '0') && (chars[i] <= '9'); i++) {
+            tmpAnyDigit = true;
+            if ((tmpMantissa != 0L) || (chars[i] != '0')) {
+                if (tmpDigits < 18) {
+                    tmpMantissa = (10L * tmpMantissa) + (chars[i] - '0');
+                    tmpDigits++;
+                } else {
+                    tmpSimple = false;
+                }
+            }
+        }
+
+        if ((i < limit) && (chars[i] == '.')) {
+            i++;
+            for (; (i < limit) && (chars[i] >= '0') && (chars[i] <= '9'); i++) {
+                tmpAnyDigit = true;
+                if ((tmpMantissa != 0L) || (chars[i] != '0')) {
+                    if (tmpDigits < 18) {
+                        tmpMantissa = (10L * tmpMantissa) + (chars[i] - '0');
+                        tmpDigits++;
+                    } else {
+                        tmpSimple = false;
+                    }
+                }
+                tmpScale--;
+            }
+        }
+
+        if (!tmpAnyDigit) {
+            throw new NumberFormatException(new String(chars, first, limit - first));
+        }
+
+        if ((i < limit) && ((chars[i] == 'E') || (chars[i] == 'e') || (chars[i] == 'D') || (chars[i] == 'd'))) {
+            i++;
+            boolean tmpNegativeExp = false;
+            if ((i < limit) && ((chars[i] == '-') || (chars[i] == '+'))) {
+                tmpNegativeExp = chars[i] == '-';
+                i++;
+            }
+            if (i == limit) {
+                throw new NumberFormatException(new String(chars, first, limit - first));
+            }
+            int tmpExponent = 0;
+            for (; (i < limit) && (chars[i] >= '0') && (chars[i] <= '9'); i++) {
+                if (tmpExponent < 10000) {
+                    tmpExponent = (10 * tmpExponent) + (chars[i] - '0');
+                }
+            }
+            tmpScale += tmpNegativeExp ? -tmpExponent : tmpExponent;
+        }
+
+        if (i != limit) {
+            throw new NumberFormatException(new String(chars, first, limit - first));
+        }
+
+        if (tmpSimple && (tmpDigits <= 15) && (tmpScale >= -22) && (tmpScale <= 22)) {
+            double retVal = tmpMantissa;
+            if (tmpScale < 0) {
+                retVal /= POWERS_OF_TEN[-tmpScale];
+            } else {
+                retVal *= POWERS_OF_TEN[tmpScale];
+            }
+            return tmpNegative ? -retVal : retVal;
+        } else {
+            return Double.parseDouble(MathProgSysParser.toJavaNumber(chars, first, limit));
+        }
+    }
+
+    /**
+     * Fortran style "D" exponents are replaced with "E".
+     */
+    private static String toJavaNumber(final char[] chars, final int first, final int limit) {
+        final char[] retVal = Arrays.copyOfRange(chars, first, limit);
+        for (int i = 0; i < retVal.length; i++) {
+            if ((retVal[i] == 'D') || (retVal[i] == 'd')) {
+                retVal[i] = 'E';
+            }
+        }
+        return new String(retVal);
+    }
+
+    private final NameTable myColumnNames = new NameTable();
+    private int myCount = 0;
+    private final boolean myExact;
+    private final int[] myFirst = new int[MAX_FIELDS];
+    private boolean myIntegerMarker = false;
+    private final int[] myLimit = new int[MAX_FIELDS];
+    private char[] myLine = new char[256];
+    private int myLength = 0;
+    private int myLineNumber = 0;
+    private final MathProgSysModel myModel;
+    private final NameTable myRowNames = new NameTable();
+    private FileSection mySection = null;
+
+    MathProgSysParser(final MathProgSysModel model) {
+
+        super();
+
+        myModel = model;
+        myExact = model.getExpressionsBasedModel().isExact();
+    }
+
+    /**
+     * Reads the entire stream; does not close it.
+     *
+     * @throws IOException On any read problem, or parse error (then with line number)
+     */
+    void parse(final InputStream input) throws IOException {
+
+        final byte[] tmpBuffer = new byte[BUFFER_SIZE];
+
+        int tmpRead;
+        while ((tmpRead = input.read(tmpBuffer)) != -1) {
+            for (int i = 0; i < tmpRead; i++) {
+                final byte tmpByte = tmpBuffer[i];
+                if (tmpByte == '\n') {
+                    this.processLine();
+                } else if (tmpByte != '\r') {
+                    if (myLength == myLine.length) {
+                        myLine = Arrays.copyOf(myLine, myLength << 1);
+                    }
+                    myLine[myLength++] = (char) (tmpByte & 0xFF);
+                }
+            }
+        }
+
+        if (myLength > 0) {
+            this.processLine();
+        }
+    }
+
+    private Column column(final int field) throws IOException {
+        final int tmpId = myColumnNames.get(myLine, myFirst[field], myLimit[field]);
+        if (tmpId < 0) {
+            throw this.error("Unknown column " + this.text(field));
+        }
+        return myModel.getColumn(tmpId);
+    }
+
+    private boolean contains(final int field, final String text) {
+        final int tmpLast = myLimit[field] - text.length();
+        for (int i = myFirst[field]; i <= tmpLast; i++) {
+            if (this.matches(i, text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double doubleValue(final int field) throws IOException {
+        try {
+            return MathProgSysParser.parseDouble(myLine, myFirst[field], myLimit[field]);
+        } catch (final NumberFormatException cause) {
+            throw this.error("Not a number " + this.text(field));
+        }
+    }
+
+    private IOException error(final String message) {
+        return new IOException("MPS line " + myLineNumber + ": " + message);
+    }
+
+    private BigDecimal exactValue(final int field) throws IOException {
+        try {
+            return new BigDecimal(MathProgSysParser.toJavaNumber(myLine, myFirst[field], myLimit[field]));
+        } catch (final NumberFormatException cause) {
+            throw this.error("Not a number " + this.text(field));
+        }
+    }
+
+    private boolean isNumber(final int field) {
+        try {
+            MathProgSysParser.parseDouble(myLine, myFirst[field], myLimit[field]);
+            return true;
+        } catch (final NumberFormatException cause) {
+            return false;
+        }
+    }
+
+    private boolean matches(final int offset, final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (myLine[offset + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesField(final int field, final String text) {
+        return ((myLimit[field] - myFirst[field]) == text.length()) && this.matches(myFirst[field], text);
+    }
+
+    private void parseBounds() throws IOException {
+
+        BoundType tmpType = null;
+        for (int b = 0; (tmpType == null) && (b < BOUND_TYPES.length); b++) {
+            if (this.matchesField(0, BOUND_TYPES[b].name())) {
+                tmpType = BOUND_TYPES[b];
+            }
+        }
+        if (tmpType == null) {
+            throw this.error("Unknown bound type " + this.text(0));
+        }
+
+        int tmpColumn;
+        int tmpValue;
+
+        switch (tmpType) {
+
+        case FR:
+        case MI:
+        case PL:
+        case BV:
+        case SC:
+
+            // The value is optional (and ignored by some of these types)
+            if (myCount == 4) {
+                tmpColumn = 2;
+                tmpValue = 3;
+            } else if (myCount == 2) {
+                tmpColumn = 1;
+                tmpValue = -1;
+            } else if ((myColumnNames.get(myLine, myFirst[1], myLimit[1]) >= 0) && this.isNumber(2)) {
+                tmpColumn = 1;
+                tmpValue = 2;
+            } else {
+                tmpColumn = 2;
+                tmpValue = -1;
+            }
+
+            break;
+
+        default:
+
+            if (myCount < 3) {
+                throw this.error("Missing bound value");
+            }
+
+            tmpColumn = myCount - 2;
+            tmpValue = myCount - 1;
+
+            break;
+        }
+
+        this.column(tmpColumn).bound(tmpType, tmpValue < 0 ? null : this.exactValue(tmpValue));
+    }
+
+    private void parseColumns() throws IOException {
+
+        if ((myCount >= 2) && this.contains(1, "MARKER")) {
+            if ((myCount >= 3) && this.contains(2, "INTORG")) {
+                myIntegerMarker = true;
+            } else if ((myCount >= 3) && this.contains(2, "INTEND")) {
+                myIntegerMarker = false;
+            }
+            return;
+        }
+
+        if ((myCount != 3) && (myCount != 5)) {
+            throw this.error("Expected 3 or 5 fields, found " + myCount);
+        }
+
+        Column tmpColumn;
+        final int tmpId = myColumnNames.get(myLine, myFirst[0], myLimit[0]);
+        if (tmpId >= 0) {
+            tmpColumn = myModel.getColumn(tmpId);
+        } else {
+            myColumnNames.add(myLine, myFirst[0], myLimit[0]);
+            tmpColumn = myModel.addColumn(this.text(0));
+        }
+
+        for (int f = 1; f < myCount; f += 2) {
+            tmpColumn.setRowValue(this.row(f), this.doubleValue(f + 1), myExact ? this.exactValue(f + 1) : null);
+        }
+
+        if (myIntegerMarker) {
+            tmpColumn.integer(true);
+        }
+    }
+
+    private void parseHeader() throws IOException {
+
+        final String tmpName = this.text(0);
+
+        try {
+            mySection = FileSection.valueOf(tmpName);
+        } catch (final IllegalArgumentException cause) {
+            throw this.error("Unknown section " + tmpName);
+        }
+
+        switch (mySection) {
+
+        case NAME:
+
+            myModel.setName(myCount > 1 ? new String(myLine, myFirst[1], myLength - myFirst[1]).trim() : "");
+
+            break;
+
+        case OBJSENSE:
+
+            if (myCount > 1) {
+                this.parseSense(1);
+            }
+
+            break;
+
+        default:
+
+            break;
+        }
+    }
+
+    private void parseLimits(final boolean range) throws IOException {
+
+        if ((myCount < 2) || (myCount > 5)) {
+            throw this.error("Expected 2 to 5 fields, found " + myCount);
+        }
+
+        // The set name is optional
+        for (int f = myCount & 1; f < myCount; f += 2) {
+            final Row tmpRow = this.row(f);
+            if (range) {
+                tmpRow.range(this.exactValue(f + 1));
+            } else {
+                tmpRow.rhs(this.exactValue(f + 1));
+            }
+        }
+    }
+
+    private void parseRows() throws IOException {
+
+        RowType tmpType = null;
+        if ((myLimit[0] - myFirst[0]) == 1) {
+            switch (myLine[myFirst[0]]) {
+            case 'E':
+                tmpType = RowType.E;
+                break;
+            case 'G':
+                tmpType = RowType.G;
+                break;
+            case 'L':
+                tmpType = RowType.L;
+                break;
+            case 'N':
+                tmpType = RowType.N;
+                break;
+            default:
+                break;
+            }
+        }
+        if (tmpType == null) {
+            throw this.error("Unknown row type " + this.text(0));
+        }
+
+        if (myRowNames.add(myLine, myFirst[1], myLimit[1]) < 0) {
+            throw this.error("Duplicate row " + this.text(1));
+        }
+        myModel.addRow(this.text(1), tmpType);
+    }
+
+    private void parseSense(final int field) throws IOException {
+        if (this.matchesField(field, "MAX") || this.matchesField(field, "MAXIMIZE")) {
+            myModel.setMaximisation();
+        } else if (this.matchesField(field, "MIN") || this.matchesField(field, "MINIMIZE")) {
+            myModel.setMinimisation();
+        } else {
+            throw this.error("Unknown objective sense " + this.text(field));
+        }
+    }
+
+    private void processLine() throws IOException {
+
+        myLineNumber++;
+
+        if ((myLength > 0) && (myLine[0] != '*')) {
+
+            this.tokenise();
+
+            if (myCount > 0) {
+                if ((myLine[0] != ' ') && (myLine[0] != '\t')) {
+                    this.parseHeader();
+                } else if (mySection == null) {
+                    throw this.error("Data before the first section");
+                } else {
+                    this.processSection();
+                }
+            }
+        }
+
+        myLength = 0;
+    }
+
+    private void processSection() throws IOException {
+
+        switch (mySection) {
+
+        case OBJSENSE:
+
+            this.parseSense(0);
+
+            break;
+
+        case ROWS:
+
+            if (myCount != 2) {
+                this.split(0, 2);
+            }
+            this.parseRows();
+
+            break;
+
+        case COLUMNS:
+
+            if ((myCount > 5) || ((myCount == 4) && !this.contains(1, "MARKER"))) {
+                this.split(1, 6);
+            }
+            this.parseColumns();
+
+            break;
+
+        case RHS:
+
+            if (myCount > 5) {
+                this.split(1, 6);
+            }
+            this.parseLimits(false);
+
+            break;
+
+        case RANGES:
+
+            if (myCount > 5) {
+                this.split(1, 6);
+            }
+            this.parseLimits(true);
+
+            break;
+
+        case BOUNDS:
+
+            if (myCount > 4) {
+                this.split(0, 4);
+            }
+            this.parseBounds();
+
+            break;
+
+        default:
+
+            // NAME, OBJNAME, SOS and ENDATA data lines are ignored
+            break;
+        }
+    }
+
+    private Row row(final int field) throws IOException {
+        final int tmpId = myRowNames.get(myLine, myFirst[field], myLimit[field]);
+        if (tmpId < 0) {
+            throw this.error("Unknown row " + this.text(field));
+        }
+        return myModel.getRow(tmpId);
+    }
+
+    /**
+     * Re-tokenise using the fixed format field positions. Empty fields are dropped.
+     */
+    private void split(final int firstField, final int limitField) {
+
+        myCount = 0;
+
+        for (int f = firstField; f < limitField; f++) {
+
+            int tmpFirst = f == 0 ? 0 : Math.min(FIELD_LIMITS[f - 1], myLength);
+            int tmpLimit = f == (FIELD_LIMITS.length - 1) ? myLength : Math.min(FIELD_LIMITS[f], myLength);
+
+            while ((tmpFirst < tmpLimit) && (myLine[tmpFirst] <= ' ')) {
+                tmpFirst++;
+            }
+            while ((tmpLimit > tmpFirst) && (myLine[tmpLimit - 1] <= ' ')) {
+                tmpLimit--;
+            }
+
+            if (tmpFirst < tmpLimit) {
+                myFirst[myCount] = tmpFirst;
+                myLimit[myCount] = tmpLimit;
+                myCount++;
+            }
+        }
+    }
+
+    private String text(final int field) {
+        return new String(myLine, myFirst[field], myLimit[field] - myFirst[field]);
+    }
+
+    /**
+     * Free format, whitespace separated, tokens. Counts all tokens but only records the first
+     * {@value #MAX_FIELDS}.
+     */
+    private void tokenise() {
+
+        myCount = 0;
+
+        int i = 0;
+        while (i < myLength) {
+            while ((i < myLength) && (myLine[i] <= ' ')) {
+                i++;
+            }
+            if (i < myLength) {
+                final int tmpFirst = i;
+                while ((i < myLength) && (myLine[i] > ' ')) {
+                    i++;
+                }
+                if (myCount < MAX_FIELDS) {
+                    myFirst[myCount] = tmpFirst;
+                    myLimit[myCount] = i;
+                }
+                myCount++;
+            }
+        }
+    }
+
+}
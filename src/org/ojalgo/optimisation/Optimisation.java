@@ -21,6 +21,7 @@
  */
 package org.ojalgo.optimisation;
 
+import java.io.File;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -30,6 +31,7 @@ import org.ojalgo.access.Access1D;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.integer.IntegerSolver;
+import org.ojalgo.optimisation.linear.LinearSolver;
 import org.ojalgo.type.CalendarDateUnit;
 import org.ojalgo.type.TypeUtils;
 import org.ojalgo.type.context.NumberContext;
@@ -140,6 +142,24 @@ public interface Optimisation {
 
     }
 
+    /**
+     * Receives {@linkplain Optimisation.Progress} reports from solvers. Set it with
+     * {@linkplain Optimisation.Options#progress_listener}. The same listener may be called by several solvers (the
+     * {@linkplain IntegerSolver} solves node problems using other solvers with the same options), and from several
+     * threads, concurrently. Check {@linkplain Optimisation.Progress#solver} to tell them apart.
+     *
+     * @author apete
+     */
+    public static interface Listener extends Optimisation {
+
+        /**
+         * @return false to request that the solver terminates. It will stop at its next check and return the best
+         *         solution found so far.
+         */
+        boolean progress(Optimisation.Progress progress);
+
+    }
+
     public static interface Model extends Optimisation {
 
         Optimisation.Result maximise();
@@ -176,6 +196,55 @@ public interface Optimisation {
 
     public static final class Options implements Optimisation, Cloneable {
 
+        /**
+         * How the {@linkplain IntegerSolver} selects which (fractional) variable to branch on.
+         */
+        public static enum Branching {
+
+            /**
+             * The fraction (distance to nearest integer) weighted with the magnitude of the objective function
+             * gradient. Cheap, and does not learn anything from the tree search.
+             */
+            MOST_FRACTIONAL,
+            /**
+             * Estimated objective function degradation, using pseudo-costs learnt from the nodes solved so far.
+             */
+            PSEUDO_COST,
+            /**
+             * Pseudo-cost branching, with strong branching on candidates that do not yet have reliable
+             * pseudo-costs.
+             */
+            RELIABILITY,
+            /**
+             * Strong branching (solving child node LP:s) on the most fractional candidates, within a budget.
+             */
+            STRONG;
+
+        }
+
+        /**
+         * Which simplex algorithm the {@linkplain LinearSolver} should use for models
+         * built via {@linkplain ExpressionsBasedModel}.
+         */
+        public static enum Simplex {
+
+            /**
+             * Start from a dual feasible (slack) basis, when there is one, and iterate towards primal feasibility.
+             * Falls back to the primal algorithm if there is no such basis.
+             */
+            DUAL,
+            /**
+             * The two-phase primal algorithm.
+             */
+            PRIMAL;
+
+        }
+
+        /**
+         * Which branching rule the {@linkplain IntegerSolver} should use.
+         */
+        public Branching branching = Branching.MOST_FRACTIONAL;
+
         /**
          * If this is null nothing is printed, if it is not null then debug statements are printed to that
          * {@linkplain BasicLogger.Appender}.
@@ -214,6 +283,20 @@ public interface Optimisation {
          */
         public double mip_gap = 1.0E-4;
 
+        /**
+         * The max number of open (not yet evaluated) branch&amp;bound nodes the {@linkplain IntegerSolver} keeps in
+         * memory. When there are more than that, either some of them are spilled to file (if
+         * {@linkplain #nodes_spill_directory} is set) or the solver switches to depth-first search until the number is
+         * back below half of this.
+         */
+        public int nodes_capacity = 1 << 20;
+
+        /**
+         * Where to spill open branch&amp;bound nodes when there are more than {@linkplain #nodes_capacity}. If null
+         * nothing is spilled.
+         */
+        public File nodes_spill_directory = null;
+
         /**
          * Used to compare/check objective function values (incl. temporary, phase 1, objectives). The most
          * importatnt use of this parameter is, with the linear (simplex) solver, to determine if the phase 1
@@ -240,6 +323,16 @@ public interface Optimisation {
          */
         public NumberContext problem = new NumberContext(12, 8, RoundingMode.HALF_EVEN);
 
+        /**
+         * If this is not null solvers report their progress to it, and it may request them to terminate early.
+         */
+        public Optimisation.Listener progress_listener = null;
+
+        /**
+         * Which simplex algorithm the {@linkplain LinearSolver} should use.
+         */
+        public Simplex simplex = Simplex.PRIMAL;
+
         /**
          * Used to determine if a constraint is violated or not. Essentially this context determines if the
          * various validate(...) methods will return true or false. Calculate the slack - zero if the
@@ -298,6 +391,153 @@ public interface Optimisation {
         }
     }
 
+    /**
+     * A snapshot of a solver's progress, reported to {@linkplain Optimisation.Listener}. Counts and times are
+     * accumulated since the solver started. Whatever is not relevant to the reporting solver is -1 (counts) or NaN
+     * (values) - only the {@linkplain IntegerSolver} has nodes, and bound and incumbent values.
+     *
+     * @author apete
+     */
+    public static final class Progress implements Optimisation {
+
+        public static enum Event {
+
+            /**
+             * Done - the state and solution are determined
+             */
+            FINISHED,
+
+            /**
+             * A new, better, integer solution found
+             */
+            INCUMBENT,
+
+            /**
+             * An iteration (pivot, node...) completed
+             */
+            ITERATION,
+
+            /**
+             * Solving has started
+             */
+            STARTED;
+
+        }
+
+        public static enum Phase {
+
+            /**
+             * Factorising a basis or a system of equations
+             */
+            FACTORISATION,
+
+            /**
+             * Selecting an entering (primal) or leaving (dual) variable
+             */
+            PRICING,
+
+            /**
+             * Bound propagation and other attempts to reduce the problem before solving it
+             */
+            PRESOLVE,
+
+            /**
+             * Selecting a leaving (primal) or entering (dual) variable
+             */
+            RATIO_TEST,
+
+            /**
+             * Updating the tableau/basis after a pivot
+             */
+            UPDATE;
+
+        }
+
+        private final long[] myPhaseTimes;
+
+        /**
+         * The best bound on the optimal objective function value - the root node relaxation value, tightened to the
+         * best among the open nodes as the search progresses
+         */
+        public final double bound;
+        public final Progress.Event event;
+        public final int factorisations;
+        /**
+         * The objective function value of the best (integer) solution found so far
+         */
+        public final double incumbent;
+        public final int iterations;
+        public final long nodesExplored;
+        public final long nodesOpen;
+        public final Class<? extends Optimisation.Solver> solver;
+        /**
+         * Milliseconds
+         */
+        public final long time;
+
+        Progress(final Progress.Event event, final Class<? extends Optimisation.Solver> solver, final int iterations, final long time,
+                final int factorisations, final long[] phaseTimes, final long nodesExplored, final long nodesOpen, final double bound,
+                final double incumbent) {
+
+            super();
+
+            this.event = event;
+            this.solver = solver;
+            this.iterations = iterations;
+            this.time = time;
+            this.factorisations = factorisations;
+            myPhaseTimes = phaseTimes;
+            this.nodesExplored = nodesExplored;
+            this.nodesOpen = nodesOpen;
+            this.bound = bound;
+            this.incumbent = incumbent;
+        }
+
+        /**
+         * @return The relative difference between the incumbent and the bound (same definition as
+         *         {@linkplain Optimisation.Options#mip_gap}, but relative to at least 1E-10 so that an incumbent of 0
+         *         doesn't give infinity), or NaN if either is not known
+         */
+        public double getGap() {
+            return Math.abs(incumbent - bound) / Math.max(Math.abs(incumbent), 1E-10);
+        }
+
+        /**
+         * @return The time, in nanoseconds, spent in the phase
+         */
+        public long getPhaseTime(final Progress.Phase phase) {
+            return myPhaseTimes[phase.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+
+            final StringBuilder retVal = new StringBuilder();
+
+            retVal.append(solver.getSimpleName()).append(' ').append(event);
+            retVal.append(" iterations=").append(iterations);
+            retVal.append(" time=").append(time);
+
+            if (nodesExplored >= 0L) {
+                retVal.append(" nodes=").append(nodesExplored).append('/').append(nodesOpen);
+            }
+            if (!Double.isNaN(incumbent) || !Double.isNaN(bound)) {
+                retVal.append(" incumbent=").append(incumbent);
+                retVal.append(" bound=").append(bound);
+                retVal.append(" gap=").append(this.getGap());
+            }
+
+            retVal.append(" factorisations=").append(factorisations);
+
+            for (final Progress.Phase tmpPhase : Progress.Phase.values()) {
+                retVal.append(' ').append(tmpPhase).append('=').append(myPhaseTimes[tmpPhase.ordinal()] / 1_000_000L);
+            }
+
+            return retVal.toString();
+        }
+
+    }
+
     public static final class Result implements Optimisation, Access1D<BigDecimal>, Comparable<Optimisation.Result>, Serializable {
 
         private final Access1D<?> mySolution;
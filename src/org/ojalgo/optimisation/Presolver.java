@@ -0,0 +1,733 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.ojalgo.array.PrimitiveArray;
+import org.ojalgo.constant.BigMath;
+import org.ojalgo.function.BigFunction;
+import org.ojalgo.optimisation.Expression.Index;
+import org.ojalgo.optimisation.Expression.RowColumn;
+
+/**
+ * Worklist based presolver for {@linkplain ExpressionsBasedModel}. Rows (constraint expressions) and columns
+ * (variables) are only revisited when something they depend on has changed, rather than restarting from the
+ * beginning after each successful reduction. The reductions performed are:
+ * <ul>
+ * <li>Fixed variable substitution – rows with no remaining free variables are either redundant or infeasible.</li>
+ * <li>Singleton rows – the limits are transferred to the (only) free variable.</li>
+ * <li>Activity based analysis – rows implied by the variable limits are redundant, rows that can't be satisfied
+ * are infeasible, and the limits of integer variables are tightened.</li>
+ * <li>Duplicate (parallel) rows – the dominated row is redundant.</li>
+ * <li>Dominated columns – a variable that can be moved in its preferred objective direction without ever
+ * affecting feasibility is fixed at the corresponding limit.</li>
+ * </ul>
+ * Each reduction is recorded on a stack. {@link #undo()} restores the model to its original state, and
+ * {@link #postsolve(Optimisation.Result)} maps a solution back to the full set of variables.
+ *
+ * @author apete
+ */
+final class Presolver {
+
+    static abstract class Reduction {
+
+        abstract void postsolve(PrimitiveArray solution);
+
+        abstract void undo();
+
+    }
+
+    static final class BoundReduction extends Reduction {
+
+        private final BigDecimal myLower;
+        private final BigDecimal myUpper;
+        private final Variable myVariable;
+
+        BoundReduction(final Variable variable) {
+
+            super();
+
+            myVariable = variable;
+            myLower = variable.getLowerLimit();
+            myUpper = variable.getUpperLimit();
+        }
+
+        @Override
+        void postsolve(final PrimitiveArray solution) {
+            // Nothing to do
+        }
+
+        @Override
+        void undo() {
+            myVariable.lower(myLower).upper(myUpper);
+        }
+
+    }
+
+    static final class FixReduction extends Reduction {
+
+        private final int myIndex;
+        private final BigDecimal myValue;
+
+        FixReduction(final int index, final BigDecimal value) {
+
+            super();
+
+            myIndex = index;
+            myValue = value;
+        }
+
+        @Override
+        void postsolve(final PrimitiveArray solution) {
+            solution.set(myIndex, myValue.doubleValue());
+        }
+
+        @Override
+        void undo() {
+            // The model's set of fixed variables is cleared separately
+        }
+
+    }
+
+    static final class RowReduction extends Reduction {
+
+        private final Expression myExpression;
+
+        RowReduction(final Expression expression) {
+
+            super();
+
+            myExpression = expression;
+        }
+
+        @Override
+        void postsolve(final PrimitiveArray solution) {
+            // Nothing to do
+        }
+
+        @Override
+        void undo() {
+            myExpression.setRedundant(false);
+            myExpression.setInfeasible(false);
+        }
+
+    }
+
+    private static final MathContext CONTEXT = MathContext.DECIMAL64;
+
+    /**
+     * Integer limits derived from activity bounds are rounded using this tolerance, to not cut away solutions
+     * because of rounding errors in the division.
+     */
+    private static final BigDecimal INTEGRALITY = new BigDecimal("1E-9");
+
+    /**
+     * @return true if the [lower, upper] interval outer contains inner
+     */
+    private static boolean contains(final BigDecimal[] outer, final BigDecimal[] inner) {
+        final boolean tmpLower = (outer[0] == null) || ((inner[0] != null) && (outer[0].compareTo(inner[0]) <= 0));
+        final boolean tmpUpper = (outer[1] == null) || ((inner[1] != null) && (outer[1].compareTo(inner[1]) >= 0));
+        return tmpLower && tmpUpper;
+    }
+
+    /**
+     * null means unbounded, and a lower limit is tighter if it is larger (an upper if it is smaller)
+     */
+    private static boolean isTighter(final BigDecimal newLimit, final BigDecimal oldLimit, final boolean lower) {
+        if (newLimit == null) {
+            return false;
+        } else if (oldLimit == null) {
+            return true;
+        } else {
+            return lower ? newLimit.compareTo(oldLimit) > 0 : newLimit.compareTo(oldLimit) < 0;
+        }
+    }
+
+    private static BigDecimal max(final BigDecimal limit1, final BigDecimal limit2) {
+        if (limit1 == null) {
+            return limit2;
+        } else if (limit2 == null) {
+            return limit1;
+        } else {
+            return limit1.max(limit2);
+        }
+    }
+
+    private static BigDecimal min(final BigDecimal limit1, final BigDecimal limit2) {
+        if (limit1 == null) {
+            return limit2;
+        } else if (limit2 == null) {
+            return limit1;
+        } else {
+            return limit1.min(limit2);
+        }
+    }
+
+    private static BigDecimal[] normalisedLimits(final Expression expression, final BigDecimal scale) {
+
+        final BigDecimal tmpLower = expression.isLowerLimitSet() ? expression.getLowerLimit().divide(scale, CONTEXT) : null;
+        final BigDecimal tmpUpper = expression.isUpperLimitSet() ? expression.getUpperLimit().divide(scale, CONTEXT) : null;
+
+        if (scale.signum() < 0) {
+            return new BigDecimal[] { tmpUpper, tmpLower };
+        } else {
+            return new BigDecimal[] { tmpLower, tmpUpper };
+        }
+    }
+
+    private ArrayList<ArrayList<Expression>> myColumnRows;
+    private ArrayDeque<Integer> myColumns;
+    private boolean[] myColumnsQueued;
+    private boolean myDominated = false;
+    private boolean myInfeasible = false;
+    private boolean[] myLocked;
+    private final ExpressionsBasedModel myModel;
+    private ArrayDeque<Expression> myRows;
+    private HashMap<Expression, Boolean> myRowsQueued;
+    private final ArrayList<Reduction> myStack = new ArrayList<Reduction>();
+    private int myTighteningsLimit;
+
+    Presolver(final ExpressionsBasedModel model) {
+
+        super();
+
+        myModel = model;
+    }
+
+    /**
+     * @return The number of reductions currently on the postsolve stack
+     */
+    int countReductions() {
+        return myStack.size();
+    }
+
+    /**
+     * @return true if any variable was fixed because it was dominated - the objective function was used to
+     *         decide its value.
+     */
+    boolean isAnyColumnDominated() {
+        return myDominated;
+    }
+
+    boolean isInfeasible() {
+        return myInfeasible;
+    }
+
+    /**
+     * Assigns the values of the variables fixed (eliminated) by the presolver, in reverse order.
+     */
+    Optimisation.Result postsolve(final Optimisation.Result result) {
+
+        final int tmpCount = myModel.countVariables();
+
+        final PrimitiveArray tmpSolution = PrimitiveArray.make(tmpCount);
+        for (int i = 0; i < tmpCount; i++) {
+            tmpSolution.set(i, result.doubleValue(i));
+        }
+
+        for (int r = myStack.size() - 1; r >= 0; r--) {
+            myStack.get(r).postsolve(tmpSolution);
+        }
+
+        return new Optimisation.Result(result.getState(), result.getValue(), tmpSolution);
+    }
+
+    /**
+     * Call {@link #undo()} first, and make sure the model's variables are categorised (equality constrained
+     * variables registered as fixed), before calling this method.
+     */
+    void presolve() {
+
+        final List<Variable> tmpVariables = myModel.getVariables();
+        final int tmpCountVariables = tmpVariables.size();
+
+        myColumnRows = new ArrayList<ArrayList<Expression>>(tmpCountVariables);
+        for (int j = 0; j < tmpCountVariables; j++) {
+            myColumnRows.add(new ArrayList<Expression>());
+        }
+        myColumns = new ArrayDeque<Integer>();
+        myColumnsQueued = new boolean[tmpCountVariables];
+        myLocked = new boolean[tmpCountVariables];
+        myRows = new ArrayDeque<Expression>();
+        myRowsQueued = new HashMap<Expression, Boolean>();
+        myTighteningsLimit = 16 * (tmpCountVariables + 1);
+
+        final Expression tmpObjective = myModel.getObjectiveExpression();
+        for (final RowColumn tmpKey : tmpObjective.getQuadraticFactorKeys()) {
+            myLocked[tmpKey.row] = true;
+            myLocked[tmpKey.column] = true;
+        }
+
+        final List<Expression> tmpLinearRows = new ArrayList<Expression>();
+
+        for (final Expression tmpExpression : myModel.getExpressions()) {
+            if (!tmpExpression.isConstraint()) {
+                this.markRedundant(tmpExpression);
+            } else if (tmpExpression.isAnyQuadraticFactorNonZero()) {
+                for (final RowColumn tmpKey : tmpExpression.getQuadraticFactorKeys()) {
+                    myLocked[tmpKey.row] = true;
+                    myLocked[tmpKey.column] = true;
+                }
+                for (final Index tmpKey : tmpExpression.getLinearFactorKeys()) {
+                    myLocked[tmpKey.index] = true;
+                }
+            } else if (!tmpExpression.isRedundant()) {
+                tmpLinearRows.add(tmpExpression);
+                for (final Index tmpKey : tmpExpression.getLinearFactorKeys()) {
+                    myColumnRows.get(tmpKey.index).add(tmpExpression);
+                }
+            }
+        }
+
+        this.removeDuplicateRows(tmpLinearRows);
+
+        for (final Expression tmpExpression : tmpLinearRows) {
+            this.enqueueRow(tmpExpression);
+        }
+        for (int j = 0; j < tmpCountVariables; j++) {
+            this.enqueueColumn(j);
+        }
+
+        while (!myInfeasible && (!myRows.isEmpty() || !myColumns.isEmpty())) {
+            if (!myRows.isEmpty()) {
+                final Expression tmpExpression = myRows.poll();
+                myRowsQueued.remove(tmpExpression);
+                this.processRow(tmpExpression);
+            } else {
+                final int tmpIndex = myColumns.poll();
+                myColumnsQueued[tmpIndex] = false;
+                this.processColumn(tmpIndex);
+            }
+        }
+
+        myColumnRows = null;
+        myColumns = null;
+        myColumnsQueued = null;
+        myLocked = null;
+        myRows = null;
+        myRowsQueued = null;
+    }
+
+    /**
+     * Restores the limits and flags changed by the previous presolve, in reverse order, and clears the stack.
+     */
+    void undo() {
+
+        for (int r = myStack.size() - 1; r >= 0; r--) {
+            myStack.get(r).undo();
+        }
+        myStack.clear();
+
+        myDominated = false;
+        myInfeasible = false;
+    }
+
+    private void changeLimits(final Variable variable, final BigDecimal lower, final BigDecimal upper) {
+
+        myStack.add(new BoundReduction(variable));
+        variable.lower(lower).upper(upper);
+
+        if (variable.isEqualityConstraint()) {
+            this.fix(variable, variable.getLowerLimit());
+        } else {
+            this.enqueueRowsOf(variable.getIndex().index);
+        }
+    }
+
+    private void enqueueColumn(final int index) {
+        if (!myColumnsQueued[index]) {
+            myColumnsQueued[index] = true;
+            myColumns.add(index);
+        }
+    }
+
+    private void enqueueColumnsOf(final Expression expression) {
+        for (final Index tmpKey : expression.getLinearFactorKeys()) {
+            this.enqueueColumn(tmpKey.index);
+        }
+    }
+
+    private void enqueueRow(final Expression expression) {
+        if (!expression.isRedundant() && (myRowsQueued.put(expression, Boolean.TRUE) == null)) {
+            myRows.add(expression);
+        }
+    }
+
+    private void enqueueRowsOf(final int index) {
+        for (final Expression tmpExpression : myColumnRows.get(index)) {
+            this.enqueueRow(tmpExpression);
+        }
+        this.enqueueColumn(index);
+    }
+
+    private void fix(final Variable variable, final BigDecimal value) {
+
+        final Index tmpIndex = variable.getIndex();
+
+        variable.setValue(value);
+
+        if (myModel.addFixedVariable(tmpIndex)) {
+            myStack.add(new FixReduction(tmpIndex.index, value));
+            this.enqueueRowsOf(tmpIndex.index);
+        }
+    }
+
+    private boolean isFixed(final Index index) {
+        return myModel.getFixedVariables().contains(index);
+    }
+
+    private void markInfeasible(final Expression expression) {
+        myStack.add(new RowReduction(expression));
+        expression.setInfeasible(true);
+        myInfeasible = true;
+    }
+
+    private void markRedundant(final Expression expression) {
+        if (!expression.isRedundant()) {
+            myStack.add(new RowReduction(expression));
+            expression.setRedundant(true);
+        }
+    }
+
+    private void processColumn(final int index) {
+
+        final Variable tmpVariable = myModel.getVariable(index);
+        final Index tmpIndex = tmpVariable.getIndex();
+
+        if (myLocked[index] || this.isFixed(tmpIndex)) {
+            return;
+        }
+
+        BigDecimal tmpCost = myModel.getObjectiveExpression().getLinearFactor(tmpIndex);
+        if ((tmpCost == null) || (tmpCost.signum() == 0)) {
+            return;
+        }
+        if (myModel.isMaximisation()) {
+            tmpCost = tmpCost.negate();
+        }
+
+        // Decreasing the variable improves the objective when the cost is positive
+        final boolean tmpDecrease = tmpCost.signum() > 0;
+
+        for (final Expression tmpExpression : myColumnRows.get(index)) {
+            if (!tmpExpression.isRedundant()) {
+
+                final BigDecimal tmpFactor = tmpExpression.getLinearFactor(tmpIndex);
+
+                if ((tmpFactor != null) && (tmpFactor.signum() != 0)) {
+
+                    final boolean tmpRowDecreases = tmpDecrease == (tmpFactor.signum() > 0);
+
+                    if (tmpRowDecreases ? tmpExpression.isLowerLimitSet() : tmpExpression.isUpperLimitSet()) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        BigDecimal tmpValue = tmpDecrease ? tmpVariable.getLowerLimit() : tmpVariable.getUpperLimit();
+
+        if (tmpValue != null) {
+
+            if (tmpVariable.isInteger()) {
+                tmpValue = tmpValue.setScale(0, tmpDecrease ? RoundingMode.CEILING : RoundingMode.FLOOR);
+            }
+
+            if (tmpVariable.validate(tmpValue, myModel.options.slack, myModel.appender())) {
+                this.fix(tmpVariable, tmpValue);
+                myDominated = true;
+            }
+        }
+    }
+
+    private void processRow(final Expression expression) {
+
+        if (expression.isRedundant() || expression.isInfeasible()) {
+            return;
+        }
+
+        final Set<Index> tmpFixedVariables = myModel.getFixedVariables();
+
+        BigDecimal tmpFixedValue = expression.calculateFixedValue(tmpFixedVariables);
+        if (tmpFixedValue == null) {
+            tmpFixedValue = BigMath.ZERO;
+        }
+
+        final List<Index> tmpFree = new ArrayList<Index>();
+        for (final Index tmpKey : expression.getLinearFactorKeys()) {
+            if (!tmpFixedVariables.contains(tmpKey)) {
+                final BigDecimal tmpFactor = expression.getLinearFactor(tmpKey);
+                if ((tmpFactor != null) && (tmpFactor.signum() != 0)) {
+                    tmpFree.add(tmpKey);
+                }
+            }
+        }
+
+        final BigDecimal tmpLower = expression.isLowerLimitSet() ? expression.getLowerLimit().subtract(tmpFixedValue) : null;
+        final BigDecimal tmpUpper = expression.isUpperLimitSet() ? expression.getUpperLimit().subtract(tmpFixedValue) : null;
+
+        if (tmpFree.size() == 0) {
+
+            if (expression.validate(tmpFixedValue, myModel.options.slack, myModel.appender())) {
+                this.markRedundant(expression);
+                this.enqueueColumnsOf(expression);
+            } else {
+                this.markInfeasible(expression);
+            }
+
+        } else if (tmpFree.size() == 1) {
+
+            this.processSingletonRow(expression, tmpFree.get(0), tmpLower, tmpUpper);
+
+        } else {
+
+            this.processActivity(expression, tmpFree, tmpLower, tmpUpper);
+        }
+    }
+
+    /**
+     * Computes the minimum and maximum row activity from the variable limits. Exact {@linkplain BigDecimal}
+     * arithmetic is used so that the redundancy test needs no tolerance.
+     */
+    private void processActivity(final Expression expression, final List<Index> free, final BigDecimal lower, final BigDecimal upper) {
+
+        final int tmpCount = free.size();
+
+        final BigDecimal[] tmpFactors = new BigDecimal[tmpCount];
+        final BigDecimal[] tmpMinContr = new BigDecimal[tmpCount];
+        final BigDecimal[] tmpMaxContr = new BigDecimal[tmpCount];
+
+        BigDecimal tmpMinSum = BigMath.ZERO;
+        BigDecimal tmpMaxSum = BigMath.ZERO;
+        int tmpMinInf = 0;
+        int tmpMaxInf = 0;
+
+        for (int i = 0; i < tmpCount; i++) {
+
+            final Variable tmpVariable = myModel.getVariable(free.get(i).index);
+            final BigDecimal tmpFactor = tmpFactors[i] = expression.getLinearFactor(free.get(i));
+
+            final BigDecimal tmpVarLo = tmpVariable.getLowerLimit();
+            final BigDecimal tmpVarUp = tmpVariable.getUpperLimit();
+
+            final BigDecimal tmpLoBound = tmpFactor.signum() > 0 ? tmpVarLo : tmpVarUp;
+            final BigDecimal tmpUpBound = tmpFactor.signum() > 0 ? tmpVarUp : tmpVarLo;
+
+            if (tmpLoBound != null) {
+                tmpMinSum = tmpMinSum.add(tmpMinContr[i] = tmpFactor.multiply(tmpLoBound));
+            } else {
+                tmpMinInf++;
+            }
+
+            if (tmpUpBound != null) {
+                tmpMaxSum = tmpMaxSum.add(tmpMaxContr[i] = tmpFactor.multiply(tmpUpBound));
+            } else {
+                tmpMaxInf++;
+            }
+        }
+
+        final boolean tmpLowerImplied = (lower == null) || ((tmpMinInf == 0) && (tmpMinSum.compareTo(lower) >= 0));
+        final boolean tmpUpperImplied = (upper == null) || ((tmpMaxInf == 0) && (tmpMaxSum.compareTo(upper) <= 0));
+
+        if (tmpLowerImplied && tmpUpperImplied) {
+            this.markRedundant(expression);
+            this.enqueueColumnsOf(expression);
+            return;
+        }
+
+        final double tmpEpsilon = myModel.options.slack.epsilon();
+        if (((upper != null) && (tmpMinInf == 0) && (tmpMinSum.subtract(upper).doubleValue() > (tmpEpsilon * Math.max(1.0, Math.abs(upper.doubleValue())))))
+                || ((lower != null) && (tmpMaxInf == 0) && (lower.subtract(tmpMaxSum).doubleValue() > (tmpEpsilon * Math.max(1.0, Math.abs(lower.doubleValue())))))) {
+            this.markInfeasible(expression);
+            return;
+        }
+
+        for (int i = 0; (i < tmpCount) && !myInfeasible && (myTighteningsLimit > 0); i++) {
+
+            final Variable tmpVariable = myModel.getVariable(free.get(i).index);
+
+            if (tmpVariable.isInteger() && !this.isFixed(tmpVariable.getIndex())) {
+
+                final BigDecimal tmpFactor = tmpFactors[i];
+
+                BigDecimal tmpNewLower = tmpVariable.getLowerLimit();
+                BigDecimal tmpNewUpper = tmpVariable.getUpperLimit();
+
+                // factor * x <= upper - (min activity of the others)
+                if ((upper != null) && ((tmpMinInf == 0) || ((tmpMinInf == 1) && (tmpMinContr[i] == null)))) {
+                    final BigDecimal tmpResidual = tmpMinContr[i] != null ? tmpMinSum.subtract(tmpMinContr[i]) : tmpMinSum;
+                    final BigDecimal tmpLimit = upper.subtract(tmpResidual).divide(tmpFactor, CONTEXT);
+                    if (tmpFactor.signum() > 0) {
+                        tmpNewUpper = Presolver.min(tmpNewUpper, tmpLimit.add(INTEGRALITY).setScale(0, RoundingMode.FLOOR));
+                    } else {
+                        tmpNewLower = Presolver.max(tmpNewLower, tmpLimit.subtract(INTEGRALITY).setScale(0, RoundingMode.CEILING));
+                    }
+                }
+
+                // factor * x >= lower - (max activity of the others)
+                if ((lower != null) && ((tmpMaxInf == 0) || ((tmpMaxInf == 1) && (tmpMaxContr[i] == null)))) {
+                    final BigDecimal tmpResidual = tmpMaxContr[i] != null ? tmpMaxSum.subtract(tmpMaxContr[i]) : tmpMaxSum;
+                    final BigDecimal tmpLimit = lower.subtract(tmpResidual).divide(tmpFactor, CONTEXT);
+                    if (tmpFactor.signum() > 0) {
+                        tmpNewLower = Presolver.max(tmpNewLower, tmpLimit.subtract(INTEGRALITY).setScale(0, RoundingMode.CEILING));
+                    } else {
+                        tmpNewUpper = Presolver.min(tmpNewUpper, tmpLimit.add(INTEGRALITY).setScale(0, RoundingMode.FLOOR));
+                    }
+                }
+
+                if (Presolver.isTighter(tmpNewLower, tmpVariable.getLowerLimit(), true) || Presolver.isTighter(tmpNewUpper, tmpVariable.getUpperLimit(), false)) {
+
+                    myTighteningsLimit--;
+
+                    if ((tmpNewLower != null) && (tmpNewUpper != null) && (tmpNewLower.compareTo(tmpNewUpper) > 0)) {
+                        this.markInfeasible(expression);
+                    } else {
+                        this.changeLimits(tmpVariable, tmpNewLower, tmpNewUpper);
+                    }
+                }
+            }
+        }
+    }
+
+    private void processSingletonRow(final Expression expression, final Index index, final BigDecimal lower, final BigDecimal upper) {
+
+        final Variable tmpVariable = myModel.getVariable(index.index);
+        final BigDecimal tmpFactor = expression.getLinearFactor(index);
+
+        if (expression.isEqualityConstraint()) {
+
+            final BigDecimal tmpSolutionValue = BigFunction.DIVIDE.invoke(upper, tmpFactor);
+
+            if (tmpVariable.validate(tmpSolutionValue, myModel.options.slack, myModel.appender())) {
+                this.markRedundant(expression);
+                this.changeLimits(tmpVariable, tmpSolutionValue, tmpSolutionValue);
+            } else {
+                this.markInfeasible(expression);
+            }
+
+        } else {
+
+            BigDecimal tmpLowerSolution = lower != null ? BigFunction.DIVIDE.invoke(lower, tmpFactor) : null;
+            BigDecimal tmpUpperSolution = upper != null ? BigFunction.DIVIDE.invoke(upper, tmpFactor) : null;
+            if (tmpFactor.signum() < 0) {
+                final BigDecimal tmpVal = tmpLowerSolution;
+                tmpLowerSolution = tmpUpperSolution;
+                tmpUpperSolution = tmpVal;
+            }
+
+            final BigDecimal tmpOldLower = tmpVariable.getLowerLimit();
+            final BigDecimal tmpOldUpper = tmpVariable.getUpperLimit();
+
+            BigDecimal tmpNewLower = Presolver.max(tmpOldLower, tmpLowerSolution);
+            BigDecimal tmpNewUpper = Presolver.min(tmpOldUpper, tmpUpperSolution);
+
+            if (tmpVariable.isInteger()) {
+                if (tmpNewLower != null) {
+                    tmpNewLower = tmpNewLower.setScale(0, RoundingMode.CEILING);
+                }
+                if (tmpNewUpper != null) {
+                    tmpNewUpper = tmpNewUpper.setScale(0, RoundingMode.FLOOR);
+                }
+            }
+
+            if ((tmpNewLower != null) && (tmpNewUpper != null) && (tmpNewLower.compareTo(tmpNewUpper) > 0)) {
+                this.markInfeasible(expression);
+            } else {
+                this.markRedundant(expression);
+                if (Presolver.isTighter(tmpNewLower, tmpOldLower, true) || Presolver.isTighter(tmpNewUpper, tmpOldUpper, false)) {
+                    this.changeLimits(tmpVariable, tmpNewLower, tmpNewUpper);
+                } else {
+                    this.enqueueColumn(index.index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows that are scalar multiples of each other are identified by a normalised key (the factors divided by
+     * the first factor). Of two such rows, the one whose limits are implied by the other is redundant.
+     */
+    private void removeDuplicateRows(final List<Expression> rows) {
+
+        final HashMap<String, Expression> tmpRowsByKey = new HashMap<String, Expression>();
+        final HashMap<Expression, BigDecimal> tmpScales = new HashMap<Expression, BigDecimal>();
+
+        for (final Expression tmpExpression : rows) {
+
+            if (tmpExpression.countLinearFactors() < 2) {
+                continue;
+            }
+
+            final TreeMap<Index, BigDecimal> tmpSorted = new TreeMap<Index, BigDecimal>();
+            for (final Index tmpKey : tmpExpression.getLinearFactorKeys()) {
+                final BigDecimal tmpFactor = tmpExpression.getLinearFactor(tmpKey);
+                if ((tmpFactor != null) && (tmpFactor.signum() != 0)) {
+                    tmpSorted.put(tmpKey, tmpFactor);
+                }
+            }
+            if (tmpSorted.size() < 2) {
+                continue;
+            }
+
+            final BigDecimal tmpScale = tmpSorted.firstEntry().getValue();
+            final StringBuilder tmpBuilder = new StringBuilder();
+            for (final Entry<Index, BigDecimal> tmpEntry : tmpSorted.entrySet()) {
+                tmpBuilder.append(tmpEntry.getKey().index).append(':');
+                tmpBuilder.append(tmpEntry.getValue().divide(tmpScale, CONTEXT).stripTrailingZeros().toString()).append(';');
+            }
+            final String tmpKey = tmpBuilder.toString();
+
+            tmpScales.put(tmpExpression, tmpScale);
+
+            final Expression tmpOther = tmpRowsByKey.get(tmpKey);
+            if (tmpOther == null) {
+                tmpRowsByKey.put(tmpKey, tmpExpression);
+                continue;
+            }
+
+            final BigDecimal[] tmpThis = Presolver.normalisedLimits(tmpExpression, tmpScale);
+            final BigDecimal[] tmpThat = Presolver.normalisedLimits(tmpOther, tmpScales.get(tmpOther));
+
+            if (Presolver.contains(tmpThis, tmpThat)) {
+                this.markRedundant(tmpExpression);
+            } else if (Presolver.contains(tmpThat, tmpThis)) {
+                this.markRedundant(tmpOther);
+                tmpRowsByKey.put(tmpKey, tmpExpression);
+            } else if (((tmpThis[0] != null) && (tmpThat[1] != null) && (tmpThis[0].compareTo(tmpThat[1]) > 0))
+                    || ((tmpThat[0] != null) && (tmpThis[1] != null) && (tmpThat[0].compareTo(tmpThis[1]) > 0))) {
+                this.markInfeasible(tmpExpression);
+                return;
+            }
+        }
+    }
+
+}
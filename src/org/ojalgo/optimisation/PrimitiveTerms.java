@@ -0,0 +1,361 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Compact storage of the (linear or quadratic) factors of an {@linkplain Expression}. The keys are primitive
+ * longs - the variable index for linear factors, and row/column packed in one long for quadratic factors. The
+ * values are stored as doubles, and optionally also as {@linkplain BigDecimal} (exact mode). An open
+ * addressing hash table maps keys to entries in the parallel key/value arrays, and an order index (entries in
+ * ascending key order) is maintained on every write. Terms are accessed by their position in that order, so
+ * iterating needs no boxing or hashing, and reading never modifies anything - instances shared between
+ * expression copies may be read concurrently.
+ *
+ * @author apete
+ */
+final class PrimitiveTerms {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    static long key(final int row, final int column) {
+        return (((long) row) << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    static int column(final long key) {
+        return (int) key;
+    }
+
+    static int row(final long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int hash(final long key) {
+        final long tmpMixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (tmpMixed ^ (tmpMixed >>> 32));
+    }
+
+    private BigDecimal[] myExact = null;
+    private long[] myKeys;
+    /**
+     * The entries in ascending key order
+     */
+    private int[] myOrder;
+    private int mySize = 0;
+    /**
+     * Entry + 1 of each key, 0 means empty slot
+     */
+    private int[] myTable;
+    private double[] myValues;
+
+    PrimitiveTerms() {
+
+        super();
+
+        myKeys = new long[INITIAL_CAPACITY];
+        myValues = new double[INITIAL_CAPACITY];
+        myOrder = new int[INITIAL_CAPACITY];
+        myTable = new int[2 * INITIAL_CAPACITY];
+    }
+
+    PrimitiveTerms(final PrimitiveTerms termsToCopy) {
+
+        super();
+
+        mySize = termsToCopy.mySize;
+
+        myKeys = Arrays.copyOf(termsToCopy.myKeys, termsToCopy.myKeys.length);
+        myValues = Arrays.copyOf(termsToCopy.myValues, termsToCopy.myValues.length);
+        myOrder = Arrays.copyOf(termsToCopy.myOrder, termsToCopy.myOrder.length);
+        myTable = Arrays.copyOf(termsToCopy.myTable, termsToCopy.myTable.length);
+        if (termsToCopy.myExact != null) {
+            myExact = Arrays.copyOf(termsToCopy.myExact, termsToCopy.myExact.length);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(myTable, 0);
+        if (myExact != null) {
+            Arrays.fill(myExact, null);
+        }
+        mySize = 0;
+    }
+
+    boolean contains(final long key) {
+        return this.entry(key) >= 0;
+    }
+
+    double doubleValue(final long key) {
+        final int tmpEntry = this.entry(key);
+        return tmpEntry >= 0 ? myValues[tmpEntry] : 0.0;
+    }
+
+    /**
+     * @param term The position in ascending key order
+     */
+    double doubleValueAt(final int term) {
+        return myValues[myOrder[term]];
+    }
+
+    /**
+     * @return The exact value if stored, otherwise the double value converted, or null if there is no such key
+     */
+    BigDecimal get(final long key) {
+        final int tmpEntry = this.entry(key);
+        if (tmpEntry >= 0) {
+            return this.getEntry(tmpEntry);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @param term The position in ascending key order
+     */
+    BigDecimal getAt(final int term) {
+        return this.getEntry(myOrder[term]);
+    }
+
+    boolean isExact() {
+        return myExact != null;
+    }
+
+    /**
+     * @param term The position in ascending key order
+     */
+    long keyAt(final int term) {
+        return myKeys[myOrder[term]];
+    }
+
+    /**
+     * Setting a value of zero removes the term. The exact value may be null.
+     */
+    void set(final long key, final double value, final BigDecimal exact) {
+
+        final int tmpEntry = this.entry(key);
+
+        if (value == 0.0) {
+
+            if (tmpEntry >= 0) {
+                this.remove(tmpEntry);
+            }
+
+        } else if (tmpEntry >= 0) {
+
+            myValues[tmpEntry] = value;
+            this.setExact(tmpEntry, exact);
+
+        } else {
+
+            if (mySize == myKeys.length) {
+                this.grow();
+            }
+
+            final int tmpNew = mySize;
+            myKeys[tmpNew] = key;
+            myValues[tmpNew] = value;
+            this.setExact(tmpNew, exact);
+            this.insert(key, tmpNew);
+
+            // Usually the keys are set in ascending order, and then it's just an append
+            final int tmpTerm = ((tmpNew == 0) || (myKeys[myOrder[tmpNew - 1]] < key)) ? tmpNew : this.term(key);
+            if (tmpTerm < tmpNew) {
+                System.arraycopy(myOrder, tmpTerm, myOrder, tmpTerm + 1, tmpNew - tmpTerm);
+            }
+            myOrder[tmpTerm] = tmpNew;
+
+            mySize++;
+        }
+    }
+
+    int size() {
+        return mySize;
+    }
+
+    /**
+     * @return The entry of the key, or -1 if not present
+     */
+    private int entry(final long key) {
+
+        final int tmpMask = myTable.length - 1;
+
+        int tmpSlot = PrimitiveTerms.hash(key) & tmpMask;
+        int tmpEntry;
+        while ((tmpEntry = myTable[tmpSlot]) != 0) {
+            if (myKeys[tmpEntry - 1] == key) {
+                return tmpEntry - 1;
+            }
+            tmpSlot = (tmpSlot + 1) & tmpMask;
+        }
+
+        return -1;
+    }
+
+    private BigDecimal getEntry(final int entry) {
+        if ((myExact != null) && (myExact[entry] != null)) {
+            return myExact[entry];
+        } else {
+            return BigDecimal.valueOf(myValues[entry]);
+        }
+    }
+
+    private void grow() {
+
+        final int tmpCapacity = 2 * myKeys.length;
+
+        myKeys = Arrays.copyOf(myKeys, tmpCapacity);
+        myValues = Arrays.copyOf(myValues, tmpCapacity);
+        myOrder = Arrays.copyOf(myOrder, tmpCapacity);
+        if (myExact != null) {
+            myExact = Arrays.copyOf(myExact, tmpCapacity);
+        }
+
+        this.rehash(2 * tmpCapacity);
+    }
+
+    private void insert(final long key, final int entry) {
+
+        final int tmpMask = myTable.length - 1;
+
+        int tmpSlot = PrimitiveTerms.hash(key) & tmpMask;
+        while (myTable[tmpSlot] != 0) {
+            tmpSlot = (tmpSlot + 1) & tmpMask;
+        }
+
+        myTable[tmpSlot] = entry + 1;
+    }
+
+    private void rehash(final int tableLength) {
+
+        myTable = new int[tableLength];
+
+        for (int i = 0; i < mySize; i++) {
+            this.insert(myKeys[i], i);
+        }
+    }
+
+    /**
+     * The key's slot is cleared using backward shift deletion (no tombstones, no rehash), and the last entry is
+     * moved into the freed entry - only that key's slot, and its place in the order, need to be updated.
+     */
+    private void remove(final int entry) {
+
+        final int tmpLast = mySize - 1;
+        final int tmpMask = myTable.length - 1;
+
+        final long tmpKey = myKeys[entry];
+
+        final int tmpTerm = this.term(tmpKey);
+        System.arraycopy(myOrder, tmpTerm + 1, myOrder, tmpTerm, tmpLast - tmpTerm);
+
+        int tmpHole = this.slot(tmpKey, entry);
+        int tmpSlot = tmpHole;
+        for (;;) {
+            tmpSlot = (tmpSlot + 1) & tmpMask;
+            final int tmpOccupant = myTable[tmpSlot];
+            if (tmpOccupant == 0) {
+                break;
+            }
+            final int tmpHome = PrimitiveTerms.hash(myKeys[tmpOccupant - 1]) & tmpMask;
+            // Stays if its home slot is cyclically in (hole, slot]
+            final boolean tmpStays = tmpHole <= tmpSlot ? ((tmpHole < tmpHome) && (tmpHome <= tmpSlot)) : ((tmpHole < tmpHome) || (tmpHome <= tmpSlot));
+            if (!tmpStays) {
+                myTable[tmpHole] = tmpOccupant;
+                tmpHole = tmpSlot;
+            }
+        }
+        myTable[tmpHole] = 0;
+
+        if (entry != tmpLast) {
+
+            final long tmpMovedKey = myKeys[tmpLast];
+
+            myTable[this.slot(tmpMovedKey, tmpLast)] = entry + 1;
+            myOrder[this.term(tmpMovedKey)] = entry;
+
+            myKeys[entry] = tmpMovedKey;
+            myValues[entry] = myValues[tmpLast];
+            if (myExact != null) {
+                myExact[entry] = myExact[tmpLast];
+            }
+        }
+        if (myExact != null) {
+            myExact[tmpLast] = null;
+        }
+
+        mySize = tmpLast;
+    }
+
+    private void setExact(final int entry, final BigDecimal exact) {
+        if (exact != null) {
+            if (myExact == null) {
+                myExact = new BigDecimal[myKeys.length];
+            }
+            myExact[entry] = exact;
+        } else if (myExact != null) {
+            myExact[entry] = null;
+        }
+    }
+
+    /**
+     * @return The table slot that refers to the entry (the key must be present)
+     */
+    private int slot(final long key, final int entry) {
+
+        final int tmpMask = myTable.length - 1;
+
+        int tmpSlot = PrimitiveTerms.hash(key) & tmpMask;
+        while (myTable[tmpSlot] != (entry + 1)) {
+            tmpSlot = (tmpSlot + 1) & tmpMask;
+        }
+
+        return tmpSlot;
+    }
+
+    /**
+     * Binary search in the order index
+     *
+     * @return The key's position in ascending key order, or where it would be inserted
+     */
+    private int term(final long key) {
+
+        int tmpLow = 0;
+        int tmpHigh = mySize - 1;
+
+        while (tmpLow <= tmpHigh) {
+            final int tmpMid = (tmpLow + tmpHigh) >>> 1;
+            final long tmpMidKey = myKeys[myOrder[tmpMid]];
+            if (tmpMidKey < key) {
+                tmpLow = tmpMid + 1;
+            } else if (tmpMidKey > key) {
+                tmpHigh = tmpMid - 1;
+            } else {
+                return tmpMid;
+            }
+        }
+
+        return tmpLow;
+    }
+
+}
@@ -415,7 +415,7 @@ final class ActiveSetSolver extends ConvexSolver {
 
         final Input tmpInput = this.buildDelegateSolverInput();
         final KKTSolver tmpSolver = this.getDelegateSolver(tmpInput);
-        final Output tmpOutput = tmpSolver.solve(tmpInput, options);
+        final Output tmpOutput = this.solveDelegate(tmpSolver, tmpInput);
 
         if (this.isDebug()) {
             this.debug("X/L: {}", tmpOutput);
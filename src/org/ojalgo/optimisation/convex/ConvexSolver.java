@@ -21,14 +21,10 @@
  */
 package org.ojalgo.optimisation.convex;
 
-import static org.ojalgo.function.PrimitiveFunction.*;
-
 import java.util.List;
 import java.util.Set;
 
 import org.ojalgo.access.Access1D;
-import org.ojalgo.function.BinaryFunction;
-import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
@@ -122,18 +118,7 @@ public abstract class ConvexSolver extends BaseSolver {
 
     public static void copy(final ExpressionsBasedModel sourceModel, final ConvexSolver.Builder destinationBuilder) {
 
-        final List<Variable> tmpFreeVariables = sourceModel.getFreeVariables();
-        final Set<Index> tmpFixedVariables = sourceModel.getFixedVariables();
-        final int tmpFreeVarDim = tmpFreeVariables.size();
-
-        //        final Array1D<Double> tmpCurrentSolution = Array1D.PRIMITIVE.makeZero(tmpFreeVarDim);
-        //        for (int i = 0; i < tmpFreeVariables.size(); i++) {
-        //            final BigDecimal tmpValue = tmpFreeVariables.get(i).getValue();
-        //            if (tmpValue != null) {
-        //                tmpCurrentSolution.set(i, tmpValue.doubleValue());
-        //            }
-        //        }
-        //        final Optimisation.Result tmpKickStarter = new Optimisation.Result(Optimisation.State.UNEXPLORED, Double.NaN, tmpCurrentSolution);
+        final int tmpFreeVarDim = sourceModel.getFreeVariables().size();
 
         // AE & BE
 
@@ -145,18 +130,7 @@ public abstract class ConvexSolver extends BaseSolver {
             final PhysicalStore<Double> tmpAE = FACTORY.makeZero(tmpEqExprDim, tmpFreeVarDim);
             final PhysicalStore<Double> tmpBE = FACTORY.makeZero(tmpEqExprDim, 1);
 
-            for (int i = 0; i < tmpEqExprDim; i++) {
-
-                final Expression tmpExpression = tmpEqExpr.get(i);
-
-                for (final Expression.Index tmpKey : tmpExpression.getLinearFactorKeys()) {
-                    final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                    if (tmpIndex >= 0) {
-                        tmpAE.set(i, tmpIndex, tmpExpression.getAdjustedLinearFactor(tmpKey));
-                    }
-                }
-                tmpBE.set(i, 0, tmpExpression.getCompensatedUpperLimit(tmpFixedVariables));
-            }
+            ConvexSolver.fillEqualities(sourceModel, tmpEqExpr, tmpAE, tmpBE);
 
             destinationBuilder.equalities(tmpAE, tmpBE);
         }
@@ -168,113 +142,218 @@ public abstract class ConvexSolver extends BaseSolver {
         PhysicalStore<Double> tmpQ = null;
         if (tmpObjExpr.isAnyQuadraticFactorNonZero()) {
             tmpQ = FACTORY.makeZero(tmpFreeVarDim, tmpFreeVarDim);
-
-            final BinaryFunction<Double> tmpBaseFunc = sourceModel.isMaximisation() ? SUBTRACT : ADD;
-            UnaryFunction<Double> tmpModifier;
-            for (final Expression.RowColumn tmpKey : tmpObjExpr.getQuadraticFactorKeys()) {
-                final int tmpRow = sourceModel.indexOfFreeVariable(tmpKey.row);
-                final int tmpColumn = sourceModel.indexOfFreeVariable(tmpKey.column);
-                if ((tmpRow >= 0) && (tmpColumn >= 0)) {
-                    tmpModifier = tmpBaseFunc.second(tmpObjExpr.getAdjustedQuadraticFactor(tmpKey));
-                    tmpQ.modifyOne(tmpRow, tmpColumn, tmpModifier);
-                    tmpQ.modifyOne(tmpColumn, tmpRow, tmpModifier);
-                }
-            }
         }
 
         PhysicalStore<Double> tmpC = null;
         if (tmpObjExpr.isAnyLinearFactorNonZero()) {
             tmpC = FACTORY.makeZero(tmpFreeVarDim, 1);
-            if (sourceModel.isMinimisation()) {
-                for (final Expression.Index tmpKey : tmpObjExpr.getLinearFactorKeys()) {
-                    final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                    if (tmpIndex >= 0) {
-                        tmpC.set(tmpIndex, 0, -tmpObjExpr.getAdjustedLinearFactor(tmpKey));
-                    }
-                }
-            } else {
-                for (final Expression.Index tmpKey : tmpObjExpr.getLinearFactorKeys()) {
-                    final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                    if (tmpIndex >= 0) {
-                        tmpC.set(tmpIndex, 0, tmpObjExpr.getAdjustedLinearFactor(tmpKey));
-                    }
-                }
-            }
         }
 
+        ConvexSolver.fillObjective(sourceModel, tmpQ, tmpC);
+
         destinationBuilder.objective(tmpQ, tmpC);
 
         // AI & BI
 
         final List<Expression> tmpUpExpr = sourceModel.selectExpressionsLinearUpper();
-        final int tmpUpExprDim = tmpUpExpr.size();
         final List<Variable> tmpUpVar = sourceModel.selectVariablesFreeUpper();
-        final int tmpUpVarDim = tmpUpVar.size();
+        final List<Expression> tmpLoExpr = sourceModel.selectExpressionsLinearLower();
+        final List<Variable> tmpLoVar = sourceModel.selectVariablesFreeLower();
+
+        final int tmpIneqDim = tmpUpExpr.size() + tmpUpVar.size() + tmpLoExpr.size() + tmpLoVar.size();
+
+        if (tmpIneqDim > 0) {
+
+            final PhysicalStore<Double> tmpAI = FACTORY.makeZero(tmpIneqDim, tmpFreeVarDim);
+            final PhysicalStore<Double> tmpBI = FACTORY.makeZero(tmpIneqDim, 1);
+
+            ConvexSolver.fillInequalities(sourceModel, tmpUpExpr, tmpUpVar, tmpLoExpr, tmpLoVar, tmpAI, tmpBI);
+
+            destinationBuilder.inequalities(tmpAI, tmpBI);
+        }
+    }
 
+    public static ConvexSolver.Builder getBuilder() {
+        return new ConvexSolver.Builder();
+    }
+
+    /**
+     * Writes the current parameters (constraint factors, limits and objective) of the model to the matrices of a
+     * builder previously populated by {@link #copy(ExpressionsBasedModel, Builder)}, without allocating anything.
+     * This is only valid if the model's structure is unchanged - the same free variables and the same constraints
+     * with the same sparsity pattern.
+     *
+     * @return false if the builder's matrices don't match the model (and then nothing is guaranteed about their
+     *         contents) - use {@link #copy(ExpressionsBasedModel, Builder)} with a new builder instead.
+     */
+    public static boolean update(final ExpressionsBasedModel sourceModel, final ConvexSolver.Builder destinationBuilder) {
+
+        final int tmpFreeVarDim = sourceModel.getFreeVariables().size();
+
+        if (destinationBuilder.countVariables() != tmpFreeVarDim) {
+            return false;
+        }
+
+        final List<Expression> tmpEqExpr = sourceModel.selectExpressionsLinearEquality();
+
+        if (tmpEqExpr.size() > 0) {
+            final MatrixStore<Double> tmpAE = destinationBuilder.getAE();
+            final MatrixStore<Double> tmpBE = destinationBuilder.getBE();
+            if (!ConvexSolver.isUpdatable(tmpAE, tmpEqExpr.size()) || !ConvexSolver.isUpdatable(tmpBE, tmpEqExpr.size())) {
+                return false;
+            }
+            ConvexSolver.fillEqualities(sourceModel, tmpEqExpr, (PhysicalStore<Double>) tmpAE, (PhysicalStore<Double>) tmpBE);
+        } else if (destinationBuilder.hasEqualityConstraints()) {
+            return false;
+        }
+
+        final Expression tmpObjExpr = sourceModel.getObjectiveExpression();
+
+        PhysicalStore<Double> tmpQ = null;
+        if (tmpObjExpr.isAnyQuadraticFactorNonZero()) {
+            final MatrixStore<Double> tmpStore = destinationBuilder.getQ();
+            if (!ConvexSolver.isUpdatable(tmpStore, tmpFreeVarDim)) {
+                return false;
+            }
+            tmpQ = (PhysicalStore<Double>) tmpStore;
+            tmpQ.fillAll(0.0);
+        }
+
+        PhysicalStore<Double> tmpC = null;
+        if (tmpObjExpr.isAnyLinearFactorNonZero()) {
+            final MatrixStore<Double> tmpStore = destinationBuilder.getC();
+            if (!ConvexSolver.isUpdatable(tmpStore, tmpFreeVarDim)) {
+                return false;
+            }
+            tmpC = (PhysicalStore<Double>) tmpStore;
+            tmpC.fillAll(0.0);
+        } else if (destinationBuilder.getC() instanceof PhysicalStore<?>) {
+            ((PhysicalStore<Double>) destinationBuilder.getC()).fillAll(0.0);
+        }
+
+        ConvexSolver.fillObjective(sourceModel, tmpQ, tmpC);
+
+        final List<Expression> tmpUpExpr = sourceModel.selectExpressionsLinearUpper();
+        final List<Variable> tmpUpVar = sourceModel.selectVariablesFreeUpper();
         final List<Expression> tmpLoExpr = sourceModel.selectExpressionsLinearLower();
-        final int tmpLoExprDim = tmpLoExpr.size();
         final List<Variable> tmpLoVar = sourceModel.selectVariablesFreeLower();
-        final int tmpLoVarDim = tmpLoVar.size();
-
-        if ((tmpUpExprDim + tmpUpVarDim + tmpLoExprDim + tmpLoVarDim) > 0) {
-
-            final PhysicalStore<Double> tmpUAI = FACTORY.makeZero(tmpUpExprDim + tmpUpVarDim, tmpFreeVarDim);
-            final PhysicalStore<Double> tmpUBI = FACTORY.makeZero(tmpUpExprDim + tmpUpVarDim, 1);
-
-            if (tmpUpExprDim > 0) {
-                for (int i = 0; i < tmpUpExprDim; i++) {
-                    final Expression tmpExpression = tmpUpExpr.get(i);
-                    for (final Expression.Index tmpKey : tmpExpression.getLinearFactorKeys()) {
-                        final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                        if (tmpIndex >= 0) {
-                            tmpUAI.set(i, tmpIndex, tmpExpression.getAdjustedLinearFactor(tmpKey));
-                        }
-                    }
-                    tmpUBI.set(i, 0, tmpExpression.getCompensatedUpperLimit(tmpFixedVariables));
-                }
+
+        final int tmpIneqDim = tmpUpExpr.size() + tmpUpVar.size() + tmpLoExpr.size() + tmpLoVar.size();
+
+        if (tmpIneqDim > 0) {
+            final MatrixStore<Double> tmpAI = destinationBuilder.getAI();
+            final MatrixStore<Double> tmpBI = destinationBuilder.getBI();
+            if (!ConvexSolver.isUpdatable(tmpAI, tmpIneqDim) || !ConvexSolver.isUpdatable(tmpBI, tmpIneqDim)) {
+                return false;
             }
+            ConvexSolver.fillInequalities(sourceModel, tmpUpExpr, tmpUpVar, tmpLoExpr, tmpLoVar, (PhysicalStore<Double>) tmpAI, (PhysicalStore<Double>) tmpBI);
+        } else if (destinationBuilder.hasInequalityConstraints()) {
+            return false;
+        }
+
+        destinationBuilder.resetLE();
+        destinationBuilder.resetLI();
+
+        return true;
+    }
+
+    /**
+     * Only the (adjusted) constraint factors that are actually there are set - the other matrix elements are
+     * assumed to already be zero.
+     */
+    private static void fillEqualities(final ExpressionsBasedModel sourceModel, final List<Expression> equalities, final PhysicalStore<Double> AE,
+            final PhysicalStore<Double> BE) {
+
+        final Set<Index> tmpFixedVariables = sourceModel.getFixedVariables();
+
+        for (int i = 0; i < equalities.size(); i++) {
 
-            if (tmpUpVarDim > 0) {
-                for (int i = 0; i < tmpUpVarDim; i++) {
-                    final Variable tmpVariable = tmpUpVar.get(i);
-                    tmpUAI.set(tmpUpExprDim + i, sourceModel.indexOfFreeVariable(tmpVariable), tmpVariable.getAdjustmentFactor());
-                    tmpUBI.set(tmpUpExprDim + i, 0, tmpVariable.getAdjustedUpperLimit());
+            final Expression tmpExpression = equalities.get(i);
+
+            for (int t = 0; t < tmpExpression.countLinearFactors(); t++) {
+                final int tmpIndex = sourceModel.indexOfFreeVariable(tmpExpression.getLinearTermIndex(t));
+                if (tmpIndex >= 0) {
+                    AE.set(i, tmpIndex, tmpExpression.getAdjustedLinearTermFactor(t));
                 }
             }
+            BE.set(i, 0, tmpExpression.getCompensatedUpperLimit(tmpFixedVariables));
+        }
+    }
+
+    private static void fillInequalities(final ExpressionsBasedModel sourceModel, final List<Expression> upperExpressions, final List<Variable> upperVariables,
+            final List<Expression> lowerExpressions, final List<Variable> lowerVariables, final PhysicalStore<Double> AI, final PhysicalStore<Double> BI) {
+
+        final Set<Index> tmpFixedVariables = sourceModel.getFixedVariables();
+
+        int tmpRow = 0;
 
-            final PhysicalStore<Double> tmpLAI = FACTORY.makeZero(tmpLoExprDim + tmpLoVarDim, tmpFreeVarDim);
-            final PhysicalStore<Double> tmpLBI = FACTORY.makeZero(tmpLoExprDim + tmpLoVarDim, 1);
-
-            if (tmpLoExprDim > 0) {
-                for (int i = 0; i < tmpLoExprDim; i++) {
-                    final Expression tmpExpression = tmpLoExpr.get(i);
-                    for (final Expression.Index tmpKey : tmpExpression.getLinearFactorKeys()) {
-                        final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                        if (tmpIndex >= 0) {
-                            tmpLAI.set(i, tmpIndex, -tmpExpression.getAdjustedLinearFactor(tmpKey));
-                        }
-                    }
-                    tmpLBI.set(i, 0, -tmpExpression.getCompensatedLowerLimit(tmpFixedVariables));
+        for (int i = 0; i < upperExpressions.size(); i++, tmpRow++) {
+            final Expression tmpExpression = upperExpressions.get(i);
+            for (int t = 0; t < tmpExpression.countLinearFactors(); t++) {
+                final int tmpIndex = sourceModel.indexOfFreeVariable(tmpExpression.getLinearTermIndex(t));
+                if (tmpIndex >= 0) {
+                    AI.set(tmpRow, tmpIndex, tmpExpression.getAdjustedLinearTermFactor(t));
                 }
             }
+            BI.set(tmpRow, 0, tmpExpression.getCompensatedUpperLimit(tmpFixedVariables));
+        }
+
+        for (int i = 0; i < upperVariables.size(); i++, tmpRow++) {
+            final Variable tmpVariable = upperVariables.get(i);
+            AI.set(tmpRow, sourceModel.indexOfFreeVariable(tmpVariable), tmpVariable.getAdjustmentFactor());
+            BI.set(tmpRow, 0, tmpVariable.getAdjustedUpperLimit());
+        }
 
-            if (tmpLoVarDim > 0) {
-                for (int i = 0; i < tmpLoVarDim; i++) {
-                    final Variable tmpVariable = tmpLoVar.get(i);
-                    tmpLAI.set(tmpLoExprDim + i, sourceModel.indexOfFreeVariable(tmpVariable), -tmpVariable.getAdjustmentFactor());
-                    tmpLBI.set(tmpLoExprDim + i, 0, -tmpVariable.getAdjustedLowerLimit());
+        for (int i = 0; i < lowerExpressions.size(); i++, tmpRow++) {
+            final Expression tmpExpression = lowerExpressions.get(i);
+            for (int t = 0; t < tmpExpression.countLinearFactors(); t++) {
+                final int tmpIndex = sourceModel.indexOfFreeVariable(tmpExpression.getLinearTermIndex(t));
+                if (tmpIndex >= 0) {
+                    AI.set(tmpRow, tmpIndex, -tmpExpression.getAdjustedLinearTermFactor(t));
                 }
             }
+            BI.set(tmpRow, 0, -tmpExpression.getCompensatedLowerLimit(tmpFixedVariables));
+        }
 
-            final MatrixStore<Double> tmpAI = tmpLAI.builder().above(tmpUAI).build();
-            final MatrixStore<Double> tmpBI = tmpLBI.builder().above(tmpUBI).build();
+        for (int i = 0; i < lowerVariables.size(); i++, tmpRow++) {
+            final Variable tmpVariable = lowerVariables.get(i);
+            AI.set(tmpRow, sourceModel.indexOfFreeVariable(tmpVariable), -tmpVariable.getAdjustmentFactor());
+            BI.set(tmpRow, 0, -tmpVariable.getAdjustedLowerLimit());
+        }
+    }
 
-            destinationBuilder.inequalities(tmpAI, tmpBI);
+    /**
+     * Q and/or C may be null, otherwise they must be all zeros.
+     */
+    private static void fillObjective(final ExpressionsBasedModel sourceModel, final PhysicalStore<Double> Q, final PhysicalStore<Double> C) {
+
+        final Expression tmpObjExpr = sourceModel.getObjectiveExpression();
+        final boolean tmpNegate = sourceModel.isMaximisation();
+
+        if (Q != null) {
+            for (int t = 0; t < tmpObjExpr.countQuadraticFactors(); t++) {
+                final int tmpRow = sourceModel.indexOfFreeVariable(tmpObjExpr.getQuadraticTermRow(t));
+                final int tmpColumn = sourceModel.indexOfFreeVariable(tmpObjExpr.getQuadraticTermColumn(t));
+                if ((tmpRow >= 0) && (tmpColumn >= 0)) {
+                    final double tmpFactor = tmpNegate ? -tmpObjExpr.getAdjustedQuadraticTermFactor(t) : tmpObjExpr.getAdjustedQuadraticTermFactor(t);
+                    Q.set(tmpRow, tmpColumn, Q.doubleValue(tmpRow, tmpColumn) + tmpFactor);
+                    Q.set(tmpColumn, tmpRow, Q.doubleValue(tmpColumn, tmpRow) + tmpFactor);
+                }
+            }
+        }
+
+        if (C != null) {
+            for (int t = 0; t < tmpObjExpr.countLinearFactors(); t++) {
+                final int tmpIndex = sourceModel.indexOfFreeVariable(tmpObjExpr.getLinearTermIndex(t));
+                if (tmpIndex >= 0) {
+                    C.set(tmpIndex, 0, tmpNegate ? tmpObjExpr.getAdjustedLinearTermFactor(t) : -tmpObjExpr.getAdjustedLinearTermFactor(t));
+                }
+            }
         }
     }
 
-    public static ConvexSolver.Builder getBuilder() {
-        return new ConvexSolver.Builder();
+    private static boolean isUpdatable(final MatrixStore<Double> matrix, final int rows) {
+        return (matrix instanceof PhysicalStore<?>) && (matrix.countRows() == rows);
     }
 
     static final PhysicalStore.Factory<Double, PrimitiveDenseStore> FACTORY = PrimitiveDenseStore.FACTORY;
@@ -285,6 +364,15 @@ public abstract class ConvexSolver extends BaseSolver {
         super(matrices, solverOptions);
     }
 
+    /**
+     * Discards anything cached that was derived from the matrices - call it if they were modified in place (as
+     * with {@link #update(ExpressionsBasedModel, Builder)}). The current solution is kept, to be used as a
+     * kick-starter.
+     */
+    public final void reset() {
+        myDelegateSolver = null;
+    }
+
     public final Optimisation.Result solve(final Optimisation.Result kickStarter) {
 
         boolean tmpContinue = true;
@@ -301,16 +389,24 @@ public abstract class ConvexSolver extends BaseSolver {
 
             this.resetIterationsCount();
 
+            this.progress(Optimisation.Progress.Event.STARTED);
+
             do {
 
                 this.performIteration();
 
                 this.incrementIterationsCount();
 
+                this.progress(Optimisation.Progress.Event.ITERATION);
+
             } while (!this.getState().isFailure() && this.needsAnotherIteration() && this.isIterationAllowed());
         }
 
-        return this.buildResult();
+        final Optimisation.Result retVal = this.buildResult();
+
+        this.progress(Optimisation.Progress.Event.FINISHED);
+
+        return retVal;
     }
 
     @Override
@@ -337,6 +433,22 @@ public abstract class ConvexSolver extends BaseSolver {
         return myDelegateSolver;
     }
 
+    /**
+     * Solves the KKT system, timing it as {@linkplain Optimisation.Progress.Phase#FACTORISATION} and counting it as a
+     * factorisation.
+     */
+    final KKTSolver.Output solveDelegate(final KKTSolver solver, final KKTSolver.Input input) {
+
+        final long tmpStart = System.nanoTime();
+
+        final KKTSolver.Output retVal = solver.solve(input, options);
+
+        this.addPhaseTime(Optimisation.Progress.Phase.FACTORISATION, tmpStart);
+        this.incrementFactorisationsCount();
+
+        return retVal;
+    }
+
     final MatrixStore<Double> getSolutionLE() {
         return this.getLE();
     }
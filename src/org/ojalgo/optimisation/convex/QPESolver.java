@@ -87,7 +87,7 @@ final class QPESolver extends ConvexSolver {
 
         final KKTSolver tmpSolver = this.getDelegateSolver(tmpInput);
 
-        final KKTSolver.Output tmpOutput = tmpSolver.solve(tmpInput, options);
+        final KKTSolver.Output tmpOutput = this.solveDelegate(tmpSolver, tmpInput);
 
         if (tmpOutput.isSolvable()) {
 
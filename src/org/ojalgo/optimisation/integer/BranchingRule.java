@@ -0,0 +1,367 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.ojalgo.access.AccessUtils;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+
+/**
+ * Selects the (integer) variable to branch on at a node. Any rule returns -1 if the node solution is integer, and
+ * otherwise the index (among the integer variables) of a variable with a fractional solution value.
+ *
+ * @author apete
+ */
+abstract class BranchingRule {
+
+    /**
+     * The fraction (distance to nearest integer) weighted with the magnitude of the objective function gradient. This
+     * was the only rule before pseudo-costs were introduced, and is still the default. Cheap, but does not learn
+     * anything from the tree search.
+     */
+    static final class MostFractional extends BranchingRule {
+
+        @Override
+        public String toString() {
+            return "Most Fractional";
+        }
+
+        @Override
+        int select(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution, final double nodeValue) {
+
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+            final MatrixStore<Double> tmpGradient = solver.getGradient(AccessUtils.asPrimitive1D(nodeSolution));
+
+            int retVal = -1;
+
+            double tmpFraction, tmpWeightedFraction;
+            double tmpMaxFraction = ZERO;
+
+            for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+
+                tmpFraction = nodeKey.getFraction(i, nodeSolution.doubleValue(tmpIntegerIndeces[i]));
+                tmpWeightedFraction = tmpFraction * (ONE + Math.abs(tmpGradient.doubleValue(tmpIntegerIndeces[i])));
+
+                if ((tmpWeightedFraction > tmpMaxFraction) && !solver.options.integer.isZero(tmpWeightedFraction)) {
+                    retVal = i;
+                    tmpMaxFraction = tmpWeightedFraction;
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * Estimates the objective function degradation of the two child nodes using the pseudo-costs (learnt from the
+     * nodes solved so far, by all threads) and picks the variable with the largest product score.
+     */
+    static final class PseudoCost extends BranchingRule {
+
+        @Override
+        public String toString() {
+            return "Pseudo-Cost";
+        }
+
+        @Override
+        int select(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution, final double nodeValue) {
+
+            final int[] tmpCandidates = this.getCandidates(solver, nodeKey, nodeSolution);
+            final PseudoCosts tmpPseudoCosts = solver.getPseudoCosts();
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+            int retVal = -1;
+            double tmpMaxScore = NEGATIVE_INFINITY;
+
+            for (int c = 0; c < tmpCandidates.length; c++) {
+                final int tmpIndex = tmpCandidates[c];
+                final double tmpScore = BranchingRule.estimate(tmpPseudoCosts, tmpIndex, nodeSolution.doubleValue(tmpIntegerIndeces[tmpIndex]));
+                if (tmpScore > tmpMaxScore) {
+                    retVal = tmpIndex;
+                    tmpMaxScore = tmpScore;
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * Pseudo-cost branching, but variables with unreliable pseudo-costs (too few observations in either direction)
+     * among the best candidates are evaluated using strong branching - as long as the strong branching budget allows.
+     * The strong branching results also update the pseudo-costs.
+     */
+    static final class Reliability extends BranchingRule {
+
+        @Override
+        public String toString() {
+            return "Reliability";
+        }
+
+        @Override
+        int select(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution, final double nodeValue) {
+
+            final int[] tmpCandidates = this.getCandidates(solver, nodeKey, nodeSolution);
+            final PseudoCosts tmpPseudoCosts = solver.getPseudoCosts();
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+            if (tmpCandidates.length == 0) {
+                return -1;
+            }
+
+            final double[] tmpScores = new double[tmpCandidates.length];
+            for (int c = 0; c < tmpCandidates.length; c++) {
+                tmpScores[c] = BranchingRule.estimate(tmpPseudoCosts, tmpCandidates[c], nodeSolution.doubleValue(tmpIntegerIndeces[tmpCandidates[c]]));
+            }
+
+            final Integer[] tmpOrder = BranchingRule.sort(tmpScores);
+
+            int retVal = tmpCandidates[tmpOrder[0]];
+            double tmpMaxScore = tmpScores[tmpOrder[0]];
+
+            for (int o = 0; (o < tmpOrder.length) && (o < LOOKAHEAD); o++) {
+
+                final int tmpIndex = tmpCandidates[tmpOrder[o]];
+
+                if ((tmpPseudoCosts.countReliable(tmpIndex) < RELIABILITY) && tmpPseudoCosts.isStrongBranchingAllowed(BUDGET_BASE, BUDGET_QUOTA)) {
+
+                    final double tmpScore = this.evaluate(solver, nodeKey, nodeSolution, nodeValue, tmpIndex);
+
+                    if (tmpScore > tmpMaxScore) {
+                        retVal = tmpIndex;
+                        tmpMaxScore = tmpScore;
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * Limited strong branching: the most fractional candidates are evaluated by actually solving child LP:s. Best
+     * branching decisions per node, but expensive - the number of child LP:s solved is capped by the strong branching
+     * budget, and pseudo-costs are used when it is exhausted.
+     */
+    static final class Strong extends BranchingRule {
+
+        @Override
+        public String toString() {
+            return "Strong";
+        }
+
+        @Override
+        int select(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution, final double nodeValue) {
+
+            final int[] tmpCandidates = this.getCandidates(solver, nodeKey, nodeSolution);
+            final PseudoCosts tmpPseudoCosts = solver.getPseudoCosts();
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+            if (tmpCandidates.length == 0) {
+                return -1;
+            }
+
+            final double[] tmpFractions = new double[tmpCandidates.length];
+            for (int c = 0; c < tmpCandidates.length; c++) {
+                tmpFractions[c] = nodeKey.getFraction(tmpCandidates[c], nodeSolution.doubleValue(tmpIntegerIndeces[tmpCandidates[c]]));
+            }
+
+            final Integer[] tmpOrder = BranchingRule.sort(tmpFractions);
+
+            int retVal = -1;
+            double tmpMaxScore = NEGATIVE_INFINITY;
+
+            for (int o = 0; o < tmpOrder.length; o++) {
+
+                final int tmpIndex = tmpCandidates[tmpOrder[o]];
+
+                double tmpScore;
+                if ((o < LOOKAHEAD) && tmpPseudoCosts.isStrongBranchingAllowed(BUDGET_BASE, BUDGET_QUOTA)) {
+                    tmpScore = this.evaluate(solver, nodeKey, nodeSolution, nodeValue, tmpIndex);
+                } else {
+                    tmpScore = BranchingRule.estimate(tmpPseudoCosts, tmpIndex, nodeSolution.doubleValue(tmpIntegerIndeces[tmpIndex]));
+                }
+
+                if (tmpScore > tmpMaxScore) {
+                    retVal = tmpIndex;
+                    tmpMaxScore = tmpScore;
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * Strong branching allowance: base number of child LP:s
+     */
+    static final int BUDGET_BASE = 16;
+    /**
+     * Strong branching allowance: additional child LP:s per solved node
+     */
+    static final double BUDGET_QUOTA = HALF;
+    /**
+     * Max number of candidates to strong branch on at any one node
+     */
+    static final int LOOKAHEAD = 8;
+    /**
+     * Number of observations, in both directions, required for the pseudo-costs of a variable to be trusted
+     */
+    static final int RELIABILITY = 4;
+
+    private static final double EPSILON = 1E-6;
+
+    static BranchingRule make(final Optimisation.Options.Branching branching) {
+        if (branching != null) {
+            switch (branching) {
+            case PSEUDO_COST:
+                return new PseudoCost();
+            case RELIABILITY:
+                return new Reliability();
+            case STRONG:
+                return new Strong();
+            default:
+                break;
+            }
+        }
+        return new MostFractional();
+    }
+
+    /**
+     * The product score commonly used to combine the down and up degradations
+     */
+    static double score(final double down, final double up) {
+        return Math.max(down, EPSILON) * Math.max(up, EPSILON);
+    }
+
+    private static double estimate(final PseudoCosts pseudoCosts, final int index, final double value) {
+
+        final double tmpDown = value - Math.floor(value);
+        final double tmpUp = Math.ceil(value) - value;
+
+        return BranchingRule.score(tmpDown * pseudoCosts.getDown(index), tmpUp * pseudoCosts.getUp(index));
+    }
+
+    /**
+     * @return Indeces (positions) of the values, ordered by decreasing value
+     */
+    private static Integer[] sort(final double[] values) {
+
+        final Integer[] retVal = new Integer[values.length];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = i;
+        }
+
+        Arrays.sort(retVal, new Comparator<Integer>() {
+
+            public int compare(final Integer o1, final Integer o2) {
+                return Double.compare(values[o2], values[o1]);
+            }
+
+        });
+
+        return retVal;
+    }
+
+    BranchingRule() {
+        super();
+    }
+
+    /**
+     * Strong branching on one variable - solves both child node LP:s, and records the degradations with the
+     * pseudo-costs. The parent node solution is passed along to the node models, but the (primal simplex) LP solver
+     * does not make use of it - each child LP is solved from scratch.
+     *
+     * @return The product score of the two degradations (an infeasible child counts as an infinite degradation)
+     */
+    final double evaluate(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution, final double nodeValue,
+            final int index) {
+
+        final double tmpValue = nodeSolution.doubleValue(solver.getIntegerIndeces()[index]);
+
+        final NodeKey tmpLower = nodeKey.createLowerBranch(index, tmpValue, nodeValue);
+        final NodeKey tmpUpper = nodeKey.createUpperBranch(index, tmpValue, nodeValue);
+
+        final double tmpDown = this.degradation(solver, tmpLower, nodeSolution, nodeValue);
+        final double tmpUp = this.degradation(solver, tmpUpper, nodeSolution, nodeValue);
+
+        return BranchingRule.score(tmpDown, tmpUp);
+    }
+
+    /**
+     * @return Indeces (among the integer variables) of the variables with fractional node solution values
+     */
+    final int[] getCandidates(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+        final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+        final int[] retVal = new int[tmpIntegerIndeces.length];
+        int tmpCount = 0;
+
+        for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+            if (!solver.options.integer.isZero(nodeKey.getFraction(i, nodeSolution.doubleValue(tmpIntegerIndeces[i])))) {
+                retVal[tmpCount++] = i;
+            }
+        }
+
+        return Arrays.copyOf(retVal, tmpCount);
+    }
+
+    /**
+     * @param nodeValue The objective function value of the parent node solution
+     * @return The index of the integer variable to branch on, or -1 if the node solution is integer
+     */
+    abstract int select(IntegerSolver solver, NodeKey nodeKey, Optimisation.Result nodeSolution, double nodeValue);
+
+    private double degradation(final IntegerSolver solver, final NodeKey childKey, final Optimisation.Result nodeSolution, final double nodeValue) {
+
+        double retVal = POSITIVE_INFINITY;
+
+        if (solver.presolve(childKey)) {
+
+            final ExpressionsBasedModel tmpModel = solver.makeNodeModel(childKey);
+            final Optimisation.Result tmpResult = tmpModel.solve(nodeSolution);
+            tmpModel.destroy();
+
+            if (tmpResult.getState().isOptimal()) {
+                retVal = Math.abs(solver.evaluateFunction(tmpResult) - nodeValue);
+            } else if (tmpResult.getState() != Optimisation.State.INFEASIBLE) {
+                retVal = NaN;
+            }
+        }
+
+        solver.getPseudoCosts().updateStrong(childKey.index, childKey.displacement, retVal);
+
+        return Double.isNaN(retVal) ? ZERO : retVal;
+    }
+
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import org.ojalgo.access.Access1D;
+
+/**
+ * Separates cutting planes, from the rows of a {@linkplain NodePresolver}, that are violated by a (root node) LP
+ * solution. The rows are processed in &lt;= form; lower limits are negated and equalities are used both ways.
+ *
+ * @author apete
+ */
+abstract class CutGenerator {
+
+    /**
+     * Knapsack cover cuts. Rows that (after bound substitution of any non-binary variables) only contain binary
+     * variables are treated as knapsack constraints. A minimal cover, C, is found greedily and the cover inequality
+     * sum(x<sub>j</sub>, j in C) &lt;= |C| - 1 is generated. Binaries with negative coefficients are complemented.
+     */
+    static final class Cover extends CutGenerator {
+
+        Cover() {
+            super();
+        }
+
+        @Override
+        CutPool.Cut separate(final NodePresolver rows, final Access1D<?> solution, final int[] indeces, final double[] factors, final double upper) {
+
+            final int tmpLength = indeces.length;
+
+            final int[] tmpItems = new int[tmpLength];
+            final double[] tmpWeights = new double[tmpLength];
+            final boolean[] tmpComplemented = new boolean[tmpLength];
+            final double[] tmpValues = new double[tmpLength];
+            int tmpCount = 0;
+            double tmpCapacity = upper;
+
+            for (int t = 0; t < tmpLength; t++) {
+
+                final int tmpIndex = indeces[t];
+                final double tmpFactor = factors[t];
+                final double tmpLower = rows.getLower(tmpIndex);
+                final double tmpUpper = rows.getUpper(tmpIndex);
+
+                if (tmpFactor == ZERO) {
+                    continue;
+                } else if (rows.isInteger(tmpIndex) && (tmpLower == ZERO) && (tmpUpper == ONE)) {
+                    tmpItems[tmpCount] = t;
+                    if (tmpFactor > ZERO) {
+                        tmpWeights[tmpCount] = tmpFactor;
+                        tmpValues[tmpCount] = solution.doubleValue(tmpIndex);
+                    } else {
+                        tmpWeights[tmpCount] = -tmpFactor;
+                        tmpValues[tmpCount] = ONE - solution.doubleValue(tmpIndex);
+                        tmpComplemented[tmpCount] = true;
+                        tmpCapacity -= tmpFactor;
+                    }
+                    tmpCount++;
+                } else if ((tmpFactor > ZERO) && !Double.isInfinite(tmpLower)) {
+                    tmpCapacity -= tmpFactor * tmpLower;
+                } else if ((tmpFactor < ZERO) && !Double.isInfinite(tmpUpper)) {
+                    tmpCapacity -= tmpFactor * tmpUpper;
+                } else {
+                    return null;
+                }
+            }
+
+            if ((tmpCount < 2) || (tmpCapacity < ZERO)) {
+                return null;
+            }
+
+            // Greedy cover - items with (1 - x*) / a smallest first
+            final double[] tmpKeys = new double[tmpCount];
+            for (int i = 0; i < tmpCount; i++) {
+                tmpKeys[i] = (ONE - tmpValues[i]) / tmpWeights[i];
+            }
+            final int[] tmpOrder = CutGenerator.sort(tmpKeys);
+
+            final boolean[] tmpInCover = new boolean[tmpCount];
+            double tmpCoverWeight = ZERO;
+            for (int o = 0; (o < tmpCount) && (tmpCoverWeight <= (tmpCapacity + CutGenerator.tolerance(tmpCapacity))); o++) {
+                tmpInCover[tmpOrder[o]] = true;
+                tmpCoverWeight += tmpWeights[tmpOrder[o]];
+            }
+            if (tmpCoverWeight <= (tmpCapacity + CutGenerator.tolerance(tmpCapacity))) {
+                return null;
+            }
+
+            // Make it minimal - try to drop the items with the smallest x* first
+            for (int o = tmpCount - 1; o >= 0; o--) {
+                final int i = tmpOrder[o];
+                if (tmpInCover[i] && ((tmpCoverWeight - tmpWeights[i]) > (tmpCapacity + CutGenerator.tolerance(tmpCapacity)))) {
+                    tmpInCover[i] = false;
+                    tmpCoverWeight -= tmpWeights[i];
+                }
+            }
+
+            int tmpCoverSize = 0;
+            for (int i = 0; i < tmpCount; i++) {
+                if (tmpInCover[i]) {
+                    tmpCoverSize++;
+                }
+            }
+
+            final int[] tmpCutIndeces = new int[tmpCoverSize];
+            final double[] tmpCutFactors = new double[tmpCoverSize];
+            double tmpCutUpper = tmpCoverSize - 1;
+
+            int c = 0;
+            for (int i = 0; i < tmpCount; i++) {
+                if (tmpInCover[i]) {
+                    tmpCutIndeces[c] = indeces[tmpItems[i]];
+                    if (tmpComplemented[i]) {
+                        tmpCutFactors[c] = NEG;
+                        tmpCutUpper -= ONE;
+                    } else {
+                        tmpCutFactors[c] = ONE;
+                    }
+                    c++;
+                }
+            }
+
+            return this.makeCut(rows, tmpCutIndeces, tmpCutFactors, tmpCutUpper);
+        }
+
+    }
+
+    /**
+     * Complemented mixed integer rounding (c-MIR) cuts on single rows. Integer variables are shifted/complemented to
+     * their closest bound, continuous variables are substituted with the bound that makes them drop out, or else
+     * aggregated to a single nonnegative continuous variable. Then the MIR inequality is derived for a few different
+     * divisors, and the most efficacious one is used.
+     */
+    static final class MixedIntegerRounding extends CutGenerator {
+
+        private static final int MAX_DIVISORS = 8;
+        private static final double MIN_FRACTION = 0.01;
+
+        MixedIntegerRounding() {
+            super();
+        }
+
+        private static double function(final double value, final double fraction) {
+            final double tmpFloor = Math.floor(value);
+            return tmpFloor + (Math.max(ZERO, (value - tmpFloor) - fraction) / (ONE - fraction));
+        }
+
+        @Override
+        CutPool.Cut separate(final NodePresolver rows, final Access1D<?> solution, final int[] indeces, final double[] factors, final double upper) {
+
+            final int tmpLength = indeces.length;
+
+            // Transformed row: sum(a'x') - s <= beta
+            final double[] tmpFactors = new double[tmpLength];
+            final double[] tmpValues = new double[tmpLength];
+            /**
+             * 0 = integer shifted to lower bound, 1 = integer complemented to upper bound, 2 = continuous dropped, 3 =
+             * continuous in s (y' = ub - y), 4 = continuous in s (y' = y - lb)
+             */
+            final int[] tmpTypes = new int[tmpLength];
+            double tmpBeta = upper;
+            boolean tmpFractional = false;
+
+            for (int t = 0; t < tmpLength; t++) {
+
+                final int tmpIndex = indeces[t];
+                final double tmpFactor = factors[t];
+                final double tmpLower = rows.getLower(tmpIndex);
+                final double tmpUpper = rows.getUpper(tmpIndex);
+                final double tmpValue = solution.doubleValue(tmpIndex);
+
+                final boolean tmpLowerFinite = !Double.isInfinite(tmpLower);
+                final boolean tmpUpperFinite = !Double.isInfinite(tmpUpper);
+
+                if (rows.isInteger(tmpIndex)) {
+
+                    final boolean tmpUseLower;
+                    if (tmpLowerFinite && tmpUpperFinite) {
+                        tmpUseLower = (tmpValue - tmpLower) <= (tmpUpper - tmpValue);
+                    } else if (tmpLowerFinite || tmpUpperFinite) {
+                        tmpUseLower = tmpLowerFinite;
+                    } else {
+                        return null;
+                    }
+
+                    if (tmpUseLower) {
+                        tmpTypes[t] = 0;
+                        tmpFactors[t] = tmpFactor;
+                        tmpValues[t] = tmpValue - tmpLower;
+                        tmpBeta -= tmpFactor * tmpLower;
+                    } else {
+                        tmpTypes[t] = 1;
+                        tmpFactors[t] = -tmpFactor;
+                        tmpValues[t] = tmpUpper - tmpValue;
+                        tmpBeta -= tmpFactor * tmpUpper;
+                    }
+
+                    final double tmpFraction = tmpValue - Math.floor(tmpValue);
+                    if ((tmpFraction > MIN_FRACTION) && (tmpFraction < (ONE - MIN_FRACTION))) {
+                        tmpFractional = true;
+                    }
+
+                } else if (tmpFactor == ZERO) {
+
+                    tmpTypes[t] = 2;
+
+                } else if ((tmpFactor > ZERO) && tmpLowerFinite) {
+
+                    tmpTypes[t] = 2;
+                    tmpBeta -= tmpFactor * tmpLower;
+
+                } else if ((tmpFactor < ZERO) && tmpUpperFinite) {
+
+                    tmpTypes[t] = 2;
+                    tmpBeta -= tmpFactor * tmpUpper;
+
+                } else if (tmpFactor > ZERO) {
+
+                    if (!tmpUpperFinite) {
+                        return null;
+                    }
+                    tmpTypes[t] = 3;
+                    tmpFactors[t] = tmpFactor;
+                    tmpValues[t] = tmpUpper - tmpValue;
+                    tmpBeta -= tmpFactor * tmpUpper;
+
+                } else {
+
+                    if (!tmpLowerFinite) {
+                        return null;
+                    }
+                    tmpTypes[t] = 4;
+                    tmpFactors[t] = -tmpFactor;
+                    tmpValues[t] = tmpValue - tmpLower;
+                    tmpBeta -= tmpFactor * tmpLower;
+                }
+            }
+
+            if (!tmpFractional) {
+                return null;
+            }
+
+            // Candidate divisors - the (absolute) factors of the integer variables strictly between their bounds
+            final double[] tmpDivisors = new double[MAX_DIVISORS];
+            int tmpCountDivisors = 0;
+            for (int t = 0; (t < tmpLength) && (tmpCountDivisors < MAX_DIVISORS); t++) {
+                if ((tmpTypes[t] <= 1) && (tmpValues[t] > MIN_FRACTION) && (tmpFactors[t] != ZERO)) {
+                    final double tmpDivisor = Math.abs(tmpFactors[t]);
+                    boolean tmpNew = true;
+                    for (int d = 0; d < tmpCountDivisors; d++) {
+                        tmpNew &= !CutGenerator.isSame(tmpDivisor, tmpDivisors[d]);
+                    }
+                    if (tmpNew) {
+                        tmpDivisors[tmpCountDivisors++] = tmpDivisor;
+                    }
+                }
+            }
+
+            double tmpBestEfficacy = ZERO;
+            double tmpBestDivisor = NaN;
+
+            for (int d = 0; d < tmpCountDivisors; d++) {
+                final double tmpEfficacy = this.efficacy(tmpTypes, tmpFactors, tmpValues, tmpBeta, tmpDivisors[d]);
+                if (tmpEfficacy > tmpBestEfficacy) {
+                    tmpBestEfficacy = tmpEfficacy;
+                    tmpBestDivisor = tmpDivisors[d];
+                }
+            }
+
+            if (tmpBestEfficacy <= MIN_EFFICACY) {
+                return null;
+            }
+
+            // Transform back to the original variables
+            final double tmpScaled = tmpBeta / tmpBestDivisor;
+            final double tmpFraction = tmpScaled - Math.floor(tmpScaled);
+            final double tmpContinuous = ONE / (tmpBestDivisor * (ONE - tmpFraction));
+
+            final double[] tmpCutFactors = new double[tmpLength];
+            double tmpCutUpper = Math.floor(tmpScaled);
+
+            for (int t = 0; t < tmpLength; t++) {
+
+                final int tmpIndex = indeces[t];
+
+                switch (tmpTypes[t]) {
+                case 0:
+                    tmpCutFactors[t] = MixedIntegerRounding.function(tmpFactors[t] / tmpBestDivisor, tmpFraction);
+                    tmpCutUpper += tmpCutFactors[t] * rows.getLower(tmpIndex);
+                    break;
+                case 1:
+                    final double tmpFactor = MixedIntegerRounding.function(tmpFactors[t] / tmpBestDivisor, tmpFraction);
+                    tmpCutFactors[t] = -tmpFactor;
+                    tmpCutUpper -= tmpFactor * rows.getUpper(tmpIndex);
+                    break;
+                case 3:
+                    // -d * (ub - y)
+                    tmpCutFactors[t] = tmpFactors[t] * tmpContinuous;
+                    tmpCutUpper += tmpCutFactors[t] * rows.getUpper(tmpIndex);
+                    break;
+                case 4:
+                    // -d * (y - lb)
+                    tmpCutFactors[t] = -tmpFactors[t] * tmpContinuous;
+                    tmpCutUpper += tmpCutFactors[t] * rows.getLower(tmpIndex);
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            return this.makeCut(rows, indeces, tmpCutFactors, tmpCutUpper);
+        }
+
+        private double efficacy(final int[] types, final double[] factors, final double[] values, final double beta, final double divisor) {
+
+            final double tmpScaled = beta / divisor;
+            final double tmpFraction = tmpScaled - Math.floor(tmpScaled);
+
+            if ((tmpFraction < MIN_FRACTION) || (tmpFraction > (ONE - MIN_FRACTION))) {
+                return ZERO;
+            }
+
+            final double tmpContinuous = ONE / (divisor * (ONE - tmpFraction));
+
+            double tmpActivity = -Math.floor(tmpScaled);
+            double tmpNorm = ZERO;
+
+            for (int t = 0; t < types.length; t++) {
+                if (types[t] <= 1) {
+                    final double tmpFactor = MixedIntegerRounding.function(factors[t] / divisor, tmpFraction);
+                    tmpActivity += tmpFactor * values[t];
+                    tmpNorm += tmpFactor * tmpFactor;
+                } else if (types[t] >= 3) {
+                    final double tmpFactor = factors[t] * tmpContinuous;
+                    tmpActivity -= tmpFactor * values[t];
+                    tmpNorm += tmpFactor * tmpFactor;
+                }
+            }
+
+            return tmpNorm > ZERO ? tmpActivity / Math.sqrt(tmpNorm) : ZERO;
+        }
+
+    }
+
+    /**
+     * Cuts must be violated by at least this much (relative to the norm of the factors) to be added
+     */
+    static final double MIN_EFFICACY = 1E-4;
+
+    /**
+     * Max ratio between the largest and smallest (absolute) cut factor
+     */
+    private static final double MAX_DYNAMISM = 1E6;
+    /**
+     * The cut right hand sides are relaxed (relative to their magnitude) by this much. Cuts that exactly touch the
+     * original constraints make the node LP:s degenerate to the point where the simplex solver struggles.
+     */
+    private static final double RELAXATION = 1E-6;
+    private static final double TOLERANCE = 1E-9;
+
+    static boolean isSame(final double value1, final double value2) {
+        return Math.abs(value1 - value2) <= CutGenerator.tolerance(Math.max(Math.abs(value1), Math.abs(value2)));
+    }
+
+    /**
+     * @return The indeces of the keys in ascending key order
+     */
+    static int[] sort(final double[] keys) {
+        final int[] retVal = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int j = i;
+            while ((j > 0) && (keys[retVal[j - 1]] > keys[i])) {
+                retVal[j] = retVal[j - 1];
+                j--;
+            }
+            retVal[j] = i;
+        }
+        return retVal;
+    }
+
+    static double tolerance(final double value) {
+        return TOLERANCE * Math.max(ONE, Math.abs(value));
+    }
+
+    CutGenerator() {
+        super();
+    }
+
+    /**
+     * @return A cut derived from the &lt;= row [factors]<sup>T</sup>[x] &lt;= upper, or null.
+     */
+    abstract CutPool.Cut separate(NodePresolver rows, Access1D<?> solution, int[] indeces, double[] factors, double upper);
+
+    /**
+     * Tries all rows, both ways where applicable, and adds the cuts that are violated by the solution to the pool.
+     *
+     * @return The number of (new) cuts added to the pool
+     */
+    final int separate(final NodePresolver rows, final Access1D<?> solution, final CutPool pool) {
+
+        int retVal = 0;
+
+        for (int r = 0; r < rows.countRows(); r++) {
+
+            final int[] tmpIndeces = rows.getRowIndeces(r);
+            final double[] tmpFactors = rows.getRowFactors(r);
+
+            final double tmpUpper = rows.getRowUpper(r);
+            if (!Double.isInfinite(tmpUpper)) {
+                retVal += this.add(pool, solution, this.separate(rows, solution, tmpIndeces, tmpFactors, tmpUpper));
+            }
+
+            final double tmpLower = rows.getRowLower(r);
+            if (!Double.isInfinite(tmpLower)) {
+                final double[] tmpNegated = new double[tmpFactors.length];
+                for (int t = 0; t < tmpFactors.length; t++) {
+                    tmpNegated[t] = -tmpFactors[t];
+                }
+                retVal += this.add(pool, solution, this.separate(rows, solution, tmpIndeces, tmpNegated, -tmpLower));
+            }
+        }
+
+        return retVal;
+    }
+
+    private int add(final CutPool pool, final Access1D<?> solution, final CutPool.Cut cut) {
+        if ((cut != null) && (cut.efficacy(solution) > MIN_EFFICACY) && pool.add(cut)) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Removes (relative to the largest) tiny factors, using the variable limits, and relaxes the right hand side
+     * slightly to safeguard against rounding errors and degeneracy.
+     *
+     * @return The cut, or null if it is numerically unsafe
+     */
+    final CutPool.Cut makeCut(final NodePresolver rows, final int[] indeces, final double[] factors, final double upper) {
+
+        double tmpLargest = ZERO;
+        for (int t = 0; t < factors.length; t++) {
+            tmpLargest = Math.max(tmpLargest, Math.abs(factors[t]));
+        }
+        if (tmpLargest == ZERO) {
+            return null;
+        }
+
+        double tmpUpper = upper;
+        int tmpCount = 0;
+
+        for (int t = 0; t < factors.length; t++) {
+            final double tmpFactor = factors[t];
+            if (Math.abs(tmpFactor) > (tmpLargest / MAX_DYNAMISM)) {
+                tmpCount++;
+            } else if (tmpFactor > ZERO) {
+                final double tmpLower = rows.getLower(indeces[t]);
+                if (Double.isInfinite(tmpLower)) {
+                    return null;
+                }
+                tmpUpper -= tmpFactor * tmpLower;
+            } else if (tmpFactor < ZERO) {
+                final double tmpVarUpper = rows.getUpper(indeces[t]);
+                if (Double.isInfinite(tmpVarUpper)) {
+                    return null;
+                }
+                tmpUpper -= tmpFactor * tmpVarUpper;
+            }
+        }
+
+        if (tmpCount == 0) {
+            return null;
+        }
+
+        final int[] tmpIndeces = new int[tmpCount];
+        final double[] tmpFactors = new double[tmpCount];
+        int i = 0;
+        for (int t = 0; t < factors.length; t++) {
+            if (Math.abs(factors[t]) > (tmpLargest / MAX_DYNAMISM)) {
+                tmpIndeces[i] = indeces[t];
+                tmpFactors[i] = factors[t];
+                i++;
+            }
+        }
+
+        return new CutPool.Cut(tmpIndeces, tmpFactors, tmpUpper + (RELAXATION * Math.max(ONE, Math.abs(tmpUpper))));
+    }
+
+}
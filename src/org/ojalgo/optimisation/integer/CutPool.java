@@ -0,0 +1,191 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+
+/**
+ * The global cut pool of the branch&bound solver. All cuts are globally valid (derived from the original constraints
+ * and the root node variable limits) and are added to every node model. Cuts are only added at the root node, before
+ * any branching starts, after that the pool is only read.
+ *
+ * @author apete
+ */
+final class CutPool {
+
+    /**
+     * [factors]<sup>T</sup>[x] &lt;= upper
+     */
+    static final class Cut {
+
+        final double[] factors;
+        final int[] indeces;
+        final double upper;
+
+        private final long[] myKey;
+
+        Cut(final int[] indeces, final double[] factors, final double upper) {
+
+            super();
+
+            this.indeces = indeces;
+            this.factors = factors;
+            this.upper = upper;
+
+            // Scale invariant key used to identify duplicates
+            double tmpLargest = Math.abs(upper);
+            for (int t = 0; t < factors.length; t++) {
+                tmpLargest = Math.max(tmpLargest, Math.abs(factors[t]));
+            }
+            myKey = new long[(2 * indeces.length) + 1];
+            for (int t = 0; t < indeces.length; t++) {
+                myKey[2 * t] = indeces[t];
+                myKey[(2 * t) + 1] = Math.round((factors[t] / tmpLargest) * 1E9);
+            }
+            myKey[myKey.length - 1] = Math.round((upper / tmpLargest) * 1E9);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Cut)) {
+                return false;
+            }
+            return Arrays.equals(myKey, ((Cut) obj).myKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(myKey);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder retVal = new StringBuilder();
+            for (int t = 0; t < indeces.length; t++) {
+                retVal.append(factors[t]);
+                retVal.append('*');
+                retVal.append('x');
+                retVal.append(indeces[t]);
+                retVal.append(' ');
+            }
+            return retVal.append("<= ").append(upper).toString();
+        }
+
+        /**
+         * @return The amount by which the solution violates the cut, divided by the (euclidean) norm of the factors.
+         */
+        double efficacy(final Access1D<?> solution) {
+
+            double tmpActivity = ZERO;
+            double tmpNorm = ZERO;
+
+            for (int t = 0; t < indeces.length; t++) {
+                tmpActivity += factors[t] * solution.doubleValue(indeces[t]);
+                tmpNorm += factors[t] * factors[t];
+            }
+
+            return (tmpActivity - upper) / Math.sqrt(tmpNorm);
+        }
+
+    }
+
+    private static final String NAME_PREFIX = "CUT_";
+
+    private final ArrayList<Cut> myCuts = new ArrayList<Cut>();
+    private final HashSet<Cut> myUnique = new HashSet<Cut>();
+
+    CutPool() {
+        super();
+    }
+
+    boolean add(final Cut cut) {
+        if (myUnique.add(cut)) {
+            return myCuts.add(cut);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Adds all cuts, as constraint expressions, to the (node) model.
+     */
+    void addTo(final ExpressionsBasedModel model) {
+
+        for (int c = 0; c < myCuts.size(); c++) {
+
+            final Cut tmpCut = myCuts.get(c);
+
+            final Expression tmpExpression = model.addExpression(NAME_PREFIX + c);
+            for (int t = 0; t < tmpCut.indeces.length; t++) {
+                tmpExpression.setLinearFactor(tmpCut.indeces[t], BigDecimal.valueOf(tmpCut.factors[t]));
+            }
+            tmpExpression.upper(BigDecimal.valueOf(tmpCut.upper));
+        }
+    }
+
+    Cut get(final int index) {
+        return myCuts.get(index);
+    }
+
+    boolean isEmpty() {
+        return myCuts.isEmpty();
+    }
+
+    int size() {
+        return myCuts.size();
+    }
+
+    /**
+     * Removes the cuts that are not binding at the solution - they only make the node LP:s larger.
+     *
+     * @return The number of cuts removed
+     */
+    int purge(final Access1D<?> solution, final double slack) {
+
+        final int tmpSize = myCuts.size();
+
+        final Iterator<Cut> tmpIterator = myCuts.iterator();
+        while (tmpIterator.hasNext()) {
+            final Cut tmpCut = tmpIterator.next();
+            if (tmpCut.efficacy(solution) < -slack) {
+                tmpIterator.remove();
+                myUnique.remove(tmpCut);
+            }
+        }
+
+        return tmpSize - myCuts.size();
+    }
+
+}
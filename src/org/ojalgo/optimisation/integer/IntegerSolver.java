@@ -21,10 +21,17 @@
  */
 package org.ojalgo.optimisation.integer;
 
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.access.Access1D;
 import org.ojalgo.access.AccessUtils;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
 import org.ojalgo.function.multiary.MultiaryFunction;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.ZeroStore;
@@ -34,6 +41,36 @@ import org.ojalgo.optimisation.Optimisation;
 
 public abstract class IntegerSolver extends GenericSolver {
 
+    /**
+     * Cut generators used at the root node
+     */
+    private static final CutGenerator[] CUT_GENERATORS = new CutGenerator[] { new CutGenerator.Cover(), new CutGenerator.MixedIntegerRounding() };
+    /**
+     * Max number of separate-resolve rounds at the root node
+     */
+    private static final int CUT_ROUNDS = 4;
+    private static final double CUT_SLACK = 1E-6;
+    /**
+     * Primal heuristics run, in parallel with the tree search, at the root node and then (one at the time, in turn) at
+     * every n:th node
+     */
+    private static final PrimalHeuristic[] HEURISTICS = new PrimalHeuristic[] { new PrimalHeuristic.Diving(false), new PrimalHeuristic.FeasibilityPump(),
+            new PrimalHeuristic.Diving(true), new PrimalHeuristic.RelaxationInducedNeighbourhood() };
+    private static final int HEURISTICS_FREQUENCY = 64;
+    /**
+     * The heuristics get their own, bounded, pool - they must not compete with the branch&amp;bound node tasks for
+     * the threads of the common fork-join pool.
+     */
+    private static final DaemonPoolExecutor HEURISTICS_EXECUTOR = DaemonPoolExecutor.makeFixed(Math.max(1, OjAlgoUtils.ENVIRONMENT.cores / 2));
+    /**
+     * Max number of heuristics, per solver, queued or running at the same time
+     */
+    private static final int HEURISTICS_PENDING = Math.max(HEURISTICS.length, OjAlgoUtils.ENVIRONMENT.cores / 2);
+    /**
+     * Cheap enough to run (inline) at every node
+     */
+    private static final PrimalHeuristic ROUNDING = new PrimalHeuristic.Rounding();
+
     private final MultiaryFunction.TwiceDifferentiable<Double> myFunction;
 
     final class NodeStatistics {
@@ -128,9 +165,17 @@ public abstract class IntegerSolver extends GenericSolver {
     }
 
     private volatile Optimisation.Result myBestResultSoFar = null;
+    private volatile double myBound = Double.NaN;
+    private volatile BranchingRule myBranchingRule;
+    private final CutPool myCutPool = new CutPool();
+    private final AtomicInteger myHeuristicsCount = new AtomicInteger();
+    private volatile boolean myHeuristicsStopped = false;
+    private final Queue<FutureTask<?>> myHeuristicsTasks = new ConcurrentLinkedQueue<FutureTask<?>>();
     private final AtomicInteger myIntegerSolutionsCount = new AtomicInteger();
     private final boolean myMinimisation;
+    private final NodePresolver myNodePresolver;
     private final NodeStatistics myNodeStatistics = new NodeStatistics();
+    private final PseudoCosts myPseudoCosts;
 
     @SuppressWarnings("unused")
     private IntegerSolver(final Options solverOptions) {
@@ -145,6 +190,11 @@ public abstract class IntegerSolver extends GenericSolver {
         myFunction = model.getObjectiveFunction();
 
         myMinimisation = model.isMinimisation();
+
+        myNodePresolver = new NodePresolver(model);
+        myPseudoCosts = new PseudoCosts(model.getIntegerVariables().size());
+
+        myBranchingRule = BranchingRule.make(solverOptions.branching);
     }
 
     protected final boolean isFunctionSet() {
@@ -242,6 +292,83 @@ public abstract class IntegerSolver extends GenericSolver {
         }
 
         myIntegerSolutionsCount.incrementAndGet();
+
+        if (myBestResultSoFar != tmpCurrentlyTheBest) {
+            this.progress(Optimisation.Progress.Event.INCUMBENT);
+        }
+    }
+
+    /**
+     * Solves the root node (relaxation) repeatedly, each time adding the cuts violated by its solution to the (global)
+     * cut pool. Stops when no new cuts are found, the problem becomes infeasible or the max number of rounds is
+     * reached.
+     */
+    protected final void generateCuts(final NodeKey rootKey) {
+
+        if (myNodePresolver.countRows() == 0) {
+            return;
+        }
+
+        for (int r = 0; r < CUT_ROUNDS; r++) {
+
+            final ExpressionsBasedModel tmpModel = this.makeNodeModel(rootKey);
+            final Optimisation.Result tmpResult = tmpModel.solve(this.getModel().getVariableValues());
+            tmpModel.destroy();
+
+            if (!tmpResult.getState().isOptimal()) {
+                break;
+            }
+
+            int tmpAdded = 0;
+            for (int g = 0; g < CUT_GENERATORS.length; g++) {
+                tmpAdded += CUT_GENERATORS[g].separate(myNodePresolver, tmpResult, myCutPool);
+            }
+
+            if (this.isDebug()) {
+                this.debug("Cut round {}: objective={} added={} total={}", r, tmpResult.getValue(), tmpAdded, myCutPool.size());
+            }
+
+            if (tmpAdded == 0) {
+                break;
+            }
+        }
+
+        if (!myCutPool.isEmpty()) {
+
+            final ExpressionsBasedModel tmpModel = this.makeNodeModel(rootKey);
+            final Optimisation.Result tmpResult = tmpModel.solve(this.getModel().getVariableValues());
+            tmpModel.destroy();
+
+            if (tmpResult.getState().isOptimal()) {
+                final int tmpPurged = myCutPool.purge(tmpResult, CUT_SLACK);
+                if (this.isDebug()) {
+                    this.debug("Cuts purged={} remaining={}", tmpPurged, myCutPool.size());
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Optimisation.Progress makeProgress(final Optimisation.Progress.Event event) {
+
+        final Optimisation.Result tmpCurrentlyTheBest = myBestResultSoFar;
+        final double tmpIncumbent = tmpCurrentlyTheBest != null ? tmpCurrentlyTheBest.getValue() : Double.NaN;
+
+        // Nothing better than the incumbent or the open nodes' bounds remains to be found. That bound only ever
+        // tightens - a node's value is never better than that of its parent.
+        double tmpBound = myBound;
+        double tmpOpenBound = this.getOpenBound(myMinimisation);
+        if (Double.isNaN(tmpOpenBound)) {
+            tmpOpenBound = tmpIncumbent;
+        } else if (!Double.isNaN(tmpIncumbent)) {
+            tmpOpenBound = myMinimisation ? Math.min(tmpOpenBound, tmpIncumbent) : Math.max(tmpOpenBound, tmpIncumbent);
+        }
+        if (!Double.isNaN(tmpBound) && !Double.isNaN(tmpOpenBound)) {
+            tmpBound = myMinimisation ? Math.max(tmpBound, tmpOpenBound) : Math.min(tmpBound, tmpOpenBound);
+            myBound = tmpBound;
+        }
+
+        return this.makeProgress(event, this.countExploredNodes(), this.countOpenNodes(), tmpBound, tmpIncumbent);
     }
 
     protected final MatrixStore<Double> getGradient(final Access1D<Double> solution) {
@@ -257,6 +384,207 @@ public abstract class IntegerSolver extends GenericSolver {
         }
     }
 
+    /**
+     * Adds the cuts in the (global) cut pool to the node model.
+     */
+    final void addCuts(final ExpressionsBasedModel nodeModel) {
+        myCutPool.addTo(nodeModel);
+    }
+
+    final int countCuts() {
+        return myCutPool.size();
+    }
+
+    abstract int countExploredNodes();
+
+    /**
+     * @return The number of nodes created but not yet evaluated
+     */
+    abstract int countOpenNodes();
+
+    abstract int[] getIntegerIndeces();
+
+    /**
+     * @return The best (lowest when minimising, highest when maximising) parent node value among the nodes created
+     *         but not yet fully evaluated, infinite if any of them has no such value (the root node), or NaN if there
+     *         are none
+     */
+    abstract double getOpenBound(final boolean minimisation);
+
+    final NodePresolver getNodePresolver() {
+        return myNodePresolver;
+    }
+
+    final PseudoCosts getPseudoCosts() {
+        return myPseudoCosts;
+    }
+
+    /**
+     * @param nodeValue The objective function value of the node solution
+     * @return The index (among the integer variables) of the variable to branch on, or -1 if the node solution is
+     *         integer
+     */
+    final int identifyNonIntegerVariable(final Optimisation.Result nodeResult, final NodeKey nodeKey, final double nodeValue) {
+        return myBranchingRule.select(this, nodeKey, nodeResult, nodeValue);
+    }
+
+    final boolean isHeuristicsStopped() {
+        return myHeuristicsStopped;
+    }
+
+    final void setBranchingRule(final BranchingRule rule) {
+        myBranchingRule = rule;
+    }
+
+    final ExpressionsBasedModel makeNodeModel(final NodeKey nodeKey) {
+        return this.makeNodeModel(nodeKey, true);
+    }
+
+    /**
+     * @param cuts Whether or not to include the cuts from the pool
+     */
+    abstract ExpressionsBasedModel makeNodeModel(final NodeKey nodeKey, final boolean cuts);
+
+    /**
+     * Solves the node model, and if the cuts made the LP solver return an invalid "optimal" solution (many nearly
+     * parallel rows can do that) the node is re-solved without the cuts.
+     */
+    final Optimisation.Result solveNodeModel(final NodeKey nodeKey, final ExpressionsBasedModel[] nodeModel) {
+
+        Optimisation.Result retVal = nodeModel[0].solve(this.getBestResultSoFar());
+
+        if (retVal.getState().isOptimal() && !myCutPool.isEmpty() && !nodeModel[0].validate(retVal)) {
+
+            if (this.isDebug()) {
+                this.debug("Node solution with cuts is invalid - will re-solve without cuts!");
+            }
+
+            nodeModel[0].destroy();
+            nodeModel[0] = this.makeNodeModel(nodeKey, false);
+            retVal = nodeModel[0].solve(this.getBestResultSoFar());
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Bound propagation on the node key, also using the objective function limited by the best integer solution found
+     * so far.
+     *
+     * @return false if the node is infeasible
+     */
+    final boolean presolve(final NodeKey nodeKey) {
+
+        double tmpObjectiveLimit = Double.NaN;
+
+        if (this.isIntegerSolutionFound()) {
+            final double tmpBestValue = this.getBestResultSoFar().getValue();
+            final double tmpGap = Math.abs(tmpBestValue * options.mip_gap);
+            tmpObjectiveLimit = myMinimisation ? tmpBestValue - tmpGap : tmpBestValue + tmpGap;
+        }
+
+        final long tmpStart = System.nanoTime();
+
+        final boolean retVal = nodeKey.presolve(myNodePresolver, tmpObjectiveLimit);
+
+        this.addPhaseTime(Optimisation.Progress.Phase.PRESOLVE, tmpStart);
+
+        return retVal;
+    }
+
+    /**
+     * Called with every optimally solved node. The change in objective function value, from the parent node, per unit
+     * change of the branching variable updates that variable's pseudo-costs. The root node's value is the initial bound
+     * reported to any progress listener (later tightened by the open nodes' values).
+     */
+    final void markSolved(final NodeKey nodeKey, final double nodeValue) {
+
+        myPseudoCosts.update(nodeKey, nodeValue);
+
+        if ((nodeKey.index < 0) && (nodeKey.parent == nodeKey.sequence)) {
+            myBound = nodeValue;
+        }
+    }
+
+    /**
+     * Called with the (non integer) LP solution of a node. Simple rounding is tried directly. The other heuristics are
+     * forked to run in parallel with the tree search - all of them at the root node, and then one at the time at every
+     * {@value #HEURISTICS_FREQUENCY}:th node. Any integer solution found becomes the new incumbent if it is better.
+     */
+    final void runHeuristics(final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+        if (myHeuristicsStopped) {
+            return;
+        }
+
+        if (ROUNDING.search(this, nodeKey, nodeSolution) && this.isDebug()) {
+            this.debug("{} found an integer solution: {}", ROUNDING, this.getBestResultSoFar());
+        }
+
+        final int tmpCount = myHeuristicsCount.getAndIncrement();
+
+        if (tmpCount == 0) {
+            for (int h = 0; h < HEURISTICS.length; h++) {
+                this.fork(HEURISTICS[h], nodeKey, nodeSolution);
+            }
+        } else if ((tmpCount % HEURISTICS_FREQUENCY) == 0) {
+            this.fork(HEURISTICS[(tmpCount / HEURISTICS_FREQUENCY) % HEURISTICS.length], nodeKey, nodeSolution);
+        }
+    }
+
+    /**
+     * Stops any heuristics still running, and waits for them to finish. Those not yet started are cancelled. Must be
+     * called when the tree search is done.
+     */
+    final void stopHeuristics() {
+
+        myHeuristicsStopped = true;
+
+        FutureTask<?> tmpTask;
+        while ((tmpTask = myHeuristicsTasks.poll()) != null) {
+            if (HEURISTICS_EXECUTOR.remove(tmpTask)) {
+                tmpTask.cancel(false);
+            } else {
+                try {
+                    tmpTask.get();
+                } catch (final InterruptedException | ExecutionException anException) {
+                    if (this.isDebug()) {
+                        this.debug("Heuristic failed: {}", anException);
+                    }
+                }
+            }
+        }
+    }
+
+    private void fork(final PrimalHeuristic heuristic, final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+        // Rather skip than queue up heuristics if the earlier ones are still pending
+        int tmpPending = 0;
+        for (final Iterator<FutureTask<?>> tmpIter = myHeuristicsTasks.iterator(); tmpIter.hasNext();) {
+            if (tmpIter.next().isDone()) {
+                tmpIter.remove();
+            } else {
+                tmpPending++;
+            }
+        }
+        if (tmpPending >= HEURISTICS_PENDING) {
+            return;
+        }
+
+        final FutureTask<?> tmpTask = new FutureTask<Object>(new Runnable() {
+
+            public void run() {
+                if (!myHeuristicsStopped && heuristic.search(IntegerSolver.this, nodeKey, nodeSolution) && IntegerSolver.this.isDebug()) {
+                    IntegerSolver.this.debug("{} found an integer solution: {}", heuristic, IntegerSolver.this.getBestResultSoFar());
+                }
+            }
+
+        }, null);
+
+        myHeuristicsTasks.add(tmpTask);
+        HEURISTICS_EXECUTOR.execute(tmpTask);
+    }
+
     public static OldIntegerSolver make(final ExpressionsBasedModel model) {
         return new OldIntegerSolver(model, model.options);
         //return new NewIntegerSolver(model, model.options);
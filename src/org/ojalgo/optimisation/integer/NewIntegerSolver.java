@@ -28,7 +28,6 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.PriorityBlockingQueue;
 
 import org.ojalgo.concurrent.DaemonPoolExecutor;
 import org.ojalgo.constant.PrimitiveMath;
@@ -61,7 +60,7 @@ public final class NewIntegerSolver extends IntegerSolver {
         }
     }
 
-    private final PriorityBlockingQueue<NodeKey> myNodesToTry = new PriorityBlockingQueue<>();
+    private final NodeQueue myNodesToTry;
 
     private final int[] myIntegerIndeces;
     private final double[] myIntegerSignificances;
@@ -72,6 +71,8 @@ public final class NewIntegerSolver extends IntegerSolver {
 
         super(model, solverOptions);
 
+        myNodesToTry = new NodeQueue(options.nodes_capacity, options.nodes_spill_directory);
+
         final List<Variable> tmpIntegerVariables = model.getIntegerVariables();
 
         myIntegerIndeces = new int[tmpIntegerVariables.size()];
@@ -95,8 +96,14 @@ public final class NewIntegerSolver extends IntegerSolver {
 
         this.resetIterationsCount();
 
+        this.progress(Optimisation.Progress.Event.STARTED);
+
         this.setup();
 
+        this.stopHeuristics();
+
+        myNodesToTry.clear();
+
         //     final boolean tmpNormalExit = DaemonPoolExecutor.INSTANCE.invoke(tmpTask);
 
         //   this.add(new NodeKey(this.getModel()));
@@ -120,6 +127,8 @@ public final class NewIntegerSolver extends IntegerSolver {
             }
         }
 
+        this.progress(Optimisation.Progress.Event.FINISHED);
+
         return retVal;
     }
 
@@ -191,11 +200,21 @@ public final class NewIntegerSolver extends IntegerSolver {
             normal &= true;
         }
 
-        ExpressionsBasedModel tmpModel = NewIntegerSolver.this.makeNodeModel(nodeKey);
-        final Optimisation.Result tmpResult = tmpModel.solve(NewIntegerSolver.this.getBestResultSoFar());
+        if (!NewIntegerSolver.this.presolve(nodeKey)) {
+            if (NewIntegerSolver.this.isDebug()) {
+                NewIntegerSolver.this.debug("Node infeasible after bound propagation!");
+            }
+            return;
+        }
+
+        final ExpressionsBasedModel[] tmpNodeModel = new ExpressionsBasedModel[] { NewIntegerSolver.this.makeNodeModel(nodeKey) };
+        final Optimisation.Result tmpResult = NewIntegerSolver.this.solveNodeModel(nodeKey, tmpNodeModel);
+        ExpressionsBasedModel tmpModel = tmpNodeModel[0];
 
         NewIntegerSolver.this.incrementIterationsCount();
 
+        NewIntegerSolver.this.progress(Optimisation.Progress.Event.ITERATION);
+
         if (tmpResult.getState().isOptimal()) {
             if (NewIntegerSolver.this.isDebug()) {
                 NewIntegerSolver.this.debug("Node solved to optimality!");
@@ -212,9 +231,12 @@ public final class NewIntegerSolver extends IntegerSolver {
                 normal &= false;
             }
 
-            final int tmpBranchIndex = NewIntegerSolver.this.identifyNonIntegerVariable(tmpResult, nodeKey);
             final double tmpSolutionValue = NewIntegerSolver.this.evaluateFunction(tmpResult);
 
+            NewIntegerSolver.this.markSolved(nodeKey, tmpSolutionValue);
+
+            final int tmpBranchIndex = NewIntegerSolver.this.identifyNonIntegerVariable(tmpResult, nodeKey, tmpSolutionValue);
+
             if (tmpBranchIndex == -1) {
                 if (NewIntegerSolver.this.isDebug()) {
                     NewIntegerSolver.this.debug("Integer solution! Store it among the others, and stop this branch!");
@@ -248,8 +270,10 @@ public final class NewIntegerSolver extends IntegerSolver {
                     tmpModel.destroy();
                     tmpModel = null;
 
-                    final NodeKey tmpLowerBranchTask = nodeKey.createLowerBranch(tmpBranchIndex, tmpVariableValue, tmpResult.getValue());
-                    final NodeKey tmpUpperBranchTask = nodeKey.createUpperBranch(tmpBranchIndex, tmpVariableValue, tmpResult.getValue());
+                    NewIntegerSolver.this.runHeuristics(nodeKey, tmpResult);
+
+                    final NodeKey tmpLowerBranchTask = nodeKey.createLowerBranch(tmpBranchIndex, tmpVariableValue, tmpSolutionValue);
+                    final NodeKey tmpUpperBranchTask = nodeKey.createUpperBranch(tmpBranchIndex, tmpVariableValue, tmpSolutionValue);
 
                     this.add(tmpLowerBranchTask);
                     this.add(tmpUpperBranchTask);
@@ -276,10 +300,16 @@ public final class NewIntegerSolver extends IntegerSolver {
         normal &= true;
     }
 
+    @Override
     int countExploredNodes() {
         return this.countIterations();
     }
 
+    @Override
+    int countOpenNodes() {
+        return myNodesToTry.size() + myNodesToTry.countSpilled();
+    }
+
     int getGlobalIndex(final int integerIndex) {
         return myIntegerIndeces[integerIndex];
     }
@@ -292,6 +322,11 @@ public final class NewIntegerSolver extends IntegerSolver {
         return myIntegerSignificances[index];
     }
 
+    @Override
+    double getOpenBound(final boolean minimisation) {
+        return myNodesToTry.getBound(minimisation);
+    }
+
     NodeKey getNextNode() {
         return myNodesToTry.poll();
         //        if (myMinimisation) {
@@ -305,35 +340,12 @@ public final class NewIntegerSolver extends IntegerSolver {
         //        }
     }
 
-    int identifyNonIntegerVariable(final Optimisation.Result nodeResult, final NodeKey nodeKey) {
-
-        int retVal = -1;
-
-        double tmpFraction, tmpImpact;
-        double tmpMaxImpact = ZERO;
-
-        for (int i = 0; i < myIntegerIndeces.length; i++) {
-
-            tmpFraction = nodeKey.getFraction(i, nodeResult.doubleValue(myIntegerIndeces[i]));
-
-            //tmpImpact = (ONE - tmpFraction) * this.getIntegerSignificance(i);
-            tmpImpact = tmpFraction * this.getIntegerSignificance(i);
-
-            if ((tmpImpact > tmpMaxImpact) && !options.integer.isZero(tmpFraction)) {
-                retVal = i;
-                tmpMaxImpact = tmpImpact;
-            }
-
-        }
-
-        return retVal;
-    }
-
     boolean isStillNodesToTry() {
         return !myNodesToTry.isEmpty();
     }
 
-    ExpressionsBasedModel makeNodeModel(final NodeKey nodeKey) {
+    @Override
+    ExpressionsBasedModel makeNodeModel(final NodeKey nodeKey, final boolean cuts) {
 
         final ExpressionsBasedModel retVal = this.getModel().relax(false);
 
@@ -359,6 +371,10 @@ public final class NewIntegerSolver extends IntegerSolver {
             }
         }
 
+        if (cuts) {
+            this.addCuts(retVal);
+        }
+
         if (this.isIntegerSolutionFound()) {
             final double tmpBestValue = this.getBestResultSoFar().getValue();
             final double tmpGap = Math.abs(tmpBestValue * options.mip_gap);
@@ -397,10 +413,20 @@ public final class NewIntegerSolver extends IntegerSolver {
         NodeKey myKey;
         myKey = new NodeKey(tmpIntegerModel);
 
+        if (!NewIntegerSolver.this.presolve(myKey)) {
+            return;
+        }
+
+        NewIntegerSolver.this.generateCuts(myKey);
+
         final ExpressionsBasedModel tmpRootModel = NewIntegerSolver.this.makeNodeModel(myKey);
         final Result tmpRootResult = tmpRootModel.solve(tmpIntegerModel.getVariableValues());
         final double tmpRootValue = tmpRootResult.getValue();
 
+        if (tmpRootResult.getState().isOptimal()) {
+            NewIntegerSolver.this.markSolved(myKey, NewIntegerSolver.this.evaluateFunction(tmpRootResult));
+        }
+
         double tmpMinValue = PrimitiveMath.MACHINE_LARGEST;
         double tmpMaxValue = -PrimitiveMath.MACHINE_LARGEST;
 
@@ -21,9 +21,14 @@
  */
 package org.ojalgo.optimisation.integer;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -35,14 +40,249 @@ import org.ojalgo.optimisation.Variable;
 
 final class NodeKey implements Serializable, Comparable<NodeKey> {
 
+    /**
+     * A node in compact form - the node's bounds stored as a {@linkplain Delta}, to be kept in the queue of open nodes
+     * rather than the full key.
+     */
+    static final class Compact implements Serializable, Comparable<Compact> {
+
+        /**
+         * Reads the node written by {@link #write(DataOutput)}
+         */
+        static Compact read(final DataInput input, final Delta delta) throws IOException {
+            final long tmpSequence = input.readLong();
+            final long tmpParent = input.readLong();
+            final int tmpIndex = input.readInt();
+            final double tmpDisplacement = input.readDouble();
+            final double tmpObjective = input.readDouble();
+            return new Compact(delta, tmpSequence, tmpParent, tmpIndex, tmpDisplacement, tmpObjective);
+        }
+
+        private final Delta myDelta;
+
+        final double displacement;
+        final int index;
+        final double objective;
+        final long parent;
+        final long sequence;
+
+        Compact(final NodeKey key) {
+
+            super();
+
+            myDelta = key.delta();
+
+            displacement = key.displacement;
+            index = key.index;
+            objective = key.objective;
+            parent = key.parent;
+            sequence = key.sequence;
+        }
+
+        private Compact(final Delta delta, final long sequence, final long parent, final int index, final double displacement, final double objective) {
+
+            super();
+
+            myDelta = delta;
+
+            this.displacement = displacement;
+            this.index = index;
+            this.objective = objective;
+            this.parent = parent;
+            this.sequence = sequence;
+        }
+
+        public int compareTo(final Compact ref) {
+            return Long.compare(sequence, ref.sequence);
+        }
+
+        NodeKey expand() {
+
+            final int[] tmpLBs = new int[myDelta.length];
+            final int[] tmpUBs = new int[myDelta.length];
+
+            myDelta.apply(tmpLBs, tmpUBs);
+
+            return new NodeKey(tmpLBs, tmpUBs, myDelta, sequence, parent, index, displacement, objective);
+        }
+
+        Delta getDelta() {
+            return myDelta;
+        }
+
+        /**
+         * Writes everything but the delta
+         */
+        void write(final DataOutput output) throws IOException {
+            output.writeLong(sequence);
+            output.writeLong(parent);
+            output.writeInt(index);
+            output.writeDouble(displacement);
+            output.writeDouble(objective);
+        }
+
+    }
+
+    /**
+     * The bounds of a node stored as the changes relative to a base (typically the parent node's) bounds. A child
+     * node's delta only contains the bound changed by branching, and refers to its parent's delta as the base, so
+     * the deltas of all open nodes form a tree that shares common prefixes. The root delta contains all bounds.
+     */
+    static final class Delta implements Serializable {
+
+        static Delta derive(final Delta base, final int[] lowerBounds, final int[] upperBounds) {
+
+            final int[] tmpBaseLBs = new int[base.length];
+            final int[] tmpBaseUBs = new int[base.length];
+            base.apply(tmpBaseLBs, tmpBaseUBs);
+
+            int tmpCount = 0;
+            for (int i = 0; i < base.length; i++) {
+                if ((lowerBounds[i] != tmpBaseLBs[i]) || (upperBounds[i] != tmpBaseUBs[i])) {
+                    tmpCount++;
+                }
+            }
+
+            if (tmpCount == 0) {
+                return base;
+            }
+
+            final int[] tmpIndeces = new int[tmpCount];
+            final int[] tmpLBs = new int[tmpCount];
+            final int[] tmpUBs = new int[tmpCount];
+
+            tmpCount = 0;
+            for (int i = 0; i < base.length; i++) {
+                if ((lowerBounds[i] != tmpBaseLBs[i]) || (upperBounds[i] != tmpBaseUBs[i])) {
+                    tmpIndeces[tmpCount] = i;
+                    tmpLBs[tmpCount] = lowerBounds[i];
+                    tmpUBs[tmpCount] = upperBounds[i];
+                    tmpCount++;
+                }
+            }
+
+            return new Delta(base, tmpIndeces, tmpLBs, tmpUBs, base.length);
+        }
+
+        /**
+         * Reads the changes written by {@link #write(DataOutput)}
+         */
+        static Delta read(final DataInput input, final Delta base) throws IOException {
+
+            final int tmpLength = input.readInt();
+            final int tmpSize = input.readInt();
+
+            final int[] tmpIndeces = new int[tmpSize];
+            final int[] tmpLBs = new int[tmpSize];
+            final int[] tmpUBs = new int[tmpSize];
+            for (int c = 0; c < tmpSize; c++) {
+                tmpIndeces[c] = input.readInt();
+                tmpLBs[c] = input.readInt();
+                tmpUBs[c] = input.readInt();
+            }
+
+            return new Delta(base, tmpIndeces, tmpLBs, tmpUBs, tmpLength);
+        }
+
+        static Delta root(final int[] lowerBounds, final int[] upperBounds) {
+
+            final int[] tmpIndeces = new int[lowerBounds.length];
+            for (int i = 0; i < tmpIndeces.length; i++) {
+                tmpIndeces[i] = i;
+            }
+
+            return new Delta(null, tmpIndeces, ArrayUtils.copyOf(lowerBounds), ArrayUtils.copyOf(upperBounds), lowerBounds.length);
+        }
+
+        private final Delta myBase;
+        private final int[] myIndeces;
+        private final int[] myLowerBounds;
+        private final int[] myUpperBounds;
+
+        /**
+         * The total number of integer variables
+         */
+        final int length;
+
+        Delta(final Delta base, final int[] indeces, final int[] lowerBounds, final int[] upperBounds, final int numberOfIntegerVariables) {
+
+            super();
+
+            myBase = base;
+            myIndeces = indeces;
+            myLowerBounds = lowerBounds;
+            myUpperBounds = upperBounds;
+
+            length = numberOfIntegerVariables;
+        }
+
+        /**
+         * Writes the (full) bounds this delta represents to the arrays. Starts with the root delta and applies the
+         * changes of every delta along the way. The chain is walked iteratively as it can be as long as the tree is
+         * deep.
+         */
+        void apply(final int[] lowerBounds, final int[] upperBounds) {
+
+            final Deque<Delta> tmpChain = new ArrayDeque<>();
+            for (Delta tmpDelta = this; tmpDelta != null; tmpDelta = tmpDelta.myBase) {
+                tmpChain.push(tmpDelta);
+            }
+
+            while (!tmpChain.isEmpty()) {
+                final Delta tmpDelta = tmpChain.pop();
+                for (int c = 0; c < tmpDelta.myIndeces.length; c++) {
+                    lowerBounds[tmpDelta.myIndeces[c]] = tmpDelta.myLowerBounds[c];
+                    upperBounds[tmpDelta.myIndeces[c]] = tmpDelta.myUpperBounds[c];
+                }
+            }
+        }
+
+        /**
+         * @return The delta this one is relative to, or null if this is a root delta
+         */
+        Delta getBase() {
+            return myBase;
+        }
+
+        /**
+         * The number of changes stored in this delta (not counting its base)
+         */
+        int size() {
+            return myIndeces.length;
+        }
+
+        /**
+         * Writes this delta's own changes - not its base.
+         */
+        void write(final DataOutput output) throws IOException {
+            output.writeInt(length);
+            output.writeInt(myIndeces.length);
+            for (int c = 0; c < myIndeces.length; c++) {
+                output.writeInt(myIndeces[c]);
+                output.writeInt(myLowerBounds[c]);
+                output.writeInt(myUpperBounds[c]);
+            }
+        }
+
+    }
+
     private static AtomicLong GENERATOR = new AtomicLong();
 
+    /**
+     * Describes the current bounds, lazily created, and reset when the bounds are modified in place
+     */
+    private transient Delta myDelta;
     private final int[] myLowerBounds;
+    /**
+     * Describes the bounds this key was created with
+     */
+    private transient Delta myOrigin;
     private final int[] myUpperBounds;
 
     /**
      * How much the branched on variable must be displaced because of the new constraint introduced with this node (each
-     * node introduces precisely 1 new upper or lower bound).
+     * node introduces precisely 1 new upper or lower bound). Negative for a lower branch (new upper bound), and
+     * positive for an upper branch (new lower bound).
      */
     final double displacement;
     /**
@@ -60,7 +300,7 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
     /**
      * Node sequennce number to keep track of in which order the nodes were created.
      */
-    final long sequence = GENERATOR.getAndIncrement();
+    final long sequence;
 
     @SuppressWarnings("unused")
     private NodeKey() {
@@ -68,14 +308,23 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
         ProgrammingError.throwForIllegalInvocation();
     }
 
-    private NodeKey(final int[] lowerBounds, final int[] upperBounds, final long parentSequenceNumber, final int indexBranchedOn,
+    private NodeKey(final int[] lowerBounds, final int[] upperBounds, final Delta origin, final long parentSequenceNumber, final int indexBranchedOn,
             final double branchVariableDisplacement, final double parentObjectiveFunctionValue) {
+        this(lowerBounds, upperBounds, origin, GENERATOR.getAndIncrement(), parentSequenceNumber, indexBranchedOn, branchVariableDisplacement,
+                parentObjectiveFunctionValue);
+    }
+
+    private NodeKey(final int[] lowerBounds, final int[] upperBounds, final Delta origin, final long sequenceNumber, final long parentSequenceNumber,
+            final int indexBranchedOn, final double branchVariableDisplacement, final double parentObjectiveFunctionValue) {
 
         super();
 
         myLowerBounds = lowerBounds;
         myUpperBounds = upperBounds;
+        myOrigin = origin;
+        myDelta = origin;
 
+        sequence = sequenceNumber;
         parent = parentSequenceNumber;
         index = indexBranchedOn;
         displacement = branchVariableDisplacement;
@@ -109,6 +358,7 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
             }
         }
 
+        sequence = GENERATOR.getAndIncrement();
         parent = sequence;
         index = -1;
         displacement = PrimitiveMath.NaN;
@@ -189,6 +439,13 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
         builder.append(myUpperBounds[index]);
     }
 
+    /**
+     * A child node's delta - the one changed bound relative to this node's (current) bounds
+     */
+    private Delta branch(final int index, final int lower, final int upper) {
+        return new Delta(this.delta(), new int[] { index }, new int[] { lower }, new int[] { upper }, myLowerBounds.length);
+    }
+
     private double feasible(final int index, final double value) {
         return Math.min(Math.max(myLowerBounds[index], value), myUpperBounds[index]);
     }
@@ -213,6 +470,28 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
         return retVal;
     }
 
+    /**
+     * Not a proper branch (in the branch&amp;bound sense) - used by the primal heuristics to fix integer variables.
+     *
+     * @param values Values for the integer variables to fix, NaN for those that should not be fixed. The values are
+     *        adjusted to be within the current bounds and rounded to the nearest integer.
+     */
+    NodeKey createFixedBranch(final double[] values, final double objective) {
+
+        final int[] tmpLBs = this.getLowerBounds();
+        final int[] tmpUBs = this.getUpperBounds();
+
+        for (int i = 0; i < values.length; i++) {
+            if (!Double.isNaN(values[i])) {
+                final int tmpValue = this.round(i, values[i]);
+                tmpLBs[i] = tmpValue;
+                tmpUBs[i] = tmpValue;
+            }
+        }
+
+        return new NodeKey(tmpLBs, tmpUBs, null, sequence, -1, PrimitiveMath.NaN, objective);
+    }
+
     NodeKey createLowerBranch(final int index, final double value, final double objective) {
 
         final int[] tmpLBs = this.getLowerBounds();
@@ -228,7 +507,7 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
             tmpUBs[index] = tmpFloor;
         }
 
-        return new NodeKey(tmpLBs, tmpUBs, sequence, index, value - tmpFloor, objective);
+        return new NodeKey(tmpLBs, tmpUBs, this.branch(index, tmpLBs[index], tmpUBs[index]), sequence, index, tmpUBs[index] - value, objective);
     }
 
     NodeKey createUpperBranch(final int index, final double value, final double objective) {
@@ -246,7 +525,24 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
             tmpLBs[index] = tmpCeil;
         }
 
-        return new NodeKey(tmpLBs, tmpUBs, sequence, index, tmpCeil - value, objective);
+        return new NodeKey(tmpLBs, tmpUBs, this.branch(index, tmpLBs[index], tmpUBs[index]), sequence, index, tmpLBs[index] - value, objective);
+    }
+
+    /**
+     * This node in compact form, to be stored in the queue of open nodes
+     */
+    Compact compact() {
+        return new Compact(this);
+    }
+
+    /**
+     * @return A delta describing the current bounds
+     */
+    synchronized Delta delta() {
+        if (myDelta == null) {
+            myDelta = myOrigin != null ? Delta.derive(myOrigin, myLowerBounds, myUpperBounds) : Delta.root(myLowerBounds, myUpperBounds);
+        }
+        return myDelta;
     }
 
     double getFraction(final int index, final double value) {
@@ -265,6 +561,19 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
         }
     }
 
+    /**
+     * Bound propagation - tightens this node's bounds in place. Must be done before the key is used in any hash based
+     * collection.
+     *
+     * @return false if the node is infeasible
+     */
+    boolean presolve(final NodePresolver presolver, final double objectiveLimit) {
+        synchronized (this) {
+            myDelta = null;
+        }
+        return presolver.propagate(myLowerBounds, myUpperBounds, objectiveLimit);
+    }
+
     BigDecimal getUpperBound(final int index) {
         final int tmpUpper = myUpperBounds[index];
         if (tmpUpper != Integer.MAX_VALUE) {
@@ -274,4 +583,11 @@ final class NodeKey implements Serializable, Comparable<NodeKey> {
         }
     }
 
+    /**
+     * @return The value adjusted to be within the bounds, and rounded to the nearest integer
+     */
+    int round(final int index, final double value) {
+        return (int) Math.rint(this.feasible(index, value));
+    }
+
 }
@@ -0,0 +1,437 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * Cheap, double precision, activity based bound propagation performed on the branch&bound nodes before the node
+ * models are created (and solved). The linear constraints of the integer model are extracted once, to a compact row
+ * representation, that is then shared by all nodes (and the cut generators). Propagation works on the limits of all
+ * variables, but only the integer variable bounds are written back to the {@linkplain NodeKey} - tightened continuous
+ * variable limits would just add constraint rows to the node models. If an incumbent integer solution exists the
+ * objective function, limited by that solution, is propagated as well.
+ *
+ * @author apete
+ */
+final class NodePresolver {
+
+    /**
+     * Bounds this large (in absolute value) are treated as infinite
+     */
+    private static final double INFINITE = 1E9;
+    private static final int MAX_PASSES = 8;
+    /**
+     * Relative feasibility tolerance
+     */
+    private static final double TOLERANCE = 1E-6;
+
+    private static double[] getFactors(final Expression expression, final int[] indeces) {
+        final double[] retVal = new double[indeces.length];
+        for (int t = 0; t < indeces.length; t++) {
+            retVal[t] = expression.getLinearFactor(indeces[t]).doubleValue();
+        }
+        return retVal;
+    }
+
+    private static int[] getIndeces(final Expression expression) {
+        final int[] retVal = new int[expression.countLinearFactors()];
+        for (int t = 0; t < retVal.length; t++) {
+            retVal[t] = expression.getLinearTermIndex(t);
+        }
+        return retVal;
+    }
+
+    private static double roundDown(final double value) {
+        return Math.floor(value + TOLERANCE);
+    }
+
+    private static double roundUp(final double value) {
+        return Math.ceil(value - TOLERANCE);
+    }
+
+    private static double tolerance(final double value) {
+        return TOLERANCE * Math.max(ONE, Math.abs(value));
+    }
+
+    /**
+     * The number of rows that may become violated if the variable is decreased
+     */
+    private final int[] myDownLocks;
+    private final int[] myIntegerIndeces;
+    private final boolean[] myIntegers;
+    private final double[] myLower;
+    private final boolean myMinimisation;
+    private final double[] myObjectiveFactors;
+    private final int[] myObjectiveIndeces;
+    private final boolean myRootInfeasible;
+    private final double[][] myRowFactors;
+    private final int[][] myRowIndeces;
+    private final double[] myRowLower;
+    private final double[] myRowUpper;
+    /**
+     * The number of rows that may become violated if the variable is increased
+     */
+    private final int[] myUpLocks;
+    private final double[] myUpper;
+
+    NodePresolver(final ExpressionsBasedModel integerModel) {
+
+        super();
+
+        final List<Variable> tmpVariables = integerModel.getVariables();
+        final int tmpCountVariables = tmpVariables.size();
+
+        myIntegers = new boolean[tmpCountVariables];
+        myLower = new double[tmpCountVariables];
+        myUpper = new double[tmpCountVariables];
+
+        for (int j = 0; j < tmpCountVariables; j++) {
+            final Variable tmpVariable = tmpVariables.get(j);
+            myIntegers[j] = tmpVariable.isInteger();
+            final BigDecimal tmpLowerLimit = tmpVariable.getLowerLimit();
+            myLower[j] = tmpLowerLimit != null ? tmpLowerLimit.doubleValue() : NEGATIVE_INFINITY;
+            final BigDecimal tmpUpperLimit = tmpVariable.getUpperLimit();
+            myUpper[j] = tmpUpperLimit != null ? tmpUpperLimit.doubleValue() : POSITIVE_INFINITY;
+        }
+
+        final List<Variable> tmpIntegerVariables = integerModel.getIntegerVariables();
+        myIntegerIndeces = new int[tmpIntegerVariables.size()];
+        for (int i = 0; i < myIntegerIndeces.length; i++) {
+            myIntegerIndeces[i] = integerModel.indexOf(tmpIntegerVariables.get(i));
+        }
+
+        final ArrayList<Expression> tmpRows = new ArrayList<Expression>();
+        for (final Expression tmpExpression : integerModel.getExpressions()) {
+            if (tmpExpression.isConstraint() && !tmpExpression.isAnyQuadraticFactorNonZero() && (tmpExpression.countLinearFactors() > 0)) {
+                tmpRows.add(tmpExpression);
+            }
+        }
+
+        final int tmpCountRows = tmpRows.size();
+        myRowIndeces = new int[tmpCountRows][];
+        myRowFactors = new double[tmpCountRows][];
+        myRowLower = new double[tmpCountRows];
+        myRowUpper = new double[tmpCountRows];
+        myDownLocks = new int[tmpCountVariables];
+        myUpLocks = new int[tmpCountVariables];
+
+        for (int r = 0; r < tmpCountRows; r++) {
+            final Expression tmpExpression = tmpRows.get(r);
+            myRowIndeces[r] = NodePresolver.getIndeces(tmpExpression);
+            myRowFactors[r] = NodePresolver.getFactors(tmpExpression, myRowIndeces[r]);
+            final BigDecimal tmpLowerLimit = tmpExpression.getLowerLimit();
+            myRowLower[r] = tmpLowerLimit != null ? tmpLowerLimit.doubleValue() : NEGATIVE_INFINITY;
+            final BigDecimal tmpUpperLimit = tmpExpression.getUpperLimit();
+            myRowUpper[r] = tmpUpperLimit != null ? tmpUpperLimit.doubleValue() : POSITIVE_INFINITY;
+            for (int t = 0; t < myRowIndeces[r].length; t++) {
+                final int tmpIndex = myRowIndeces[r][t];
+                final double tmpFactor = myRowFactors[r][t];
+                if (((tmpFactor > ZERO) && (tmpLowerLimit != null)) || ((tmpFactor < ZERO) && (tmpUpperLimit != null))) {
+                    myDownLocks[tmpIndex]++;
+                }
+                if (((tmpFactor > ZERO) && (tmpUpperLimit != null)) || ((tmpFactor < ZERO) && (tmpLowerLimit != null))) {
+                    myUpLocks[tmpIndex]++;
+                }
+            }
+        }
+
+        final Expression tmpObjective = integerModel.getObjectiveExpression();
+        if (!tmpObjective.isAnyQuadraticFactorNonZero()) {
+            myObjectiveIndeces = NodePresolver.getIndeces(tmpObjective);
+            myObjectiveFactors = NodePresolver.getFactors(tmpObjective, myObjectiveIndeces);
+        } else {
+            myObjectiveIndeces = new int[0];
+            myObjectiveFactors = new double[0];
+        }
+        myMinimisation = integerModel.isMinimisation();
+
+        // Root propagation - the tightened limits are globally valid
+        myRootInfeasible = !this.propagate(myLower, myUpper, NaN);
+    }
+
+    int countDownLocks(final int index) {
+        return myDownLocks[index];
+    }
+
+    int countRows() {
+        return myRowIndeces.length;
+    }
+
+    int countUpLocks(final int index) {
+        return myUpLocks[index];
+    }
+
+    double getLower(final int index) {
+        return myLower[index];
+    }
+
+    double[] getRowFactors(final int row) {
+        return myRowFactors[row];
+    }
+
+    int[] getRowIndeces(final int row) {
+        return myRowIndeces[row];
+    }
+
+    double getRowLower(final int row) {
+        return myRowLower[row];
+    }
+
+    double getRowUpper(final int row) {
+        return myRowUpper[row];
+    }
+
+    double getUpper(final int index) {
+        return myUpper[index];
+    }
+
+    boolean isInteger(final int index) {
+        return myIntegers[index];
+    }
+
+    /**
+     * @param integerLower Lower bounds of the integer variables, as in {@linkplain NodeKey}. Tightened in place.
+     * @param integerUpper Upper bounds of the integer variables, as in {@linkplain NodeKey}. Tightened in place.
+     * @param objectiveLimit The objective function value the node must improve on, or NaN if there is no such limit.
+     * @return false if the node is infeasible
+     */
+    boolean propagate(final int[] integerLower, final int[] integerUpper, final double objectiveLimit) {
+
+        if (myRootInfeasible) {
+            return false;
+        }
+
+        final double[] tmpLower = myLower.clone();
+        final double[] tmpUpper = myUpper.clone();
+
+        for (int i = 0; i < myIntegerIndeces.length; i++) {
+            final int tmpIndex = myIntegerIndeces[i];
+            if (integerLower[i] != Integer.MIN_VALUE) {
+                tmpLower[tmpIndex] = Math.max(tmpLower[tmpIndex], integerLower[i]);
+            }
+            if (integerUpper[i] != Integer.MAX_VALUE) {
+                tmpUpper[tmpIndex] = Math.min(tmpUpper[tmpIndex], integerUpper[i]);
+            }
+        }
+
+        if (!this.propagate(tmpLower, tmpUpper, objectiveLimit)) {
+            return false;
+        }
+
+        for (int i = 0; i < myIntegerIndeces.length; i++) {
+            final int tmpIndex = myIntegerIndeces[i];
+            if ((tmpLower[tmpIndex] > -INFINITE) && (tmpLower[tmpIndex] > integerLower[i])) {
+                integerLower[i] = (int) tmpLower[tmpIndex];
+            }
+            if ((tmpUpper[tmpIndex] < INFINITE) && (tmpUpper[tmpIndex] < integerUpper[i])) {
+                integerUpper[i] = (int) tmpUpper[tmpIndex];
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The number of limits tightened, or -1 if the row is infeasible.
+     */
+    private int propagate(final int[] indeces, final double[] factors, final double rowLower, final double rowUpper, final double[] lower,
+            final double[] upper) {
+
+        // Activity bounds, excluding the infinite contributions - those are counted instead
+        double tmpMinActivity = ZERO;
+        double tmpMaxActivity = ZERO;
+        int tmpMinInfinite = 0;
+        int tmpMaxInfinite = 0;
+
+        for (int t = 0; t < indeces.length; t++) {
+            final double tmpFactor = factors[t];
+            final double tmpLower = lower[indeces[t]];
+            final double tmpUpper = upper[indeces[t]];
+            if (tmpFactor > ZERO) {
+                if (tmpLower > -INFINITE) {
+                    tmpMinActivity += tmpFactor * tmpLower;
+                } else {
+                    tmpMinInfinite++;
+                }
+                if (tmpUpper < INFINITE) {
+                    tmpMaxActivity += tmpFactor * tmpUpper;
+                } else {
+                    tmpMaxInfinite++;
+                }
+            } else if (tmpFactor < ZERO) {
+                if (tmpUpper < INFINITE) {
+                    tmpMinActivity += tmpFactor * tmpUpper;
+                } else {
+                    tmpMinInfinite++;
+                }
+                if (tmpLower > -INFINITE) {
+                    tmpMaxActivity += tmpFactor * tmpLower;
+                } else {
+                    tmpMaxInfinite++;
+                }
+            }
+        }
+
+        if ((tmpMinInfinite == 0) && (rowUpper < INFINITE) && (tmpMinActivity > (rowUpper + NodePresolver.tolerance(rowUpper)))) {
+            return -1;
+        }
+        if ((tmpMaxInfinite == 0) && (rowLower > -INFINITE) && (tmpMaxActivity < (rowLower - NodePresolver.tolerance(rowLower)))) {
+            return -1;
+        }
+
+        int retVal = 0;
+
+        for (int t = 0; t < indeces.length; t++) {
+
+            final double tmpFactor = factors[t];
+            if (tmpFactor == ZERO) {
+                continue;
+            }
+
+            final int tmpIndex = indeces[t];
+            final double tmpLower = lower[tmpIndex];
+            final double tmpUpper = upper[tmpIndex];
+
+            // The min/max activity of all the other terms
+            double tmpOthersMin = NaN;
+            double tmpOthersMax = NaN;
+
+            if (tmpFactor > ZERO) {
+                if (tmpLower > -INFINITE) {
+                    tmpOthersMin = tmpMinInfinite == 0 ? tmpMinActivity - (tmpFactor * tmpLower) : NaN;
+                } else {
+                    tmpOthersMin = tmpMinInfinite == 1 ? tmpMinActivity : NaN;
+                }
+                if (tmpUpper < INFINITE) {
+                    tmpOthersMax = tmpMaxInfinite == 0 ? tmpMaxActivity - (tmpFactor * tmpUpper) : NaN;
+                } else {
+                    tmpOthersMax = tmpMaxInfinite == 1 ? tmpMaxActivity : NaN;
+                }
+            } else {
+                if (tmpUpper < INFINITE) {
+                    tmpOthersMin = tmpMinInfinite == 0 ? tmpMinActivity - (tmpFactor * tmpUpper) : NaN;
+                } else {
+                    tmpOthersMin = tmpMinInfinite == 1 ? tmpMinActivity : NaN;
+                }
+                if (tmpLower > -INFINITE) {
+                    tmpOthersMax = tmpMaxInfinite == 0 ? tmpMaxActivity - (tmpFactor * tmpLower) : NaN;
+                } else {
+                    tmpOthersMax = tmpMaxInfinite == 1 ? tmpMaxActivity : NaN;
+                }
+            }
+
+            double tmpNewLower = NEGATIVE_INFINITY;
+            double tmpNewUpper = POSITIVE_INFINITY;
+
+            // factor * x <= rowUpper - othersMin and factor * x >= rowLower - othersMax
+            if ((rowUpper < INFINITE) && !Double.isNaN(tmpOthersMin)) {
+                final double tmpLimit = (rowUpper - tmpOthersMin) / tmpFactor;
+                if (tmpFactor > ZERO) {
+                    tmpNewUpper = tmpLimit;
+                } else {
+                    tmpNewLower = tmpLimit;
+                }
+            }
+            if ((rowLower > -INFINITE) && !Double.isNaN(tmpOthersMax)) {
+                final double tmpLimit = (rowLower - tmpOthersMax) / tmpFactor;
+                if (tmpFactor > ZERO) {
+                    tmpNewLower = Math.max(tmpNewLower, tmpLimit);
+                } else {
+                    tmpNewUpper = Math.min(tmpNewUpper, tmpLimit);
+                }
+            }
+
+            if (myIntegers[tmpIndex]) {
+                tmpNewLower = NodePresolver.roundUp(tmpNewLower);
+                tmpNewUpper = NodePresolver.roundDown(tmpNewUpper);
+            }
+
+            // Only tighten if the improvement is significant relative to the current domain
+            final double tmpDomain = (tmpLower > -INFINITE) && (tmpUpper < INFINITE) ? tmpUpper - tmpLower : POSITIVE_INFINITY;
+            final double tmpSignificant = myIntegers[tmpIndex] ? HALF : Math.max(NodePresolver.tolerance(tmpDomain), 1E-3 * tmpDomain);
+
+            if ((tmpNewLower > -INFINITE) && ((tmpNewLower - tmpLower) > tmpSignificant)) {
+                lower[tmpIndex] = tmpNewLower;
+                retVal++;
+            }
+            if ((tmpNewUpper < INFINITE) && ((tmpUpper - tmpNewUpper) > tmpSignificant)) {
+                upper[tmpIndex] = tmpNewUpper;
+                retVal++;
+            }
+
+            if ((lower[tmpIndex] - upper[tmpIndex]) > NodePresolver.tolerance(upper[tmpIndex])) {
+                return -1;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Repeated passes over all rows until nothing changes (or the max number of passes is reached).
+     */
+    private boolean propagate(final double[] lower, final double[] upper, final double objectiveLimit) {
+
+        final boolean tmpObjective = !Double.isNaN(objectiveLimit) && (myObjectiveIndeces.length > 0);
+        final double tmpObjectiveLower = myMinimisation ? NEGATIVE_INFINITY : objectiveLimit;
+        final double tmpObjectiveUpper = myMinimisation ? objectiveLimit : POSITIVE_INFINITY;
+
+        final int tmpCountRows = myRowIndeces.length;
+
+        for (int p = 0; p < MAX_PASSES; p++) {
+
+            int tmpChanges = 0;
+
+            for (int r = 0; r < tmpCountRows; r++) {
+                final int tmpRowChanges = this.propagate(myRowIndeces[r], myRowFactors[r], myRowLower[r], myRowUpper[r], lower, upper);
+                if (tmpRowChanges < 0) {
+                    return false;
+                }
+                tmpChanges += tmpRowChanges;
+            }
+
+            if (tmpObjective) {
+                final int tmpRowChanges = this.propagate(myObjectiveIndeces, myObjectiveFactors, tmpObjectiveLower, tmpObjectiveUpper, lower, upper);
+                if (tmpRowChanges < 0) {
+                    return false;
+                }
+                tmpChanges += tmpRowChanges;
+            }
+
+            if (tmpChanges == 0) {
+                break;
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.ojalgo.constant.PrimitiveMath;
+
+/**
+ * The queue of open (not yet evaluated) branch&amp;bound nodes. Nodes are stored in compact form - as deltas relative
+ * to their parents' bounds - and are normally served in the order they were created. The queue is bounded in memory:
+ * when it holds more than its capacity it either spills the most recently created nodes (those that would be served
+ * last) to file, or switches to serving the most recently created nodes first (depth-first) until it is back below
+ * half its capacity.
+ *
+ * @author apete
+ */
+final class NodeQueue {
+
+    /**
+     * A file of spilled nodes, the deltas (still in memory) that the spilled ones are relative to, and the range of
+     * the spilled nodes' (parent node) values.
+     */
+    private static final class Batch {
+
+        final NodeKey.Delta[] anchors;
+        final File file;
+        final double highest;
+        final double lowest;
+
+        Batch(final File file, final NodeKey.Delta[] anchors, final double lowest, final double highest) {
+
+            super();
+
+            this.file = file;
+            this.anchors = anchors;
+            this.lowest = lowest;
+            this.highest = highest;
+        }
+
+    }
+
+    /**
+     * @param current NaN if there is none (yet)
+     * @param candidate NaN if unknown - as good as it gets
+     */
+    private static double best(final double current, final double candidate, final boolean minimisation) {
+        if (Double.isNaN(candidate)) {
+            return minimisation ? PrimitiveMath.NEGATIVE_INFINITY : PrimitiveMath.POSITIVE_INFINITY;
+        } else if (Double.isNaN(current)) {
+            return candidate;
+        } else {
+            return minimisation ? Math.min(current, candidate) : Math.max(current, candidate);
+        }
+    }
+
+    private static int reference(final NodeKey.Delta delta, final Map<NodeKey.Delta, Integer> references) {
+        return delta != null ? references.get(delta) : 0;
+    }
+
+    private static NodeKey.Delta resolve(final int reference, final NodeKey.Delta[] deltas, final NodeKey.Delta[] anchors) {
+        if (reference > 0) {
+            return deltas[reference - 1];
+        } else if (reference < 0) {
+            return anchors[-reference - 1];
+        } else {
+            return null;
+        }
+    }
+
+    private final int myCapacity;
+    private boolean myDepthFirst = false;
+    private final File myDirectory;
+    private final TreeSet<NodeKey.Compact> myNodes = new TreeSet<>();
+    private final Deque<Batch> mySpilled = new ArrayDeque<>();
+    private int mySpilledCount = 0;
+
+    NodeQueue(final int capacity, final File spillDirectory) {
+
+        super();
+
+        myCapacity = Math.max(2, capacity);
+        myDirectory = spillDirectory;
+    }
+
+    synchronized boolean add(final NodeKey node) {
+
+        final boolean retVal = myNodes.add(node.compact());
+
+        if (myNodes.size() > myCapacity) {
+            if (myDirectory != null) {
+                this.spill();
+            } else {
+                myDepthFirst = true;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Removes all nodes, incl. any spilled to file
+     */
+    synchronized void clear() {
+
+        myNodes.clear();
+
+        while (!mySpilled.isEmpty()) {
+            mySpilled.pop().file.delete();
+        }
+        mySpilledCount = 0;
+
+        myDepthFirst = false;
+    }
+
+    /**
+     * @return The number of nodes spilled to file
+     */
+    synchronized int countSpilled() {
+        return mySpilledCount;
+    }
+
+    /**
+     * @return The best (lowest when minimising, highest when maximising) parent node value among the open nodes,
+     *         incl. any spilled to file, infinite if any of them has no such value (the root node), or NaN if there
+     *         are none
+     */
+    synchronized double getBound(final boolean minimisation) {
+
+        double retVal = PrimitiveMath.NaN;
+
+        for (final NodeKey.Compact tmpNode : myNodes) {
+            retVal = NodeQueue.best(retVal, tmpNode.objective, minimisation);
+        }
+        for (final Batch tmpBatch : mySpilled) {
+            retVal = NodeQueue.best(retVal, minimisation ? tmpBatch.lowest : tmpBatch.highest, minimisation);
+        }
+
+        return retVal;
+    }
+
+    synchronized boolean isDepthFirst() {
+        return myDepthFirst;
+    }
+
+    synchronized boolean isEmpty() {
+        return myNodes.isEmpty() && mySpilled.isEmpty();
+    }
+
+    /**
+     * @return The next node to evaluate, or null if there are none
+     */
+    synchronized NodeKey poll() {
+
+        if (myNodes.isEmpty() && !mySpilled.isEmpty()) {
+            this.reload();
+        }
+
+        final NodeKey.Compact tmpNode = myDepthFirst ? myNodes.pollLast() : myNodes.pollFirst();
+
+        if (myDepthFirst && (myNodes.size() < (myCapacity / 2))) {
+            myDepthFirst = false;
+        }
+
+        return tmpNode != null ? tmpNode.expand() : null;
+    }
+
+    /**
+     * @return The number of nodes in memory
+     */
+    synchronized int size() {
+        return myNodes.size();
+    }
+
+    /**
+     * Reads back the most recently spilled batch of nodes. The deltas are read in the order they were written, bases
+     * before the deltas relative to them, and are linked to the deltas still in memory that they were relative to.
+     */
+    private void reload() {
+
+        final Batch tmpBatch = mySpilled.pop();
+
+        try (DataInputStream tmpInput = new DataInputStream(new BufferedInputStream(new FileInputStream(tmpBatch.file)))) {
+
+            final NodeKey.Delta[] tmpDeltas = new NodeKey.Delta[tmpInput.readInt()];
+            for (int d = 0; d < tmpDeltas.length; d++) {
+                final NodeKey.Delta tmpBase = NodeQueue.resolve(tmpInput.readInt(), tmpDeltas, tmpBatch.anchors);
+                tmpDeltas[d] = NodeKey.Delta.read(tmpInput, tmpBase);
+            }
+
+            final int tmpCount = tmpInput.readInt();
+            for (int i = 0; i < tmpCount; i++) {
+                final NodeKey.Delta tmpDelta = NodeQueue.resolve(tmpInput.readInt(), tmpDeltas, tmpBatch.anchors);
+                myNodes.add(NodeKey.Compact.read(tmpInput, tmpDelta));
+            }
+            mySpilledCount -= tmpCount;
+
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            tmpBatch.file.delete();
+        }
+    }
+
+    /**
+     * Writes the most recently created half of the nodes in memory to file, in one batch. Nothing is written
+     * recursively - each delta is written once, as a flat list of changes together with a reference to its base:
+     * <ul>
+     * <li>a positive number - another delta in the same file (always written before)</li>
+     * <li>a negative number - one of the deltas the nodes remaining in memory depend on (the batch keeps a reference
+     * to those, and when reloaded the nodes share them again)</li>
+     * <li>zero - no base, a root delta</li>
+     * </ul>
+     * If the nodes can't be written the queue switches to depth-first instead.
+     */
+    private void spill() {
+
+        final int tmpCount = myNodes.size() / 2;
+        final int tmpKeep = myNodes.size() - tmpCount;
+
+        final Set<NodeKey.Delta> tmpInMemory = Collections.newSetFromMap(new IdentityHashMap<NodeKey.Delta, Boolean>());
+        final List<NodeKey.Compact> tmpNodes = new ArrayList<>(tmpCount);
+
+        final Iterator<NodeKey.Compact> tmpIterator = myNodes.iterator();
+        for (int i = 0; i < tmpKeep; i++) {
+            // Mark the chain, up to where it joins an already marked one
+            NodeKey.Delta tmpDelta = tmpIterator.next().getDelta();
+            while ((tmpDelta != null) && tmpInMemory.add(tmpDelta)) {
+                tmpDelta = tmpDelta.getBase();
+            }
+        }
+        while (tmpIterator.hasNext()) {
+            tmpNodes.add(tmpIterator.next());
+        }
+
+        final Map<NodeKey.Delta, Integer> tmpReferences = new IdentityHashMap<>();
+        final List<NodeKey.Delta> tmpAnchors = new ArrayList<>();
+        final List<NodeKey.Delta> tmpDeltas = new ArrayList<>();
+
+        double tmpLowest = PrimitiveMath.NaN;
+        double tmpHighest = PrimitiveMath.NaN;
+
+        final Deque<NodeKey.Delta> tmpChain = new ArrayDeque<>();
+        for (final NodeKey.Compact tmpNode : tmpNodes) {
+
+            tmpLowest = NodeQueue.best(tmpLowest, tmpNode.objective, true);
+            tmpHighest = NodeQueue.best(tmpHighest, tmpNode.objective, false);
+
+            NodeKey.Delta tmpDelta = tmpNode.getDelta();
+            while ((tmpDelta != null) && !tmpReferences.containsKey(tmpDelta)) {
+                if (tmpInMemory.contains(tmpDelta)) {
+                    tmpAnchors.add(tmpDelta);
+                    tmpReferences.put(tmpDelta, -tmpAnchors.size());
+                } else {
+                    tmpChain.push(tmpDelta);
+                    tmpDelta = tmpDelta.getBase();
+                }
+            }
+
+            while (!tmpChain.isEmpty()) {
+                tmpDelta = tmpChain.pop();
+                tmpDeltas.add(tmpDelta);
+                tmpReferences.put(tmpDelta, tmpDeltas.size());
+            }
+        }
+
+        File tmpFile = null;
+        try {
+
+            tmpFile = File.createTempFile("ojAlgo-nodes-", ".bin", myDirectory);
+            tmpFile.deleteOnExit();
+
+            try (DataOutputStream tmpOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+
+                tmpOutput.writeInt(tmpDeltas.size());
+                for (final NodeKey.Delta tmpDelta : tmpDeltas) {
+                    tmpOutput.writeInt(NodeQueue.reference(tmpDelta.getBase(), tmpReferences));
+                    tmpDelta.write(tmpOutput);
+                }
+
+                tmpOutput.writeInt(tmpNodes.size());
+                for (final NodeKey.Compact tmpNode : tmpNodes) {
+                    tmpOutput.writeInt(NodeQueue.reference(tmpNode.getDelta(), tmpReferences));
+                    tmpNode.write(tmpOutput);
+                }
+            }
+
+        } catch (final IOException cause) {
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+            myDepthFirst = true;
+            return;
+        }
+
+        for (int i = 0; i < tmpCount; i++) {
+            myNodes.pollLast();
+        }
+
+        mySpilled.push(new Batch(tmpFile, tmpAnchors.toArray(new NodeKey.Delta[tmpAnchors.size()]), tmpLowest, tmpHighest));
+        mySpilledCount += tmpCount;
+    }
+
+}
@@ -28,10 +28,11 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.ojalgo.access.AccessUtils;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
@@ -51,19 +52,16 @@ public final class OldIntegerSolver extends IntegerSolver {
     final class BranchAndBoundNodeTask extends RecursiveTask<Boolean> {
 
         private final NodeKey myKey;
+        private boolean myOpen = true;
 
         private BranchAndBoundNodeTask(final NodeKey key) {
 
             super();
 
             myKey = key;
-        }
-
-        BranchAndBoundNodeTask() {
-
-            super();
 
-            myKey = new NodeKey(OldIntegerSolver.this.getModel());
+            myOpenNodes.incrementAndGet();
+            OldIntegerSolver.this.addOpenBound(key.objective);
         }
 
         @Override
@@ -71,125 +69,161 @@ public final class OldIntegerSolver extends IntegerSolver {
             return myKey.toString();
         }
 
+        /**
+         * The node no longer bounds anything - either it's fully evaluated or it has been replaced by its branches
+         */
+        private void close() {
+            if (myOpen) {
+                myOpen = false;
+                OldIntegerSolver.this.removeOpenBound(myKey.objective);
+            }
+        }
+
         @Override
         protected Boolean compute() {
 
-            if (OldIntegerSolver.this.isDebug()) {
-                OldIntegerSolver.this.debug("\nBranch&Bound Node");
-                OldIntegerSolver.this.debug(myKey.toString());
-                OldIntegerSolver.this.debug(OldIntegerSolver.this.toString());
-            }
+            myOpenNodes.decrementAndGet();
 
-            if (!OldIntegerSolver.this.isIterationAllowed() || !OldIntegerSolver.this.isIterationNecessary()) {
+            try {
                 if (OldIntegerSolver.this.isDebug()) {
-                    OldIntegerSolver.this.debug("Reached iterations or time limit - stop!");
+                    OldIntegerSolver.this.debug("\nBranch&Bound Node");
+                    OldIntegerSolver.this.debug(myKey.toString());
+                    OldIntegerSolver.this.debug(OldIntegerSolver.this.toString());
                 }
-                return false;
-            }
-
-            if (OldIntegerSolver.this.isExplored(this)) {
-                if (OldIntegerSolver.this.isDebug()) {
-                    OldIntegerSolver.this.debug("Node previously explored!");
-                }
-                return true;
-            } else {
-                OldIntegerSolver.this.markAsExplored(this);
-            }
 
-            if (!OldIntegerSolver.this.isGoodEnoughToContinueBranching(myKey.objective)) {
-                if (OldIntegerSolver.this.isDebug()) {
-                    OldIntegerSolver.this.debug("No longer a relevant node!");
+                if (!OldIntegerSolver.this.isIterationAllowed() || !OldIntegerSolver.this.isIterationNecessary()) {
+                    if (OldIntegerSolver.this.isDebug()) {
+                        OldIntegerSolver.this.debug("Reached iterations or time limit - stop!");
+                    }
+                    // Not evaluated - the node still bounds what could be found
+                    myOpen = false;
+                    return false;
                 }
-                return true;
-            }
 
-            ExpressionsBasedModel tmpModel = this.getModel();
-            final Optimisation.Result tmpResult = tmpModel.solve(OldIntegerSolver.this.getBestResultSoFar());
-
-            OldIntegerSolver.this.incrementIterationsCount();
-
-            if (tmpResult.getState().isOptimal()) {
-                if (OldIntegerSolver.this.isDebug()) {
-                    OldIntegerSolver.this.debug("Node solved to optimality!");
+                if (!OldIntegerSolver.this.presolve(myKey)) {
+                    if (OldIntegerSolver.this.isDebug()) {
+                        OldIntegerSolver.this.debug("Node infeasible after bound propagation!");
+                    }
+                    return true;
                 }
 
-                if (OldIntegerSolver.this.options.validate && !tmpModel.validate(tmpResult)) {
-                    // This should not be possible. There is a bug somewhere.
-                    OldIntegerSolver.this.debug("Node solution marked as OPTIMAL, but is actually INVALID/INFEASIBLE/FAILED. Stop this branch!");
-                    //                    IntegerSolver.this.logDebug(myKey.toString());
-                    //                    IntegerSolver.this.logDebug(tmpModel.toString());
-                    //                    final GenericSolver tmpDefaultSolver = tmpModel.getDefaultSolver();
-                    //                    tmpDefaultSolver.solve();
-                    //                    IntegerSolver.this.logDebug(tmpDefaultSolver.toString());
-                    return false;
+                if (OldIntegerSolver.this.isExplored(this)) {
+                    if (OldIntegerSolver.this.isDebug()) {
+                        OldIntegerSolver.this.debug("Node previously explored!");
+                    }
+                    return true;
+                } else {
+                    OldIntegerSolver.this.markAsExplored(this);
                 }
 
-                final int tmpBranchIndex = OldIntegerSolver.this.identifyNonIntegerVariable(tmpResult, myKey);
-                final double tmpSolutionValue = OldIntegerSolver.this.evaluateFunction(tmpResult);
-
-                if (tmpBranchIndex == -1) {
+                if (!OldIntegerSolver.this.isGoodEnoughToContinueBranching(myKey.objective)) {
                     if (OldIntegerSolver.this.isDebug()) {
-                        OldIntegerSolver.this.debug("Integer solution! Store it among the others, and stop this branch!");
+                        OldIntegerSolver.this.debug("No longer a relevant node!");
                     }
+                    return true;
+                }
 
-                    final Optimisation.Result tmpIntegerSolutionResult = new Optimisation.Result(Optimisation.State.FEASIBLE, tmpSolutionValue, tmpResult);
+                final ExpressionsBasedModel[] tmpNodeModel = new ExpressionsBasedModel[] { this.getModel() };
+                final Optimisation.Result tmpResult = OldIntegerSolver.this.solveNodeModel(myKey, tmpNodeModel);
+                ExpressionsBasedModel tmpModel = tmpNodeModel[0];
 
-                    OldIntegerSolver.this.markInteger(myKey, tmpIntegerSolutionResult);
+                OldIntegerSolver.this.incrementIterationsCount();
 
+                OldIntegerSolver.this.progress(Optimisation.Progress.Event.ITERATION);
+
+                if (tmpResult.getState().isOptimal()) {
                     if (OldIntegerSolver.this.isDebug()) {
-                        OldIntegerSolver.this.debug(OldIntegerSolver.this.getBestResultSoFar().toString());
-                        BasicLogger.debug();
-                        BasicLogger.debug(OldIntegerSolver.this.toString());
-                        // BasicLogger.debug(DaemonPoolExecutor.INSTANCE.toString());
+                        OldIntegerSolver.this.debug("Node solved to optimality!");
                     }
 
-                } else {
-                    if (OldIntegerSolver.this.isDebug()) {
-                        OldIntegerSolver.this.debug("Not an Integer Solution: " + tmpSolutionValue);
+                    if (OldIntegerSolver.this.options.validate && !tmpModel.validate(tmpResult)) {
+                        // This should not be possible. There is a bug somewhere.
+                        OldIntegerSolver.this.debug("Node solution marked as OPTIMAL, but is actually INVALID/INFEASIBLE/FAILED. Stop this branch!");
+                        //                    IntegerSolver.this.logDebug(myKey.toString());
+                        //                    IntegerSolver.this.logDebug(tmpModel.toString());
+                        //                    final GenericSolver tmpDefaultSolver = tmpModel.getDefaultSolver();
+                        //                    tmpDefaultSolver.solve();
+                        //                    IntegerSolver.this.logDebug(tmpDefaultSolver.toString());
+                        return false;
                     }
 
-                    final double tmpVariableValue = tmpResult.doubleValue(OldIntegerSolver.this.getGlobalIndex(tmpBranchIndex));
+                    final double tmpSolutionValue = OldIntegerSolver.this.evaluateFunction(tmpResult);
+
+                    OldIntegerSolver.this.markSolved(myKey, tmpSolutionValue);
+
+                    final int tmpBranchIndex = OldIntegerSolver.this.identifyNonIntegerVariable(tmpResult, myKey, tmpSolutionValue);
+
+                    if (tmpBranchIndex == -1) {
+                        if (OldIntegerSolver.this.isDebug()) {
+                            OldIntegerSolver.this.debug("Integer solution! Store it among the others, and stop this branch!");
+                        }
+
+                        final Optimisation.Result tmpIntegerSolutionResult = new Optimisation.Result(Optimisation.State.FEASIBLE, tmpSolutionValue, tmpResult);
+
+                        OldIntegerSolver.this.markInteger(myKey, tmpIntegerSolutionResult);
 
-                    if (OldIntegerSolver.this.isGoodEnoughToContinueBranching(tmpSolutionValue)) {
                         if (OldIntegerSolver.this.isDebug()) {
-                            OldIntegerSolver.this.debug("Still hope, branching on {} @ {} >>> {}", tmpBranchIndex, tmpVariableValue,
-                                    tmpModel.getVariable(OldIntegerSolver.this.getGlobalIndex(tmpBranchIndex)));
+                            OldIntegerSolver.this.debug(OldIntegerSolver.this.getBestResultSoFar().toString());
+                            BasicLogger.debug();
+                            BasicLogger.debug(OldIntegerSolver.this.toString());
+                            // BasicLogger.debug(DaemonPoolExecutor.INSTANCE.toString());
                         }
 
-                        tmpModel.destroy();
-                        tmpModel = null;
+                    } else {
+                        if (OldIntegerSolver.this.isDebug()) {
+                            OldIntegerSolver.this.debug("Not an Integer Solution: " + tmpSolutionValue);
+                        }
+
+                        final double tmpVariableValue = tmpResult.doubleValue(OldIntegerSolver.this.getGlobalIndex(tmpBranchIndex));
+
+                        if (OldIntegerSolver.this.isGoodEnoughToContinueBranching(tmpSolutionValue)) {
+                            if (OldIntegerSolver.this.isDebug()) {
+                                OldIntegerSolver.this.debug("Still hope, branching on {} @ {} >>> {}", tmpBranchIndex, tmpVariableValue,
+                                        tmpModel.getVariable(OldIntegerSolver.this.getGlobalIndex(tmpBranchIndex)));
+                            }
+
+                            tmpModel.destroy();
+                            tmpModel = null;
+
+                            OldIntegerSolver.this.runHeuristics(myKey, tmpResult);
 
-                        final BranchAndBoundNodeTask tmpLowerBranchTask = this.createLowerBranch(tmpBranchIndex, tmpVariableValue, tmpSolutionValue);
-                        final BranchAndBoundNodeTask tmpUpperBranchTask = this.createUpperBranch(tmpBranchIndex, tmpVariableValue, tmpSolutionValue);
+                            final BranchAndBoundNodeTask tmpLowerBranchTask = this.createLowerBranch(tmpBranchIndex, tmpVariableValue, tmpSolutionValue);
+                            final BranchAndBoundNodeTask tmpUpperBranchTask = this.createUpperBranch(tmpBranchIndex, tmpVariableValue, tmpSolutionValue);
 
-                        //   return tmpLowerBranchTask.compute() && tmpUpperBranchTask.compute();
+                            this.close();
 
-                        tmpUpperBranchTask.fork();
+                            //   return tmpLowerBranchTask.compute() && tmpUpperBranchTask.compute();
 
-                        final boolean tmpLowerBranchValue = tmpLowerBranchTask.compute();
+                            tmpUpperBranchTask.fork();
+
+                            final boolean tmpLowerBranchValue = tmpLowerBranchTask.compute();
+
+                            if (tmpLowerBranchValue) {
+                                return tmpUpperBranchTask.join();
+                            } else {
+                                tmpUpperBranchTask.tryUnfork();
+                                tmpUpperBranchTask.cancel(true);
+                                return false;
+                            }
 
-                        if (tmpLowerBranchValue) {
-                            return tmpUpperBranchTask.join();
                         } else {
-                            tmpUpperBranchTask.tryUnfork();
-                            tmpUpperBranchTask.cancel(true);
-                            return false;
+                            if (OldIntegerSolver.this.isDebug()) {
+                                OldIntegerSolver.this.debug("Can't find better integer solutions - stop this branch!");
+                            }
                         }
+                    }
 
-                    } else {
-                        if (OldIntegerSolver.this.isDebug()) {
-                            OldIntegerSolver.this.debug("Can't find better integer solutions - stop this branch!");
-                        }
+                } else {
+                    if (OldIntegerSolver.this.isDebug()) {
+                        OldIntegerSolver.this.debug("Failed to solve problem - stop this branch!");
                     }
                 }
 
-            } else {
-                if (OldIntegerSolver.this.isDebug()) {
-                    OldIntegerSolver.this.debug("Failed to solve problem - stop this branch!");
-                }
-            }
+                return true;
 
-            return true;
+            } finally {
+                this.close();
+            }
         }
 
         BranchAndBoundNodeTask createLowerBranch(final int branchIndex, final double nonIntegerValue, final double parentObjectiveValue) {
@@ -211,48 +245,15 @@ public final class OldIntegerSolver extends IntegerSolver {
         }
 
         ExpressionsBasedModel getModel() {
-
-            final ExpressionsBasedModel retVal = OldIntegerSolver.this.getModel().relax(false);
-
-            final int[] tmpIntegerIndeces = OldIntegerSolver.this.getIntegerIndeces();
-            for (int i = 0; i < tmpIntegerIndeces.length; i++) {
-
-                final BigDecimal tmpLowerBound = myKey.getLowerBound(i);
-                final BigDecimal tmpUpperBound = myKey.getUpperBound(i);
-
-                final Variable tmpVariable = retVal.getVariable(tmpIntegerIndeces[i]);
-                tmpVariable.lower(tmpLowerBound);
-                tmpVariable.upper(tmpUpperBound);
-
-                BigDecimal tmpValue = tmpVariable.getValue();
-                if (tmpValue != null) {
-                    if (tmpLowerBound != null) {
-                        tmpValue = tmpValue.max(tmpLowerBound);
-                    }
-                    if (tmpUpperBound != null) {
-                        tmpValue = tmpValue.min(tmpUpperBound);
-                    }
-                    tmpVariable.setValue(tmpValue);
-                }
-            }
-
-            if (OldIntegerSolver.this.isIntegerSolutionFound()) {
-                final double tmpBestValue = OldIntegerSolver.this.getBestResultSoFar().getValue();
-                final double tmpGap = Math.abs(tmpBestValue * OldIntegerSolver.this.options.mip_gap);
-                if (retVal.isMinimisation()) {
-                    retVal.limitObjective(null, TypeUtils.toBigDecimal(tmpBestValue - tmpGap, OldIntegerSolver.this.options.problem));
-                } else {
-                    retVal.limitObjective(TypeUtils.toBigDecimal(tmpBestValue + tmpGap, OldIntegerSolver.this.options.problem), null);
-                }
-            }
-
-            return retVal;
+            return OldIntegerSolver.this.makeNodeModel(myKey);
         }
 
     }
 
     private final Set<NodeKey> myExploredNodes = Collections.synchronizedSet(new HashSet<NodeKey>());
     private final int[] myIntegerIndeces;
+    private final TreeMap<Double, Integer> myOpenBounds = new TreeMap<>();
+    private final AtomicInteger myOpenNodes = new AtomicInteger();
 
     OldIntegerSolver(final ExpressionsBasedModel model, final Options solverOptions) {
 
@@ -279,10 +280,27 @@ public final class OldIntegerSolver extends IntegerSolver {
         }
 
         this.resetIterationsCount();
+        myOpenNodes.set(0);
+        synchronized (myOpenBounds) {
+            myOpenBounds.clear();
+        }
+
+        this.progress(Optimisation.Progress.Event.STARTED);
+
+        final NodeKey tmpRootKey = new NodeKey(this.getModel());
+
+        boolean tmpNormalExit = true;
+
+        if (this.presolve(tmpRootKey)) {
+
+            this.generateCuts(tmpRootKey);
+
+            final BranchAndBoundNodeTask tmpNodeTask = new BranchAndBoundNodeTask(tmpRootKey);
 
-        final BranchAndBoundNodeTask tmpNodeTask = new BranchAndBoundNodeTask();
+            tmpNormalExit = ForkJoinPool.commonPool().invoke(tmpNodeTask);
 
-        final boolean tmpNormalExit = ForkJoinPool.commonPool().invoke(tmpNodeTask);
+            this.stopHeuristics();
+        }
 
         Optimisation.Result retVal = this.getBestResultSoFar();
 
@@ -303,6 +321,8 @@ public final class OldIntegerSolver extends IntegerSolver {
             }
         }
 
+        this.progress(Optimisation.Progress.Event.FINISHED);
+
         return retVal;
     }
 
@@ -311,6 +331,27 @@ public final class OldIntegerSolver extends IntegerSolver {
         return TypeUtils.format("Solutions={} Nodes/Iterations={} {}", this.countIntegerSolutions(), this.countExploredNodes(), this.getBestResultSoFar());
     }
 
+    /**
+     * The open nodes' (parent node) values, with counts. The root node has no value - it's counted as NaN.
+     */
+    private void addOpenBound(final double value) {
+        synchronized (myOpenBounds) {
+            final Integer tmpCount = myOpenBounds.get(value);
+            myOpenBounds.put(value, tmpCount != null ? tmpCount + 1 : 1);
+        }
+    }
+
+    private void removeOpenBound(final double value) {
+        synchronized (myOpenBounds) {
+            final Integer tmpCount = myOpenBounds.get(value);
+            if ((tmpCount == null) || (tmpCount <= 1)) {
+                myOpenBounds.remove(value);
+            } else {
+                myOpenBounds.put(value, tmpCount - 1);
+            }
+        }
+    }
+
     @Override
     protected MatrixStore<Double> extractSolution() {
         return PrimitiveDenseStore.FACTORY.columns(this.getBestResultSoFar());
@@ -348,10 +389,16 @@ public final class OldIntegerSolver extends IntegerSolver {
         return retVal;
     }
 
+    @Override
     int countExploredNodes() {
         return myExploredNodes.size();
     }
 
+    @Override
+    int countOpenNodes() {
+        return myOpenNodes.get();
+    }
+
     int getGlobalIndex(final int integerIndex) {
         return myIntegerIndeces[integerIndex];
     }
@@ -360,25 +407,58 @@ public final class OldIntegerSolver extends IntegerSolver {
         return myIntegerIndeces;
     }
 
-    int identifyNonIntegerVariable(final Optimisation.Result nodeResult, final NodeKey nodeKey) {
+    @Override
+    double getOpenBound(final boolean minimisation) {
+        synchronized (myOpenBounds) {
+            if (myOpenBounds.isEmpty()) {
+                return NaN;
+            } else if (myOpenBounds.containsKey(NaN)) {
+                return minimisation ? NEGATIVE_INFINITY : POSITIVE_INFINITY;
+            } else {
+                return minimisation ? myOpenBounds.firstKey() : myOpenBounds.lastKey();
+            }
+        }
+    }
 
-        final MatrixStore<Double> tmpGradient = this.getGradient(AccessUtils.asPrimitive1D(nodeResult));
+    @Override
+    ExpressionsBasedModel makeNodeModel(final NodeKey nodeKey, final boolean cuts) {
 
-        int retVal = -1;
+        final ExpressionsBasedModel retVal = this.getModel().relax(false);
 
-        double tmpFraction, tmpWeightedFraction;
-        double tmpMaxFraction = ZERO;
+        final int[] tmpIntegerIndeces = this.getIntegerIndeces();
+        for (int i = 0; i < tmpIntegerIndeces.length; i++) {
 
-        for (int i = 0; i < myIntegerIndeces.length; i++) {
+            final BigDecimal tmpLowerBound = nodeKey.getLowerBound(i);
+            final BigDecimal tmpUpperBound = nodeKey.getUpperBound(i);
 
-            tmpFraction = nodeKey.getFraction(i, nodeResult.doubleValue(myIntegerIndeces[i]));
-            tmpWeightedFraction = tmpFraction * (PrimitiveMath.ONE + Math.abs(tmpGradient.doubleValue(myIntegerIndeces[i])));
+            final Variable tmpVariable = retVal.getVariable(tmpIntegerIndeces[i]);
+            tmpVariable.lower(tmpLowerBound);
+            tmpVariable.upper(tmpUpperBound);
 
-            if ((tmpWeightedFraction > tmpMaxFraction) && !options.integer.isZero(tmpWeightedFraction)) {
-                retVal = i;
-                tmpMaxFraction = tmpWeightedFraction;
+            BigDecimal tmpValue = tmpVariable.getValue();
+            if (tmpValue != null) {
+                if (tmpLowerBound != null) {
+                    tmpValue = tmpValue.max(tmpLowerBound);
+                }
+                if (tmpUpperBound != null) {
+                    tmpValue = tmpValue.min(tmpUpperBound);
+                }
+                tmpVariable.setValue(tmpValue);
             }
+        }
 
+        if (cuts) {
+            this.addCuts(retVal);
+        }
+
+        if (this.isIntegerSolutionFound()) {
+            final double tmpBestValue = this.getBestResultSoFar().getValue();
+            final double tmpGap = Math.abs(tmpBestValue * options.mip_gap);
+            if (retVal.isMinimisation()) {
+                retVal.limitObjective(null, TypeUtils.toBigDecimal(tmpBestValue - tmpGap, options.problem));
+            } else {
+                retVal.limitObjective(TypeUtils.toBigDecimal(tmpBestValue + tmpGap, options.problem), null);
+            }
         }
 
         return retVal;
@@ -0,0 +1,456 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.ojalgo.array.ArrayUtils;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * Primal heuristics try to find (good) integer solutions early, so that the branch&amp;bound tree search has a bound
+ * to prune against. They work on the node keys and node models of an {@linkplain IntegerSolver}, and any integer
+ * solution found is published as a new incumbent via {@linkplain IntegerSolver#markInteger(NodeKey, Optimisation.Result)}.
+ *
+ * @author apete
+ */
+abstract class PrimalHeuristic {
+
+    /**
+     * Fractional or guided diving. Starting from a node LP solution, one integer variable at the time is rounded (its
+     * bound tightened) and the LP re-solved, until the solution is integer or the dive fails. Fractional diving picks
+     * the variable closest to an integer value and rounds it to the nearest integer. Guided diving requires an
+     * incumbent - it picks the variable closest to its incumbent value and rounds it in that direction. A rounding that
+     * makes the LP infeasible is retried (once) in the other direction.
+     */
+    static final class Diving extends PrimalHeuristic {
+
+        private final boolean myGuided;
+
+        Diving(final boolean guided) {
+
+            super();
+
+            myGuided = guided;
+        }
+
+        @Override
+        public String toString() {
+            return myGuided ? "Guided Diving" : "Fractional Diving";
+        }
+
+        @Override
+        boolean search(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+            if (myGuided && !solver.isIntegerSolutionFound()) {
+                return false;
+            }
+
+            final Optimisation.Result tmpIncumbent = myGuided ? solver.getBestResultSoFar() : null;
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+            NodeKey tmpKey = nodeKey;
+            Optimisation.Result tmpSolution = nodeSolution;
+
+            int tmpSolves = 0;
+            while ((tmpSolves < MAX_SOLVES) && !solver.isHeuristicsStopped()) {
+
+                int tmpSelected = -1;
+                boolean tmpUp = false;
+                double tmpMinScore = POSITIVE_INFINITY;
+
+                for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+
+                    final double tmpValue = tmpSolution.doubleValue(tmpIntegerIndeces[i]);
+
+                    if (!solver.options.integer.isZero(tmpKey.getFraction(i, tmpValue))) {
+
+                        double tmpScore;
+                        boolean tmpDirection;
+
+                        if (myGuided) {
+                            final double tmpTarget = tmpIncumbent.doubleValue(tmpIntegerIndeces[i]);
+                            tmpScore = Math.abs(tmpValue - tmpTarget);
+                            tmpDirection = tmpTarget > tmpValue;
+                        } else {
+                            final double tmpFraction = tmpValue - Math.floor(tmpValue);
+                            tmpScore = Math.min(tmpFraction, ONE - tmpFraction);
+                            tmpDirection = tmpFraction >= HALF;
+                        }
+
+                        if (tmpScore < tmpMinScore) {
+                            tmpSelected = i;
+                            tmpUp = tmpDirection;
+                            tmpMinScore = tmpScore;
+                        }
+                    }
+                }
+
+                if (tmpSelected == -1) {
+                    return this.publish(solver, tmpSolution);
+                }
+
+                final double tmpValue = tmpSolution.doubleValue(tmpIntegerIndeces[tmpSelected]);
+                final NodeKey tmpLower = tmpKey.createLowerBranch(tmpSelected, tmpValue, tmpSolution.getValue());
+                final NodeKey tmpUpper = tmpKey.createUpperBranch(tmpSelected, tmpValue, tmpSolution.getValue());
+
+                tmpKey = tmpUp ? tmpUpper : tmpLower;
+                tmpSolution = this.solve(solver, tmpKey);
+                tmpSolves++;
+
+                if ((tmpSolution == null) && (tmpSolves < MAX_SOLVES)) {
+                    tmpKey = tmpUp ? tmpLower : tmpUpper;
+                    tmpSolution = this.solve(solver, tmpKey);
+                    tmpSolves++;
+                }
+
+                if (tmpSolution == null) {
+                    return false;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+    /**
+     * The feasibility pump alternates between rounding the LP solution and solving an LP that minimises the distance to
+     * that rounding. Only used to find a first integer solution. The distance function is the usual one for variables
+     * rounded to one of their bounds (binaries); general integer variables rounded to an interior value are not part of
+     * the distance function, but are fixed when the rounding is tried. Cycling is broken by flipping the roundings of
+     * the variables furthest from their rounded values.
+     */
+    static final class FeasibilityPump extends PrimalHeuristic {
+
+        private static final int FLIPS = 10;
+
+        FeasibilityPump() {
+            super();
+        }
+
+        @Override
+        public String toString() {
+            return "Feasibility Pump";
+        }
+
+        @Override
+        boolean search(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+            if (solver.isIntegerSolutionFound()) {
+                return false;
+            }
+
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+            final double[] tmpRounded = new double[tmpIntegerIndeces.length];
+            double[] tmpPrevious = null;
+
+            Optimisation.Result tmpSolution = nodeSolution;
+
+            for (int p = 0; ((2 * p) < MAX_SOLVES) && !solver.isHeuristicsStopped(); p++) {
+
+                for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+                    tmpRounded[i] = nodeKey.round(i, tmpSolution.doubleValue(tmpIntegerIndeces[i]));
+                }
+
+                if ((tmpPrevious != null) && Arrays.equals(tmpRounded, tmpPrevious)) {
+                    this.flip(nodeKey, tmpIntegerIndeces, tmpSolution, tmpRounded);
+                }
+
+                final Optimisation.Result tmpFixed = this.solve(solver, nodeKey.createFixedBranch(tmpRounded, nodeKey.objective));
+                if ((tmpFixed != null) && this.publish(solver, tmpFixed)) {
+                    return true;
+                }
+
+                tmpSolution = this.project(solver, nodeKey, tmpRounded);
+                if (tmpSolution == null) {
+                    return false;
+                }
+
+                tmpPrevious = ArrayUtils.copyOf(tmpRounded);
+            }
+
+            return false;
+        }
+
+        private void flip(final NodeKey nodeKey, final int[] integerIndeces, final Optimisation.Result solution, final double[] rounded) {
+
+            final double[] tmpNegatedDistances = new double[rounded.length];
+            for (int i = 0; i < rounded.length; i++) {
+                tmpNegatedDistances[i] = -Math.abs(solution.doubleValue(integerIndeces[i]) - rounded[i]);
+            }
+
+            final int[] tmpOrder = CutGenerator.sort(tmpNegatedDistances);
+
+            for (int o = 0; (o < FLIPS) && (o < tmpOrder.length); o++) {
+                final int i = tmpOrder[o];
+                if (tmpNegatedDistances[i] < ZERO) {
+                    final double tmpValue = solution.doubleValue(integerIndeces[i]);
+                    rounded[i] = nodeKey.round(i, tmpValue > rounded[i] ? rounded[i] + ONE : rounded[i] - ONE);
+                }
+            }
+        }
+
+        /**
+         * @return The LP solution closest to the rounded values, or null
+         */
+        private Optimisation.Result project(final IntegerSolver solver, final NodeKey nodeKey, final double[] rounded) {
+
+            final ExpressionsBasedModel tmpModel = solver.makeNodeModel(nodeKey);
+
+            for (final Variable tmpVariable : tmpModel.getVariables()) {
+                tmpVariable.weight(null);
+            }
+            for (final Expression tmpExpression : tmpModel.getExpressions()) {
+                tmpExpression.weight(null);
+            }
+
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+            for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+                final Variable tmpVariable = tmpModel.getVariable(tmpIntegerIndeces[i]);
+                if ((tmpVariable.getLowerLimit() != null) && (tmpVariable.getLowerLimit().doubleValue() == rounded[i])) {
+                    tmpVariable.weight(ONE);
+                } else if ((tmpVariable.getUpperLimit() != null) && (tmpVariable.getUpperLimit().doubleValue() == rounded[i])) {
+                    tmpVariable.weight(NEG);
+                }
+            }
+
+            tmpModel.setMinimisation();
+
+            final Optimisation.Result retVal = tmpModel.solve(tmpModel.getVariableValues());
+            tmpModel.destroy();
+
+            return retVal.getState().isOptimal() ? retVal : null;
+        }
+
+    }
+
+    /**
+     * Relaxation induced neighbourhood search. The integer variables that have the same value in the incumbent and in
+     * the node LP solution are fixed, and the remaining (hopefully much smaller) problem is searched with a depth first,
+     * node limited, branch&amp;bound. Requires an incumbent.
+     */
+    static final class RelaxationInducedNeighbourhood extends PrimalHeuristic {
+
+        /**
+         * At least this large a part of the integer variables must be fixed, or the neighbourhood is too large.
+         */
+        private static final double MIN_FIXED = HALF;
+
+        RelaxationInducedNeighbourhood() {
+            super();
+        }
+
+        @Override
+        public String toString() {
+            return "RINS";
+        }
+
+        @Override
+        boolean search(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+            if (!solver.isIntegerSolutionFound()) {
+                return false;
+            }
+
+            final Optimisation.Result tmpIncumbent = solver.getBestResultSoFar();
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+            final double[] tmpFixed = new double[tmpIntegerIndeces.length];
+            int tmpCountFixed = 0;
+            for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+                final double tmpValue = tmpIncumbent.doubleValue(tmpIntegerIndeces[i]);
+                if (solver.options.integer.isZero(tmpValue - nodeSolution.doubleValue(tmpIntegerIndeces[i]))) {
+                    tmpFixed[i] = tmpValue;
+                    tmpCountFixed++;
+                } else {
+                    tmpFixed[i] = NaN;
+                }
+            }
+
+            if ((tmpCountFixed == tmpIntegerIndeces.length) || (tmpCountFixed < (MIN_FIXED * tmpIntegerIndeces.length))) {
+                return false;
+            }
+
+            boolean retVal = false;
+
+            final Deque<NodeKey> tmpNodes = new ArrayDeque<NodeKey>();
+            tmpNodes.push(nodeKey.createFixedBranch(tmpFixed, nodeSolution.getValue()));
+
+            int tmpSolves = 0;
+            while (!tmpNodes.isEmpty() && (tmpSolves < MAX_SOLVES) && !solver.isHeuristicsStopped()) {
+
+                final NodeKey tmpKey = tmpNodes.pop();
+                final Optimisation.Result tmpSolution = this.solve(solver, tmpKey);
+                tmpSolves++;
+
+                if ((tmpSolution == null) || !solver.isGoodEnoughToContinueBranching(solver.evaluateFunction(tmpSolution))) {
+                    continue;
+                }
+
+                int tmpSelected = -1;
+                double tmpMaxFraction = ZERO;
+                for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+                    final double tmpFraction = tmpKey.getFraction(i, tmpSolution.doubleValue(tmpIntegerIndeces[i]));
+                    if ((tmpFraction > tmpMaxFraction) && !solver.options.integer.isZero(tmpFraction)) {
+                        tmpSelected = i;
+                        tmpMaxFraction = tmpFraction;
+                    }
+                }
+
+                if (tmpSelected == -1) {
+                    retVal |= this.publish(solver, tmpSolution);
+                } else {
+                    final double tmpValue = tmpSolution.doubleValue(tmpIntegerIndeces[tmpSelected]);
+                    final NodeKey tmpLower = tmpKey.createLowerBranch(tmpSelected, tmpValue, tmpSolution.getValue());
+                    final NodeKey tmpUpper = tmpKey.createUpperBranch(tmpSelected, tmpValue, tmpSolution.getValue());
+                    // The nearest rounding is explored first
+                    if ((tmpValue - Math.floor(tmpValue)) >= HALF) {
+                        tmpNodes.push(tmpLower);
+                        tmpNodes.push(tmpUpper);
+                    } else {
+                        tmpNodes.push(tmpUpper);
+                        tmpNodes.push(tmpLower);
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * Simple rounding, that doesn't require any LP solves. A fractional variable is rounded down if that can't violate
+     * any constraint (the variable has no down-locks), otherwise up if that can't violate any constraint. If some
+     * fractional variable can't be rounded either way the heuristic fails.
+     */
+    static final class Rounding extends PrimalHeuristic {
+
+        Rounding() {
+            super();
+        }
+
+        @Override
+        public String toString() {
+            return "Rounding";
+        }
+
+        @Override
+        boolean search(final IntegerSolver solver, final NodeKey nodeKey, final Optimisation.Result nodeSolution) {
+
+            final NodePresolver tmpRows = solver.getNodePresolver();
+            final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+
+            final double[] tmpCandidate = new double[(int) nodeSolution.count()];
+            for (int j = 0; j < tmpCandidate.length; j++) {
+                tmpCandidate[j] = nodeSolution.doubleValue(j);
+            }
+
+            for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+
+                final int tmpIndex = tmpIntegerIndeces[i];
+                final double tmpValue = tmpCandidate[tmpIndex];
+
+                if (!solver.options.integer.isZero(nodeKey.getFraction(i, tmpValue))) {
+                    if (tmpRows.countDownLocks(tmpIndex) == 0) {
+                        tmpCandidate[tmpIndex] = Math.floor(tmpValue);
+                    } else if (tmpRows.countUpLocks(tmpIndex) == 0) {
+                        tmpCandidate[tmpIndex] = Math.ceil(tmpValue);
+                    } else {
+                        return false;
+                    }
+                }
+            }
+
+            return this.publish(solver, new Optimisation.Result(Optimisation.State.APPROXIMATE, ArrayUtils.wrapAccess1D(tmpCandidate)));
+        }
+
+    }
+
+    /**
+     * Max number of LP:s solved per search
+     */
+    static final int MAX_SOLVES = 32;
+
+    PrimalHeuristic() {
+        super();
+    }
+
+    /**
+     * @param nodeKey The node the search starts from
+     * @param nodeSolution The (non integer) LP solution of that node
+     * @return true if an integer solution was found (and published)
+     */
+    abstract boolean search(IntegerSolver solver, NodeKey nodeKey, Optimisation.Result nodeSolution);
+
+    /**
+     * Validates the candidate solution against the integer model, and if valid marks it as an integer solution.
+     *
+     * @return true if the candidate was a valid integer solution
+     */
+    final boolean publish(final IntegerSolver solver, final Optimisation.Result candidate) {
+
+        final int[] tmpIntegerIndeces = solver.getIntegerIndeces();
+        for (int i = 0; i < tmpIntegerIndeces.length; i++) {
+            final double tmpValue = candidate.doubleValue(tmpIntegerIndeces[i]);
+            if (!solver.options.integer.isZero(tmpValue - Math.rint(tmpValue))) {
+                return false;
+            }
+        }
+
+        if (!solver.getModel().validate(candidate)) {
+            return false;
+        }
+
+        final double tmpValue = solver.evaluateFunction(candidate);
+        solver.markInteger(null, new Optimisation.Result(Optimisation.State.FEASIBLE, tmpValue, candidate));
+
+        return true;
+    }
+
+    /**
+     * Bound propagation followed by solving the node model
+     *
+     * @return The optimal LP solution, or null
+     */
+    final Optimisation.Result solve(final IntegerSolver solver, final NodeKey nodeKey) {
+
+        if (!solver.presolve(nodeKey)) {
+            return null;
+        }
+
+        final ExpressionsBasedModel[] tmpNodeModel = new ExpressionsBasedModel[] { solver.makeNodeModel(nodeKey) };
+        final Optimisation.Result retVal = solver.solveNodeModel(nodeKey, tmpNodeModel);
+        tmpNodeModel[0].destroy();
+
+        return retVal.getState().isOptimal() ? retVal : null;
+    }
+
+}
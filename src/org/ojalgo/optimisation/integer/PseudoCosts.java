@@ -0,0 +1,148 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per integer variable objective function degradation statistics - the average change in (node LP) objective
+ * function value per unit change of the variable, separately for lower (down) and upper (up) branches. Updated from
+ * every solved node, and from strong branching, by all threads.
+ *
+ * @author apete
+ */
+final class PseudoCosts {
+
+    private final int[] myDownCounts;
+    private final double[] myDownSums;
+    private final AtomicInteger myNodes = new AtomicInteger();
+    private final AtomicInteger myStrongSolves = new AtomicInteger();
+    private final int[] myUpCounts;
+    private final double[] myUpSums;
+
+    PseudoCosts(final int numberOfIntegerVariables) {
+
+        super();
+
+        myDownCounts = new int[numberOfIntegerVariables];
+        myDownSums = new double[numberOfIntegerVariables];
+        myUpCounts = new int[numberOfIntegerVariables];
+        myUpSums = new double[numberOfIntegerVariables];
+    }
+
+    synchronized int countReliable(final int index) {
+        return Math.min(myDownCounts[index], myUpCounts[index]);
+    }
+
+    int countStrongSolves() {
+        return myStrongSolves.get();
+    }
+
+    /**
+     * @return The average degradation per unit down, or the average of all variables' if there are no observations for
+     *         this one (one if there are no observations at all).
+     */
+    synchronized double getDown(final int index) {
+        return PseudoCosts.average(myDownSums, myDownCounts, index);
+    }
+
+    /**
+     * @see #getDown(int)
+     */
+    synchronized double getUp(final int index) {
+        return PseudoCosts.average(myUpSums, myUpCounts, index);
+    }
+
+    /**
+     * Strong branching is allowed as long as the number of LP:s solved for it is less than a base amount plus a
+     * fraction of the number of (tree search) nodes solved.
+     */
+    boolean isStrongBranchingAllowed(final int base, final double quota) {
+        return myStrongSolves.get() < (base + (quota * myNodes.get()));
+    }
+
+    /**
+     * Record a solved node
+     *
+     * @param nodeKey The node; its branch variable, displacement and parent objective function value are used.
+     * @param value The node's LP objective function value
+     */
+    void update(final NodeKey nodeKey, final double value) {
+
+        myNodes.incrementAndGet();
+
+        if ((nodeKey.index >= 0) && !Double.isNaN(nodeKey.objective) && !Double.isInfinite(nodeKey.objective)) {
+            this.update(nodeKey.index, nodeKey.displacement, Math.abs(value - nodeKey.objective));
+        }
+    }
+
+    /**
+     * Record a strong branching (child LP) result
+     *
+     * @param displacement Negative for down, positive for up
+     * @param degradation The (absolute) change in objective function value
+     */
+    void updateStrong(final int index, final double displacement, final double degradation) {
+
+        myStrongSolves.incrementAndGet();
+
+        if (!Double.isNaN(degradation) && !Double.isInfinite(degradation)) {
+            this.update(index, displacement, degradation);
+        }
+    }
+
+    private synchronized void update(final int index, final double displacement, final double degradation) {
+
+        final double tmpDistance = Math.abs(displacement);
+
+        if (tmpDistance > ZERO) {
+            if (displacement < ZERO) {
+                myDownSums[index] += degradation / tmpDistance;
+                myDownCounts[index]++;
+            } else {
+                myUpSums[index] += degradation / tmpDistance;
+                myUpCounts[index]++;
+            }
+        }
+    }
+
+    private static double average(final double[] sums, final int[] counts, final int index) {
+
+        if (counts[index] > 0) {
+            return sums[index] / counts[index];
+        }
+
+        double tmpSum = ZERO;
+        int tmpCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                tmpSum += sums[i] / counts[i];
+                tmpCount++;
+            }
+        }
+
+        return tmpCount > 0 ? tmpSum / tmpCount : ONE;
+    }
+
+}
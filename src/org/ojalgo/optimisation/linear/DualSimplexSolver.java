@@ -0,0 +1,421 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.linear;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.optimisation.Optimisation;
+
+/**
+ * A dense tableau dual simplex solver. It is started from a basis that is dual feasible (nonnegative reduced costs)
+ * but not necessarily primal feasible, and then iterates towards primal feasibility. That is the typical situation
+ * after changing the right hand sides or adding bounds/constraints to a problem that was already solved.
+ * <ul>
+ * <li>The leaving row is selected using dual Devex pricing: the largest squared infeasibility relative to a
+ * reference weight approximating the squared norm of the tableau row (steepest edge). The weights are relative to the
+ * starting basis, and are updated with each pivot rather than recalculated.</li>
+ * <li>The entering column is selected using the dual ratio test, with ties broken in favour of the larger (absolute)
+ * pivot element. With all variables in LP standard form only having a lower bound there are no bounds to flip.</li>
+ * </ul>
+ * If the supplied basis is singular, or turns out not to be dual feasible, {@linkplain LinearSolver.Builder} will use
+ * the (primal) {@linkplain SimplexTableauSolver} instead. Should the iterations stall, or be aborted, the solver falls
+ * back to the primal algorithm by itself.
+ *
+ * @author apete
+ */
+final class DualSimplexSolver extends LinearSolver {
+
+    /**
+     * Max number of dual iterations, per row + column of the tableau, before falling back to the primal algorithm.
+     */
+    private static final int ITERATIONS_FACTOR = 16;
+
+    private final int[] myBasis;
+    private boolean myDualFeasible;
+    private final LinearSolver.Builder myMatrices;
+    private int myPivotCol = -1;
+    private int myPivotRow = -1;
+    private final PrimitiveDenseStore myTransposedTableau;
+    private final double[] myWeights;
+
+    DualSimplexSolver(final LinearSolver.Builder matrices, final Optimisation.Options solverOptions, final int[] basis) {
+
+        super(matrices, solverOptions);
+
+        myMatrices = matrices;
+
+        final int tmpConstraintsCount = this.countConstraints();
+
+        final MatrixStore.Builder<Double> tmpTableauBuilder = matrices.getAE().builder().right(matrices.getBE());
+        tmpTableauBuilder.below(matrices.getC().transpose().builder().right(1).build());
+        myTransposedTableau = PrimitiveDenseStore.FACTORY.transpose(tmpTableauBuilder.build());
+
+        myBasis = new int[tmpConstraintsCount];
+        Arrays.fill(myBasis, -1);
+
+        myWeights = new double[tmpConstraintsCount];
+        Arrays.fill(myWeights, ONE);
+
+        if ((basis != null) && (basis.length == tmpConstraintsCount)) {
+            final long tmpStart = System.nanoTime();
+            myDualFeasible = this.installBasis(basis) && this.isReducedCostsNonnegative();
+            this.addPhaseTime(Optimisation.Progress.Phase.FACTORISATION, tmpStart);
+            this.incrementFactorisationsCount();
+        } else {
+            myDualFeasible = false;
+        }
+
+        if (this.isDebug() && this.isTableauPrintable()) {
+            this.logDebugTableau("Tableau Created");
+        }
+    }
+
+    @Override
+    public int[] getBasis() {
+        return myBasis.clone();
+    }
+
+    public Result solve(final Result kickStarter) {
+
+        final int tmpIterationsLimit = ITERATIONS_FACTOR * (this.countConstraints() + this.countVariables());
+
+        this.progress(Optimisation.Progress.Event.STARTED);
+
+        while (this.needsAnotherIteration()) {
+
+            final long tmpStart = System.nanoTime();
+            this.updateWeights(myPivotRow, myPivotCol);
+            this.performIteration(myPivotRow, myPivotCol);
+            this.addPhaseTime(Optimisation.Progress.Phase.UPDATE, tmpStart);
+
+            if (this.incrementIterationsCount() >= tmpIterationsLimit) {
+                this.setState(State.FAILED);
+                break;
+            }
+
+            if (this.isDebug() && this.isTableauPrintable()) {
+                this.logDebugTableau("Tableau Iteration");
+            }
+
+            this.progress(Optimisation.Progress.Event.ITERATION);
+        }
+
+        if (this.isTerminationRequested()) {
+            this.progress(Optimisation.Progress.Event.FINISHED);
+            return this.buildResult();
+        }
+
+        if (this.getState() == State.FAILED) {
+
+            if (this.isDebug()) {
+                this.debug("\nDual simplex stopped after {} iterations - switching to the primal algorithm.\n", this.countIterations());
+            }
+
+            return new SimplexTableauSolver(myMatrices, options).solve(kickStarter);
+        }
+
+        final Result retVal = this.buildResult();
+
+        this.progress(Optimisation.Progress.Event.FINISHED);
+
+        return retVal;
+    }
+
+    private double getTableauElement(final int row, final int col) {
+        return myTransposedTableau.doubleValue(col, row);
+    }
+
+    /**
+     * Pivots the basis columns in to the tableau, one at the time, choosing the (not yet used) row with the largest
+     * absolute value.
+     */
+    private boolean installBasis(final int[] basis) {
+
+        final int tmpConstraintsCount = this.countConstraints();
+        final int tmpVariablesCount = this.countVariables();
+
+        for (int b = 0; b < basis.length; b++) {
+
+            final int tmpCol = basis[b];
+            if ((tmpCol < 0) || (tmpCol >= tmpVariablesCount)) {
+                return false;
+            }
+
+            int tmpRow = -1;
+            double tmpMaxAbs = ZERO;
+            for (int i = 0; i < tmpConstraintsCount; i++) {
+                if (myBasis[i] < 0) {
+                    final double tmpAbs = Math.abs(this.getTableauElement(i, tmpCol));
+                    if (tmpAbs > tmpMaxAbs) {
+                        tmpRow = i;
+                        tmpMaxAbs = tmpAbs;
+                    }
+                }
+            }
+
+            if ((tmpRow < 0) || options.problem.isSmall(ONE, tmpMaxAbs)) {
+                if (this.isDebug()) {
+                    this.debug("\nSingular starting basis: {}\n", Arrays.toString(basis));
+                }
+                return false;
+            }
+
+            this.performIteration(tmpRow, tmpCol);
+        }
+
+        return true;
+    }
+
+    private boolean isReducedCostsNonnegative() {
+
+        final int tmpObjectiveRow = this.countConstraints();
+        final double tmpLimit = -options.problem.epsilon();
+
+        final int[] tmpExcluded = this.getExcluded();
+        for (int e = 0; e < tmpExcluded.length; e++) {
+            if (this.getTableauElement(tmpObjectiveRow, tmpExcluded[e]) < tmpLimit) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private final boolean isTableauPrintable() {
+        return myTransposedTableau.count() <= 512L;
+    }
+
+    private final void logDebugTableau(final String message) {
+        this.debug(message + "; Basics: " + Arrays.toString(myBasis), myTransposedTableau.transpose());
+    }
+
+    /**
+     * Devex update of the reference weights - must be called before the pivot is performed. The pivot subtracts
+     * (alpha<sub>i</sub>/alpha<sub>r</sub>) times the pivot row r from each other row i, and divides the pivot row by
+     * alpha<sub>r</sub>. Only the pivot column is needed, O(m) per pivot.
+     */
+    private void updateWeights(final int pivotRow, final int pivotCol) {
+
+        final double tmpPivotElement = this.getTableauElement(pivotRow, pivotCol);
+        final double tmpPivotWeight = myWeights[pivotRow];
+
+        for (int i = 0; i < myWeights.length; i++) {
+            if (i != pivotRow) {
+                final double tmpRatio = this.getTableauElement(i, pivotCol) / tmpPivotElement;
+                myWeights[i] = Math.max(myWeights[i], tmpRatio * tmpRatio * tmpPivotWeight);
+            }
+        }
+
+        myWeights[pivotRow] = Math.max(tmpPivotWeight / (tmpPivotElement * tmpPivotElement), ONE);
+    }
+
+    @Override
+    protected double evaluateFunction(final Access1D<?> solution) {
+        return this.getTableauElement(this.countConstraints(), this.countVariables());
+    }
+
+    @Override
+    protected PhysicalStore<Double> extractSolution() {
+
+        final int tmpCountVariables = this.countVariables();
+
+        this.resetX();
+
+        final int tmpLength = myBasis.length;
+        for (int i = 0; i < tmpLength; i++) {
+            final int tmpBasisIndex = myBasis[i];
+            if (tmpBasisIndex >= 0) {
+                this.setX(tmpBasisIndex, myTransposedTableau.doubleValue(tmpCountVariables, i));
+            }
+        }
+
+        return this.getX();
+    }
+
+    @Override
+    protected boolean initialise(final Result kickStart) {
+        return false;
+    }
+
+    @Override
+    protected boolean needsAnotherIteration() {
+
+        myPivotRow = -1;
+        myPivotCol = -1;
+
+        if (!this.isIterationAllowed()) {
+            this.setState(State.FAILED);
+            return false;
+        }
+
+        boolean retVal = false;
+
+        long tmpStart = System.nanoTime();
+        myPivotRow = this.findNextPivotRow();
+        this.addPhaseTime(Optimisation.Progress.Phase.PRICING, tmpStart);
+
+        if (myPivotRow >= 0) {
+
+            tmpStart = System.nanoTime();
+            myPivotCol = this.findNextPivotCol();
+            this.addPhaseTime(Optimisation.Progress.Phase.RATIO_TEST, tmpStart);
+
+            if (myPivotCol >= 0) {
+                retVal = true;
+            } else {
+                // Dual unbounded
+                this.setState(State.INFEASIBLE);
+            }
+
+        } else {
+
+            this.setState(State.OPTIMAL);
+        }
+
+        if (this.isDebug()) {
+            if (retVal) {
+                this.debug("\n==>>\tRow: {},\tExit: {},\tColumn/Enter: {}.\n", myPivotRow, myBasis[myPivotRow], myPivotCol);
+            } else {
+                this.debug("\n==>>\tNo more iterations needed/possible.\n");
+            }
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected boolean validate() {
+
+        final boolean retVal = true;
+        this.setState(State.VALID);
+
+        return retVal;
+    }
+
+    /**
+     * Dual ratio test - among the negative elements of the pivot row find the one that first drives a reduced cost to
+     * zero.
+     */
+    int findNextPivotCol() {
+
+        final int tmpObjectiveRow = this.countConstraints();
+
+        int retVal = -1;
+        double tmpMinRatio = MACHINE_LARGEST;
+        double tmpMaxPivot = ZERO;
+        final double tmpTolerance = options.problem.epsilon();
+
+        final int[] tmpExcluded = this.getExcluded();
+        for (int e = 0; e < tmpExcluded.length; e++) {
+
+            final int tmpCol = tmpExcluded[e];
+            final double tmpPivot = -this.getTableauElement(myPivotRow, tmpCol);
+
+            if ((tmpPivot > ZERO) && !options.problem.isSmall(ONE, tmpPivot)) {
+
+                final double tmpRatio = Math.max(this.getTableauElement(tmpObjectiveRow, tmpCol), ZERO) / tmpPivot;
+
+                if ((retVal < 0) || (tmpRatio < (tmpMinRatio - tmpTolerance))) {
+                    retVal = tmpCol;
+                    tmpMinRatio = tmpRatio;
+                    tmpMaxPivot = tmpPivot;
+                } else if ((tmpRatio <= (tmpMinRatio + tmpTolerance)) && (tmpPivot > tmpMaxPivot)) {
+                    retVal = tmpCol;
+                    tmpMinRatio = Math.min(tmpRatio, tmpMinRatio);
+                    tmpMaxPivot = tmpPivot;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Dual Devex pricing - the largest squared primal infeasibility relative to the reference weight of its row.
+     */
+    int findNextPivotRow() {
+
+        final int tmpConstraintsCount = this.countConstraints();
+        final int tmpVariablesCount = this.countVariables();
+
+        int retVal = -1;
+        double tmpMaxScore = ZERO;
+
+        for (int i = 0; i < tmpConstraintsCount; i++) {
+
+            final double tmpRHS = this.getTableauElement(i, tmpVariablesCount);
+
+            if ((tmpRHS < ZERO) && !options.problem.isZero(tmpRHS)) {
+
+                final double tmpScore = (tmpRHS * tmpRHS) / myWeights[i];
+                if (tmpScore > tmpMaxScore) {
+                    retVal = i;
+                    tmpMaxScore = tmpScore;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    boolean isDualFeasible() {
+        return myDualFeasible;
+    }
+
+    void performIteration(final int pivotRow, final int pivotCol) {
+
+        final double tmpPivotElement = this.getTableauElement(pivotRow, pivotCol);
+        final int tmpObjectiveRow = this.countConstraints();
+
+        for (int i = 0; i <= tmpObjectiveRow; i++) {
+            if (i != pivotRow) {
+
+                final double tmpPivotColVal = this.getTableauElement(i, pivotCol);
+
+                if (tmpPivotColVal != ZERO) {
+                    myTransposedTableau.caxpy(-tmpPivotColVal / tmpPivotElement, pivotRow, i, 0);
+                }
+            }
+        }
+
+        if (Math.abs(tmpPivotElement) < ONE) {
+            myTransposedTableau.modifyColumn(0, pivotRow, DIVIDE.second(tmpPivotElement));
+        } else if (tmpPivotElement != ONE) {
+            myTransposedTableau.modifyColumn(0, pivotRow, MULTIPLY.second(ONE / tmpPivotElement));
+        }
+
+        final int tmpOld = myBasis[pivotRow];
+        if (tmpOld >= 0) {
+            this.exclude(tmpOld);
+        }
+        this.include(pivotCol);
+        myBasis[pivotRow] = pivotCol;
+    }
+
+}
@@ -67,6 +67,8 @@ public abstract class LinearSolver extends BaseSolver {
 
     public static final class Builder extends AbstractBuilder<LinearSolver.Builder, LinearSolver> {
 
+        private int[] myBasis = null;
+
         public Builder(final MatrixStore<Double> C) {
             super(C);
         }
@@ -87,11 +89,29 @@ public abstract class LinearSolver extends BaseSolver {
             super(aMtrxArr);
         }
 
+        /**
+         * A starting basis - one column/variable index per constraint. If the basis is dual feasible (the reduced
+         * costs are nonnegative) the problem will be solved using the dual simplex algorithm, otherwise the basis is
+         * ignored. Typically this is the basis of a previous solution, {@linkplain LinearSolver#getBasis()}, after the
+         * right hand sides changed.
+         */
+        public Builder basis(final int... basis) {
+            myBasis = basis;
+            return this;
+        }
+
         @Override
         public LinearSolver build(final Optimisation.Options options) {
 
             this.validate();
 
+            if ((myBasis != null) && (myBasis.length == this.countEqualityConstraints()) && (myBasis.length > 0)) {
+                final DualSimplexSolver tmpDualSolver = new DualSimplexSolver(this, options, myBasis);
+                if (tmpDualSolver.isDualFeasible()) {
+                    return tmpDualSolver;
+                }
+            }
+
             return new SimplexTableauSolver(this, options);
         }
 
@@ -146,16 +166,16 @@ public abstract class LinearSolver extends BaseSolver {
         final int tmpNegVarsBaseIndex = tmpPosVarsBaseIndex + tmpPosVariables.size();
         final int tmpSlaVarsBaseIndex = tmpNegVarsBaseIndex + tmpNegVariables.size();
 
-        for (final Expression.Index tmpKey : tmpObjFunc.getLinearFactorKeys()) {
+        for (int t = 0; t < tmpObjFunc.countLinearFactors(); t++) {
 
-            final double tmpFactor = tmpMaximisation ? -tmpObjFunc.getAdjustedLinearFactor(tmpKey) : tmpObjFunc.getAdjustedLinearFactor(tmpKey);
+            final double tmpFactor = tmpMaximisation ? -tmpObjFunc.getAdjustedLinearTermFactor(t) : tmpObjFunc.getAdjustedLinearTermFactor(t);
 
-            final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+            final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpObjFunc.getLinearTermIndex(t));
             if (tmpPosInd >= 0) {
                 tmpC.set(tmpPosInd, 0, tmpFactor);
             }
 
-            final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+            final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpObjFunc.getLinearTermIndex(t));
             if (tmpNegInd >= 0) {
                 tmpC.set(tmpNegVarsBaseIndex + tmpNegInd, 0, -tmpFactor);
             }
@@ -174,16 +194,16 @@ public abstract class LinearSolver extends BaseSolver {
 
                 tmpBE.set(tmpConstrBaseIndex + c, 0, -tmpRHS);
 
-                for (final Expression.Index tmpKey : tmpExpr.getLinearFactorKeys()) {
+                for (int t = 0; t < tmpExpr.countLinearFactors(); t++) {
 
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
+                    final double tmpFactor = tmpExpr.getAdjustedLinearTermFactor(t);
 
-                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpPosInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, -tmpFactor);
                     }
 
-                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpNegInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, tmpFactor);
                     }
@@ -193,16 +213,16 @@ public abstract class LinearSolver extends BaseSolver {
 
                 tmpBE.set(tmpConstrBaseIndex + c, 0, tmpRHS);
 
-                for (final Expression.Index tmpKey : tmpExpr.getLinearFactorKeys()) {
+                for (int t = 0; t < tmpExpr.countLinearFactors(); t++) {
 
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
+                    final double tmpFactor = tmpExpr.getAdjustedLinearTermFactor(t);
 
-                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpPosInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, tmpFactor);
                     }
 
-                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpNegInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
                     }
@@ -223,16 +243,16 @@ public abstract class LinearSolver extends BaseSolver {
                 tmpBasis[tmpConstrBaseIndex + c] = tmpCurrentSlackVarIndex;
                 tmpAE.set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, ONE);
 
-                for (final Expression.Index tmpKey : tmpExpr.getLinearFactorKeys()) {
+                for (int t = 0; t < tmpExpr.countLinearFactors(); t++) {
 
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
+                    final double tmpFactor = tmpExpr.getAdjustedLinearTermFactor(t);
 
-                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpPosInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, -tmpFactor);
                     }
 
-                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpNegInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, tmpFactor);
                     }
@@ -243,16 +263,16 @@ public abstract class LinearSolver extends BaseSolver {
                 tmpBE.set(tmpConstrBaseIndex + c, 0, tmpRHS);
                 tmpAE.set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, NEG);
 
-                for (final Expression.Index tmpKey : tmpExpr.getLinearFactorKeys()) {
+                for (int t = 0; t < tmpExpr.countLinearFactors(); t++) {
 
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
+                    final double tmpFactor = tmpExpr.getAdjustedLinearTermFactor(t);
 
-                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpPosInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, tmpFactor);
                     }
 
-                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpNegInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
                     }
@@ -272,16 +292,16 @@ public abstract class LinearSolver extends BaseSolver {
                 tmpBE.set(tmpConstrBaseIndex + c, 0, -tmpRHS);
                 tmpAE.set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, NEG);
 
-                for (final Expression.Index tmpKey : tmpExpr.getLinearFactorKeys()) {
+                for (int t = 0; t < tmpExpr.countLinearFactors(); t++) {
 
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
+                    final double tmpFactor = tmpExpr.getAdjustedLinearTermFactor(t);
 
-                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpPosInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, -tmpFactor);
                     }
 
-                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpNegInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, tmpFactor);
                     }
@@ -293,16 +313,16 @@ public abstract class LinearSolver extends BaseSolver {
                 tmpBasis[tmpConstrBaseIndex + c] = tmpCurrentSlackVarIndex;
                 tmpAE.set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, ONE);
 
-                for (final Expression.Index tmpKey : tmpExpr.getLinearFactorKeys()) {
+                for (int t = 0; t < tmpExpr.countLinearFactors(); t++) {
 
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
+                    final double tmpFactor = tmpExpr.getAdjustedLinearTermFactor(t);
 
-                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpKey.index);
+                    final int tmpPosInd = sourceModel.indexOfPositiveVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpPosInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, tmpFactor);
                     }
 
-                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpKey.index);
+                    final int tmpNegInd = sourceModel.indexOfNegativeVariable(tmpExpr.getLinearTermIndex(t));
                     if (tmpNegInd >= 0) {
                         tmpAE.set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
                     }
@@ -413,6 +433,17 @@ public abstract class LinearSolver extends BaseSolver {
         }
         tmpConstrBaseIndex += tmpVarsNegUpLength;
 
+        if ((sourceModel.options.simplex == Optimisation.Options.Simplex.DUAL) && (tmpExprsEqLength == 0) && (tmpConstraiCount > 0)) {
+            // Every row has its own slack variable, and with a nonnegative cost vector that slack basis is dual feasible.
+            // Only supplied if the dual algorithm was asked for - the primal algorithm remains the default.
+            boolean tmpDualFeasible = true;
+            for (int j = 0; tmpDualFeasible && (j < tmpTotalVarCount); j++) {
+                tmpDualFeasible = tmpC.doubleValue(j) >= ZERO;
+            }
+            if (tmpDualFeasible) {
+                destinationBuilder.basis(AccessUtils.makeIncreasingRange(tmpSlaVarsBaseIndex, tmpConstraiCount));
+            }
+        }
     }
 
     public static LinearSolver.Builder getBuilder() {
@@ -430,6 +461,14 @@ public abstract class LinearSolver extends BaseSolver {
         mySelector = new IndexSelector(matrices.countVariables());
     }
 
+    /**
+     * The current basis - one column/variable index per constraint. After {@linkplain #solve()} it's the final
+     * (optimal) basis, and it can be passed to {@linkplain Builder#basis(int...)} to re-solve after the right hand
+     * sides changed. With the primal algorithm negative indices represent artificial variables still in the basis;
+     * such a basis is not accepted as a starting basis.
+     */
+    public abstract int[] getBasis();
+
     protected final int countBasisDeficit() {
         return this.countEqualityConstraints() - mySelector.countIncluded();
     }
@@ -146,18 +146,40 @@ final class SimplexTableauSolver extends LinearSolver {
         }
     }
 
+    @Override
+    public int[] getBasis() {
+        return myBasis.clone();
+    }
+
     public Result solve(final Result kickStarter) {
 
+        this.progress(Optimisation.Progress.Event.STARTED);
+
         while (this.needsAnotherIteration()) {
 
+            final long tmpStart = System.nanoTime();
             this.performIteration(myPoint.row, myPoint.col);
+            this.addPhaseTime(Optimisation.Progress.Phase.UPDATE, tmpStart);
+
+            this.incrementIterationsCount();
 
             if (this.isDebug() && this.isTableauPrintable()) {
                 this.logDebugTableau("Tableau Iteration");
             }
+
+            this.progress(Optimisation.Progress.Event.ITERATION);
+
+            if (this.isTerminationRequested()) {
+                this.setState(myPoint.isPhase2() ? State.FEASIBLE : State.FAILED);
+                break;
+            }
         }
 
-        return this.buildResult();
+        final Result retVal = this.buildResult();
+
+        this.progress(Optimisation.Progress.Event.FINISHED);
+
+        return retVal;
     }
 
     private int countBasicArtificials() {
@@ -249,11 +271,15 @@ final class SimplexTableauSolver extends LinearSolver {
             }
         }
 
+        long tmpStart = System.nanoTime();
         myPoint.col = this.findNextPivotCol();
+        this.addPhaseTime(Optimisation.Progress.Phase.PRICING, tmpStart);
 
         if (myPoint.col >= 0) {
 
+            tmpStart = System.nanoTime();
             myPoint.row = this.findNextPivotRow();
+            this.addPhaseTime(Optimisation.Progress.Phase.RATIO_TEST, tmpStart);
 
             if (myPoint.row >= 0) {
 
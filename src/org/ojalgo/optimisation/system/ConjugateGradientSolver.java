@@ -24,10 +24,22 @@ package org.ojalgo.optimisation.system;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.task.TaskException;
+import org.ojalgo.matrix.task.iterative.KrylovSolver;
+import org.ojalgo.matrix.task.iterative.Preconditioner;
 import org.ojalgo.optimisation.Optimisation;
 
+/**
+ * Delegates to {@linkplain KrylovSolver#makeConjugateGradient()} with a Jacobi preconditioner. To avoid
+ * forming the body explicitly use {@linkplain KrylovSolver} with a
+ * {@linkplain org.ojalgo.matrix.task.iterative.LinearOperator} directly.
+ *
+ * @author apete
+ */
 final class ConjugateGradientSolver extends OptimisationSystem {
 
+    private final KrylovSolver myDelegate = KrylovSolver.makeConjugateGradient();
+
     public ConjugateGradientSolver() {
         super();
     }
@@ -35,26 +47,15 @@ final class ConjugateGradientSolver extends OptimisationSystem {
     @Override
     public Optimisation.Result solve(final MatrixStore<Double> body, final MatrixStore<Double> rhs) {
 
-        final PhysicalStore<Double> retVal = PrimitiveDenseStore.FACTORY.makeZero(rhs.countRows(), rhs.countColumns());
-
-        final PhysicalStore<Double> tmpResidual = PrimitiveDenseStore.FACTORY.copy(rhs); // Since initial estimate is 0
-        final MatrixStore<Double> tmpTranspRes = tmpResidual.builder().transpose().build();
-
-        final PhysicalStore<Double> tmpDirection = PrimitiveDenseStore.FACTORY.copy(tmpResidual);
-        final MatrixStore<Double> tmpTranspDir = tmpDirection.builder().transpose().build();
-
-        double tmpAlpha;
-        final double tmpBeta;
-
-        //  while (false) {
-
-        tmpAlpha = tmpResidual.multiplyLeft(tmpTranspRes).doubleValue(0L) / body.multiplyLeft(tmpTranspDir).multiply(tmpDirection).doubleValue(0L);
-
-        retVal.maxpy(tmpAlpha, tmpDirection);
-        tmpResidual.maxpy(-tmpAlpha, body.multiply(tmpDirection));
+        final PhysicalStore<Double> retVal = PrimitiveDenseStore.FACTORY.makeZero(body.countColumns(), rhs.countColumns());
 
-        //  }
+        myDelegate.setPreconditioner(Preconditioner.makeJacobi(body));
 
-        return null;
+        try {
+            myDelegate.solve(body, rhs, (PrimitiveDenseStore) retVal);
+            return new Optimisation.Result(Optimisation.State.FEASIBLE, retVal);
+        } catch (final TaskException exception) {
+            return new Optimisation.Result(Optimisation.State.APPROXIMATE, retVal);
+        }
     }
 }
@@ -23,6 +23,8 @@ package org.ojalgo.optimisation.system;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Arrays;
+
 import org.ojalgo.array.Array1D;
 import org.ojalgo.matrix.decomposition.Cholesky;
 import org.ojalgo.matrix.decomposition.Eigenvalue;
@@ -174,6 +176,13 @@ public final class KKTSolver extends Object {
     private static final Options DEFAULT_OPTIONS = new Optimisation.Options();
 
     private final Cholesky<Double> myCholesky;
+    /**
+     * The leading diagonal block of Q, when Q is block diagonal with such a block - then only the trailing block is
+     * factorised by {@link #myCholesky}.
+     */
+    private transient double[] myDiagonal = null;
+    private transient boolean myFactorised = false;
+    private transient boolean myTrailing = true;
     private final LU<Double> myLU;
 
     public KKTSolver() {
@@ -224,10 +233,10 @@ public final class KKTSolver extends Object {
         final PrimitiveDenseStore tmpX = this.getX(input);
         MatrixStore<Double> tmpL = null;
 
-        if (!input.isConstrained() && myCholesky.compute(tmpQ) && (tmpSolvable = myCholesky.isSolvable())) {
+        if (!input.isConstrained() && this.compute(tmpQ) && (tmpSolvable = this.isSolvable())) {
             // Unconstrained
 
-            myCholesky.solve(tmpC, tmpX);
+            this.solveQ(tmpC, tmpX);
             tmpL = ZeroStore.makePrimitive(0, 1);
 
         } else if (input.isConstrained() && (tmpA.countRows() >= tmpA.countColumns()) && myLU.compute(tmpA) && (tmpSolvable = myLU.isSolvable())) {
@@ -251,15 +260,21 @@ public final class KKTSolver extends Object {
         } else {
             // Actual optimisation problem
 
-            // myCholesky.compute(tmpQ);
-            if (!myCholesky.isComputed()) {
-                myCholesky.compute(tmpQ);
+            if (!myFactorised) {
+                this.compute(tmpQ);
+            }
+
+            if ((myDiagonal != null) && this.isSolvable()) {
+                final Output tmpStructured = this.solveStructured(input);
+                if (tmpStructured != null) {
+                    return tmpStructured;
+                }
             }
 
-            if (tmpSolvable = myCholesky.isSolvable()) {
+            if (tmpSolvable = this.isSolvable()) {
 
-                final MatrixStore<Double> tmpInvQAT = myCholesky.solve(tmpA.transpose());
-                final MatrixStore<Double> tmpInvQC = myCholesky.solve(tmpC);
+                final MatrixStore<Double> tmpInvQAT = this.solveQ(tmpA.transpose());
+                final MatrixStore<Double> tmpInvQC = this.solveQ(tmpC);
 
                 // Negated Schur complement
                 final MatrixStore<Double> tmpS = tmpInvQAT.multiplyLeft(tmpA);
@@ -269,7 +284,7 @@ public final class KKTSolver extends Object {
                 if (tmpSolvable = myLU.isSolvable()) {
 
                     tmpL = myLU.solve(tmpInvQC.multiplyLeft(tmpA).add(tmpB.negate()));
-                    myCholesky.solve(tmpC.add(tmpL.multiplyLeft(tmpA.transpose()).negate()), tmpX);
+                    this.solveQ(tmpC.add(tmpL.multiplyLeft(tmpA.transpose()).negate()), tmpX);
 
                 } else if (tmpAppender != null) {
 
@@ -283,6 +298,7 @@ public final class KKTSolver extends Object {
 
                 tmpAppender.println("Q Cholesky");
                 tmpAppender.printmtrx("Q", tmpQ);
+                tmpAppender.println("Diagonal block size: {}", myDiagonal != null ? myDiagonal.length : 0);
                 tmpAppender.printmtrx("L", myCholesky.getL());
             }
 
@@ -333,6 +349,255 @@ public final class KKTSolver extends Object {
         }
     }
 
+    /**
+     * Factorises Q. When Q is block diagonal with a (large) leading diagonal block, as it is with a factor model
+     * covariance lifted to [D 0; 0 F], only the trailing block is Cholesky decomposed. That makes each solve, and the
+     * Schur complement, scale with the size of the trailing block rather than the full problem.
+     */
+    private boolean compute(final MatrixStore<Double> Q) {
+
+        final int tmpDim = (int) Q.countRows();
+        final int tmpDiagDim = KKTSolver.countLeadingDiagonal(Q);
+
+        myFactorised = true;
+
+        if ((tmpDiagDim > 0) && (tmpDiagDim >= (tmpDim / 2))) {
+
+            myDiagonal = new double[tmpDiagDim];
+            for (int i = 0; i < tmpDiagDim; i++) {
+                myDiagonal[i] = Q.doubleValue(i, i);
+            }
+
+            myTrailing = tmpDiagDim < tmpDim;
+
+            if (myTrailing) {
+                return myCholesky.compute(Q.builder().rows(tmpDiagDim, tmpDim).columns(tmpDiagDim, tmpDim).build());
+            } else {
+                return true;
+            }
+
+        } else {
+
+            myDiagonal = null;
+            myTrailing = true;
+
+            return myCholesky.compute(Q);
+        }
+    }
+
+    private static int countLeadingDiagonal(final MatrixStore<Double> Q) {
+
+        final int tmpDim = (int) Q.countRows();
+
+        for (int i = 0; i < tmpDim; i++) {
+            if (Q.doubleValue(i, i) <= ZERO) {
+                return i;
+            }
+            for (int j = 0; j < tmpDim; j++) {
+                if ((j != i) && (Q.doubleValue(i, j) != ZERO)) {
+                    return i;
+                }
+            }
+        }
+
+        return tmpDim;
+    }
+
+    private boolean isSolvable() {
+        if ((myDiagonal != null) && !myTrailing) {
+            return true;
+        } else {
+            return myCholesky.isSolvable();
+        }
+    }
+
+    private MatrixStore<Double> solveQ(final MatrixStore<Double> rhs) {
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(rhs.countRows(), rhs.countColumns());
+
+        this.solveQ(rhs, retVal);
+
+        return retVal;
+    }
+
+    private void solveQ(final MatrixStore<Double> rhs, final PrimitiveDenseStore destination) {
+
+        if (myDiagonal != null) {
+
+            final int tmpDim = (int) rhs.countRows();
+            final int tmpDiagDim = myDiagonal.length;
+            final int tmpColDim = (int) rhs.countColumns();
+
+            for (int j = 0; j < tmpColDim; j++) {
+                for (int i = 0; i < tmpDiagDim; i++) {
+                    destination.set(i, j, rhs.doubleValue(i, j) / myDiagonal[i]);
+                }
+            }
+
+            if (tmpDiagDim < tmpDim) {
+                final MatrixStore<Double> tmpTrailing = myCholesky.solve(rhs.builder().rows(tmpDiagDim, tmpDim).build());
+                for (int j = 0; j < tmpColDim; j++) {
+                    for (int i = tmpDiagDim; i < tmpDim; i++) {
+                        destination.set(i, j, tmpTrailing.doubleValue(i - tmpDiagDim, j));
+                    }
+                }
+            }
+
+        } else {
+
+            myCholesky.solve(rhs, destination);
+        }
+    }
+
+    /**
+     * With a block diagonal Q (see {@link #compute(MatrixStore)}) any constraint that only involves one of the
+     * diagonal block's variables simply fixes that variable. Those constraints are eliminated, and only the remaining
+     * (general) constraints enter the Schur complement. With bound constraints active on most of the variables that is
+     * a much smaller system. Returns null if the reduced system is not solvable.
+     */
+    private Output solveStructured(final Input input) {
+
+        final MatrixStore<Double> tmpC = input.getC();
+        final MatrixStore<Double> tmpA = input.getA();
+        final MatrixStore<Double> tmpB = input.getB();
+
+        final int tmpDim = (int) tmpC.countRows();
+        final int tmpDiagDim = myDiagonal.length;
+        final int tmpRowDim = (int) tmpA.countRows();
+
+        final int[] tmpFixingRow = new int[tmpDim];
+        Arrays.fill(tmpFixingRow, -1);
+        final int[] tmpGeneralRows = new int[tmpRowDim];
+        int tmpGeneralDim = 0;
+
+        for (int r = 0; r < tmpRowDim; r++) {
+            int tmpColumn = -1;
+            for (int j = 0; (j < tmpDim) && (tmpColumn != -2); j++) {
+                if (tmpA.doubleValue(r, j) != ZERO) {
+                    tmpColumn = tmpColumn == -1 ? j : -2;
+                }
+            }
+            if ((tmpColumn >= 0) && (tmpColumn < tmpDiagDim) && (tmpFixingRow[tmpColumn] == -1)) {
+                tmpFixingRow[tmpColumn] = r;
+            } else {
+                tmpGeneralRows[tmpGeneralDim++] = r;
+            }
+        }
+
+        final PrimitiveDenseStore tmpX = this.getX(input);
+        for (int i = 0; i < tmpDiagDim; i++) {
+            final int tmpRow = tmpFixingRow[i];
+            if (tmpRow >= 0) {
+                tmpX.set(i, tmpB.doubleValue(tmpRow) / tmpA.doubleValue(tmpRow, i));
+            }
+        }
+
+        // The general constraints' rows, and their right hand side adjusted for the fixed variables
+        final double[][] tmpG = new double[tmpGeneralDim][tmpDim];
+        final double[] tmpGB = new double[tmpGeneralDim];
+        for (int g = 0; g < tmpGeneralDim; g++) {
+            final int tmpRow = tmpGeneralRows[g];
+            double tmpLevel = tmpB.doubleValue(tmpRow);
+            for (int j = 0; j < tmpDim; j++) {
+                final double tmpValue = tmpA.doubleValue(tmpRow, j);
+                if ((j < tmpDiagDim) && (tmpFixingRow[j] >= 0)) {
+                    tmpLevel -= tmpValue * tmpX.doubleValue(j);
+                } else {
+                    tmpG[g][j] = tmpValue;
+                }
+            }
+            tmpGB[g] = tmpLevel;
+        }
+
+        // [Y] = [Q]-1[G]T and [W] = [Q]-1[C], restricted to the free variables
+        final double[][] tmpY = new double[tmpGeneralDim][tmpDim];
+        final double[] tmpW = new double[tmpDim];
+        for (int j = 0; j < tmpDiagDim; j++) {
+            if (tmpFixingRow[j] == -1) {
+                final double tmpInverse = ONE / myDiagonal[j];
+                for (int g = 0; g < tmpGeneralDim; g++) {
+                    tmpY[g][j] = tmpG[g][j] * tmpInverse;
+                }
+                tmpW[j] = tmpC.doubleValue(j) * tmpInverse;
+            }
+        }
+        if (myTrailing) {
+            final PrimitiveDenseStore tmpTrailing = PrimitiveDenseStore.FACTORY.makeZero(tmpDim - tmpDiagDim, tmpGeneralDim + 1);
+            for (int i = tmpDiagDim; i < tmpDim; i++) {
+                for (int g = 0; g < tmpGeneralDim; g++) {
+                    tmpTrailing.set(i - tmpDiagDim, g, tmpG[g][i]);
+                }
+                tmpTrailing.set(i - tmpDiagDim, tmpGeneralDim, tmpC.doubleValue(i));
+            }
+            final MatrixStore<Double> tmpSolved = myCholesky.solve(tmpTrailing);
+            for (int i = tmpDiagDim; i < tmpDim; i++) {
+                for (int g = 0; g < tmpGeneralDim; g++) {
+                    tmpY[g][i] = tmpSolved.doubleValue(i - tmpDiagDim, g);
+                }
+                tmpW[i] = tmpSolved.doubleValue(i - tmpDiagDim, tmpGeneralDim);
+            }
+        }
+
+        // Negated Schur complement [S] = [G][Y] and its right hand side [G][W] - [B]
+        final double[] tmpLG = new double[tmpGeneralDim];
+        if (tmpGeneralDim > 0) {
+
+            final PrimitiveDenseStore tmpS = PrimitiveDenseStore.FACTORY.makeZero(tmpGeneralDim, tmpGeneralDim);
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeZero(tmpGeneralDim, 1);
+            for (int g = 0; g < tmpGeneralDim; g++) {
+                final double[] tmpRowG = tmpG[g];
+                for (int h = 0; h < tmpGeneralDim; h++) {
+                    final double[] tmpColY = tmpY[h];
+                    double tmpSum = ZERO;
+                    for (int j = 0; j < tmpDim; j++) {
+                        tmpSum += tmpRowG[j] * tmpColY[j];
+                    }
+                    tmpS.set(g, h, tmpSum);
+                }
+                double tmpSum = -tmpGB[g];
+                for (int j = 0; j < tmpDim; j++) {
+                    tmpSum += tmpRowG[j] * tmpW[j];
+                }
+                tmpRHS.set(g, 0, tmpSum);
+            }
+
+            myLU.compute(tmpS);
+            if (!myLU.isSolvable()) {
+                return null;
+            }
+
+            final MatrixStore<Double> tmpSolution = myLU.solve(tmpRHS);
+            for (int g = 0; g < tmpGeneralDim; g++) {
+                tmpLG[g] = tmpSolution.doubleValue(g);
+            }
+        }
+
+        final PrimitiveDenseStore tmpL = PrimitiveDenseStore.FACTORY.makeZero(tmpRowDim, 1);
+        for (int g = 0; g < tmpGeneralDim; g++) {
+            tmpL.set(tmpGeneralRows[g], 0, tmpLG[g]);
+        }
+
+        for (int j = 0; j < tmpDim; j++) {
+            if ((j >= tmpDiagDim) || (tmpFixingRow[j] == -1)) {
+                double tmpValue = tmpW[j];
+                for (int g = 0; g < tmpGeneralDim; g++) {
+                    tmpValue -= tmpY[g][j] * tmpLG[g];
+                }
+                tmpX.set(j, tmpValue);
+            } else {
+                // The multiplier of the fixing constraint, from that variable's row of [Q][X] + [A]T[L] = [C]
+                final int tmpRow = tmpFixingRow[j];
+                double tmpValue = tmpC.doubleValue(j) - (myDiagonal[j] * tmpX.doubleValue(j));
+                for (int g = 0; g < tmpGeneralDim; g++) {
+                    tmpValue -= tmpA.doubleValue(tmpGeneralRows[g], j) * tmpLG[g];
+                }
+                tmpL.set(tmpRow, 0, tmpValue / tmpA.doubleValue(tmpRow, j));
+            }
+        }
+
+        return new Output(tmpX, tmpL, true);
+    }
+
     private void doValidate(final Input input) {
 
         final MatrixStore<Double> tmpQ = input.getQ();
@@ -349,6 +614,9 @@ public final class KKTSolver extends Object {
         }
 
         myCholesky.compute(tmpQ, true);
+        myDiagonal = null;
+        myFactorised = true;
+        myTrailing = true;
         if (!myCholesky.isSPD()) {
             // Not positive definite. Check if at least positive semidefinite.
 
@@ -0,0 +1,155 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+/**
+ * Halton sequence - coordinate d is the radical inverse of the point index in the d:th prime base. Simple, and fine
+ * for a handful of dimensions, but in higher dimensions (larger bases) consecutive coordinates become correlated
+ * unless the sequence is scrambled. The scrambled variant applies a random permutation of the digits (that keeps 0
+ * fixed) in each dimension. Starts at point 1 (point 0 is the origin).
+ *
+ * @author apete
+ */
+public final class Halton extends LowDiscrepancySequence {
+
+    static int[] primes(final int count) {
+
+        final int[] retVal = new int[count];
+
+        int tmpCount = 0;
+        for (int n = 2; tmpCount < count; n++) {
+            boolean tmpPrime = true;
+            for (int i = 0; tmpPrime && (i < tmpCount) && ((retVal[i] * retVal[i]) <= n); i++) {
+                tmpPrime = (n % retVal[i]) != 0;
+            }
+            if (tmpPrime) {
+                retVal[tmpCount++] = n;
+            }
+        }
+
+        return retVal;
+    }
+
+    private final int[] myBases;
+    private long myIndex;
+    private final int[][] myPermutations;
+
+    /**
+     * Unscrambled
+     */
+    public Halton(final int dimension) {
+
+        super(dimension);
+
+        myBases = Halton.primes(dimension);
+        myPermutations = null;
+
+        myIndex = 1L;
+    }
+
+    /**
+     * Scrambled (random digit permutations)
+     */
+    public Halton(final int dimension, final long seed) {
+
+        super(dimension);
+
+        myBases = Halton.primes(dimension);
+        myPermutations = new int[dimension][];
+
+        final RandomGenerator tmpRandom = new SplitMix64(seed);
+
+        for (int d = 0; d < dimension; d++) {
+
+            final int tmpBase = myBases[d];
+            final int[] tmpPermutation = new int[tmpBase];
+            for (int i = 0; i < tmpBase; i++) {
+                tmpPermutation[i] = i;
+            }
+            for (int i = tmpBase - 1; i > 1; i--) {
+                final int j = 1 + tmpRandom.nextInt(i);
+                final int tmpSwap = tmpPermutation[i];
+                tmpPermutation[i] = tmpPermutation[j];
+                tmpPermutation[j] = tmpSwap;
+            }
+            myPermutations[d] = tmpPermutation;
+        }
+
+        myIndex = 1L;
+    }
+
+    private Halton(final Halton original) {
+
+        super(original.dimension());
+
+        myBases = original.myBases;
+        myPermutations = original.myPermutations;
+
+        myIndex = original.myIndex;
+    }
+
+    @Override
+    public Halton copy() {
+        return new Halton(this);
+    }
+
+    @Override
+    public long getIndex() {
+        return myIndex;
+    }
+
+    @Override
+    public void next(final double[] destination) {
+
+        for (int d = 0; d < destination.length; d++) {
+
+            final int tmpBase = myBases[d];
+            final int[] tmpPermutation = myPermutations != null ? myPermutations[d] : null;
+            final double tmpInverse = 1.0 / tmpBase;
+
+            double tmpValue = 0.0;
+            double tmpFactor = tmpInverse;
+            long tmpRemaining = myIndex;
+            while (tmpRemaining > 0L) {
+                final int tmpDigit = (int) (tmpRemaining % tmpBase);
+                tmpValue += (tmpPermutation != null ? tmpPermutation[tmpDigit] : tmpDigit) * tmpFactor;
+                tmpRemaining /= tmpBase;
+                tmpFactor *= tmpInverse;
+            }
+
+            destination[d] = tmpValue;
+        }
+
+        myIndex++;
+    }
+
+    @Override
+    public void reset() {
+        myIndex = 1L;
+    }
+
+    @Override
+    public void skipTo(final long index) {
+        myIndex = index;
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+/**
+ * A low discrepancy (quasi-random) sequence of points in the unit hypercube. The points are not independent - they
+ * are constructed to fill the space evenly, and to estimate expectations they converge at close to 1/n rather than
+ * 1/&radic;n. Each point should be used for one realisation (path), with one coordinate per random draw along that
+ * path. The first coordinates are the most evenly distributed, so use them for what matters the most (see
+ * {@link org.ojalgo.random.process.BrownianBridge}).
+ *
+ * @author apete
+ */
+public abstract class LowDiscrepancySequence {
+
+    /**
+     * Serves the coordinates of one point after the other - all coordinates of a point before moving on to the next
+     * point. Lets a sequence be used wherever a {@link RandomGenerator} is. Each generator owns a block of point
+     * indices, and {@link #split()} hands the upper half of what remains of that block to a new generator (using a
+     * copy of the sequence), so that the two never produce the same point. {@link #setSeed(long)} ignores the seed and
+     * restarts the block.
+     */
+    static final class Generator extends RandomGenerator {
+
+        private static final long serialVersionUID = -2470911000549569826L;
+
+        private int myCoordinate;
+        private final long myFirst;
+        private long myLimit;
+        private final double[] myPoint;
+        private final LowDiscrepancySequence mySequence;
+
+        Generator(final LowDiscrepancySequence sequence) {
+            this(sequence, -1L, sequence.countPoints());
+        }
+
+        /**
+         * @param first The first index of the block, or -1 to start from the sequence's first point
+         * @param limit The (exclusive) end of the block
+         */
+        Generator(final LowDiscrepancySequence sequence, final long first, final long limit) {
+
+            super();
+
+            mySequence = sequence;
+            myFirst = first;
+            myLimit = limit;
+            myPoint = new double[sequence.dimension()];
+            myCoordinate = myPoint.length;
+
+            if (first >= 0L) {
+                sequence.skipTo(first);
+            }
+        }
+
+        @Override
+        public void fillGaussian(final double[] destination) {
+            for (int i = 0; i < destination.length; i++) {
+                destination[i] = RandomUtils.probit(this.nextDouble());
+            }
+        }
+
+        @Override
+        public void fillUniform(final double[] destination) {
+            for (int i = 0; i < destination.length; i++) {
+                destination[i] = this.nextDouble();
+            }
+        }
+
+        @Override
+        public double nextDouble() {
+            if (myCoordinate == myPoint.length) {
+                if (mySequence.getIndex() >= myLimit) {
+                    throw new IllegalStateException("All points in this generator's block have been used!");
+                }
+                mySequence.next(myPoint);
+                myCoordinate = 0;
+            }
+            return myPoint[myCoordinate++];
+        }
+
+        @Override
+        public double nextGaussian() {
+            return RandomUtils.probit(this.nextDouble());
+        }
+
+        @Override
+        public long nextLong() {
+            return ((long) (this.nextDouble() * 0x1.0p53)) << 11;
+        }
+
+        @Override
+        public void setSeed(final long seed) {
+            if (mySequence != null) {
+                if (myFirst >= 0L) {
+                    mySequence.skipTo(myFirst);
+                } else {
+                    mySequence.reset();
+                }
+                myCoordinate = myPoint.length;
+            }
+        }
+
+        @Override
+        public RandomGenerator split() {
+
+            final long tmpIndex = mySequence.getIndex();
+            final long tmpMiddle = tmpIndex + ((myLimit - tmpIndex) >>> 1);
+
+            if (tmpMiddle <= tmpIndex) {
+                throw new IllegalStateException("Too few points left in this generator's block to split it!");
+            }
+
+            final Generator retVal = new Generator(mySequence.copy(), tmpMiddle, myLimit);
+
+            myLimit = tmpMiddle;
+
+            return retVal;
+        }
+
+    }
+
+    private final int myDimension;
+
+    protected LowDiscrepancySequence(final int dimension) {
+
+        super();
+
+        if (dimension < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        myDimension = dimension;
+    }
+
+    /**
+     * Use this sequence as a {@link RandomGenerator}, see {@link RandomNumber#setGenerator(RandomGenerator)}. The
+     * generator and this sequence share state.
+     */
+    public final RandomGenerator asGenerator() {
+        return new Generator(this);
+    }
+
+    /**
+     * @return A new instance positioned at the same point, with the same (scrambling) parameters. Use one instance
+     *         per thread.
+     */
+    public abstract LowDiscrepancySequence copy();
+
+    public final int dimension() {
+        return myDimension;
+    }
+
+    /**
+     * @return The index of the point the next call to {@link #next(double[])} will produce
+     */
+    public abstract long getIndex();
+
+    /**
+     * Fill the destination with the next point's coordinates, all in the open interval (0,1).
+     */
+    public abstract void next(double[] destination);
+
+    /**
+     * Fill the destination with the next point's coordinates transformed to standard normal numbers, using
+     * {@link RandomUtils#probit(double)}.
+     */
+    public final void nextGaussian(final double[] destination) {
+        this.next(destination);
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = RandomUtils.probit(destination[i]);
+        }
+    }
+
+    /**
+     * Restart the sequence from its first point.
+     */
+    public abstract void reset();
+
+    /**
+     * Position the sequence so that the next point produced is the one with the specified index.
+     */
+    public abstract void skipTo(long index);
+
+    /**
+     * @return The number of points (indices) the sequence can produce before repeating itself or losing accuracy.
+     */
+    long countPoints() {
+        return Long.MAX_VALUE;
+    }
+
+}
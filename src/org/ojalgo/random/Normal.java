@@ -48,6 +48,19 @@ public class Normal extends AbstractContinuous {
         myScale = aScale;
     }
 
+    /**
+     * Generates the standard normal numbers in bulk (ziggurat method), and then scales and shifts them.
+     */
+    @Override
+    public void fill(final double[] destination) {
+
+        this.random().fillGaussian(destination);
+
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = (destination[i] * myScale) + myLocation;
+        }
+    }
+
     public double getDistribution(final double aValue) {
         return (ONE + RandomUtils.erf((aValue - myLocation) / (myScale * SQRT_TWO))) / TWO;
     }
@@ -27,6 +27,7 @@ import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.Array2D;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
 
 public final class Normal1D extends RandomNumber1D {
 
@@ -91,6 +92,29 @@ public final class Normal1D extends RandomNumber1D {
         return retVal;
     }
 
+    /**
+     * Batched version of {@link #doubleValue()} - fills the destination with one draw per row.
+     *
+     * @param destination [any number of rows] x [the number of variables]
+     * @see Random1D#nextGaussian(PrimitiveDenseStore)
+     */
+    public void fill(final PrimitiveDenseStore destination) {
+
+        this.random().nextGaussian(destination);
+
+        final int tmpRows = (int) destination.countRows();
+        final double[] tmpData = destination.data;
+
+        for (int j = 0; j < myLocations.length; j++) {
+            final double tmpLocation = myLocations.doubleValue(j);
+            final double tmpScale = myScales.doubleValue(j);
+            final int tmpOffset = j * tmpRows;
+            for (int i = 0; i < tmpRows; i++) {
+                tmpData[tmpOffset + i] = tmpLocation + (tmpScale * tmpData[tmpOffset + i]);
+            }
+        }
+    }
+
     @Override
     public Array1D<Double> getExpected() {
         return myLocations;
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import org.ojalgo.constant.PrimitiveMath;
+
+/**
+ * Streaming (online) statistics for pairs of samples - the covariance and correlation, as well as the
+ * {@link OnlineStatistics} of each of the two variables. Each pair is processed once, as it's produced, and is not
+ * stored. Mergeable, and not thread safe, just like {@link OnlineStatistics}.
+ *
+ * @author apete
+ */
+public final class OnlineCovariance {
+
+    private double myComoment = PrimitiveMath.ZERO;
+    private final OnlineStatistics myX;
+    private final OnlineStatistics myY;
+
+    public OnlineCovariance() {
+        this(false);
+    }
+
+    /**
+     * @param quantiles Whether or not to also track the quantiles of each variable, see
+     *        {@link OnlineStatistics#OnlineStatistics(boolean)}
+     */
+    public OnlineCovariance(final boolean quantiles) {
+
+        super();
+
+        myX = new OnlineStatistics(quantiles);
+        myY = new OnlineStatistics(quantiles);
+    }
+
+    public long count() {
+        return myX.count();
+    }
+
+    public double getCorrelation() {
+
+        double retVal = PrimitiveMath.ZERO;
+
+        final double tmpCovar = this.getCovariance();
+
+        if (tmpCovar != PrimitiveMath.ZERO) {
+            retVal = tmpCovar / (myX.getStandardDeviation() * myY.getStandardDeviation());
+        }
+
+        return retVal;
+    }
+
+    /**
+     * The sample covariance - same definition as {@link SampleSet#getCovariance(SampleSet)}.
+     */
+    public double getCovariance() {
+        final long tmpCount = this.count();
+        return tmpCount > 1L ? myComoment / (tmpCount - 1L) : PrimitiveMath.NaN;
+    }
+
+    public OnlineStatistics getX() {
+        return myX;
+    }
+
+    public OnlineStatistics getY() {
+        return myY;
+    }
+
+    /**
+     * Combine with the statistics accumulated by another instance. The other instance is not modified.
+     */
+    public void merge(final OnlineCovariance other) {
+
+        final long tmpThisCount = this.count();
+        final long tmpOtherCount = other.count();
+
+        if (tmpOtherCount == 0L) {
+            return;
+        }
+
+        if (tmpThisCount == 0L) {
+
+            myComoment = other.myComoment;
+
+        } else {
+
+            final double tmpDeltaX = other.myX.getMean() - myX.getMean();
+            final double tmpDeltaY = other.myY.getMean() - myY.getMean();
+
+            myComoment += other.myComoment + (((tmpDeltaX * tmpDeltaY) * tmpThisCount * tmpOtherCount) / (tmpThisCount + tmpOtherCount));
+        }
+
+        myX.merge(other.myX);
+        myY.merge(other.myY);
+    }
+
+    public void put(final double x, final double y) {
+
+        final double tmpDeltaX = this.count() > 0L ? x - myX.getMean() : PrimitiveMath.ZERO;
+
+        myX.put(x);
+        myY.put(y);
+
+        myComoment += tmpDeltaX * (y - myY.getMean());
+    }
+
+    public void reset() {
+        myComoment = PrimitiveMath.ZERO;
+        myX.reset();
+        myY.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "Sample set size: " + this.count() + ", Covariance: " + this.getCovariance() + ", Correlation: " + this.getCorrelation();
+    }
+
+}
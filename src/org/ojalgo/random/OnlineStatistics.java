@@ -0,0 +1,206 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.constant.PrimitiveMath;
+
+/**
+ * Streaming (online) sample statistics. Each sample is processed once, as it's produced, and is not stored. Uses
+ * Welford's algorithm for the mean and variance. Instances that accumulated different parts of a sample can be
+ * merged, so each thread can have its own instance and combine them when done. Not thread safe.
+ * <p>
+ * Optionally the quantiles are tracked as well, using a {@link QuantileSketch}. Then also the median, any other
+ * percentile, and the tail means (value-at-risk and expected shortfall) are available - still without storing the
+ * samples.
+ * </p>
+ *
+ * @author apete
+ */
+public final class OnlineStatistics {
+
+    private long myCount = 0L;
+    private double myMaximum = PrimitiveMath.NEGATIVE_INFINITY;
+    private double myMean = PrimitiveMath.ZERO;
+    private double myMinimum = PrimitiveMath.POSITIVE_INFINITY;
+    private final QuantileSketch mySketch;
+    private double mySumOfSquares = PrimitiveMath.ZERO;
+
+    public OnlineStatistics() {
+        this(false);
+    }
+
+    /**
+     * @param quantiles Whether or not to also track the quantiles (using a {@link QuantileSketch})
+     */
+    public OnlineStatistics(final boolean quantiles) {
+
+        super();
+
+        mySketch = quantiles ? new QuantileSketch() : null;
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    /**
+     * @see QuantileSketch#getLowerTailMean(double)
+     */
+    public double getLowerTailMean(final double probability) {
+        return this.getSketch().getLowerTailMean(probability);
+    }
+
+    public double getMaximum() {
+        return myMaximum;
+    }
+
+    public double getMean() {
+        return myCount > 0L ? myMean : PrimitiveMath.NaN;
+    }
+
+    /**
+     * @see #getQuantile(double)
+     */
+    public double getMedian() {
+        return this.getQuantile(PrimitiveMath.HALF);
+    }
+
+    public double getMinimum() {
+        return myMinimum;
+    }
+
+    /**
+     * Only available if the quantiles are tracked - see {@link #OnlineStatistics(boolean)}.
+     *
+     * @see QuantileSketch#getQuantile(double)
+     */
+    public double getQuantile(final double probability) {
+        return this.getSketch().getQuantile(probability);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(this.getVariance());
+    }
+
+    /**
+     * The sum of the squared deviations from the mean
+     *
+     * @see SampleSet#getSumOfSquares()
+     */
+    public double getSumOfSquares() {
+        return mySumOfSquares;
+    }
+
+    /**
+     * @see QuantileSketch#getUpperTailMean(double)
+     */
+    public double getUpperTailMean(final double probability) {
+        return this.getSketch().getUpperTailMean(probability);
+    }
+
+    /**
+     * The sample variance - same definition as {@link SampleSet#getVariance()}.
+     */
+    public double getVariance() {
+        return myCount > 1L ? mySumOfSquares / (myCount - 1L) : PrimitiveMath.NaN;
+    }
+
+    /**
+     * Combine with the statistics accumulated by another instance (Chan et al). The other instance is not modified.
+     * The quantiles are merged if both instances track them.
+     */
+    public void merge(final OnlineStatistics other) {
+
+        if (other.myCount == 0L) {
+            return;
+        }
+
+        if ((mySketch != null) && (other.mySketch != null)) {
+            mySketch.merge(other.mySketch);
+        }
+
+        if (myCount == 0L) {
+
+            myCount = other.myCount;
+            myMean = other.myMean;
+            mySumOfSquares = other.mySumOfSquares;
+
+        } else {
+
+            final long tmpCount = myCount + other.myCount;
+            final double tmpDelta = other.myMean - myMean;
+
+            myMean += (tmpDelta * other.myCount) / tmpCount;
+            mySumOfSquares += other.mySumOfSquares + (((tmpDelta * tmpDelta) * myCount * other.myCount) / tmpCount);
+            myCount = tmpCount;
+        }
+
+        myMinimum = Math.min(myMinimum, other.myMinimum);
+        myMaximum = Math.max(myMaximum, other.myMaximum);
+    }
+
+    public void put(final double sample) {
+
+        myCount++;
+
+        final double tmpDelta = sample - myMean;
+        myMean += tmpDelta / myCount;
+        mySumOfSquares += tmpDelta * (sample - myMean);
+
+        if (sample < myMinimum) {
+            myMinimum = sample;
+        }
+        if (sample > myMaximum) {
+            myMaximum = sample;
+        }
+
+        if (mySketch != null) {
+            mySketch.put(sample);
+        }
+    }
+
+    public void reset() {
+        myCount = 0L;
+        myMaximum = PrimitiveMath.NEGATIVE_INFINITY;
+        myMean = PrimitiveMath.ZERO;
+        myMinimum = PrimitiveMath.POSITIVE_INFINITY;
+        mySumOfSquares = PrimitiveMath.ZERO;
+        if (mySketch != null) {
+            mySketch.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Sample set size: " + this.count() + ", Mean: " + this.getMean() + ", Variance: " + this.getVariance() + ", Standard Deviation: "
+                + this.getStandardDeviation() + ", Minimum: " + this.getMinimum() + ", Maximum: " + this.getMaximum();
+    }
+
+    private QuantileSketch getSketch() {
+        if (mySketch == null) {
+            throw new ProgrammingError("Quantiles are not tracked - use new OnlineStatistics(true)");
+        }
+        return mySketch;
+    }
+
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.Arrays;
+
+import org.ojalgo.constant.PrimitiveMath;
+
+/**
+ * Approximate quantiles (and tail means) of a stream of samples, using a fixed amount of memory regardless of the
+ * number of samples. This is a (merging) t-digest: samples are buffered, and when the buffer is full they are sorted
+ * and merged into an ordered list of centroids (mean and weight). Centroids are kept small towards the tails and
+ * allowed to grow in the middle, so extreme quantiles (such as those needed for value-at-risk) remain accurate.
+ * Instances that processed different parts of a sample can be merged. Not thread safe.
+ *
+ * @author apete
+ */
+public final class QuantileSketch {
+
+    static final int DEFAULT_COMPRESSION = 200;
+
+    private static int merge(final double[] means1, final double[] weights1, final int count1, final double[] means2, final double[] weights2,
+            final int count2, final double[] destinationMeans, final double[] destinationWeights) {
+
+        int i1 = 0;
+        int i2 = 0;
+        int d = 0;
+
+        while ((i1 < count1) || (i2 < count2)) {
+            if ((i2 >= count2) || ((i1 < count1) && (means1[i1] <= means2[i2]))) {
+                destinationMeans[d] = means1[i1];
+                destinationWeights[d] = weights1 != null ? weights1[i1] : PrimitiveMath.ONE;
+                i1++;
+            } else {
+                destinationMeans[d] = means2[i2];
+                destinationWeights[d] = weights2 != null ? weights2[i2] : PrimitiveMath.ONE;
+                i2++;
+            }
+            d++;
+        }
+
+        return d;
+    }
+
+    private final double myAngle;
+    private final double[] myBuffer;
+    private int myBuffered = 0;
+    private int myCentroids = 0;
+    private final double myCompression;
+    private double myMaximum = PrimitiveMath.NEGATIVE_INFINITY;
+    private double[] myMeans;
+    private double myMinimum = PrimitiveMath.POSITIVE_INFINITY;
+    private double[] myScratchMeans;
+    private double[] myScratchWeights;
+    private double myTotal = PrimitiveMath.ZERO;
+    private double[] myWeights;
+
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression Roughly the (maximum) number of centroids kept. Larger values give more accurate quantiles
+     *        but use more memory. 100-300 is typical.
+     */
+    public QuantileSketch(final int compression) {
+
+        super();
+
+        if (compression < 10) {
+            throw new IllegalArgumentException();
+        }
+
+        myAngle = PrimitiveMath.TWO_PI / compression;
+        myCompression = compression;
+        myBuffer = new double[5 * compression];
+
+        final int tmpCapacity = myBuffer.length + (2 * compression);
+        myMeans = new double[tmpCapacity];
+        myWeights = new double[tmpCapacity];
+        myScratchMeans = new double[tmpCapacity];
+        myScratchWeights = new double[tmpCapacity];
+    }
+
+    public long count() {
+        return Math.round(myTotal) + myBuffered;
+    }
+
+    /**
+     * The mean of the samples below the quantile at the given probability - E[X | X &lt; Q(p)]. If the samples are
+     * profits (or returns) the expected shortfall (conditional value-at-risk) at confidence c is
+     * -getLowerTailMean(1-c), and the value-at-risk is -getQuantile(1-c).
+     */
+    public double getLowerTailMean(final double probability) {
+
+        this.flush();
+
+        if (myCentroids == 0) {
+            return PrimitiveMath.NaN;
+        }
+
+        final double tmpLimit = probability * myTotal;
+
+        if (tmpLimit <= PrimitiveMath.ZERO) {
+            return myMinimum;
+        } else {
+            return this.integrate(tmpLimit) / tmpLimit;
+        }
+    }
+
+    public double getMaximum() {
+        this.flush();
+        return myMaximum;
+    }
+
+    public double getMinimum() {
+        this.flush();
+        return myMinimum;
+    }
+
+    /**
+     * @param probability [0,1]
+     * @return The (approximate) value below which that fraction of the samples are
+     */
+    public double getQuantile(final double probability) {
+
+        this.flush();
+
+        if (myCentroids == 0) {
+            return PrimitiveMath.NaN;
+        }
+
+        final double tmpTarget = probability * myTotal;
+
+        // Each centroid's mean is placed at the middle of its (cumulative) weight, the minimum at 0 and the maximum at the total weight
+        double tmpPrevWeight = PrimitiveMath.ZERO;
+        double tmpPrevValue = myMinimum;
+        double tmpCumulative = PrimitiveMath.ZERO;
+
+        for (int c = 0; c < myCentroids; c++) {
+
+            final double tmpWeight = tmpCumulative + (myWeights[c] / PrimitiveMath.TWO);
+
+            if (tmpTarget <= tmpWeight) {
+                return this.interpolate(tmpPrevWeight, tmpPrevValue, tmpWeight, myMeans[c], tmpTarget);
+            }
+
+            tmpPrevWeight = tmpWeight;
+            tmpPrevValue = myMeans[c];
+            tmpCumulative += myWeights[c];
+        }
+
+        return this.interpolate(tmpPrevWeight, tmpPrevValue, myTotal, myMaximum, Math.min(tmpTarget, myTotal));
+    }
+
+    /**
+     * The mean of the samples above the quantile at the given probability - E[X | X &gt; Q(p)]
+     */
+    public double getUpperTailMean(final double probability) {
+
+        this.flush();
+
+        if (myCentroids == 0) {
+            return PrimitiveMath.NaN;
+        }
+
+        final double tmpLimit = probability * myTotal;
+
+        if (tmpLimit >= myTotal) {
+            return myMaximum;
+        } else {
+            return (this.integrate(myTotal) - this.integrate(tmpLimit)) / (myTotal - tmpLimit);
+        }
+    }
+
+    /**
+     * Combine with the samples processed by another instance. The other instance is not modified.
+     */
+    public void merge(final QuantileSketch other) {
+
+        if (other.count() == 0L) {
+            return;
+        }
+
+        this.flush();
+
+        final double[] tmpOtherBuffer = Arrays.copyOf(other.myBuffer, other.myBuffered);
+        Arrays.sort(tmpOtherBuffer);
+
+        final int tmpOtherCount = other.myCentroids + other.myBuffered;
+        final double[] tmpOtherMeans = new double[tmpOtherCount];
+        final double[] tmpOtherWeights = new double[tmpOtherCount];
+        QuantileSketch.merge(other.myMeans, other.myWeights, other.myCentroids, tmpOtherBuffer, null, other.myBuffered, tmpOtherMeans, tmpOtherWeights);
+
+        this.ensureScratch(myCentroids + tmpOtherCount);
+        final int tmpCount = QuantileSketch.merge(myMeans, myWeights, myCentroids, tmpOtherMeans, tmpOtherWeights, tmpOtherCount, myScratchMeans,
+                myScratchWeights);
+
+        for (int i = 0; i < other.myBuffered; i++) {
+            this.extremes(other.myBuffer[i]);
+        }
+        myMinimum = Math.min(myMinimum, other.myMinimum);
+        myMaximum = Math.max(myMaximum, other.myMaximum);
+
+        this.compress(tmpCount, myTotal + other.myTotal + other.myBuffered);
+    }
+
+    public void put(final double sample) {
+
+        if (myBuffered == myBuffer.length) {
+            this.flush();
+        }
+
+        myBuffer[myBuffered++] = sample;
+    }
+
+    public void reset() {
+        myBuffered = 0;
+        myCentroids = 0;
+        myMaximum = PrimitiveMath.NEGATIVE_INFINITY;
+        myMinimum = PrimitiveMath.POSITIVE_INFINITY;
+        myTotal = PrimitiveMath.ZERO;
+    }
+
+    @Override
+    public String toString() {
+        return "Sample set size: " + this.count() + ", Centroids: " + myCentroids + ", Median: " + this.getQuantile(PrimitiveMath.HALF);
+    }
+
+    /**
+     * Merges adjacent (scratch) centroids as long as their combined weight stays within the limit set by the scale
+     * function k(q) = normaliser * log(q / (1-q)) - each centroid may span at most 1 unit of k. The centroid sizes are
+     * then proportional to q(1-q); single samples at the very ends, growing geometrically towards the middle. In the
+     * middle the size is additionally limited using k(q) = compression / 2&pi; * asin(2q-1). Then swaps the scratch
+     * arrays in as the new centroids.
+     */
+    private void compress(final int count, final double total) {
+
+        final double[] tmpMeans = myScratchMeans;
+        final double[] tmpWeights = myScratchWeights;
+
+        final double tmpFactor = Math.exp(-PrimitiveMath.ONE / this.normaliser(total));
+
+        int tmpLast = 0;
+        double tmpBefore = PrimitiveMath.ZERO;
+        double tmpLimit = total * this.limit(PrimitiveMath.ZERO, tmpFactor);
+
+        for (int i = 1; i < count; i++) {
+
+            final double tmpProposed = tmpWeights[tmpLast] + tmpWeights[i];
+
+            if ((tmpBefore + tmpProposed) <= tmpLimit) {
+
+                tmpMeans[tmpLast] += ((tmpMeans[i] - tmpMeans[tmpLast]) * tmpWeights[i]) / tmpProposed;
+                tmpWeights[tmpLast] = tmpProposed;
+
+            } else {
+
+                tmpBefore += tmpWeights[tmpLast];
+                tmpLimit = total * this.limit(tmpBefore / total, tmpFactor);
+
+                tmpLast++;
+                tmpMeans[tmpLast] = tmpMeans[i];
+                tmpWeights[tmpLast] = tmpWeights[i];
+            }
+        }
+
+        myScratchMeans = myMeans;
+        myScratchWeights = myWeights;
+        myMeans = tmpMeans;
+        myWeights = tmpWeights;
+
+        myCentroids = count > 0 ? tmpLast + 1 : 0;
+        myTotal = total;
+    }
+
+    private void ensureScratch(final int size) {
+        if (myScratchMeans.length < size) {
+            myScratchMeans = new double[size];
+            myScratchWeights = new double[size];
+        }
+    }
+
+    private void extremes(final double sample) {
+        if (sample < myMinimum) {
+            myMinimum = sample;
+        }
+        if (sample > myMaximum) {
+            myMaximum = sample;
+        }
+    }
+
+    private void flush() {
+
+        if (myBuffered == 0) {
+            return;
+        }
+
+        Arrays.sort(myBuffer, 0, myBuffered);
+
+        myMinimum = Math.min(myMinimum, myBuffer[0]);
+        myMaximum = Math.max(myMaximum, myBuffer[myBuffered - 1]);
+
+        this.ensureScratch(myCentroids + myBuffered);
+        final int tmpCount = QuantileSketch.merge(myMeans, myWeights, myCentroids, myBuffer, null, myBuffered, myScratchMeans, myScratchWeights);
+
+        final double tmpTotal = myTotal + myBuffered;
+        myBuffered = 0;
+
+        this.compress(tmpCount, tmpTotal);
+    }
+
+    /**
+     * The integral of the (piecewise linear) quantile function from 0 to limit (in weight units).
+     */
+    private double integrate(final double limit) {
+
+        double retVal = PrimitiveMath.ZERO;
+
+        double tmpPrevWeight = PrimitiveMath.ZERO;
+        double tmpPrevValue = myMinimum;
+        double tmpCumulative = PrimitiveMath.ZERO;
+
+        for (int c = 0; c <= myCentroids; c++) {
+
+            final double tmpWeight = c < myCentroids ? tmpCumulative + (myWeights[c] / PrimitiveMath.TWO) : myTotal;
+            final double tmpValue = c < myCentroids ? myMeans[c] : myMaximum;
+
+            if (limit <= tmpWeight) {
+                final double tmpEnd = this.interpolate(tmpPrevWeight, tmpPrevValue, tmpWeight, tmpValue, limit);
+                return retVal + (((tmpPrevValue + tmpEnd) * (limit - tmpPrevWeight)) / PrimitiveMath.TWO);
+            }
+
+            retVal += ((tmpPrevValue + tmpValue) * (tmpWeight - tmpPrevWeight)) / PrimitiveMath.TWO;
+
+            tmpPrevWeight = tmpWeight;
+            tmpPrevValue = tmpValue;
+            if (c < myCentroids) {
+                tmpCumulative += myWeights[c];
+            }
+        }
+
+        return retVal;
+    }
+
+    private double interpolate(final double weight1, final double value1, final double weight2, final double value2, final double target) {
+        if (weight2 <= weight1) {
+            return value2;
+        } else {
+            return value1 + (((value2 - value1) * (target - weight1)) / (weight2 - weight1));
+        }
+    }
+
+    /**
+     * The quantile at which the scale function has increased by 1 from what it is at the given quantile.
+     *
+     * @param factor exp(-1/normaliser)
+     */
+    private double limit(final double quantile, final double factor) {
+        if (quantile <= PrimitiveMath.ZERO) {
+            return PrimitiveMath.ZERO;
+        } else if (quantile >= PrimitiveMath.ONE) {
+            return PrimitiveMath.ONE;
+        } else {
+            final double tmpLogistic = PrimitiveMath.ONE / (PrimitiveMath.ONE + ((factor * (PrimitiveMath.ONE - quantile)) / quantile));
+            final double tmpAngle = Math.asin((PrimitiveMath.TWO * quantile) - PrimitiveMath.ONE) + myAngle;
+            if (tmpAngle < PrimitiveMath.HALF_PI) {
+                return Math.min(tmpLogistic, (PrimitiveMath.ONE + Math.sin(tmpAngle)) / PrimitiveMath.TWO);
+            } else {
+                return tmpLogistic;
+            }
+        }
+    }
+
+    /**
+     * Chosen so that the number of centroids stays roughly at the compression parameter regardless of the total
+     * weight (Dunning &amp; Ertl).
+     */
+    private double normaliser(final double total) {
+        return myCompression / ((4.0 * Math.log(Math.max(total / myCompression, PrimitiveMath.ONE))) + 24.0);
+    }
+
+}
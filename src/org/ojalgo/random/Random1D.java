@@ -21,31 +21,61 @@
  */
 package org.ojalgo.random;
 
-import java.util.Random;
-
 import org.ojalgo.access.Access2D;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
-import org.ojalgo.type.Alternator;
 
 public class Random1D {
 
+    /**
+     * A matrix R such that R R<sup>T</sup> equals the correlations matrix. Preferably the (lower triangular) Cholesky
+     * factor, but if the correlations matrix is not positive definite (only semidefinite) a root is derived from its
+     * eigenvalue decomposition instead.
+     */
+    static PrimitiveDenseStore root(final Access2D<?> correlations) {
+
+        final Cholesky<Double> tmpCholesky = Cholesky.makePrimitive();
+        tmpCholesky.compute(correlations);
+
+        if (tmpCholesky.isSPD()) {
+
+            return PrimitiveDenseStore.FACTORY.copy(tmpCholesky.getL());
+
+        } else {
+
+            final Eigenvalue<Double> tmpEvD = Eigenvalue.makePrimitive(true);
+            tmpEvD.compute(correlations);
+
+            final MatrixStore<Double> tmpV = tmpEvD.getV();
+            final MatrixStore<Double> tmpD = tmpEvD.getD();
+
+            final int tmpDim = (int) tmpV.countRows();
+            final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            for (int j = 0; j < tmpDim; j++) {
+                final double tmpScale = Math.sqrt(Math.max(tmpD.doubleValue(j, j), 0.0));
+                for (int i = 0; i < tmpDim; i++) {
+                    retVal.set(i, j, tmpV.doubleValue(i, j) * tmpScale);
+                }
+            }
+            return retVal;
+        }
+    }
+
     public final int length;
 
-    private final Alternator<Random> myAlternator = RandomNumber.makeRandomAlternator();
-    private final MatrixStore<Double> myCholeskiedCorrelations;
+    private final PrimitiveDenseStore myCholeskiedCorrelations;
+    private RandomGenerator myGenerator = null;
+    private PrimitiveDenseStore myTransposedRoot = null;
+    private PrimitiveDenseStore myWorkspace = null;
 
     public Random1D(final Access2D<?> aCorrelationsMatrix) {
 
         super();
 
-        final Cholesky<Double> tmpCholesky = Cholesky.makePrimitive();
-        tmpCholesky.compute(aCorrelationsMatrix);
-        myCholeskiedCorrelations = tmpCholesky.getL();
-
-        tmpCholesky.reset();
+        myCholeskiedCorrelations = Random1D.root(aCorrelationsMatrix);
 
         length = (int) myCholeskiedCorrelations.countRows();
     }
@@ -67,6 +97,14 @@ public class Random1D {
         this(null);
     }
 
+    /**
+     * The cached correlations root, R such that R R<sup>T</sup> equals the correlations matrix - normally the lower
+     * triangular Cholesky factor. Null if the variables are uncorrelated.
+     */
+    public MatrixStore<Double> getCorrelationsRoot() {
+        return myCholeskiedCorrelations;
+    }
+
     /**
      * An array of correlated random numbers, provided that you gave a correlations matrix to the constructor.
      */
@@ -90,11 +128,10 @@ public class Random1D {
      */
     public Array1D<Double> nextGaussian() {
 
-        final PrimitiveDenseStore tmpUncorrelated = PrimitiveDenseStore.FACTORY.makeZero(length, 1);
+        final double[] tmpGaussians = new double[length];
+        this.random().fillGaussian(tmpGaussians);
 
-        for (int i = 0; i < length; i++) {
-            tmpUncorrelated.set(i, 0, this.random().nextGaussian());
-        }
+        final PrimitiveDenseStore tmpUncorrelated = PrimitiveDenseStore.FACTORY.columns(tmpGaussians);
 
         if (myCholeskiedCorrelations != null) {
             return ((PrimitiveDenseStore) tmpUncorrelated.multiplyLeft(myCholeskiedCorrelations)).asList();
@@ -103,12 +140,50 @@ public class Random1D {
         }
     }
 
+    /**
+     * A whole block of correlated standard normal draws at once - each row is one draw (one scenario/path) and each
+     * column one variable. The independent normals are generated in bulk into a workspace (reused between calls with
+     * the same number of rows), and then multiplied by the (cached, transposed) correlations root in one matrix
+     * multiplication.
+     *
+     * @param destination [any number of rows] x [{@link #size()}]. Its contents is overwritten.
+     */
+    public void nextGaussian(final PrimitiveDenseStore destination) {
+
+        if (myCholeskiedCorrelations == null) {
+
+            this.random().fillGaussian(destination.data);
+
+        } else {
+
+            final int tmpRows = (int) destination.countRows();
+
+            if ((myWorkspace == null) || (myWorkspace.countRows() != tmpRows)) {
+                myWorkspace = PrimitiveDenseStore.FACTORY.makeZero(tmpRows, length);
+            }
+            if (myTransposedRoot == null) {
+                myTransposedRoot = PrimitiveDenseStore.FACTORY.transpose(myCholeskiedCorrelations);
+            }
+
+            this.random().fillGaussian(myWorkspace.data);
+
+            destination.fillByMultiplying(myWorkspace, myTransposedRoot);
+        }
+    }
+
+    /**
+     * @see RandomNumber#setGenerator(RandomGenerator)
+     */
+    public void setGenerator(final RandomGenerator generator) {
+        myGenerator = generator;
+    }
+
     public int size() {
         return length;
     }
 
-    protected Random random() {
-        return myAlternator.get();
+    protected RandomGenerator random() {
+        return myGenerator != null ? myGenerator : RandomGenerator.current();
     }
 
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The source of randomness underneath {@link RandomNumber}, {@link Random1D} and the random processes. Subclasses only
+ * need to implement {@link #nextLong()} (64 random bits), {@link #split()} and {@link #setSeed(long)} - everything
+ * else is derived from that. Extends {@link Random} so it can be used wherever a {@link Random} is expected, but
+ * unlike {@link Random} it is not synchronised (not thread safe) - use {@link #split()}, or
+ * {@link #make(long, long)} with different stream id:s, to get independent generators for different threads, or
+ * {@link #current()} to get the calling thread's own generator.
+ * <p>
+ * Normally distributed numbers are generated using the ziggurat method (Marsaglia &amp; Tsang, with Doornik's
+ * improvements), and usually only need one call to {@link #nextLong()} each.
+ * </p>
+ *
+ * @author apete
+ */
+public abstract class RandomGenerator extends Random {
+
+    /**
+     * Creates generators from a seed and a stream id. Generators created with the same seed and stream id produce
+     * the same sequence. Generators with the same seed but different stream id:s produce independent sequences.
+     */
+    public static interface Factory {
+
+        RandomGenerator make(long seed, long stream);
+
+    }
+
+    public static final Factory SPLIT_MIX = new Factory() {
+
+        public RandomGenerator make(final long seed, final long stream) {
+            return new SplitMix64(seed, stream);
+        }
+
+    };
+
+    public static final Factory XOROSHIRO = new Factory() {
+
+        public RandomGenerator make(final long seed, final long stream) {
+            return new Xoroshiro128(seed, stream);
+        }
+
+    };
+
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final ThreadLocal<RandomGenerator> CURRENT = new ThreadLocal<RandomGenerator>() {
+
+        @Override
+        protected RandomGenerator initialValue() {
+            return RandomGenerator.make();
+        }
+
+    };
+
+    private static volatile Factory DEFAULT = SPLIT_MIX;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final AtomicLong SEED = new AtomicLong(RandomGenerator.mix64(System.currentTimeMillis()) ^ RandomGenerator.mix64(System.nanoTime()));
+    private static final long serialVersionUID = 4120446211536366812L;
+
+    private static final int ZIGGURAT_LAYERS = 128;
+    private static final double ZIGGURAT_R = 3.442619855899;
+    private static final double[] ZIGGURAT_RATIOS = new double[ZIGGURAT_LAYERS];
+    private static final double ZIGGURAT_V = 9.91256303526217E-3;
+    private static final double[] ZIGGURAT_X = new double[ZIGGURAT_LAYERS + 1];
+
+    static {
+
+        double tmpF = Math.exp(-0.5 * ZIGGURAT_R * ZIGGURAT_R);
+
+        ZIGGURAT_X[0] = ZIGGURAT_V / tmpF;
+        ZIGGURAT_X[1] = ZIGGURAT_R;
+        ZIGGURAT_X[ZIGGURAT_LAYERS] = 0.0;
+
+        for (int i = 2; i < ZIGGURAT_LAYERS; i++) {
+            ZIGGURAT_X[i] = Math.sqrt(-2.0 * Math.log((ZIGGURAT_V / ZIGGURAT_X[i - 1]) + tmpF));
+            tmpF = Math.exp(-0.5 * ZIGGURAT_X[i] * ZIGGURAT_X[i]);
+        }
+
+        for (int i = 0; i < ZIGGURAT_LAYERS; i++) {
+            ZIGGURAT_RATIOS[i] = ZIGGURAT_X[i + 1] / ZIGGURAT_X[i];
+        }
+    }
+
+    /**
+     * The calling thread's own generator (created, with a unique seed, the first time it is requested). This is what
+     * {@link RandomNumber} and {@link Random1D} use unless a specific generator has been set, and is what makes it
+     * safe to share those between threads.
+     */
+    public static RandomGenerator current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * A new generator, from the default factory, with a unique seed.
+     */
+    public static RandomGenerator make() {
+        // Mixed, as consecutive SplitMix64 seeds would otherwise give overlapping (shifted) sequences
+        return DEFAULT.make(RandomGenerator.mix64(SEED.addAndGet(GOLDEN_GAMMA)), 0L);
+    }
+
+    /**
+     * A new generator, from the default factory, with the specified seed and stream id.
+     */
+    public static RandomGenerator make(final long seed, final long stream) {
+        return DEFAULT.make(seed, stream);
+    }
+
+    /**
+     * Change which generator family {@link #make()} and {@link #make(long, long)} use. The default is
+     * {@link #SPLIT_MIX}.
+     */
+    public static void setDefaultFactory(final Factory factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException();
+        }
+        DEFAULT = factory;
+    }
+
+    /**
+     * Stafford's "Mix13" variant of the MurmurHash3 finaliser - the output function of SplitMix64.
+     */
+    static long mix64(final long value) {
+        long retVal = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        retVal = (retVal ^ (retVal >>> 27)) * 0x94d049bb133111ebL;
+        return retVal ^ (retVal >>> 31);
+    }
+
+    protected RandomGenerator() {
+        super(0L);
+    }
+
+    /**
+     * Fill the destination with standard normal (Gaussian) numbers.
+     */
+    public void fillGaussian(final double[] destination) {
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = this.nextGaussian();
+        }
+    }
+
+    /**
+     * Fill the destination with uniformly distributed numbers in [0.0,1.0).
+     */
+    public void fillUniform(final double[] destination) {
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = (this.nextLong() >>> 11) * DOUBLE_UNIT;
+        }
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return this.nextLong() < 0L;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (this.nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (this.nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Ziggurat method - not the polar method {@link Random#nextGaussian()} uses.
+     */
+    @Override
+    public double nextGaussian() {
+
+        for (;;) {
+
+            final long tmpBits = this.nextLong();
+
+            final int tmpLayer = (int) (tmpBits & (ZIGGURAT_LAYERS - 1));
+            final double tmpU = (2.0 * ((tmpBits >>> 11) * DOUBLE_UNIT)) - 1.0;
+
+            if (Math.abs(tmpU) < ZIGGURAT_RATIOS[tmpLayer]) {
+                return tmpU * ZIGGURAT_X[tmpLayer];
+            }
+
+            if (tmpLayer == 0) {
+                return this.nextGaussianTail(tmpU < 0.0);
+            }
+
+            final double tmpX = tmpU * ZIGGURAT_X[tmpLayer];
+            final double tmpF0 = Math.exp(-0.5 * ((ZIGGURAT_X[tmpLayer] * ZIGGURAT_X[tmpLayer]) - (tmpX * tmpX)));
+            final double tmpF1 = Math.exp(-0.5 * ((ZIGGURAT_X[tmpLayer + 1] * ZIGGURAT_X[tmpLayer + 1]) - (tmpX * tmpX)));
+
+            if ((tmpF1 + (this.nextDouble() * (tmpF0 - tmpF1))) < 1.0) {
+                return tmpX;
+            }
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (this.nextLong() >>> 32);
+    }
+
+    /**
+     * 64 random bits - what everything else is derived from.
+     */
+    @Override
+    public abstract long nextLong();
+
+    /**
+     * Reinitialise this generator, keeping the stream id.
+     */
+    @Override
+    public abstract void setSeed(long seed);
+
+    /**
+     * @return A new generator, independent of this one, that is seeded from this one's sequence. This generator's
+     *         sequence is advanced.
+     */
+    public abstract RandomGenerator split();
+
+    @Override
+    protected final int next(final int bits) {
+        return (int) (this.nextLong() >>> (64 - bits));
+    }
+
+    private double nextGaussianTail(final boolean negative) {
+
+        double tmpX, tmpY;
+        do {
+            tmpX = Math.log(1.0 - this.nextDouble()) / ZIGGURAT_R;
+            tmpY = Math.log(1.0 - this.nextDouble());
+        } while ((-2.0 * tmpY) < (tmpX * tmpX));
+
+        return negative ? tmpX - ZIGGURAT_R : ZIGGURAT_R - tmpX;
+    }
+
+}
@@ -23,10 +23,7 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
-import java.util.Random;
-
 import org.ojalgo.function.NullaryFunction;
-import org.ojalgo.type.Alternator;
 
 /**
  * RandomNumber
@@ -35,14 +32,9 @@ import org.ojalgo.type.Alternator;
  */
 public abstract class RandomNumber extends Number implements Distribution, NullaryFunction<Double> {
 
-    private static final Random SEED = new Random();
     private static final long serialVersionUID = -5871398825698010936L;
 
-    static Alternator<Random> makeRandomAlternator() {
-        return new Alternator<Random>(new Random(SEED.nextLong()), new Random(SEED.nextLong()));
-    }
-
-    private final Alternator<Random> myAlternator = RandomNumber.makeRandomAlternator();
+    private RandomGenerator myGenerator = null;
 
     protected RandomNumber() {
         super();
@@ -53,6 +45,15 @@ public abstract class RandomNumber extends Number implements Distribution, Nulla
         return this.generate();
     }
 
+    /**
+     * Fill the destination with random numbers from this distribution.
+     */
+    public void fill(final double[] destination) {
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = this.generate();
+        }
+    }
+
     @Override
     public final float floatValue() {
         return (float) this.generate();
@@ -93,6 +94,17 @@ public abstract class RandomNumber extends Number implements Distribution, Nulla
         return (long) this.generate();
     }
 
+    /**
+     * Replace the underlying generator - to make the sequence reproducible. By default (or if set to null) each
+     * calling thread draws from its own generator, {@link RandomGenerator#current()}, so that instances can be shared
+     * between threads. A generator set here is used by all threads, and is not thread safe.
+     *
+     * @see RandomGenerator#make(long, long)
+     */
+    public final void setGenerator(final RandomGenerator generator) {
+        myGenerator = generator;
+    }
+
     @Override
     public String toString() {
         return this.getExpected() + "±" + this.getStandardDeviation();
@@ -106,7 +118,7 @@ public abstract class RandomNumber extends Number implements Distribution, Nulla
 
     protected abstract double generate();
 
-    protected final Random random() {
-        return myAlternator.get();
+    protected final RandomGenerator random() {
+        return myGenerator != null ? myGenerator : RandomGenerator.current();
     }
 }
@@ -81,6 +81,13 @@ abstract class RandomNumber1D {
         return retVal;
     }
 
+    /**
+     * @see RandomNumber#setGenerator(RandomGenerator)
+     */
+    public void setGenerator(final RandomGenerator generator) {
+        myRandom.setGenerator(generator);
+    }
+
     protected final Random1D random() {
         return myRandom;
     }
@@ -47,8 +47,8 @@ public final class SampleSet implements Access1D<Double> {
     }
 
     private transient double myMean = Double.NaN;
-    private transient double myMedian = Double.NaN;
     private final Access1D<?> mySamples;
+    private transient double[] mySorted = null;
     private transient double myVariance = Double.NaN;
 
     @SuppressWarnings("unused")
@@ -148,6 +148,10 @@ public final class SampleSet implements Access1D<Double> {
      */
     public double getMaximum() {
 
+        if (mySorted != null) {
+            return mySorted[mySorted.length - 1];
+        }
+
         double retVal = PrimitiveMath.NEGATIVE_INFINITY;
 
         for (int i = 0; i < mySamples.count(); i++) {
@@ -174,17 +178,7 @@ public final class SampleSet implements Access1D<Double> {
     }
 
     public double getMedian() {
-
-        if (Double.isNaN(myMedian)) {
-
-            final double[] tmpCopy = ArrayUtils.toRawCopyOf(mySamples);
-
-            Arrays.sort(tmpCopy);
-
-            myMedian = tmpCopy[(int) (mySamples.count() / 2)];
-        }
-
-        return myMedian;
+        return this.getQuantile(PrimitiveMath.HALF);
     }
 
     /**
@@ -192,6 +186,10 @@ public final class SampleSet implements Access1D<Double> {
      */
     public double getMinimum() {
 
+        if (mySorted != null) {
+            return mySorted[0];
+        }
+
         double retVal = PrimitiveMath.POSITIVE_INFINITY;
 
         for (int i = 0; i < mySamples.count(); i++) {
@@ -201,6 +199,26 @@ public final class SampleSet implements Access1D<Double> {
         return retVal;
     }
 
+    /**
+     * The samples are copied and sorted once (the sorted copy is cached until {@link #reset()}), after that any
+     * quantile is just a lookup. For very large, or streamed, samples use {@link OnlineStatistics} (with quantiles)
+     * instead.
+     *
+     * @param probability [0,1]
+     * @return The sample at index probability * count (the same definition as {@link #getMedian()})
+     */
+    public double getQuantile(final double probability) {
+
+        if (mySorted == null) {
+            mySorted = ArrayUtils.toRawCopyOf(mySamples);
+            Arrays.sort(mySorted);
+        }
+
+        final int tmpIndex = (int) (probability * mySorted.length);
+
+        return mySorted[Math.max(0, Math.min(tmpIndex, mySorted.length - 1))];
+    }
+
     /**
      * min(abs(value))
      */
@@ -261,7 +279,7 @@ public final class SampleSet implements Access1D<Double> {
 
     public void reset() {
         myMean = Double.NaN;
-        myMedian = Double.NaN;
+        mySorted = null;
         myVariance = Double.NaN;
     }
 
@@ -0,0 +1,325 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobol sequence, generated in Gray code order with 32 bit precision. The primitive polynomials (one per dimension)
+ * are enumerated as needed, and the initial direction numbers are odd pseudo-random numbers from a fixed seed (any odd
+ * numbers are valid). The direction numbers are calculated once and shared by all instances.
+ * <p>
+ * The scrambled variant applies a random linear matrix scrambling (Matou&scaron;ek) and a random digital shift to
+ * each dimension - it's still a low discrepancy sequence, but randomised so that independent replications can be used
+ * to estimate the error.
+ * </p>
+ *
+ * @author apete
+ */
+public final class Sobol extends LowDiscrepancySequence {
+
+    private static int DEGREE = 1;
+    private static final List<int[]> DIRECTIONS = new ArrayList<int[]>();
+    private static long[] FACTORS = new long[] { 1L };
+    private static final RandomGenerator INITIAL = new SplitMix64(0x50B01L);
+    private static final int MAX_DEGREE = 31;
+    private static long POLYNOMIAL = 3L; // x + 1
+    private static final double SCALE = 0x1.0p-32;
+
+    private static int[] makeDirections(final int degree, final int polynomial) {
+
+        final int[] tmpM = new int[32];
+
+        for (int i = 0; i < degree; i++) {
+            tmpM[i] = ((INITIAL.nextInt() & ((1 << i) - 1)) << 1) | 1; // odd, < 2^(i+1)
+        }
+
+        for (int i = degree; i < 32; i++) {
+            int tmpVal = tmpM[i - degree] ^ (tmpM[i - degree] << degree);
+            for (int j = 1; j < degree; j++) {
+                if (((polynomial >>> (degree - j)) & 1) != 0) {
+                    tmpVal ^= tmpM[i - j] << j;
+                }
+            }
+            tmpM[i] = tmpVal;
+        }
+
+        final int[] retVal = new int[32];
+        for (int k = 0; k < 32; k++) {
+            retVal[k] = tmpM[k] << (31 - k);
+        }
+        return retVal;
+    }
+
+    private static long multiply(final long a, final long b, final long modulus, final int degree) {
+        long retVal = 0L;
+        long tmpA = a;
+        long tmpB = b;
+        while (tmpB != 0L) {
+            if ((tmpB & 1L) != 0L) {
+                retVal ^= tmpA;
+            }
+            tmpB >>>= 1;
+            tmpA <<= 1;
+            if (((tmpA >>> degree) & 1L) != 0L) {
+                tmpA ^= modulus;
+            }
+        }
+        return retVal;
+    }
+
+    private static long power(final long exponent, final long modulus, final int degree) {
+        long retVal = 1L;
+        long tmpBase = 2L; // x
+        if (degree == 1) {
+            tmpBase ^= modulus;
+        }
+        long tmpExp = exponent;
+        while (tmpExp != 0L) {
+            if ((tmpExp & 1L) != 0L) {
+                retVal = Sobol.multiply(retVal, tmpBase, modulus, degree);
+            }
+            tmpBase = Sobol.multiply(tmpBase, tmpBase, modulus, degree);
+            tmpExp >>>= 1;
+        }
+        return retVal;
+    }
+
+    /**
+     * Is the polynomial (over GF(2), coefficients as bits) primitive - is the order of x modulo the polynomial
+     * 2<sup>degree</sup>-1?
+     *
+     * @param factors The distinct prime factors of 2<sup>degree</sup>-1
+     */
+    static boolean isPrimitive(final long polynomial, final int degree, final long[] factors) {
+
+        final long tmpOrder = (1L << degree) - 1L;
+
+        if (Sobol.power(tmpOrder, polynomial, degree) != 1L) {
+            return false;
+        }
+
+        for (int f = 0; f < factors.length; f++) {
+            if ((factors[f] < tmpOrder) && (Sobol.power(tmpOrder / factors[f], polynomial, degree) == 1L)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static long[] primeFactors(final long value) {
+
+        final List<Long> retVal = new ArrayList<Long>();
+
+        long tmpRemaining = value;
+        for (long f = 2L; (f * f) <= tmpRemaining; f++) {
+            if ((tmpRemaining % f) == 0L) {
+                retVal.add(f);
+                while ((tmpRemaining % f) == 0L) {
+                    tmpRemaining /= f;
+                }
+            }
+        }
+        if (tmpRemaining > 1L) {
+            retVal.add(tmpRemaining);
+        }
+
+        final long[] tmpArray = new long[retVal.size()];
+        for (int i = 0; i < tmpArray.length; i++) {
+            tmpArray[i] = retVal.get(i);
+        }
+        return tmpArray;
+    }
+
+    /**
+     * Makes sure the (unscrambled) direction numbers for the first dimension dimensions exist. Enumerating primitive
+     * polynomials gets slow when the degree grows - several tens of thousands of dimensions take seconds.
+     */
+    static synchronized List<int[]> getDirections(final int dimension) {
+
+        if (DIRECTIONS.size() == 0) {
+            final int[] tmpFirst = new int[32];
+            for (int k = 0; k < 32; k++) {
+                tmpFirst[k] = 1 << (31 - k);
+            }
+            DIRECTIONS.add(tmpFirst);
+        }
+
+        while (DIRECTIONS.size() < dimension) {
+
+            if (POLYNOMIAL >= (1L << (DEGREE + 1))) {
+                DEGREE++;
+                if (DEGREE > MAX_DEGREE) {
+                    throw new IllegalArgumentException("Too many dimensions!");
+                }
+                POLYNOMIAL = (1L << DEGREE) | 1L;
+                FACTORS = Sobol.primeFactors((1L << DEGREE) - 1L);
+            }
+
+            if (Sobol.isPrimitive(POLYNOMIAL, DEGREE, FACTORS)) {
+                DIRECTIONS.add(Sobol.makeDirections(DEGREE, (int) POLYNOMIAL));
+            }
+
+            POLYNOMIAL += 2L;
+        }
+
+        return DIRECTIONS;
+    }
+
+    private final int[][] myDirections;
+    private final long myFirst;
+    private long myIndex;
+    private final int[] myShift;
+    private final int[] myState;
+
+    /**
+     * Unscrambled - starts at point 1 (point 0 is the origin).
+     */
+    public Sobol(final int dimension) {
+
+        super(dimension);
+
+        myDirections = new int[dimension][];
+        final List<int[]> tmpDirections = Sobol.getDirections(dimension);
+        for (int d = 0; d < dimension; d++) {
+            myDirections[d] = tmpDirections.get(d);
+        }
+
+        myShift = new int[dimension];
+        myState = new int[dimension];
+
+        myFirst = 1L;
+        this.reset();
+    }
+
+    /**
+     * Scrambled (random linear matrix scrambling plus random digital shift) - starts at point 0.
+     */
+    public Sobol(final int dimension, final long seed) {
+
+        super(dimension);
+
+        final RandomGenerator tmpRandom = new SplitMix64(seed);
+
+        myDirections = new int[dimension][];
+        myShift = new int[dimension];
+
+        final List<int[]> tmpDirections = Sobol.getDirections(dimension);
+        for (int d = 0; d < dimension; d++) {
+
+            final int[] tmpMasks = new int[32];
+            for (int i = 0; i < 32; i++) {
+                tmpMasks[i] = (i == 0 ? 0 : (tmpRandom.nextInt() & (-1 << (32 - i)))) | (1 << (31 - i));
+            }
+
+            final int[] tmpOriginal = tmpDirections.get(d);
+            final int[] tmpScrambled = new int[32];
+            for (int k = 0; k < 32; k++) {
+                int tmpVal = 0;
+                for (int i = 0; i < 32; i++) {
+                    if ((Integer.bitCount(tmpMasks[i] & tmpOriginal[k]) & 1) != 0) {
+                        tmpVal |= 1 << (31 - i);
+                    }
+                }
+                tmpScrambled[k] = tmpVal;
+            }
+            myDirections[d] = tmpScrambled;
+
+            myShift[d] = tmpRandom.nextInt();
+        }
+
+        myState = new int[dimension];
+
+        myFirst = 0L;
+        this.reset();
+    }
+
+    private Sobol(final Sobol original) {
+
+        super(original.dimension());
+
+        myDirections = original.myDirections;
+        myShift = original.myShift;
+        myState = original.myState.clone();
+        myFirst = original.myFirst;
+        myIndex = original.myIndex;
+    }
+
+    @Override
+    public Sobol copy() {
+        return new Sobol(this);
+    }
+
+    @Override
+    public long getIndex() {
+        return myIndex;
+    }
+
+    @Override
+    public void next(final double[] destination) {
+
+        for (int d = 0; d < destination.length; d++) {
+            destination[d] = ((myState[d] & 0xFFFFFFFFL) + 0.5) * SCALE;
+        }
+
+        final int tmpBit = Long.numberOfTrailingZeros(~myIndex);
+        for (int d = 0; d < myState.length; d++) {
+            myState[d] ^= myDirections[d][tmpBit];
+        }
+
+        myIndex++;
+    }
+
+    @Override
+    public void reset() {
+        this.skipTo(myFirst);
+    }
+
+    @Override
+    public void skipTo(final long index) {
+
+        final long tmpGray = index ^ (index >>> 1);
+
+        for (int d = 0; d < myState.length; d++) {
+            int tmpVal = myShift[d];
+            for (int k = 0; k < 32; k++) {
+                if (((tmpGray >>> k) & 1L) != 0L) {
+                    tmpVal ^= myDirections[d][k];
+                }
+            }
+            myState[d] = tmpVal;
+        }
+
+        myIndex = index;
+    }
+
+    /**
+     * Limited by the 32 bit direction numbers.
+     */
+    @Override
+    long countPoints() {
+        return (1L << 32) - 1L;
+    }
+
+}
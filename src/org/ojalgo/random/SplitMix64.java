@@ -0,0 +1,93 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+/**
+ * SplitMix64 - the algorithm behind {@link java.util.SplittableRandom}, and with stream 0 it produces exactly the
+ * same sequence as a {@link java.util.SplittableRandom} created with the same seed. Jumping ahead is a constant time
+ * operation, and stream n starts n&middot;2<sup>40</sup> steps ahead of stream 0. That allows 2<sup>24</sup>
+ * non-overlapping streams of 2<sup>40</sup> numbers each (for each seed).
+ *
+ * @author apete
+ */
+public final class SplitMix64 extends RandomGenerator {
+
+    private static final long serialVersionUID = -2262387364213562960L;
+
+    private static long mixGamma(final long value) {
+        long retVal = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        retVal = (retVal ^ (retVal >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        retVal = (retVal ^ (retVal >>> 33)) | 1L;
+        return Long.bitCount(retVal ^ (retVal >>> 1)) < 24 ? retVal ^ 0xaaaaaaaaaaaaaaaaL : retVal;
+    }
+
+    private long myGamma;
+    private long myState;
+    private long myStream;
+
+    public SplitMix64(final long seed) {
+        this(seed, 0L);
+    }
+
+    public SplitMix64(final long seed, final long stream) {
+
+        super();
+
+        myGamma = GOLDEN_GAMMA;
+        myStream = stream;
+
+        this.setSeed(seed);
+    }
+
+    private SplitMix64(final long state, final long gamma, final long stream) {
+
+        super();
+
+        myGamma = gamma;
+        myStream = stream;
+
+        myState = state;
+    }
+
+    /**
+     * Advance the sequence the specified number of steps (in constant time).
+     */
+    public void jump(final long steps) {
+        myState += steps * myGamma;
+    }
+
+    @Override
+    public long nextLong() {
+        return RandomGenerator.mix64(myState += myGamma);
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+        myState = seed + ((myStream << 40) * myGamma);
+    }
+
+    @Override
+    public SplitMix64 split() {
+        return new SplitMix64(this.nextLong(), SplitMix64.mixGamma(myState += myGamma), 0L);
+    }
+
+}
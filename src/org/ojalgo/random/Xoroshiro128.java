@@ -0,0 +1,121 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+/**
+ * xoroshiro128++ (Blackman &amp; Vigna) - a small and very fast generator with a period of 2<sup>128</sup>-1. The
+ * state is initialised from the seed and stream id using {@link SplitMix64} (the stream id selects the SplitMix64
+ * stream), which puts different streams at unrelated points in the period. To get streams that are guaranteed not to
+ * overlap use {@link #jump()}.
+ *
+ * @author apete
+ */
+public final class Xoroshiro128 extends RandomGenerator {
+
+    private static final long[] JUMP = new long[] { 0x2bd7a6a6e99c2ddcL, 0x0992ccaf6a6fca05L };
+    private static final long serialVersionUID = 6375893612309472390L;
+
+    private long myS0;
+    private long myS1;
+    private final long myStream;
+
+    public Xoroshiro128(final long seed) {
+        this(seed, 0L);
+    }
+
+    public Xoroshiro128(final long seed, final long stream) {
+
+        super();
+
+        myStream = stream;
+
+        this.setSeed(seed);
+    }
+
+    private Xoroshiro128(final long s0, final long s1, final long stream) {
+
+        super();
+
+        myStream = stream;
+
+        myS0 = s0;
+        myS1 = s1;
+        if ((myS0 | myS1) == 0L) {
+            myS1 = GOLDEN_GAMMA;
+        }
+    }
+
+    /**
+     * Advance the sequence 2<sup>64</sup> steps.
+     */
+    public void jump() {
+
+        long tmpS0 = 0L;
+        long tmpS1 = 0L;
+
+        for (int j = 0; j < JUMP.length; j++) {
+            for (int b = 0; b < 64; b++) {
+                if ((JUMP[j] & (1L << b)) != 0L) {
+                    tmpS0 ^= myS0;
+                    tmpS1 ^= myS1;
+                }
+                this.nextLong();
+            }
+        }
+
+        myS0 = tmpS0;
+        myS1 = tmpS1;
+    }
+
+    @Override
+    public long nextLong() {
+
+        final long tmpS0 = myS0;
+        long tmpS1 = myS1;
+
+        final long retVal = Long.rotateLeft(tmpS0 + tmpS1, 17) + tmpS0;
+
+        tmpS1 ^= tmpS0;
+        myS0 = Long.rotateLeft(tmpS0, 49) ^ tmpS1 ^ (tmpS1 << 21);
+        myS1 = Long.rotateLeft(tmpS1, 28);
+
+        return retVal;
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+
+        final SplitMix64 tmpSeeder = new SplitMix64(seed, myStream);
+
+        myS0 = tmpSeeder.nextLong();
+        myS1 = tmpSeeder.nextLong();
+        if ((myS0 | myS1) == 0L) {
+            myS1 = GOLDEN_GAMMA;
+        }
+    }
+
+    @Override
+    public Xoroshiro128 split() {
+        return new Xoroshiro128(RandomGenerator.mix64(this.nextLong()), RandomGenerator.mix64(this.nextLong()), 0L);
+    }
+
+}
@@ -31,6 +31,7 @@ import java.util.TreeSet;
 import org.ojalgo.array.Array2D;
 import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.Distribution;
+import org.ojalgo.random.LowDiscrepancySequence;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
 
 abstract class AbstractProcess<D extends Distribution> implements RandomProcess<D> {
@@ -122,6 +123,43 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
         return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
     }
 
+    /**
+     * Quasi-Monte Carlo simulation. Each realisation uses one point of the sequence, transformed to normal numbers,
+     * and the path is constructed using a {@link BrownianBridge}.
+     *
+     * @param sequence Must have (at least) numberOfSteps dimensions
+     * @see #simulate(int, int, double)
+     */
+    public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final LowDiscrepancySequence sequence) {
+
+        if (sequence.dimension() < numberOfSteps) {
+            throw new IllegalArgumentException("The sequence needs (at least) as many dimensions as there are steps!");
+        }
+
+        final List<ComparableToDouble<Double>> tmpInitialState = new ArrayList<ComparableToDouble<Double>>(myObservations);
+        final double tmpInitialValue = this.getValue();
+
+        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE.makeZero(numberOfRealisations, numberOfSteps);
+
+        final BrownianBridge tmpBridge = new BrownianBridge(numberOfSteps);
+        final double[] tmpNormals = new double[numberOfSteps];
+        final double[] tmpIncrements = new double[numberOfSteps];
+
+        for (int r = 0; r < numberOfRealisations; r++) {
+            sequence.nextGaussian(tmpNormals);
+            tmpBridge.increments(tmpNormals, tmpIncrements);
+            double tmpCurrentValue = tmpInitialValue;
+            for (int s = 0; s < numberOfSteps; s++) {
+                tmpCurrentValue = this.step(tmpCurrentValue, stepSize, tmpIncrements[s]);
+                tmpRealisationValues.set(r, s, tmpCurrentValue);
+            }
+            this.setObservations(tmpInitialState);
+        }
+
+        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+    }
+
     protected abstract double getNormalisedRandomIncrement();
 
     protected final void setObservations(final Collection<? extends ComparableToDouble<Double>> c) {
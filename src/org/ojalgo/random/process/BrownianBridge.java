@@ -0,0 +1,176 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+/**
+ * Brownian bridge construction of a Wiener process path. The first normal draw determines the terminal value, the
+ * second the value half-way, then the quarter points... and each point is sampled conditionally on its (already
+ * determined) neighbours. The resulting path has exactly the same distribution as when it's built step by step, but
+ * most of its variance is determined by the first few draws. Combined with a {@link org.ojalgo.random.Sobol} (or any
+ * other low discrepancy) sequence that means the most evenly distributed coordinates are used where they matter the
+ * most, which lowers the effective dimension of the simulation.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author apete
+ */
+public final class BrownianBridge {
+
+    private static double[] times(final int numberOfSteps) {
+        final double[] retVal = new double[numberOfSteps];
+        for (int i = 0; i < numberOfSteps; i++) {
+            retVal[i] = i + 1;
+        }
+        return retVal;
+    }
+
+    private final int[] myLeft;
+    private final double[] myLeftWeights;
+    private final int[] myPoint;
+    private final int[] myRight;
+    private final double[] myRightWeights;
+    private final double[] myScales;
+    private final double[] myStandardDeviations;
+
+    /**
+     * @param times The (strictly increasing, positive) times of the path points. The path starts at time 0.
+     */
+    public BrownianBridge(final double[] times) {
+
+        super();
+
+        final int tmpSize = times.length;
+
+        myPoint = new int[tmpSize];
+        myLeft = new int[tmpSize];
+        myRight = new int[tmpSize];
+        myLeftWeights = new double[tmpSize];
+        myRightWeights = new double[tmpSize];
+        myStandardDeviations = new double[tmpSize];
+        myScales = new double[tmpSize];
+
+        // Point indices 1..size, with 0 being the (fixed) start at time 0
+        final double[] tmpTimes = new double[tmpSize + 1];
+        System.arraycopy(times, 0, tmpTimes, 1, tmpSize);
+        for (int i = 0; i < tmpSize; i++) {
+            myScales[i] = 1.0 / Math.sqrt(tmpTimes[i + 1] - tmpTimes[i]);
+        }
+
+        myPoint[0] = tmpSize;
+        myLeft[0] = 0;
+        myRight[0] = 0;
+        myLeftWeights[0] = 0.0;
+        myRightWeights[0] = 0.0;
+        myStandardDeviations[0] = Math.sqrt(tmpTimes[tmpSize]);
+
+        // Breadth first - the coarse points before the fine ones
+        final int[] tmpQueueLeft = new int[2 * tmpSize];
+        final int[] tmpQueueRight = new int[2 * tmpSize];
+        int tmpHead = 0;
+        int tmpTail = 0;
+        tmpQueueLeft[tmpTail] = 0;
+        tmpQueueRight[tmpTail] = tmpSize;
+        tmpTail++;
+
+        int k = 1;
+        while (tmpHead < tmpTail) {
+
+            final int tmpL = tmpQueueLeft[tmpHead];
+            final int tmpR = tmpQueueRight[tmpHead];
+            tmpHead++;
+
+            if ((tmpR - tmpL) > 1) {
+
+                final int tmpM = (tmpL + tmpR) / 2;
+
+                final double tmpLeftSpan = tmpTimes[tmpM] - tmpTimes[tmpL];
+                final double tmpRightSpan = tmpTimes[tmpR] - tmpTimes[tmpM];
+                final double tmpSpan = tmpTimes[tmpR] - tmpTimes[tmpL];
+
+                myPoint[k] = tmpM;
+                myLeft[k] = tmpL;
+                myRight[k] = tmpR;
+                myLeftWeights[k] = tmpRightSpan / tmpSpan;
+                myRightWeights[k] = tmpLeftSpan / tmpSpan;
+                myStandardDeviations[k] = Math.sqrt((tmpLeftSpan * tmpRightSpan) / tmpSpan);
+                k++;
+
+                tmpQueueLeft[tmpTail] = tmpL;
+                tmpQueueRight[tmpTail] = tmpM;
+                tmpTail++;
+                tmpQueueLeft[tmpTail] = tmpM;
+                tmpQueueRight[tmpTail] = tmpR;
+                tmpTail++;
+            }
+        }
+    }
+
+    /**
+     * Equally spaced points, at times 1, 2, 3...
+     */
+    public BrownianBridge(final int numberOfSteps) {
+        this(BrownianBridge.times(numberOfSteps));
+    }
+
+    /**
+     * @param normals Independent standard normal draws, the most important first - at least {@link #size()} of them
+     * @param path The Wiener process values at the specified times (excluding the start, time 0)
+     */
+    public void path(final double[] normals, final double[] path) {
+
+        final int tmpSize = myPoint.length;
+
+        // Point index p is stored at path[p - 1], point 0 (time 0) is always 0.0
+        path[tmpSize - 1] = myStandardDeviations[0] * normals[0];
+
+        for (int k = 1; k < tmpSize; k++) {
+            final int tmpLeft = myLeft[k];
+            final double tmpLeftValue = tmpLeft == 0 ? 0.0 : path[tmpLeft - 1];
+            final double tmpRightValue = path[myRight[k] - 1];
+            path[myPoint[k] - 1] = (myLeftWeights[k] * tmpLeftValue) + (myRightWeights[k] * tmpRightValue) + (myStandardDeviations[k] * normals[k]);
+        }
+    }
+
+    /**
+     * Same path as {@link #path(double[], double[])}, but returned as normalised increments - the increment of each
+     * step divided by the square root of its length. They are independent standard normal numbers, and can be fed
+     * to the step methods of the processes one at the time.
+     *
+     * @param normals Independent standard normal draws, the most important first
+     * @param increments The normalised increments (must not be the same array as normals)
+     */
+    public void increments(final double[] normals, final double[] increments) {
+
+        this.path(normals, increments);
+
+        for (int i = myPoint.length - 1; i > 0; i--) {
+            increments[i] = (increments[i] - increments[i - 1]) * myScales[i];
+        }
+        increments[0] *= myScales[0];
+    }
+
+    public int size() {
+        return myPoint.length;
+    }
+
+}
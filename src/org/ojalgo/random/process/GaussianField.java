@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.TreeSet;
 
 import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.decomposition.Cholesky;
 import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.decomposition.MatrixDecomposition;
 import org.ojalgo.matrix.decomposition.SingularValue;
@@ -37,6 +38,7 @@ import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PhysicalStore.Factory;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Normal;
 import org.ojalgo.random.Normal1D;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
 
@@ -49,6 +51,11 @@ import org.ojalgo.type.keyvalue.ComparableToDouble;
  * generalization, as well as the underlying implementation, of {@linkplain GaussianProcess}. Prior to calling
  * {@linkplain #getDistribution(boolean, double)} you must call {@linkplain #addObservation(double, double)} one or more
  * times.
+ * <p>
+ * The factorisation of the observations' covariance matrix is cached, and reused by all queries until the
+ * observations (or the calibration) change. When a single observation is added or removed the (Cholesky) factor is
+ * updated in O(n<sup>2</sup>) rather than recalculated. Not thread safe.
+ * </p>
  *
  * @author apete
  */
@@ -85,11 +92,92 @@ public final class GaussianField<K extends Comparable<K>> {
         };
     }
 
+    /**
+     * Solves L<sup>T</sup>x = b in place, L given as its (lower triangular) rows.
+     */
+    private static void backward(final List<double[]> factor, final double[] rhs, final int offset) {
+        for (int i = factor.size() - 1; i >= 0; i--) {
+            final double[] tmpRow = factor.get(i);
+            final double tmpValue = rhs[offset + i] /= tmpRow[i];
+            for (int k = 0; k < i; k++) {
+                rhs[offset + k] -= tmpRow[k] * tmpValue;
+            }
+        }
+    }
+
+    /**
+     * Solves Lx = b in place, L given as its (lower triangular) rows.
+     */
+    private static void forward(final List<double[]> factor, final double[] rhs, final int offset) {
+        for (int i = 0; i < factor.size(); i++) {
+            final double[] tmpRow = factor.get(i);
+            double tmpValue = rhs[offset + i];
+            for (int k = 0; k < i; k++) {
+                tmpValue -= tmpRow[k] * rhs[offset + k];
+            }
+            rhs[offset + i] = tmpValue / tmpRow[i];
+        }
+    }
+
+    /**
+     * Rank one update (sign +1) or downdate (sign -1) of the trailing block, starting at row/column first, of a
+     * Cholesky factor; LL<sup>T</sup> + sign * xx<sup>T</sup>. The vector x is destroyed.
+     *
+     * @return false if a downdate would make the matrix indefinite
+     */
+    private static boolean modify(final List<double[]> factor, final int first, final double[] vector, final double sign) {
+
+        final int tmpSize = factor.size();
+
+        for (int k = first; k < tmpSize; k++) {
+
+            final double[] tmpRowK = factor.get(k);
+            final double tmpDiagonal = tmpRowK[k];
+            final double tmpX = vector[k - first];
+
+            final double tmpSquared = (tmpDiagonal * tmpDiagonal) + (sign * tmpX * tmpX);
+            if (!(tmpSquared > ZERO)) {
+                return false;
+            }
+
+            final double tmpNew = Math.sqrt(tmpSquared);
+            final double tmpCos = tmpNew / tmpDiagonal;
+            final double tmpSin = tmpX / tmpDiagonal;
+            tmpRowK[k] = tmpNew;
+
+            for (int i = k + 1; i < tmpSize; i++) {
+                final double[] tmpRowI = factor.get(i);
+                tmpRowI[k] = (tmpRowI[k] + (sign * tmpSin * vector[i - first])) / tmpCos;
+                vector[i - first] = (tmpCos * vector[i - first]) - (tmpSin * tmpRowI[k]);
+            }
+        }
+
+        return true;
+    }
+
     private final Covariance<K> myCovarianceFunction;
     private final Mean<K> myMeanFunction;
 
     private final TreeSet<ComparableToDouble<K>> myObservations;
 
+    /**
+     * Rows of the lower triangular Cholesky factor of C22, or null if not (yet) calculated or C22 is not positive
+     * definite.
+     */
+    private transient List<double[]> myCholesky = null;
+    /**
+     * The observations, in order, that the cached factorisation and weights are for
+     */
+    private transient List<ComparableToDouble<K>> myFactorised = null;
+    /**
+     * Used when C22 is not positive definite
+     */
+    private transient MatrixDecomposition<Double> myFallback = null;
+    /**
+     * C22<sup>-1</sup> times the differences between the observed values and the mean function
+     */
+    private transient double[] myWeights = null;
+
     @SuppressWarnings("unchecked")
     public GaussianField(final Covariance<K> covarFunc) {
         this((Mean<K>) GaussianField.mean(), covarFunc, new TreeSet<ComparableToDouble<K>>());
@@ -125,9 +213,11 @@ public final class GaussianField<K extends Comparable<K>> {
     public void calibrate() {
         myMeanFunction.calibrate(myObservations);
         myCovarianceFunction.calibrate(myObservations, myMeanFunction);
+        this.reset();
     }
 
-    public Normal1D getDistribution(final boolean cleanCovariances, final K... evaluationPoint) {
+    @SafeVarargs
+    public final Normal1D getDistribution(final boolean cleanCovariances, final K... evaluationPoint) {
 
         final MatrixStore<Double> tmpRegCoef = this.getRegressionCoefficients(evaluationPoint);
 
@@ -167,10 +257,71 @@ public final class GaussianField<K extends Comparable<K>> {
         return new Normal1D(tmpLocations, tmpCovariances);
     }
 
-    public Normal1D getDistribution(final K... evaluationPoint) {
+    @SafeVarargs
+    public final Normal1D getDistribution(final K... evaluationPoint) {
         return this.getDistribution(false, evaluationPoint);
     }
 
+    /**
+     * The marginal distribution at each of the evaluation points, ignoring the covariances between them. Much
+     * cheaper than {@link #getDistribution(boolean, Comparable...)} when there are many evaluation points - the
+     * expected values are O(n) and the variances O(n<sup>2</sup>) per point (n is the number of observations), using
+     * the cached factorisation, and no (evaluation points x evaluation points) matrix is formed.
+     */
+    @SafeVarargs
+    public final Normal[] getMarginalDistributions(final K... evaluationPoints) {
+
+        this.update();
+
+        final List<ComparableToDouble<K>> tmpObservations = myFactorised;
+        final int tmpSize = tmpObservations.size();
+
+        final Normal[] retVal = new Normal[evaluationPoints.length];
+
+        final double[] tmpCovariances = new double[tmpSize];
+        final PrimitiveDenseStore tmpColumn = myCholesky == null ? FACTORY.makeZero(tmpSize, 1) : null;
+
+        for (int j = 0; j < evaluationPoints.length; j++) {
+
+            final K tmpPoint = evaluationPoints[j];
+
+            double tmpExpected = myMeanFunction.invoke(tmpPoint);
+            for (int i = 0; i < tmpSize; i++) {
+                tmpCovariances[i] = myCovarianceFunction.invoke(tmpObservations.get(i).key, tmpPoint);
+                tmpExpected += tmpCovariances[i] * myWeights[i];
+            }
+
+            double tmpExplained = ZERO;
+            if (myCholesky != null) {
+                GaussianField.forward(myCholesky, tmpCovariances, 0);
+                for (int i = 0; i < tmpSize; i++) {
+                    tmpExplained += tmpCovariances[i] * tmpCovariances[i];
+                }
+            } else {
+                for (int i = 0; i < tmpSize; i++) {
+                    tmpColumn.set(i, 0, tmpCovariances[i]);
+                }
+                final MatrixStore<Double> tmpSolution = myFallback.solve(tmpColumn);
+                for (int i = 0; i < tmpSize; i++) {
+                    tmpExplained += tmpCovariances[i] * tmpSolution.doubleValue(i, 0);
+                }
+            }
+
+            final double tmpVariance = Math.max(myCovarianceFunction.invoke(tmpPoint, tmpPoint) - tmpExplained, ZERO);
+
+            retVal[j] = new Normal(tmpExpected, Math.sqrt(tmpVariance));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return true if an observation with that key existed (and was removed)
+     */
+    public boolean removeObservation(final K key) {
+        return myObservations.remove(new ComparableToDouble<K>(key, ZERO));
+    }
+
     MatrixStore<Double> getC11(final K[] args) {
 
         final int tmpLength = args.length;
@@ -296,7 +447,239 @@ public final class GaussianField<K extends Comparable<K>> {
     }
 
     MatrixStore<Double> getRegressionCoefficients(final K[] args) {
-        return this.getC22().solve(this.getC21(args)).builder().transpose().build();
+
+        this.update();
+
+        final MatrixStore<Double> tmpC21 = this.getC21(args);
+
+        if (myCholesky != null) {
+
+            final PrimitiveDenseStore tmpSolution = FACTORY.copy(tmpC21);
+
+            final int tmpRowDim = (int) tmpSolution.countRows();
+            for (int j = 0; j < args.length; j++) {
+                GaussianField.forward(myCholesky, tmpSolution.data, j * tmpRowDim);
+                GaussianField.backward(myCholesky, tmpSolution.data, j * tmpRowDim);
+            }
+
+            return tmpSolution.builder().transpose().build();
+
+        } else {
+
+            return myFallback.solve(tmpC21).builder().transpose().build();
+        }
+    }
+
+    /**
+     * Makes sure the cached factorisation and weights match the current observations. Compares the current
+     * observations with those the factorisation was calculated for; a single added or removed observation is handled
+     * with an O(n<sup>2</sup>) update of the Cholesky factor, anything else with a complete refactorisation.
+     */
+    void update() {
+
+        final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
+
+        if ((myFactorised != null) && (myWeights != null) && (myFactorised.size() == tmpObservations.size())) {
+            boolean tmpSame = true;
+            for (int i = 0; tmpSame && (i < tmpObservations.size()); i++) {
+                tmpSame = tmpObservations.get(i) == myFactorised.get(i);
+            }
+            if (tmpSame) {
+                return;
+            }
+        }
+
+        boolean tmpUpdated = false;
+
+        if ((myFactorised != null) && (myCholesky != null)) {
+
+            final int tmpOldSize = myFactorised.size();
+            final int tmpNewSize = tmpObservations.size();
+
+            int tmpFirst = 0;
+            while ((tmpFirst < Math.min(tmpOldSize, tmpNewSize)) && (tmpObservations.get(tmpFirst) == myFactorised.get(tmpFirst))) {
+                tmpFirst++;
+            }
+
+            if (tmpNewSize == (tmpOldSize + 1)) {
+
+                boolean tmpMatch = true;
+                for (int i = tmpFirst; tmpMatch && (i < tmpOldSize); i++) {
+                    tmpMatch = tmpObservations.get(i + 1) == myFactorised.get(i);
+                }
+                tmpUpdated = tmpMatch && this.insert(tmpFirst, tmpObservations.get(tmpFirst).key);
+
+            } else if (tmpNewSize == (tmpOldSize - 1)) {
+
+                boolean tmpMatch = true;
+                for (int i = tmpFirst; tmpMatch && (i < tmpNewSize); i++) {
+                    tmpMatch = tmpObservations.get(i) == myFactorised.get(i + 1);
+                }
+                tmpUpdated = tmpMatch && this.remove(tmpFirst);
+            }
+        }
+
+        if (!tmpUpdated) {
+            this.factorise(tmpObservations);
+        }
+
+        myFactorised = tmpObservations;
+
+        final int tmpSize = tmpObservations.size();
+        final MatrixStore<Double> tmpDifferences = this.getM2differenses();
+
+        if (myCholesky != null) {
+            myWeights = new double[tmpSize];
+            for (int i = 0; i < tmpSize; i++) {
+                myWeights[i] = tmpDifferences.doubleValue(i, 0);
+            }
+            GaussianField.forward(myCholesky, myWeights, 0);
+            GaussianField.backward(myCholesky, myWeights, 0);
+        } else {
+            final MatrixStore<Double> tmpSolution = myFallback.solve(tmpDifferences);
+            myWeights = new double[tmpSize];
+            for (int i = 0; i < tmpSize; i++) {
+                myWeights[i] = tmpSolution.doubleValue(i, 0);
+            }
+        }
+    }
+
+    private void factorise(final List<ComparableToDouble<K>> observations) {
+
+        final int tmpSize = observations.size();
+
+        final PrimitiveDenseStore tmpMatrix = FACTORY.makeZero(tmpSize, tmpSize);
+        for (int j = 0; j < tmpSize; j++) {
+            final K tmpColumnKey = observations.get(j).key;
+            for (int i = 0; i < tmpSize; i++) {
+                tmpMatrix.set(i, j, myCovarianceFunction.invoke(observations.get(i).key, tmpColumnKey));
+            }
+        }
+
+        final Cholesky<Double> tmpCholesky = Cholesky.makePrimitive();
+        tmpCholesky.compute(tmpMatrix);
+
+        if (tmpCholesky.isSPD()) {
+
+            final MatrixStore<Double> tmpL = tmpCholesky.getL();
+
+            myCholesky = new ArrayList<double[]>(tmpSize);
+            for (int i = 0; i < tmpSize; i++) {
+                final double[] tmpRow = new double[i + 1];
+                for (int k = 0; k <= i; k++) {
+                    tmpRow[k] = tmpL.doubleValue(i, k);
+                }
+                myCholesky.add(tmpRow);
+            }
+            myFallback = null;
+
+        } else {
+
+            final SingularValue<Double> tmpSVD = SingularValue.makePrimitive();
+            tmpSVD.compute(tmpMatrix);
+
+            myCholesky = null;
+            myFallback = tmpSVD;
+        }
+    }
+
+    /**
+     * Inserts a row/column, at index, in the Cholesky factor: the rows above are unchanged, the new row is found by a
+     * forward substitution, and the block below is downdated with the new column.
+     */
+    private boolean insert(final int index, final K key) {
+
+        final int tmpOldSize = myCholesky.size();
+
+        final double[] tmpNewRow = new double[index + 1];
+        for (int k = 0; k < index; k++) {
+            tmpNewRow[k] = myCovarianceFunction.invoke(myFactorised.get(k).key, key);
+        }
+        GaussianField.forward(myCholesky.subList(0, index), tmpNewRow, 0);
+
+        double tmpSquared = myCovarianceFunction.invoke(key, key);
+        for (int k = 0; k < index; k++) {
+            tmpSquared -= tmpNewRow[k] * tmpNewRow[k];
+        }
+        if (!(tmpSquared > ZERO)) {
+            return false;
+        }
+        final double tmpDiagonal = tmpNewRow[index] = Math.sqrt(tmpSquared);
+
+        final List<double[]> tmpFactor = new ArrayList<double[]>(tmpOldSize + 1);
+        final double[] tmpColumn = new double[tmpOldSize - index];
+
+        for (int i = 0; i < index; i++) {
+            tmpFactor.add(myCholesky.get(i));
+        }
+        tmpFactor.add(tmpNewRow);
+
+        for (int i = index; i < tmpOldSize; i++) {
+
+            final double[] tmpOldRow = myCholesky.get(i);
+
+            double tmpValue = myCovarianceFunction.invoke(myFactorised.get(i).key, key);
+            for (int k = 0; k < index; k++) {
+                tmpValue -= tmpOldRow[k] * tmpNewRow[k];
+            }
+            tmpValue /= tmpDiagonal;
+
+            final double[] tmpRow = new double[i + 2];
+            System.arraycopy(tmpOldRow, 0, tmpRow, 0, index);
+            tmpRow[index] = tmpValue;
+            System.arraycopy(tmpOldRow, index, tmpRow, index + 1, (i + 1) - index);
+
+            tmpFactor.add(tmpRow);
+            tmpColumn[i - index] = tmpValue;
+        }
+
+        if (GaussianField.modify(tmpFactor, index + 1, tmpColumn, -ONE)) {
+            myCholesky = tmpFactor;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the row/column at index from the Cholesky factor: the block below is updated with the removed column.
+     */
+    private boolean remove(final int index) {
+
+        final int tmpOldSize = myCholesky.size();
+
+        final List<double[]> tmpFactor = new ArrayList<double[]>(tmpOldSize - 1);
+        final double[] tmpColumn = new double[tmpOldSize - index - 1];
+
+        for (int i = 0; i < index; i++) {
+            tmpFactor.add(myCholesky.get(i));
+        }
+
+        for (int i = index + 1; i < tmpOldSize; i++) {
+
+            final double[] tmpOldRow = myCholesky.get(i);
+
+            final double[] tmpRow = new double[i];
+            System.arraycopy(tmpOldRow, 0, tmpRow, 0, index);
+            System.arraycopy(tmpOldRow, index + 1, tmpRow, index, i - index);
+
+            tmpFactor.add(tmpRow);
+            tmpColumn[i - index - 1] = tmpOldRow[index];
+        }
+
+        if (GaussianField.modify(tmpFactor, index, tmpColumn, ONE)) {
+            myCholesky = tmpFactor;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void reset() {
+        myCholesky = null;
+        myFactorised = null;
+        myFallback = null;
+        myWeights = null;
     }
 
 }
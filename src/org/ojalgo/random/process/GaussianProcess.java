@@ -69,13 +69,7 @@ public final class GaussianProcess extends AbstractProcess<Normal> {
     }
 
     public Normal getDistribution(final double evaluationPoint) {
-
-        final Normal1D tmpVal = this.getDistribution(new Double[] { evaluationPoint });
-
-        final double tmpLocation = tmpVal.getExpected().doubleValue(0);
-        final double tmpScale = tmpVal.getStandardDeviation().doubleValue(0);
-
-        return new Normal(tmpLocation, tmpScale);
+        return myDelegate.getMarginalDistributions(evaluationPoint)[0];
     }
 
     public Normal1D getDistribution(final Double... evaluationPoint) {
@@ -151,14 +151,28 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
     @Override
     protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
 
-        final double tmpDetPart = (myLocalDrift - ((myDiffusionFunction * myDiffusionFunction) / TWO)) * stepSize;
-        final double tmpRandPart = myDiffusionFunction * Math.sqrt(stepSize) * normalisedRandomIncrement;
+        final double tmpDetPart = this.getDeterministicPart(stepSize);
+        final double tmpRandPart = this.getDiffusionPart(stepSize) * normalisedRandomIncrement;
 
         final double retVal = currentValue * Math.exp(tmpDetPart + tmpRandPart);
         this.setValue(retVal);
         return retVal;
     }
 
+    /**
+     * The deterministic part of the log-increment of a step: (&mu; - &sigma;<sup>2</sup>/2) &Delta;t
+     */
+    double getDeterministicPart(final double stepSize) {
+        return (myLocalDrift - ((myDiffusionFunction * myDiffusionFunction) / TWO)) * stepSize;
+    }
+
+    /**
+     * What the normalised random increment is scaled by in the log-increment of a step: &sigma; &radic;&Delta;t
+     */
+    double getDiffusionPart(final double stepSize) {
+        return myDiffusionFunction * Math.sqrt(stepSize);
+    }
+
     /**
      * Expected future value
      */
@@ -27,6 +27,7 @@ import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.PrimitiveArray;
+import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.Random1D;
 import org.ojalgo.random.process.RandomProcess.SimulationResults;
@@ -105,6 +106,14 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
         return myProcesses[index];
     }
 
+    /**
+     * @return The cached correlations root, see {@link Random1D#getCorrelationsRoot()}, or null if the processes are
+     *         uncorrelated.
+     */
+    MatrixStore<Double> getCorrelationsRoot() {
+        return myGenerator.getCorrelationsRoot();
+    }
+
     D getDistribution(final int index, final double aStepSize) {
         return myProcesses[index].getDistribution(aStepSize);
     }
@@ -73,6 +73,10 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
     public static final RationalNumber ZERO = new RationalNumber(BigInteger.ZERO, BigInteger.ONE);
 
     private static final String DIVIDE = " / ";
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long[] POWERS_OF_TEN = new long[] { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L };
     private static final String LEFT = "(";
     private static final String RIGHT = ")";
 
@@ -132,100 +136,187 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
     }
 
     public static boolean isInfinite(final RationalNumber value) {
-        return ((value.getNumerator().signum() != 0) && (value.getDenominator().signum() == 0));
+        return (value.signumOfNumerator() != 0) && (value.signumOfDenominator() == 0);
     }
 
     public static boolean isNaN(final RationalNumber value) {
-        return ((value.getNumerator().signum() == 0) && (value.getDenominator().signum() == 0));
+        return (value.signumOfNumerator() == 0) && (value.signumOfDenominator() == 0);
     }
 
     public static boolean isSmall(final double comparedTo, final RationalNumber value) {
         return value.isSmall(comparedTo);
     }
 
+    /**
+     * Both the numerator and the denominator fit in a long, and the negated values do as well.
+     */
+    private static boolean isCompact(final BigInteger value) {
+        final int tmpBitLength = value.bitLength();
+        return (tmpBitLength < 63) || ((tmpBitLength == 63) && (value.longValue() != Long.MIN_VALUE));
+    }
+
+    private static boolean isExactLong(final double value) {
+        return (Math.abs(value) <= MAX_EXACT_DOUBLE) && (value == Math.rint(value));
+    }
+
+    /**
+     * Multiply 2 (long based) fractions with cross-reduction before multiplying, to delay overflow.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    private static RationalNumber multiply(final long numerator1, final long denominator1, final long numerator2, final long denominator2) {
+
+        if ((numerator1 == 0L) || (numerator2 == 0L)) {
+            return ZERO;
+        }
+
+        final long tmpGCD1 = RationalNumber.gcd(numerator1, denominator2);
+        final long tmpGCD2 = RationalNumber.gcd(numerator2, denominator1);
+
+        return RationalNumber.reduce(Math.multiplyExact(numerator1 / tmpGCD1, numerator2 / tmpGCD2),
+                Math.multiplyExact(denominator1 / tmpGCD2, denominator2 / tmpGCD1));
+    }
+
+    /**
+     * Creates an instance from long numerator and denominator that are not necessarily reduced, and where the
+     * denominator may be negative.
+     *
+     * @throws ArithmeticException if either is {@link Long#MIN_VALUE} (can't be negated)
+     */
+    private static RationalNumber reduce(final long numerator, final long denominator) {
+
+        if ((numerator == Long.MIN_VALUE) || (denominator == Long.MIN_VALUE)) {
+            throw new ArithmeticException();
+        }
+
+        if (numerator == 0L) {
+            return denominator != 0L ? ZERO : NaN;
+        }
+
+        long tmpGCD = RationalNumber.gcd(numerator, denominator);
+
+        if (denominator < 0L) {
+            tmpGCD = -tmpGCD;
+        }
+
+        if ((tmpGCD > 1L) || (tmpGCD < 0L)) {
+            return new RationalNumber(numerator / tmpGCD, denominator / tmpGCD, null, null);
+        } else {
+            return new RationalNumber(numerator, denominator, null, null);
+        }
+    }
+
     private static String toString(final RationalNumber aNmbr) {
 
         final StringBuilder retVal = new StringBuilder(LEFT);
 
-        retVal.append(aNmbr.getNumerator());
-        retVal.append(DIVIDE);
-        retVal.append(aNmbr.getDenominator());
+        if (aNmbr.isCompact()) {
+            retVal.append(aNmbr.myNumerator);
+            retVal.append(DIVIDE);
+            retVal.append(aNmbr.myDenominator);
+        } else {
+            retVal.append(aNmbr.getNumerator());
+            retVal.append(DIVIDE);
+            retVal.append(aNmbr.getDenominator());
+        }
 
         return retVal.append(RIGHT).toString();
     }
 
+    /**
+     * Only set if numerator or denominator does not fit in a long. When set the long fields are not used.
+     */
+    private final BigInteger myBigDenominator;
+    private final BigInteger myBigNumerator;
     private transient BigDecimal myDecimal = null;
-
-    private final BigInteger myDenominator;
-    private final BigInteger myNumerator;
+    private final long myDenominator;
+    private final long myNumerator;
 
     public RationalNumber(final BigDecimal decimal) {
 
         super();
 
         final int tmpScale = decimal.scale();
+        final BigInteger tmpUnscaled = decimal.unscaledValue();
+
+        if ((tmpScale >= 0) && (tmpScale < POWERS_OF_TEN.length) && (tmpUnscaled.bitLength() < 63)) {
 
-        if (tmpScale < 0) {
+            final long tmpNumer = tmpUnscaled.longValue();
+            final long tmpDenom = POWERS_OF_TEN[tmpScale];
 
-            myNumerator = decimal.unscaledValue().multiply(BigInteger.TEN.pow(-tmpScale));
-            myDenominator = BigInteger.ONE;
+            final long tmpGCD = tmpNumer != 0L ? RationalNumber.gcd(tmpNumer, tmpDenom) : tmpDenom;
+
+            myNumerator = tmpNumer / tmpGCD;
+            myDenominator = tmpDenom / tmpGCD;
+            myBigNumerator = null;
+            myBigDenominator = null;
 
         } else {
 
-            final BigInteger tmpNumer = decimal.unscaledValue();
-            final BigInteger tmpDenom = BigInteger.TEN.pow(tmpScale);
+            BigInteger tmpNumer;
+            BigInteger tmpDenom;
 
-            final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
+            if (tmpScale < 0) {
 
-            if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
-                myNumerator = tmpNumer.divide(tmpGCD);
-                myDenominator = tmpDenom.divide(tmpGCD);
+                tmpNumer = tmpUnscaled.multiply(BigInteger.TEN.pow(-tmpScale));
+                tmpDenom = BigInteger.ONE;
+
+            } else {
+
+                tmpNumer = tmpUnscaled;
+                tmpDenom = BigInteger.TEN.pow(tmpScale);
+
+                final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
+
+                if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
+                    tmpNumer = tmpNumer.divide(tmpGCD);
+                    tmpDenom = tmpDenom.divide(tmpGCD);
+                }
+            }
+
+            if (RationalNumber.isCompact(tmpNumer) && RationalNumber.isCompact(tmpDenom)) {
+                myNumerator = tmpNumer.longValue();
+                myDenominator = tmpDenom.longValue();
+                myBigNumerator = null;
+                myBigDenominator = null;
             } else {
-                myNumerator = tmpNumer;
-                myDenominator = tmpDenom;
+                myNumerator = 0L;
+                myDenominator = 0L;
+                myBigNumerator = tmpNumer;
+                myBigDenominator = tmpDenom;
             }
         }
     }
 
     public RationalNumber(final double value) {
-        this(new BigDecimal(value, MathContext.DECIMAL64));
+        this(RationalNumber.isExactLong(value) ? new BigDecimal((long) value) : new BigDecimal(value, MathContext.DECIMAL64));
     }
 
     public RationalNumber(final int numerator, final int denominator) {
-
-        super();
-
-        int tmpGCD = RationalNumber.gcd(numerator, denominator);
-
-        if (denominator < 0) {
-            tmpGCD = -tmpGCD;
-        }
-
-        if (tmpGCD > 1) {
-            myNumerator = BigInteger.valueOf(numerator / tmpGCD);
-            myDenominator = BigInteger.valueOf(denominator / tmpGCD);
-        } else {
-            myNumerator = BigInteger.valueOf(numerator);
-            myDenominator = BigInteger.valueOf(denominator);
-        }
+        this((long) numerator, (long) denominator);
     }
 
     public RationalNumber(final long numerator, final long denominator) {
 
         super();
 
-        long tmpGCD = RationalNumber.gcd(numerator, denominator);
+        if ((numerator == Long.MIN_VALUE) || (denominator == Long.MIN_VALUE)) {
 
-        if (denominator < 0L) {
-            tmpGCD = -tmpGCD;
-        }
+            final RationalNumber tmpBig = new RationalNumber(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator)).reduceBig();
+
+            myNumerator = tmpBig.myNumerator;
+            myDenominator = tmpBig.myDenominator;
+            myBigNumerator = tmpBig.myBigNumerator;
+            myBigDenominator = tmpBig.myBigDenominator;
 
-        if (tmpGCD > 1L) {
-            myNumerator = BigInteger.valueOf(numerator / tmpGCD);
-            myDenominator = BigInteger.valueOf(denominator / tmpGCD);
         } else {
-            myNumerator = BigInteger.valueOf(numerator);
-            myDenominator = BigInteger.valueOf(denominator);
+
+            final RationalNumber tmpReduced = RationalNumber.reduce(numerator, denominator);
+
+            myNumerator = tmpReduced.myNumerator;
+            myDenominator = tmpReduced.myDenominator;
+            myBigNumerator = null;
+            myBigDenominator = null;
         }
     }
 
@@ -233,37 +324,72 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
 
         super();
 
-        myNumerator = BigInteger.ZERO;
-        myDenominator = BigInteger.ONE;
+        myNumerator = 0L;
+        myDenominator = 1L;
+        myBigNumerator = null;
+        myBigDenominator = null;
     }
 
     RationalNumber(final BigInteger numerator, final BigInteger denominator) {
 
         super();
 
-        if (denominator.signum() >= 0) {
-            myNumerator = numerator;
-            myDenominator = denominator;
+        final BigInteger tmpNumer = denominator.signum() >= 0 ? numerator : numerator.negate();
+        final BigInteger tmpDenom = denominator.signum() >= 0 ? denominator : denominator.negate();
+
+        if (RationalNumber.isCompact(tmpNumer) && RationalNumber.isCompact(tmpDenom)) {
+            myNumerator = tmpNumer.longValue();
+            myDenominator = tmpDenom.longValue();
+            myBigNumerator = null;
+            myBigDenominator = null;
         } else {
-            myNumerator = numerator.negate();
-            myDenominator = denominator.negate();
+            myNumerator = 0L;
+            myDenominator = 0L;
+            myBigNumerator = tmpNumer;
+            myBigDenominator = tmpDenom;
         }
     }
 
+    private RationalNumber(final long numerator, final long denominator, final BigInteger bigNumerator, final BigInteger bigDenominator) {
+
+        super();
+
+        myNumerator = numerator;
+        myDenominator = denominator;
+        myBigNumerator = bigNumerator;
+        myBigDenominator = bigDenominator;
+    }
+
     public RationalNumber add(final double arg) {
         return this.add(new RationalNumber(arg));
     }
 
     public RationalNumber add(final RationalNumber arg) {
 
-        if (myDenominator.equals(arg.getDenominator())) {
+        if (this.isFiniteCompact() && arg.isFiniteCompact()) {
+            try {
+                if (myDenominator == arg.myDenominator) {
+                    return RationalNumber.reduce(Math.addExact(myNumerator, arg.myNumerator), myDenominator);
+                } else {
+                    final long tmpGCD = RationalNumber.gcd(myDenominator, arg.myDenominator);
+                    final long tmpNumer = Math.addExact(Math.multiplyExact(myNumerator, arg.myDenominator / tmpGCD),
+                            Math.multiplyExact(arg.myNumerator, myDenominator / tmpGCD));
+                    final long tmpDenom = Math.multiplyExact(myDenominator / tmpGCD, arg.myDenominator);
+                    return RationalNumber.reduce(tmpNumer, tmpDenom);
+                }
+            } catch (final ArithmeticException overflow) {
+                // Fall through to the BigInteger implementation
+            }
+        }
+
+        if (this.getDenominator().equals(arg.getDenominator())) {
 
-            return new RationalNumber(myNumerator.add(arg.getNumerator()), myDenominator);
+            return new RationalNumber(this.getNumerator().add(arg.getNumerator()), this.getDenominator()).reduceBig();
 
         } else {
 
-            final BigInteger tmpNumer = myNumerator.multiply(arg.getDenominator()).add(arg.getNumerator().multiply(myDenominator));
-            final BigInteger tmpDenom = myDenominator.multiply(arg.getDenominator());
+            final BigInteger tmpNumer = this.getNumerator().multiply(arg.getDenominator()).add(arg.getNumerator().multiply(this.getDenominator()));
+            final BigInteger tmpDenom = this.getDenominator().multiply(arg.getDenominator());
 
             final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
 
@@ -276,6 +402,15 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
     }
 
     public int compareTo(final RationalNumber reference) {
+
+        if (this.isFiniteCompact() && reference.isFiniteCompact()) {
+            try {
+                return Long.compare(Math.multiplyExact(myNumerator, reference.myDenominator), Math.multiplyExact(reference.myNumerator, myDenominator));
+            } catch (final ArithmeticException overflow) {
+                // Fall through to the BigDecimal implementation
+            }
+        }
+
         return this.toBigDecimal().compareTo(reference.toBigDecimal());
     }
 
@@ -289,32 +424,34 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
 
     public RationalNumber divide(final RationalNumber arg) {
 
-        if (myNumerator.equals(arg.getNumerator())) {
-
-            return new RationalNumber(arg.getDenominator(), myDenominator);
+        if (this.isFiniteCompact() && arg.isFiniteCompact() && (arg.myNumerator != 0L)) {
+            try {
+                return RationalNumber.multiply(myNumerator, myDenominator, arg.myDenominator, arg.myNumerator);
+            } catch (final ArithmeticException overflow) {
+                // Fall through to the BigInteger implementation
+            }
+        }
 
-        } else if (myDenominator.equals(arg.getDenominator())) {
+        // Always reduce by the gcd - equals and hashCode compare the (canonical) terms
+        final BigInteger tmpNumer = this.getNumerator().multiply(arg.getDenominator());
+        final BigInteger tmpDenom = this.getDenominator().multiply(arg.getNumerator());
 
-            return new RationalNumber(myNumerator, arg.getNumerator());
+        final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
 
+        if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
+            return new RationalNumber(tmpNumer.divide(tmpGCD), tmpDenom.divide(tmpGCD));
         } else {
-
-            final BigInteger tmpNumer = myNumerator.multiply(arg.getDenominator());
-            final BigInteger tmpDenom = myDenominator.multiply(arg.getNumerator());
-
-            final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
-
-            if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
-                return new RationalNumber(tmpNumer.divide(tmpGCD), tmpDenom.divide(tmpGCD));
-            } else {
-                return new RationalNumber(tmpNumer, tmpDenom);
-            }
+            return new RationalNumber(tmpNumer, tmpDenom);
         }
     }
 
     @Override
     public double doubleValue() {
-        return this.toBigDecimal().doubleValue();
+        if (this.isFiniteCompact() && (Math.abs(myNumerator) <= MAX_EXACT_DOUBLE) && (myDenominator <= MAX_EXACT_DOUBLE)) {
+            return (double) myNumerator / (double) myDenominator;
+        } else {
+            return this.toBigDecimal().doubleValue();
+        }
     }
 
     public RationalNumber enforce(final NumberContext context) {
@@ -333,26 +470,18 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
             return false;
         }
         final RationalNumber other = (RationalNumber) obj;
-        if (myDenominator == null) {
-            if (other.myDenominator != null) {
-                return false;
-            }
-        } else if (!myDenominator.equals(other.myDenominator)) {
-            return false;
-        }
-        if (myNumerator == null) {
-            if (other.myNumerator != null) {
-                return false;
-            }
-        } else if (!myNumerator.equals(other.myNumerator)) {
+        if (this.isCompact() && other.isCompact()) {
+            return (myNumerator == other.myNumerator) && (myDenominator == other.myDenominator);
+        } else if (this.isCompact() || other.isCompact()) {
             return false;
+        } else {
+            return myBigNumerator.equals(other.myBigNumerator) && myBigDenominator.equals(other.myBigDenominator);
         }
-        return true;
     }
 
     @Override
     public float floatValue() {
-        return this.toBigDecimal().floatValue();
+        return (float) this.doubleValue();
     }
 
     public RationalNumber getNumber() {
@@ -363,8 +492,13 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = (prime * result) + ((myDenominator == null) ? 0 : myDenominator.hashCode());
-        result = (prime * result) + ((myNumerator == null) ? 0 : myNumerator.hashCode());
+        if (this.isCompact()) {
+            result = (prime * result) + Long.hashCode(myDenominator);
+            result = (prime * result) + Long.hashCode(myNumerator);
+        } else {
+            result = (prime * result) + myBigDenominator.hashCode();
+            result = (prime * result) + myBigNumerator.hashCode();
+        }
         return result;
     }
 
@@ -374,11 +508,19 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
     }
 
     public RationalNumber invert() {
-        return new RationalNumber(myDenominator, myNumerator);
+        if (this.isCompact()) {
+            if (myNumerator < 0L) {
+                return new RationalNumber(-myDenominator, -myNumerator, null, null);
+            } else {
+                return new RationalNumber(myDenominator, myNumerator, null, null);
+            }
+        } else {
+            return new RationalNumber(myBigDenominator, myBigNumerator);
+        }
     }
 
     public boolean isAbsolute() {
-        return (myNumerator.signum() >= 0) && (myDenominator.signum() > 0);
+        return (this.signumOfNumerator() >= 0) && (this.signumOfDenominator() > 0);
     }
 
     public boolean isSmall(final double comparedTo) {
@@ -387,7 +529,11 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
 
     @Override
     public long longValue() {
-        return this.toBigDecimal().longValue();
+        if (this.isFiniteCompact()) {
+            return myNumerator / myDenominator;
+        } else {
+            return this.toBigDecimal().longValue();
+        }
     }
 
     public RationalNumber multiply(final double arg) {
@@ -396,31 +542,33 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
 
     public RationalNumber multiply(final RationalNumber arg) {
 
-        if (myNumerator.equals(arg.getDenominator())) {
-
-            return new RationalNumber(arg.getNumerator(), myDenominator);
+        if (this.isFiniteCompact() && arg.isFiniteCompact()) {
+            try {
+                return RationalNumber.multiply(myNumerator, myDenominator, arg.myNumerator, arg.myDenominator);
+            } catch (final ArithmeticException overflow) {
+                // Fall through to the BigInteger implementation
+            }
+        }
 
-        } else if (myDenominator.equals(arg.getNumerator())) {
+        // Always reduce by the gcd - equals and hashCode compare the (canonical) terms
+        final BigInteger tmpNumer = this.getNumerator().multiply(arg.getNumerator());
+        final BigInteger tmpDenom = this.getDenominator().multiply(arg.getDenominator());
 
-            return new RationalNumber(myNumerator, arg.getDenominator());
+        final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
 
+        if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
+            return new RationalNumber(tmpNumer.divide(tmpGCD), tmpDenom.divide(tmpGCD));
         } else {
-
-            final BigInteger tmpNumer = myNumerator.multiply(arg.getNumerator());
-            final BigInteger tmpDenom = myDenominator.multiply(arg.getDenominator());
-
-            final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
-
-            if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
-                return new RationalNumber(tmpNumer.divide(tmpGCD), tmpDenom.divide(tmpGCD));
-            } else {
-                return new RationalNumber(tmpNumer, tmpDenom);
-            }
+            return new RationalNumber(tmpNumer, tmpDenom);
         }
     }
 
     public RationalNumber negate() {
-        return new RationalNumber(myNumerator.negate(), myDenominator);
+        if (this.isCompact()) {
+            return new RationalNumber(-myNumerator, myDenominator, null, null);
+        } else {
+            return new RationalNumber(myBigNumerator.negate(), myBigDenominator);
+        }
     }
 
     public double norm() {
@@ -443,14 +591,30 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
 
     public RationalNumber subtract(final RationalNumber arg) {
 
-        if (myDenominator.equals(arg.getDenominator())) {
+        if (this.isFiniteCompact() && arg.isFiniteCompact()) {
+            try {
+                if (myDenominator == arg.myDenominator) {
+                    return RationalNumber.reduce(Math.subtractExact(myNumerator, arg.myNumerator), myDenominator);
+                } else {
+                    final long tmpGCD = RationalNumber.gcd(myDenominator, arg.myDenominator);
+                    final long tmpNumer = Math.subtractExact(Math.multiplyExact(myNumerator, arg.myDenominator / tmpGCD),
+                            Math.multiplyExact(arg.myNumerator, myDenominator / tmpGCD));
+                    final long tmpDenom = Math.multiplyExact(myDenominator / tmpGCD, arg.myDenominator);
+                    return RationalNumber.reduce(tmpNumer, tmpDenom);
+                }
+            } catch (final ArithmeticException overflow) {
+                // Fall through to the BigInteger implementation
+            }
+        }
+
+        if (this.getDenominator().equals(arg.getDenominator())) {
 
-            return new RationalNumber(myNumerator.subtract(arg.getNumerator()), myDenominator);
+            return new RationalNumber(this.getNumerator().subtract(arg.getNumerator()), this.getDenominator()).reduceBig();
 
         } else {
 
-            final BigInteger tmpNumer = myNumerator.multiply(arg.getDenominator()).subtract(arg.getNumerator().multiply(myDenominator));
-            final BigInteger tmpDenom = myDenominator.multiply(arg.getDenominator());
+            final BigInteger tmpNumer = this.getNumerator().multiply(arg.getDenominator()).subtract(arg.getNumerator().multiply(this.getDenominator()));
+            final BigInteger tmpDenom = this.getDenominator().multiply(arg.getDenominator());
 
             final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
 
@@ -478,20 +642,56 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         return RationalNumber.toString(this.enforce(context));
     }
 
+    /**
+     * Numerator and denominator are stored as long rather than {@link BigInteger}
+     */
+    private boolean isCompact() {
+        return myBigNumerator == null;
+    }
+
+    /**
+     * Compact, and not NaN or infinite
+     */
+    private boolean isFiniteCompact() {
+        return (myBigNumerator == null) && (myDenominator > 0L);
+    }
+
+    private RationalNumber reduceBig() {
+
+        final BigInteger tmpNumer = this.getNumerator();
+        final BigInteger tmpDenom = this.getDenominator();
+
+        final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
+
+        if (tmpGCD.compareTo(BigInteger.ONE) == 1) {
+            return new RationalNumber(tmpNumer.divide(tmpGCD), tmpDenom.divide(tmpGCD));
+        } else {
+            return this;
+        }
+    }
+
     private int sign() {
-        return myNumerator.signum() * myDenominator.signum();
+        return this.signumOfNumerator() * this.signumOfDenominator();
+    }
+
+    private int signumOfDenominator() {
+        return this.isCompact() ? Long.signum(myDenominator) : myBigDenominator.signum();
+    }
+
+    private int signumOfNumerator() {
+        return this.isCompact() ? Long.signum(myNumerator) : myBigNumerator.signum();
     }
 
     private BigDecimal toBigDecimal(final MathContext context) {
-        return new BigDecimal(myNumerator).divide(new BigDecimal(myDenominator), context);
+        return new BigDecimal(this.getNumerator()).divide(new BigDecimal(this.getDenominator()), context);
     }
 
     BigInteger getDenominator() {
-        return myDenominator;
+        return this.isCompact() ? BigInteger.valueOf(myDenominator) : myBigDenominator;
     }
 
     BigInteger getNumerator() {
-        return myNumerator;
+        return this.isCompact() ? BigInteger.valueOf(myNumerator) : myBigNumerator;
     }
 
 }
@@ -247,6 +247,10 @@ public abstract class TypeUtils {
 
                 retVal = (RationalNumber) number;
 
+            } else if ((number instanceof Long) || (number instanceof Integer) || (number instanceof Short) || (number instanceof Byte)) {
+
+                retVal = new RationalNumber(number.longValue(), 1L);
+
             } else {
 
                 retVal = new RationalNumber(TypeUtils.toBigDecimal(number));
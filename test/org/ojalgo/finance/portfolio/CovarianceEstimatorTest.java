@@ -0,0 +1,230 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.finance.portfolio;
+
+import java.util.Random;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * CovarianceEstimatorTest
+ *
+ * @author apete
+ */
+public class CovarianceEstimatorTest extends FinancePortfolioTests {
+
+    private static final NumberContext CONTEXT = new NumberContext(7, 10);
+
+    private static final int ASSETS = 5;
+    private static final int OBSERVATIONS = 100;
+
+    static double[][] makeReturns() {
+
+        final Random tmpRandom = new Random(123L);
+
+        final double[][] retVal = new double[OBSERVATIONS][ASSETS];
+        for (int t = 0; t < OBSERVATIONS; t++) {
+            final double tmpCommon = tmpRandom.nextGaussian();
+            for (int i = 0; i < ASSETS; i++) {
+                retVal[t][i] = 0.001 * (i + 1) + (0.01 * (tmpCommon + ((i + 1) * 0.5 * tmpRandom.nextGaussian())));
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Weighted sample covariances, the weights normalised and the bias corrected the same way as the estimator does.
+     */
+    private static double[][] makeCovariances(final double[][] returns, final int first, final double[] weights) {
+
+        final int tmpLimit = first + weights.length;
+
+        double tmpWeight = 0.0;
+        double tmpWeight2 = 0.0;
+        final double[] tmpMean = new double[ASSETS];
+        for (int t = first; t < tmpLimit; t++) {
+            final double tmpW = weights[t - first];
+            tmpWeight += tmpW;
+            tmpWeight2 += tmpW * tmpW;
+            for (int i = 0; i < ASSETS; i++) {
+                tmpMean[i] += tmpW * returns[t][i];
+            }
+        }
+        for (int i = 0; i < ASSETS; i++) {
+            tmpMean[i] /= tmpWeight;
+        }
+
+        final double[][] retVal = new double[ASSETS][ASSETS];
+        for (int t = first; t < tmpLimit; t++) {
+            final double tmpW = weights[t - first];
+            for (int i = 0; i < ASSETS; i++) {
+                for (int j = 0; j < ASSETS; j++) {
+                    retVal[i][j] += tmpW * (returns[t][i] - tmpMean[i]) * (returns[t][j] - tmpMean[j]);
+                }
+            }
+        }
+
+        final double tmpDenominator = tmpWeight - (tmpWeight2 / tmpWeight);
+        for (int i = 0; i < ASSETS; i++) {
+            for (int j = 0; j < ASSETS; j++) {
+                retVal[i][j] /= tmpDenominator;
+            }
+        }
+
+        return retVal;
+    }
+
+    public CovarianceEstimatorTest() {
+        super();
+    }
+
+    public CovarianceEstimatorTest(final String aName) {
+        super(aName);
+    }
+
+    public void testExponential() {
+
+        final double tmpDecay = 0.95;
+
+        final double[][] tmpReturns = CovarianceEstimatorTest.makeReturns();
+
+        final CovarianceEstimator tmpEstimator = CovarianceEstimator.makeExponential(ASSETS, tmpDecay, false);
+        for (int t = 0; t < OBSERVATIONS; t++) {
+            tmpEstimator.put(tmpReturns[t]);
+        }
+
+        final double[] tmpWeights = new double[OBSERVATIONS];
+        for (int t = 0; t < OBSERVATIONS; t++) {
+            tmpWeights[t] = Math.pow(tmpDecay, OBSERVATIONS - 1 - t);
+        }
+        final double[][] tmpExpected = CovarianceEstimatorTest.makeCovariances(tmpReturns, 0, tmpWeights);
+
+        TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.rows(tmpExpected), tmpEstimator.getCovariances(), CONTEXT);
+        TestUtils.assertEquals(0.0, tmpEstimator.getShrinkage(), CONTEXT);
+    }
+
+    public void testRolling() {
+
+        final int tmpWindow = 30;
+
+        final double[][] tmpReturns = CovarianceEstimatorTest.makeReturns();
+
+        final double[] tmpWeights = new double[tmpWindow];
+        for (int t = 0; t < tmpWindow; t++) {
+            tmpWeights[t] = 1.0;
+        }
+
+        final CovarianceEstimator tmpEstimator = CovarianceEstimator.makeRolling(ASSETS, tmpWindow, false);
+        for (int t = 0; t < OBSERVATIONS; t++) {
+
+            tmpEstimator.put(tmpReturns[t]);
+
+            if (t + 1 >= tmpWindow) {
+
+                final double[][] tmpExpected = CovarianceEstimatorTest.makeCovariances(tmpReturns, (t + 1) - tmpWindow, tmpWeights);
+                final PrimitiveDenseStore tmpActual = tmpEstimator.getCovariances();
+
+                TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.rows(tmpExpected), tmpActual, CONTEXT);
+
+                final PrimitiveDenseStore tmpCorrelations = tmpEstimator.getCorrelations();
+                for (int i = 0; i < ASSETS; i++) {
+                    TestUtils.assertEquals(1.0, tmpCorrelations.doubleValue(i, i), CONTEXT);
+                    for (int j = 0; j < ASSETS; j++) {
+                        final double tmpExpectedCorrelation = tmpExpected[i][j] / Math.sqrt(tmpExpected[i][i] * tmpExpected[j][j]);
+                        TestUtils.assertEquals(tmpExpectedCorrelation, tmpCorrelations.doubleValue(i, j), CONTEXT);
+                    }
+                }
+            }
+        }
+
+        TestUtils.assertEquals(OBSERVATIONS, tmpEstimator.count());
+
+        final MarketEquilibrium tmpEquilibrium = tmpEstimator.toMarketEquilibrium(new String[] { "A", "B", "C", "D", "E" }, 2.0);
+        TestUtils.assertEquals(tmpEstimator.getCovariances(), tmpEquilibrium.getCovariances(), CONTEXT);
+    }
+
+    public void testShrinkage() {
+
+        final int tmpWindow = 40;
+        final int tmpFirst = OBSERVATIONS - tmpWindow;
+
+        final double[][] tmpReturns = CovarianceEstimatorTest.makeReturns();
+
+        final CovarianceEstimator tmpEstimator = CovarianceEstimator.makeRolling(ASSETS, tmpWindow, true);
+        for (int t = 0; t < OBSERVATIONS; t++) {
+            tmpEstimator.put(tmpReturns[t]);
+        }
+
+        // Ledoit-Wolf computed directly from the (centred) window
+        final double[] tmpMean = new double[ASSETS];
+        for (int t = tmpFirst; t < OBSERVATIONS; t++) {
+            for (int i = 0; i < ASSETS; i++) {
+                tmpMean[i] += tmpReturns[t][i] / tmpWindow;
+            }
+        }
+        final double[][] tmpSample = new double[ASSETS][ASSETS];
+        for (int t = tmpFirst; t < OBSERVATIONS; t++) {
+            for (int i = 0; i < ASSETS; i++) {
+                for (int j = 0; j < ASSETS; j++) {
+                    tmpSample[i][j] += ((tmpReturns[t][i] - tmpMean[i]) * (tmpReturns[t][j] - tmpMean[j])) / tmpWindow;
+                }
+            }
+        }
+        double tmpTarget = 0.0;
+        for (int i = 0; i < ASSETS; i++) {
+            tmpTarget += tmpSample[i][i] / ASSETS;
+        }
+        double tmpDistance = 0.0;
+        for (int i = 0; i < ASSETS; i++) {
+            for (int j = 0; j < ASSETS; j++) {
+                final double tmpDiff = tmpSample[i][j] - (i == j ? tmpTarget : 0.0);
+                tmpDistance += tmpDiff * tmpDiff;
+            }
+        }
+        double tmpError = 0.0;
+        for (int t = tmpFirst; t < OBSERVATIONS; t++) {
+            for (int i = 0; i < ASSETS; i++) {
+                for (int j = 0; j < ASSETS; j++) {
+                    final double tmpDiff = ((tmpReturns[t][i] - tmpMean[i]) * (tmpReturns[t][j] - tmpMean[j])) - tmpSample[i][j];
+                    tmpError += (tmpDiff * tmpDiff) / (tmpWindow * tmpWindow);
+                }
+            }
+        }
+        final double tmpExpected = Math.min(tmpError, tmpDistance) / tmpDistance;
+
+        TestUtils.assertTrue(tmpExpected > 0.0);
+        TestUtils.assertEquals(tmpExpected, tmpEstimator.getShrinkage(), CONTEXT);
+
+        final PrimitiveDenseStore tmpShrunk = tmpEstimator.getCovariances();
+        final double tmpCorrection = tmpWindow / (tmpWindow - 1.0);
+        for (int i = 0; i < ASSETS; i++) {
+            for (int j = 0; j < ASSETS; j++) {
+                final double tmpValue = tmpCorrection * (((1.0 - tmpExpected) * tmpSample[i][j]) + (i == j ? tmpExpected * tmpTarget : 0.0));
+                TestUtils.assertEquals(tmpValue, tmpShrunk.doubleValue(i, j), CONTEXT);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.finance.portfolio;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.BasicMatrix;
+import org.ojalgo.matrix.PrimitiveMatrix;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * FactorCovarianceTest
+ *
+ * @author apete
+ */
+public class FactorCovarianceTest extends FinancePortfolioTests {
+
+    private static final NumberContext CONTEXT = new NumberContext(7, 10);
+
+    static FactorCovariance makeFactorCovariance() {
+
+        final BasicMatrix tmpLoadings = PrimitiveMatrix.FACTORY.rows(new double[][] { { 1.0, 0.2, -0.1 }, { 0.8, -0.5, 0.3 }, { 1.2, 0.1, 0.0 },
+                { 0.4, 0.9, 0.2 }, { 1.1, 0.0, -0.4 }, { 0.7, 0.3, 0.5 }, { 0.9, -0.2, 0.1 }, { 1.3, 0.4, -0.3 } });
+        final BasicMatrix tmpFactorCovariances = PrimitiveMatrix.FACTORY.rows(new double[][] { { 0.030, 0.010, 0.002 }, { 0.010, 0.020, -0.004 },
+                { 0.002, -0.004, 0.015 } });
+        final BasicMatrix tmpSpecificVariances = PrimitiveMatrix.FACTORY.columns(new double[] { 0.04, 0.09, 0.01, 0.05, 0.02, 0.07, 0.03, 0.06 });
+
+        return new FactorCovariance(tmpLoadings, tmpFactorCovariances, tmpSpecificVariances);
+    }
+
+    static BasicMatrix makeReturns() {
+        return PrimitiveMatrix.FACTORY.columns(new double[] { 0.06, 0.05, 0.10, 0.02, 0.07, 0.04, 0.03, 0.08 });
+    }
+
+    public FactorCovarianceTest() {
+        super();
+    }
+
+    public FactorCovarianceTest(final String aName) {
+        super(aName);
+    }
+
+    public void testMarketEquilibrium() {
+
+        final FactorCovariance tmpFactorCovariance = FactorCovarianceTest.makeFactorCovariance();
+        final BasicMatrix tmpReturns = FactorCovarianceTest.makeReturns();
+
+        final MarketEquilibrium tmpFactor = new MarketEquilibrium(tmpFactorCovariance, 2.5);
+        final MarketEquilibrium tmpDense = new MarketEquilibrium(tmpFactorCovariance.toCovariances(), 2.5);
+
+        TestUtils.assertEquals(tmpDense.size(), tmpFactor.size());
+
+        final BasicMatrix tmpWeights = tmpDense.calculateAssetWeights(tmpReturns);
+        TestUtils.assertEquals(tmpWeights, tmpFactor.calculateAssetWeights(tmpReturns), CONTEXT);
+        TestUtils.assertEquals(tmpDense.calculateAssetReturns(tmpWeights), tmpFactor.calculateAssetReturns(tmpWeights), CONTEXT);
+        TestUtils.assertEquals(tmpDense.calculatePortfolioVariance(tmpWeights).doubleValue(), tmpFactor.calculatePortfolioVariance(tmpWeights)
+                .doubleValue(), CONTEXT);
+
+        // Copies and cleaned copies keep the factor structure
+        TestUtils.assertTrue(tmpFactor.copy().getFactorCovariance() == tmpFactorCovariance);
+        TestUtils.assertEquals(tmpFactor.getCovariances(), tmpFactor.clean().getCovariances(), CONTEXT);
+    }
+
+    public void testMarkowitzModel() {
+
+        final FactorCovariance tmpFactorCovariance = FactorCovarianceTest.makeFactorCovariance();
+        final BasicMatrix tmpReturns = FactorCovarianceTest.makeReturns();
+
+        final MarkowitzModel tmpFactor = new MarkowitzModel(new MarketEquilibrium(tmpFactorCovariance, 5.0), tmpReturns);
+        final MarkowitzModel tmpDense = new MarkowitzModel(new MarketEquilibrium(tmpFactorCovariance.toCovariances(), 5.0), tmpReturns);
+        for (int i = 0; i < tmpFactorCovariance.countAssets(); i++) {
+            tmpFactor.setUpperLimit(i, new BigDecimal("0.3"));
+            tmpDense.setUpperLimit(i, new BigDecimal("0.3"));
+        }
+
+        final List<BigDecimal> tmpFactorWeights = tmpFactor.getWeights();
+        final List<BigDecimal> tmpDenseWeights = tmpDense.getWeights();
+
+        TestUtils.assertTrue(tmpFactor.getOptimisationState().isOptimal());
+        TestUtils.assertEquals(tmpFactorCovariance.countAssets(), tmpFactorWeights.size());
+
+        for (int i = 0; i < tmpDenseWeights.size(); i++) {
+            TestUtils.assertEquals(tmpDenseWeights.get(i).doubleValue(), tmpFactorWeights.get(i).doubleValue(), CONTEXT);
+        }
+        TestUtils.assertEquals(tmpDense.getReturnVariance(), tmpFactor.getReturnVariance(), CONTEXT);
+    }
+
+    public void testMultiplyAndSolve() {
+
+        final FactorCovariance tmpFactorCovariance = FactorCovarianceTest.makeFactorCovariance();
+        final BasicMatrix tmpCovariances = tmpFactorCovariance.toCovariances();
+
+        final BasicMatrix tmpRight = PrimitiveMatrix.FACTORY.rows(new double[][] { { 0.1, 1.0 }, { 0.2, -1.0 }, { 0.0, 2.0 }, { 0.3, 0.5 }, { -0.1, 0.0 },
+                { 0.2, 1.5 }, { 0.1, -0.5 }, { 0.2, 1.0 } });
+
+        TestUtils.assertEquals(tmpCovariances.multiply(tmpRight), tmpFactorCovariance.multiply(tmpRight), CONTEXT);
+        TestUtils.assertEquals(tmpCovariances.solve(tmpRight), tmpFactorCovariance.solve(tmpRight), CONTEXT);
+    }
+
+}
@@ -34,6 +34,9 @@ public abstract class FinancePortfolioTests extends FunctionalityTest {
         final TestSuite suite = new TestSuite(FinancePortfolioTests.class.getPackage().getName());
         //$JUnit-BEGIN$
         suite.addTestSuite(BlackLittermanTest.class);
+        suite.addTestSuite(CovarianceEstimatorTest.class);
+        suite.addTestSuite(FactorCovarianceTest.class);
+        suite.addTestSuite(MarkowitzModelTest.class);
         suite.addTestSuite(PortfolioProblems.class);
         suite.addTestSuite(TestEquilibrium.class);
         //$JUnit-END$
@@ -0,0 +1,111 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.finance.portfolio;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.BasicMatrix;
+import org.ojalgo.matrix.PrimitiveMatrix;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * MarkowitzModelTest
+ *
+ * @author apete
+ */
+public class MarkowitzModelTest extends FinancePortfolioTests {
+
+    private static MarkowitzModel makeModel() {
+
+        final BasicMatrix tmpCovariances = PrimitiveMatrix.FACTORY.rows(new double[][] { { 0.040, 0.006, 0.010, 0.002 }, { 0.006, 0.025, 0.004, 0.001 },
+                { 0.010, 0.004, 0.090, 0.003 }, { 0.002, 0.001, 0.003, 0.010 } });
+        final BasicMatrix tmpReturns = PrimitiveMatrix.FACTORY.columns(new double[] { 0.06, 0.05, 0.10, 0.02 });
+
+        final MarkowitzModel retVal = new MarkowitzModel(new MarketEquilibrium(tmpCovariances), tmpReturns);
+        for (int i = 0; i < 4; i++) {
+            retVal.setUpperLimit(i, new BigDecimal("0.6"));
+        }
+        retVal.addConstraint(new BigDecimal("0.1"), null, 0, 1);
+
+        return retVal;
+    }
+
+    public MarkowitzModelTest() {
+        super();
+    }
+
+    public MarkowitzModelTest(final String aName) {
+        super(aName);
+    }
+
+    public void testEfficientFrontier() {
+
+        final NumberContext tmpContext = NumberContext.getGeneral(4, 6);
+
+        final MarkowitzModel tmpModel = MarkowitzModelTest.makeModel();
+
+        final List<MarkowitzModel.FrontierPoint> tmpFrontier = tmpModel.getEfficientFrontier(30);
+        final List<MarkowitzModel.FrontierPoint> tmpParallel = tmpModel.getEfficientFrontier(30, true);
+
+        TestUtils.assertEquals(30, tmpFrontier.size());
+
+        for (int p = 0; p < tmpFrontier.size(); p++) {
+
+            final MarkowitzModel.FrontierPoint tmpPoint = tmpFrontier.get(p);
+
+            TestUtils.assertTrue(tmpPoint.getOptimisationState().isOptimal());
+            TestUtils.assertEquals(tmpPoint.getWeights(), tmpParallel.get(p).getWeights());
+
+            if (p > 0) {
+                // Lower risk aversion - higher return and higher variance
+                final MarkowitzModel.FrontierPoint tmpPrevious = tmpFrontier.get(p - 1);
+                TestUtils.assertTrue(tmpPoint.getRiskAversion() < tmpPrevious.getRiskAversion());
+                TestUtils.assertTrue(tmpPoint.getMeanReturn() >= (tmpPrevious.getMeanReturn() - 1E-4));
+                TestUtils.assertTrue(tmpPoint.getReturnVariance() >= (tmpPrevious.getReturnVariance() - 1E-4));
+            }
+        }
+
+        // The same as solving one point at the time
+        for (int p = 0; p < tmpFrontier.size(); p += 7) {
+
+            final MarkowitzModel.FrontierPoint tmpPoint = tmpFrontier.get(p);
+
+            final MarkowitzModel tmpSingle = MarkowitzModelTest.makeModel();
+            tmpSingle.setRiskAversion(tmpPoint.getRiskAversion());
+
+            final List<BigDecimal> tmpExpected = tmpSingle.getWeights();
+            final List<BigDecimal> tmpActual = tmpPoint.getWeights();
+            for (int i = 0; i < tmpExpected.size(); i++) {
+                TestUtils.assertEquals(tmpExpected.get(i), tmpActual.get(i), tmpContext);
+            }
+            TestUtils.assertEquals(tmpSingle.getMeanReturn(), tmpPoint.getMeanReturn(), tmpContext);
+        }
+
+        // The ends of the frontier - close to minimum variance and maximum return
+        final List<BigDecimal> tmpMaxReturn = tmpFrontier.get(tmpFrontier.size() - 1).getWeights();
+        TestUtils.assertEquals(0.6, tmpMaxReturn.get(2).doubleValue(), 0.001);
+        TestUtils.assertEquals(0.4, tmpMaxReturn.get(0).doubleValue(), 0.001);
+    }
+
+}
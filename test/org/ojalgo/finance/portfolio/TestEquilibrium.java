@@ -139,6 +139,56 @@ public class TestEquilibrium extends FinancePortfolioTests {
         return covariances.build();
     }
 
+    public void testEvaluate() {
+
+        final FactorCovariance tmpFactorCovariance = FactorCovarianceTest.makeFactorCovariance();
+        final BasicMatrix tmpReturns = FactorCovarianceTest.makeReturns();
+        final int tmpAssets = tmpFactorCovariance.countAssets();
+
+        // More portfolios than one block, and some zero weights
+        final int tmpPortfolios = 37;
+        final Uniform tmpUniform = new Uniform(-0.5, 1.0);
+        final Builder<PrimitiveMatrix> tmpBuilder = PrimitiveMatrix.getBuilder(tmpAssets, tmpPortfolios);
+        for (int j = 0; j < tmpPortfolios; j++) {
+            for (int i = 0; i < tmpAssets; i++) {
+                if (((i + j) % 5) != 0) {
+                    tmpBuilder.set(i, j, tmpUniform.doubleValue());
+                }
+            }
+        }
+        final BasicMatrix tmpWeights = tmpBuilder.build();
+
+        final NumberContext tmpContext = new NumberContext(7, 12);
+
+        for (final MarketEquilibrium tmpEquilibrium : new MarketEquilibrium[] { new MarketEquilibrium(tmpFactorCovariance.toCovariances()),
+                new MarketEquilibrium(tmpFactorCovariance) }) {
+
+            final MarketEquilibrium.Evaluation tmpEvaluation = tmpEquilibrium.evaluate(tmpWeights, tmpReturns);
+
+            TestUtils.assertEquals(tmpPortfolios, tmpEvaluation.count());
+
+            for (int j = 0; j < tmpPortfolios; j++) {
+
+                final BasicMatrix tmpPortfolio = tmpWeights.selectColumns(j);
+
+                final double tmpVariance = tmpEquilibrium.calculatePortfolioVariance(tmpPortfolio).doubleValue();
+                final double tmpReturn = MarketEquilibrium.calculatePortfolioReturn(tmpPortfolio, tmpReturns).doubleValue();
+
+                TestUtils.assertEquals(tmpVariance, tmpEvaluation.getVariances()[j], tmpContext);
+                TestUtils.assertEquals(tmpReturn, tmpEvaluation.getReturns()[j], tmpContext);
+
+                // The (total) risk contributions add up to the volatility
+                final double[] tmpMarginalRisks = tmpEvaluation.getMarginalRisks()[j];
+                double tmpVolatility = 0.0;
+                for (int i = 0; i < tmpAssets; i++) {
+                    tmpVolatility += tmpPortfolio.doubleValue(i) * tmpMarginalRisks[i];
+                }
+                TestUtils.assertEquals(Math.sqrt(tmpVariance), tmpVolatility, tmpContext);
+                TestUtils.assertEquals(Math.sqrt(tmpVariance), tmpEvaluation.getVolatilities()[j], tmpContext);
+            }
+        }
+    }
+
     public void testRandomProblemsComparedToEquilibrium() {
 
         final NumberContext tmpWeightsContext = StandardType.PERCENT.newPrecision(6);
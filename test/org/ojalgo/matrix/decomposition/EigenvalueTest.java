@@ -30,6 +30,7 @@ import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.type.context.NumberContext;
 
@@ -83,6 +84,65 @@ public class EigenvalueTest extends MatrixDecompositionTests {
         super(arg0);
     }
 
+    public void testDivideAndConquer() {
+
+        final int tmpDim = 300;
+
+        final PhysicalStore<Double> tmpRandom = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, tmpDim, new Uniform(-1.0, 2.0));
+        final PhysicalStore<Double> tmpSymmetric = PrimitiveDenseStore.FACTORY.copy(tmpRandom.add(tmpRandom.transpose()));
+
+        final PhysicalStore<Double> tmpVector = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, 1, new Uniform());
+        final PhysicalStore<Double> tmpClustered = PrimitiveDenseStore.FACTORY.makeEye(tmpDim, tmpDim);
+        tmpClustered.maxpy(3.0 - 1.0, tmpClustered.copy());
+        tmpClustered.maxpy(1.0, tmpVector.multiply(tmpVector.transpose()));
+
+        for (final PhysicalStore<Double> tmpMatrix : new PhysicalStore[] { tmpSymmetric, tmpClustered }) {
+
+            final Eigenvalue<Double> tmpDecomposition = Eigenvalue.makePrimitive(true);
+            tmpDecomposition.compute(tmpMatrix);
+
+            final Eigenvalue<Double> tmpReference = new RawEigenvalue.Symmetric();
+            tmpReference.compute(tmpMatrix);
+
+            final NumberContext tmpContext = new NumberContext(7, 8);
+
+            final MatrixStore<Double> tmpV = tmpDecomposition.getV();
+            TestUtils.assertEquals(tmpMatrix.multiply(tmpV), tmpDecomposition.getD().multiplyLeft(tmpV), tmpContext);
+            TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.makeEye(tmpDim, tmpDim), tmpV.transpose().multiply(tmpV), tmpContext);
+
+            final Array1D<ComplexNumber> tmpExpected = tmpReference.getEigenvalues();
+            final Array1D<ComplexNumber> tmpActual = tmpDecomposition.getEigenvalues();
+            tmpExpected.sortDescending();
+            tmpActual.sortDescending();
+            TestUtils.assertEquals(tmpExpected, tmpActual, tmpContext);
+        }
+    }
+
+    public void testNonsymmetricEigenvaluesCopy() {
+
+        final PhysicalStore<Double> tmpMatrix = PrimitiveDenseStore.FACTORY.makeRandom(9, 9, new Uniform(-1.0, 2.0));
+
+        final Eigenvalue<Double> tmpDecomposition = Eigenvalue.makePrimitive(false);
+        tmpDecomposition.compute(tmpMatrix);
+
+        final Array1D<ComplexNumber> tmpEigenvalues = tmpDecomposition.getEigenvalues();
+
+        final Array1D<ComplexNumber> tmpCopy = tmpEigenvalues.copy();
+        TestUtils.assertTrue(tmpCopy != null);
+        TestUtils.assertEquals(tmpEigenvalues, tmpCopy);
+
+        final Array1D<ComplexNumber> tmpSelected = tmpEigenvalues.copy(2, 0);
+        TestUtils.assertTrue(tmpSelected != null);
+        TestUtils.assertEquals(2L, tmpSelected.count());
+        TestUtils.assertEquals(tmpEigenvalues.get(2), tmpSelected.get(0));
+        TestUtils.assertEquals(tmpEigenvalues.get(0), tmpSelected.get(1));
+
+        tmpCopy.sortAscending();
+        for (int i = 0; i < tmpCopy.size(); i++) {
+            TestUtils.assertEquals(tmpCopy.get(i), tmpCopy.get(tmpCopy.searchAscending(tmpCopy.get(i))));
+        }
+    }
+
     public void testP20050125Case() {
 
         final PhysicalStore<Double> tmpOriginalMatrix = P20050125Case.getProblematic().toPrimitiveStore();
@@ -0,0 +1,165 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.math.BigDecimal;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.BigFunction;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * {@linkplain DoubleDoubleStore} should produce the same results as {@linkplain BigDenseStore}, and keep
+ * more precision than {@linkplain PrimitiveDenseStore}.
+ *
+ * @author apete
+ */
+public class DoubleDoubleCase extends AbstractMatrixStoreTest {
+
+    private static final NumberContext EVALUATION = new NumberContext(24, 24);
+
+    public DoubleDoubleCase() {
+        super();
+    }
+
+    public DoubleDoubleCase(final String arg0) {
+        super(arg0);
+    }
+
+    public void testDecompositions() {
+
+        final int tmpDim = 9;
+
+        final PhysicalStore<BigDecimal> tmpSquare = BigDenseStore.FACTORY.makeRandom(tmpDim, tmpDim, new Uniform());
+        final PhysicalStore<BigDecimal> tmpTall = BigDenseStore.FACTORY.makeRandom(tmpDim + 3, tmpDim, new Uniform());
+        final PhysicalStore<BigDecimal> tmpRHS = BigDenseStore.FACTORY.makeRandom(tmpDim, 2, new Uniform());
+
+        final LU<BigDecimal> tmpBigLU = LU.makeBig();
+        final LU<BigDecimal> tmpDoubleDoubleLU = LU.makeBig(DoubleDoubleStore.FACTORY);
+        tmpBigLU.compute(tmpSquare);
+        tmpDoubleDoubleLU.compute(tmpSquare);
+        TestUtils.assertEquals(tmpBigLU.getU(), tmpDoubleDoubleLU.getU(), EVALUATION);
+        TestUtils.assertEquals(tmpBigLU.getL(), tmpDoubleDoubleLU.getL(), EVALUATION);
+        TestUtils.assertEquals(tmpBigLU.solve(tmpRHS), tmpDoubleDoubleLU.solve(tmpRHS), EVALUATION);
+        TestUtils.assertEquals(tmpBigLU.reconstruct(), tmpDoubleDoubleLU.reconstruct(), EVALUATION);
+
+        final QR<BigDecimal> tmpBigQR = QR.makeBig();
+        final QR<BigDecimal> tmpDoubleDoubleQR = QR.makeBig(DoubleDoubleStore.FACTORY);
+        tmpBigQR.compute(tmpTall);
+        tmpDoubleDoubleQR.compute(tmpTall);
+        TestUtils.assertEquals(tmpBigQR.getR(), tmpDoubleDoubleQR.getR(), EVALUATION);
+        TestUtils.assertEquals(tmpBigQR.getQ(), tmpDoubleDoubleQR.getQ(), EVALUATION);
+        TestUtils.assertEquals(tmpTall, tmpDoubleDoubleQR.reconstruct(), EVALUATION);
+
+        final MatrixStore<BigDecimal> tmpSymmetric = tmpSquare.multiplyLeft(tmpSquare.transpose());
+
+        final Cholesky<BigDecimal> tmpBigCholesky = Cholesky.makeBig();
+        final Cholesky<BigDecimal> tmpDoubleDoubleCholesky = Cholesky.makeBig(DoubleDoubleStore.FACTORY);
+        tmpBigCholesky.compute(tmpSymmetric);
+        tmpDoubleDoubleCholesky.compute(tmpSymmetric);
+        TestUtils.assertTrue(tmpDoubleDoubleCholesky.isSPD());
+        TestUtils.assertEquals(tmpBigCholesky.getL(), tmpDoubleDoubleCholesky.getL(), EVALUATION);
+        TestUtils.assertEquals(tmpSymmetric, tmpDoubleDoubleCholesky.reconstruct(), EVALUATION);
+    }
+
+    public void testMultiply() {
+
+        final PhysicalStore<BigDecimal> tmpBigLeft = BigDenseStore.FACTORY.makeRandom(7, 5, new Uniform());
+        final PhysicalStore<BigDecimal> tmpBigRight = BigDenseStore.FACTORY.makeRandom(5, 3, new Uniform());
+
+        final DoubleDoubleStore tmpDoubleDoubleLeft = DoubleDoubleStore.FACTORY.copy(tmpBigLeft);
+        final DoubleDoubleStore tmpDoubleDoubleRight = DoubleDoubleStore.FACTORY.copy(tmpBigRight);
+
+        final MatrixStore<BigDecimal> tmpExpected = tmpBigLeft.multiply(tmpBigRight);
+
+        TestUtils.assertEquals(tmpExpected, tmpDoubleDoubleLeft.multiply(tmpDoubleDoubleRight), EVALUATION);
+        TestUtils.assertEquals(tmpExpected, tmpDoubleDoubleLeft.multiply(tmpBigRight), EVALUATION);
+        TestUtils.assertEquals(tmpExpected, tmpDoubleDoubleRight.multiplyLeft(tmpBigLeft), EVALUATION);
+
+        final DoubleDoubleStore tmpProduct = DoubleDoubleStore.FACTORY.makeZero(7, 3);
+        tmpProduct.fillByMultiplying(tmpDoubleDoubleLeft, tmpDoubleDoubleRight);
+        TestUtils.assertEquals(tmpExpected, tmpProduct, EVALUATION);
+
+        final DoubleDoubleStore tmpSum = DoubleDoubleStore.FACTORY.makeZero(7, 5);
+        tmpSum.fillMatching(tmpDoubleDoubleLeft, BigFunction.ADD, tmpDoubleDoubleLeft);
+        TestUtils.assertEquals(tmpBigLeft.add(tmpBigLeft), tmpSum, EVALUATION);
+    }
+
+    /**
+     * 1 + 1E-20 - 1 is 0 in double arithmetic
+     */
+    public void testPrecision() {
+
+        final DoubleDoubleStore tmpLeft = DoubleDoubleStore.FACTORY.rows(new double[][] { { 1.0, 1E-20, -1.0 } });
+        final DoubleDoubleStore tmpRight = DoubleDoubleStore.FACTORY.columns(new double[][] { { 1.0, 1.0, 1.0 } });
+
+        final MatrixStore<BigDecimal> tmpProduct = tmpLeft.multiply(tmpRight);
+
+        TestUtils.assertEquals(1E-20, tmpProduct.doubleValue(0, 0), 1E-35);
+
+        final PrimitiveDenseStore tmpPrimitiveLeft = PrimitiveDenseStore.FACTORY.copy(tmpLeft);
+        final PrimitiveDenseStore tmpPrimitiveRight = PrimitiveDenseStore.FACTORY.copy(tmpRight);
+        TestUtils.assertEquals(0.0, tmpPrimitiveLeft.multiply(tmpPrimitiveRight).doubleValue(0, 0), 0.0);
+    }
+
+    public void testTransformations() {
+
+        final int tmpDim = 6;
+
+        final BigDenseStore tmpBig = (BigDenseStore) BigDenseStore.FACTORY.makeRandom(tmpDim, tmpDim, new Uniform());
+        final DoubleDoubleStore tmpDoubleDouble = DoubleDoubleStore.FACTORY.copy(tmpBig);
+
+        final Householder<BigDecimal> tmpBigColumn = BigDenseStore.FACTORY.makeHouseholder(tmpDim);
+        final Householder<BigDecimal> tmpDoubleDoubleColumn = DoubleDoubleStore.FACTORY.makeHouseholder(tmpDim);
+        TestUtils.assertTrue(tmpBig.generateApplyAndCopyHouseholderColumn(1, 0, tmpBigColumn));
+        TestUtils.assertTrue(tmpDoubleDouble.generateApplyAndCopyHouseholderColumn(1, 0, tmpDoubleDoubleColumn));
+        TestUtils.assertEquals(tmpBig, tmpDoubleDouble, EVALUATION);
+
+        final Householder<BigDecimal> tmpBigRow = BigDenseStore.FACTORY.makeHouseholder(tmpDim);
+        final Householder<BigDecimal> tmpDoubleDoubleRow = DoubleDoubleStore.FACTORY.makeHouseholder(tmpDim);
+        TestUtils.assertTrue(tmpBig.generateApplyAndCopyHouseholderRow(0, 1, tmpBigRow));
+        TestUtils.assertTrue(tmpDoubleDouble.generateApplyAndCopyHouseholderRow(0, 1, tmpDoubleDoubleRow));
+        TestUtils.assertEquals(tmpBig, tmpDoubleDouble, EVALUATION);
+
+        tmpBig.transformLeft(tmpBigColumn, 0);
+        tmpDoubleDouble.transformLeft(tmpDoubleDoubleColumn, 0);
+        TestUtils.assertEquals(tmpBig, tmpDoubleDouble, EVALUATION);
+
+        tmpBig.transformRight(tmpBigRow, 0);
+        tmpDoubleDouble.transformRight(tmpDoubleDoubleRow, 0);
+        TestUtils.assertEquals(tmpBig, tmpDoubleDouble, EVALUATION);
+
+        tmpBig.transformLeft(BigDenseStore.FACTORY.makeRotation(1, 4, 0.6, 0.8));
+        tmpDoubleDouble.transformLeft(DoubleDoubleStore.FACTORY.makeRotation(1, 4, 0.6, 0.8));
+        TestUtils.assertEquals(tmpBig, tmpDoubleDouble, EVALUATION);
+
+        tmpBig.transformRight(BigDenseStore.FACTORY.makeRotation(0, 5, 0.6, 0.8));
+        tmpDoubleDouble.transformRight(DoubleDoubleStore.FACTORY.makeRotation(0, 5, 0.6, 0.8));
+        TestUtils.assertEquals(tmpBig, tmpDoubleDouble, EVALUATION);
+    }
+
+}
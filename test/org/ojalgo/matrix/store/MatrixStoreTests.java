@@ -40,6 +40,8 @@ public abstract class MatrixStoreTests extends FunctionalityTest {
         suite.addTestSuite(StoreProblems.class);
         suite.addTestSuite(SelectedColumnsCase.class);
         suite.addTestSuite(SelectedRowsCase.class);
+        suite.addTestSuite(SplitComplexCase.class);
+        suite.addTestSuite(DoubleDoubleCase.class);
         suite.addTestSuite(SuperimposedMatrixColumnCase.class);
         suite.addTestSuite(SuperimposedMatrixElementCase.class);
         suite.addTestSuite(SuperimposedMatrixRowCase.class);
@@ -0,0 +1,158 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * {@linkplain SplitComplexStore} should produce the same results as {@linkplain ComplexDenseStore}.
+ *
+ * @author apete
+ */
+public class SplitComplexCase extends AbstractMatrixStoreTest {
+
+    private static final NumberContext EVALUATION = new NumberContext(7, 9);
+
+    public SplitComplexCase() {
+        super();
+    }
+
+    public SplitComplexCase(final String arg0) {
+        super(arg0);
+    }
+
+    public void testDecompositions() {
+
+        final int tmpDim = 9;
+
+        final PhysicalStore<ComplexNumber> tmpSquare = MatrixUtils.makeRandomComplexStore(tmpDim, tmpDim);
+        final PhysicalStore<ComplexNumber> tmpTall = MatrixUtils.makeRandomComplexStore(tmpDim + 3, tmpDim);
+        final PhysicalStore<ComplexNumber> tmpRHS = MatrixUtils.makeRandomComplexStore(tmpDim, 2);
+
+        final LU<ComplexNumber> tmpDenseLU = LU.makeComplex();
+        final LU<ComplexNumber> tmpSplitLU = LU.makeComplex(SplitComplexStore.FACTORY);
+        tmpDenseLU.compute(tmpSquare);
+        tmpSplitLU.compute(tmpSquare);
+        TestUtils.assertEquals(tmpDenseLU.getU(), tmpSplitLU.getU(), EVALUATION);
+        TestUtils.assertEquals(tmpDenseLU.getL(), tmpSplitLU.getL(), EVALUATION);
+        TestUtils.assertEquals(tmpDenseLU.solve(tmpRHS), tmpSplitLU.solve(tmpRHS), EVALUATION);
+        TestUtils.assertEquals(tmpDenseLU.getInverse(), tmpSplitLU.getInverse(), EVALUATION);
+
+        final QR<ComplexNumber> tmpDenseQR = QR.makeComplex();
+        final QR<ComplexNumber> tmpSplitQR = QR.makeComplex(SplitComplexStore.FACTORY);
+        tmpDenseQR.compute(tmpTall);
+        tmpSplitQR.compute(tmpTall);
+        TestUtils.assertEquals(tmpDenseQR.getR(), tmpSplitQR.getR(), EVALUATION);
+        TestUtils.assertEquals(tmpDenseQR.getQ(), tmpSplitQR.getQ(), EVALUATION);
+        TestUtils.assertEquals(tmpDenseQR.reconstruct(), tmpSplitQR.reconstruct(), EVALUATION);
+
+        final MatrixStore<ComplexNumber> tmpHermitian = tmpSquare.multiplyLeft(tmpSquare.conjugate());
+
+        final Cholesky<ComplexNumber> tmpDenseCholesky = Cholesky.makeComplex();
+        final Cholesky<ComplexNumber> tmpSplitCholesky = Cholesky.makeComplex(SplitComplexStore.FACTORY);
+        tmpDenseCholesky.compute(tmpHermitian);
+        tmpSplitCholesky.compute(tmpHermitian);
+        TestUtils.assertTrue(tmpSplitCholesky.isSPD());
+        TestUtils.assertEquals(tmpDenseCholesky.getL(), tmpSplitCholesky.getL(), EVALUATION);
+        TestUtils.assertEquals(tmpDenseCholesky.reconstruct(), tmpSplitCholesky.reconstruct(), EVALUATION);
+    }
+
+    public void testIndexOfLargestInColumn() {
+
+        final ComplexDenseStore tmpDense = ComplexDenseStore.FACTORY.copy(MatrixUtils.makeRandomComplexStore(8, 5));
+        final SplitComplexStore tmpSplit = SplitComplexStore.FACTORY.copy(tmpDense);
+
+        for (int j = 0; j < 5; j++) {
+            for (int i = 0; i < 8; i++) {
+                TestUtils.assertEquals(tmpDense.getIndexOfLargestInColumn(i, j), tmpSplit.getIndexOfLargestInColumn(i, j));
+            }
+        }
+    }
+
+    public void testMultiply() {
+
+        final PhysicalStore<ComplexNumber> tmpDenseLeft = MatrixUtils.makeRandomComplexStore(7, 5);
+        final PhysicalStore<ComplexNumber> tmpDenseRight = MatrixUtils.makeRandomComplexStore(5, 3);
+
+        final SplitComplexStore tmpSplitLeft = SplitComplexStore.FACTORY.copy(tmpDenseLeft);
+        final SplitComplexStore tmpSplitRight = SplitComplexStore.FACTORY.copy(tmpDenseRight);
+
+        final MatrixStore<ComplexNumber> tmpExpected = tmpDenseLeft.multiply(tmpDenseRight);
+
+        TestUtils.assertEquals(tmpExpected, tmpSplitLeft.multiply(tmpSplitRight), EVALUATION);
+        TestUtils.assertEquals(tmpExpected, tmpSplitLeft.multiply(tmpDenseRight), EVALUATION);
+        TestUtils.assertEquals(tmpExpected, tmpSplitRight.multiplyLeft(tmpDenseLeft), EVALUATION);
+
+        final SplitComplexStore tmpProduct = SplitComplexStore.FACTORY.makeZero(7, 3);
+        tmpProduct.fillByMultiplying(tmpSplitLeft, tmpSplitRight);
+        TestUtils.assertEquals(tmpExpected, tmpProduct, EVALUATION);
+        tmpProduct.fillByMultiplying(tmpSplitLeft, tmpSplitRight);
+        TestUtils.assertEquals(tmpExpected, tmpProduct, EVALUATION);
+    }
+
+    public void testTransformations() {
+
+        final int tmpDim = 6;
+
+        final ComplexDenseStore tmpDense = (ComplexDenseStore) MatrixUtils.makeRandomComplexStore(tmpDim, tmpDim);
+        final SplitComplexStore tmpSplit = SplitComplexStore.FACTORY.copy(tmpDense);
+
+        final Householder<ComplexNumber> tmpDenseColumn = ComplexDenseStore.FACTORY.makeHouseholder(tmpDim);
+        final Householder<ComplexNumber> tmpSplitColumn = SplitComplexStore.FACTORY.makeHouseholder(tmpDim);
+        TestUtils.assertTrue(tmpDense.generateApplyAndCopyHouseholderColumn(1, 0, tmpDenseColumn));
+        TestUtils.assertTrue(tmpSplit.generateApplyAndCopyHouseholderColumn(1, 0, tmpSplitColumn));
+        TestUtils.assertEquals(tmpDense, tmpSplit, EVALUATION);
+
+        final Householder<ComplexNumber> tmpDenseRow = ComplexDenseStore.FACTORY.makeHouseholder(tmpDim);
+        final Householder<ComplexNumber> tmpSplitRow = SplitComplexStore.FACTORY.makeHouseholder(tmpDim);
+        TestUtils.assertTrue(tmpDense.generateApplyAndCopyHouseholderRow(0, 1, tmpDenseRow));
+        TestUtils.assertTrue(tmpSplit.generateApplyAndCopyHouseholderRow(0, 1, tmpSplitRow));
+        TestUtils.assertEquals(tmpDense, tmpSplit, EVALUATION);
+
+        tmpDense.transformLeft(tmpDenseColumn, 0);
+        tmpSplit.transformLeft(tmpSplitColumn, 0);
+        TestUtils.assertEquals(tmpDense, tmpSplit, EVALUATION);
+
+        tmpDense.transformRight(tmpDenseRow, 0);
+        tmpSplit.transformRight(tmpSplitRow, 0);
+        TestUtils.assertEquals(tmpDense, tmpSplit, EVALUATION);
+
+        final ComplexNumber tmpCos = ComplexNumber.makePolar(0.6, 0.3);
+        final ComplexNumber tmpSin = ComplexNumber.makePolar(0.8, -0.2);
+
+        tmpDense.transformLeft(ComplexDenseStore.FACTORY.makeRotation(1, 4, tmpCos, tmpSin));
+        tmpSplit.transformLeft(SplitComplexStore.FACTORY.makeRotation(1, 4, tmpCos, tmpSin));
+        TestUtils.assertEquals(tmpDense, tmpSplit, EVALUATION);
+
+        tmpDense.transformRight(ComplexDenseStore.FACTORY.makeRotation(0, 5, tmpCos, tmpSin));
+        tmpSplit.transformRight(SplitComplexStore.FACTORY.makeRotation(0, 5, tmpCos, tmpSin));
+        TestUtils.assertEquals(tmpDense, tmpSplit, EVALUATION);
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.task.iterative.KrylovSolver;
+import org.ojalgo.matrix.task.iterative.LinearOperator;
+import org.ojalgo.matrix.task.iterative.Preconditioner;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class KrylovSolverTest extends MatrixTaskTests {
+
+    private static final NumberContext EVALUATION = new NumberContext(7, 8);
+
+    private static MatrixStore<Double> solveDirectly(final MatrixStore<Double> body, final MatrixStore<Double> rhs) {
+        final LU<Double> tmpLU = LU.makePrimitive();
+        tmpLU.compute(body);
+        return tmpLU.solve(rhs);
+    }
+
+    public KrylovSolverTest() {
+        super();
+    }
+
+    public KrylovSolverTest(final String arg0) {
+        super(arg0);
+    }
+
+    /**
+     * The covariance matrix of a factor model is never formed - only the loadings, the factor covariances and
+     * the specific variances are used.
+     */
+    public void testImplicitFactorModel() {
+
+        final int tmpAssets = 60;
+        final int tmpFactors = 4;
+
+        final PrimitiveDenseStore tmpLoadings = PrimitiveDenseStore.FACTORY.makeRandom(tmpAssets, tmpFactors, new Normal());
+        final MatrixStore<Double> tmpRandom = PrimitiveDenseStore.FACTORY.makeRandom(tmpFactors, tmpFactors, new Normal());
+        final MatrixStore<Double> tmpFactorCovariance = tmpRandom.multiplyLeft(tmpRandom.transpose());
+        final PrimitiveDenseStore tmpSpecific = PrimitiveDenseStore.FACTORY.makeRandom(tmpAssets, 1, new Uniform(0.1, 1.0));
+
+        final double[] tmpDiagonal = new double[tmpAssets];
+        for (int i = 0; i < tmpAssets; i++) {
+            tmpDiagonal[i] = tmpSpecific.doubleValue(i);
+            for (int a = 0; a < tmpFactors; a++) {
+                for (int b = 0; b < tmpFactors; b++) {
+                    tmpDiagonal[i] += tmpLoadings.doubleValue(i, a) * tmpFactorCovariance.doubleValue(a, b) * tmpLoadings.doubleValue(i, b);
+                }
+            }
+        }
+
+        final LinearOperator tmpOperator = new LinearOperator() {
+
+            public void apply(final double[] x, final double[] y) {
+
+                final MatrixStore<Double> tmpX = PrimitiveDenseStore.FACTORY.columns(x);
+                final MatrixStore<Double> tmpFactorExposure = tmpFactorCovariance.multiply(tmpLoadings.transpose().multiply(tmpX));
+                final MatrixStore<Double> tmpSystematic = tmpLoadings.multiply(tmpFactorExposure);
+
+                for (int i = 0; i < x.length; i++) {
+                    y[i] = tmpSystematic.doubleValue(i) + (tmpSpecific.doubleValue(i) * x[i]);
+                }
+            }
+
+            public long countColumns() {
+                return tmpAssets;
+            }
+
+            public long countRows() {
+                return tmpAssets;
+            }
+
+        };
+
+        final PhysicalStore<Double> tmpCovariance = PrimitiveDenseStore.FACTORY.copy(tmpLoadings.multiply(tmpFactorCovariance).multiply(
+                tmpLoadings.transpose()));
+        for (int i = 0; i < tmpAssets; i++) {
+            tmpCovariance.set(i, i, tmpDiagonal[i]);
+        }
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeRandom(tmpAssets, 1, new Uniform());
+        final MatrixStore<Double> tmpExpected = KrylovSolverTest.solveDirectly(tmpCovariance, tmpRHS);
+
+        final KrylovSolver tmpSolver = KrylovSolver.makeConjugateGradient();
+        tmpSolver.setPreconditioner(Preconditioner.makeJacobi(tmpDiagonal));
+
+        try {
+            TestUtils.assertEquals(tmpExpected, tmpSolver.solve(tmpOperator, tmpRHS), EVALUATION);
+        } catch (final TaskException exception) {
+            TestUtils.fail(exception.getMessage());
+        }
+    }
+
+    public void testIndefiniteSymmetric() {
+
+        final int tmpDim = 40;
+
+        final PhysicalStore<Double> tmpBody = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+        for (int i = 0; i < tmpDim; i++) {
+            tmpBody.set(i, i, (i % 2) == 0 ? 4.0 + i : -4.0 - i);
+            if ((i + 1) < tmpDim) {
+                tmpBody.set(i, i + 1, 1.0);
+                tmpBody.set(i + 1, i, 1.0);
+            }
+        }
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, 1, new Uniform());
+
+        final MatrixStore<Double> tmpExpected = KrylovSolverTest.solveDirectly(tmpBody, tmpRHS);
+
+        final KrylovSolver tmpMINRES = KrylovSolver.makeMINRES();
+        final KrylovSolver tmpGMRES = KrylovSolver.makeGMRES(tmpDim);
+
+        try {
+            TestUtils.assertEquals(tmpExpected, tmpMINRES.solve(LinearOperator.wrap(tmpBody), tmpRHS), EVALUATION);
+            TestUtils.assertEquals(tmpExpected, tmpGMRES.solve(LinearOperator.wrap(tmpBody), tmpRHS), EVALUATION);
+        } catch (final TaskException exception) {
+            TestUtils.fail(exception.getMessage());
+        }
+    }
+
+    public void testNonsymmetric() {
+
+        final int tmpDim = 50;
+
+        final PhysicalStore<Double> tmpBody = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, tmpDim, new Uniform(-1.0, 2.0));
+        for (int i = 0; i < tmpDim; i++) {
+            tmpBody.set(i, i, tmpDim);
+        }
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, 2, new Uniform());
+
+        final MatrixStore<Double> tmpExpected = KrylovSolverTest.solveDirectly(tmpBody, tmpRHS);
+
+        for (final KrylovSolver tmpSolver : new KrylovSolver[] { KrylovSolver.makeGMRES(10), KrylovSolver.makeBiCGSTAB() }) {
+            for (final Preconditioner tmpPreconditioner : new Preconditioner[] { Preconditioner.IDENTITY, Preconditioner.makeJacobi(tmpBody),
+                    Preconditioner.makeIncompleteLU(tmpBody) }) {
+                tmpSolver.setPreconditioner(tmpPreconditioner);
+                try {
+                    TestUtils.assertEquals(tmpExpected, tmpSolver.solve(tmpBody, tmpRHS), EVALUATION);
+                } catch (final TaskException exception) {
+                    TestUtils.fail(exception.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * IC(0) and ILU(0) of a tridiagonal matrix have no fill-in to drop, and are therefore exact.
+     */
+    public void testSparseTridiagonal() {
+
+        final int tmpDim = 200;
+
+        final PhysicalStore<Double> tmpBody = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+        for (int i = 0; i < tmpDim; i++) {
+            tmpBody.set(i, i, 2.0);
+            if ((i + 1) < tmpDim) {
+                tmpBody.set(i, i + 1, -1.0);
+                tmpBody.set(i + 1, i, -1.0);
+            }
+        }
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, 1, new Uniform());
+
+        final KrylovSolver tmpCG = KrylovSolver.makeConjugateGradient();
+        tmpCG.setPreconditioner(Preconditioner.makeIncompleteCholesky(tmpBody));
+
+        final KrylovSolver tmpBiCGSTAB = KrylovSolver.makeBiCGSTAB();
+        tmpBiCGSTAB.setPreconditioner(Preconditioner.makeIncompleteLU(tmpBody));
+
+        try {
+
+            final MatrixStore<Double> tmpExpected = KrylovSolverTest.solveDirectly(tmpBody, tmpRHS);
+
+            TestUtils.assertEquals(tmpExpected, tmpCG.solve(tmpBody, tmpRHS), EVALUATION);
+            TestUtils.assertTrue(tmpCG.getIterations() <= 2);
+
+            TestUtils.assertEquals(tmpExpected, tmpBiCGSTAB.solve(tmpBody, tmpRHS), EVALUATION);
+            TestUtils.assertTrue(tmpBiCGSTAB.getIterations() <= 2);
+
+        } catch (final TaskException exception) {
+            TestUtils.fail(exception.getMessage());
+        }
+    }
+
+    public void testSymmetricPositiveDefinite() {
+
+        final int tmpDim = 50;
+
+        final MatrixStore<Double> tmpRandom = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, tmpDim, new Uniform());
+        final MatrixStore<Double> tmpBody = tmpRandom.multiplyLeft(tmpRandom.transpose()).add(PrimitiveDenseStore.FACTORY.makeEye(tmpDim, tmpDim));
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeRandom(tmpDim, 1, new Uniform());
+
+        final MatrixStore<Double> tmpExpected = KrylovSolverTest.solveDirectly(tmpBody, tmpRHS);
+
+        for (final KrylovSolver tmpSolver : new KrylovSolver[] { KrylovSolver.makeConjugateGradient(), KrylovSolver.makeMINRES(),
+                KrylovSolver.makeGMRES(tmpDim), KrylovSolver.makeBiCGSTAB() }) {
+            for (final Preconditioner tmpPreconditioner : new Preconditioner[] { Preconditioner.IDENTITY, Preconditioner.makeJacobi(tmpBody),
+                    Preconditioner.makeIncompleteCholesky(tmpBody) }) {
+                tmpSolver.setPreconditioner(tmpPreconditioner);
+                try {
+                    TestUtils.assertEquals(tmpExpected, tmpSolver.solve(tmpBody, tmpRHS), EVALUATION);
+                } catch (final TaskException exception) {
+                    TestUtils.fail(exception.getMessage());
+                }
+            }
+        }
+    }
+
+}
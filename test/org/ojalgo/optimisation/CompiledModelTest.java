@@ -0,0 +1,134 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import static org.ojalgo.constant.BigMath.*;
+
+import java.math.BigDecimal;
+
+import org.ojalgo.FunctionalityTest;
+import org.ojalgo.TestUtils;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * @author apete
+ */
+public class CompiledModelTest extends FunctionalityTest {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(6, 8);
+
+    private static final double[][] COVARIANCES = { { 0.04, 0.006, 0.002 }, { 0.006, 0.09, 0.01 }, { 0.002, 0.01, 0.0225 } };
+    private static final double[] RETURNS = { 0.06, 0.1, 0.04 };
+
+    private static void assertSameSolution(final ExpressionsBasedModel model, final Optimisation.Result actual) {
+
+        final Optimisation.Result tmpExpected = model.copy().minimise();
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(tmpExpected.getValue(), actual.getValue(), PRECISION);
+        TestUtils.assertEquals(tmpExpected, actual, PRECISION);
+    }
+
+    public CompiledModelTest() {
+        super();
+    }
+
+    public CompiledModelTest(final String someName) {
+        super(someName);
+    }
+
+    /**
+     * Mean-variance portfolio where the risk aversion, the budget and an asset limit change between the solves.
+     * The structure doesn't change, so the solver should only be built once.
+     */
+    public void testParametricResolve() {
+
+        final ExpressionsBasedModel tmpModel = this.makePortfolio();
+        final Expression tmpVariance = tmpModel.getExpression("Variance");
+        final Expression tmpBudget = tmpModel.getExpression("Budget");
+
+        final CompiledModel tmpCompiled = tmpModel.compile();
+
+        CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+
+        final double[] tmpRiskAversions = { 0.5, 2.0, 8.0, 32.0 };
+        for (int r = 0; r < tmpRiskAversions.length; r++) {
+            tmpVariance.weight(tmpRiskAversions[r]);
+            CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+        }
+
+        tmpBudget.level(TWO);
+        CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+
+        tmpModel.getVariable(1).upper(HALF);
+        CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+
+        TestUtils.assertEquals(1, tmpCompiled.countRebuilds());
+    }
+
+    /**
+     * Removing an asset limit changes the structure (one inequality less) and forces a rebuild.
+     */
+    public void testStructureChange() {
+
+        final ExpressionsBasedModel tmpModel = this.makePortfolio();
+
+        final CompiledModel tmpCompiled = tmpModel.compile();
+
+        CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+
+        tmpModel.getVariable(1).upper(null);
+        CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+
+        TestUtils.assertEquals(2, tmpCompiled.countRebuilds());
+
+        tmpModel.getVariable(0).lower(new BigDecimal("0.1"));
+        CompiledModelTest.assertSameSolution(tmpModel, tmpCompiled.minimise());
+
+        TestUtils.assertEquals(2, tmpCompiled.countRebuilds());
+    }
+
+    private ExpressionsBasedModel makePortfolio() {
+
+        final Variable[] tmpVariables = new Variable[RETURNS.length];
+        for (int i = 0; i < tmpVariables.length; i++) {
+            tmpVariables[i] = new Variable("X" + i).lower(ZERO).upper(new BigDecimal("0.8")).weight(-RETURNS[i]);
+        }
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpVariance = retVal.addExpression("Variance").weight(ONE);
+        for (int i = 0; i < tmpVariables.length; i++) {
+            for (int j = 0; j < tmpVariables.length; j++) {
+                tmpVariance.setQuadraticFactor(i, j, COVARIANCES[i][j]);
+            }
+        }
+
+        final Expression tmpBudget = retVal.addExpression("Budget").level(ONE);
+        for (int i = 0; i < tmpVariables.length; i++) {
+            tmpBudget.setLinearFactor(i, ONE);
+        }
+
+        return retVal;
+    }
+
+}
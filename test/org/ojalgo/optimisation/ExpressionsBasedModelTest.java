@@ -24,6 +24,9 @@ package org.ojalgo.optimisation;
 import static org.ojalgo.constant.BigMath.*;
 
 import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 
 import org.ojalgo.FunctionalityTest;
 import org.ojalgo.TestUtils;
@@ -40,6 +43,119 @@ public class ExpressionsBasedModelTest extends FunctionalityTest {
         super(someName);
     }
 
+    public void testExactFactors() {
+
+        final BigDecimal tmpThird = ONE.divide(THREE, java.math.MathContext.DECIMAL128);
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { new Variable("X"), new Variable("Y") });
+
+        final Expression tmpApproximate = tmpModel.addExpression("APPROXIMATE");
+        tmpApproximate.setLinearFactor(0, tmpThird);
+        TestUtils.assertEquals(tmpThird.doubleValue(), tmpApproximate.getLinearFactor(0).doubleValue(), 0.0);
+        TestUtils.assertFalse(tmpThird.compareTo(tmpApproximate.getLinearFactor(0)) == 0);
+
+        tmpModel.setExact(true);
+
+        final Expression tmpExact = tmpModel.addExpression("EXACT");
+        tmpExact.setLinearFactor(0, tmpThird);
+        tmpExact.setQuadraticFactor(1, 0, tmpThird);
+        TestUtils.assertEquals(tmpThird, tmpExact.getLinearFactor(0));
+        TestUtils.assertEquals(tmpThird, tmpExact.getQuadraticFactor(1, 0));
+        TestUtils.assertEquals(tmpThird.doubleValue(), tmpExact.getAdjustedLinearFactor(0), 0.0);
+
+        TestUtils.assertEquals(tmpThird, tmpModel.copy().getExpression("EXACT").getLinearFactor(0));
+    }
+
+    public void testFactorTerms() {
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { new Variable("A"), new Variable("B"), new Variable("C"),
+                new Variable("D"), new Variable("E") });
+
+        final Expression tmpExpression = tmpModel.addExpression("TERMS");
+
+        tmpExpression.setLinearFactor(4, 4.0);
+        tmpExpression.setLinearFactor(1, 1.0);
+        tmpExpression.setLinearFactor(3, 3.0);
+        tmpExpression.setLinearFactor(0, 0.5);
+        tmpExpression.setLinearFactor(1, 2.0);
+        tmpExpression.setLinearFactor(0, ZERO);
+
+        TestUtils.assertEquals(3, tmpExpression.countLinearFactors());
+
+        final int[] tmpExpectedIndices = new int[] { 1, 3, 4 };
+        final double[] tmpExpectedFactors = new double[] { 2.0, 3.0, 4.0 };
+        for (int t = 0; t < tmpExpression.countLinearFactors(); t++) {
+            TestUtils.assertEquals(tmpExpectedIndices[t], tmpExpression.getLinearTermIndex(t));
+            TestUtils.assertEquals(tmpExpectedFactors[t], tmpExpression.getAdjustedLinearTermFactor(t), 0.0);
+        }
+
+        int tmpPrevious = -1;
+        for (final Expression.Index tmpKey : tmpExpression.getLinearFactorKeys()) {
+            TestUtils.assertTrue(tmpKey.index > tmpPrevious);
+            tmpPrevious = tmpKey.index;
+        }
+        TestUtils.assertTrue(tmpExpression.getLinearFactorKeys().contains(new Expression.Index(3)));
+        TestUtils.assertFalse(tmpExpression.getLinearFactorKeys().contains(new Expression.Index(0)));
+
+        tmpExpression.setQuadraticFactor(2, 1, 5.0);
+        tmpExpression.setQuadraticFactor(1, 2, 6.0);
+        TestUtils.assertEquals(2, tmpExpression.countQuadraticFactors());
+        TestUtils.assertEquals(1, tmpExpression.getQuadraticTermRow(0));
+        TestUtils.assertEquals(2, tmpExpression.getQuadraticTermColumn(0));
+        TestUtils.assertEquals(6.0, tmpExpression.getAdjustedQuadraticTermFactor(0), 0.0);
+        TestUtils.assertEquals(5.0, tmpExpression.getQuadraticFactor(2, 1).doubleValue(), 0.0);
+    }
+
+    /**
+     * Random inserts, updates and removals (in random order) checked against a sorted map - the terms should always
+     * be in ascending order, without having to be sorted when read.
+     */
+    public void testFactorTermsRandomUpdates() {
+
+        final int tmpNumberOfVariables = 200;
+
+        final Variable[] tmpVariables = new Variable[tmpNumberOfVariables];
+        for (int v = 0; v < tmpNumberOfVariables; v++) {
+            tmpVariables[v] = new Variable("X" + v);
+        }
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpExpression = tmpModel.addExpression("RANDOM");
+        final TreeMap<Integer, Double> tmpExpected = new TreeMap<Integer, Double>();
+
+        final Random tmpRandom = new Random(20141019L);
+
+        for (int i = 0; i < 5000; i++) {
+
+            final int tmpIndex = tmpRandom.nextInt(tmpNumberOfVariables);
+            final double tmpValue = tmpRandom.nextInt(3) == 0 ? 0.0 : 1.0 + tmpRandom.nextInt(9);
+
+            tmpExpression.setLinearFactor(tmpIndex, tmpValue);
+            if (tmpValue == 0.0) {
+                tmpExpected.remove(tmpIndex);
+            } else {
+                tmpExpected.put(tmpIndex, tmpValue);
+            }
+
+            if ((i % 97) == 0) {
+                TestUtils.assertEquals(tmpExpected.size(), tmpExpression.countLinearFactors());
+                int t = 0;
+                for (final Map.Entry<Integer, Double> tmpEntry : tmpExpected.entrySet()) {
+                    TestUtils.assertEquals(tmpEntry.getKey().intValue(), tmpExpression.getLinearTermIndex(t));
+                    TestUtils.assertEquals(tmpEntry.getValue().doubleValue(), tmpExpression.getAdjustedLinearTermFactor(t), 0.0);
+                    TestUtils.assertEquals(tmpEntry.getValue().doubleValue(), tmpExpression.getAdjustedLinearFactor(tmpEntry.getKey()), 0.0);
+                    t++;
+                }
+            }
+        }
+
+        for (int v = 0; v < tmpNumberOfVariables; v++) {
+            tmpExpression.setLinearFactor(v, ZERO);
+            TestUtils.assertEquals(0.0, tmpExpression.getAdjustedLinearFactor(v), 0.0);
+        }
+        TestUtils.assertEquals(0, tmpExpression.countLinearFactors());
+    }
+
     public void testMPStestprob() {
 
         final Variable tmpXONE = new Variable("XONE").weight(ONE).lower(ZERO).upper(FOUR);
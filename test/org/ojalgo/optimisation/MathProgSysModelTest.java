@@ -0,0 +1,143 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.ojalgo.FunctionalityTest;
+import org.ojalgo.TestUtils;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * @author apete
+ */
+public class MathProgSysModelTest extends FunctionalityTest {
+
+    private static final String AFIRO = "./test/org/ojalgo/optimisation/linear/afiro.mps";
+
+    /**
+     * max 2x + 3y (with x integer), x + y <= 4, 1 <= x + 3y <= 6 (ranged), x <= 3, y free
+     */
+    private static final String FREE = "NAME free format example\n" + "OBJSENSE\n" + "    MAXIMIZE\n" + "ROWS\n" + " N obj\n" + " L c1\n" + " G c2\n"
+            + "COLUMNS\n" + " MARKER 'MARKER' 'INTORG'\n" + " x obj 2 c1 1\n" + " x c2 1\n" + " MARKER 'MARKER' 'INTEND'\n" + " y obj 3.0E0 c1 1.\n"
+            + " y c2 3D0\n" + "RHS\n" + " c1 4 c2 1\n" + "RANGES\n" + " rng c2 5\n" + "BOUNDS\n" + " UP bnd x 3\n" + " FR y\n" + "ENDATA\n";
+
+    private static MathProgSysModel parse(final String text) throws IOException {
+        return MathProgSysModel.parse(new ByteArrayInputStream(text.getBytes("US-ASCII")));
+    }
+
+    public MathProgSysModelTest() {
+        super();
+    }
+
+    public MathProgSysModelTest(final String someName) {
+        super(someName);
+    }
+
+    public void testFreeFormat() throws IOException {
+
+        final MathProgSysModel tmpModel = MathProgSysModelTest.parse(FREE);
+
+        TestUtils.assertEquals("free format example", tmpModel.getName());
+        TestUtils.assertTrue(tmpModel.isMaximisation());
+
+        final ExpressionsBasedModel tmpDelegate = tmpModel.getExpressionsBasedModel();
+
+        TestUtils.assertEquals(2, tmpDelegate.countVariables());
+        TestUtils.assertTrue(tmpDelegate.getVariable(0).isInteger());
+        TestUtils.assertFalse(tmpDelegate.getVariable(1).isInteger());
+        TestUtils.assertEquals(new BigDecimal(3), tmpDelegate.getVariable(0).getUpperLimit());
+        TestUtils.assertFalse(tmpDelegate.getVariable(1).isLowerLimitSet());
+
+        final Expression tmpC2 = tmpDelegate.getExpression("c2");
+        TestUtils.assertEquals(BigDecimal.ONE, tmpC2.getLowerLimit());
+        TestUtils.assertEquals(new BigDecimal(6), tmpC2.getUpperLimit());
+        TestUtils.assertEquals(3.0, tmpC2.getLinearFactor(tmpDelegate.getVariable(1)).doubleValue());
+
+        // x = 3, y = 1
+        final Optimisation.Result tmpResult = tmpModel.solve();
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+        TestUtils.assertEquals(9.0, tmpResult.getValue(), NumberContext.getGeneral(8));
+    }
+
+    public void testGzipFile() throws IOException {
+
+        final File tmpFile = File.createTempFile("afiro", ".mps.gz");
+        tmpFile.deleteOnExit();
+
+        final InputStream tmpInput = new FileInputStream(AFIRO);
+        final OutputStream tmpOutput = new GZIPOutputStream(new FileOutputStream(tmpFile));
+        final byte[] tmpBuffer = new byte[1024];
+        int tmpRead;
+        while ((tmpRead = tmpInput.read(tmpBuffer)) != -1) {
+            tmpOutput.write(tmpBuffer, 0, tmpRead);
+        }
+        tmpInput.close();
+        tmpOutput.close();
+
+        final MathProgSysModel tmpPlain = MathProgSysModel.parse(new File(AFIRO));
+        final MathProgSysModel tmpCompressed = MathProgSysModel.parse(tmpFile);
+
+        TestUtils.assertEquals(tmpPlain.getName(), tmpCompressed.getName());
+        TestUtils.assertEquals(tmpPlain.getExpressionsBasedModel().countVariables(), tmpCompressed.getExpressionsBasedModel().countVariables());
+        TestUtils.assertEquals(tmpPlain.solve().getValue(), tmpCompressed.solve().getValue(), NumberContext.getGeneral(8));
+
+        final ByteArrayOutputStream tmpBytes = new ByteArrayOutputStream();
+        final OutputStream tmpZipped = new GZIPOutputStream(tmpBytes);
+        tmpZipped.write(FREE.getBytes("US-ASCII"));
+        tmpZipped.close();
+
+        final MathProgSysModel tmpStreamed = MathProgSysModel.parse(new GZIPInputStream(new ByteArrayInputStream(tmpBytes.toByteArray())));
+        TestUtils.assertEquals(9.0, tmpStreamed.solve().getValue(), NumberContext.getGeneral(8));
+    }
+
+    public void testParseDouble() {
+
+        final String[] tmpNumbers = { "0", "-0.5", "1.", ".25", "3D0", "1e-300", "123456789012345678901234", "0.1", "-2.2250738585072014E-308", "9.87654321E21" };
+
+        for (int i = 0; i < tmpNumbers.length; i++) {
+            final char[] tmpChars = tmpNumbers[i].toCharArray();
+            final double tmpExpected = Double.parseDouble(tmpNumbers[i].replace('D', 'E'));
+            TestUtils.assertEquals(tmpNumbers[i], tmpExpected, MathProgSysParser.parseDouble(tmpChars, 0, tmpChars.length), 0.0);
+        }
+    }
+
+    public void testParseError() {
+        try {
+            MathProgSysModelTest.parse(FREE.replace(" x c2 1\n", " x c3 1\n"));
+            TestUtils.fail("Unknown row not detected");
+        } catch (final IOException expected) {
+            TestUtils.assertTrue(expected.getMessage(), expected.getMessage().contains("line 11"));
+        }
+    }
+
+}
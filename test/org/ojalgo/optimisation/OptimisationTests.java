@@ -29,7 +29,11 @@ public abstract class OptimisationTests extends FunctionalityTest {
     public static Test suite() {
         final TestSuite suite = new TestSuite(OptimisationTests.class.getPackage().getName());
         //$JUnit-BEGIN$
+        suite.addTestSuite(CompiledModelTest.class);
         suite.addTestSuite(ExpressionsBasedModelTest.class);
+        suite.addTestSuite(MathProgSysModelTest.class);
+        suite.addTestSuite(PresolverTest.class);
+        suite.addTestSuite(ProgressListenerTest.class);
         //$JUnit-END$
         return suite;
     }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import static org.ojalgo.constant.BigMath.*;
+
+import org.ojalgo.FunctionalityTest;
+import org.ojalgo.TestUtils;
+
+/**
+ * @author apete
+ */
+public class PresolverTest extends FunctionalityTest {
+
+    public PresolverTest() {
+        super();
+    }
+
+    public PresolverTest(final String someName) {
+        super(someName);
+    }
+
+    /**
+     * min x + y, x + y >= 1 stated twice (scaled), and a singleton row x <= 0.25
+     */
+    public void testDuplicateAndSingletonRows() {
+
+        final Variable tmpX = new Variable("X").weight(ONE).lower(ZERO);
+        final Variable tmpY = new Variable("Y").weight(TWO).lower(ZERO);
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { tmpX, tmpY });
+
+        final Expression tmpSum1 = tmpModel.addExpression("SUM1").lower(ONE);
+        tmpSum1.setLinearFactor(tmpX, ONE);
+        tmpSum1.setLinearFactor(tmpY, ONE);
+
+        final Expression tmpSum2 = tmpModel.addExpression("SUM2").lower(TWO);
+        tmpSum2.setLinearFactor(tmpX, TWO);
+        tmpSum2.setLinearFactor(tmpY, TWO);
+
+        final Expression tmpSingleton = tmpModel.addExpression("SINGLETON").upper(QUARTER);
+        tmpSingleton.setLinearFactor(tmpX, ONE);
+
+        tmpModel.setMinimisation();
+        tmpModel.presolve();
+
+        TestUtils.assertTrue(tmpSum1.isRedundant() != tmpSum2.isRedundant());
+        TestUtils.assertTrue(tmpSingleton.isRedundant());
+        TestUtils.assertEquals(QUARTER, tmpX.getUpperLimit());
+
+        tmpModel.getPresolver().undo();
+
+        TestUtils.assertFalse(tmpSum1.isRedundant() || tmpSum2.isRedundant() || tmpSingleton.isRedundant());
+        TestUtils.assertFalse(tmpX.isUpperLimitSet());
+
+        final Optimisation.Result tmpResult = tmpModel.minimise();
+
+        TestUtils.assertTrue(tmpResult.getState().isFeasible());
+        TestUtils.assertEquals(0.25, tmpResult.doubleValue(0), 1E-9);
+        TestUtils.assertEquals(0.75, tmpResult.doubleValue(1), 1E-9);
+        TestUtils.assertEquals(1.75, tmpResult.getValue(), 1E-9);
+    }
+
+    /**
+     * Y has a positive cost and only appears with a positive factor in constraints without lower limits. It
+     * should be fixed at its lower limit, and the remaining variable is then fixed by the singleton row.
+     */
+    public void testDominatedColumn() {
+
+        final Variable tmpX = new Variable("X").weight(ONE.negate()).lower(ZERO).upper(TEN);
+        final Variable tmpY = new Variable("Y").weight(ONE).lower(ONE).upper(TEN);
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { tmpX, tmpY });
+
+        final Expression tmpLimit = tmpModel.addExpression("LIMIT").upper(FIVE);
+        tmpLimit.setLinearFactor(tmpX, ONE);
+        tmpLimit.setLinearFactor(tmpY, ONE);
+
+        final Optimisation.Result tmpResult = tmpModel.minimise();
+
+        TestUtils.assertTrue(tmpResult.getState().isOptimal());
+        TestUtils.assertEquals(4.0, tmpResult.doubleValue(0), 1E-9);
+        TestUtils.assertEquals(1.0, tmpResult.doubleValue(1), 1E-9);
+
+        // Maximising reverses the objective - now X is dominated
+        final Optimisation.Result tmpMaxResult = tmpModel.maximise();
+
+        TestUtils.assertTrue(tmpMaxResult.getState().isFeasible());
+        TestUtils.assertEquals(0.0, tmpMaxResult.doubleValue(0), 1E-9);
+        TestUtils.assertEquals(5.0, tmpMaxResult.doubleValue(1), 1E-9);
+
+        tmpModel.getPresolver().undo();
+
+        TestUtils.assertEquals(TEN, tmpY.getUpperLimit());
+    }
+
+    /**
+     * 3x + 2y <= 7 with x, y non-negative integers implies x <= 2 and y <= 3. Two rows that can't both be
+     * satisfied are detected as infeasible without invoking a solver.
+     */
+    public void testIntegerBoundTightening() {
+
+        final Variable tmpX = new Variable("X").weight(ONE.negate()).lower(ZERO).integer(true);
+        final Variable tmpY = new Variable("Y").weight(ONE.negate()).lower(ZERO).integer(true);
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { tmpX, tmpY });
+
+        final Expression tmpRow = tmpModel.addExpression("ROW").upper(SEVEN);
+        tmpRow.setLinearFactor(tmpX, THREE);
+        tmpRow.setLinearFactor(tmpY, TWO);
+
+        tmpModel.setMinimisation();
+        tmpModel.presolve();
+
+        TestUtils.assertEquals(TWO, tmpX.getUpperLimit());
+        TestUtils.assertEquals(THREE, tmpY.getUpperLimit());
+        TestUtils.assertFalse(tmpModel.isInfeasible());
+
+        final Expression tmpConflict = tmpModel.addExpression("CONFLICT").lower(TEN);
+        tmpConflict.setLinearFactor(tmpX, THREE);
+        tmpConflict.setLinearFactor(tmpY, TWO);
+
+        tmpModel.presolve();
+
+        TestUtils.assertTrue(tmpModel.isInfeasible());
+
+        tmpModel.getPresolver().undo();
+
+        TestUtils.assertFalse(tmpX.isUpperLimitSet());
+        TestUtils.assertFalse(tmpY.isUpperLimitSet());
+    }
+
+}
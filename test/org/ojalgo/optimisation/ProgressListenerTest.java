@@ -0,0 +1,253 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.convex.ConvexSolver;
+import org.ojalgo.optimisation.integer.IntegerSolver;
+import org.ojalgo.optimisation.integer.OptimisationIntegerData;
+import org.ojalgo.optimisation.linear.LinearSolver;
+
+/**
+ * @author apete
+ */
+public class ProgressListenerTest extends OptimisationTests {
+
+    static final class Recorder implements Optimisation.Listener {
+
+        private final Class<?> myStopSolver;
+        final List<Optimisation.Progress> reports = Collections.synchronizedList(new ArrayList<Optimisation.Progress>());
+
+        Recorder(final Class<?> stopSolver) {
+
+            super();
+
+            myStopSolver = stopSolver;
+        }
+
+        public boolean progress(final Optimisation.Progress progress) {
+
+            reports.add(progress);
+
+            return (myStopSolver == null) || (progress.event != Optimisation.Progress.Event.ITERATION) || !myStopSolver.isAssignableFrom(progress.solver);
+        }
+
+        List<Optimisation.Progress> get(final Class<?> solver) {
+
+            final List<Optimisation.Progress> retVal = new ArrayList<>();
+
+            synchronized (reports) {
+                for (final Optimisation.Progress tmpProgress : reports) {
+                    if (solver.isAssignableFrom(tmpProgress.solver)) {
+                        retVal.add(tmpProgress);
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    public ProgressListenerTest() {
+        super();
+    }
+
+    public ProgressListenerTest(final String someName) {
+        super(someName);
+    }
+
+    /**
+     * min (x-1)<sup>2</sup> + (y-2)<sup>2</sup> subject to x + y = 2
+     */
+    public void testConvexProgress() {
+
+        final Variable[] tmpVariables = new Variable[] { new Variable("X"), new Variable("Y") };
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpObjective = tmpModel.addExpression("Objective").weight(BigDecimal.ONE);
+        tmpObjective.setQuadraticFactor(0, 0, BigDecimal.ONE);
+        tmpObjective.setQuadraticFactor(1, 1, BigDecimal.ONE);
+        tmpObjective.setLinearFactor(0, new BigDecimal(-2));
+        tmpObjective.setLinearFactor(1, new BigDecimal(-4));
+
+        final Expression tmpSum = tmpModel.addExpression("Sum");
+        tmpSum.setLinearFactor(0, BigDecimal.ONE);
+        tmpSum.setLinearFactor(1, BigDecimal.ONE);
+        tmpSum.level(new BigDecimal(2));
+
+        final Recorder tmpRecorder = new Recorder(null);
+        tmpModel.options.progress_listener = tmpRecorder;
+
+        final Optimisation.Result tmpResult = tmpModel.minimise();
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+        TestUtils.assertEquals(0.5, tmpResult.doubleValue(0), 1E-6);
+
+        final List<Optimisation.Progress> tmpReports = tmpRecorder.get(ConvexSolver.class);
+        TestUtils.assertEquals(Optimisation.Progress.Event.STARTED, tmpReports.get(0).event);
+
+        final Optimisation.Progress tmpLast = tmpReports.get(tmpReports.size() - 1);
+        TestUtils.assertEquals(Optimisation.Progress.Event.FINISHED, tmpLast.event);
+        TestUtils.assertTrue(tmpLast.iterations >= 1);
+        TestUtils.assertTrue(tmpLast.factorisations >= tmpLast.iterations);
+        TestUtils.assertTrue(tmpLast.getPhaseTime(Optimisation.Progress.Phase.FACTORISATION) > 0L);
+        TestUtils.assertEquals(-1L, tmpLast.nodesExplored);
+        TestUtils.assertTrue(Double.isNaN(tmpLast.getGap()));
+    }
+
+    /**
+     * An incumbent of 0 should not give an infinite (or NaN) gap
+     */
+    public void testGapWithZeroIncumbent() {
+
+        final long[] tmpPhaseTimes = new long[Optimisation.Progress.Phase.values().length];
+
+        final Optimisation.Progress tmpOpen = new Optimisation.Progress(Optimisation.Progress.Event.ITERATION, IntegerSolver.class, 1, 0L, 0,
+                tmpPhaseTimes, 1L, 1L, 0.5, 0.0);
+        TestUtils.assertEquals(0.5E10, tmpOpen.getGap(), 1.0);
+
+        final Optimisation.Progress tmpClosed = new Optimisation.Progress(Optimisation.Progress.Event.FINISHED, IntegerSolver.class, 1, 0L, 0,
+                tmpPhaseTimes, 1L, 0L, 0.0, 0.0);
+        TestUtils.assertEquals(0.0, tmpClosed.getGap(), 0.0);
+    }
+
+    public void testIntegerProgress() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+
+        final Recorder tmpRecorder = new Recorder(null);
+        tmpModel.options.progress_listener = tmpRecorder;
+
+        final Optimisation.Result tmpResult = tmpModel.maximise();
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+
+        final List<Optimisation.Progress> tmpReports = tmpRecorder.get(IntegerSolver.class);
+        TestUtils.assertEquals(Optimisation.Progress.Event.STARTED, tmpReports.get(0).event);
+
+        boolean tmpIteration = false;
+        boolean tmpIncumbent = false;
+        for (final Optimisation.Progress tmpProgress : tmpReports) {
+            tmpIteration |= tmpProgress.event == Optimisation.Progress.Event.ITERATION;
+            tmpIncumbent |= tmpProgress.event == Optimisation.Progress.Event.INCUMBENT;
+        }
+        TestUtils.assertTrue(tmpIteration);
+        TestUtils.assertTrue(tmpIncumbent);
+
+        final Optimisation.Progress tmpLast = tmpReports.get(tmpReports.size() - 1);
+        TestUtils.assertEquals(Optimisation.Progress.Event.FINISHED, tmpLast.event);
+        TestUtils.assertTrue(tmpLast.nodesExplored >= 1L);
+        TestUtils.assertTrue(tmpLast.getPhaseTime(Optimisation.Progress.Phase.PRESOLVE) > 0L);
+
+        // Maximisation - the bound is not less than the optimal value
+        TestUtils.assertEquals(60.0, tmpLast.incumbent, 1E-6);
+        TestUtils.assertTrue(tmpLast.bound >= (tmpLast.incumbent - 1E-6));
+        TestUtils.assertTrue(tmpLast.getGap() >= 0.0);
+
+        // Starting from the root relaxation value, the bound only tightens as the open nodes are evaluated
+        double tmpPreviousBound = Double.NaN;
+        for (final Optimisation.Progress tmpProgress : tmpReports) {
+            if (!Double.isNaN(tmpProgress.bound)) {
+                if (!Double.isNaN(tmpPreviousBound)) {
+                    TestUtils.assertTrue(tmpProgress.bound <= tmpPreviousBound);
+                }
+                if (!Double.isNaN(tmpProgress.incumbent)) {
+                    TestUtils.assertTrue(tmpProgress.bound >= (tmpProgress.incumbent - 1E-6));
+                }
+                tmpPreviousBound = tmpProgress.bound;
+            }
+        }
+
+        // With no open nodes left the bound is the incumbent
+        TestUtils.assertEquals(tmpLast.incumbent, tmpLast.bound, 1E-6);
+
+        // The node problems are solved by the linear solver - reporting to the same listener
+        TestUtils.assertFalse(tmpRecorder.get(LinearSolver.class).isEmpty());
+    }
+
+    /**
+     * max x + y subject to x + 2y &lt;= 4 and 3x + y &lt;= 6
+     */
+    public void testLinearProgress() {
+
+        final Variable[] tmpVariables = new Variable[] { new Variable("X").lower(BigDecimal.ZERO).weight(BigDecimal.ONE),
+                new Variable("Y").lower(BigDecimal.ZERO).weight(BigDecimal.ONE) };
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpFirst = tmpModel.addExpression("First");
+        tmpFirst.setLinearFactor(0, 1);
+        tmpFirst.setLinearFactor(1, 2);
+        tmpFirst.upper(new BigDecimal(4));
+
+        final Expression tmpSecond = tmpModel.addExpression("Second");
+        tmpSecond.setLinearFactor(0, 3);
+        tmpSecond.setLinearFactor(1, 1);
+        tmpSecond.upper(new BigDecimal(6));
+
+        final Recorder tmpRecorder = new Recorder(null);
+        tmpModel.options.progress_listener = tmpRecorder;
+
+        final Optimisation.Result tmpResult = tmpModel.maximise();
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+        TestUtils.assertEquals(2.8, tmpResult.getValue(), 1E-6);
+
+        final List<Optimisation.Progress> tmpReports = tmpRecorder.get(LinearSolver.class);
+        TestUtils.assertEquals(Optimisation.Progress.Event.STARTED, tmpReports.get(0).event);
+
+        final Optimisation.Progress tmpLast = tmpReports.get(tmpReports.size() - 1);
+        TestUtils.assertEquals(Optimisation.Progress.Event.FINISHED, tmpLast.event);
+        TestUtils.assertTrue(tmpLast.iterations >= 2);
+        TestUtils.assertEquals(tmpLast.iterations + 2, tmpReports.size());
+        TestUtils.assertTrue(tmpLast.getPhaseTime(Optimisation.Progress.Phase.PRICING) > 0L);
+        TestUtils.assertTrue(tmpLast.getPhaseTime(Optimisation.Progress.Phase.RATIO_TEST) > 0L);
+    }
+
+    /**
+     * Requesting termination at the first node should stop the branch&amp;bound search, and not return an optimal
+     * solution.
+     */
+    public void testTermination() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+
+        final Recorder tmpRecorder = new Recorder(IntegerSolver.class);
+        tmpModel.options.progress_listener = tmpRecorder;
+
+        final Optimisation.Result tmpResult = tmpModel.maximise();
+        TestUtils.assertFalse(tmpResult.getState().isOptimal());
+
+        final List<Optimisation.Progress> tmpReports = tmpRecorder.get(IntegerSolver.class);
+
+        int tmpIterations = 0;
+        for (final Optimisation.Progress tmpProgress : tmpReports) {
+            if (tmpProgress.event == Optimisation.Progress.Event.ITERATION) {
+                tmpIterations++;
+            }
+        }
+        TestUtils.assertEquals(1, tmpIterations);
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+
+/**
+ * @author apete
+ */
+public class BranchingRuleTest extends OptimisationIntegerTests {
+
+    public BranchingRuleTest() {
+        super();
+    }
+
+    public BranchingRuleTest(final String someName) {
+        super(someName);
+    }
+
+    /**
+     * The rule is selected with the solver options, and (unless changed) it's the most fractional rule.
+     */
+    public void testBranchingOption() {
+
+        TestUtils.assertEquals(Optimisation.Options.Branching.MOST_FRACTIONAL, new Optimisation.Options().branching);
+
+        for (final Optimisation.Options.Branching tmpBranching : Optimisation.Options.Branching.values()) {
+
+            final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+            tmpModel.options.branching = tmpBranching;
+
+            TestUtils.assertEquals(tmpBranching.name(), BranchingRule.make(tmpBranching).toString().toUpperCase().replace(' ', '_').replace('-', '_'));
+
+            final Optimisation.Result tmpResult = tmpModel.maximise();
+
+            TestUtils.assertStateNotLessThanOptimal(tmpResult);
+            TestUtils.assertEquals(tmpBranching.name(), 60.0, tmpResult.getValue(), PRECISION);
+        }
+    }
+
+    /**
+     * All rules should find the same optimal solution - they only affect the size of the tree.
+     */
+    public void testOptimalWithEachRule() {
+
+        final BranchingRule[] tmpRules = new BranchingRule[] { new BranchingRule.MostFractional(), new BranchingRule.PseudoCost(),
+                new BranchingRule.Reliability(), new BranchingRule.Strong() };
+
+        for (int r = 0; r < tmpRules.length; r++) {
+
+            final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+            final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+            tmpSolver.setBranchingRule(tmpRules[r]);
+
+            final Optimisation.Result tmpResult = tmpSolver.solve();
+
+            TestUtils.assertStateNotLessThanOptimal(tmpResult);
+            TestUtils.assertTrue(tmpRules[r].toString(), tmpModel.validate(tmpResult));
+            TestUtils.assertEquals(tmpRules[r].toString(), 60.0, tmpSolver.evaluateFunction(tmpResult), PRECISION);
+        }
+    }
+
+    public void testPseudoCosts() {
+
+        final PseudoCosts tmpPseudoCosts = new PseudoCosts(2);
+
+        // No observations at all
+        TestUtils.assertEquals(1.0, tmpPseudoCosts.getDown(0), PRECISION);
+        TestUtils.assertEquals(1.0, tmpPseudoCosts.getUp(1), PRECISION);
+
+        // Degradation 2.0 moving 0.5 down, and 3.0 moving 0.25 up
+        tmpPseudoCosts.updateStrong(0, -0.5, 2.0);
+        tmpPseudoCosts.updateStrong(0, 0.25, 3.0);
+
+        TestUtils.assertEquals(4.0, tmpPseudoCosts.getDown(0), PRECISION);
+        TestUtils.assertEquals(12.0, tmpPseudoCosts.getUp(0), PRECISION);
+
+        // Variables without observations get the average of those with
+        TestUtils.assertEquals(4.0, tmpPseudoCosts.getDown(1), PRECISION);
+        TestUtils.assertEquals(12.0, tmpPseudoCosts.getUp(1), PRECISION);
+
+        TestUtils.assertEquals(1, tmpPseudoCosts.countReliable(0));
+        TestUtils.assertEquals(0, tmpPseudoCosts.countReliable(1));
+        TestUtils.assertEquals(2, tmpPseudoCosts.countStrongSolves());
+
+        // Infeasible children count as strong branching solves, but do not affect the averages
+        tmpPseudoCosts.updateStrong(0, -0.5, Double.POSITIVE_INFINITY);
+        TestUtils.assertEquals(4.0, tmpPseudoCosts.getDown(0), PRECISION);
+        TestUtils.assertEquals(3, tmpPseudoCosts.countStrongSolves());
+        TestUtils.assertFalse(tmpPseudoCosts.isStrongBranchingAllowed(3, 0.5));
+        TestUtils.assertTrue(tmpPseudoCosts.isStrongBranchingAllowed(4, 0.5));
+    }
+
+    public void testStrongBranching() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+        final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+
+        final NodeKey tmpRootKey = new NodeKey(tmpModel);
+        final Optimisation.Result tmpRootResult = tmpSolver.makeNodeModel(tmpRootKey).solve(tmpModel.getVariableValues());
+        final double tmpRootValue = tmpSolver.evaluateFunction(tmpRootResult);
+
+        final int tmpIndex = new BranchingRule.Strong().select(tmpSolver, tmpRootKey, tmpRootResult, tmpRootValue);
+
+        TestUtils.assertTrue(tmpIndex >= 0);
+        TestUtils.assertFalse(tmpModel.options.integer.isZero(tmpRootKey.getFraction(tmpIndex, tmpRootResult.doubleValue(tmpIndex))));
+
+        // Each candidate evaluated, in both directions, and recorded with the pseudo-costs
+        final PseudoCosts tmpPseudoCosts = tmpSolver.getPseudoCosts();
+        TestUtils.assertTrue(tmpPseudoCosts.countStrongSolves() >= 2);
+        TestUtils.assertTrue(tmpPseudoCosts.countReliable(tmpIndex) <= 1);
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.math.BigDecimal;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.ArrayUtils;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * @author apete
+ */
+public class CutGeneratorTest extends OptimisationIntegerTests {
+
+    private static final NumberContext PRECISION = new NumberContext(7, 6);
+
+    /**
+     * Every cut in the pool must be satisfied by every integer point in the (small) box [0,max]<sup>n</sup>
+     * that satisfies the model's constraints.
+     */
+    private static void assertValid(final ExpressionsBasedModel model, final CutPool pool, final int max) {
+
+        final int tmpCountVariables = model.countVariables();
+        final int[] tmpPoint = new int[tmpCountVariables];
+
+        boolean tmpMore = true;
+        while (tmpMore) {
+
+            final double[] tmpValues = new double[tmpCountVariables];
+            final BigDecimal[] tmpSolution = new BigDecimal[tmpCountVariables];
+            for (int j = 0; j < tmpCountVariables; j++) {
+                tmpValues[j] = tmpPoint[j];
+                tmpSolution[j] = new BigDecimal(tmpPoint[j]);
+            }
+
+            if (model.validate(ArrayUtils.wrapAccess1D(tmpSolution))) {
+                for (int c = 0; c < pool.size(); c++) {
+                    final CutPool.Cut tmpCut = pool.get(c);
+                    TestUtils.assertTrue(tmpCut.toString(), tmpCut.efficacy(ArrayUtils.wrapAccess1D(tmpValues)) <= PRECISION.epsilon());
+                }
+            }
+
+            tmpMore = false;
+            for (int j = 0; !tmpMore && (j < tmpCountVariables); j++) {
+                if (tmpPoint[j] < max) {
+                    tmpPoint[j]++;
+                    tmpMore = true;
+                } else {
+                    tmpPoint[j] = 0;
+                }
+            }
+        }
+    }
+
+    public CutGeneratorTest() {
+        super();
+    }
+
+    public CutGeneratorTest(final String someName) {
+        super(someName);
+    }
+
+    /**
+     * 5x<sub>0</sub> + 5x<sub>1</sub> + 5x<sub>2</sub> + 3x<sub>3</sub> &lt;= 11 with binary variables. Any 3 of the
+     * first 3 variables is a cover, giving x<sub>0</sub> + x<sub>1</sub> + x<sub>2</sub> &lt;= 2 that cuts off the
+     * fractional point (1, 1, 0.2, 0).
+     */
+    public void testCoverCut() {
+
+        final Variable[] tmpVariables = new Variable[4];
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpVariables[j] = Variable.makeBinary("X" + j);
+        }
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpKnapsack = tmpModel.addExpression("Knapsack");
+        tmpKnapsack.setLinearFactor(0, 5);
+        tmpKnapsack.setLinearFactor(1, 5);
+        tmpKnapsack.setLinearFactor(2, 5);
+        tmpKnapsack.setLinearFactor(3, 3);
+        tmpKnapsack.upper(new BigDecimal(11));
+
+        final NodePresolver tmpRows = new NodePresolver(tmpModel);
+        final CutPool tmpPool = new CutPool();
+
+        final double[] tmpFractional = new double[] { 1.0, 1.0, 0.2, 0.0 };
+        final int tmpAdded = new CutGenerator.Cover().separate(tmpRows, ArrayUtils.wrapAccess1D(tmpFractional), tmpPool);
+
+        TestUtils.assertTrue(tmpAdded > 0);
+        TestUtils.assertEquals(tmpAdded, tmpPool.size());
+        for (int c = 0; c < tmpPool.size(); c++) {
+            TestUtils.assertTrue(tmpPool.get(c).efficacy(ArrayUtils.wrapAccess1D(tmpFractional)) > CutGenerator.MIN_EFFICACY);
+        }
+
+        CutGeneratorTest.assertValid(tmpModel, tmpPool, 1);
+    }
+
+    /**
+     * The (c-)MIR cuts derived from a row with general integer variables must not cut off any integer feasible point.
+     */
+    public void testMixedIntegerRoundingCut() {
+
+        final Variable[] tmpVariables = new Variable[3];
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpVariables[j] = new Variable("X" + j).lower(BigDecimal.ZERO).upper(new BigDecimal(3)).integer(true);
+        }
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpRow = tmpModel.addExpression("Row");
+        tmpRow.setLinearFactor(0, 3);
+        tmpRow.setLinearFactor(1, 5);
+        tmpRow.setLinearFactor(2, -2);
+        tmpRow.upper(new BigDecimal(7));
+
+        final NodePresolver tmpRows = new NodePresolver(tmpModel);
+        final CutPool tmpPool = new CutPool();
+
+        final double[] tmpFractional = new double[] { 0.0, 1.4, 0.0 };
+        final int tmpAdded = new CutGenerator.MixedIntegerRounding().separate(tmpRows, ArrayUtils.wrapAccess1D(tmpFractional), tmpPool);
+
+        TestUtils.assertTrue(tmpAdded > 0);
+
+        CutGeneratorTest.assertValid(tmpModel, tmpPool, 3);
+    }
+
+    /**
+     * 2x<sub>0</sub> + x<sub>2</sub> &lt;= 3 implies x<sub>0</sub> &lt;= 1, and then x<sub>0</sub> + x<sub>1</sub> &gt;= 5
+     * implies x<sub>1</sub> &gt;= 4. Branching down on both x<sub>1</sub> and x<sub>0</sub> makes the node infeasible.
+     */
+    public void testNodePresolver() {
+
+        final Variable[] tmpVariables = new Variable[3];
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpVariables[j] = new Variable("X" + j).lower(BigDecimal.ZERO).upper(new BigDecimal(5)).integer(true);
+        }
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpBounding = tmpModel.addExpression("Bounding");
+        tmpBounding.setLinearFactor(0, 2);
+        tmpBounding.setLinearFactor(2, 1);
+        tmpBounding.upper(new BigDecimal(3));
+
+        final Expression tmpCovering = tmpModel.addExpression("Covering");
+        tmpCovering.setLinearFactor(0, 1);
+        tmpCovering.setLinearFactor(1, 1);
+        tmpCovering.lower(new BigDecimal(5));
+
+        final NodePresolver tmpPresolver = new NodePresolver(tmpModel);
+
+        final NodeKey tmpRootKey = new NodeKey(tmpModel);
+        TestUtils.assertTrue(tmpRootKey.presolve(tmpPresolver, Double.NaN));
+        TestUtils.assertEquals(BigDecimal.ONE, tmpRootKey.getUpperBound(0));
+        TestUtils.assertEquals(new BigDecimal(4), tmpRootKey.getLowerBound(1));
+
+        final NodeKey tmpFeasibleKey = tmpRootKey.createLowerBranch(1, 4.5, Double.NaN);
+        TestUtils.assertTrue(tmpFeasibleKey.presolve(tmpPresolver, Double.NaN));
+        TestUtils.assertEquals(BigDecimal.ONE, tmpFeasibleKey.getLowerBound(0));
+
+        // Branched before propagation, as propagation would have fixed x0
+        final NodeKey tmpInfeasibleKey = new NodeKey(tmpModel).createLowerBranch(1, 4.5, Double.NaN).createLowerBranch(0, 0.5, Double.NaN);
+        TestUtils.assertFalse(tmpInfeasibleKey.presolve(tmpPresolver, Double.NaN));
+    }
+
+    /**
+     * Cuts, and bound propagation, must not change the optimal solution.
+     */
+    public void testKnapsackWithCuts() {
+
+        final int[] tmpWeights = new int[] { 12, 7, 11, 8, 9, 6, 13, 5 };
+        final int[] tmpValues = new int[] { 24, 13, 23, 15, 16, 11, 25, 8 };
+        final int tmpCapacity = 26;
+
+        final Variable[] tmpVariables = new Variable[tmpWeights.length];
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpVariables[j] = Variable.makeBinary("X" + j).weight(new BigDecimal(tmpValues[j]));
+        }
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpKnapsack = tmpModel.addExpression("Knapsack");
+        for (int j = 0; j < tmpWeights.length; j++) {
+            tmpKnapsack.setLinearFactor(j, tmpWeights[j]);
+        }
+        tmpKnapsack.upper(new BigDecimal(tmpCapacity));
+
+        int tmpBest = 0;
+        for (int s = 0; s < (1 << tmpWeights.length); s++) {
+            int tmpWeight = 0;
+            int tmpValue = 0;
+            for (int j = 0; j < tmpWeights.length; j++) {
+                if ((s & (1 << j)) != 0) {
+                    tmpWeight += tmpWeights[j];
+                    tmpValue += tmpValues[j];
+                }
+            }
+            if ((tmpWeight <= tmpCapacity) && (tmpValue > tmpBest)) {
+                tmpBest = tmpValue;
+            }
+        }
+
+        final Optimisation.Result tmpResult = tmpModel.maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+        TestUtils.assertTrue(tmpModel.validate(tmpResult));
+        TestUtils.assertEquals(tmpBest, tmpResult.getValue(), PRECISION);
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * @author apete
+ */
+public class NodeQueueTest extends OptimisationIntegerTests {
+
+    private static File makeDirectory() throws IOException {
+
+        final File retVal = File.createTempFile("NodeQueueTest", "");
+        retVal.delete();
+        retVal.mkdirs();
+        retVal.deleteOnExit();
+
+        return retVal;
+    }
+
+    public NodeQueueTest() {
+        super();
+    }
+
+    public NodeQueueTest(final String someName) {
+        super(someName);
+    }
+
+    /**
+     * Branching, and bound propagation, on a node - the compact form of each node should expand to the same bounds.
+     */
+    /**
+     * The bound is the best parent node value among the open nodes, incl. those spilled to file
+     */
+    public void testBound() throws IOException {
+
+        final NodeQueue tmpQueue = new NodeQueue(4, NodeQueueTest.makeDirectory());
+
+        TestUtils.assertTrue(Double.isNaN(tmpQueue.getBound(true)));
+
+        final NodeKey tmpRoot = new NodeKey(OptimisationIntegerData.buildTwoConstraintKnapsack());
+        for (int k = 0; k < 8; k++) {
+            // The most recently created nodes, those spilled, have the extreme values
+            tmpQueue.add(tmpRoot.createLowerBranch(k, 0.5, (k % 2) == 0 ? 20.0 - k : 30.0 + k));
+        }
+
+        TestUtils.assertTrue(tmpQueue.countSpilled() > 0);
+        TestUtils.assertEquals(14.0, tmpQueue.getBound(true), PRECISION);
+        TestUtils.assertEquals(37.0, tmpQueue.getBound(false), PRECISION);
+
+        // The root node has no (parent node) value - it doesn't bound anything
+        tmpQueue.add(tmpRoot);
+        TestUtils.assertTrue(tmpQueue.getBound(true) == Double.NEGATIVE_INFINITY);
+        TestUtils.assertTrue(tmpQueue.getBound(false) == Double.POSITIVE_INFINITY);
+
+        tmpQueue.clear();
+        TestUtils.assertTrue(Double.isNaN(tmpQueue.getBound(false)));
+    }
+
+    public void testCompact() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+        final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+
+        final NodeKey tmpRoot = new NodeKey(tmpModel);
+        final NodeKey tmpChild = tmpRoot.createUpperBranch(0, 0.5, 60.0);
+        final NodeKey tmpGrandchild = tmpChild.createUpperBranch(2, 0.5, 55.0);
+
+        TestUtils.assertEquals(1, tmpGrandchild.delta().size());
+
+        // X0 = X2 = 1 leaves weight capacity 7, and X3, X4 and X6 must be 0
+        TestUtils.assertTrue(tmpSolver.presolve(tmpGrandchild));
+        TestUtils.assertEquals(BigDecimal.ZERO, tmpGrandchild.getUpperBound(6));
+        TestUtils.assertEquals(3, tmpGrandchild.delta().size());
+
+        final NodeKey tmpGreatGrandchild = tmpGrandchild.createLowerBranch(1, 0.5, 50.0);
+
+        final NodeKey[] tmpKeys = new NodeKey[] { tmpRoot, tmpChild, tmpGrandchild, tmpGreatGrandchild };
+        for (int k = 0; k < tmpKeys.length; k++) {
+            final NodeKey tmpExpanded = tmpKeys[k].compact().expand();
+            TestUtils.assertEquals(tmpKeys[k], tmpExpanded);
+            TestUtils.assertEquals(tmpKeys[k].sequence, tmpExpanded.sequence);
+            TestUtils.assertEquals(tmpKeys[k].index, tmpExpanded.index);
+            TestUtils.assertEquals(tmpKeys[k].displacement, tmpExpanded.displacement, PRECISION);
+        }
+        TestUtils.assertEquals(BigDecimal.ZERO, tmpGreatGrandchild.compact().expand().getUpperBound(6));
+    }
+
+    public void testDepthFirstWhenFull() {
+
+        final NodeQueue tmpQueue = new NodeQueue(4, null);
+
+        final NodeKey tmpRoot = new NodeKey(OptimisationIntegerData.buildTwoConstraintKnapsack());
+        final NodeKey[] tmpKeys = new NodeKey[6];
+        for (int k = 0; k < tmpKeys.length; k++) {
+            tmpKeys[k] = tmpRoot.createLowerBranch(k, 0.5, 60.0);
+            tmpQueue.add(tmpKeys[k]);
+        }
+
+        TestUtils.assertTrue(tmpQueue.isDepthFirst());
+
+        // Most recent first, until less than half the capacity
+        TestUtils.assertEquals(tmpKeys[5].sequence, tmpQueue.poll().sequence);
+        TestUtils.assertEquals(tmpKeys[4].sequence, tmpQueue.poll().sequence);
+        TestUtils.assertEquals(tmpKeys[3].sequence, tmpQueue.poll().sequence);
+        TestUtils.assertEquals(tmpKeys[2].sequence, tmpQueue.poll().sequence);
+        TestUtils.assertTrue(tmpQueue.isDepthFirst());
+        TestUtils.assertEquals(tmpKeys[1].sequence, tmpQueue.poll().sequence);
+        TestUtils.assertFalse(tmpQueue.isDepthFirst());
+        TestUtils.assertEquals(tmpKeys[0].sequence, tmpQueue.poll().sequence);
+
+        TestUtils.assertTrue(tmpQueue.isEmpty());
+        TestUtils.assertTrue(tmpQueue.poll() == null);
+    }
+
+    /**
+     * A tiny capacity, with spilling, should not change the solution
+     */
+    public void testOptimalWithSmallQueue() throws IOException {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+        tmpModel.options.nodes_capacity = 2;
+        tmpModel.options.nodes_spill_directory = NodeQueueTest.makeDirectory();
+
+        final NewIntegerSolver tmpSolver = new NewIntegerSolver(tmpModel, tmpModel.options);
+        final Optimisation.Result tmpResult = tmpSolver.solve(null);
+
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+        TestUtils.assertTrue(tmpModel.validate(tmpResult));
+        TestUtils.assertEquals(60.0, tmpSolver.evaluateFunction(tmpResult), PRECISION);
+
+        TestUtils.assertEquals(0, tmpModel.options.nodes_spill_directory.listFiles().length);
+    }
+
+    public void testSpill() throws IOException {
+
+        final File tmpDirectory = NodeQueueTest.makeDirectory();
+        final NodeQueue tmpQueue = new NodeQueue(4, tmpDirectory);
+
+        final NodeKey tmpRoot = new NodeKey(OptimisationIntegerData.buildTwoConstraintKnapsack());
+        final Set<NodeKey> tmpAdded = new HashSet<>();
+        for (int k = 0; k < 8; k++) {
+            final NodeKey tmpChild = tmpRoot.createLowerBranch(k, 0.5, 60.0);
+            final NodeKey tmpGrandchild = tmpChild.createUpperBranch((k + 1) % 8, 0.5, 55.0);
+            tmpQueue.add(tmpGrandchild);
+            tmpAdded.add(tmpGrandchild);
+        }
+
+        TestUtils.assertTrue(tmpQueue.countSpilled() > 0);
+        TestUtils.assertTrue(tmpQueue.size() <= 4);
+        TestUtils.assertFalse(tmpQueue.isDepthFirst());
+
+        final Set<NodeKey> tmpPolled = new HashSet<>();
+        NodeKey tmpNode;
+        while ((tmpNode = tmpQueue.poll()) != null) {
+            tmpPolled.add(tmpNode);
+        }
+
+        TestUtils.assertEquals(tmpAdded.size(), tmpPolled.size());
+        TestUtils.assertTrue(tmpPolled.containsAll(tmpAdded));
+        TestUtils.assertEquals(0, tmpQueue.countSpilled());
+        TestUtils.assertEquals(0, tmpDirectory.listFiles().length);
+    }
+
+    /**
+     * Spilling nodes at the end of a very deep chain of deltas. Nothing should be written recursively, and the
+     * reloaded nodes should again share the deltas (here the root) that the nodes kept in memory depend on.
+     */
+    public void testSpillDeepChain() throws IOException {
+
+        final int tmpDepth = 20000;
+
+        final Variable tmpVariable = new Variable("X").lower(BigDecimal.ZERO).upper(new BigDecimal(2 * tmpDepth)).integer(true).weight(BigDecimal.ONE);
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { tmpVariable });
+
+        final File tmpDirectory = NodeQueueTest.makeDirectory();
+        final NodeQueue tmpQueue = new NodeQueue(4, tmpDirectory);
+
+        final NodeKey tmpRoot = new NodeKey(tmpModel);
+        final Set<NodeKey> tmpAdded = new HashSet<>();
+
+        // The shallow nodes first, as they would be created
+        NodeKey tmpNode = tmpRoot;
+        for (int d = 1; d <= tmpDepth; d++) {
+            tmpNode = tmpNode.createLowerBranch(0, ((2 * tmpDepth) - d) + 0.5, 0.0);
+            if ((d <= 2) || (d > (tmpDepth - 4))) {
+                tmpQueue.add(tmpNode);
+                tmpAdded.add(tmpNode);
+            }
+        }
+
+        TestUtils.assertEquals(2, tmpQueue.countSpilled());
+        TestUtils.assertEquals(4, tmpQueue.size());
+
+        final Set<NodeKey> tmpPolled = new HashSet<>();
+        while ((tmpNode = tmpQueue.poll()) != null) {
+
+            tmpPolled.add(tmpNode);
+
+            NodeKey.Delta tmpDelta = tmpNode.delta();
+            while (tmpDelta.getBase() != null) {
+                tmpDelta = tmpDelta.getBase();
+            }
+            TestUtils.assertTrue(tmpDelta == tmpRoot.delta());
+        }
+
+        TestUtils.assertEquals(tmpAdded.size(), tmpPolled.size());
+        TestUtils.assertTrue(tmpPolled.containsAll(tmpAdded));
+        TestUtils.assertEquals(0, tmpDirectory.listFiles().length);
+    }
+
+}
@@ -23,6 +23,8 @@ package org.ojalgo.optimisation.integer;
 
 import static org.ojalgo.constant.BigMath.*;
 
+import java.math.BigDecimal;
+
 import org.ojalgo.optimisation.Expression;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
 import org.ojalgo.optimisation.Variable;
@@ -51,6 +53,35 @@ public abstract class OptimisationIntegerData {
         return retVal;
     }
 
+    /**
+     * A knapsack with 2 capacity constraints - 8 binary variables, optimal value 60
+     */
+    public static ExpressionsBasedModel buildTwoConstraintKnapsack() {
+
+        final int[] tmpValues = new int[] { 24, 13, 23, 15, 16, 11, 25, 8 };
+        final int[] tmpWeights = new int[] { 12, 7, 11, 8, 9, 6, 13, 5 };
+        final int[] tmpVolumes = new int[] { 3, 9, 4, 6, 2, 8, 5, 7 };
+
+        final Variable[] tmpVariables = new Variable[tmpValues.length];
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpVariables[j] = Variable.makeBinary("X" + j).weight(new BigDecimal(tmpValues[j]));
+        }
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpWeight = retVal.addExpression("Weight");
+        final Expression tmpVolume = retVal.addExpression("Volume");
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpWeight.setLinearFactor(j, tmpWeights[j]);
+            tmpVolume.setLinearFactor(j, tmpVolumes[j]);
+        }
+        tmpWeight.upper(new BigDecimal(30));
+        tmpVolume.upper(new BigDecimal(20));
+
+        retVal.setMaximisation();
+
+        return retVal;
+    }
+
     public OptimisationIntegerData() {
         super();
     }
@@ -16,6 +16,7 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.ojalgo.FunctionalityTest;
+import org.ojalgo.type.context.NumberContext;
 
 /**
  * OptimisationIntegerPackageTests
@@ -25,15 +26,20 @@ import org.ojalgo.FunctionalityTest;
 public abstract class OptimisationIntegerTests extends FunctionalityTest {
 
     static final boolean DEBUG = false;
+    static final NumberContext PRECISION = new NumberContext(7, 6);
 
     public static Test suite() {
         final TestSuite suite = new TestSuite(OptimisationIntegerTests.class.getPackage().getName());
         //$JUnit-BEGIN$
+        suite.addTestSuite(BranchingRuleTest.class);
+        suite.addTestSuite(CutGeneratorTest.class);
         suite.addTestSuite(DesignCase.class);
         suite.addTestSuite(KnapsackTest.class);
         //suite.addTestSuite(LpsolveSemiContCase.class);
         suite.addTestSuite(MarketShareCase.class);
         //suite.addTestSuite(MipCase.class);
+        suite.addTestSuite(NodeQueueTest.class);
+        suite.addTestSuite(PrimalHeuristicTest.class);
         suite.addTestSuite(RelaxedLpCase.class);
         suite.addTestSuite(IntegerProblems.class);
         suite.addTestSuite(SpecificBranchCase.class);
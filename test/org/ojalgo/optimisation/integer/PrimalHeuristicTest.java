@@ -0,0 +1,154 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.math.BigDecimal;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * @author apete
+ */
+public class PrimalHeuristicTest extends OptimisationIntegerTests {
+
+    public PrimalHeuristicTest() {
+        super();
+    }
+
+    public PrimalHeuristicTest(final String someName) {
+        super(someName);
+    }
+
+    public void testDiving() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+        final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+
+        final NodeKey tmpRootKey = new NodeKey(tmpModel);
+        final Optimisation.Result tmpRootResult = tmpSolver.makeNodeModel(tmpRootKey).solve(tmpModel.getVariableValues());
+
+        TestUtils.assertTrue(new PrimalHeuristic.Diving(false).search(tmpSolver, tmpRootKey, tmpRootResult));
+        TestUtils.assertTrue(tmpModel.validate(tmpSolver.getBestResultSoFar()));
+        TestUtils.assertTrue(tmpSolver.getBestResultSoFar().getValue() <= tmpSolver.evaluateFunction(tmpRootResult));
+
+        // Guided diving, and RINS, require an incumbent - now there is one
+        new PrimalHeuristic.Diving(true).search(tmpSolver, tmpRootKey, tmpRootResult);
+        new PrimalHeuristic.RelaxationInducedNeighbourhood().search(tmpSolver, tmpRootKey, tmpRootResult);
+        TestUtils.assertTrue(tmpModel.validate(tmpSolver.getBestResultSoFar()));
+    }
+
+    public void testFeasibilityPump() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+
+        // Require at least 3 items (makes rounding down infeasible)
+        final Expression tmpCount = tmpModel.addExpression("Count");
+        for (int j = 0; j < tmpModel.countVariables(); j++) {
+            tmpCount.setLinearFactor(j, 1);
+        }
+        tmpCount.lower(new BigDecimal(3));
+
+        final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+
+        final NodeKey tmpRootKey = new NodeKey(tmpModel);
+        final Optimisation.Result tmpRootResult = tmpSolver.makeNodeModel(tmpRootKey).solve(tmpModel.getVariableValues());
+
+        TestUtils.assertTrue(new PrimalHeuristic.FeasibilityPump().search(tmpSolver, tmpRootKey, tmpRootResult));
+        TestUtils.assertTrue(tmpModel.validate(tmpSolver.getBestResultSoFar()));
+
+        // Only used to find a first integer solution
+        TestUtils.assertFalse(new PrimalHeuristic.FeasibilityPump().search(tmpSolver, tmpRootKey, tmpRootResult));
+    }
+
+    /**
+     * Should find the optimal solution regardless of which heuristics found incumbents along the way
+     */
+    public void testOptimalWithHeuristics() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+
+        final Optimisation.Result tmpResult = tmpModel.maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(tmpResult);
+        TestUtils.assertTrue(tmpModel.validate(tmpResult));
+        // X0, X1 and X2 - verified by brute force
+        TestUtils.assertEquals(60.0, tmpResult.getValue(), PRECISION);
+    }
+
+    /**
+     * Heuristics forked at the root node run on their own pool, and stopping them returns only when those already
+     * started are done (those still queued are cancelled).
+     */
+    public void testStopHeuristics() {
+
+        final ExpressionsBasedModel tmpModel = OptimisationIntegerData.buildTwoConstraintKnapsack();
+        final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+
+        final NodeKey tmpRootKey = new NodeKey(tmpModel);
+        final Optimisation.Result tmpRootResult = tmpSolver.makeNodeModel(tmpRootKey).solve(tmpModel.getVariableValues());
+
+        tmpSolver.runHeuristics(tmpRootKey, tmpRootResult);
+        tmpSolver.stopHeuristics();
+
+        TestUtils.assertTrue(tmpSolver.isHeuristicsStopped());
+
+        final Optimisation.Result tmpIncumbent = tmpSolver.getBestResultSoFar();
+        TestUtils.assertTrue(tmpModel.validate(tmpIncumbent));
+
+        // Nothing more is started once stopped
+        tmpSolver.runHeuristics(tmpRootKey, tmpRootResult);
+        TestUtils.assertEquals(tmpIncumbent.getValue(), tmpSolver.getBestResultSoFar().getValue(), PRECISION);
+    }
+
+    /**
+     * max x<sub>0</sub> + x<sub>1</sub> subject to x<sub>0</sub> + x<sub>1</sub> &lt;= 3.5 can always be rounded down.
+     */
+    public void testRounding() {
+
+        final Variable[] tmpVariables = new Variable[2];
+        for (int j = 0; j < tmpVariables.length; j++) {
+            tmpVariables[j] = new Variable("X" + j).lower(BigDecimal.ZERO).upper(new BigDecimal(5)).integer(true).weight(BigDecimal.ONE);
+        }
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        final Expression tmpSum = tmpModel.addExpression("Sum");
+        tmpSum.setLinearFactor(0, 1);
+        tmpSum.setLinearFactor(1, 1);
+        tmpSum.upper(new BigDecimal(3.5));
+
+        tmpModel.setMaximisation();
+
+        final OldIntegerSolver tmpSolver = new OldIntegerSolver(tmpModel, tmpModel.options);
+
+        final NodeKey tmpRootKey = new NodeKey(tmpModel);
+        final Optimisation.Result tmpRootResult = tmpSolver.makeNodeModel(tmpRootKey).solve(tmpModel.getVariableValues());
+        TestUtils.assertEquals(3.5, tmpSolver.evaluateFunction(tmpRootResult), PRECISION);
+
+        TestUtils.assertTrue(new PrimalHeuristic.Rounding().search(tmpSolver, tmpRootKey, tmpRootResult));
+        TestUtils.assertEquals(3.0, tmpSolver.getBestResultSoFar().getValue(), PRECISION);
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.linear;
+
+import java.math.BigDecimal;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Optimisation.State;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * @author apete
+ */
+public class DualSimplexTest extends OptimisationLinearTests {
+
+    private static final NumberContext PRECISION = new NumberContext(7, 9);
+
+    public DualSimplexTest() {
+        super();
+    }
+
+    public DualSimplexTest(final String arg0) {
+        super(arg0);
+    }
+
+    /**
+     * min 2x + 3y when x + y >= 4, x + 3y >= 6 and x, y >= 0. The slack basis is dual feasible from the start, but the
+     * dual algorithm is only used if asked for.
+     */
+    public void testDietProblem() {
+
+        final Variable tmpX = new Variable("X").lower(BigDecimal.ZERO).weight(new BigDecimal(2));
+        final Variable tmpY = new Variable("Y").lower(BigDecimal.ZERO).weight(new BigDecimal(3));
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(new Variable[] { tmpX, tmpY });
+
+        final Expression tmpFirst = tmpModel.addExpression("First").lower(new BigDecimal(4));
+        tmpFirst.setLinearFactor(0, BigDecimal.ONE);
+        tmpFirst.setLinearFactor(1, BigDecimal.ONE);
+
+        final Expression tmpSecond = tmpModel.addExpression("Second").lower(new BigDecimal(6));
+        tmpSecond.setLinearFactor(0, BigDecimal.ONE);
+        tmpSecond.setLinearFactor(1, new BigDecimal(3));
+
+        final LinearSolver.Builder tmpDefaultBuilder = LinearSolver.getBuilder();
+        LinearSolver.copy(tmpModel, tmpDefaultBuilder);
+        TestUtils.assertTrue(tmpDefaultBuilder.build() instanceof SimplexTableauSolver);
+
+        final Optimisation.Result tmpPrimalResult = tmpModel.minimise();
+
+        tmpModel.options.simplex = Optimisation.Options.Simplex.DUAL;
+
+        final LinearSolver.Builder tmpBuilder = LinearSolver.getBuilder();
+        LinearSolver.copy(tmpModel, tmpBuilder);
+        TestUtils.assertTrue(tmpBuilder.build() instanceof DualSimplexSolver);
+
+        final Optimisation.Result tmpResult = tmpModel.minimise();
+
+        TestUtils.assertEquals(tmpPrimalResult, tmpResult, PRECISION);
+
+        TestUtils.assertEquals(State.OPTIMAL, tmpResult.getState());
+        TestUtils.assertEquals(9.0, tmpResult.getValue(), PRECISION);
+        TestUtils.assertEquals(3.0, tmpResult.doubleValue(0), PRECISION);
+        TestUtils.assertEquals(1.0, tmpResult.doubleValue(1), PRECISION);
+    }
+
+    /**
+     * Solve with the primal algorithm, change the right hand side so that the optimal basis is no longer primal
+     * feasible, and then re-solve starting from that basis. Should give the same result as solving from scratch.
+     */
+    public void testWarmStartAfterRHSChange() {
+
+        // max 3x + 2y when x + y <= 4, x + 3y <= 6, x <= 3 (slacks s1, s2, s3 added)
+        final PhysicalStore<Double> tmpC = PrimitiveDenseStore.FACTORY.columns(new double[] { -3.0, -2.0, 0.0, 0.0, 0.0 });
+        final PhysicalStore<Double> tmpAE = PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 1.0, 1.0, 0.0, 0.0 }, { 1.0, 3.0, 0.0, 1.0, 0.0 },
+                { 1.0, 0.0, 0.0, 0.0, 1.0 } });
+        final PhysicalStore<Double> tmpBE = PrimitiveDenseStore.FACTORY.columns(new double[] { 4.0, 6.0, 3.0 });
+
+        final LinearSolver tmpPrimalSolver = new LinearSolver.Builder(tmpC).equalities(tmpAE, tmpBE).build();
+        final Optimisation.Result tmpPrimalResult = tmpPrimalSolver.solve();
+
+        TestUtils.assertEquals(State.OPTIMAL, tmpPrimalResult.getState());
+        TestUtils.assertEquals(3.0, tmpPrimalResult.doubleValue(0), PRECISION);
+        TestUtils.assertEquals(1.0, tmpPrimalResult.doubleValue(1), PRECISION);
+
+        final int[] tmpBasis = tmpPrimalSolver.getBasis();
+
+        // Tighten x + y <= 4 to x + y <= 2
+        tmpBE.set(0, 0, 2.0);
+
+        final LinearSolver tmpWarmSolver = new LinearSolver.Builder(tmpC).equalities(tmpAE, tmpBE).basis(tmpBasis).build();
+        TestUtils.assertTrue(tmpWarmSolver instanceof DualSimplexSolver);
+        final Optimisation.Result tmpWarmResult = tmpWarmSolver.solve();
+
+        final Optimisation.Result tmpColdResult = new LinearSolver.Builder(tmpC).equalities(tmpAE, tmpBE).build().solve();
+
+        TestUtils.assertEquals(State.OPTIMAL, tmpWarmResult.getState());
+        TestUtils.assertEquals(2.0, tmpWarmResult.doubleValue(0), PRECISION);
+        TestUtils.assertEquals(0.0, tmpWarmResult.doubleValue(1), PRECISION);
+        TestUtils.assertEquals(tmpColdResult.getValue(), tmpWarmResult.getValue(), PRECISION);
+        TestUtils.assertEquals(tmpColdResult, tmpWarmResult, PRECISION);
+    }
+
+    /**
+     * A diet problem with more rows than the one above, so that the dual algorithm needs several pivots (and Devex
+     * weight updates). Should give the same result as the primal algorithm.
+     */
+    public void testDualOptionMatchesPrimal() {
+
+        final int tmpFoods = 8;
+        final int tmpNutrients = 6;
+
+        final Variable[] tmpVariables = new Variable[tmpFoods];
+        for (int j = 0; j < tmpFoods; j++) {
+            tmpVariables[j] = new Variable("F" + j).lower(BigDecimal.ZERO).weight(new BigDecimal(1 + ((5 * j) % 7)));
+        }
+
+        final ExpressionsBasedModel tmpModel = new ExpressionsBasedModel(tmpVariables);
+
+        for (int i = 0; i < tmpNutrients; i++) {
+            final Expression tmpNutrient = tmpModel.addExpression("N" + i).lower(new BigDecimal(10 + (3 * i)));
+            for (int j = 0; j < tmpFoods; j++) {
+                tmpNutrient.setLinearFactor(j, new BigDecimal(1 + (((i + 1) * (j + 3)) % 5)));
+            }
+        }
+
+        final Optimisation.Result tmpPrimalResult = tmpModel.minimise();
+        TestUtils.assertEquals(State.OPTIMAL, tmpPrimalResult.getState());
+
+        tmpModel.options.simplex = Optimisation.Options.Simplex.DUAL;
+        final Optimisation.Result tmpDualResult = tmpModel.minimise();
+
+        TestUtils.assertEquals(State.OPTIMAL, tmpDualResult.getState());
+        TestUtils.assertEquals(tmpPrimalResult.getValue(), tmpDualResult.getValue(), PRECISION);
+    }
+
+    public void testInfeasible() {
+
+        // x + y >= 4 and x + y <= 2, as x + y - s1 = 4 and x + y + s2 = 2, starting from the slack basis
+        final PhysicalStore<Double> tmpC = PrimitiveDenseStore.FACTORY.columns(new double[] { 1.0, 1.0, 0.0, 0.0 });
+        final PhysicalStore<Double> tmpAE = PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 1.0, -1.0, 0.0 }, { 1.0, 1.0, 0.0, 1.0 } });
+        final PhysicalStore<Double> tmpBE = PrimitiveDenseStore.FACTORY.columns(new double[] { 4.0, 2.0 });
+
+        final LinearSolver tmpSolver = new LinearSolver.Builder(tmpC).equalities(tmpAE, tmpBE).basis(2, 3).build();
+        TestUtils.assertTrue(tmpSolver instanceof DualSimplexSolver);
+
+        TestUtils.assertEquals(State.INFEASIBLE, tmpSolver.solve().getState());
+    }
+
+}
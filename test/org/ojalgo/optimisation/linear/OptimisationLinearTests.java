@@ -32,6 +32,7 @@ public abstract class OptimisationLinearTests extends FunctionalityTest {
         suite.addTestSuite(BurkardtDatasetsMps.class);
         suite.addTestSuite(CommonsMathSimplexSolverTest.class);
         suite.addTestSuite(ComPictetPamBamTest.class);
+        suite.addTestSuite(DualSimplexTest.class);
         suite.addTestSuite(LinearDesignTestCases.class);
         suite.addTestSuite(NetlibCase.class);
         suite.addTestSuite(LinearProblems.class);
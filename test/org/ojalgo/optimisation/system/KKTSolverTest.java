@@ -27,6 +27,7 @@ import org.ojalgo.access.Access2D;
 import org.ojalgo.array.ArrayUtils;
 import org.ojalgo.matrix.BasicMatrix;
 import org.ojalgo.matrix.BigMatrix;
+import org.ojalgo.matrix.decomposition.LU;
 import org.ojalgo.matrix.decomposition.QR;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -52,6 +53,60 @@ public class KKTSolverTest extends FunctionalityTest {
         super(someName);
     }
 
+    /**
+     * Q is block diagonal, [D 0; 0 F], as with a factor model covariance, and some of the constraints are simple
+     * bounds on the diagonal block's variables. The (structured) solution should match solving the full KKT system.
+     */
+    public void testBlockDiagonalCase() {
+
+        final double[] tmpSpecific = { 0.04, 0.09, 0.01, 0.05, 0.02, 0.07 };
+        final double[][] tmpLoadings = { { 1.0, 0.2 }, { 0.8, -0.5 }, { 1.2, 0.1 }, { 0.4, 0.9 }, { 1.1, 0.0 }, { 0.7, 0.3 } };
+        final double[][] tmpFactorCovariances = { { 0.03, 0.01 }, { 0.01, 0.02 } };
+
+        final int tmpAssets = tmpSpecific.length;
+        final int tmpDim = tmpAssets + tmpFactorCovariances.length;
+
+        final PrimitiveDenseStore tmpQ = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+        for (int i = 0; i < tmpAssets; i++) {
+            tmpQ.set(i, i, tmpSpecific[i]);
+        }
+        for (int i = 0; i < tmpFactorCovariances.length; i++) {
+            for (int j = 0; j < tmpFactorCovariances.length; j++) {
+                tmpQ.set(tmpAssets + i, tmpAssets + j, tmpFactorCovariances[i][j]);
+            }
+        }
+
+        final PrimitiveDenseStore tmpC = PrimitiveDenseStore.FACTORY.columns(new double[] { 0.06, 0.05, 0.10, 0.02, 0.07, 0.04, 0.0, 0.0 });
+
+        // Balance, the two factor exposures and two bounds
+        final PrimitiveDenseStore tmpA = PrimitiveDenseStore.FACTORY.makeZero(5, tmpDim);
+        final PrimitiveDenseStore tmpB = PrimitiveDenseStore.FACTORY.makeZero(5, 1);
+        for (int i = 0; i < tmpAssets; i++) {
+            tmpA.set(0, i, 1.0);
+            tmpA.set(1, i, tmpLoadings[i][0]);
+            tmpA.set(2, i, tmpLoadings[i][1]);
+        }
+        tmpA.set(1, tmpAssets, -1.0);
+        tmpA.set(2, tmpAssets + 1, -1.0);
+        tmpB.set(0, 0, 1.0);
+        tmpA.set(3, 1, 1.0);
+        tmpA.set(4, 4, -1.0);
+        tmpB.set(4, 0, -0.3);
+
+        final KKTSolver.Input tmpInput = new KKTSolver.Input(tmpQ, tmpC, tmpA, tmpB);
+        final KKTSolver.Output tmpOutput = new KKTSolver(tmpInput).solve(tmpInput);
+
+        TestUtils.assertTrue(tmpOutput.isSolvable());
+
+        final LU<Double> tmpLU = LU.makePrimitive();
+        tmpLU.compute(tmpInput.getKKT());
+        final MatrixStore<Double> tmpExpected = tmpLU.solve(tmpInput.getRHS());
+
+        final NumberContext tmpContext = new NumberContext(7, 12);
+        TestUtils.assertEquals(tmpExpected.builder().rows(0, tmpDim).build(), tmpOutput.getX(), tmpContext);
+        TestUtils.assertEquals(tmpExpected.builder().rows(tmpDim, tmpDim + 5).build(), tmpOutput.getL(), tmpContext);
+    }
+
     /**
      * Data taken from {@linkplain MostBasicCase}
      */
@@ -0,0 +1,210 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.ojalgo.TestUtils;
+
+/**
+ * LowDiscrepancySequenceTest
+ *
+ * @author apete
+ */
+public class LowDiscrepancySequenceTest extends RandomTests {
+
+    public LowDiscrepancySequenceTest() {
+        super();
+    }
+
+    public LowDiscrepancySequenceTest(final String aName) {
+        super(aName);
+    }
+
+    /**
+     * The integral of the product of (1 + (u-0.5)) over the unit hypercube is 1
+     */
+    private static double integrate(final LowDiscrepancySequence sequence, final int numberOfPoints) {
+
+        final double[] tmpPoint = new double[sequence.dimension()];
+
+        double retVal = 0.0;
+        for (int n = 0; n < numberOfPoints; n++) {
+            sequence.next(tmpPoint);
+            double tmpProduct = 1.0;
+            for (int d = 0; d < tmpPoint.length; d++) {
+                tmpProduct *= 1.0 + (tmpPoint[d] - 0.5);
+            }
+            retVal += tmpProduct;
+        }
+
+        return retVal / numberOfPoints;
+    }
+
+    public void testIntegration() {
+
+        // With pseudo-random points the standard error would be about 0.015
+        final int tmpNumberOfPoints = 4096;
+
+        TestUtils.assertEquals(1.0, LowDiscrepancySequenceTest.integrate(new Sobol(8), tmpNumberOfPoints), 0.002);
+        TestUtils.assertEquals(1.0, LowDiscrepancySequenceTest.integrate(new Sobol(8, 123L), tmpNumberOfPoints), 0.002);
+        TestUtils.assertEquals(1.0, LowDiscrepancySequenceTest.integrate(new Halton(8), tmpNumberOfPoints), 0.01);
+        TestUtils.assertEquals(1.0, LowDiscrepancySequenceTest.integrate(new Halton(8, 123L), tmpNumberOfPoints), 0.005);
+    }
+
+    public void testPrimitivePolynomials() {
+
+        // The number of primitive polynomials of degree 1, 2, 3...
+        final int[] tmpExpected = new int[] { 1, 1, 2, 2, 6, 6, 18, 16, 48, 60 };
+
+        for (int tmpDegree = 1; tmpDegree <= tmpExpected.length; tmpDegree++) {
+
+            final long[] tmpFactors = Sobol.primeFactors((1L << tmpDegree) - 1L);
+
+            int tmpCount = 0;
+            for (long tmpPolynomial = (1L << tmpDegree) | 1L; tmpPolynomial < (1L << (tmpDegree + 1)); tmpPolynomial += 2L) {
+                if (Sobol.isPrimitive(tmpPolynomial, tmpDegree, tmpFactors)) {
+                    tmpCount++;
+                }
+            }
+
+            TestUtils.assertEquals(tmpExpected[tmpDegree - 1], tmpCount);
+        }
+    }
+
+    public void testProbit() {
+
+        final Normal tmpNormal = new Normal();
+
+        final double[] tmpProbabilities = new double[] { 0.001, 0.0242, 0.0243, 0.1, 0.3, 0.5, 0.7, 0.9, 0.9757, 0.9758, 0.999 };
+
+        for (int i = 0; i < tmpProbabilities.length; i++) {
+            TestUtils.assertEquals(tmpProbabilities[i], tmpNormal.getDistribution(RandomUtils.probit(tmpProbabilities[i])), 1E-9);
+        }
+
+        TestUtils.assertEquals(0.0, RandomUtils.probit(0.5), 1E-12);
+        TestUtils.assertEquals(-RandomUtils.probit(0.01), RandomUtils.probit(0.99), 1E-12);
+    }
+
+    public void testSobolNet() {
+
+        // The first 2^m points of each (scrambled) dimension are perfectly stratified
+        final int tmpDimension = 50;
+        final int tmpM = 10;
+        final int tmpNumberOfPoints = 1 << tmpM;
+
+        final Sobol tmpSequence = new Sobol(tmpDimension, 2014L);
+
+        final int[][] tmpCounts = new int[tmpDimension][tmpNumberOfPoints];
+        final double[] tmpPoint = new double[tmpDimension];
+        for (int n = 0; n < tmpNumberOfPoints; n++) {
+            tmpSequence.next(tmpPoint);
+            for (int d = 0; d < tmpDimension; d++) {
+                tmpCounts[d][(int) (tmpPoint[d] * tmpNumberOfPoints)]++;
+            }
+        }
+
+        for (int d = 0; d < tmpDimension; d++) {
+            for (int k = 0; k < tmpNumberOfPoints; k++) {
+                TestUtils.assertEquals(1, tmpCounts[d][k]);
+            }
+        }
+    }
+
+    public void testSobolSequence() {
+
+        final Sobol tmpSequence = new Sobol(3);
+        final double[] tmpPoint = new double[3];
+
+        final double[] tmpExpected = new double[] { 0.5, 0.75, 0.25, 0.375, 0.875, 0.625, 0.125 };
+        for (int i = 0; i < tmpExpected.length; i++) {
+            tmpSequence.next(tmpPoint);
+            TestUtils.assertEquals(tmpExpected[i], tmpPoint[0], 1E-9);
+        }
+
+        // skipTo(n) and copy() give the same points as stepping
+        final Sobol tmpCopy = tmpSequence.copy();
+        final Sobol tmpSkipped = new Sobol(3);
+        tmpSkipped.skipTo(tmpSequence.getIndex());
+
+        final double[] tmpCopyPoint = new double[3];
+        final double[] tmpSkippedPoint = new double[3];
+        for (int i = 0; i < 100; i++) {
+            tmpSequence.next(tmpPoint);
+            tmpCopy.next(tmpCopyPoint);
+            tmpSkipped.next(tmpSkippedPoint);
+            for (int d = 0; d < 3; d++) {
+                TestUtils.assertEquals(tmpPoint[d], tmpCopyPoint[d], 0.0);
+                TestUtils.assertEquals(tmpPoint[d], tmpSkippedPoint[d], 0.0);
+            }
+        }
+    }
+
+    /**
+     * Generators split off from a sequence generator (and from each other) use disjoint blocks of points
+     */
+    public void testSplit() {
+
+        final int tmpNumberOfPoints = 1000;
+
+        final RandomGenerator tmpParent = new Sobol(2).asGenerator();
+        for (int i = 0; i < 20; i++) {
+            tmpParent.nextDouble();
+        }
+
+        final RandomGenerator tmpChild = tmpParent.split();
+        final RandomGenerator tmpGrandchild = tmpChild.split();
+        final RandomGenerator tmpSibling = tmpParent.split();
+
+        final Set<String> tmpPoints = new HashSet<String>();
+        for (final RandomGenerator tmpGenerator : new RandomGenerator[] { tmpParent, tmpChild, tmpGrandchild, tmpSibling }) {
+            for (int n = 0; n < tmpNumberOfPoints; n++) {
+                tmpPoints.add(tmpGenerator.nextDouble() + "," + tmpGenerator.nextDouble());
+            }
+        }
+
+        TestUtils.assertEquals(4 * tmpNumberOfPoints, tmpPoints.size());
+
+        // Split until the block is too small, then there is at most 1 point left
+        final RandomGenerator tmpLast = new Halton(2).asGenerator();
+        for (int i = 0; i < 64; i++) {
+            try {
+                tmpLast.split();
+            } catch (final IllegalStateException cause) {
+                break;
+            }
+        }
+
+        int tmpLeft = 0;
+        try {
+            for (; tmpLeft < 2; tmpLeft++) {
+                tmpLast.nextDouble();
+                tmpLast.nextDouble();
+            }
+            TestUtils.fail("Block not exhausted!");
+        } catch (final IllegalStateException cause) {
+            TestUtils.assertTrue(tmpLeft <= 1);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.Arrays;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.PrimitiveArray;
+
+/**
+ * OnlineStatisticsTest
+ *
+ * @author apete
+ */
+public class OnlineStatisticsTest extends RandomTests {
+
+    public OnlineStatisticsTest() {
+        super();
+    }
+
+    public OnlineStatisticsTest(final String aName) {
+        super(aName);
+    }
+
+    public void testCovariance() {
+
+        final RandomGenerator tmpRandom = RandomGenerator.make(7L, 0L);
+
+        final int tmpSize = 10000;
+        final PrimitiveArray tmpX = PrimitiveArray.make(tmpSize);
+        final PrimitiveArray tmpY = PrimitiveArray.make(tmpSize);
+
+        final OnlineCovariance tmpAll = new OnlineCovariance();
+        final OnlineCovariance tmpFirst = new OnlineCovariance();
+        final OnlineCovariance tmpSecond = new OnlineCovariance();
+
+        for (int i = 0; i < tmpSize; i++) {
+
+            final double tmpNormal = tmpRandom.nextGaussian();
+            tmpX.data[i] = 10.0 + tmpNormal;
+            tmpY.data[i] = -5.0 + (0.5 * tmpNormal) + (2.0 * tmpRandom.nextGaussian());
+
+            tmpAll.put(tmpX.data[i], tmpY.data[i]);
+            if (i < 3000) {
+                tmpFirst.put(tmpX.data[i], tmpY.data[i]);
+            } else {
+                tmpSecond.put(tmpX.data[i], tmpY.data[i]);
+            }
+        }
+
+        final SampleSet tmpSetX = SampleSet.wrap(tmpX);
+        final SampleSet tmpSetY = SampleSet.wrap(tmpY);
+
+        TestUtils.assertEquals(tmpSetX.getCovariance(tmpSetY), tmpAll.getCovariance(), 1E-10);
+        TestUtils.assertEquals(tmpSetX.getCorrelation(tmpSetY), tmpAll.getCorrelation(), 1E-10);
+        TestUtils.assertEquals(tmpSetY.getVariance(), tmpAll.getY().getVariance(), 1E-10);
+
+        tmpFirst.merge(tmpSecond);
+
+        TestUtils.assertEquals(tmpSize, tmpFirst.count());
+        TestUtils.assertEquals(tmpAll.getCovariance(), tmpFirst.getCovariance(), 1E-10);
+        TestUtils.assertEquals(tmpAll.getX().getMean(), tmpFirst.getX().getMean(), 1E-10);
+    }
+
+    public void testExactForFewSamples() {
+
+        final QuantileSketch tmpSketch = new QuantileSketch();
+
+        for (int i = 10; i >= 1; i--) {
+            tmpSketch.put(i);
+        }
+
+        TestUtils.assertEquals(10L, tmpSketch.count());
+        TestUtils.assertEquals(1.0, tmpSketch.getMinimum(), 0.0);
+        TestUtils.assertEquals(10.0, tmpSketch.getMaximum(), 0.0);
+        TestUtils.assertEquals(5.5, tmpSketch.getQuantile(0.5), 1E-10);
+        TestUtils.assertEquals(3.0, tmpSketch.getQuantile(0.25), 1E-10);
+        TestUtils.assertEquals(1.0, tmpSketch.getQuantile(0.0), 0.0);
+        TestUtils.assertEquals(10.0, tmpSketch.getQuantile(1.0), 0.0);
+    }
+
+    public void testQuantiles() {
+
+        final RandomGenerator tmpRandom = RandomGenerator.make(11L, 0L);
+
+        final int tmpSize = 200000;
+        final PrimitiveArray tmpSamples = PrimitiveArray.make(tmpSize);
+
+        final OnlineStatistics tmpAll = new OnlineStatistics(true);
+        final OnlineStatistics[] tmpParts = new OnlineStatistics[] { new OnlineStatistics(true), new OnlineStatistics(true), new OnlineStatistics(true) };
+
+        for (int i = 0; i < tmpSize; i++) {
+            // Skewed, like portfolio values
+            tmpSamples.data[i] = Math.exp(0.3 * tmpRandom.nextGaussian());
+            tmpAll.put(tmpSamples.data[i]);
+            tmpParts[i % tmpParts.length].put(tmpSamples.data[i]);
+        }
+
+        final OnlineStatistics tmpMerged = new OnlineStatistics(true);
+        for (int p = 0; p < tmpParts.length; p++) {
+            tmpMerged.merge(tmpParts[p]);
+        }
+
+        final SampleSet tmpSet = SampleSet.wrap(tmpSamples);
+        final double[] tmpSorted = tmpSet.getValues();
+        Arrays.sort(tmpSorted);
+
+        for (final double tmpProbability : new double[] { 0.001, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 0.999 }) {
+
+            final double tmpExpected = tmpSet.getQuantile(tmpProbability);
+            // Tolerance: the distance to neighbouring quantiles (+/- 0.1% of the samples)
+            final double tmpTolerance = tmpSorted[Math.min((int) ((tmpProbability + 0.001) * tmpSize), tmpSize - 1)]
+                    - tmpSorted[Math.max((int) ((tmpProbability - 0.001) * tmpSize), 0)];
+
+            TestUtils.assertEquals(tmpExpected, tmpAll.getQuantile(tmpProbability), tmpTolerance);
+            TestUtils.assertEquals(tmpExpected, tmpMerged.getQuantile(tmpProbability), tmpTolerance);
+        }
+
+        TestUtils.assertEquals(tmpSet.getMedian(), tmpAll.getMedian(), 0.001);
+        TestUtils.assertEquals(tmpSorted[0], tmpMerged.getQuantile(0.0), 0.0);
+        TestUtils.assertEquals(tmpSorted[tmpSize - 1], tmpMerged.getQuantile(1.0), 0.0);
+
+        // Expected shortfall - the means of the 1% tails
+        final int tmpTail = tmpSize / 100;
+        double tmpLower = 0.0;
+        double tmpUpper = 0.0;
+        for (int i = 0; i < tmpTail; i++) {
+            tmpLower += tmpSorted[i];
+            tmpUpper += tmpSorted[tmpSize - 1 - i];
+        }
+        TestUtils.assertEquals(tmpLower / tmpTail, tmpMerged.getLowerTailMean(0.01), 0.001);
+        TestUtils.assertEquals(tmpUpper / tmpTail, tmpMerged.getUpperTailMean(0.99), 0.001);
+        TestUtils.assertEquals(tmpSet.getMean(), tmpMerged.getLowerTailMean(1.0), 0.001);
+    }
+
+    public void testSampleSetQuantile() {
+
+        final SampleSet tmpSet = SampleSet.wrap(PrimitiveArray.wrap(new double[] { 5.0, 3.0, 9.0, 1.0, 7.0 }));
+
+        TestUtils.assertEquals(5.0, tmpSet.getMedian(), 0.0);
+        TestUtils.assertEquals(1.0, tmpSet.getQuantile(0.0), 0.0);
+        TestUtils.assertEquals(3.0, tmpSet.getQuantile(0.25), 0.0);
+        TestUtils.assertEquals(9.0, tmpSet.getQuantile(1.0), 0.0);
+        TestUtils.assertEquals(1.0, tmpSet.getMinimum(), 0.0);
+        TestUtils.assertEquals(9.0, tmpSet.getMaximum(), 0.0);
+    }
+
+    public void testWithoutQuantiles() {
+
+        final OnlineStatistics tmpStatistics = new OnlineStatistics();
+        tmpStatistics.put(1.0);
+
+        try {
+            tmpStatistics.getQuantile(0.5);
+            TestUtils.fail("Quantiles are not tracked");
+        } catch (final RuntimeException exception) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.ArrayUtils;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * Random1DTest
+ *
+ * @author apete
+ */
+public class Random1DTest extends RandomTests {
+
+    private static double covariance(final PrimitiveDenseStore samples, final int i, final int j) {
+
+        final int tmpRows = (int) samples.countRows();
+
+        double retVal = 0.0;
+        for (int r = 0; r < tmpRows; r++) {
+            retVal += samples.doubleValue(r, i) * samples.doubleValue(r, j);
+        }
+        return retVal / tmpRows;
+    }
+
+    public Random1DTest() {
+        super();
+    }
+
+    public Random1DTest(final String aName) {
+        super(aName);
+    }
+
+    public void testBatchedCorrelated() {
+
+        final double[][] tmpCorrelations = new double[][] { { 1.0, 0.8, -0.3 }, { 0.8, 1.0, 0.1 }, { -0.3, 0.1, 1.0 } };
+
+        final Random1D tmpRandom = new Random1D(ArrayUtils.wrapAccess2D(tmpCorrelations));
+        tmpRandom.setGenerator(RandomGenerator.make(3L, 0L));
+
+        final PrimitiveDenseStore tmpBlock = PrimitiveDenseStore.FACTORY.makeZero(100000, 3);
+        tmpRandom.nextGaussian(tmpBlock);
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                TestUtils.assertEquals(tmpCorrelations[i][j], Random1DTest.covariance(tmpBlock, i, j), 0.02);
+            }
+        }
+
+        // The workspace is reused - the next block is different
+        final double tmpFirst = tmpBlock.doubleValue(0, 0);
+        tmpRandom.nextGaussian(tmpBlock);
+        TestUtils.assertTrue("Same draws twice", tmpFirst != tmpBlock.doubleValue(0, 0));
+    }
+
+    public void testNormal1DFill() {
+
+        final double[][] tmpCovariances = new double[][] { { 4.0, 1.0 }, { 1.0, 1.0 } };
+        final double[] tmpLocations = new double[] { 10.0, -1.0 };
+
+        final Normal1D tmpNormal = new Normal1D(ArrayUtils.wrapAccess1D(tmpLocations), ArrayUtils.wrapAccess2D(tmpCovariances));
+        tmpNormal.setGenerator(RandomGenerator.make(5L, 0L));
+
+        final PrimitiveDenseStore tmpBlock = PrimitiveDenseStore.FACTORY.makeZero(100000, 2);
+        tmpNormal.fill(tmpBlock);
+
+        for (int j = 0; j < 2; j++) {
+            final OnlineStatistics tmpStatistics = new OnlineStatistics();
+            for (int r = 0; r < tmpBlock.countRows(); r++) {
+                tmpStatistics.put(tmpBlock.doubleValue(r, j));
+            }
+            TestUtils.assertEquals(tmpLocations[j], tmpStatistics.getMean(), 0.02);
+            TestUtils.assertEquals(tmpCovariances[j][j], tmpStatistics.getVariance(), 0.05);
+        }
+    }
+
+    public void testSemidefinite() {
+
+        // Perfectly correlated - not positive definite, so no Cholesky factor
+        final double[][] tmpCorrelations = new double[][] { { 1.0, 1.0, 0.0 }, { 1.0, 1.0, 0.0 }, { 0.0, 0.0, 1.0 } };
+
+        final Random1D tmpRandom = new Random1D(ArrayUtils.wrapAccess2D(tmpCorrelations));
+
+        final PrimitiveDenseStore tmpBlock = PrimitiveDenseStore.FACTORY.makeZero(10000, 3);
+        tmpRandom.nextGaussian(tmpBlock);
+
+        for (int r = 0; r < 100; r++) {
+            TestUtils.assertEquals(tmpBlock.doubleValue(r, 0), tmpBlock.doubleValue(r, 1), 1E-10);
+        }
+        TestUtils.assertEquals(1.0, Random1DTest.covariance(tmpBlock, 0, 0), 0.05);
+        TestUtils.assertEquals(0.0, Random1DTest.covariance(tmpBlock, 0, 2), 0.05);
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import org.ojalgo.TestUtils;
+
+/**
+ * RandomGeneratorTest
+ *
+ * @author apete
+ */
+public class RandomGeneratorTest extends RandomTests {
+
+    public RandomGeneratorTest() {
+        super();
+    }
+
+    public RandomGeneratorTest(final String aName) {
+        super(aName);
+    }
+
+    /**
+     * Many threads drawing from the same (shared, default generator) instance. An unsynchronised generator shared
+     * between threads loses state updates, and then different threads get the same numbers.
+     */
+    public void testConcurrentDraws() throws InterruptedException {
+
+        final Uniform tmpShared = new Uniform();
+
+        final int tmpThreads = 8;
+        final int tmpDraws = 100000;
+
+        final double[][] tmpResults = new double[tmpThreads][tmpDraws];
+        final Thread[] tmpWorkers = new Thread[tmpThreads];
+
+        for (int t = 0; t < tmpThreads; t++) {
+            final double[] tmpDestination = tmpResults[t];
+            tmpWorkers[t] = new Thread(new Runnable() {
+
+                public void run() {
+                    for (int i = 0; i < tmpDestination.length; i++) {
+                        tmpDestination[i] = tmpShared.doubleValue();
+                    }
+                }
+
+            });
+        }
+        for (int t = 0; t < tmpThreads; t++) {
+            tmpWorkers[t].start();
+        }
+        for (int t = 0; t < tmpThreads; t++) {
+            tmpWorkers[t].join();
+        }
+
+        final HashSet<Double> tmpDistinct = new HashSet<Double>();
+        final OnlineStatistics tmpStatistics = new OnlineStatistics();
+        for (int t = 0; t < tmpThreads; t++) {
+            for (int i = 0; i < tmpDraws; i++) {
+                tmpDistinct.add(tmpResults[t][i]);
+                tmpStatistics.put(tmpResults[t][i]);
+            }
+        }
+
+        TestUtils.assertEquals(tmpThreads * tmpDraws, tmpDistinct.size());
+        TestUtils.assertEquals(0.5, tmpStatistics.getMean(), 0.005);
+    }
+
+    public void testNormalFill() {
+
+        final Normal tmpNormal = new Normal(2.0, 3.0);
+        tmpNormal.setGenerator(RandomGenerator.make(7L, 0L));
+
+        final double[] tmpSamples = new double[200000];
+        tmpNormal.fill(tmpSamples);
+
+        final OnlineStatistics tmpStatistics = new OnlineStatistics();
+        for (int i = 0; i < tmpSamples.length; i++) {
+            tmpStatistics.put(tmpSamples[i]);
+        }
+
+        TestUtils.assertEquals(2.0, tmpStatistics.getMean(), 0.03);
+        TestUtils.assertEquals(3.0, tmpStatistics.getStandardDeviation(), 0.03);
+    }
+
+    public void testSplitMixMatchesSplittableRandom() {
+
+        final SplittableRandom tmpExpected = new SplittableRandom(12345L);
+        final SplitMix64 tmpActual = new SplitMix64(12345L);
+
+        for (int i = 0; i < 100; i++) {
+            TestUtils.assertEquals(tmpExpected.nextLong(), tmpActual.nextLong());
+        }
+    }
+
+    public void testStreams() {
+
+        final RandomGenerator.Factory[] tmpFactories = new RandomGenerator.Factory[] { RandomGenerator.SPLIT_MIX, RandomGenerator.XOROSHIRO };
+
+        for (final RandomGenerator.Factory tmpFactory : tmpFactories) {
+
+            final RandomGenerator tmpStream0 = tmpFactory.make(42L, 0L);
+            final RandomGenerator tmpStream0again = tmpFactory.make(42L, 0L);
+            final RandomGenerator tmpStream1 = tmpFactory.make(42L, 1L);
+
+            int tmpSame = 0;
+            for (int i = 0; i < 100; i++) {
+                final long tmpValue = tmpStream0.nextLong();
+                TestUtils.assertEquals(tmpValue, tmpStream0again.nextLong());
+                if (tmpValue == tmpStream1.nextLong()) {
+                    tmpSame++;
+                }
+            }
+            TestUtils.assertEquals(0, tmpSame);
+
+            tmpStream0.setSeed(42L);
+            tmpStream1.setSeed(42L);
+            TestUtils.assertEquals(tmpFactory.make(42L, 0L).nextLong(), tmpStream0.nextLong());
+            TestUtils.assertEquals(tmpFactory.make(42L, 1L).nextLong(), tmpStream1.nextLong());
+        }
+
+        // Stream n starts n*2^40 steps ahead of stream 0
+        final SplitMix64 tmpJumped = new SplitMix64(42L, 0L);
+        tmpJumped.jump(3L << 40);
+        TestUtils.assertEquals(new SplitMix64(42L, 3L).nextLong(), tmpJumped.nextLong());
+    }
+
+    public void testZiggurat() {
+
+        final RandomGenerator.Factory[] tmpFactories = new RandomGenerator.Factory[] { RandomGenerator.SPLIT_MIX, RandomGenerator.XOROSHIRO };
+
+        final Normal tmpStandard = new Normal();
+
+        for (final RandomGenerator.Factory tmpFactory : tmpFactories) {
+
+            final RandomGenerator tmpGenerator = tmpFactory.make(2014L, 0L);
+
+            final double[] tmpSamples = new double[500000];
+            tmpGenerator.fillGaussian(tmpSamples);
+
+            final OnlineStatistics tmpStatistics = new OnlineStatistics();
+            int tmpTail = 0;
+            int tmpBelowOne = 0;
+            for (int i = 0; i < tmpSamples.length; i++) {
+                tmpStatistics.put(tmpSamples[i]);
+                if (Math.abs(tmpSamples[i]) > 3.0) {
+                    tmpTail++;
+                }
+                if (tmpSamples[i] < 1.0) {
+                    tmpBelowOne++;
+                }
+            }
+
+            TestUtils.assertEquals(0.0, tmpStatistics.getMean(), 0.01);
+            TestUtils.assertEquals(1.0, tmpStatistics.getVariance(), 0.01);
+            TestUtils.assertEquals(2.0 * (1.0 - tmpStandard.getDistribution(3.0)), (double) tmpTail / tmpSamples.length, 0.0005);
+            TestUtils.assertEquals(tmpStandard.getDistribution(1.0), (double) tmpBelowOne / tmpSamples.length, 0.005);
+        }
+    }
+
+}
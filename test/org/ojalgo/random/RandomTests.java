@@ -38,7 +38,11 @@ public abstract class RandomTests extends FunctionalityTest {
     public static Test suite() {
         final TestSuite suite = new TestSuite(RandomTests.class.getPackage().getName());
         //$JUnit-BEGIN$
+        suite.addTestSuite(LowDiscrepancySequenceTest.class);
+        suite.addTestSuite(OnlineStatisticsTest.class);
         suite.addTestSuite(QuantileTest.class);
+        suite.addTestSuite(Random1DTest.class);
+        suite.addTestSuite(RandomGeneratorTest.class);
         suite.addTestSuite(RandomNumberTest.class);
         //$JUnit-END$
         return suite;
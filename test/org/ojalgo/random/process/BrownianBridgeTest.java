@@ -0,0 +1,95 @@
+/*
+ * Copyright 1997-2014 Optimatika (www.optimatika.se)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Sobol;
+
+/**
+ * @author apete
+ */
+public class BrownianBridgeTest extends RandomProcessTests {
+
+    public BrownianBridgeTest() {
+        super();
+    }
+
+    public BrownianBridgeTest(final String aName) {
+        super(aName);
+    }
+
+    /**
+     * The normalised increments are a linear transformation of the input normals. For them to be independent standard
+     * normal numbers that transformation has to be orthogonal.
+     */
+    public void testOrthogonal() {
+
+        final double[] tmpTimes = new double[] { 0.1, 0.25, 0.3, 0.7, 1.0, 1.1, 2.0 };
+        final BrownianBridge tmpBridge = new BrownianBridge(tmpTimes);
+        final int tmpSize = tmpBridge.size();
+
+        final double[][] tmpColumns = new double[tmpSize][tmpSize];
+        for (int k = 0; k < tmpSize; k++) {
+            final double[] tmpUnit = new double[tmpSize];
+            tmpUnit[k] = 1.0;
+            tmpBridge.increments(tmpUnit, tmpColumns[k]);
+        }
+
+        for (int i = 0; i < tmpSize; i++) {
+            for (int j = 0; j < tmpSize; j++) {
+                double tmpDot = 0.0;
+                for (int k = 0; k < tmpSize; k++) {
+                    tmpDot += tmpColumns[k][i] * tmpColumns[k][j];
+                }
+                TestUtils.assertEquals(i == j ? 1.0 : 0.0, tmpDot, 1E-12);
+            }
+        }
+
+        // The first normal alone determines the terminal value
+        final double[] tmpPath = new double[tmpSize];
+        final double[] tmpNormals = new double[tmpSize];
+        tmpNormals[0] = 1.0;
+        tmpBridge.path(tmpNormals, tmpPath);
+        TestUtils.assertEquals(Math.sqrt(2.0), tmpPath[tmpSize - 1], 1E-12);
+        TestUtils.assertEquals(0.1 / 2.0 * Math.sqrt(2.0), tmpPath[0], 1E-12);
+    }
+
+    public void testQuasiRandomSimulation() {
+
+        final GeometricBrownianMotion tmpProcess = new GeometricBrownianMotion(0.05, 0.2);
+        tmpProcess.setValue(100.0);
+
+        final int tmpNumberOfSteps = 12;
+        final double tmpStepSize = 1.0 / 12.0;
+
+        final RandomProcess.SimulationResults tmpResults = tmpProcess.simulate(4096, tmpNumberOfSteps, tmpStepSize, new Sobol(tmpNumberOfSteps, 7L));
+
+        for (int s = 0; s < tmpNumberOfSteps; s++) {
+            final double tmpExpected = tmpProcess.getExpected((s + 1) * tmpStepSize);
+            // With pseudo-random numbers the standard error of the terminal mean would be about 0.3
+            TestUtils.assertEquals(tmpExpected, tmpResults.getSampleSet(s).getMean(), 0.05);
+        }
+
+        TestUtils.assertEquals(100.0, tmpProcess.getValue(), 0.0);
+    }
+
+}
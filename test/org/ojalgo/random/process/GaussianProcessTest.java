@@ -28,6 +28,7 @@ import java.util.Collection;
 import org.ojalgo.TestUtils;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.random.Normal;
+import org.ojalgo.random.Normal1D;
 import org.ojalgo.random.process.GaussianField.Mean;
 import org.ojalgo.type.context.NumberContext;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
@@ -45,6 +46,64 @@ public class GaussianProcessTest extends RandomProcessTests {
         super(someName);
     }
 
+    public void testIncrementalFactorisation() {
+
+        final GaussianField.Covariance<Double> tmpCovar = new GaussianField.Covariance<Double>() {
+
+            public void calibrate(final Collection<ComparableToDouble<Double>> observations, final Mean<Double> mean) {
+            }
+
+            public double invoke(final Double anArg1, final Double anArg2) {
+                final double tmpDiff = anArg1.doubleValue() - anArg2.doubleValue();
+                return Math.exp(-(tmpDiff * tmpDiff) / TWO) + (tmpDiff == ZERO ? 0.01 : ZERO);
+            }
+
+        };
+
+        final double[] tmpKeys = new double[] { 0.5, -1.0, 2.0, 0.0, 1.25, -0.5, 3.0, 1.0 };
+        final Double[] tmpPoints = new Double[] { -1.5, -0.25, 0.75, 1.1, 2.5, 4.0 };
+
+        final GaussianField<Double> tmpIncremental = new GaussianField<Double>(tmpCovar);
+
+        for (int k = 0; k < tmpKeys.length; k++) {
+
+            tmpIncremental.addObservation(tmpKeys[k], Math.sin(tmpKeys[k]));
+
+            // Every query after the first one (re)uses the cached factorisation, updated one observation at the time
+            final Normal[] tmpActual = tmpIncremental.getMarginalDistributions(tmpPoints);
+
+            final GaussianField<Double> tmpFresh = new GaussianField<Double>(tmpCovar);
+            for (int i = 0; i <= k; i++) {
+                tmpFresh.addObservation(tmpKeys[i], Math.sin(tmpKeys[i]));
+            }
+            final Normal1D tmpExpected = tmpFresh.getDistribution(tmpPoints);
+
+            for (int j = 0; j < tmpPoints.length; j++) {
+                TestUtils.assertEquals(tmpExpected.getExpected().doubleValue(j), tmpActual[j].getExpected(), 1E-9);
+                TestUtils.assertEquals(tmpExpected.getVariance().doubleValue(j), tmpActual[j].getVariance(), 1E-9);
+            }
+        }
+
+        // One at the time, with a query in between, so that both removals are updates
+        TestUtils.assertTrue(tmpIncremental.removeObservation(0.0));
+        tmpIncremental.getMarginalDistributions(tmpPoints);
+        TestUtils.assertTrue(tmpIncremental.removeObservation(3.0));
+        TestUtils.assertTrue(!tmpIncremental.removeObservation(3.0));
+
+        final GaussianField<Double> tmpFresh = new GaussianField<Double>(tmpCovar);
+        for (int k = 0; k < tmpKeys.length; k++) {
+            if ((tmpKeys[k] != 0.0) && (tmpKeys[k] != 3.0)) {
+                tmpFresh.addObservation(tmpKeys[k], Math.sin(tmpKeys[k]));
+            }
+        }
+
+        final Normal1D tmpExpected = tmpFresh.getDistribution(tmpPoints);
+        final Normal1D tmpActual = tmpIncremental.getDistribution(tmpPoints);
+
+        TestUtils.assertEquals(tmpExpected.getExpected(), tmpActual.getExpected(), new NumberContext(9, 9));
+        TestUtils.assertEquals(tmpExpected.getVariance(), tmpActual.getVariance(), new NumberContext(9, 9));
+    }
+
     public void testTutorial() {
 
         final GaussianField.Covariance<Double> tmpCovar = new GaussianField.Covariance<Double>() {
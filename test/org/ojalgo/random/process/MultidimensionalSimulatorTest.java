@@ -33,10 +33,12 @@ import org.ojalgo.finance.portfolio.SimplePortfolio;
 import org.ojalgo.finance.portfolio.simulator.PortfolioSimulator;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.OnlineStatistics;
 import org.ojalgo.random.process.RandomProcess.SimulationResults;
 import org.ojalgo.series.CalendarDateSeries;
 import org.ojalgo.type.CalendarDate;
 import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.context.NumberContext;
 
 /**
  * @author apete
@@ -123,6 +125,95 @@ public class MultidimensionalSimulatorTest extends RandomProcessTests {
 
     }
 
+    public void testParallelSimulation() {
+
+        final double[][] tmpCorrelations = new double[][] { { 1.0, 0.5, 0.2 }, { 0.5, 1.0, 0.3 }, { 0.2, 0.3, 1.0 } };
+        final double[] tmpReturns = new double[] { 0.05, 0.08, 0.10 };
+        final double[] tmpRisks = new double[] { 0.10, 0.20, 0.30 };
+        final double[] tmpWeights = new double[] { 0.5, 0.3, 0.2 };
+
+        final ArrayList<SimpleAsset> tmpAssets = new ArrayList<SimpleAsset>(tmpReturns.length);
+        for (int i = 0; i < tmpReturns.length; i++) {
+            tmpAssets.add(new SimpleAsset(tmpReturns[i], tmpRisks[i], tmpWeights[i]));
+        }
+
+        final SimplePortfolio tmpPortfolio = new SimplePortfolio(ArrayUtils.wrapAccess2D(tmpCorrelations), tmpAssets);
+        final PortfolioSimulator tmpSimulator = tmpPortfolio.getSimulator();
+        tmpSimulator.setSeed(123L);
+
+        final int tmpNumberOfRealisations = 5000;
+        final int tmpNumberOfSteps = 12;
+        final double tmpStepSize = 1.0 / 12.0;
+
+        final SimulationResults tmpResults1 = tmpSimulator.simulate(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize);
+        final SimulationResults tmpResults2 = tmpSimulator.simulate(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize);
+        final OnlineStatistics[] tmpStatistics = tmpSimulator.simulateStatistics(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize);
+
+        final NumberContext tmpExact = new NumberContext(12, 12);
+
+        for (int s = 0; s < tmpNumberOfSteps; s++) {
+
+            // Same seed, same realisations
+            for (int r = 0; r < tmpNumberOfRealisations; r += 97) {
+                TestUtils.assertEquals(tmpResults1.getSampleSet(s).doubleValue(r), tmpResults2.getSampleSet(s).doubleValue(r), tmpExact);
+            }
+
+            // Streamed statistics of the same realisations
+            TestUtils.assertEquals(tmpResults1.getSampleSet(s).getMean(), tmpStatistics[s].getMean(), tmpExact);
+            TestUtils.assertEquals(tmpResults1.getSampleSet(s).getVariance(), tmpStatistics[s].getVariance(), new NumberContext(8, 12));
+
+            double tmpExpected = 0.0;
+            for (int i = 0; i < tmpReturns.length; i++) {
+                final GeometricBrownianMotion tmpForecast = tmpAssets.get(i).forecast();
+                tmpForecast.setValue(tmpWeights[i]);
+                tmpExpected += tmpForecast.getExpected((s + 1) * tmpStepSize);
+            }
+            TestUtils.assertEquals(tmpExpected, tmpStatistics[s].getMean(), 0.005);
+        }
+
+        tmpSimulator.setSeed(321L);
+        final SimulationResults tmpResults3 = tmpSimulator.simulate(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize);
+        TestUtils.assertTrue("Different seed, same realisations", tmpResults1.getSampleSet(0).doubleValue(0) != tmpResults3.getSampleSet(0).doubleValue(0));
+
+        final SimulationResults tmpRebalanced = tmpSimulator.simulate(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize, 1);
+        TestUtils.assertEquals(tmpResults3.getSampleSet(0).doubleValue(0), tmpRebalanced.getSampleSet(0).doubleValue(0), tmpExact);
+    }
+
+    public void testQuasiRandomSimulation() {
+
+        final double[][] tmpCorrelations = new double[][] { { 1.0, 0.5 }, { 0.5, 1.0 } };
+
+        final ArrayList<SimpleAsset> tmpAssets = new ArrayList<SimpleAsset>();
+        tmpAssets.add(new SimpleAsset(0.05, 0.10, 0.6));
+        tmpAssets.add(new SimpleAsset(0.10, 0.30, 0.4));
+
+        final SimplePortfolio tmpPortfolio = new SimplePortfolio(ArrayUtils.wrapAccess2D(tmpCorrelations), tmpAssets);
+        final PortfolioSimulator tmpSimulator = tmpPortfolio.getSimulator();
+        tmpSimulator.setSeed(11L);
+        tmpSimulator.setQuasiRandom(true);
+
+        final int tmpNumberOfRealisations = 2048;
+        final int tmpNumberOfSteps = 12;
+        final double tmpStepSize = 1.0 / 12.0;
+
+        final OnlineStatistics[] tmpStatistics = tmpSimulator.simulateStatistics(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize);
+        final OnlineStatistics[] tmpAgain = tmpSimulator.simulateStatistics(tmpNumberOfRealisations, tmpNumberOfSteps, tmpStepSize);
+
+        for (int s = 0; s < tmpNumberOfSteps; s++) {
+
+            double tmpExpected = 0.0;
+            for (final SimpleAsset tmpAsset : tmpAssets) {
+                final GeometricBrownianMotion tmpForecast = tmpAsset.forecast();
+                tmpForecast.setValue(tmpAsset.getWeight().doubleValue());
+                tmpExpected += tmpForecast.getExpected((s + 1) * tmpStepSize);
+            }
+
+            // With pseudo-random numbers the standard error would be about 0.003
+            TestUtils.assertEquals(tmpExpected, tmpStatistics[s].getMean(), 0.0005);
+            TestUtils.assertEquals(tmpStatistics[s].getMean(), tmpAgain[s].getMean(), new NumberContext(12, 12));
+        }
+    }
+
     public void testStepping() {
 
         final PrimitiveDenseStore tmpCorrelation = PrimitiveDenseStore.FACTORY.makeEye(3, 3);
@@ -38,6 +38,7 @@ public abstract class RandomProcessTests extends FunctionalityTest {
     public static Test suite() {
         final TestSuite suite = new TestSuite(RandomProcessTests.class.getPackage().getName());
         //$JUnit-BEGIN$
+        suite.addTestSuite(BrownianBridgeTest.class);
         suite.addTestSuite(GaussianProcessTest.class);
         suite.addTestSuite(GeometricBrownianMotionTest.class);
         suite.addTestSuite(MultidimensionalSimulatorTest.class);
@@ -22,6 +22,8 @@
 package org.ojalgo.scalar;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
 
 import org.ojalgo.TestUtils;
 import org.ojalgo.constant.PrimitiveMath;
@@ -62,6 +64,35 @@ public class RationalScalarTest extends ScalarTests {
         }
     }
 
+    /**
+     * Results from the BigInteger implementation must be reduced, or equals/hashCode would disagree with the
+     * same value computed some other way.
+     */
+    public void testBigIntegerResultsAreCanonical() {
+
+        final BigInteger tmpPow = BigInteger.ONE.shiftLeft(70);
+
+        final RationalNumber tmpA = new RationalNumber(tmpPow, BigInteger.valueOf(3L));
+        final RationalNumber tmpB = new RationalNumber(BigInteger.valueOf(9L), tmpPow);
+        final RationalNumber tmpC = new RationalNumber(tmpPow, BigInteger.valueOf(9L));
+
+        final RationalNumber tmpThree = new RationalNumber(3L, 1L);
+        TestUtils.assertEquals(tmpThree, tmpA.multiply(tmpB));
+        TestUtils.assertEquals(tmpThree.hashCode(), tmpA.multiply(tmpB).hashCode());
+        TestUtils.assertEquals(tmpThree, tmpA.divide(tmpC));
+        TestUtils.assertEquals(tmpThree.hashCode(), tmpA.divide(tmpC).hashCode());
+
+        final BigInteger tmpOdd = tmpPow.add(BigInteger.ONE);
+        final RationalNumber tmpX = new RationalNumber(BigInteger.valueOf(6L), tmpOdd);
+        final RationalNumber tmpY = new RationalNumber(BigInteger.valueOf(4L), tmpOdd);
+
+        final RationalNumber tmpRatio = new RationalNumber(3L, 2L);
+        TestUtils.assertEquals(tmpRatio, tmpX.divide(tmpY));
+        TestUtils.assertEquals(tmpRatio.hashCode(), tmpX.divide(tmpY).hashCode());
+
+        TestUtils.assertTrue(RationalNumber.isNaN(RationalNumber.ZERO.divide(RationalNumber.ZERO)));
+    }
+
     public void testDivide() {
 
         final RationalNumber tmpVal1 = new RationalNumber(1.25);
@@ -108,6 +139,72 @@ public class RationalScalarTest extends ScalarTests {
         TestUtils.assertEquals(myExp, myAct, myDiff);
     }
 
+    /**
+     * Small values are stored as long numerator/denominator. Results that don't fit in a long are promoted to
+     * BigInteger, and results that fit again are stored as long.
+     */
+    public void testOverflowPromotion() {
+
+        final RationalNumber tmpLarge = new RationalNumber(Long.MAX_VALUE - 2L, 3L);
+        final RationalNumber tmpSquared = tmpLarge.multiply(tmpLarge);
+
+        final BigInteger tmpExpNumer = BigInteger.valueOf(Long.MAX_VALUE - 2L).pow(2);
+        final BigInteger tmpExpDenom = BigInteger.valueOf(9L);
+
+        TestUtils.assertEquals(tmpExpNumer, tmpSquared.getNumerator());
+        TestUtils.assertEquals(tmpExpDenom, tmpSquared.getDenominator());
+
+        final RationalNumber tmpBack = tmpSquared.divide(tmpLarge);
+        TestUtils.assertEquals(tmpLarge, tmpBack);
+        TestUtils.assertEquals(tmpLarge.hashCode(), tmpBack.hashCode());
+
+        final RationalNumber tmpSum = tmpLarge.add(tmpLarge).add(tmpLarge);
+        TestUtils.assertEquals(BigInteger.valueOf(Long.MAX_VALUE - 2L), tmpSum.getNumerator());
+        TestUtils.assertEquals(BigInteger.ONE, tmpSum.getDenominator());
+        TestUtils.assertEquals(tmpSum, tmpSum.add(tmpSum).subtract(tmpSum));
+
+        final RationalNumber tmpMin = new RationalNumber(Long.MIN_VALUE, 2L);
+        TestUtils.assertEquals(BigInteger.valueOf(Long.MIN_VALUE / 2L), tmpMin.getNumerator());
+        TestUtils.assertEquals(BigInteger.valueOf(Long.MIN_VALUE).negate(), tmpMin.negate().multiply(RationalNumber.TWO).getNumerator());
+
+        TestUtils.assertEquals(1, tmpSquared.compareTo(tmpLarge));
+        TestUtils.assertEquals(-1, tmpLarge.negate().compareTo(tmpLarge));
+    }
+
+    /**
+     * The long based arithmetic must produce the exact same (reduced) results as the BigInteger based.
+     */
+    public void testLongArithmeticIsExact() {
+
+        final Random tmpRandom = new Random(123L);
+
+        for (int t = 0; t < 1000; t++) {
+
+            final long tmpNumer1 = tmpRandom.nextInt(2_000_001) - 1_000_000L;
+            final long tmpDenom1 = 1L + tmpRandom.nextInt(1_000_000);
+            final long tmpNumer2 = tmpRandom.nextInt(2_000_001) - 1_000_000L;
+            final long tmpDenom2 = 1L + tmpRandom.nextInt(1_000_000);
+
+            final RationalNumber tmpArg1 = new RationalNumber(tmpNumer1, tmpDenom1);
+            final RationalNumber tmpArg2 = new RationalNumber(tmpNumer2, tmpDenom2);
+
+            final BigInteger tmpN1 = BigInteger.valueOf(tmpNumer1);
+            final BigInteger tmpD1 = BigInteger.valueOf(tmpDenom1);
+            final BigInteger tmpN2 = BigInteger.valueOf(tmpNumer2);
+            final BigInteger tmpD2 = BigInteger.valueOf(tmpDenom2);
+
+            this.assertFraction(tmpN1.multiply(tmpD2).add(tmpN2.multiply(tmpD1)), tmpD1.multiply(tmpD2), tmpArg1.add(tmpArg2));
+            this.assertFraction(tmpN1.multiply(tmpD2).subtract(tmpN2.multiply(tmpD1)), tmpD1.multiply(tmpD2), tmpArg1.subtract(tmpArg2));
+            this.assertFraction(tmpN1.multiply(tmpN2), tmpD1.multiply(tmpD2), tmpArg1.multiply(tmpArg2));
+            if (tmpNumer2 != 0L) {
+                this.assertFraction(tmpN1.multiply(tmpD2), tmpD1.multiply(tmpN2), tmpArg1.divide(tmpArg2));
+            }
+
+            TestUtils.assertEquals(new BigDecimal(tmpN1.multiply(tmpD2)).compareTo(new BigDecimal(tmpN2.multiply(tmpD1))), tmpArg1.compareTo(tmpArg2));
+            TestUtils.assertEquals(tmpNumer1 / (double) tmpDenom1, tmpArg1.doubleValue(), myDiff);
+        }
+    }
+
     public void testRationalNumber() {
 
         final RationalNumber tmpRat1 = new RationalNumber(5, 1);
@@ -133,4 +230,18 @@ public class RationalScalarTest extends ScalarTests {
         TestUtils.assertEquals(myExp, myAct, myDiff);
     }
 
+    private void assertFraction(final BigInteger numerator, final BigInteger denominator, final RationalNumber actual) {
+
+        BigInteger tmpNumer = numerator;
+        BigInteger tmpDenom = denominator;
+        if (tmpDenom.signum() < 0) {
+            tmpNumer = tmpNumer.negate();
+            tmpDenom = tmpDenom.negate();
+        }
+        final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
+
+        TestUtils.assertEquals(tmpNumer.divide(tmpGCD), actual.getNumerator());
+        TestUtils.assertEquals(tmpDenom.divide(tmpGCD), actual.getDenominator());
+    }
+
 }